@@ -501,6 +501,36 @@ default RemoteCacheManager getRemoteCacheManager() {
     */
    Map<K, V> getAll(Set<? extends K> keys);
 
+   /**
+    * Publishes the entries for the provided keys in a non blocking fashion. A key will not be published if the entry
+    * was not found in the cache.
+    * <p>
+    * Unlike {@link #getAll(Set)}, the entries are not gathered in a single response: the server returns them in chunks
+    * as soon as their owners respond, and a new chunk is only transferred when the subscriber requests more entries.
+    * <p>
+    * Any subscriber that subscribes to the returned Publisher must not block. It is therefore recommended to offload
+    * any blocking or long running operations to a different thread and not use the invoking one. Failure to do so
+    * may cause concurrent operations to stall.
+    * @param keys      The keys to find values for
+    * @param batchSize The maximum number of entries transferred from the server at a time.
+    * @return Publisher for the entries that were present for the given keys
+    */
+   Publisher<Entry<K, V>> publishAll(Set<? extends K> keys, int batchSize);
+
+   /**
+    * Stores the entries published by the provided publisher in a non blocking fashion, with the default lifespan and
+    * max idle of this cache.
+    * <p>
+    * Unlike {@link #putAll(Map)}, the entries are not gathered in a single request: they are sent to the server in
+    * chunks of at most {@code batchSize} entries, and more entries are only requested from the publisher when the
+    * server is ready to accept a new chunk. Each chunk is written like a separate {@link #putAll(Map)}, so if the
+    * returned stage completes exceptionally some of the entries may have been stored already.
+    * @param entries   The entries to store
+    * @param batchSize The maximum number of entries transferred to the server at a time.
+    * @return stage that completes once all the entries have been stored
+    */
+   CompletionStage<Void> putAll(Publisher<Entry<K, V>> entries, int batchSize);
+
    /**
     * Returns the HotRod protocol version supported by this RemoteCache implementation
     */
@@ -601,6 +601,7 @@ private <K, V> InternalRemoteCache<K, V> createRemoteCache(String cacheName) {
          startRemoteCache(remoteCache);
 
          remoteCache.resolveStorage(pingResponse.getKeyMediaType(), pingResponse.getValueMediaType());
+         remoteCache.resolveServerVersion(pingResponse.getVersion());
 
          // If configuration isn't forcing return value, then caller can still get a different instance
          if (!forceReturnValue) {
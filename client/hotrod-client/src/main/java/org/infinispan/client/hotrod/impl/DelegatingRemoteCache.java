@@ -26,6 +26,7 @@
 import org.infinispan.client.hotrod.DataFormat;
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.ProtocolVersion;
 import org.infinispan.client.hotrod.RemoteCacheContainer;
 import org.infinispan.client.hotrod.ServerStatistics;
 import org.infinispan.client.hotrod.StreamingRemoteCache;
@@ -291,6 +292,16 @@ public CloseableIterator<Entry<Object, MetadataValue<Object>>> retrieveEntriesWi
       return delegate.retrieveEntriesWithMetadata(segments, batchSize);
    }
 
+   @Override
+   public Publisher<Entry<K, V>> publishAll(Set<? extends K> keys, int batchSize) {
+      return delegate.publishAll(keys, batchSize);
+   }
+
+   @Override
+   public CompletionStage<Void> putAll(Publisher<Entry<K, V>> entries, int batchSize) {
+      return delegate.putAll(entries, batchSize);
+   }
+
    @Override
    public Publisher<Entry<K, MetadataValue<V>>> publishEntriesWithMetadata(Set<Integer> segments, int batchSize) {
       return delegate.publishEntriesWithMetadata(segments, batchSize);
@@ -386,6 +397,11 @@ public void resolveStorage() {
       delegate.resolveStorage();
    }
 
+   @Override
+   public void resolveServerVersion(ProtocolVersion version) {
+      delegate.resolveServerVersion(version);
+   }
+
    @Override
    public byte[] keyToBytes(Object o) {
       return delegate.keyToBytes(o);
@@ -0,0 +1,92 @@
+package org.infinispan.client.hotrod.impl;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.client.hotrod.impl.operations.CacheOperationsFactory;
+import org.infinispan.client.hotrod.impl.operations.GetAllStreamResponse;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelRecord;
+import org.infinispan.client.hotrod.impl.transport.netty.OperationDispatcher;
+import org.infinispan.commons.reactive.AbstractAsyncPublisherHandler;
+
+import io.netty.channel.Channel;
+
+/**
+ * Publishes the entries of a streamed getAll. The server retrieves the entries from their owners and returns them in
+ * chunks of at most {@code batchSize} entries, and the next chunk is only requested when the subscriber requests more
+ * entries.
+ */
+class GetAllStreamPublisherHandler<K, V> extends AbstractAsyncPublisherHandler<Set<?>, Map.Entry<K, V>,
+      GetAllStreamResponse<K, V>, GetAllStreamResponse<K, V>> {
+   private final CacheOperationsFactory operationsFactory;
+   private final OperationDispatcher dispatcher;
+   private final AtomicBoolean ended = new AtomicBoolean();
+
+   // Need to be volatile since cancel can come on a different thread
+   private volatile int id;
+   private volatile Channel channel;
+
+   GetAllStreamPublisherHandler(CacheOperationsFactory operationsFactory, OperationDispatcher dispatcher,
+                                Set<?> keys, int batchSize) {
+      super(batchSize, () -> null, keys);
+      this.operationsFactory = operationsFactory;
+      this.dispatcher = dispatcher;
+   }
+
+   @Override
+   protected void sendCancel(Set<?> keys) {
+      // The stream is only known once the first chunk has been received
+      if (channel != null) {
+         endStream();
+      }
+   }
+
+   private void endStream() {
+      if (!ended.getAndSet(true)) {
+         // Just let the end complete asynchronously
+         dispatcher.executeOnSingleAddress(operationsFactory.newGetAllStreamEndOperation(id), ChannelRecord.of(channel));
+      }
+   }
+
+   @Override
+   protected CompletionStage<GetAllStreamResponse<K, V>> sendInitialCommand(Set<?> keys, int batchSize) {
+      return dispatcher.execute(operationsFactory.newGetAllStreamStartOperation(keys, batchSize));
+   }
+
+   @Override
+   protected CompletionStage<GetAllStreamResponse<K, V>> sendNextCommand(Set<?> keys, int batchSize) {
+      return dispatcher.executeOnSingleAddress(operationsFactory.newGetAllStreamNextOperation(id, channel),
+            ChannelRecord.of(channel));
+   }
+
+   @Override
+   protected long handleInitialResponse(GetAllStreamResponse<K, V> response, Set<?> keys) {
+      id = response.id();
+      channel = response.channel();
+      if (checkCancelled() && !response.complete()) {
+         // Cancelled before the first chunk arrived
+         endStream();
+      }
+      return handleNextResponse(response, keys);
+   }
+
+   @Override
+   protected long handleNextResponse(GetAllStreamResponse<K, V> response, Set<?> keys) {
+      if (response.complete()) {
+         // The server discards a stream once it is complete
+         ended.set(true);
+         targetComplete();
+      }
+      long produced = 0;
+      for (Map.Entry<K, V> entry : response.entries().entrySet()) {
+         if (!onNext(new AbstractMap.SimpleImmutableEntry<>(entry))) {
+            break;
+         }
+         produced++;
+      }
+      return produced;
+   }
+}
@@ -20,6 +20,7 @@
 import org.infinispan.api.configuration.CacheConfiguration;
 import org.infinispan.client.hotrod.DataFormat;
 import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.ProtocolVersion;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.VersionedValue;
 import org.infinispan.client.hotrod.configuration.Configuration;
@@ -77,6 +78,13 @@ default void resolveStorage(MediaType key, MediaType value) {
       resolveStorage();
    }
 
+   /**
+    * Sets the protocol version of the server the cache was resolved with, so that the operations added in a newer
+    * version are only sent to the servers supporting them.
+    */
+   default void resolveServerVersion(ProtocolVersion version) {
+   }
+
    @Override
    ClientStatistics clientStatistics();
 
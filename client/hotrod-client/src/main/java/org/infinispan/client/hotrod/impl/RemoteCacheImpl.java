@@ -7,6 +7,8 @@
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -60,6 +62,7 @@
 import org.infinispan.client.hotrod.impl.operations.HotRodOperation;
 import org.infinispan.client.hotrod.impl.operations.PingResponse;
 import org.infinispan.client.hotrod.impl.operations.PutAllBulkOperation;
+import org.infinispan.client.hotrod.impl.operations.PutStreamResponse;
 import org.infinispan.client.hotrod.impl.protocol.Codec30;
 import org.infinispan.client.hotrod.impl.query.RemoteQueryFactory;
 import org.infinispan.client.hotrod.impl.transport.netty.ChannelRecord;
@@ -109,6 +112,7 @@
    protected ClientStatistics clientStatistics;
    protected ObjectName mbeanObjectName;
    protected Marshaller marshaller;
+   protected volatile ProtocolVersion serverVersion;
 
    public RemoteCacheImpl(RemoteCacheManager rcm, String name, TimeService timeService,
                           Function<InternalRemoteCache<K,V>, CacheOperationsFactory> factoryFunction) {
@@ -163,6 +167,7 @@ protected RemoteCacheImpl(RemoteCacheImpl<?, ?> other, int flagInt) {
       this.nameBytes = other.nameBytes;
       this.remoteCacheManager = other.remoteCacheManager;
       this.dataFormat = other.dataFormat;
+      this.serverVersion = other.serverVersion;
       this.clientStatistics = other.clientStatistics;
       this.operationsFactory = other.operationsFactory.newFactoryFor(this);
       this.flagInt = flagInt;
@@ -571,6 +576,69 @@ public CompletableFuture<Map<K, V>> getAllAsync(Set<?> keys) {
             .toCompletableFuture();
    }
 
+   @Override
+   public Publisher<Entry<K, V>> publishAll(Set<? extends K> keys, int batchSize) {
+      assertRemoteCacheManagerIsStarted();
+      if (keys.isEmpty()) {
+         return Flowable.empty();
+      }
+      if (!supportsAllStreams()) {
+         // Retrieve the batches one after the other, so the entries of a single batch are held at a time
+         return Flowable.fromIterable(keys)
+               .buffer(Math.max(batchSize, 1))
+               .concatMapSingle(batch -> Single.fromCompletionStage(getAllAsync(new HashSet<>(batch))))
+               .flatMapIterable(Map::entrySet);
+      }
+      return new GetAllStreamPublisherHandler<K, V>(operationsFactory, dispatcher, keys, batchSize).startPublisher();
+   }
+
+   @Override
+   public CompletionStage<Void> putAll(Publisher<Entry<K, V>> entries, int batchSize) {
+      assertRemoteCacheManagerIsStarted();
+      if (!supportsAllStreams()) {
+         return Flowable.fromPublisher(entries)
+               .buffer(Math.max(batchSize, 1))
+               .concatMapCompletable(batch -> Completable.fromCompletionStage(putAllAsync(toMap(batch))), 1)
+               .toCompletionStage(null);
+      }
+      return dispatcher.execute(operationsFactory.newPutAllStreamStartOperation(defaultLifespan, TimeUnit.MILLISECONDS,
+                  defaultMaxIdleTime, TimeUnit.MILLISECONDS))
+            .thenCompose(psr -> Flowable.fromPublisher(entries)
+                  .buffer(Math.max(batchSize, 1))
+                  // The server only responds once it is ready to accept the next chunk
+                  .concatMapCompletable(batch -> Completable.fromCompletionStage(putAllStreamNext(psr, false, batch)), 1)
+                  .andThen(Completable.defer(() -> Completable.fromCompletionStage(
+                        putAllStreamNext(psr, true, Collections.emptyList()))))
+                  // Just let the end complete asynchronously
+                  .doOnError(t -> dispatcher.executeOnSingleAddress(
+                        operationsFactory.newPutAllStreamEndOperation(psr.id()), ChannelRecord.of(psr.channel())))
+                  .toCompletionStage(null));
+   }
+
+   private static <K, V> Map<K, V> toMap(List<Entry<K, V>> batch) {
+      // The later entries of a key replace the previous ones, as if they were written one after the other
+      Map<K, V> map = new HashMap<>(batch.size());
+      for (Entry<K, V> entry : batch) {
+         map.put(entry.getKey(), entry.getValue());
+      }
+      return map;
+   }
+
+   /**
+    * The streamed getAll and putAll operations were added in the protocol 4.2.
+    */
+   private boolean supportsAllStreams() {
+      ProtocolVersion server = serverVersion;
+      return server != null && server.compareTo(ProtocolVersion.PROTOCOL_VERSION_42) >= 0
+            && remoteCacheManager.getConfiguration().version().compareTo(ProtocolVersion.PROTOCOL_VERSION_42) >= 0;
+   }
+
+   private CompletionStage<Void> putAllStreamNext(PutStreamResponse psr, boolean lastChunk, List<Entry<K, V>> batch) {
+      return dispatcher.executeOnSingleAddress(
+            operationsFactory.newPutAllStreamNextOperation(psr.id(), lastChunk, batch, psr.channel()),
+            ChannelRecord.of(psr.channel()));
+   }
+
    @Override
    public void start() {
       if (log.isDebugEnabled()) {
@@ -812,6 +880,11 @@ public void resolveStorage() {
       this.dataFormat.initialize(remoteCacheManager, name);
    }
 
+   @Override
+   public void resolveServerVersion(ProtocolVersion version) {
+      this.serverVersion = version;
+   }
+
    @Override
    public void resolveStorage(MediaType key, MediaType value) {
       // Set the storage first and initialize the current data format.
@@ -0,0 +1,49 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.netty.ByteBufUtil;
+import org.infinispan.client.hotrod.impl.transport.netty.HeaderDecoder;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads a chunk of a streamed getAll, the response is the same for the start and next requests.
+ */
+abstract class AbstractGetAllStreamOperation<K, V> extends AbstractCacheOperation<GetAllStreamResponse<K, V>> {
+   private int id;
+   private boolean complete;
+   private Map<K, V> entries;
+   private int size = -1;
+
+   protected AbstractGetAllStreamOperation(InternalRemoteCache<?, ?> internalRemoteCache) {
+      super(internalRemoteCache);
+   }
+
+   @Override
+   public void reset() {
+      size = -1;
+      entries = null;
+   }
+
+   @Override
+   public GetAllStreamResponse<K, V> createResponse(ByteBuf buf, short status, HeaderDecoder decoder, Codec codec, CacheUnmarshaller unmarshaller) {
+      if (size < 0) {
+         id = buf.readInt();
+         complete = buf.readBoolean();
+         size = ByteBufUtil.readVInt(buf);
+         entries = new HashMap<>(size);
+         decoder.checkpoint();
+      }
+      while (entries.size() < size) {
+         K key = unmarshaller.readKey(buf);
+         V value = unmarshaller.readValue(buf);
+         entries.put(key, value);
+         decoder.checkpoint();
+      }
+      return new GetAllStreamResponse<>(id, complete, entries, decoder.getChannel());
+   }
+}
@@ -1,5 +1,6 @@
 package org.infinispan.client.hotrod.impl.operations;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -111,6 +112,20 @@ AddClientListenerOperation newAddClientListenerOperation(Object listener, Object
 
    GetStreamEndOperation newGetStreamEndOperation(int id);
 
+   <K, V> HotRodOperation<GetAllStreamResponse<K, V>> newGetAllStreamStartOperation(Set<?> keys, int batchSize);
+
+   <K, V> HotRodOperation<GetAllStreamResponse<K, V>> newGetAllStreamNextOperation(int id, Channel channel);
+
+   GetAllStreamEndOperation newGetAllStreamEndOperation(int id);
+
+   HotRodOperation<PutStreamResponse> newPutAllStreamStartOperation(long lifespan, TimeUnit lifespanUnit,
+                                                                    long maxIdleTime, TimeUnit maxIdleTimeUnit);
+
+   HotRodOperation<Void> newPutAllStreamNextOperation(int id, boolean lastChunk,
+                                                      Collection<? extends Map.Entry<?, ?>> entries, Channel channel);
+
+   PutAllStreamEndOperation newPutAllStreamEndOperation(int id);
+
    HotRodOperation<PutStreamResponse> newPutStreamStartOperation(Object key, long version, long lifespan,
                                                                  TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit);
 
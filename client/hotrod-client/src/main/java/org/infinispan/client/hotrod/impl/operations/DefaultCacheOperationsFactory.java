@@ -1,5 +1,8 @@
 package org.infinispan.client.hotrod.impl.operations;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -209,6 +212,47 @@ public GetStreamEndOperation newGetStreamEndOperation(int id) {
       return new GetStreamEndOperation(remoteCache, id);
    }
 
+   @Override
+   public <K, V> HotRodOperation<GetAllStreamResponse<K, V>> newGetAllStreamStartOperation(Set<?> keys, int batchSize) {
+      Set<byte[]> keyBytes = new HashSet<>(keys.size());
+      for (Object key : keys) {
+         keyBytes.add(remoteCache.getDataFormat().keyToBytes(key));
+      }
+      return new GetAllStreamStartOperation<>(remoteCache, keyBytes, batchSize);
+   }
+
+   @Override
+   public <K, V> HotRodOperation<GetAllStreamResponse<K, V>> newGetAllStreamNextOperation(int id, Channel channel) {
+      return new GetAllStreamNextOperation<>(remoteCache, id, channel);
+   }
+
+   @Override
+   public GetAllStreamEndOperation newGetAllStreamEndOperation(int id) {
+      return new GetAllStreamEndOperation(remoteCache, id);
+   }
+
+   @Override
+   public HotRodOperation<PutStreamResponse> newPutAllStreamStartOperation(long lifespan, TimeUnit lifespanUnit,
+                                                                           long maxIdleTime, TimeUnit maxIdleTimeUnit) {
+      return new PutAllStreamStartOperation(remoteCache, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+   }
+
+   @Override
+   public HotRodOperation<Void> newPutAllStreamNextOperation(int id, boolean lastChunk,
+                                                             Collection<? extends Map.Entry<?, ?>> entries, Channel channel) {
+      Map<byte[], byte[]> entryBytes = new HashMap<>(entries.size());
+      for (Map.Entry<?, ?> entry : entries) {
+         entryBytes.put(remoteCache.getDataFormat().keyToBytes(entry.getKey()),
+               remoteCache.getDataFormat().valueToBytes(entry.getValue()));
+      }
+      return new PutAllStreamNextOperation(remoteCache, id, lastChunk, entryBytes, channel);
+   }
+
+   @Override
+   public PutAllStreamEndOperation newPutAllStreamEndOperation(int id) {
+      return new PutAllStreamEndOperation(remoteCache, id);
+   }
+
    @Override
    public HotRodOperation<PutStreamResponse> newPutStreamStartOperation(Object key, long version, long lifespan,
                                                                         TimeUnit lifespanUnit, long maxIdleTime,
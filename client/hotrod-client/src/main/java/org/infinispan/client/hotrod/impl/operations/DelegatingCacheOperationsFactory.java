@@ -1,5 +1,6 @@
 package org.infinispan.client.hotrod.impl.operations;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -183,6 +184,38 @@ public GetStreamEndOperation newGetStreamEndOperation(int id) {
       return delegate.newGetStreamEndOperation(id);
    }
 
+   @Override
+   public <K, V> HotRodOperation<GetAllStreamResponse<K, V>> newGetAllStreamStartOperation(Set<?> keys, int batchSize) {
+      return delegate.newGetAllStreamStartOperation(keys, batchSize);
+   }
+
+   @Override
+   public <K, V> HotRodOperation<GetAllStreamResponse<K, V>> newGetAllStreamNextOperation(int id, Channel channel) {
+      return delegate.newGetAllStreamNextOperation(id, channel);
+   }
+
+   @Override
+   public GetAllStreamEndOperation newGetAllStreamEndOperation(int id) {
+      return delegate.newGetAllStreamEndOperation(id);
+   }
+
+   @Override
+   public HotRodOperation<PutStreamResponse> newPutAllStreamStartOperation(long lifespan, TimeUnit lifespanUnit,
+                                                                           long maxIdleTime, TimeUnit maxIdleTimeUnit) {
+      return delegate.newPutAllStreamStartOperation(lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+   }
+
+   @Override
+   public HotRodOperation<Void> newPutAllStreamNextOperation(int id, boolean lastChunk,
+                                                             Collection<? extends Map.Entry<?, ?>> entries, Channel channel) {
+      return delegate.newPutAllStreamNextOperation(id, lastChunk, entries, channel);
+   }
+
+   @Override
+   public PutAllStreamEndOperation newPutAllStreamEndOperation(int id) {
+      return delegate.newPutAllStreamEndOperation(id);
+   }
+
    @Override
    public HotRodOperation<PutStreamResponse> newPutStreamStartOperation(Object key, long version, long lifespan,
                                                                         TimeUnit lifespanUnit, long maxIdleTime,
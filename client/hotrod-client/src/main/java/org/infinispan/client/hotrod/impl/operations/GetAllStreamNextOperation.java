@@ -0,0 +1,43 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+public class GetAllStreamNextOperation<K, V> extends AbstractGetAllStreamOperation<K, V> {
+   private final int id;
+   private final Channel channel;
+
+   protected GetAllStreamNextOperation(InternalRemoteCache<?, ?> internalRemoteCache, int id, Channel channel) {
+      super(internalRemoteCache);
+      this.id = id;
+      this.channel = channel;
+   }
+
+   @Override
+   public void writeOperationRequest(Channel channel, ByteBuf buf, Codec codec) {
+      if (channel != this.channel) {
+         throw new TransportException("GetAllStreamNextOperation must be performed on the same Channel", channel.remoteAddress());
+      }
+      buf.writeInt(id);
+   }
+
+   @Override
+   public short requestOpCode() {
+      return HotRodConstants.NEXT_GET_ALL_STREAM_REQUEST;
+   }
+
+   @Override
+   public short responseOpCode() {
+      return HotRodConstants.NEXT_GET_ALL_STREAM_RESPONSE;
+   }
+
+   @Override
+   public boolean supportRetry() {
+      return false;
+   }
+}
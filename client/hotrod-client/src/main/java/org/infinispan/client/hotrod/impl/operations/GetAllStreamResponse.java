@@ -0,0 +1,8 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.Map;
+
+import io.netty.channel.Channel;
+
+public record GetAllStreamResponse<K, V>(int id, boolean complete, Map<K, V> entries, Channel channel) {
+}
@@ -0,0 +1,44 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.Set;
+
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.impl.transport.netty.ByteBufUtil;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Starts a streamed getAll, the server returns the first chunk of entries along with the id of the stream.
+ */
+public class GetAllStreamStartOperation<K, V> extends AbstractGetAllStreamOperation<K, V> {
+   private final Set<byte[]> keys;
+   private final int batchSize;
+
+   protected GetAllStreamStartOperation(InternalRemoteCache<?, ?> internalRemoteCache, Set<byte[]> keys, int batchSize) {
+      super(internalRemoteCache);
+      this.keys = keys;
+      this.batchSize = batchSize;
+   }
+
+   @Override
+   public void writeOperationRequest(Channel channel, ByteBuf buf, Codec codec) {
+      ByteBufUtil.writeVInt(buf, keys.size());
+      for (byte[] key : keys) {
+         ByteBufUtil.writeArray(buf, key);
+      }
+      ByteBufUtil.writeVInt(buf, batchSize);
+   }
+
+   @Override
+   public short requestOpCode() {
+      return HotRodConstants.START_GET_ALL_STREAM_REQUEST;
+   }
+
+   @Override
+   public short responseOpCode() {
+      return HotRodConstants.START_GET_ALL_STREAM_RESPONSE;
+   }
+}
@@ -0,0 +1,77 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.Map;
+
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.ClientStatistics;
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.impl.transport.netty.ByteBufUtil;
+import org.infinispan.client.hotrod.impl.transport.netty.HeaderDecoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Sends a chunk of entries of a streamed putAll. The server only responds once the client can send the next chunk, or,
+ * for the last chunk, once all the entries have been written.
+ */
+public class PutAllStreamNextOperation extends AbstractCacheOperation<Void> {
+   private final int id;
+   private final boolean lastChunk;
+   private final Map<byte[], byte[]> map;
+   private final Channel channel;
+
+   protected PutAllStreamNextOperation(InternalRemoteCache<?, ?> internalRemoteCache, int id, boolean lastChunk,
+                                       Map<byte[], byte[]> map, Channel channel) {
+      super(internalRemoteCache);
+      this.id = id;
+      this.lastChunk = lastChunk;
+      this.map = map;
+      this.channel = channel;
+   }
+
+   @Override
+   public void writeOperationRequest(Channel channel, ByteBuf buf, Codec codec) {
+      if (channel != this.channel) {
+         throw new TransportException("PutAllStreamNextOperation must be performed on the same Channel", channel.remoteAddress());
+      }
+      buf.writeInt(id);
+      buf.writeBoolean(lastChunk);
+      ByteBufUtil.writeVInt(buf, map.size());
+      for (Map.Entry<byte[], byte[]> entry : map.entrySet()) {
+         ByteBufUtil.writeArray(buf, entry.getKey());
+         ByteBufUtil.writeArray(buf, entry.getValue());
+      }
+   }
+
+   @Override
+   public Void createResponse(ByteBuf buf, short status, HeaderDecoder decoder, Codec codec, CacheUnmarshaller unmarshaller) {
+      if (HotRodConstants.isSuccess(status)) {
+         return null;
+      }
+      throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
+   }
+
+   @Override
+   public void handleStatsCompletion(ClientStatistics statistics, long startTime, short status, Void responseValue) {
+      statistics.dataStore(startTime, map.size());
+   }
+
+   @Override
+   public short requestOpCode() {
+      return HotRodConstants.NEXT_PUT_ALL_STREAM_REQUEST;
+   }
+
+   @Override
+   public short responseOpCode() {
+      return HotRodConstants.NEXT_PUT_ALL_STREAM_RESPONSE;
+   }
+
+   @Override
+   public boolean supportRetry() {
+      return false;
+   }
+}
@@ -0,0 +1,50 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.impl.transport.netty.HeaderDecoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Starts a streamed putAll, the server returns the id of the stream the chunks of entries are sent to.
+ */
+public class PutAllStreamStartOperation extends AbstractCacheOperation<PutStreamResponse> {
+   private final long lifespan;
+   private final TimeUnit lifespanUnit;
+   private final long maxIdle;
+   private final TimeUnit maxIdleUnit;
+
+   protected PutAllStreamStartOperation(InternalRemoteCache<?, ?> internalRemoteCache, long lifespan,
+                                        TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit) {
+      super(internalRemoteCache);
+      this.lifespan = lifespan;
+      this.lifespanUnit = lifespanUnit;
+      this.maxIdle = maxIdle;
+      this.maxIdleUnit = maxIdleUnit;
+   }
+
+   @Override
+   public void writeOperationRequest(Channel channel, ByteBuf buf, Codec codec) {
+      codec.writeExpirationParams(buf, lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+   }
+
+   @Override
+   public PutStreamResponse createResponse(ByteBuf buf, short status, HeaderDecoder decoder, Codec codec, CacheUnmarshaller unmarshaller) {
+      return new PutStreamResponse(buf.readInt(), decoder.getChannel());
+   }
+
+   @Override
+   public short requestOpCode() {
+      return HotRodConstants.START_PUT_ALL_STREAM_REQUEST;
+   }
+
+   @Override
+   public short responseOpCode() {
+      return HotRodConstants.START_PUT_ALL_STREAM_RESPONSE;
+   }
+}
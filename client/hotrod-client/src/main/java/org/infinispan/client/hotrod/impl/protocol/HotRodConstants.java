@@ -24,6 +24,7 @@ public interface HotRodConstants {
    byte VERSION_31 = 31;
    byte VERSION_40 = 40;
    byte VERSION_41 = 41;
+   byte VERSION_42 = 42;
 
    //requests
    byte ILLEGAL_OP_CODE = 0x00;
@@ -86,6 +87,12 @@ public interface HotRodConstants {
    short START_GET_STREAM_REQUEST = 0xE9;
    short NEXT_GET_STREAM_REQUEST = 0xE7;
    short END_GET_STREAM_REQUEST = 0xE5;
+   short START_GET_ALL_STREAM_REQUEST = 0xE3;
+   short NEXT_GET_ALL_STREAM_REQUEST = 0xE1;
+   short END_GET_ALL_STREAM_REQUEST = 0xDF;
+   short START_PUT_ALL_STREAM_REQUEST = 0xDD;
+   short NEXT_PUT_ALL_STREAM_REQUEST = 0xDB;
+   short END_PUT_ALL_STREAM_REQUEST = 0xD9;
 
    //responses
    byte PUT_RESPONSE = 0x02;
@@ -150,6 +157,12 @@ public interface HotRodConstants {
    short START_GET_STREAM_RESPONSE = 0xE8;
    short NEXT_GET_STREAM_RESPONSE = 0xE6;
    short END_GET_STREAM_RESPONSE = 0xE4;
+   short START_GET_ALL_STREAM_RESPONSE = 0xE2;
+   short NEXT_GET_ALL_STREAM_RESPONSE = 0xE0;
+   short END_GET_ALL_STREAM_RESPONSE = 0xDE;
+   short START_PUT_ALL_STREAM_RESPONSE = 0xDC;
+   short NEXT_PUT_ALL_STREAM_RESPONSE = 0xDA;
+   short END_PUT_ALL_STREAM_RESPONSE = 0xD8;
 
    //response status
    byte NO_ERROR_STATUS = 0x00;
@@ -4,11 +4,15 @@
 import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killServers;
 import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
@@ -16,9 +20,12 @@
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.server.hotrod.HotRodServer;
 import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.testing.Exceptions;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 /**
  * Tests functionality related to getting multiple entries from a HotRod server
  * using getAll method.
@@ -37,6 +44,10 @@ public abstract class BaseGetAllTest extends MultipleCacheManagersTest {
 
    protected abstract ConfigurationBuilder clusterConfig();
 
+   protected ProtocolVersion protocolVersion() {
+      return ProtocolVersion.DEFAULT_PROTOCOL_VERSION;
+   }
+
    @Override
    protected void createCacheManagers() throws Throwable {
       final int numServers = numberOfHotRodServers();
@@ -52,7 +63,7 @@ protected void createCacheManagers() throws Throwable {
       String servers = HotRodClientTestingUtil.getServersString(hotrodServers);
       org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
             HotRodClientTestingUtil.newRemoteConfigurationBuilder();
-      clientBuilder.addServers(servers);
+      clientBuilder.addServers(servers).version(protocolVersion());
       remoteCacheManager = new RemoteCacheManager(clientBuilder.build());
       remoteCache = remoteCacheManager.getCache();
    }
@@ -82,6 +93,57 @@ public void testBulkGetKeys() {
       }
    }
 
+   public void testPublishAll() {
+      Set<Integer> keys = new HashSet<>(populateCacheManager());
+      // keys that don't exist are not published
+      keys.add(100);
+      keys.add(101);
+      List<Entry<Object, Object>> entries = Flowable.fromPublisher(remoteCache.publishAll(keys, 7))
+            .toList()
+            .blockingGet();
+      assertEquals(100, entries.size());
+      Map<Object, Object> map = new HashMap<>();
+      for (Entry<Object, Object> entry : entries) {
+         assertEquals(entry.getKey(), entry.getValue());
+         assertNull(map.put(entry.getKey(), entry.getValue()));
+      }
+   }
+
+   public void testPublishAllCancelled() {
+      Set<Integer> keys = populateCacheManager();
+      List<Entry<Object, Object>> entries = Flowable.fromPublisher(remoteCache.publishAll(keys, 10))
+            .take(15)
+            .toList()
+            .blockingGet();
+      assertEquals(15, entries.size());
+      // the connection can still be used after the stream was ended
+      assertEquals(100, remoteCache.getAll(keys).size());
+   }
+
+   public void testPutAllPublisher() {
+      Flowable<Entry<Object, Object>> entries = Flowable.range(0, 100).map(i -> Map.<Object, Object>entry(i, i));
+      remoteCache.putAll(entries, 7).toCompletableFuture().join();
+      Set<Object> keys = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         keys.add(i);
+      }
+      Map<Object, Object> map = remoteCache.getAll(keys);
+      assertEquals(100, map.size());
+      for (int i = 0; i < 100; i++) {
+         assertEquals(i, map.get(i));
+      }
+   }
+
+   public void testPutAllPublisherFailure() {
+      Flowable<Entry<Object, Object>> entries = Flowable.range(0, 100)
+            .<Entry<Object, Object>>map(i -> Map.entry(i, i))
+            .concatWith(Flowable.error(new IllegalStateException("Expected")));
+      CompletableFuture<Void> stage = remoteCache.putAll(entries, 10).toCompletableFuture();
+      Exceptions.expectExecutionException(IllegalStateException.class, stage);
+      // the connection can still be used after the stream was ended
+      assertEquals(100, remoteCache.getAll(populateCacheManager()).size());
+   }
+
    public void testBulkGetAfterLifespanExpire() throws InterruptedException {
       Map<String, String> dataIn = new HashMap<String, String>();
       dataIn.put("aKey", "aValue");
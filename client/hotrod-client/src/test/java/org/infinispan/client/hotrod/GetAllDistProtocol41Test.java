@@ -0,0 +1,18 @@
+package org.infinispan.client.hotrod;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests the streamed getAll and putAll with a client using the protocol 4.1, which falls back to the getAll and putAll
+ * operations in batches.
+ *
+ * @since 16.2
+ */
+@Test(testName = "client.hotrod.GetAllDistProtocol41Test", groups = "functional")
+public class GetAllDistProtocol41Test extends GetAllDistTest {
+
+   @Override
+   protected ProtocolVersion protocolVersion() {
+      return ProtocolVersion.PROTOCOL_VERSION_41;
+   }
+}
@@ -0,0 +1,21 @@
+package org.infinispan.commons.jdkspecific;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Releases file mappings without waiting for the {@link MappedByteBuffer} to be garbage collected.
+ *
+ * @since 16.2
+ */
+public final class MappedBuffers {
+
+   private MappedBuffers() { }
+
+   /**
+    * Unmaps the given buffer. The caller must make sure neither the buffer nor any view of it is accessed afterwards,
+    * as that would read unmapped memory and crash the JVM.
+    */
+   public static void unmap(MappedByteBuffer buffer) {
+      UnsafeHolder.UNSAFE.invokeCleaner(buffer);
+   }
+}
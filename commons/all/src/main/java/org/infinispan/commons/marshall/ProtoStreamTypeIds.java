@@ -528,6 +528,10 @@ public interface ProtoStreamTypeIds {
    // Memcached 5000 -> 5099
    int MEMCACHED_LOWER_BOUND = 5000;
    int MEMCACHED_METADATA = MEMCACHED_LOWER_BOUND;
+   int MEMCACHED_CONCAT_FUNCTION = MEMCACHED_LOWER_BOUND + 1;
+   int MEMCACHED_ADD_FUNCTION = MEMCACHED_LOWER_BOUND + 2;
+   int MEMCACHED_REPLACE_FUNCTION = MEMCACHED_LOWER_BOUND + 3;
+   int MEMCACHED_INCREMENT_FUNCTION = MEMCACHED_LOWER_BOUND + 4;
 
    // RocksDB 5100 -> 5199
    int ROCKSDB_LOWER_BOUND = 5100;
@@ -689,6 +693,9 @@ public interface ProtoStreamTypeIds {
    int RESP_TOPK_INFO_FUNCTION = RESP_LOWER_BOUND + 69;
    int RESP_TOPK_COUNT_FUNCTION = RESP_LOWER_BOUND + 70;
    int RESP_TOPK_INFO = RESP_LOWER_BOUND + 71;
+   int RESP_PUBLISH_TASK = RESP_LOWER_BOUND + 72;
+   int RESP_INVALIDATE_SCRIPT_RESULTS_TASK = RESP_LOWER_BOUND + 73;
+   int RESP_EXISTING_KEY_FUNCTION = RESP_LOWER_BOUND + 74;
 
    // Clustered Locks 6300 -> 6399
    int CLUSTERED_LOCK_LOWER_BOUND = 6300;
@@ -699,6 +706,8 @@ public interface ProtoStreamTypeIds {
    int CLUSTERED_LOCK_FUNCTION_UNLOCK = CLUSTERED_LOCK_LOWER_BOUND + 4;
    int CLUSTERED_LOCK_STATE = CLUSTERED_LOCK_LOWER_BOUND + 5;
    int CLUSTERED_LOCK_VALUE = CLUSTERED_LOCK_LOWER_BOUND + 6;
+   int CLUSTERED_LOCK_WAITER = CLUSTERED_LOCK_LOWER_BOUND + 7;
+   int CLUSTERED_LOCK_FUNCTION_FENCING_TOKEN = CLUSTERED_LOCK_LOWER_BOUND + 8;
 
    // Remote Store 6400 -> 6499
    int REMOTE_STORE_LOWER_BOUND = 6400;
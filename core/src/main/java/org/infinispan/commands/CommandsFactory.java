@@ -435,6 +435,13 @@ ComputeIfAbsentCommand buildComputeIfAbsentCommand(Object key, Function mappingF
     */
    StateResponseCommand buildStateResponseCommand(int viewId, Collection<StateChunk> stateChunks, boolean applyState);
 
+   /**
+    * Builds a StateResponseCommand with state chunks marshalled and compressed with
+    * {@link org.infinispan.util.LZ4BlockCodec}.
+    */
+   StateResponseCommand buildStateResponseCommand(int viewId, byte[] compressedChunks, int uncompressedLength,
+                                                  boolean applyState);
+
    /**
     * Retrieves the cache name this CommandFactory is set up to construct commands for.
     * @return the name of the cache this CommandFactory is set up to construct commands for.
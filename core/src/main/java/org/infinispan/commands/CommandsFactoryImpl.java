@@ -350,6 +350,12 @@ public StateResponseCommand buildStateResponseCommand(int topologyId, Collection
       return new StateResponseCommand(cacheName, topologyId, stateChunks, applyState);
    }
 
+   @Override
+   public StateResponseCommand buildStateResponseCommand(int topologyId, byte[] compressedChunks,
+                                                         int uncompressedLength, boolean applyState) {
+      return new StateResponseCommand(cacheName, topologyId, compressedChunks, uncompressedLength, applyState);
+   }
+
    @Override
    public String getCacheName() {
       return cacheName.toString();
@@ -9,6 +9,7 @@
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.conflict.impl.StateReceiver;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.marshall.protostream.impl.MarshallableCollection;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
@@ -16,6 +17,7 @@
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.statetransfer.StateConsumer;
 import org.infinispan.util.ByteString;
+import org.infinispan.util.LZ4BlockCodec;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -48,20 +50,52 @@ public class StateResponseCommand extends BaseRpcCommand implements TopologyAffe
    @ProtoField(4)
    boolean applyState;
 
-   @ProtoFactory
+   /**
+    * The state chunks, marshalled and compressed with {@link LZ4BlockCodec}, instead of {@link #stateChunks}. Only sent
+    * when all the members are 16.2 or later.
+    */
+   @ProtoField(5)
+   byte[] compressedChunks;
+
+   /**
+    * The length of the marshalled state chunks before compression.
+    */
+   @ProtoField(6)
+   int uncompressedLength;
+
    public StateResponseCommand(ByteString cacheName, int topologyId, Collection<StateChunk> stateChunks,
                                boolean applyState) {
+      this(cacheName, topologyId, stateChunks, applyState, null, 0);
+   }
+
+   public StateResponseCommand(ByteString cacheName, int topologyId, byte[] compressedChunks, int uncompressedLength,
+                               boolean applyState) {
+      this(cacheName, topologyId, null, applyState, compressedChunks, uncompressedLength);
+   }
+
+   @ProtoFactory
+   StateResponseCommand(ByteString cacheName, int topologyId, Collection<StateChunk> stateChunks, boolean applyState,
+                        byte[] compressedChunks, int uncompressedLength) {
       super(cacheName);
       this.topologyId = topologyId;
       this.stateChunks = stateChunks;
       this.applyState = applyState;
+      this.compressedChunks = compressedChunks;
+      this.uncompressedLength = uncompressedLength;
    }
 
    @Override
+   @SuppressWarnings("unchecked")
    public CompletionStage<?> invokeAsync(ComponentRegistry componentRegistry) throws Throwable {
       final boolean trace = log.isTraceEnabled();
       LogFactory.pushNDC(cacheName, trace);
       try {
+         if (compressedChunks != null) {
+            byte[] bytes = LZ4BlockCodec.decompress(compressedChunks, uncompressedLength);
+            stateChunks = MarshallableCollection.unwrap(
+                  (MarshallableCollection<StateChunk>) componentRegistry.getInternalMarshaller().objectFromByteBuffer(bytes));
+            compressedChunks = null;
+         }
          if (applyState) {
             StateConsumer stateConsumer = componentRegistry.getStateTransferManager().getStateConsumer();
             return stateConsumer.applyState(origin, topologyId, stateChunks);
@@ -90,6 +124,9 @@ public void setTopologyId(int topologyId) {
       this.topologyId = topologyId;
    }
 
+   /**
+    * @return the state chunks, or {@code null} if they are compressed and the command was not invoked yet.
+    */
    public Collection<StateChunk> getStateChunks() {
       return stateChunks;
    }
@@ -104,6 +141,7 @@ public String toString() {
       return "StateResponseCommand{" +
             "cache=" + cacheName +
             ", stateChunks=" + stateChunks +
+            (compressedChunks != null ? ", compressedLength=" + compressedChunks.length : "") +
             ", origin=" + origin +
             ", topologyId=" + topologyId +
             ", applyState=" + applyState +
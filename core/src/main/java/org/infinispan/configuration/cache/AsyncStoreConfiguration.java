@@ -4,6 +4,7 @@
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.attributes.ConfigurationElement;
+import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.parsing.Element;
 
 /**
@@ -17,9 +18,11 @@ public class AsyncStoreConfiguration extends ConfigurationElement<AsyncStoreConf
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ENABLED, false).immutable().build();
    public static final AttributeDefinition<Integer> MODIFICATION_QUEUE_SIZE  = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MODIFICATION_QUEUE_SIZE, 1024).immutable().build();
    public static final AttributeDefinition<Boolean> FAIL_SILENTLY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FAIL_SILENTLY, false).immutable().build();
+   public static final AttributeDefinition<Integer> BATCH_LANES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.BATCH_LANES, 1).immutable().build();
+   public static final AttributeDefinition<TimeQuantity> TARGET_BATCH_LATENCY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TARGET_BATCH_LATENCY, TimeQuantity.valueOf(0)).parser(TimeQuantity.PARSER).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, FAIL_SILENTLY);
+      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, FAIL_SILENTLY, BATCH_LANES, TARGET_BATCH_LATENCY);
    }
 
    private final Attribute<Boolean> failSilently;
@@ -49,4 +52,22 @@ public int modificationQueueSize() {
    public boolean failSilently() {
       return failSilently.get();
    }
+
+   /**
+    * The number of batches that can be written to the underlying store at the same time. The modifications are
+    * partitioned in lanes by segment, or by key if the store is not segmented, so the modifications to a key are
+    * always written in order.
+    */
+   public int batchLanes() {
+      return attributes.attribute(BATCH_LANES).get();
+   }
+
+   /**
+    * The time, in milliseconds, a batch should take to be written to the underlying store. When greater than 0, the
+    * size of the batches of each lane is halved when a batch takes longer, and grows again while the batches are full
+    * and faster. When 0, a batch contains all the pending modifications of its lane.
+    */
+   public long targetBatchLatency() {
+      return attributes.attribute(TARGET_BATCH_LATENCY).get().longValue();
+   }
 }
@@ -1,12 +1,16 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.BATCH_LANES;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.ENABLED;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FAIL_SILENTLY;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.TARGET_BATCH_LATENCY;
+import static org.infinispan.util.logging.Log.CONFIG;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.TimeQuantity;
 
 /**
  * Configuration for the async cache store. If enabled, this configuration provides
@@ -79,6 +83,44 @@ public AsyncStoreConfigurationBuilder<S> failSilently(boolean failSilently) {
       return this;
    }
 
+   /**
+    * Sets the number of batches that can be written to the underlying store at the same time. The modifications are
+    * partitioned in lanes by segment, or by key if the store is not segmented, so the modifications to a key are
+    * always written in order. Defaults to 1.
+    */
+   public AsyncStoreConfigurationBuilder<S> batchLanes(int batchLanes) {
+      attributes.attribute(BATCH_LANES).set(batchLanes);
+      return this;
+   }
+
+   /**
+    * Sets the time, in milliseconds, a batch should take to be written to the underlying store. The size of the
+    * batches adapts to the observed latency of the store. Defaults to 0, where a batch contains all the pending
+    * modifications of its lane.
+    */
+   public AsyncStoreConfigurationBuilder<S> targetBatchLatency(long targetBatchLatency) {
+      attributes.attribute(TARGET_BATCH_LATENCY).set(TimeQuantity.valueOf(targetBatchLatency));
+      return this;
+   }
+
+   /**
+    * Same as {@link #targetBatchLatency(long)} but supporting time units
+    */
+   public AsyncStoreConfigurationBuilder<S> targetBatchLatency(String targetBatchLatency) {
+      attributes.attribute(TARGET_BATCH_LATENCY).set(TimeQuantity.valueOf(targetBatchLatency));
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (attributes.attribute(BATCH_LANES).get() < 1) {
+         throw CONFIG.invalidWriteBehindBatchLanes(attributes.attribute(BATCH_LANES).get());
+      }
+      if (attributes.attribute(TARGET_BATCH_LATENCY).get().longValue() < 0) {
+         throw CONFIG.invalidWriteBehindTargetBatchLatency(attributes.attribute(TARGET_BATCH_LATENCY).get().longValue());
+      }
+   }
+
    @Override
    public AsyncStoreConfiguration create() {
       return new AsyncStoreConfiguration(attributes.protect());
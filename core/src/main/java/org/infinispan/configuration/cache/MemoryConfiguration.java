@@ -21,9 +21,10 @@ public class MemoryConfiguration extends ConfigurationElement<MemoryConfiguratio
    public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(Attribute.MAX_COUNT, -1L).build();
    public static final AttributeDefinition<EvictionStrategy> WHEN_FULL = AttributeDefinition.builder(Attribute.WHEN_FULL, EvictionStrategy.NONE).immutable().build();
    public static final AttributeDefinition<String> EVICTION_CONTAINER = AttributeDefinition.builder(Attribute.EVICTION_CONTAINER, null, String.class).immutable().build();
+   public static final AttributeDefinition<Boolean> POOLED_ALLOCATOR = AttributeDefinition.builder(Attribute.POOLED_ALLOCATOR, false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, EVICTION_CONTAINER);
+      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, EVICTION_CONTAINER, POOLED_ALLOCATOR);
    }
 
    MemoryConfiguration(AttributeSet attributes) {
@@ -101,6 +102,13 @@ public String evictionContainer() {
       return attributes.attribute(EVICTION_CONTAINER).get();
    }
 
+   /**
+    * @return true if off-heap entries are allocated from pooled slabs instead of directly from the native allocator
+    */
+   public boolean pooledAllocator() {
+      return attributes.attribute(POOLED_ALLOCATOR).get();
+   }
+
    private boolean isSizeBounded() {
       return maxSize() != null;
    }
@@ -120,6 +120,24 @@ public String evictionContainer() {
       return attributes.attribute(MemoryConfiguration.EVICTION_CONTAINER).get();
    }
 
+   /**
+    * Allocates the off-heap entries from slabs of native memory divided in size classes, with per-thread caches of
+    * free memory, instead of allocating and freeing native memory for every entry. This gives a more predictable
+    * allocation latency and avoids fragmenting the native heap, but the slabs are only released when the cache
+    * stops, so the reported off-heap memory stays at the peak usage. Only applies to {@link StorageType#OFF_HEAP}.
+    *
+    * @param pooledAllocator whether to pool the off-heap memory
+    * @return this
+    */
+   public MemoryConfigurationBuilder pooledAllocator(boolean pooledAllocator) {
+      attributes.attribute(MemoryConfiguration.POOLED_ALLOCATOR).set(pooledAllocator);
+      return this;
+   }
+
+   public boolean pooledAllocator() {
+      return attributes.attribute(MemoryConfiguration.POOLED_ALLOCATOR).get();
+   }
+
    private void checkBinaryRequirement() {
       if (!storage().canStoreReferences()) {
          if (getBuilder().clustering().hash().groups().isEnabled()) {
@@ -18,9 +18,11 @@ public class PersistenceConfiguration extends ConfigurationElement<PersistenceCo
    public static final AttributeDefinition<Integer> CONNECTION_ATTEMPTS = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CONNECTION_ATTEMPTS, 10).build();
    @Deprecated(forRemoval=true, since = "15.0")
    public static final AttributeDefinition<TimeQuantity> CONNECTION_INTERVAL = AttributeDefinition.builder(Attribute.CONNECTION_INTERVAL, TimeQuantity.valueOf("50s")).parser(TimeQuantity.PARSER).immutable().deprecated(15, 0).build();
+   public static final AttributeDefinition<PreloadMode> PRELOAD_MODE = AttributeDefinition.builder(Attribute.PRELOAD_MODE, PreloadMode.SEQUENTIAL).immutable().build();
+   public static final AttributeDefinition<Boolean> AVAILABLE_DURING_PRELOAD = AttributeDefinition.builder(Attribute.AVAILABLE_DURING_PRELOAD, false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION, AVAILABILITY_INTERVAL, CONNECTION_ATTEMPTS, CONNECTION_INTERVAL);
+      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION, AVAILABILITY_INTERVAL, CONNECTION_ATTEMPTS, CONNECTION_INTERVAL, PRELOAD_MODE, AVAILABLE_DURING_PRELOAD);
    }
 
    private final List<StoreConfiguration> stores;
@@ -60,6 +62,21 @@ public int connectionInterval() {
       return -1;
    }
 
+   /**
+    * How the entries of the store with {@link StoreConfiguration#preload()} enabled are loaded in memory.
+    */
+   public PreloadMode preloadMode() {
+      return attributes.attribute(PRELOAD_MODE).get();
+   }
+
+   /**
+    * If true, the cache starts serving requests while the entries are preloaded. Writes to a segment wait until the
+    * segment is loaded, while reads of entries not loaded yet are served from the store.
+    */
+   public boolean availableDuringPreload() {
+      return attributes.attribute(AVAILABLE_DURING_PRELOAD).get();
+   }
+
    public List<StoreConfiguration> stores() {
       return stores;
    }
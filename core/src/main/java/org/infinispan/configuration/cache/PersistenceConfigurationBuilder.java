@@ -1,8 +1,10 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.PersistenceConfiguration.AVAILABILITY_INTERVAL;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.AVAILABLE_DURING_PRELOAD;
 import static org.infinispan.configuration.cache.PersistenceConfiguration.CONNECTION_ATTEMPTS;
 import static org.infinispan.configuration.cache.PersistenceConfiguration.PASSIVATION;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.PRELOAD_MODE;
 import static org.infinispan.util.logging.Log.CONFIG;
 
 import java.lang.reflect.Constructor;
@@ -81,6 +83,25 @@ public PersistenceConfigurationBuilder connectionInterval(int interval) {
       return this;
    }
 
+   /**
+    * Defines how the entries of the store with {@link StoreConfigurationBuilder#preload(boolean)} enabled are loaded in
+    * memory when the cache starts. Defaults to {@link PreloadMode#SEQUENTIAL}.
+    */
+   public PersistenceConfigurationBuilder preloadMode(PreloadMode preloadMode) {
+      attributes.attribute(PRELOAD_MODE).set(preloadMode);
+      return this;
+   }
+
+   /**
+    * If true, the cache starts serving requests before all the entries are preloaded: writes to a segment wait until
+    * the segment is loaded, while reads of the entries not loaded yet are served from the store. Requires
+    * {@link PreloadMode#PARALLEL} and a local, non-transactional cache. Defaults to {@code false}.
+    */
+   public PersistenceConfigurationBuilder availableDuringPreload(boolean availableDuringPreload) {
+      attributes.attribute(AVAILABLE_DURING_PRELOAD).set(availableDuringPreload);
+      return this;
+   }
+
    /**
     * If true, data is written to the cache store only when it is evicted from memory, which is known as 'passivation'.
     * When the data is requested again it is activated, which returns the data to memory and removes it from the
@@ -167,6 +188,11 @@ public void validate() {
       if (numPreload > 1) {
          throw CONFIG.onlyOnePreloadStoreAllowed();
       }
+      if (attributes.attribute(AVAILABLE_DURING_PRELOAD).get() &&
+            (attributes.attribute(PRELOAD_MODE).get() != PreloadMode.PARALLEL || !isLocalCache ||
+                  builder.transaction().transactionMode().isTransactional())) {
+         throw CONFIG.availableDuringPreloadNotSupported();
+      }
 
       // If a store is present, the reaper expiration thread must be enabled.
       if (!stores.isEmpty()) {
@@ -0,0 +1,21 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Defines how the entries of the store with {@link StoreConfiguration#preload()} enabled are loaded in memory when the
+ * cache starts.
+ *
+ * @since 16.2
+ */
+public enum PreloadMode {
+   /**
+    * Entries are written one at a time through the interceptor chain, like regular writes.
+    */
+   SEQUENTIAL,
+   /**
+    * Segments are loaded in parallel and their entries are inserted directly in the data container, in batches.
+    * <p>
+    * Caches whose preloaded entries must go through the interceptor chain fall back to {@link #SEQUENTIAL}: transactional
+    * caches, caches with cross-site backups and caches that must index the preloaded entries.
+    */
+   PARALLEL
+}
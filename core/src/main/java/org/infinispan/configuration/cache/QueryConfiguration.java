@@ -1,5 +1,10 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.commons.configuration.attributes.CollectionAttributeCopier.collectionCopier;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import org.infinispan.commons.configuration.AbstractTypedPropertiesConfiguration;
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
@@ -13,9 +18,13 @@ public class QueryConfiguration extends ConfigurationElement<QueryConfiguration>
 
    public static final AttributeDefinition<Integer> DEFAULT_MAX_RESULTS = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.DEFAULT_MAX_RESULTS, 100).immutable().build();
    public static final AttributeDefinition<Integer> HIT_COUNT_ACCURACY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.HIT_COUNT_ACCURACY, 10_000).immutable().build();
+   public static final AttributeDefinition<Integer> RESULT_CACHE_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.RESULT_CACHE_SIZE, 0).immutable().build();
+   public static final AttributeDefinition<List<SecondaryIndex>> SECONDARY_INDEXES = AttributeDefinition.builder(Element.SECONDARY_INDEXES, null, (Class<List<SecondaryIndex>>) (Class<?>) List.class)
+         .copier(collectionCopier())
+         .initializer(ArrayList::new).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(QueryConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(), DEFAULT_MAX_RESULTS, HIT_COUNT_ACCURACY);
+      return new AttributeSet(QueryConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(), DEFAULT_MAX_RESULTS, HIT_COUNT_ACCURACY, RESULT_CACHE_SIZE, SECONDARY_INDEXES);
    }
 
    protected QueryConfiguration(AttributeSet attributes) {
@@ -39,4 +48,20 @@ public int defaultMaxResults() {
    public int hitCountAccuracy() {
       return attributes.attribute(HIT_COUNT_ACCURACY).get();
    }
+
+   /**
+    * The maximum number of query results cached for this cache. The cached results are invalidated by the writes to
+    * the entities of the queried type. A value of 0 disables the result cache.
+    */
+   public int resultCacheSize() {
+      return attributes.attribute(RESULT_CACHE_SIZE).get();
+   }
+
+   /**
+    * The secondary indexes of the non-indexed queries. They are kept in memory and maintained on every write, and they
+    * resolve the equality, {@code IN} and range predicates on the indexed fields without scanning the whole cache.
+    */
+   public List<SecondaryIndex> secondaryIndexes() {
+      return attributes.attribute(SECONDARY_INDEXES).get();
+   }
 }
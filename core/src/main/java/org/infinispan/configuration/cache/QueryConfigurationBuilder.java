@@ -2,10 +2,15 @@
 
 import static org.infinispan.configuration.cache.QueryConfiguration.DEFAULT_MAX_RESULTS;
 import static org.infinispan.configuration.cache.QueryConfiguration.HIT_COUNT_ACCURACY;
+import static org.infinispan.configuration.cache.QueryConfiguration.RESULT_CACHE_SIZE;
+import static org.infinispan.configuration.cache.QueryConfiguration.SECONDARY_INDEXES;
+
+import java.util.List;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.util.logging.Log;
 
 public class QueryConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<QueryConfiguration> {
 
@@ -55,6 +60,56 @@ public int hitCountAccuracy() {
       return attributes.attribute(HIT_COUNT_ACCURACY).get();
    }
 
+   /**
+    * Sets the maximum number of query results cached for this cache. Identical queries with identical parameters are
+    * answered from the result cache until a write to an entity of the queried type invalidates them.
+    * Default value is 0, which disables the result cache.
+    *
+    * @param resultCacheSize The value to apply
+    * @return <code>this</code>, for method chaining
+    */
+   public QueryConfigurationBuilder resultCacheSize(int resultCacheSize) {
+      attributes.attribute(RESULT_CACHE_SIZE).set(resultCacheSize);
+      return this;
+   }
+
+   public int resultCacheSize() {
+      return attributes.attribute(RESULT_CACHE_SIZE).get();
+   }
+
+   /**
+    * Adds a secondary index on a field of an entity. The non-indexed queries use it to resolve the equality,
+    * {@code IN} and, with the {@link SecondaryIndexType#RANGE} type, the range predicates on the field without
+    * scanning the whole cache. The secondary indexes are kept in memory and are maintained on every write.
+    *
+    * @param entity the fully qualified name of the entity class
+    * @param field  the path of the indexed field, with the nested fields separated by dots
+    * @param type   the structure of the index
+    * @return <code>this</code>, for method chaining
+    */
+   public QueryConfigurationBuilder addSecondaryIndex(String entity, String field, SecondaryIndexType type) {
+      if (entity == null || entity.isEmpty() || field == null || field.isEmpty()) {
+         throw Log.CONFIG.invalidSecondaryIndex(entity, field);
+      }
+      List<SecondaryIndex> secondaryIndexes = secondaryIndexes();
+      secondaryIndexes.add(new SecondaryIndex(entity, field, type));
+      attributes.attribute(SECONDARY_INDEXES).set(secondaryIndexes);
+      return this;
+   }
+
+   /**
+    * Adds a secondary index on a field of an entity.
+    *
+    * @see #addSecondaryIndex(String, String, SecondaryIndexType)
+    */
+   public QueryConfigurationBuilder addSecondaryIndex(Class<?> entity, String field, SecondaryIndexType type) {
+      return addSecondaryIndex(entity.getName(), field, type);
+   }
+
+   public List<SecondaryIndex> secondaryIndexes() {
+      return attributes.attribute(SECONDARY_INDEXES).get();
+   }
+
    @Override
    public QueryConfiguration create() {
       return new QueryConfiguration(attributes.protect());
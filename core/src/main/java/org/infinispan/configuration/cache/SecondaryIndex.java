@@ -0,0 +1,12 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * A secondary index of a field of an entity, used by the non-indexed queries.
+ *
+ * @param entity the fully qualified name of the entity class.
+ * @param field  the path of the indexed field, with the nested fields separated by dots.
+ * @param type   the structure of the index.
+ * @since 16.2
+ */
+public record SecondaryIndex(String entity, String field, SecondaryIndexType type) {
+}
@@ -0,0 +1,32 @@
+package org.infinispan.configuration.cache;
+
+import java.util.EnumSet;
+
+import org.infinispan.commons.logging.Log;
+
+/**
+ * The structure of a secondary index of the non-indexed queries, see {@link QueryConfiguration#secondaryIndexes()}.
+ *
+ * @since 16.2
+ */
+public enum SecondaryIndexType {
+
+   /**
+    * Resolves the equality and the {@code IN} predicates.
+    */
+   HASH,
+
+   /**
+    * Keeps the values sorted and resolves the range predicates in addition to the equality and the {@code IN}
+    * predicates.
+    */
+   RANGE;
+
+   public static SecondaryIndexType requireValid(String value) {
+      try {
+         return SecondaryIndexType.valueOf(value.toUpperCase());
+      } catch (IllegalArgumentException e) {
+         throw Log.CONFIG.illegalEnumValue(value, EnumSet.allOf(SecondaryIndexType.class));
+      }
+   }
+}
@@ -0,0 +1,18 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Defines how the state chunks sent to a node joining the cluster are compressed.
+ *
+ * @since 16.2
+ */
+public enum StateTransferCompression {
+   /**
+    * The chunks are sent as they are.
+    */
+   NONE,
+   /**
+    * The chunks are marshalled and compressed with the LZ4 block format before they are sent. Requires more CPU on
+    * both the sending and the receiving node, but reduces the network traffic when the values compress well.
+    */
+   LZ4
+}
@@ -18,15 +18,22 @@ public class StateTransferConfiguration extends ConfigurationElement<StateTransf
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ENABLED, true).immutable().build();
    public static final AttributeDefinition<TimeQuantity> TIMEOUT = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TIMEOUT, TimeQuantity.valueOf("4m")).parser(TimeQuantity.PARSER).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CHUNK_SIZE, 512).immutable().build();
+   public static final AttributeDefinition<Integer> CHUNK_BYTES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CHUNK_BYTES, 0).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_IN_FLIGHT_CHUNKS = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_IN_FLIGHT_CHUNKS, 1).immutable().build();
+   public static final AttributeDefinition<StateTransferCompression> COMPRESSION = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.COMPRESSION, StateTransferCompression.NONE).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER,
+            CHUNK_BYTES, MAX_IN_FLIGHT_CHUNKS, COMPRESSION);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
    private final Attribute<Boolean> fetchInMemoryState;
    private final Attribute<TimeQuantity> timeout;
    private final Attribute<Integer> chunkSize;
+   private final Attribute<Integer> chunkBytes;
+   private final Attribute<Integer> maxInFlightChunks;
+   private final Attribute<StateTransferCompression> compression;
 
    StateTransferConfiguration(AttributeSet attributes) {
       super(Element.STATE_TRANSFER, attributes);
@@ -34,6 +41,9 @@ static AttributeSet attributeDefinitionSet() {
       fetchInMemoryState = attributes.attribute(FETCH_IN_MEMORY_STATE);
       timeout = attributes.attribute(TIMEOUT);
       chunkSize = attributes.attribute(CHUNK_SIZE);
+      chunkBytes = attributes.attribute(CHUNK_BYTES);
+      maxInFlightChunks = attributes.attribute(MAX_IN_FLIGHT_CHUNKS);
+      compression = attributes.attribute(COMPRESSION);
    }
 
    /**
@@ -63,6 +73,29 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * The maximum estimated size, in bytes, of the entries sent in a single batch. A batch is sent when it reaches either
+    * {@link #chunkSize()} entries or {@code chunkBytes} bytes. {@code 0} means the batches are only limited by
+    * {@link #chunkSize()}.
+    */
+   public int chunkBytes() {
+      return chunkBytes.get();
+   }
+
+   /**
+    * The maximum number of batches sent to the same node without waiting for their acknowledgement.
+    */
+   public int maxInFlightChunks() {
+      return maxInFlightChunks.get();
+   }
+
+   /**
+    * How the batches are compressed before they are sent.
+    */
+   public StateTransferCompression compression() {
+      return compression.get();
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -1,8 +1,11 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.StateTransferConfiguration.AWAIT_INITIAL_TRANSFER;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_BYTES;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.COMPRESSION;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.FETCH_IN_MEMORY_STATE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.MAX_IN_FLIGHT_CHUNKS;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.TIMEOUT;
 import static org.infinispan.util.logging.Log.CONFIG;
 
@@ -64,6 +67,32 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * The maximum estimated size, in bytes, of the entries sent in a single batch. A batch is sent when it reaches either
+    * {@link #chunkSize(int)} entries or {@code chunkBytes} bytes. {@code 0}, the default, means the batches are only
+    * limited by {@link #chunkSize(int)}.
+    */
+   public StateTransferConfigurationBuilder chunkBytes(int chunkBytes) {
+      attributes.attribute(CHUNK_BYTES).set(chunkBytes);
+      return this;
+   }
+
+   /**
+    * The maximum number of batches sent to the same node without waiting for their acknowledgement. Defaults to 1.
+    */
+   public StateTransferConfigurationBuilder maxInFlightChunks(int maxInFlightChunks) {
+      attributes.attribute(MAX_IN_FLIGHT_CHUNKS).set(maxInFlightChunks);
+      return this;
+   }
+
+   /**
+    * How the batches are compressed before they are sent. Defaults to {@link StateTransferCompression#NONE}.
+    */
+   public StateTransferConfigurationBuilder compression(StateTransferCompression compression) {
+      attributes.attribute(COMPRESSION).set(compression);
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -99,6 +128,14 @@ public void validate() {
       if (chunkSize <= 0) {
          throw CONFIG.invalidChunkSize(chunkSize);
       }
+      int chunkBytes = attributes.attribute(CHUNK_BYTES).get();
+      if (chunkBytes < 0) {
+         throw CONFIG.invalidStateTransferChunkBytes(chunkBytes);
+      }
+      int maxInFlightChunks = attributes.attribute(MAX_IN_FLIGHT_CHUNKS).get();
+      if (maxInFlightChunks < 1) {
+         throw CONFIG.invalidStateTransferMaxInFlightChunks(maxInFlightChunks);
+      }
 
       if (clustering().cacheMode().isInvalidation()) {
          Attribute<Boolean> fetchAttribute = attributes.attribute(FETCH_IN_MEMORY_STATE);
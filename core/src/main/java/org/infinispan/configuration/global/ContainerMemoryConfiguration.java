@@ -11,9 +11,10 @@ public class ContainerMemoryConfiguration {
    public static final AttributeDefinition<String> MAX_SIZE = AttributeDefinition.builder(Attribute.MAX_SIZE, null, String.class).matcher((a1, a2) -> maxSizeToBytes(a1.get()) == maxSizeToBytes(a2.get())).build();
    public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(Attribute.MAX_COUNT, -1L).build();
    public static final AttributeDefinition<Boolean> DYNAMIC_RESIZE = AttributeDefinition.builder(Attribute.DYNAMIC_RESIZE, false).build();
+   public static final AttributeDefinition<ContainerResizeStrategy> RESIZE_STRATEGY = AttributeDefinition.builder(Attribute.RESIZE_STRATEGY, ContainerResizeStrategy.UNIFORM).build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ContainerMemoryConfiguration.class, MAX_SIZE, MAX_COUNT, DYNAMIC_RESIZE);
+      return new AttributeSet(ContainerMemoryConfiguration.class, MAX_SIZE, MAX_COUNT, DYNAMIC_RESIZE, RESIZE_STRATEGY);
    }
 
    protected static long maxSizeToBytes(String maxSizeStr) {
@@ -66,6 +67,13 @@ public boolean dynamicResize() {
       return attributes.attribute(DYNAMIC_RESIZE).get();
    }
 
+   /**
+    * @return how the container is resized, only relevant when {@link #dynamicResize()} is enabled
+    */
+   public ContainerResizeStrategy resizeStrategy() {
+      return attributes.attribute(RESIZE_STRATEGY).get();
+   }
+
    private boolean isSizeBounded() {
       return maxSize() != null;
    }
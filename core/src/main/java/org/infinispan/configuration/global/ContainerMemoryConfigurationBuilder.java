@@ -86,6 +86,25 @@ public boolean dynamicResize() {
       return attributes.attribute(ContainerMemoryConfiguration.DYNAMIC_RESIZE).get();
    }
 
+   /**
+    * Defines how the container is resized when dynamic resizing is enabled. Defaults to
+    * {@link ContainerResizeStrategy#UNIFORM}.
+    *
+    * @param resizeStrategy the resize strategy
+    * @return <code>this</code>, for method chaining
+    */
+   public ContainerMemoryConfigurationBuilder resizeStrategy(ContainerResizeStrategy resizeStrategy) {
+      attributes.attribute(ContainerMemoryConfiguration.RESIZE_STRATEGY).set(resizeStrategy);
+      return this;
+   }
+
+   /**
+    * The currently configured resize strategy.
+    */
+   public ContainerResizeStrategy resizeStrategy() {
+      return attributes.attribute(ContainerMemoryConfiguration.RESIZE_STRATEGY).get();
+   }
+
    boolean isSizeBounded() {
       return maxSize() != null;
    }
@@ -0,0 +1,21 @@
+package org.infinispan.configuration.global;
+
+/**
+ * Defines how a memory container with dynamic resizing enabled is resized when the JVM is under memory pressure.
+ *
+ * @since 16.2
+ */
+public enum ContainerResizeStrategy {
+   /**
+    * Shrinks and grows the container by a fixed fraction of its configured size, independently of the other containers.
+    */
+   UNIFORM,
+   /**
+    * Shares the configured sizes of all the containers using this strategy as a single budget, and gives more of it to
+    * the containers where it avoids the most misses. The hits and misses of every container are sampled, together with
+    * the misses on recently evicted keys, to estimate how many hits a container gains or loses when it grows or shrinks.
+    * A container can grow up to twice its configured size, as long as the sum of the sizes stays within the budget.
+    * Only containers of the same kind, counting either entries or bytes, share a budget.
+    */
+   UTILITY
+}
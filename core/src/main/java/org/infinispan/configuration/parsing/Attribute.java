@@ -25,12 +25,15 @@ public enum Attribute {
     AUDIT_LOGGER,
     AUTO_COMMIT,
     AVAILABILITY_INTERVAL,
+    AVAILABLE_DURING_PRELOAD,
     AWAIT_INITIAL_TRANSFER,
     BACKUP_FAILURE_POLICY("failure-policy"),
+    BATCH_LANES,
     BEFORE,
     BIAS_ACQUISITION,
     BIAS_LIFESPAN,
     BLOCKING_EXECUTOR,
+    BLOOM_FILTER_FALSE_POSITIVE_RATE,
     CACHE_SIZE,
     CACHE_TIMEOUT,
     CALIBRATE_BY_DELETES,
@@ -38,13 +41,17 @@ public enum Attribute {
     CAPACITY,
     CAPACITY_FACTOR,
     CATEGORIES,
+    CHUNK_BYTES,
     CHUNK_SIZE,
     CLASS,
     CLUSTER,
     COLLECTOR_ENDPOINT,
     COMMIT_INTERVAL,
+    COMPACTION_PARALLELISM,
+    COMPACTION_RATE_LIMIT,
     COMPACTION_THRESHOLD,
     COMPLETED_TX_TIMEOUT("complete-timeout"),
+    COMPRESSION,
     CONCURRENCY_LEVEL,
     CONFIGURATION,
     CONNECTION_ATTEMPTS,
@@ -62,6 +69,7 @@ public enum Attribute {
     DYNAMIC_RESIZE,
     ENABLED,
     ENCODER,
+    ENTITY,
     EXECUTOR,
     EVICTION,
     EVICTION_CONTAINER,
@@ -76,6 +84,7 @@ public enum Attribute {
     FAIL_SILENTLY,
     FAILURE_POLICY_CLASS,
     FETCH_STATE,
+    FIELD,
     FRAGMENTATION_FACTOR,
     GAUGES,
     GC_DURATION_THRESHOLD,
@@ -120,6 +129,7 @@ public enum Attribute {
     MAX_ENTRIES,
     MAX_FILE_SIZE,
     MAX_IDLE,
+    MAX_IN_FLIGHT_CHUNKS,
     MAX_NODE_SIZE,
     MAX_RETRIES,
     MIN_SIZE,
@@ -130,6 +140,7 @@ public enum Attribute {
     MBEAN_SERVER_LOOKUP,
     MERGE_POLICY,
     MEDIA_TYPE,
+    MEMORY_MAPPED,
     MEMORY_THRESHOLD,
     MIN_NODE_SIZE,
     MODE,
@@ -150,10 +161,12 @@ public enum Attribute {
     PERMISSIONS,
     @Deprecated(forRemoval=true, since = "11.0")
     PERSISTENCE_EXECUTOR,
+    POOLED_ALLOCATOR,
     POSITION,
     @Deprecated(forRemoval = true, since = "16.0")
     PREFIX,
     PRELOAD,
+    PRELOAD_MODE,
     PRIORITY,
     PROPERTIES,
     PURGE,
@@ -175,6 +188,8 @@ public enum Attribute {
     REMOTE_COMMAND_EXECUTOR,
     REMOTE_SITE,
     REMOTE_TIMEOUT,
+    RESIZE_STRATEGY,
+    RESULT_CACHE_SIZE,
     ROLES,
     SCHEMA_COMPATIBILITY,
     SECURITY,
@@ -200,6 +215,7 @@ public enum Attribute {
     SYNC_WRITES,
     TAKE_BACKUP_OFFLINE_AFTER_FAILURES("after-failures"),
     TAKE_BACKUP_OFFLINE_MIN_WAIT("min-wait"),
+    TARGET_BATCH_LATENCY,
     THREAD_FACTORY,
     THREAD_NAME_PATTERN,
     THREAD_POLICY,
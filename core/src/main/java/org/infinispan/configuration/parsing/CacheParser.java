@@ -39,6 +39,7 @@
 import org.infinispan.configuration.cache.MemoryConfigurationBuilder;
 import org.infinispan.configuration.cache.PartitionHandlingConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.cache.SecondaryIndexType;
 import org.infinispan.configuration.cache.SecurityConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfigurationBuilder;
@@ -982,6 +983,12 @@ protected void parseFileStore(ConfigurationReader reader, ConfigurationBuilderHo
                   throw ParseUtils.unexpectedAttribute(reader, i);
                }
                break;
+            case COMPACTION_PARALLELISM:
+               fileStoreBuilder.compactionParallelism(ParseUtils.parseInt(reader, i, value));
+               break;
+            case COMPACTION_RATE_LIMIT:
+               fileStoreBuilder.compactionRateLimit(ParseUtils.parseLong(reader, i, value));
+               break;
             case PURGE: {
                fileStoreBuilder.purgeOnStartup(ParseUtils.parseBoolean(reader, i, value));
                break;
@@ -1034,6 +1041,9 @@ private void parseData(ConfigurationReader reader, SoftIndexFileStoreConfigurati
             case SYNC_WRITES:
                builder.syncWrites(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case MEMORY_MAPPED:
+               builder.dataMemoryMapped(ParseUtils.parseBoolean(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1068,6 +1078,12 @@ private void parseIndex(ConfigurationReader reader, SoftIndexFileStoreConfigurat
             case MAX_NODE_SIZE:
                builder.maxNodeSize(ParseUtils.parseInt(reader, i, value));
                break;
+            case MEMORY_MAPPED:
+               builder.indexMemoryMapped(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            case BLOOM_FILTER_FALSE_POSITIVE_RATE:
+               builder.bloomFilterFalsePositiveRate(Double.parseDouble(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1160,6 +1176,12 @@ public static void parseStoreWriteBehind(ConfigurationReader reader, AsyncStoreC
             case FAIL_SILENTLY:
                storeBuilder.failSilently(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case BATCH_LANES:
+               storeBuilder.batchLanes(ParseUtils.parseInt(reader, i, value));
+               break;
+            case TARGET_BATCH_LATENCY:
+               storeBuilder.targetBatchLatency(value);
+               break;
             case THREAD_POOL_SIZE: {
                ParseUtils.attributeRemovedSince(reader, 11, 0, i);
                ignoreAttribute(reader, i);
@@ -1290,15 +1312,21 @@ private void parseQuery(ConfigurationReader reader, ConfigurationBuilderHolder h
             case HIT_COUNT_ACCURACY:
                builder.query().hitCountAccuracy(ParseUtils.parseInt(reader, i, value));
                break;
+            case RESULT_CACHE_SIZE:
+               builder.query().resultCacheSize(ParseUtils.parseInt(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
       }
 
-      // no nested properties at the moment
       while (reader.inTag()) {
          Element element = Element.forName(reader.getLocalName());
          switch (element) {
+            case SECONDARY_INDEXES: {
+               parseSecondaryIndexes(reader, builder);
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedElement(reader);
             }
@@ -1411,6 +1439,43 @@ private void parseTracing(ConfigurationReader reader, ConfigurationBuilderHolder
       ParseUtils.requireNoContent(reader);
    }
 
+   private void parseSecondaryIndexes(ConfigurationReader reader, ConfigurationBuilder builder) {
+      ParseUtils.requireNoAttributes(reader);
+      while (reader.inTag()) {
+         Element element = Element.forName(reader.getLocalName());
+         switch (element) {
+            case SECONDARY_INDEX: {
+               parseSecondaryIndex(reader, builder);
+               break;
+            }
+            default:
+               throw ParseUtils.unexpectedElement(reader);
+         }
+      }
+   }
+
+   private void parseSecondaryIndex(ConfigurationReader reader, ConfigurationBuilder builder) {
+      String[] attrs = ParseUtils.requireAttributes(reader, Attribute.ENTITY.getLocalName(), Attribute.FIELD.getLocalName());
+      SecondaryIndexType type = SecondaryIndexType.HASH;
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+         ParseUtils.requireNoNamespaceAttribute(reader, i);
+         Attribute attribute = Attribute.forName(reader.getAttributeName(i));
+         switch (attribute) {
+            case ENTITY:
+            case FIELD:
+               // Already handled
+               break;
+            case TYPE:
+               type = SecondaryIndexType.requireValid(reader.getAttributeValue(i));
+               break;
+            default:
+               throw ParseUtils.unexpectedAttribute(reader, i);
+         }
+      }
+      builder.query().addSecondaryIndex(attrs[0], attrs[1], type);
+      ParseUtils.requireNoContent(reader);
+   }
+
    private void parseKeyTransformers(ConfigurationReader reader, ConfigurationBuilderHolder holder, ConfigurationBuilder builder) {
       ParseUtils.requireNoAttributes(reader);
       while (reader.inTag()) {
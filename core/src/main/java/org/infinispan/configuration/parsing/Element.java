@@ -120,6 +120,8 @@ public enum Element {
     SERIALIZATION_CONTEXT_INITIALIZERS("context-initializers"),
     SHARED_PERSISTENT_LOCATION,
     SCHEDULED_THREAD_POOL,
+    SECONDARY_INDEX,
+    SECONDARY_INDEXES,
     SECURITY,
     SERIALIZATION,
     SHUTDOWN,
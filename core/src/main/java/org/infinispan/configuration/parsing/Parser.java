@@ -33,6 +33,7 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.global.AllowListConfigurationBuilder;
 import org.infinispan.configuration.global.ContainerMemoryConfigurationBuilder;
+import org.infinispan.configuration.global.ContainerResizeStrategy;
 import org.infinispan.configuration.global.GlobalAuthorizationConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalJmxConfigurationBuilder;
@@ -784,6 +785,7 @@ private void parseEvictionContainers(ConfigurationReader reader, ConfigurationBu
                String name = null;
                long count = -1;
                boolean dynamicResize = false;
+               ContainerResizeStrategy resizeStrategy = ContainerResizeStrategy.UNIFORM;
                for (int i = 0; i < reader.getAttributeCount(); i++) {
                   Attribute attribute = Attribute.forName(reader.getAttributeName(i));
                   switch (attribute) {
@@ -796,6 +798,9 @@ private void parseEvictionContainers(ConfigurationReader reader, ConfigurationBu
                      case DYNAMIC_RESIZE:
                         dynamicResize = Boolean.parseBoolean(reader.getAttributeValue(i));
                         break;
+                     case RESIZE_STRATEGY:
+                        resizeStrategy = ParseUtils.parseEnum(reader, i, ContainerResizeStrategy.class, reader.getAttributeValue(i));
+                        break;
                      default:
                         throw ParseUtils.unexpectedAttribute(reader, i);
                   }
@@ -804,12 +809,14 @@ private void parseEvictionContainers(ConfigurationReader reader, ConfigurationBu
                ContainerMemoryConfigurationBuilder builder = holder.getGlobalConfigurationBuilder().containerMemoryConfiguration(name);
                builder.maxCount(countToUse);
                builder.dynamicResize(dynamicResize);
+               builder.resizeStrategy(resizeStrategy);
                break;
             }
             case MAX_SIZE_CONTAINER: {
                String name = null;
                String size = null;
                boolean dynamicResize = false;
+               ContainerResizeStrategy resizeStrategy = ContainerResizeStrategy.UNIFORM;
                for (int i = 0; i < reader.getAttributeCount(); i++) {
                   Attribute attribute = Attribute.forName(reader.getAttributeName(i));
                   switch (attribute) {
@@ -822,6 +829,9 @@ private void parseEvictionContainers(ConfigurationReader reader, ConfigurationBu
                      case DYNAMIC_RESIZE:
                         dynamicResize = Boolean.parseBoolean(reader.getAttributeValue(i));
                         break;
+                     case RESIZE_STRATEGY:
+                        resizeStrategy = ParseUtils.parseEnum(reader, i, ContainerResizeStrategy.class, reader.getAttributeValue(i));
+                        break;
                      default:
                         throw ParseUtils.unexpectedAttribute(reader, i);
                   }
@@ -830,6 +840,7 @@ private void parseEvictionContainers(ConfigurationReader reader, ConfigurationBu
                ContainerMemoryConfigurationBuilder builder = holder.getGlobalConfigurationBuilder().containerMemoryConfiguration(name);
                builder.maxSize(sizeToUse);
                builder.dynamicResize(dynamicResize);
+               builder.resizeStrategy(resizeStrategy);
                break;
             }
             default: {
@@ -45,11 +45,13 @@
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.QueryConfiguration;
 import org.infinispan.configuration.cache.RecoveryConfiguration;
+import org.infinispan.configuration.cache.SecondaryIndex;
 import org.infinispan.configuration.cache.SitesConfiguration;
 import org.infinispan.configuration.cache.StatisticsConfiguration;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.configuration.cache.TransactionConfiguration;
 import org.infinispan.configuration.global.AllowListConfiguration;
+import org.infinispan.configuration.global.ContainerResizeStrategy;
 import org.infinispan.configuration.global.GlobalAuthorizationConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.configuration.global.GlobalJmxConfiguration;
@@ -279,6 +281,9 @@ private void writeEvictionContainers(ConfigurationWriter writer, GlobalConfigura
                if (container.dynamicResize()) {
                   writer.writeAttribute(Attribute.DYNAMIC_RESIZE, Boolean.toString(true));
                }
+               if (container.resizeStrategy() != ContainerResizeStrategy.UNIFORM) {
+                  writer.writeAttribute(Attribute.RESIZE_STRATEGY, container.resizeStrategy().name());
+               }
                writer.writeEndElement();
             } else if (container.maxSize() != null) {
                writer.writeStartElement(Element.MAX_SIZE_CONTAINER);
@@ -287,6 +292,9 @@ private void writeEvictionContainers(ConfigurationWriter writer, GlobalConfigura
                if (container.dynamicResize()) {
                   writer.writeAttribute(Attribute.DYNAMIC_RESIZE, Boolean.toString(true));
                }
+               if (container.resizeStrategy() != ContainerResizeStrategy.UNIFORM) {
+                  writer.writeAttribute(Attribute.RESIZE_STRATEGY, container.resizeStrategy().name());
+               }
                writer.writeEndElement();
             }
          }
@@ -688,6 +696,7 @@ private void writeMemory(ConfigurationWriter writer, Configuration configuration
          }
          attributes.write(writer, MemoryConfiguration.WHEN_FULL, Attribute.WHEN_FULL);
          attributes.write(writer, MemoryConfiguration.EVICTION_CONTAINER, Attribute.EVICTION_CONTAINER);
+         attributes.write(writer, MemoryConfiguration.POOLED_ALLOCATOR, Attribute.POOLED_ALLOCATOR);
          writer.writeEndElement();
       }
    }
@@ -699,6 +708,18 @@ private void writeQuery(ConfigurationWriter writer, Configuration configuration)
          writer.writeStartElement(Element.QUERY);
          attributes.write(writer, QueryConfiguration.DEFAULT_MAX_RESULTS, Attribute.DEFAULT_MAX_RESULTS);
          attributes.write(writer, QueryConfiguration.HIT_COUNT_ACCURACY, Attribute.HIT_COUNT_ACCURACY);
+         attributes.write(writer, QueryConfiguration.RESULT_CACHE_SIZE, Attribute.RESULT_CACHE_SIZE);
+         if (!query.secondaryIndexes().isEmpty()) {
+            writer.writeStartListElement(Element.SECONDARY_INDEXES, true);
+            for (SecondaryIndex secondaryIndex : query.secondaryIndexes()) {
+               writer.writeStartElement(Element.SECONDARY_INDEX);
+               writer.writeAttribute(Attribute.ENTITY, secondaryIndex.entity());
+               writer.writeAttribute(Attribute.FIELD, secondaryIndex.field());
+               writer.writeAttribute(Attribute.TYPE, secondaryIndex.type().name());
+               writer.writeEndElement();
+            }
+            writer.writeEndListElement();
+         }
          writer.writeEndElement();
       }
    }
@@ -784,6 +805,8 @@ private void writePersistence(ConfigurationWriter writer, Configuration configur
          attributes.write(writer, PersistenceConfiguration.AVAILABILITY_INTERVAL, Attribute.AVAILABILITY_INTERVAL);
          attributes.write(writer, PersistenceConfiguration.CONNECTION_ATTEMPTS, Attribute.CONNECTION_ATTEMPTS);
          attributes.write(writer, PersistenceConfiguration.CONNECTION_INTERVAL, Attribute.CONNECTION_INTERVAL);
+         attributes.write(writer, PersistenceConfiguration.PRELOAD_MODE, Attribute.PRELOAD_MODE);
+         attributes.write(writer, PersistenceConfiguration.AVAILABLE_DURING_PRELOAD, Attribute.AVAILABLE_DURING_PRELOAD);
          for (StoreConfiguration store : persistence.stores()) {
             writeStore(writer, store);
          }
@@ -860,7 +883,8 @@ private void writeDataElement(ConfigurationWriter writer, SoftIndexFileStoreConf
       configuration.data().attributes().write(writer, Element.DATA.getLocalName(),
             DataConfiguration.DATA_LOCATION,
             DataConfiguration.MAX_FILE_SIZE,
-            DataConfiguration.SYNC_WRITES);
+            DataConfiguration.SYNC_WRITES,
+            DataConfiguration.MEMORY_MAPPED);
    }
 
    private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreConfiguration configuration) {
@@ -869,7 +893,9 @@ private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreCon
             IndexConfiguration.INDEX_QUEUE_LENGTH,
             IndexConfiguration.INDEX_SEGMENTS,
             IndexConfiguration.MIN_NODE_SIZE,
-            IndexConfiguration.MAX_NODE_SIZE);
+            IndexConfiguration.MAX_NODE_SIZE,
+            IndexConfiguration.MEMORY_MAPPED,
+            IndexConfiguration.BLOOM_FILTER_FALSE_POSITIVE_RATE);
    }
 
    private void writeCustomStore(ConfigurationWriter writer, CustomStoreConfiguration configuration) {
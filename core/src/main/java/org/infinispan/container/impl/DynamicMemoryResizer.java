@@ -1,16 +1,22 @@
 package org.infinispan.container.impl;
 
+import static org.infinispan.metrics.Constants.INFINISPAN_PREFIX;
 import static org.infinispan.util.logging.Log.CONTAINER;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.infinispan.commons.stat.MetricInfo;
 import org.infinispan.commons.util.MemoryMonitor;
 import org.infinispan.configuration.global.ContainerMemoryConfiguration;
+import org.infinispan.configuration.global.ContainerResizeStrategy;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
@@ -19,7 +25,20 @@
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.metrics.impl.MetricUtils;
+import org.infinispan.metrics.impl.MetricsRegistry;
 
+/**
+ * Shrinks the shared memory containers with dynamic resizing enabled while the JVM is under memory pressure, and grows
+ * them back to their configured capacity once it is relieved.
+ * <p>
+ * Containers with the {@link ContainerResizeStrategy#UNIFORM} strategy are resized by fixed fractions of their
+ * configured capacity. Containers with the {@link ContainerResizeStrategy#UTILITY} strategy and the same kind of
+ * capacity form a pool, whose budget is the sum of their configured capacities: a step shrinks or grows the pool by the
+ * same total, but the capacity is taken from the containers that lose the fewest hits and given to the containers
+ * that gain the most, as estimated by their {@link UtilitySampler}. While the memory is not low, the capacity of a
+ * pool is also periodically moved between its containers when that gains enough hits.
+ */
 @Scope(Scopes.GLOBAL)
 public class DynamicMemoryResizer implements MemoryMonitor.Listener {
 
@@ -31,12 +50,52 @@ enum State { STABLE, SHRINKING, GROWING }
    static final long SHRINK_COOLDOWN_MS = 5_000;
    static final long GROW_INITIAL_MS = 10_000;
    static final long GROW_MAX_MS = 30_000;
+   static final long REBALANCE_INTERVAL_MS = 30_000;
+   static final double REBALANCE_FRACTION = 0.05;
+   // Hits gained per unit of capacity moved, relative to the hits lost, for a rebalance to happen
+   static final double REBALANCE_THRESHOLD = 1.25;
+   static final double MAX_GROWTH_FACTOR = 2.0;
+   // Steps are split in quanta, each one taken from or given to a single container
+   static final int QUANTA = 20;
+   static final String CONTAINER_TAG_NAME = "container";
 
-   record ContainerState(SharedCaffeineMap<?, ?> map, String name, long originalCapacity) {}
+   private static final Collection<MetricInfo> UTILITY_METRICS = List.of(
+         MetricUtils.<UtilityState>createGauge("MemoryContainerCapacity",
+               "The current capacity of the memory container, in entries or bytes", u -> u.sampler.capacity(), null),
+         MetricUtils.<UtilityState>createGauge("MemoryContainerHitRatio",
+               "The decayed hit ratio of the memory container", u -> u.hitRatio, null),
+         MetricUtils.<UtilityState>createGauge("MemoryContainerMarginalUtility",
+               "The hits the memory container would gain with 1% more capacity", u -> u.marginalUtility, null),
+         MetricUtils.<UtilityState>createGauge("MemoryContainerGhostHits",
+               "The estimated misses on recently evicted entries of the memory container", u -> u.sampler.ghostHits(), null),
+         MetricUtils.<UtilityState>createGauge("MemoryContainerResizes",
+               "The number of times the memory container was resized", u -> u.resizes, null)
+   );
+
+   record ContainerState(SharedCaffeineMap<?, ?> map, String name, long originalCapacity, UtilityState utility) {}
+
+   /**
+    * The containers using the utility strategy with the same kind of capacity, sharing the sum of their configured
+    * capacities.
+    */
+   record UtilityPool(List<ContainerState> containers, long budget) {}
+
+   static final class UtilityState {
+      final UtilitySampler sampler;
+      volatile double hitRatio;
+      volatile double marginalUtility;
+      volatile long resizes;
+      Set<Object> metricIds = Set.of();
+
+      UtilityState(UtilitySampler sampler) {
+         this.sampler = sampler;
+      }
+   }
 
    @Inject GlobalConfiguration globalConfiguration;
    @Inject SharedContainerMaps sharedContainerMaps;
    @Inject MemoryMonitor memoryMonitor;
+   @Inject MetricsRegistry metricsRegistry;
    @Inject @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
    ScheduledExecutorService scheduledExecutor;
 
@@ -44,7 +103,9 @@ record ContainerState(SharedCaffeineMap<?, ?> map, String name, long originalCap
    private long shrinkGeneration;
    long lastShrinkTimeMs;
    final List<ContainerState> managedContainers = new ArrayList<>();
+   final List<UtilityPool> utilityPools = new ArrayList<>();
    private ScheduledFuture<?> currentTask;
+   private ScheduledFuture<?> rebalanceTask;
    long currentGrowDelayMs = GROW_INITIAL_MS;
 
    @Start
@@ -58,21 +119,57 @@ void start() {
             SharedCaffeineMap<Object, Object> map = maps.get(name);
             if (map != null) {
                long originalCapacity = map.capacity();
-               managedContainers.add(new ContainerState(map, name, originalCapacity));
+               UtilitySampler sampler = map.utilitySampler();
+               UtilityState utility = sampler != null ? new UtilityState(sampler) : null;
+               managedContainers.add(new ContainerState(map, name, originalCapacity, utility));
             }
          }
       }
 
+      Map<Boolean, List<ContainerState>> poolsByKind = new HashMap<>();
+      for (ContainerState cs : managedContainers) {
+         if (cs.utility != null) {
+            poolsByKind.computeIfAbsent(cs.map.isMemoryBased(), k -> new ArrayList<>()).add(cs);
+            registerMetrics(cs);
+         }
+      }
+      for (List<ContainerState> containers : poolsByKind.values()) {
+         long budget = containers.stream().mapToLong(ContainerState::originalCapacity).sum();
+         utilityPools.add(new UtilityPool(containers, budget));
+      }
+
       if (!managedContainers.isEmpty()) {
          memoryMonitor.addListener(this, scheduledExecutor);
       }
+      if (utilityPools.stream().anyMatch(pool -> pool.containers.size() > 1)) {
+         rebalanceTask = scheduledExecutor.scheduleWithFixedDelay(this::rebalanceStep, REBALANCE_INTERVAL_MS,
+               REBALANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   private void registerMetrics(ContainerState cs) {
+      if (metricsRegistry == null) {
+         return;
+      }
+      cs.utility.metricIds = metricsRegistry.registerMetrics(cs.utility, UTILITY_METRICS, INFINISPAN_PREFIX,
+            Map.of(CONTAINER_TAG_NAME, cs.name));
    }
 
    @Stop
-   void stop() {
+   synchronized void stop() {
       cancelCurrentTask();
+      if (rebalanceTask != null) {
+         rebalanceTask.cancel(false);
+         rebalanceTask = null;
+      }
       memoryMonitor.removeListener(this);
+      for (ContainerState cs : managedContainers) {
+         if (cs.utility != null && metricsRegistry != null) {
+            metricsRegistry.unregisterMetrics(cs.utility.metricIds);
+         }
+      }
       managedContainers.clear();
+      utilityPools.clear();
       state = State.STABLE;
    }
 
@@ -132,6 +229,7 @@ private void shrinkStep() {
       lastShrinkTimeMs = System.currentTimeMillis();
       boolean atFloor = false;
       for (ContainerState cs : managedContainers) {
+         if (cs.utility != null) continue;
          long current = cs.map.capacity();
          long floor = Math.max(1, (long) (cs.originalCapacity * FLOOR_FRACTION));
          if (current <= floor) {
@@ -146,6 +244,11 @@ private void shrinkStep() {
             atFloor = true;
          }
       }
+      for (UtilityPool pool : utilityPools) {
+         if (!shrinkPool(pool)) {
+            atFloor = true;
+         }
+      }
       if (atFloor) {
          CONTAINER.containerAtFloor();
       } else {
@@ -186,6 +289,7 @@ synchronized void growStep() {
 
       boolean fullyRecovered = true;
       for (ContainerState cs : managedContainers) {
+         if (cs.utility != null) continue;
          long current = cs.map.capacity();
          if (current >= cs.originalCapacity) continue;
          long growAmount = (long) (cs.originalCapacity * GROW_FRACTION);
@@ -196,6 +300,11 @@ synchronized void growStep() {
             fullyRecovered = false;
          }
       }
+      for (UtilityPool pool : utilityPools) {
+         if (!growPool(pool)) {
+            fullyRecovered = false;
+         }
+      }
 
       if (fullyRecovered) {
          state = State.STABLE;
@@ -207,6 +316,202 @@ synchronized void growStep() {
       }
    }
 
+   /**
+    * Removes {@link #SHRINK_FRACTION} of the budget from the containers of the pool, a quantum at a time from the
+    * container losing the fewest hits per unit of capacity.
+    *
+    * @return {@code false} if the containers reached their floor
+    */
+   private boolean shrinkPool(UtilityPool pool) {
+      PoolPlan plan = new PoolPlan(pool);
+      long amount = (long) (pool.budget * SHRINK_FRACTION);
+      long quantum = Math.max(1, amount / QUANTA);
+      while (amount > 0) {
+         int donor = plan.cheapestDonor(-1);
+         if (donor < 0) {
+            break;
+         }
+         amount += plan.move(donor, -Math.min(quantum, amount));
+      }
+      plan.apply();
+      return amount == 0 && plan.cheapestDonor(-1) >= 0;
+   }
+
+   /**
+    * Gives {@link #GROW_FRACTION} of the budget back to the containers of the pool, without exceeding the budget, a
+    * quantum at a time to the container gaining the most hits per unit of capacity.
+    *
+    * @return {@code true} if the pool uses its whole budget again
+    */
+   private boolean growPool(UtilityPool pool) {
+      PoolPlan plan = new PoolPlan(pool);
+      long amount = Math.min((long) (pool.budget * GROW_FRACTION), pool.budget - plan.total());
+      long quantum = Math.max(1, amount / QUANTA);
+      while (amount > 0) {
+         int receiver = plan.bestReceiver();
+         if (receiver < 0) {
+            break;
+         }
+         amount -= plan.move(receiver, Math.min(quantum, amount));
+      }
+      plan.apply();
+      return plan.total() >= pool.budget;
+   }
+
+   /**
+    * Moves up to {@link #REBALANCE_FRACTION} of the budget of every pool between its containers, a quantum at a time,
+    * as long as the receiving container gains {@link #REBALANCE_THRESHOLD} times the hits the donor loses.
+    */
+   synchronized void rebalanceStep() {
+      if (state != State.STABLE || memoryMonitor.isMemoryLow() || memoryMonitor.isGcPressureExceeded()) {
+         return;
+      }
+      for (UtilityPool pool : utilityPools) {
+         if (pool.containers.size() < 2) continue;
+         PoolPlan plan = new PoolPlan(pool);
+         long amount = (long) (pool.budget * REBALANCE_FRACTION);
+         long quantum = Math.max(1, amount / QUANTA);
+         while (amount > 0) {
+            int receiver = plan.bestReceiver();
+            int donor = receiver < 0 ? -1 : plan.cheapestDonor(receiver);
+            if (donor < 0 || plan.gainDensity(receiver) <= plan.lossDensity(donor) * REBALANCE_THRESHOLD) {
+               break;
+            }
+            long moved = Math.min(Math.min(quantum, amount), plan.limit(receiver) - plan.planned[receiver]);
+            moved = -plan.move(donor, -moved);
+            plan.move(receiver, moved);
+            amount -= moved;
+         }
+         plan.apply();
+      }
+   }
+
+   /**
+    * The capacities planned for the containers of a pool, starting from their current ones.
+    */
+   private static final class PoolPlan {
+      final List<ContainerState> containers;
+      final UtilitySampler.Snapshot[] snapshots;
+      final long[] current;
+      final long[] planned;
+
+      PoolPlan(UtilityPool pool) {
+         containers = pool.containers;
+         int size = containers.size();
+         snapshots = new UtilitySampler.Snapshot[size];
+         current = new long[size];
+         planned = new long[size];
+         for (int i = 0; i < size; i++) {
+            ContainerState cs = containers.get(i);
+            current[i] = cs.map.capacity();
+            planned[i] = current[i];
+            cs.utility.sampler.capacityChanged(current[i]);
+            snapshots[i] = cs.utility.sampler.snapshot();
+            cs.utility.hitRatio = snapshots[i].hitRatio();
+            cs.utility.marginalUtility = snapshots[i].gainDensity(0) * current[i] / 100;
+         }
+      }
+
+      long floor(int i) {
+         return Math.max(1, (long) (containers.get(i).originalCapacity * FLOOR_FRACTION));
+      }
+
+      long limit(int i) {
+         return (long) (containers.get(i).originalCapacity * MAX_GROWTH_FACTOR);
+      }
+
+      double lossDensity(int i) {
+         return snapshots[i].lossDensity(Math.max(0, current[i] - planned[i]));
+      }
+
+      double gainDensity(int i) {
+         return snapshots[i].gainDensity(Math.max(0, planned[i] - current[i]));
+      }
+
+      long total() {
+         long total = 0;
+         for (long capacity : planned) {
+            total += capacity;
+         }
+         return total;
+      }
+
+      double ratio(int i) {
+         return (double) planned[i] / containers.get(i).originalCapacity;
+      }
+
+      /**
+       * @return the container above its floor that loses the fewest hits per unit of capacity, other than
+       * {@code excluded}, or -1 if there is none. Ties go to the container with the most capacity relative to its
+       * configured one, so that containers without any hit shrink uniformly.
+       */
+      int cheapestDonor(int excluded) {
+         int donor = -1;
+         double lowest = Double.MAX_VALUE;
+         for (int i = 0; i < planned.length; i++) {
+            if (i == excluded || planned[i] <= floor(i)) continue;
+            double loss = lossDensity(i);
+            if (loss < lowest || (loss == lowest && ratio(i) > ratio(donor))) {
+               lowest = loss;
+               donor = i;
+            }
+         }
+         return donor;
+      }
+
+      /**
+       * @return the container below its limit that gains the most hits per unit of capacity, or -1 if there is none.
+       * When no container gains any hit, the container with the least capacity relative to its configured one, if
+       * below it.
+       */
+      int bestReceiver() {
+         int receiver = -1;
+         double highest = 0;
+         for (int i = 0; i < planned.length; i++) {
+            if (planned[i] >= limit(i)) continue;
+            double gain = gainDensity(i);
+            if (gain > highest || (gain == highest && gain > 0 && ratio(i) < ratio(receiver))) {
+               highest = gain;
+               receiver = i;
+            }
+         }
+         if (receiver >= 0) {
+            return receiver;
+         }
+         double lowestRatio = 1;
+         for (int i = 0; i < planned.length; i++) {
+            if (ratio(i) < lowestRatio) {
+               lowestRatio = ratio(i);
+               receiver = i;
+            }
+         }
+         return receiver;
+      }
+
+      /**
+       * Changes the planned capacity of a container by {@code delta}, within its floor and limit.
+       *
+       * @return the actual change
+       */
+      long move(int i, long delta) {
+         long target = Math.max(floor(i), Math.min(limit(i), planned[i] + delta));
+         long moved = target - planned[i];
+         planned[i] = target;
+         return moved;
+      }
+
+      void apply() {
+         for (int i = 0; i < planned.length; i++) {
+            if (planned[i] == current[i]) continue;
+            ContainerState cs = containers.get(i);
+            cs.map.resize(planned[i]);
+            cs.utility.sampler.capacityChanged(planned[i]);
+            cs.utility.resizes++;
+            CONTAINER.containerResized(cs.name, current[i], planned[i]);
+         }
+      }
+   }
+
    private void cancelCurrentTask() {
       if (currentTask != null) {
          currentTask.cancel(false);
@@ -155,6 +155,14 @@ public void removeSegments(IntSet segments) {
       }
    }
 
+   @Override
+   public InternalCacheEntry<K, V> get(int segment, Object k) {
+      if (caffeineMap instanceof SharedCaffeineMap.SampledCaffeineMap<K, V> sampled) {
+         return sampled.read(k);
+      }
+      return super.get(segment, k);
+   }
+
    @Override
    public InternalCacheEntry<K, V> peek(Object k) {
       return peek(-1, k);
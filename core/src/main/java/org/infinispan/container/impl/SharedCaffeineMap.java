@@ -18,11 +18,14 @@
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Policy;
 import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Weigher;
 
 @Scope(Scopes.GLOBAL)
 public class SharedCaffeineMap<K, V> {
    private final Cache<KeyValuePair<String, K>, InternalCacheEntry<K, V>> cache;
    private final ConcurrentMap<String, EvictionListener<K, V>> listenerMap;
+   private final boolean memoryBased;
+   private final UtilitySampler utilitySampler;
 
    static <K, V> Caffeine<K, V> caffeineBuilder() {
       //noinspection unchecked
@@ -42,6 +45,20 @@ public void resize(long newSize) {
             .ifPresent(eviction -> eviction.setMaximum(newSize));
    }
 
+   /**
+    * @return whether the capacity is measured in bytes instead of entries
+    */
+   public boolean isMemoryBased() {
+      return memoryBased;
+   }
+
+   /**
+    * @return the sampler of the hits and misses, or {@code null} if they are not sampled
+    */
+   UtilitySampler utilitySampler() {
+      return utilitySampler;
+   }
+
    public long capacity() {
       return cache.policy().eviction()
             .map(Policy.Eviction::getMaximum)
@@ -49,25 +66,40 @@ public long capacity() {
    }
 
    public SharedCaffeineMap(long thresholdSize, boolean memoryBased) {
+      this(thresholdSize, memoryBased, false);
+   }
+
+   /**
+    * @param sampleUtility whether to sample the hits and misses for {@link DynamicMemoryResizer}
+    */
+   public SharedCaffeineMap(long thresholdSize, boolean memoryBased, boolean sampleUtility) {
+      this.memoryBased = memoryBased;
+      this.utilitySampler = sampleUtility ? new UtilitySampler(thresholdSize) : null;
       Caffeine<KeyValuePair<String, K>, InternalCacheEntry<K, V>> caffeine = caffeineBuilder();
 
+      Weigher<KeyValuePair<String, K>, InternalCacheEntry<K, V>> weigher;
       if (memoryBased) {
          CacheEntrySizeCalculator<K, V> calc = new CacheEntrySizeCalculator<>(new WrappedByteArraySizeCalculator<>(
                new PrimitiveEntrySizeCalculator()));
          // Have to include an overhead for the KVP and the cacheName. Note the cache name is a refernce so it only costs
          // the object reference and not the actual String contents.
-         caffeine.weigher((k, v) ->
-                     // KeyValuePair header
-                     AbstractEntrySizeCalculatorHelper.OBJECT_SIZE +
-                           // KVP key and value
-                           AbstractEntrySizeCalculatorHelper.POINTER_SIZE * 2 +
-                           (int) calc.calculateSize(k.getValue(), v))
+         weigher = (k, v) ->
+               // KeyValuePair header
+               AbstractEntrySizeCalculatorHelper.OBJECT_SIZE +
+                     // KVP key and value
+                     AbstractEntrySizeCalculatorHelper.POINTER_SIZE * 2 +
+                     (int) calc.calculateSize(k.getValue(), v);
+         caffeine.weigher(weigher)
                .maximumWeight(thresholdSize);
       } else {
+         weigher = Weigher.singletonWeigher();
          caffeine.maximumSize(thresholdSize);
       }
       caffeine.executor(new WithinThreadExecutor()).evictionListener((key, value, cause) -> {
          if (cause == RemovalCause.SIZE) {
+            if (utilitySampler != null) {
+               utilitySampler.recordEviction(key.getKey(), key.getValue(), weigher.weigh(key, value));
+            }
             notifyListener(true, key, value);
          }
       }).removalListener((key, value, cause) -> {
@@ -88,8 +120,7 @@ private void notifyListener(boolean pre, KeyValuePair<String, K> kvp, InternalCa
 
    public AbstractInternalDataContainer<K, V> newContainer(String cacheName, BasicComponentRegistry componentRegistry,
                                                              int numSegments) {
-      PeekableTouchableCaffeineMap<K, V> ptcm = new PeekableTouchableCaffeineMap<>(new CaffeineCacheMapper<>(cache, KeyValuePair::getValue,
-            k -> new KeyValuePair<>(cacheName, k)));
+      PeekableTouchableCaffeineMap<K, V> ptcm = newMap(cacheName);
       AbstractInternalDataContainer<K, V> container;
       if (numSegments == 1) {
          SharedBoundedLocalContainer<K, V> localContainer = new SharedBoundedLocalContainer<>(ptcm);
@@ -104,6 +135,37 @@ public AbstractInternalDataContainer<K, V> newContainer(String cacheName, BasicC
       return container;
    }
 
+   private PeekableTouchableCaffeineMap<K, V> newMap(String cacheName) {
+      CaffeineCacheMapper<K, KeyValuePair<String, K>, InternalCacheEntry<K, V>> mapper =
+            new CaffeineCacheMapper<>(cache, KeyValuePair::getValue, k -> new KeyValuePair<>(cacheName, k));
+      if (utilitySampler == null) {
+         return new PeekableTouchableCaffeineMap<>(mapper);
+      }
+      return new SampledCaffeineMap<>(mapper, cacheName, utilitySampler);
+   }
+
+   /**
+    * Records the hits and misses of the reads in the {@link UtilitySampler}. The containers read through
+    * {@link #read(Object)} only for the cache reads, the writes look up the previous entry with {@link #get(Object)}
+    * and are not sampled.
+    */
+   static final class SampledCaffeineMap<K, V> extends PeekableTouchableCaffeineMap<K, V> {
+      private final String cacheName;
+      private final UtilitySampler utilitySampler;
+
+      private SampledCaffeineMap(Cache<K, InternalCacheEntry<K, V>> cache, String cacheName, UtilitySampler utilitySampler) {
+         super(cache);
+         this.cacheName = cacheName;
+         this.utilitySampler = utilitySampler;
+      }
+
+      InternalCacheEntry<K, V> read(Object key) {
+         InternalCacheEntry<K, V> ice = get(key);
+         utilitySampler.recordAccess(cacheName, key, ice != null);
+         return ice;
+      }
+   }
+
    private void registerAndWire(String cacheName, EvictionListener<K, V> container,
                                 BasicComponentRegistry componentRegistry) {
       if (listenerMap.putIfAbsent(cacheName, container) != null) {
@@ -3,6 +3,7 @@
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.infinispan.configuration.global.ContainerResizeStrategy;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -25,7 +26,8 @@ public void start() {
       globalConfiguration.getMemoryContainer().forEach((name, config) -> {
          boolean sizeInBytes = config.maxSize() != null;
          long thresholdSize = sizeInBytes ? config.maxSizeBytes() : config.maxCount();
-         maps.put(name, new SharedCaffeineMap<>(thresholdSize, sizeInBytes));
+         boolean sampleUtility = config.dynamicResize() && config.resizeStrategy() == ContainerResizeStrategy.UTILITY;
+         maps.put(name, new SharedCaffeineMap<>(thresholdSize, sizeInBytes, sampleUtility));
       });
    }
 
@@ -0,0 +1,189 @@
+package org.infinispan.container.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Estimates how many hits a {@link SharedCaffeineMap} would gain with more capacity, and lose with less.
+ * <p>
+ * All the hits and misses are counted, while only a sample of the keys, selected by hash, is tracked once evicted:
+ * the sampled keys are kept as ghost entries, together with the amount of capacity that had been evicted when they
+ * were. A miss on a ghost entry would have been a hit if the container had been larger by the capacity evicted since
+ * then, so the ghost hits are counted in {@link #BANDS} bands of the capacity beyond the current one, up to
+ * {@link #GHOST_FRACTION} of it. The capacity is measured in the unit of the container, entries or bytes.
+ * <p>
+ * {@link #snapshot()} returns the counters accumulated since the previous snapshot, halving them so that older
+ * accesses weigh less and less.
+ *
+ * @since 16.2
+ */
+class UtilitySampler {
+   // One key in 16 is tracked once evicted
+   static final int SAMPLE_SHIFT = 4;
+   static final int BANDS = 8;
+   static final double GHOST_FRACTION = 0.5;
+
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder ghostHits = new LongAdder();
+
+   @GuardedBy("this")
+   private final Map<Integer, Long> ghosts = new LinkedHashMap<>();
+   @GuardedBy("this")
+   private final long[] bandHits = new long[BANDS];
+   // Sampled capacity evicted so far
+   @GuardedBy("this")
+   private long evicted;
+   @GuardedBy("this")
+   private long decayedHits;
+   @GuardedBy("this")
+   private long decayedMisses;
+   private volatile long capacity;
+
+   UtilitySampler(long capacity) {
+      this.capacity = capacity;
+   }
+
+   static int hash(String cacheName, Object key) {
+      int h = cacheName.hashCode() * 31 + key.hashCode();
+      // Spread the bits, the sampling relies on the low ones
+      h *= 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   private static boolean isSampled(int hash) {
+      return (hash & ((1 << SAMPLE_SHIFT) - 1)) == 0;
+   }
+
+   void recordAccess(String cacheName, Object key, boolean hit) {
+      if (hit) {
+         hits.increment();
+         return;
+      }
+      misses.increment();
+      int hash = hash(cacheName, key);
+      if (isSampled(hash)) {
+         recordSampledMiss(hash);
+      }
+   }
+
+   private synchronized void recordSampledMiss(int hash) {
+      Long evictedBefore = ghosts.remove(hash);
+      if (evictedBefore == null) {
+         return;
+      }
+      // The capacity the container needed to keep the entry
+      long distance = (evicted - evictedBefore) << SAMPLE_SHIFT;
+      int band = (int) (distance / bandSize());
+      if (band < BANDS) {
+         bandHits[band]++;
+         ghostHits.increment();
+      }
+   }
+
+   void recordEviction(String cacheName, Object key, long weight) {
+      int hash = hash(cacheName, key);
+      if (isSampled(hash)) {
+         recordSampledEviction(hash, weight);
+      }
+   }
+
+   private synchronized void recordSampledEviction(int hash, long weight) {
+      evicted += weight;
+      ghosts.remove(hash);
+      ghosts.put(hash, evicted);
+      // Drop the ghost entries the container could not keep even at the largest tracked capacity
+      long window = (long) (capacity * GHOST_FRACTION) >> SAMPLE_SHIFT;
+      for (Iterator<Long> it = ghosts.values().iterator(); it.hasNext(); ) {
+         if (evicted - it.next() <= window) {
+            break;
+         }
+         it.remove();
+      }
+   }
+
+   /**
+    * @return the capacity covered by every band, at least 1
+    */
+   long bandSize() {
+      return Math.max(1, (long) (capacity * GHOST_FRACTION) / BANDS);
+   }
+
+   void capacityChanged(long capacity) {
+      this.capacity = capacity;
+   }
+
+   long capacity() {
+      return capacity;
+   }
+
+   /**
+    * @return the total number of misses on ghost entries, scaled up by the sampling rate
+    */
+   long ghostHits() {
+      return ghostHits.sum() << SAMPLE_SHIFT;
+   }
+
+   synchronized int ghostEntries() {
+      return ghosts.size();
+   }
+
+   /**
+    * @return the decayed counters, with the ghost hits scaled up by the sampling rate
+    */
+   synchronized Snapshot snapshot() {
+      decayedHits = decayedHits / 2 + hits.sumThenReset();
+      decayedMisses = decayedMisses / 2 + misses.sumThenReset();
+      long[] bands = new long[BANDS];
+      for (int i = 0; i < BANDS; i++) {
+         bands[i] = bandHits[i] << SAMPLE_SHIFT;
+         bandHits[i] /= 2;
+      }
+      return new Snapshot(capacity, bandSize(), decayedHits, decayedMisses, bands);
+   }
+
+   /**
+    * The hits and misses of a container with the given capacity, and the hits it would have had in every band of
+    * {@code bandSize} capacity beyond it.
+    */
+   record Snapshot(long capacity, long bandSize, long hits, long misses, long[] bandHits) {
+
+      double hitRatio() {
+         long accesses = hits + misses;
+         return accesses == 0 ? 0 : (double) hits / accesses;
+      }
+
+      /**
+       * @return the hits gained by every unit of capacity added after the first {@code extra} ones
+       */
+      double gainDensity(long extra) {
+         long band = extra / bandSize;
+         return band < BANDS ? (double) bandHits[(int) band] / bandSize : 0;
+      }
+
+      /**
+       * The hits lost by every unit of capacity removed after the first {@code removed} ones. Only the hits on the
+       * evicted entries are sampled, so the density is interpolated from the density just beyond the current
+       * capacity, when nothing is removed, to the average density of the hits, when everything is.
+       */
+      double lossDensity(long removed) {
+         double edge = gainDensity(0);
+         double average = capacity == 0 ? 0 : (double) hits / capacity;
+         if (average <= edge) {
+            return edge;
+         }
+         return edge + (average - edge) * Math.min(1, (double) removed / capacity);
+      }
+
+      @Override
+      public String toString() {
+         return "Snapshot{capacity=" + capacity + ", bandSize=" + bandSize + ", hits=" + hits + ", misses=" + misses +
+               ", bandHits=" + Arrays.toString(bandHits) + '}';
+      }
+   }
+}
@@ -64,9 +64,12 @@
  * <p>
  * This map guarantees consistency under concurrent read ands writes through a {@link StripedLock} where each
  * {@link java.util.concurrent.locks.ReadWriteLock} instance protects an equivalent region of buckets in the underlying
- * memory lookup. Read operations, that is ones that only acquire the read lock for their specific lock region, are
- * ({@code get} and {@code peek}). Iteration on a returned entrySet or value collection will acquire only a single
- * read lock at a time while inspecting a given lock region for a valid value. Write operations, ones that acquire the
+ * memory lookup. Read operations ({@code get} and {@code peek}) first attempt an optimistic read of their lock region,
+ * validating the lock stamp before following any address they read, and only acquire the read lock when a write
+ * happened concurrently. Thus they do not write to memory shared with other threads. Gets that have to notify the
+ * {@link EntryListener#entryRetrieved(long)} always acquire the read lock. Iteration on a returned entrySet or value
+ * collection will acquire only a single read lock at a time while inspecting a given lock region for a valid value.
+ * Write operations, ones that acquire the
  * write lock for the lock region, are ({@code put}, {@code remove}, {@code replace}, {@code compute}. A clear
  * will acquire all write locks when invoked. This allows the clear to also resize the map down to the initial size.
  * <p>
@@ -91,6 +94,9 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
     * locks#writeLock: The appropriate write lock for the given key must be held when invoking this method.
     * locks#lockAll:   All write locks must be held before invoking this method.
     * locks:           Any read or write lock must be held while reading these - however writes must acquire all write locks.
+    *
+    * Optimistic readers may read the memory of an entry after it was removed, so the memory of removed entries is
+    * retired and only freed, in batches, after waiting for the optimistic readers with OptimisticReaders#awaitReaders.
     */
 
    /* ---------------- Constants -------------- */
@@ -109,6 +115,9 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private static final int LOCK_SHIFT = 31 - Integer.numberOfTrailingZeros(LOCK_COUNT);
    // The number of bits required to shift to the right to get the bucket size from a given pointer address
    private static final int LOCK_REGION_SHIFT = Integer.numberOfTrailingZeros(LOCK_COUNT);
+   // How many removed entries, or bytes, are retired before waiting for the optimistic readers and freeing them
+   private static final int RETIRED_BATCH_SIZE = 64;
+   private static final long RETIRED_BATCH_BYTES = 256 * 1024;
 
    private final AtomicLong size = new AtomicLong();
    private final StripedLock locks;
@@ -117,6 +126,8 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private final OffHeapEntryFactory offHeapEntryFactory;
 
    private final EntryListener listener;
+   private final boolean optimisticReads;
+   private final RetiredEntries retiredEntries = new RetiredEntries();
 
    // Once this threshold size is met, the underlying buckets will be re-sized if possible
    // This variable can be read outside of locks - thus is volatile, however should only be modified while holding
@@ -143,9 +154,15 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
 
    public OffHeapConcurrentMap(OffHeapMemoryAllocator allocator,
          OffHeapEntryFactory offHeapEntryFactory, EntryListener listener) {
+      this(allocator, offHeapEntryFactory, listener, true);
+   }
+
+   OffHeapConcurrentMap(OffHeapMemoryAllocator allocator, OffHeapEntryFactory offHeapEntryFactory,
+         EntryListener listener, boolean optimisticReads) {
       this.allocator = Objects.requireNonNull(allocator);
       this.offHeapEntryFactory = Objects.requireNonNull(offHeapEntryFactory);
       this.listener = listener;
+      this.optimisticReads = optimisticReads;
 
       locks = new StripedLock(LOCK_COUNT);
 
@@ -275,7 +292,7 @@ private void entryRemoved(long removedAddress) {
       if (listener != null) {
          listener.entryRemoved(removedAddress);
       }
-      allocator.deallocate(removedAddress, offHeapEntryFactory.getSize(removedAddress, false));
+      retire(removedAddress);
    }
 
    @GuardedBy("locks#writeLock")
@@ -283,7 +300,40 @@ private void entryReplaced(long newAddress, long oldAddress) {
       if (listener != null) {
          listener.entryReplaced(newAddress, oldAddress);
       }
-      allocator.deallocate(oldAddress, offHeapEntryFactory.getSize(oldAddress, false));
+      retire(oldAddress);
+   }
+
+   /**
+    * Frees the memory of a removed entry once the optimistic readers that may be reading it are done.
+    * @param address the address of the removed entry
+    */
+   @GuardedBy("locks#writeLock")
+   private void retire(long address) {
+      long size = offHeapEntryFactory.getSize(address, false);
+      if (!optimisticReads) {
+         allocator.deallocate(address, size);
+         return;
+      }
+      RetiredBatch full = retiredEntries.add(address, size);
+      if (full != null) {
+         // Every entry in the batch was retired while holding the write lock of its region, so optimistic readers
+         // starting after this point either can't get a stamp for that region or get one after the entry was removed
+         OptimisticReaders.awaitReaders();
+         full.free(allocator);
+      }
+   }
+
+   /**
+    * Waits for the optimistic readers that started before all the write locks were acquired, after which any memory
+    * can be freed while the locks are held.
+    */
+   @GuardedBy("locks#lockAll")
+   private void awaitOptimisticReaders() {
+      if (optimisticReads) {
+         RetiredBatch retired = retiredEntries.drain();
+         OptimisticReaders.awaitReaders();
+         retired.free(allocator);
+      }
    }
 
    @GuardedBy("locks#readLock")
@@ -466,6 +516,7 @@ private void transferComplete() {
       }
       this.oldMemoryLookup = null;
 
+      awaitOptimisticReaders();
       oldMemoryLookup.deallocate();
    }
 
@@ -622,6 +673,33 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(WrappedBytes k,
       int hashCode = k.hashCode();
       int lockOffset = getLockOffset(hashCode);
       StampedLock stampedLock = locks.getLockWithOffset(lockOffset);
+      // The listener may have to update the retrieved entry, so it can't be removed concurrently
+      if (optimisticReads && (peek || listener == null)) {
+         OptimisticReaders.Slot slot = OptimisticReaders.enter();
+         try {
+            long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+               InternalCacheEntry<WrappedBytes, WrappedBytes> ice;
+               try {
+                  ice = optimisticPeek(stampedLock, stamp, lockOffset, k, hashCode);
+               } catch (RuntimeException e) {
+                  // Metadata rewritten in place while reading it may fail to unmarshall
+                  if (stampedLock.validate(stamp)) {
+                     throw e;
+                  }
+                  ice = null;
+               }
+               if (stampedLock.validate(stamp)) {
+                  return ice;
+               }
+            }
+         } finally {
+            if (slot != null) {
+               slot.exit();
+            }
+         }
+      }
+      // A write happened concurrently, fall back to the read lock
       long readStamp = stampedLock.readLock();
       try {
          checkDeallocation();
@@ -637,6 +715,37 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(WrappedBytes k,
       }
    }
 
+   /**
+    * Reads the entry without holding the lock. Every address is validated against the stamp before it is followed, so
+    * the memory read was reachable when the stamp was valid and, thanks to {@link OptimisticReaders}, not freed yet.
+    * The caller must validate the stamp again before using the returned entry.
+    */
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> optimisticPeek(StampedLock stampedLock, long stamp,
+         int lockOffset, WrappedBytes k, int hashCode) {
+      MemoryAddressHash memoryLookup = this.memoryLookup;
+      int memoryShift = this.memoryShift;
+      IntSet pendingBlocks = this.pendingBlocks;
+      if (pendingBlocks != null && pendingBlocks.contains(lockOffset)) {
+         memoryLookup = this.oldMemoryLookup;
+         memoryShift = this.oldMemoryShift;
+      }
+      if (!stampedLock.validate(stamp)) {
+         return null;
+      }
+      checkDeallocation();
+      long address = memoryLookup.getMemoryAddressOffset(getOffset(hashCode, memoryShift));
+      while (address != 0) {
+         if (!stampedLock.validate(stamp)) {
+            return null;
+         }
+         if (offHeapEntryFactory.equalsKey(address, k, hashCode)) {
+            return offHeapEntryFactory.fromMemory(address);
+         }
+         address = offHeapEntryFactory.getNext(address);
+      }
+      return null;
+   }
+
    @GuardedBy("locks#readLock")
    private InternalCacheEntry<WrappedBytes, WrappedBytes> lockedPeekOrGet(MemoryAddressHash memoryLookup,
          WrappedBytes k, int hashCode, boolean peek) {
@@ -935,10 +1044,15 @@ private void actualClear() {
       if (log.isTraceEnabled()) {
          log.trace("Clearing off-heap data");
       }
+      awaitOptimisticReaders();
       LongConsumer removeEntries = address -> {
          while (address != 0) {
             long nextAddress = offHeapEntryFactory.getNext(address);
-            entryRemoved(address);
+            if (listener != null) {
+               listener.entryRemoved(address);
+            }
+            // No need to retire the memory, no optimistic reader can be reading it
+            allocator.deallocate(address, offHeapEntryFactory.getSize(address, false));
             address = nextAddress;
          }
       };
@@ -1123,6 +1237,48 @@ public boolean remove(Object o) {
       };
    }
 
+   /**
+    * The entries removed from the map that were not freed yet.
+    */
+   private static class RetiredEntries {
+      @GuardedBy("this")
+      private RetiredBatch batch = new RetiredBatch();
+
+      /**
+       * @return the batch to free if it is full, {@code null} otherwise
+       */
+      synchronized RetiredBatch add(long address, long size) {
+         RetiredBatch current = batch;
+         current.addresses[current.count] = address;
+         current.sizes[current.count] = size;
+         current.bytes += size;
+         if (++current.count < RETIRED_BATCH_SIZE && current.bytes < RETIRED_BATCH_BYTES) {
+            return null;
+         }
+         batch = new RetiredBatch();
+         return current;
+      }
+
+      synchronized RetiredBatch drain() {
+         RetiredBatch current = batch;
+         batch = new RetiredBatch();
+         return current;
+      }
+   }
+
+   private static class RetiredBatch {
+      final long[] addresses = new long[RETIRED_BATCH_SIZE];
+      final long[] sizes = new long[RETIRED_BATCH_SIZE];
+      int count;
+      long bytes;
+
+      void free(OffHeapMemoryAllocator allocator) {
+         for (int i = 0; i < count; ++i) {
+            allocator.deallocate(addresses[i], sizes[i]);
+         }
+      }
+   }
+
    /**
     * Stateful iterator implementation that works by going through the underlying buckets one by one until it finds
     * a non empty bucket. It will then store the values from that bucket to be returned via the {@code next} method.
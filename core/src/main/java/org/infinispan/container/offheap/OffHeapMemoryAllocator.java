@@ -23,4 +23,12 @@ public interface OffHeapMemoryAllocator {
    void deallocate(long memoryAddress, long size);
 
    long getAllocatedAmount();
+
+   /**
+    * @return the memory currently allocated to the callers, which is lower than {@link #getAllocatedAmount()} when the
+    * allocator keeps free memory for the next allocations
+    */
+   default long getUsedAmount() {
+      return getAllocatedAmount();
+   }
 }
@@ -0,0 +1,103 @@
+package org.infinispan.container.offheap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the threads that read off-heap memory with an optimistic {@link java.util.concurrent.locks.StampedLock}
+ * stamp instead of a read lock, so that memory they may still be reading is not freed underneath them.
+ * <p>
+ * A reader invokes {@link #enter()} before taking its stamp and {@link Slot#exit()} once it is done. A writer that
+ * unlinked some memory while holding the write lock must invoke {@link #awaitReaders()} before freeing it: the readers
+ * that entered before the wait started are waited for, while readers entering later either fail to get a stamp,
+ * because the write lock is still held, or get one after the unlink and can't reach the memory anymore. Readers must
+ * not block while entered, for example on a read lock, as the writer waits for them while holding its lock.
+ * <p>
+ * Every thread only writes to its own padded slot, so readers never write to a cache line shared with other threads.
+ *
+ * @since 16.2
+ */
+final class OptimisticReaders {
+   private static final AtomicLong EPOCH = new AtomicLong(1);
+   private static final Queue<Slot> SLOTS = new ConcurrentLinkedQueue<>();
+   private static final ThreadLocal<Slot> LOCAL_SLOT = ThreadLocal.withInitial(() -> {
+      Slot slot = new Slot(Thread.currentThread());
+      SLOTS.add(slot);
+      return slot;
+   });
+   private static final int SPINS_BEFORE_YIELD = 64;
+
+   private OptimisticReaders() { }
+
+   /**
+    * Announces the current thread as a reader.
+    *
+    * @return the slot to {@link Slot#exit()} once done, or {@code null} if the thread had already entered
+    */
+   static Slot enter() {
+      Slot slot = LOCAL_SLOT.get();
+      if (slot.epoch != 0) {
+         return null;
+      }
+      // Volatile write so that it is visible before the reader takes its stamp
+      slot.epoch = EPOCH.get();
+      return slot;
+   }
+
+   /**
+    * Waits until all the readers that entered before this invocation have exited.
+    */
+   static void awaitReaders() {
+      long epoch = EPOCH.getAndIncrement();
+      Iterator<Slot> iterator = SLOTS.iterator();
+      while (iterator.hasNext()) {
+         Slot slot = iterator.next();
+         int spins = 0;
+         long slotEpoch;
+         while ((slotEpoch = slot.epoch) != 0 && slotEpoch <= epoch) {
+            if (++spins < SPINS_BEFORE_YIELD) {
+               Thread.onSpinWait();
+            } else {
+               Thread.yield();
+            }
+         }
+         if (slot.owner.refersTo(null)) {
+            // The thread is gone, it can't have entered
+            iterator.remove();
+         }
+      }
+   }
+
+   @SuppressWarnings("unused")
+   static final class Slot {
+      private static final VarHandle EPOCH_HANDLE;
+
+      static {
+         try {
+            EPOCH_HANDLE = MethodHandles.lookup().findVarHandle(Slot.class, "epoch", long.class);
+         } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+         }
+      }
+
+      // Padding so that the epochs of different threads don't share a cache line
+      private long p01, p02, p03, p04, p05, p06, p07;
+      private volatile long epoch;
+      private long p11, p12, p13, p14, p15, p16, p17;
+      private final WeakReference<Thread> owner;
+
+      private Slot(Thread owner) {
+         this.owner = new WeakReference<>(owner);
+      }
+
+      void exit() {
+         // Writers only need to eventually observe the exit
+         EPOCH_HANDLE.setRelease(this, 0L);
+      }
+   }
+}
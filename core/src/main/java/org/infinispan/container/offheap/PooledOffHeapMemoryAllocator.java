@@ -0,0 +1,327 @@
+package org.infinispan.container.offheap;
+
+import static org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator.estimateSizeOverhead;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.infinispan.commons.spi.OffHeapMemory;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Memory allocator that carves small allocations out of large slabs and reuses them, instead of going to the native
+ * allocator for every entry.
+ * <p>
+ * Allocations are rounded up to a size class: multiples of 16 bytes up to 256 bytes, then 4 classes per power of two
+ * up to {@link #MAX_POOLED_SIZE}. Every size class keeps a list of free chunks, linked through their first 8 bytes,
+ * and every thread keeps a small cache of free chunks per class, so most allocations and deallocations neither lock
+ * nor call the native allocator. Larger allocations, like the bucket arrays of {@link MemoryAddressHash}, are
+ * allocated directly like {@link UnpooledOffHeapMemoryAllocator} does.
+ * <p>
+ * Slabs are only released when the allocator is stopped, so the native memory stays at the peak usage of the cache
+ * instead of fragmenting the native heap. {@link #getAllocatedAmount()} reports the memory reserved from the native
+ * allocator, free chunks included, while {@link #getUsedAmount()} only counts the memory currently allocated.
+ *
+ * @since 16.2
+ */
+@Scope(Scopes.NAMED_CACHE)
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class);
+   private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
+
+   static final int SLAB_SIZE = 1 << 20;
+   static final int MAX_POOLED_SIZE = 16 * 1024;
+   // Classes of 16, 32, ..., 256 bytes
+   private static final int SMALL_CLASSES = 16;
+   private static final int SMALL_CLASS_SHIFT = 8;
+   // Classes between two consecutive powers of two above 256 bytes
+   private static final int SUB_CLASSES = 4;
+   static final int SIZE_CLASSES = SMALL_CLASSES +
+         (Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - SMALL_CLASS_SHIFT) * SUB_CLASSES;
+   // Upper bound of the memory a thread caches for a size class
+   private static final int THREAD_CACHE_BYTES = 16 * 1024;
+   private static final int MAX_THREAD_CACHE_CHUNKS = 32;
+
+   private final SizeClass[] sizeClasses = new SizeClass[SIZE_CLASSES];
+   private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(ThreadCache::new);
+   private final LongAdder unpooledAmount = new LongAdder();
+   private final LongAdder pooledUsedAmount = new LongAdder();
+
+   private final Object slabLock = new Object();
+   @GuardedBy("slabLock")
+   private long[] slabs = new long[16];
+   @GuardedBy("slabLock")
+   private int slabCount;
+   @GuardedBy("slabLock")
+   private long slabAddress;
+   @GuardedBy("slabLock")
+   private int slabOffset = SLAB_SIZE;
+   private volatile long slabAmount;
+   // Incremented when the slabs are released, so that threads drop the chunks in their caches
+   private volatile int generation;
+   private volatile boolean stopped;
+
+   public PooledOffHeapMemoryAllocator() {
+      for (int i = 0; i < SIZE_CLASSES; i++) {
+         sizeClasses[i] = new SizeClass(classSize(i));
+      }
+   }
+
+   static int sizeClass(int size) {
+      size = Math.max(1, size);
+      if (size <= 1 << SMALL_CLASS_SHIFT) {
+         return ((size + 15) >> 4) - 1;
+      }
+      // 2^power < size <= 2^(power + 1)
+      int power = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(size - 1);
+      int subClassShift = power - 2;
+      int subClass = (size - 1 - (1 << power)) >> subClassShift;
+      return SMALL_CLASSES + (power - SMALL_CLASS_SHIFT) * SUB_CLASSES + subClass;
+   }
+
+   static int classSize(int sizeClass) {
+      if (sizeClass < SMALL_CLASSES) {
+         return (sizeClass + 1) << 4;
+      }
+      int power = SMALL_CLASS_SHIFT + (sizeClass - SMALL_CLASSES) / SUB_CLASSES;
+      int subClass = (sizeClass - SMALL_CLASSES) % SUB_CLASSES;
+      return (1 << power) + ((subClass + 1) << (power - 2));
+   }
+
+   @Start
+   public void start() {
+      stopped = false;
+   }
+
+   /**
+    * Releases all the slabs. The memory allocated from the pools must not be used or deallocated afterwards.
+    */
+   @Stop
+   public void stop() {
+      synchronized (slabLock) {
+         stopped = true;
+         generation++;
+         for (SizeClass sizeClass : sizeClasses) {
+            sizeClass.clear();
+         }
+         for (int i = 0; i < slabCount; i++) {
+            MEMORY.free(slabs[i]);
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Released %d off-heap slabs", slabCount);
+         }
+         slabCount = 0;
+         slabAddress = 0;
+         slabOffset = SLAB_SIZE;
+         slabAmount = 0;
+         pooledUsedAmount.reset();
+      }
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      if (memoryLength > MAX_POOLED_SIZE) {
+         return allocateUnpooled(memoryLength);
+      }
+      int sizeClass = sizeClass((int) memoryLength);
+      ThreadCache cache = threadCache();
+      long[] chunks = cache.chunks(sizeClass);
+      int count = cache.counts[sizeClass];
+      if (count == 0) {
+         count = sizeClasses[sizeClass].refill(chunks);
+      }
+      long memoryLocation = chunks[--count];
+      cache.counts[sizeClass] = count;
+      pooledUsedAmount.add(sizeClasses[sizeClass].size);
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated pooled off-heap memory at 0x%016x with %d bytes", memoryLocation,
+               sizeClasses[sizeClass].size);
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      if (size > MAX_POOLED_SIZE) {
+         deallocateUnpooled(memoryAddress, size);
+         return;
+      }
+      if (stopped) {
+         // The slab holding the memory was already released
+         return;
+      }
+      int sizeClass = sizeClass((int) size);
+      pooledUsedAmount.add(-sizeClasses[sizeClass].size);
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating pooled off-heap memory at 0x%016x with %d bytes", memoryAddress,
+               sizeClasses[sizeClass].size);
+      }
+      ThreadCache cache = threadCache();
+      long[] chunks = cache.chunks(sizeClass);
+      int count = cache.counts[sizeClass];
+      if (count == chunks.length) {
+         // Keep the most recently freed half, which is more likely to still be in the CPU cache
+         int keep = chunks.length / 2;
+         sizeClasses[sizeClass].release(chunks, 0, count - keep);
+         System.arraycopy(chunks, count - keep, chunks, 0, keep);
+         count = keep;
+      }
+      chunks[count++] = memoryAddress;
+      cache.counts[sizeClass] = count;
+   }
+
+   /**
+    * @return the native memory reserved by this allocator, including the free chunks of the slabs
+    */
+   @Override
+   public long getAllocatedAmount() {
+      return slabAmount + unpooledAmount.sum();
+   }
+
+   /**
+    * @return the memory currently allocated, rounded up to the size classes
+    */
+   @Override
+   public long getUsedAmount() {
+      return pooledUsedAmount.sum() + unpooledAmount.sum();
+   }
+
+   private long allocateUnpooled(long memoryLength) {
+      long estimatedMemoryLength = estimateSizeOverhead(memoryLength);
+      long memoryLocation = MEMORY.allocate(memoryLength);
+      unpooledAmount.add(estimatedMemoryLength);
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated off-heap memory at 0x%016x with %d bytes", memoryLocation, estimatedMemoryLength);
+      }
+      return memoryLocation;
+   }
+
+   private void deallocateUnpooled(long memoryAddress, long size) {
+      long estimatedMemoryLength = estimateSizeOverhead(size);
+      unpooledAmount.add(-estimatedMemoryLength);
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating off-heap memory at 0x%016x with %d bytes", memoryAddress, estimatedMemoryLength);
+      }
+      MEMORY.free(memoryAddress);
+   }
+
+   private ThreadCache threadCache() {
+      ThreadCache cache = threadCaches.get();
+      int currentGeneration = generation;
+      if (cache.generation != currentGeneration) {
+         // The cached chunks belong to released slabs
+         Arrays.fill(cache.counts, 0);
+         cache.generation = currentGeneration;
+      }
+      return cache;
+   }
+
+   /**
+    * Carves up to {@code max} chunks of {@code size} bytes out of the current slab, allocating a new slab if the
+    * current one doesn't have room for any. The tail of the previous slab is left unused.
+    */
+   private int carve(int size, long[] chunks, int max) {
+      synchronized (slabLock) {
+         if (SLAB_SIZE - slabOffset < size) {
+            slabAddress = MEMORY.allocate(SLAB_SIZE);
+            slabOffset = 0;
+            if (slabCount == slabs.length) {
+               slabs = Arrays.copyOf(slabs, slabCount * 2);
+            }
+            slabs[slabCount++] = slabAddress;
+            slabAmount += estimateSizeOverhead(SLAB_SIZE);
+            if (log.isTraceEnabled()) {
+               log.tracef("Allocated off-heap slab at 0x%016x, slabs: %d", slabAddress, slabCount);
+            }
+         }
+         int count = Math.min(max, (SLAB_SIZE - slabOffset) / size);
+         for (int i = 0; i < count; i++) {
+            chunks[i] = slabAddress + slabOffset;
+            slabOffset += size;
+         }
+         return count;
+      }
+   }
+
+   private final class SizeClass {
+      final int size;
+      final int threadCacheChunks;
+      final ReentrantLock lock = new ReentrantLock();
+      @GuardedBy("lock")
+      long head;
+
+      SizeClass(int size) {
+         this.size = size;
+         this.threadCacheChunks = Math.max(2, Math.min(MAX_THREAD_CACHE_CHUNKS, THREAD_CACHE_BYTES / size));
+      }
+
+      /**
+       * Fills half of the thread cache with chunks from the free list, or from a slab if the free list is empty.
+       *
+       * @return the number of chunks written to {@code chunks}, always positive
+       */
+      int refill(long[] chunks) {
+         int batch = chunks.length / 2;
+         int count = 0;
+         lock.lock();
+         try {
+            while (count < batch && head != 0) {
+               chunks[count++] = head;
+               head = MEMORY.getLong(head, 0);
+            }
+         } finally {
+            lock.unlock();
+         }
+         return count > 0 ? count : carve(size, chunks, batch);
+      }
+
+      /**
+       * Pushes the chunks between {@code from} (inclusive) and {@code to} (exclusive) to the free list.
+       */
+      void release(long[] chunks, int from, int to) {
+         // Link the chunks before acquiring the lock
+         for (int i = from; i < to - 1; i++) {
+            MEMORY.putLong(chunks[i], 0, chunks[i + 1]);
+         }
+         lock.lock();
+         try {
+            MEMORY.putLong(chunks[to - 1], 0, head);
+            head = chunks[from];
+         } finally {
+            lock.unlock();
+         }
+      }
+
+      void clear() {
+         lock.lock();
+         try {
+            head = 0;
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   private final class ThreadCache {
+      final long[][] chunks = new long[SIZE_CLASSES][];
+      final int[] counts = new int[SIZE_CLASSES];
+      int generation = PooledOffHeapMemoryAllocator.this.generation;
+
+      long[] chunks(int sizeClass) {
+         long[] classChunks = chunks[sizeClass];
+         if (classChunks == null) {
+            classChunks = new long[sizeClasses[sizeClass].threadCacheChunks];
+            chunks[sizeClass] = classChunks;
+         }
+         return classChunks;
+      }
+   }
+}
@@ -41,6 +41,7 @@
 import org.infinispan.interceptors.impl.PassivationCacheLoaderInterceptor;
 import org.infinispan.interceptors.impl.PassivationClusteredCacheLoaderInterceptor;
 import org.infinispan.interceptors.impl.PassivationWriterInterceptor;
+import org.infinispan.interceptors.impl.PreloadInterceptor;
 import org.infinispan.interceptors.impl.PessimisticTxIracLocalInterceptor;
 import org.infinispan.interceptors.impl.TransactionalExceptionEvictionInterceptor;
 import org.infinispan.interceptors.impl.TransactionalStoreInterceptor;
@@ -125,6 +126,11 @@ private AsyncInterceptorChain buildInterceptorChain() {
       // load the cache management interceptor next
       interceptorChain.appendInterceptor(createInterceptor(new CacheMgmtInterceptor(), CacheMgmtInterceptor.class), false);
 
+      // writes must wait for the preload of their segments
+      if (configuration.persistence().availableDuringPreload()) {
+         interceptorChain.appendInterceptor(createInterceptor(new PreloadInterceptor(), PreloadInterceptor.class), false);
+      }
+
       // the state transfer interceptor sets the topology id and retries on topology changes
       // so it's necessary even if there is no state transfer
       // the only exception is non-tx invalidation mode, which ignores lock owners
@@ -94,6 +94,27 @@ public static <R> R snapshot(R ret) {
       return ret;
    }
 
+   /**
+    * Internal accessor for the functions executed by the server modules, which store their own {@link Metadata}
+    * implementations that {@link ReadEntryView#findMetaParam(Class)} cannot read.
+    *
+    * @return the metadata of the entry when the function started, or {@code null} if it has none.
+    */
+   public static Metadata metadata(ReadEntryView<?, ?> view) {
+      if (view instanceof EntryBackedReadWriteView<?, ?> readWrite) {
+         return readWrite.prevMetadata;
+      } else if (view instanceof EntryAndPreviousReadWriteView<?, ?> readWrite) {
+         return readWrite.prevMetadata;
+      } else if (view instanceof EntryBackedReadOnlyView<?, ?> readOnly) {
+         return readOnly.entry == null ? null : readOnly.entry.getMetadata();
+      } else if (view instanceof AbstractReadEntryView<?, ?> snapshot) {
+         return snapshot.metadata;
+      } else if (view instanceof NoValueReadOnlyView) {
+         return null;
+      }
+      throw new IllegalArgumentException("Unknown entry view " + view);
+   }
+
    public interface AccessLoggingReadWriteView<K, V> extends ReadWriteEntryView<K, V> {
       boolean isRead();
    }
@@ -219,6 +240,8 @@ public String toString() {
 
    private static final class EntryBackedReadWriteView<K, V> implements AccessLoggingReadWriteView<K, V> {
       final MVCCEntry entry;
+      // the metadata of the entry is replaced when the function sets the value
+      final Metadata prevMetadata;
       private final DataConversion keyDataConversion;
       private final DataConversion valueDataConversion;
       private final boolean existsBefore;
@@ -231,6 +254,7 @@ private EntryBackedReadWriteView(MVCCEntry entry, DataConversion keyDataConversi
          this.keyDataConversion = keyDataConversion;
          this.valueDataConversion = valueDataConversion;
          this.existsBefore = entry.getValue() != null;
+         this.prevMetadata = entry.getMetadata();
       }
 
       @Override
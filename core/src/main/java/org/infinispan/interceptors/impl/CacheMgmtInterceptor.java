@@ -763,6 +763,14 @@ public long getOffHeapMemoryUsed() {
       return allocator.getAllocatedAmount();
    }
 
+   @ManagedAttribute(
+         description = "Amount of off-heap memory held by the entries of this cache (bytes)",
+         displayName = "Off-Heap memory in use"
+   )
+   public long getOffHeapMemoryInUse() {
+      return allocator.getUsedAmount();
+   }
+
    @ManagedAttribute(
          description = "Amount of nodes required to guarantee data consistency",
          displayName = "Required Minimum Nodes"
@@ -0,0 +1,60 @@
+package org.infinispan.interceptors.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.impl.ComponentRef;
+import org.infinispan.interceptors.DDAsyncInterceptor;
+import org.infinispan.persistence.manager.PreloadManager;
+
+/**
+ * Interceptor installed when the cache is available during preload.
+ * <p>
+ * Delays the writes until the segments of their keys have been preloaded, so that the preload does not overwrite them
+ * with the values in the store. Reads are not delayed, the entries not preloaded yet are loaded from the store.
+ *
+ * @since 16.2
+ */
+public class PreloadInterceptor extends DDAsyncInterceptor {
+
+   // The preload manager depends on the interceptor chain
+   @Inject ComponentRef<PreloadManager> preloadManager;
+   @Inject KeyPartitioner keyPartitioner;
+
+   @Override
+   protected Object handleDefault(InvocationContext ctx, VisitableCommand command) throws Throwable {
+      if (!(command instanceof WriteCommand)) {
+         return invokeNext(ctx, command);
+      }
+      PreloadManager manager = preloadManager.wired();
+      CompletionStage<Void> preloaded = manager.preloaded();
+      if (CompletionStages.isCompletedSuccessfully(preloaded)) {
+         return invokeNext(ctx, command);
+      }
+      if (command instanceof DataWriteCommand) {
+         return asyncInvokeNext(ctx, command, manager.segmentPreloaded(((DataWriteCommand) command).getSegment()));
+      }
+      if (command instanceof ClearCommand) {
+         return asyncInvokeNext(ctx, command, preloaded);
+      }
+      Collection<?> keys = ((WriteCommand) command).getAffectedKeys();
+      List<CompletionStage<Void>> delays = new ArrayList<>(keys.size());
+      for (Object key : keys) {
+         CompletionStage<Void> segmentPreloaded = manager.segmentPreloaded(keyPartitioner.getSegment(key));
+         if (!CompletionStages.isCompletedSuccessfully(segmentPreloaded)) {
+            delays.add(segmentPreloaded);
+         }
+      }
+      return asyncInvokeNext(ctx, command, delays);
+   }
+}
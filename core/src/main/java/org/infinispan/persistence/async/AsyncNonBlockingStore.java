@@ -2,8 +2,12 @@
 
 import java.lang.invoke.MethodHandles;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -15,10 +19,13 @@
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import javax.management.ObjectName;
+
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.IllegalLifecycleStateException;
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.reactive.RxJavaInterop;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
@@ -26,7 +33,9 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.jmx.CacheJmxRegistration;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
@@ -46,7 +55,13 @@
 
 /**
  * A delegating NonBlockingStore implementation that batches write operations and runs the resulting batches on the
- * delegate store in a non overlapping manner. That is that only a single batch will be running at a time.
+ * delegate store in a non overlapping manner. That is that only a single batch will be running at a time per lane.
+ * <p>
+ * The modifications are partitioned in {@link AsyncStoreConfiguration#batchLanes()} lanes by segment, or by key if
+ * the delegate store is not segmented, so all the modifications to a key are written in order by the same lane. A
+ * clear waits until no lane is writing a batch, and the lanes wait for the clear to complete. When a
+ * {@link AsyncStoreConfiguration#targetBatchLatency() target batch latency} is configured, a batch only contains the
+ * oldest pending modifications of its lane, up to a size adapted to the latency of the previous batches.
  * <p>
  * Whenever a write operation is performed it will also attempt to start a batch write immediately to the delegate store.
  * Any concurrent writes during this time may be included in the batch. Any additional writes will be enqueued until
@@ -66,6 +81,7 @@
  */
 public class AsyncNonBlockingStore<K, V> extends DelegatingNonBlockingStore<K, V> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   private static final int MIN_BATCH_SIZE = 16;
    private final NonBlockingStore<K, V> actual;
 
    private Executor nonBlockingExecutor;
@@ -76,12 +92,19 @@
 
    // "Non blocking" scheduler used for the purpose of delaying retry batch operations on failures
    private ScheduledExecutorService scheduler;
+   private TimeService timeService;
+   private final WriteBehindStatistics statistics = new WriteBehindStatistics(this);
+   private ObjectName statisticsObjectName;
+   private InitializationContext ctx;
+
+   // The modifications are partitioned in lanes, each lane writing at most one batch at a time to the delegate store
+   @GuardedBy("this")
+   private Lane[] lanes = {};
 
-   // This variable will be non null if there is a pending batch being sent to the underlying store
-   // If a request causes the modification queue to overflow it will receive a stage back that is only complete
-   // when this future is completed (aka. previous replication has completed)
+   // This variable will be non null if there is a clear being sent to the underlying store, no lane can write a batch
+   // at the same time
    @GuardedBy("this")
-   private CompletableFuture<Void> batchFuture;
+   private CompletableFuture<Void> clearFuture;
 
    // This variable will be non null if the underlying store has been found to be not available
    // Note that the async store will still be available as long as the queue size (ie. modificationMap.size) is not
@@ -89,21 +112,9 @@
    @GuardedBy("this")
    private CompletableFuture<Void> delegateAvailableFuture;
 
-   // Any pending modifications will be enqueued in this map
-   @GuardedBy("this")
-   private Map<Object, Modification> pendingModifications = new HashMap<>();
    // If there is a pending clear this will be true
    @GuardedBy("this")
    private boolean hasPendingClear;
-   // The next two variables are held temporarily until a replication of the values is complete. We need to retain
-   // these values until we are sure the entries are actually in the store - note these variables are only written to
-   // via reference (thus the map is safe to read outside of this lock, but the reference must be read in synchronized)
-   // This map contains all the modifications currently being replicated to the delegating store
-   @GuardedBy("this")
-   private Map<Object, Modification> replicatingModifications = Collections.emptyMap();
-   // True if there is an outstanding clear that is being ran on the delegating store
-   @GuardedBy("this")
-   private boolean isReplicatingClear;
    private volatile boolean stopped = true;
 
    public AsyncNonBlockingStore(NonBlockingStore<K, V> actual) {
@@ -129,10 +140,45 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       asyncConfiguration = storeConfiguration.async();
       modificationQueueSize = asyncConfiguration.modificationQueueSize();
       nonBlockingExecutor = ctx.getNonBlockingExecutor();
+      timeService = ctx.getTimeService();
+      long targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(asyncConfiguration.targetBatchLatency());
+      int maxBatchSize = Math.max(MIN_BATCH_SIZE, modificationQueueSize);
+      Lane[] newLanes = new Lane[asyncConfiguration.batchLanes()];
+      for (int i = 0; i < newLanes.length; i++) {
+         newLanes[i] = new Lane(i, targetLatencyNanos, maxBatchSize);
+      }
+      synchronized (this) {
+         lanes = newLanes;
+      }
+      this.ctx = ctx;
+      statisticsObjectName = registerStatistics();
       stopped = false;
       return actual.start(ctx);
    }
 
+   private ObjectName registerStatistics() {
+      CacheJmxRegistration jmxRegistration = ComponentRegistry.componentOf(ctx.getCache(), CacheJmxRegistration.class);
+      if (jmxRegistration != null && jmxRegistration.enabled()) {
+         try {
+            return jmxRegistration.registerExternalMBean(statistics, jmxRegistration.getGroupName());
+         } catch (Exception e) {
+            log.debugf(e, "Unable to register the statistics MBean %s", statistics);
+         }
+      }
+      return null;
+   }
+
+   private void unregisterStatistics() {
+      if (statisticsObjectName != null) {
+         try {
+            ComponentRegistry.componentOf(ctx.getCache(), CacheJmxRegistration.class).unregisterMBean(statisticsObjectName);
+         } catch (Exception e) {
+            log.debugf(e, "Unable to unregister the statistics MBean %s", statisticsObjectName);
+         }
+         statisticsObjectName = null;
+      }
+   }
+
    @Override
    public CompletionStage<Void> stop() {
       CompletionStage<Void> asyncStage;
@@ -145,6 +191,7 @@ public CompletionStage<Void> stop() {
             log.tracef("Stopping store %s from async store", actual);
          }
          stopped = true;
+         unregisterStatistics();
          return actual.stop();
       });
    }
@@ -153,111 +200,151 @@ public CompletionStage<Void> stop() {
     * Returns a stage that when complete, this store has submitted and completed all pending modifications
     */
    private CompletionStage<Void> awaitQuiescence() {
-      CompletionStage<Void> stage;
+      List<CompletableFuture<Void>> stages = new ArrayList<>();
       synchronized (this) {
-         stage = batchFuture;
+         if (clearFuture != null) {
+            stages.add(clearFuture);
+         }
+         for (Lane lane : lanes) {
+            if (lane.batchFuture != null) {
+               stages.add(lane.batchFuture);
+            }
+         }
       }
-      if (stage == null) {
+      if (stages.isEmpty()) {
          return CompletableFutures.completedNull();
       }
       if (log.isTraceEnabled()) {
-         log.tracef("Must wait until prior batch completes for %s", actual);
+         log.tracef("Must wait until %d prior batches complete for %s", stages.size(), actual);
       }
-      return stage.thenCompose(ignore -> awaitQuiescence());
+      return CompletableFuture.allOf(stages.toArray(new CompletableFuture[0]))
+            .thenCompose(ignore -> awaitQuiescence());
    }
 
    void putModification(Object key, Modification modification) {
-      pendingModifications.put(key, modification);
+      lane(modification.getSegment(), key).pendingModifications.put(key, modification);
    }
 
    void putClearModification() {
-      pendingModifications.clear();
+      for (Lane lane : lanes) {
+         lane.pendingModifications.clear();
+      }
       hasPendingClear = true;
    }
 
+   private Lane lane(int segment, Object wrappedKey) {
+      if (lanes.length == 1) {
+         return lanes[0];
+      }
+      // A store that is not segmented maps every modification to segment 0
+      int hash = segmentCount == 1 ? wrappedKey.hashCode() : segment;
+      return lanes[Math.floorMod(hash, lanes.length)];
+   }
+
    /**
-    * This method submits a batch of modifications to the underlying store and completes {@code batchFuture}
-    * when the modifications are done.
-    *
-    * If there are any pending modifications at that time, it automatically submits a new batch,
-    * otherwise it sets {@code batchFuture} to null.
-    *
-    * Callers must atomically check that {@code batchFuture} is null and set it to a non-null value,
-    * to ensure that only one batch is being processed at any time.
+    * Starts a batch for every lane that has pending modifications and is not already writing a batch, unless a clear
+    * is pending or running. A pending clear is started once no lane is writing a batch, so that the clear is not
+    * overtaken by older modifications.
+    * <p>
+    * The returned tasks submit the batches to the underlying store and must be run outside the lock.
     */
-   private void submitTask() {
-      Map<Object, Modification> newMap = new HashMap<>();
-      if (log.isTraceEnabled()) {
-         log.tracef("Starting new batch with id %s", System.identityHashCode(newMap));
+   @GuardedBy("this")
+   private List<Runnable> scheduleBatches() {
+      if (clearFuture != null) {
+         return Collections.emptyList();
       }
-      boolean ourClearToReplicate;
-      Map<Object, Modification> ourModificationsToReplicate;
-      synchronized (this) {
-         // The isReplicatingClear would be true or replicatingModifications non empty if an update was currently pending
-         // But we should only allow one at a time
-         assert replicatingModifications.isEmpty() && !isReplicatingClear;
-         replicatingModifications = pendingModifications;
-         ourModificationsToReplicate = pendingModifications;
-         pendingModifications = newMap;
-         isReplicatingClear = hasPendingClear;
-         ourClearToReplicate = hasPendingClear;
+      if (hasPendingClear) {
+         for (Lane lane : lanes) {
+            if (lane.batchFuture != null) {
+               return Collections.emptyList();
+            }
+         }
          hasPendingClear = false;
+         clearFuture = new CompletableFuture<>();
+         return Collections.singletonList(this::submitClear);
       }
-
-      CompletionStage<Void> asyncBatchStage;
-      if (ourClearToReplicate) {
-         if (log.isTraceEnabled()) {
-            log.tracef("Sending clear to underlying store for id %s", System.identityHashCode(ourModificationsToReplicate));
-         }
-         asyncBatchStage = retry(actual::clear, persistenceConfiguration.connectionAttempts()).whenComplete((ignore, t) -> {
-            synchronized (this) {
-               isReplicatingClear = false;
+      List<Runnable> tasks = null;
+      for (Lane lane : lanes) {
+         if (lane.batchFuture == null && !lane.pendingModifications.isEmpty()) {
+            Map<Object, Modification> batch = lane.takeBatch();
+            lane.replicatingModifications = batch;
+            lane.batchFuture = new CompletableFuture<>();
+            if (tasks == null) {
+               tasks = new ArrayList<>(lanes.length);
             }
-         });
-      } else {
-         asyncBatchStage = CompletableFutures.completedNull();
+            tasks.add(() -> submitBatch(lane, batch));
+         }
       }
+      return tasks == null ? Collections.emptyList() : tasks;
+   }
 
-      if (!ourModificationsToReplicate.isEmpty()) {
-         asyncBatchStage = asyncBatchStage.thenCompose(ignore -> {
-            if (log.isTraceEnabled()) {
-               log.tracef("Sending batch of %d write/remove operations to underlying store with id %s", ourModificationsToReplicate.size(),
-                     System.identityHashCode(ourModificationsToReplicate));
-            }
-            return retry(() -> replicateModifications(ourModificationsToReplicate), persistenceConfiguration.connectionAttempts())
-                  .whenComplete((ignore2, t) -> {
-               synchronized (this) {
-                  replicatingModifications = Collections.emptyMap();
-               }
-            });
-         });
+   private void submitClear() {
+      if (log.isTraceEnabled()) {
+         log.tracef("Sending clear to underlying store %s", actual);
       }
-
-      asyncBatchStage.whenComplete((ignore, t) -> {
-         if (log.isTraceEnabled()) {
-            log.tracef("Async operations completed for id %s", System.identityHashCode(ourModificationsToReplicate));
-         }
-         boolean submitNewBatch;
+      retry(actual::clear, persistenceConfiguration.connectionAttempts()).whenComplete((ignore, t) -> {
          CompletableFuture<Void> future;
+         List<Runnable> tasks;
          synchronized (this) {
-            submitNewBatch = !pendingModifications.isEmpty() || hasPendingClear;
-            future = batchFuture;
-            batchFuture = submitNewBatch ? new CompletableFuture<>() : null;
-         }
-         if (t != null) {
-            future.completeExceptionally(t);
-         } else {
-            future.complete(null);
-         }
-         if (submitNewBatch) {
-            if (log.isTraceEnabled()) {
-               log.trace("Submitting new batch after completion of prior");
-            }
-            submitTask();
+            future = clearFuture;
+            clearFuture = null;
+            tasks = scheduleBatches();
          }
+         complete(future, t);
+         tasks.forEach(Runnable::run);
       });
    }
 
+   /**
+    * This method submits a batch of modifications of a lane to the underlying store and completes the
+    * {@code batchFuture} of the lane when the modifications are done.
+    * <p>
+    * If there are any pending modifications at that time, it automatically submits new batches.
+    */
+   private void submitBatch(Lane lane, Map<Object, Modification> batch) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Sending batch of %d write/remove operations to underlying store with id %s in lane %d",
+               batch.size(), System.identityHashCode(batch), lane.id);
+      }
+      long start = timeService.time();
+      retry(() -> replicateModifications(batch), persistenceConfiguration.connectionAttempts())
+            .whenComplete((ignore, t) -> {
+               long latency = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+               if (log.isTraceEnabled()) {
+                  log.tracef("Async operations completed for id %s", System.identityHashCode(batch));
+               }
+               if (t == null) {
+                  statistics.recordBatch(batch.size(), latency);
+               } else {
+                  statistics.recordFailedBatch(batch.size());
+               }
+               CompletableFuture<Void> future;
+               List<Runnable> tasks;
+               synchronized (this) {
+                  lane.replicatingModifications = Collections.emptyMap();
+                  if (t == null) {
+                     lane.adaptBatchSize(batch.size(), latency);
+                  }
+                  future = lane.batchFuture;
+                  lane.batchFuture = null;
+                  tasks = scheduleBatches();
+               }
+               complete(future, t);
+               if (!tasks.isEmpty() && log.isTraceEnabled()) {
+                  log.trace("Submitting new batches after completion of prior");
+               }
+               tasks.forEach(Runnable::run);
+            });
+   }
+
+   private static void complete(CompletableFuture<Void> future, Throwable t) {
+      if (t != null) {
+         future.completeExceptionally(t);
+      } else {
+         future.complete(null);
+      }
+   }
+
    /**
     * Attempts to run the given supplier, checking the stage if it contains an error. It will rerun the Supplier
     * until a supplied stage doesn't contain an exception or it has encountered retries amount of exceptions. In the
@@ -395,39 +482,43 @@ private <E> Publisher<E> abstractPublish(IntSet segments, Predicate<? super K> f
    }
 
    private Map.Entry<Boolean, Map<Object, Modification>> flattenModificationMaps() {
-      Map<Object, Modification> modificationCopy;
-      Map<Object, Modification> modificationsToReplicate;
+      Map<Object, Modification> modificationCopy = new HashMap<>();
       boolean clearToReplicate;
       synchronized (this) {
-         modificationCopy = new HashMap<>(pendingModifications);
          if (hasPendingClear) {
+            for (Lane lane : lanes) {
+               modificationCopy.putAll(lane.pendingModifications);
+            }
             return new AbstractMap.SimpleImmutableEntry<>(Boolean.TRUE, modificationCopy);
          }
-         modificationsToReplicate = this.replicatingModifications;
-         clearToReplicate = this.isReplicatingClear;
+         // The pending modifications of a key are more recent than the one being replicated
+         for (Lane lane : lanes) {
+            modificationCopy.putAll(lane.replicatingModifications);
+            modificationCopy.putAll(lane.pendingModifications);
+         }
+         clearToReplicate = clearFuture != null;
       }
-
-      modificationCopy.putAll(modificationsToReplicate);
       return new AbstractMap.SimpleImmutableEntry<>(clearToReplicate, modificationCopy);
    }
 
    @Override
    public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       assertNotStopped();
-      CompletionStage<MarshallableEntry<K, V>> pendingStage = getStageFromPending(key);
+      CompletionStage<MarshallableEntry<K, V>> pendingStage = getStageFromPending(segment, key);
       if (pendingStage != null) {
          return pendingStage;
       }
       return actual.load(segment, key);
    }
 
-   private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key) {
+   private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(int segment, Object key) {
       Object wrappedKey = wrapKeyIfNeeded(key);
       Map<Object, Modification> modificationsToReplicate;
       boolean clearToReplicate;
       synchronized (this) {
+         Lane lane = lane(segmentToUse(segment), wrappedKey);
          // Note that writes to this map are done only in synchronized block, so we have to do same for get
-         Modification modification = pendingModifications.get(wrappedKey);
+         Modification modification = lane.pendingModifications.get(wrappedKey);
          if (modification != null) {
             if (log.isTraceEnabled()) {
                log.tracef("Found entry was pending write in async store: %s", modification);
@@ -441,8 +532,8 @@ private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key)
             return CompletableFutures.completedNull();
          }
          // This map is never written to so just reading reference in synchronized block is sufficient
-         modificationsToReplicate = this.replicatingModifications;
-         clearToReplicate = this.isReplicatingClear;
+         modificationsToReplicate = lane.replicatingModifications;
+         clearToReplicate = clearFuture != null;
       }
       Modification modification = modificationsToReplicate.get(wrappedKey);
       if (modification != null) {
@@ -479,37 +570,68 @@ public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublis
 
    CompletionStage<Void> submitModification(Modification modification) {
       boolean isTraceEnabled = log.isTraceEnabled();
-      boolean startNewBatch;
+      List<Runnable> tasks;
       CompletionStage<Void> submitStage;
       synchronized (this) {
-         int previousBatchId;
          if (isTraceEnabled) {
-            previousBatchId = System.identityHashCode(replicatingModifications);
-            int currentBatchId = System.identityHashCode(pendingModifications);
-            log.tracef("Adding modification %s to batch %s", modification, currentBatchId);
-         } else {
-            previousBatchId = 0;
+            log.tracef("Adding modification %s", modification);
          }
          modification.apply(this);
+         tasks = scheduleBatches();
 
-         startNewBatch = batchFuture == null;
-         if (startNewBatch) {
-            batchFuture = new CompletableFuture<>();
+         int queueSize = queueDepthLocked();
+         submitStage = queueSize > modificationQueueSize ? anyRunningBatch() : null;
+         if (submitStage != null && isTraceEnabled) {
+            log.tracef("Too many modifications queued (%d), operation must wait until a previous batch completes",
+                       queueSize);
          }
+      }
+      if (modification != ClearModification.INSTANCE) {
+         statistics.submittedModifications.increment();
+      }
 
-         int queueSize = pendingModifications.size() + replicatingModifications.size();
-         submitStage = queueSize > modificationQueueSize ? batchFuture : null;
-         if (submitStage != null && isTraceEnabled) {
-            log.tracef("Too many modifications queued (%d), operation must wait until previous batch %d completes",
-                       queueSize, previousBatchId);
+      tasks.forEach(Runnable::run);
+      if (submitStage == null) {
+         return CompletableFutures.completedNull();
+      }
+      statistics.delayedModifications.increment();
+      return submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+   }
+
+   @GuardedBy("this")
+   private CompletableFuture<Void> anyRunningBatch() {
+      if (clearFuture != null) {
+         return clearFuture;
+      }
+      for (Lane lane : lanes) {
+         if (lane.batchFuture != null) {
+            return lane.batchFuture;
          }
       }
+      return null;
+   }
+
+   @GuardedBy("this")
+   private int queueDepthLocked() {
+      int queueSize = 0;
+      for (Lane lane : lanes) {
+         queueSize += lane.pendingModifications.size() + lane.replicatingModifications.size();
+      }
+      return queueSize;
+   }
+
+   synchronized int queueDepth() {
+      return queueDepthLocked();
+   }
 
-      if (startNewBatch) {
-         submitTask();
+   synchronized int runningBatches() {
+      int running = clearFuture != null ? 1 : 0;
+      for (Lane lane : lanes) {
+         if (lane.batchFuture != null) {
+            running++;
+         }
       }
-      return submitStage == null ? CompletableFutures.completedNull() :
-             submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+      return running;
    }
 
    @Override
@@ -552,7 +674,9 @@ public CompletionStage<Void> addSegments(IntSet segments) {
    public CompletionStage<Void> removeSegments(IntSet segments) {
       assertNotStopped();
       synchronized (this) {
-         pendingModifications.values().removeIf(modification -> segments.contains(modification.getSegment()));
+         for (Lane lane : lanes) {
+            lane.pendingModifications.values().removeIf(modification -> segments.contains(modification.getSegment()));
+         }
       }
       return actual.removeSegments(segments);
    }
@@ -599,8 +723,11 @@ public CompletionStage<Boolean> isAvailable() {
          boolean isReplicating;
          int queueSize;
          synchronized (this) {
-            isReplicating = !replicatingModifications.isEmpty() || isReplicatingClear;
-            queueSize = pendingModifications.size();
+            isReplicating = runningBatches() > 0;
+            queueSize = 0;
+            for (Lane lane : lanes) {
+               queueSize += lane.pendingModifications.size();
+            }
             if (delegateUnavailable = delegateAvailableFuture == null) {
                delegateAvailableFuture = new CompletableFuture<>();
             }
@@ -633,4 +760,65 @@ static Object wrapKeyIfNeeded(Object key) {
       }
       return key;
    }
+
+   /**
+    * The modifications of a subset of the segments, written to the delegate store one batch at a time.
+    */
+   private static final class Lane {
+      final int id;
+      final long targetLatencyNanos;
+      final int maxBatchSize;
+      // Non null while a batch of this lane is being sent to the underlying store
+      // If a request causes the modification queue to overflow it may receive a stage back that is only complete
+      // when this future is completed
+      @GuardedBy("AsyncNonBlockingStore.this")
+      CompletableFuture<Void> batchFuture;
+      // Insertion ordered, so that a batch smaller than the pending modifications takes the oldest ones
+      @GuardedBy("AsyncNonBlockingStore.this")
+      Map<Object, Modification> pendingModifications = new LinkedHashMap<>();
+      // The modifications currently being replicated to the delegating store. This map is only written to via
+      // reference, thus it is safe to read outside of the lock, but the reference must be read in synchronized
+      @GuardedBy("AsyncNonBlockingStore.this")
+      Map<Object, Modification> replicatingModifications = Collections.emptyMap();
+      @GuardedBy("AsyncNonBlockingStore.this")
+      int batchSize;
+
+      Lane(int id, long targetLatencyNanos, int maxBatchSize) {
+         this.id = id;
+         this.targetLatencyNanos = targetLatencyNanos;
+         this.maxBatchSize = maxBatchSize;
+         this.batchSize = maxBatchSize;
+      }
+
+      Map<Object, Modification> takeBatch() {
+         if (targetLatencyNanos == 0 || pendingModifications.size() <= batchSize) {
+            Map<Object, Modification> batch = pendingModifications;
+            pendingModifications = new LinkedHashMap<>();
+            return batch;
+         }
+         Map<Object, Modification> batch = new HashMap<>();
+         Iterator<Map.Entry<Object, Modification>> iterator = pendingModifications.entrySet().iterator();
+         while (batch.size() < batchSize) {
+            Map.Entry<Object, Modification> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+         }
+         return batch;
+      }
+
+      /**
+       * Halves the batch size when a batch is slower than the target latency, and grows it by a quarter when a full
+       * batch is faster.
+       */
+      void adaptBatchSize(int size, long latencyNanos) {
+         if (targetLatencyNanos == 0) {
+            return;
+         }
+         if (latencyNanos > targetLatencyNanos) {
+            batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+         } else if (size >= batchSize) {
+            batchSize = Math.min(maxBatchSize, batchSize + Math.max(1, batchSize / 4));
+         }
+      }
+   }
 }
@@ -0,0 +1,209 @@
+package org.infinispan.persistence.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Statistics about the batches written by an {@link AsyncNonBlockingStore} to the underlying store.
+ * <p>
+ * The coalescing ratio compares the modifications submitted to the write-behind store with the modifications
+ * written to the underlying store, the difference being the writes to a key replaced by a later write before they
+ * were written. The batch latencies are counted in buckets of 1, 10, 100 and 1000 milliseconds. Only the batches
+ * written successfully are included, the batches that failed after all the retries are counted separately.
+ *
+ * @since 16.2
+ */
+@MBean(objectName = "WriteBehind", description = "Batches written by the write-behind store to the underlying store")
+public class WriteBehindStatistics {
+   private final AsyncNonBlockingStore<?, ?> store;
+   final LongAdder submittedModifications = new LongAdder();
+   final LongAdder writtenModifications = new LongAdder();
+   final LongAdder delayedModifications = new LongAdder();
+   final LongAdder batches = new LongAdder();
+   final LongAdder failedBatches = new LongAdder();
+   final LongAdder failedModifications = new LongAdder();
+   final LongAdder batchNanos = new LongAdder();
+   final LongAccumulator maxBatchNanos = new LongAccumulator(Math::max, 0);
+   final LongAdder[] batchLatencyBuckets = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(),
+         new LongAdder()};
+
+   WriteBehindStatistics(AsyncNonBlockingStore<?, ?> store) {
+      this.store = store;
+   }
+
+   void recordBatch(int size, long nanos) {
+      writtenModifications.add(size);
+      batches.increment();
+      batchNanos.add(nanos);
+      maxBatchNanos.accumulate(nanos);
+      long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+      int bucket = 0;
+      for (long limit = 1; bucket < batchLatencyBuckets.length - 1 && millis >= limit; limit *= 10) {
+         bucket++;
+      }
+      batchLatencyBuckets[bucket].increment();
+   }
+
+   void recordFailedBatch(int size) {
+      failedModifications.add(size);
+      failedBatches.increment();
+   }
+
+   @ManagedAttribute(
+         description = "Number of modifications waiting to be written or being written to the underlying store",
+         displayName = "Queue depth"
+   )
+   public int getQueueDepth() {
+      return store.queueDepth();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches being written to the underlying store",
+         displayName = "Running batches"
+   )
+   public int getRunningBatches() {
+      return store.runningBatches();
+   }
+
+   @ManagedAttribute(
+         description = "Number of modifications submitted to the write-behind store",
+         displayName = "Submitted modifications",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getSubmittedModifications() {
+      return submittedModifications.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of modifications written to the underlying store",
+         displayName = "Written modifications",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getWrittenModifications() {
+      return writtenModifications.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Modifications submitted for each modification written to the underlying store, 0 if nothing was written",
+         displayName = "Coalescing ratio"
+   )
+   public double getCoalescingRatio() {
+      long written = writtenModifications.sum();
+      return written == 0 ? 0 : (double) submittedModifications.sum() / written;
+   }
+
+   @ManagedAttribute(
+         description = "Number of modifications that waited for a batch to complete because the modification queue was full",
+         displayName = "Delayed modifications",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getDelayedModifications() {
+      return delayedModifications.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written to the underlying store",
+         displayName = "Batches",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBatches() {
+      return batches.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches that could not be written to the underlying store",
+         displayName = "Failed batches",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getFailedBatches() {
+      return failedBatches.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of modifications in the batches that could not be written to the underlying store",
+         displayName = "Failed modifications",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getFailedModifications() {
+      return failedModifications.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of modifications in a batch",
+         displayName = "Average batch size"
+   )
+   public double getAverageBatchSize() {
+      long count = batches.sum();
+      return count == 0 ? 0 : (double) writtenModifications.sum() / count;
+   }
+
+   @ManagedAttribute(
+         description = "Average time to write a batch to the underlying store",
+         displayName = "Average batch latency",
+         units = Units.MILLISECONDS
+   )
+   public double getAverageBatchLatency() {
+      long count = batches.sum();
+      return count == 0 ? 0 : (double) batchNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+   }
+
+   @ManagedAttribute(
+         description = "Longest time to write a batch to the underlying store",
+         displayName = "Maximum batch latency",
+         units = Units.MILLISECONDS
+   )
+   public long getMaxBatchLatency() {
+      return TimeUnit.NANOSECONDS.toMillis(maxBatchNanos.get());
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written in less than 1 millisecond",
+         displayName = "Batches under 1 ms",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBatchesUnder1Ms() {
+      return batchLatencyBuckets[0].sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written in 1 to 10 milliseconds",
+         displayName = "Batches under 10 ms",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBatchesUnder10Ms() {
+      return batchLatencyBuckets[1].sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written in 10 to 100 milliseconds",
+         displayName = "Batches under 100 ms",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBatchesUnder100Ms() {
+      return batchLatencyBuckets[2].sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written in 100 milliseconds to 1 second",
+         displayName = "Batches under 1 s",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBatchesUnder1S() {
+      return batchLatencyBuckets[3].sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written in 1 second or more",
+         displayName = "Batches over 1 s",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getBatchesOver1S() {
+      return batchLatencyBuckets[4].sum();
+   }
+}
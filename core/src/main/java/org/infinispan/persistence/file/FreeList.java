@@ -0,0 +1,208 @@
+package org.infinispan.persistence.file;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+
+/**
+ * Free entries of a {@link SingleFileStore} file, segregated by size class.
+ * <p>
+ * The size class of an entry is the position of the highest bit set in its size, so each class holds the entries whose
+ * size is between two consecutive powers of two. Every class is a set sorted by size and offset with its own lock, so
+ * writers allocating entries of different sizes, and writers freeing entries, do not contend on a single monitor.
+ * An allocation takes the best fit from the class of the requested size and falls back to the smallest entry of the
+ * first non-empty larger class, which fits by definition. A bit mask of the non-empty classes lets allocations skip
+ * the empty ones without locking them.
+ * <p>
+ * Operations that need a consistent view of all the free entries, like merging adjacent entries, must hold
+ * {@link #lockAll()}.
+ *
+ * @since 16.2
+ */
+class FreeList {
+   private static final int SIZE_CLASSES = Integer.SIZE;
+
+   private final SortedSet<FileEntry>[] classes;
+   private final ReentrantLock[] locks;
+   private final AtomicInteger nonEmptyClasses = new AtomicInteger();
+   private final AtomicInteger size = new AtomicInteger();
+   private final AtomicLong freeBytes = new AtomicLong();
+
+   @SuppressWarnings("unchecked")
+   FreeList() {
+      classes = new SortedSet[SIZE_CLASSES];
+      locks = new ReentrantLock[SIZE_CLASSES];
+      for (int i = 0; i < SIZE_CLASSES; i++) {
+         classes[i] = new TreeSet<>();
+         locks[i] = new ReentrantLock();
+      }
+   }
+
+   private static int sizeClass(int size) {
+      return SIZE_CLASSES - 1 - Integer.numberOfLeadingZeros(size);
+   }
+
+   /**
+    * @return {@code false} if the entry was already free
+    */
+   boolean add(FileEntry fe) {
+      int sizeClass = sizeClass(fe.size);
+      ReentrantLock lock = locks[sizeClass];
+      lock.lock();
+      try {
+         if (!classes[sizeClass].add(fe)) {
+            return false;
+         }
+         nonEmptyClasses.getAndUpdate(mask -> mask | (1 << sizeClass));
+      } finally {
+         lock.unlock();
+      }
+      size.incrementAndGet();
+      freeBytes.addAndGet(fe.size);
+      return true;
+   }
+
+   /**
+    * @return {@code false} if the entry was not free, e.g. because it was allocated concurrently
+    */
+   boolean remove(FileEntry fe) {
+      int sizeClass = sizeClass(fe.size);
+      ReentrantLock lock = locks[sizeClass];
+      lock.lock();
+      try {
+         SortedSet<FileEntry> entries = classes[sizeClass];
+         if (!entries.remove(fe)) {
+            return false;
+         }
+         if (entries.isEmpty()) {
+            nonEmptyClasses.getAndUpdate(mask -> mask & ~(1 << sizeClass));
+         }
+      } finally {
+         lock.unlock();
+      }
+      size.decrementAndGet();
+      freeBytes.addAndGet(-fe.size);
+      return true;
+   }
+
+   /**
+    * Removes a free entry large enough for {@code len} bytes that is not being read.
+    *
+    * @param maxOffset only entries starting before this offset are considered
+    * @return the removed entry, or {@code null} if no free entry fits
+    */
+   FileEntry take(int len, long maxOffset) {
+      int sizeClass = sizeClass(len);
+      // Entries of the same class may be smaller than len, the entries of larger classes always fit
+      FileEntry fe = takeFrom(sizeClass, len, maxOffset);
+      if (fe != null) {
+         return fe;
+      }
+      int mask = nonEmptyClasses.get() & (-1 << sizeClass) & ~(1 << sizeClass);
+      while (mask != 0) {
+         int larger = Integer.numberOfTrailingZeros(mask);
+         fe = takeFrom(larger, len, maxOffset);
+         if (fe != null) {
+            return fe;
+         }
+         mask &= ~(1 << larger);
+      }
+      return null;
+   }
+
+   private FileEntry takeFrom(int sizeClass, int len, long maxOffset) {
+      if ((nonEmptyClasses.get() & (1 << sizeClass)) == 0) {
+         return null;
+      }
+      ReentrantLock lock = locks[sizeClass];
+      lock.lock();
+      try {
+         SortedSet<FileEntry> entries = classes[sizeClass];
+         for (Iterator<FileEntry> it = entries.tailSet(new FileEntry(0, len)).iterator(); it.hasNext(); ) {
+            FileEntry free = it.next();
+            // ignore entries that are still in use by concurrent readers
+            if (free.offset >= maxOffset || free.isLocked())
+               continue;
+
+            it.remove();
+            if (entries.isEmpty()) {
+               nonEmptyClasses.getAndUpdate(mask -> mask & ~(1 << sizeClass));
+            }
+            size.decrementAndGet();
+            freeBytes.addAndGet(-free.size);
+            return free;
+         }
+         return null;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Acquires the locks of all the size classes, in order.
+    */
+   void lockAll() {
+      for (ReentrantLock lock : locks) {
+         lock.lock();
+      }
+   }
+
+   void unlockAll() {
+      for (int i = locks.length - 1; i >= 0; i--) {
+         locks[i].unlock();
+      }
+   }
+
+   /**
+    * @return a copy of all the free entries, the caller should hold {@link #lockAll()} for a consistent view
+    */
+   List<FileEntry> entries() {
+      List<FileEntry> list = new ArrayList<>(size.get());
+      forEach(list::add);
+      return list;
+   }
+
+   void forEach(Consumer<FileEntry> consumer) {
+      for (int i = 0; i < SIZE_CLASSES; i++) {
+         locks[i].lock();
+         try {
+            classes[i].forEach(consumer);
+         } finally {
+            locks[i].unlock();
+         }
+      }
+   }
+
+   void clear() {
+      lockAll();
+      try {
+         for (SortedSet<FileEntry> entries : classes) {
+            entries.clear();
+         }
+         nonEmptyClasses.set(0);
+         size.set(0);
+         freeBytes.set(0);
+      } finally {
+         unlockAll();
+      }
+   }
+
+   int size() {
+      return size.get();
+   }
+
+   /**
+    * @return the total size of the free entries
+    */
+   long freeBytes() {
+      return freeBytes.get();
+   }
+}
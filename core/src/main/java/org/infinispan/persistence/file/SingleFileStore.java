@@ -25,8 +25,6 @@
 import java.util.Map;
 import java.util.PrimitiveIterator;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Predicate;
@@ -133,6 +131,8 @@
    // bytes required by created and lastUsed timestamps
    private static final int TIMESTAMP_BYTES = 8 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   // Maximum number of entries moved by the compaction while holding the resizeLock in exclusive mode
+   private static final int COMPACTION_BATCH_SIZE = 128;
 
    private SingleFileStoreConfiguration configuration;
 
@@ -141,7 +141,10 @@
    private FileChannel channel;
    @GuardedBy("resizeLock")
    private Map<K, FileEntry>[] entries;
-   private SortedSet<FileEntry> freeList;
+   private FreeList freeList;
+   // Allocations at the end of the file only synchronize on appendLock, so they don't wait for the free list
+   private final Object appendLock = new Object();
+   @GuardedBy("appendLock")
    private long filePos;
    private File file;
    private float fragmentationFactor = .75f;
@@ -175,7 +178,7 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }
 
       entries = new Map[actualNumSegments];
-      freeList = Collections.synchronizedSortedSet(new TreeSet<>());
+      freeList = new FreeList();
 
       // Not really blocking because no other thread can access the lock during start
       blockingAddSegments(IntSets.immutableRangeSet(actualNumSegments));
@@ -826,28 +829,20 @@ private boolean blockingContainsKey(int segment, Object key) {
     */
    @GuardedBy("resizeLock.readLock()")
    private FileEntry allocate(int len) {
-      synchronized (freeList) {
-         // lookup a free entry of sufficient size
-         SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
-         for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
-            FileEntry free = it.next();
-            // ignore entries that are still in use by concurrent readers
-            if (free.isLocked())
-               continue;
-
-            // There's no race condition risk between locking the entry on
-            // loading and checking whether it's locked (or store allocation),
-            // because for the entry to be lockable, it needs to be in the
-            // entries collection, in which case it's not in the free list.
-            // The only way an entry can be found in the free list is if it's
-            // been removed, and to remove it, lock on "entries" needs to be
-            // acquired, which is also a pre-requisite for loading data.
-
-            // found one, remove from freeList
-            it.remove();
-            return allocateExistingEntry(free, len);
-         }
-
+      // lookup a free entry of sufficient size, ignoring entries that are still in use by concurrent readers
+      // There's no race condition risk between locking the entry on
+      // loading and checking whether it's locked (or store allocation),
+      // because for the entry to be lockable, it needs to be in the
+      // entries collection, in which case it's not in the free list.
+      // The only way an entry can be found in the free list is if it's
+      // been removed, and to remove it, lock on "entries" needs to be
+      // acquired, which is also a pre-requisite for loading data.
+      FileEntry free = freeList.take(len, Long.MAX_VALUE);
+      if (free != null) {
+         return allocateExistingEntry(free, len);
+      }
+
+      synchronized (appendLock) {
          // no appropriate free section available, append at end of file
          FileEntry fe = new FileEntry(filePos, len);
          filePos += len;
@@ -1001,13 +996,10 @@ private void blockingClear() {
          }
 
          // Then free entries that others might still be reading
-         synchronized (freeList) {
-            for (FileEntry fe : freeList)
-               fe.waitUnlocked();
+         freeList.forEach(FileEntry::waitUnlocked);
 
-            // clear in-memory state
-            freeList.clear();
-         }
+         // clear in-memory state
+         freeList.clear();
 
          // All readers are done, reset file
          if (log.isTraceEnabled()) log.tracef("Truncating file, current size is %d", filePos);
@@ -1324,20 +1316,136 @@ private Flowable<MarshallableEntry<K, V>> blockingPublishSegmentEntries(int segm
    private void processFreeEntries() {
       long stamp = resizeLock.readLock();
       try {
-         synchronized (freeList) {
+         freeList.lockAll();
+         try {
             // Get a reverse sorted list of free entries based on file offset (bigger entries will be ahead of smaller entries)
             // This helps to work backwards with free entries at end of the file
-            List<FileEntry> l = new ArrayList<>(freeList);
+            List<FileEntry> l = freeList.entries();
             l.sort(Comparator.comparingLong(fe -> -fe.offset));
 
-            truncateFile(l);
+            synchronized (appendLock) {
+               truncateFile(l);
+            }
             mergeFreeEntries(l);
+         } finally {
+            freeList.unlockAll();
          }
       } finally {
          resizeLock.unlockRead(stamp);
       }
    }
 
+   /**
+    * Moves the live entries at the end of the file into free entries closer to its start, once the free entries
+    * take more than {@link SingleFileStoreConfiguration#compactionThreshold()} of the file, so that the file can be
+    * truncated afterwards. Does nothing if the threshold is 0.
+    * <p>
+    * Entries are moved in batches while holding the {@code resizeLock} in exclusive mode, so that concurrent writes
+    * are only blocked for a short time. The compaction stops at the first entry that doesn't fit in a free entry
+    * before it.
+    */
+   private void compactFile() {
+      if (configuration.compactionThreshold() == 0) {
+         return;
+      }
+      List<LiveEntry<K>> candidates = new ArrayList<>();
+      long stamp = resizeLock.readLock();
+      try {
+         long fileSize;
+         synchronized (appendLock) {
+            fileSize = filePos;
+         }
+         long freeBytes = freeList.freeBytes();
+         if (freeBytes <= (fileSize - MAGIC_LATEST.length) * configuration.compactionThreshold()) {
+            return;
+         }
+         // Only the entries after the end of a fully compacted file have to move
+         long compactedSize = fileSize - freeBytes;
+         for (int segment = 0; segment < entries.length; segment++) {
+            Map<K, FileEntry> segmentEntries = entries[segment];
+            if (segmentEntries == null)
+               continue;
+
+            synchronized (segmentEntries) {
+               for (Map.Entry<K, FileEntry> entry : segmentEntries.entrySet()) {
+                  if (entry.getValue().offset >= compactedSize) {
+                     candidates.add(new LiveEntry<>(segment, segmentEntries, entry.getKey(), entry.getValue()));
+                  }
+               }
+            }
+         }
+      } finally {
+         resizeLock.unlockRead(stamp);
+      }
+      candidates.sort(Comparator.comparingLong(candidate -> -candidate.fe().offset));
+
+      long startTime = 0;
+      if (log.isTraceEnabled()) startTime = timeService.wallClockTime();
+      int movedEntries = 0;
+      Iterator<LiveEntry<K>> it = candidates.iterator();
+      boolean blocked = false;
+      while (!blocked && it.hasNext()) {
+         stamp = resizeLock.writeLock();
+         try {
+            for (int i = 0; i < COMPACTION_BATCH_SIZE && it.hasNext(); i++) {
+               LiveEntry<K> candidate = it.next();
+               // The segment may have been removed, or the entry overwritten or deleted, since it was collected
+               if (entries == null || entries[candidate.segment()] != candidate.segmentEntries() ||
+                     candidate.segmentEntries().get(candidate.key()) != candidate.fe())
+                  continue;
+
+               if (!moveEntry(candidate)) {
+                  blocked = true;
+                  break;
+               }
+               movedEntries++;
+            }
+         } catch (IOException e) {
+            throw new PersistenceException("Error while compacting file", e);
+         } finally {
+            resizeLock.unlockWrite(stamp);
+         }
+      }
+
+      if (log.isTraceEnabled()) {
+         log.tracef("Moved %d entries out of %d candidates, %d free entries", movedEntries, candidates.size(), freeList.size());
+         log.tracef("Time taken for compactFile: %d (ms)", timeService.wallClockTime() - startTime);
+      }
+   }
+
+   @GuardedBy("resizeLock.writeLock()")
+   private boolean moveEntry(LiveEntry<K> candidate) throws IOException {
+      FileEntry fe = candidate.fe();
+      int len = fe.actualSize();
+      FileEntry free = freeList.take(len, fe.offset);
+      if (free == null) {
+         return false;
+      }
+      FileEntry allocated = allocateExistingEntry(free, len);
+      FileEntry moved = new FileEntry(allocated.offset, allocated.size, fe.keyLen, fe.dataLen, fe.metadataLen,
+            fe.internalMetadataLen, fe.expiryTime);
+
+      ByteBuffer buf = ByteBuffer.allocate(len);
+      while (buf.hasRemaining()) {
+         if (channel.read(buf, fe.offset + buf.position()) < 0) {
+            throw PERSISTENCE.errorReadingFileStore(file.getPath(), fe.offset);
+         }
+      }
+      buf.flip();
+      // The new block may be larger than the entry if the free entry was not split
+      buf.putInt(0, moved.size);
+      while (buf.hasRemaining()) {
+         channel.write(buf, moved.offset + buf.position());
+      }
+      if (log.isTraceEnabled()) log.tracef("Moved entry at %d:%d to %d:%d", fe.offset, fe.size, moved.offset, moved.size);
+
+      candidate.segmentEntries().put(candidate.key(), moved);
+      free(fe);
+      return true;
+   }
+
+   private record LiveEntry<K>(int segment, Map<K, FileEntry> segmentEntries, K key, FileEntry fe) { }
+
    /**
     * Removes free entries towards the end of the file and truncates the file.
     */
@@ -1458,6 +1566,8 @@ private void blockingPurgeExpired(UnicastProcessor<MarshallableEntry<K, V>> proc
 
          // Disk space optimizations
          processFreeEntries();
+         compactFile();
+         processFreeEntries();
       } catch (Throwable t) {
          processor.onError(t);
       } finally {
@@ -1550,12 +1660,14 @@ Map<K, FileEntry> getEntries() {
       }
    }
 
-   SortedSet<FileEntry> getFreeList() {
+   FreeList getFreeList() {
       return freeList;
    }
 
    long getFileSize() {
-      return filePos;
+      synchronized (appendLock) {
+         return filePos;
+      }
    }
 
    public SingleFileStoreConfiguration getConfiguration() {
@@ -1635,7 +1747,7 @@ private void blockingRemoveSegments(IntSet segments) {
     * <li>{@link #metadataLen} bytes: serialized key</li>
     * </ul>
     */
-   private static class FileEntry implements Comparable<FileEntry> {
+   static class FileEntry implements Comparable<FileEntry> {
       /**
        * File offset of this block.
        */
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.file;
 
+import static org.infinispan.persistence.file.SingleFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.LOCATION;
 
@@ -10,6 +11,7 @@
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.persistence.PersistenceUtil;
+import org.infinispan.util.logging.Log;
 
 /**
  * Single file cache store configuration builder.
@@ -55,9 +57,25 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * When the free entries take more than this fraction of the file, the expiration reaper moves the entries at the
+    * end of the file into free entries closer to its start, so that the file can be truncated. The entries are moved
+    * in small batches, blocking the other operations on the store for a short time each.
+    * <p>
+    * Defaults to <code>0</code>, which disables the compaction.
+    */
+   public SingleFileStoreConfigurationBuilder compactionThreshold(float compactionThreshold) {
+      attributes.attribute(COMPACTION_THRESHOLD).set(compactionThreshold);
+      return this;
+   }
+
    @Override
    public void validate(GlobalConfiguration globalConfig) {
       PersistenceUtil.validateGlobalStateStoreLocation(globalConfig, SingleFileStore.class.getSimpleName(), attributes.attribute(LOCATION));
+      float compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD).get();
+      if (compactionThreshold < 0 || compactionThreshold > 1) {
+         throw Log.CONFIG.invalidSingleFileStoreCompactionThreshold(compactionThreshold);
+      }
       super.validate(globalConfig);
    }
 
@@ -47,6 +47,12 @@ public interface PersistenceManager extends Lifecycle {
     */
    Flowable<MarshallableEntry<Object, Object>> preloadPublisher();
 
+   /**
+    * Same as {@link #preloadPublisher()}, but only publishes the entries that map to the given segments. Unless the
+    * store is {@link StoreConfiguration#segmented() segmented}, all the entries are read and filtered.
+    */
+   Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments);
+
    /**
     * Marks the given storage as disabled.
     */
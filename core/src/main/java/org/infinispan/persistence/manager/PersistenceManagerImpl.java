@@ -533,14 +533,23 @@ public boolean hasStore(Predicate<StoreConfiguration> test) {
 
    @Override
    public Flowable<MarshallableEntry<Object, Object>> preloadPublisher() {
+      return preloadPublisher(IntSets.immutableRangeSet(segmentCount));
+   }
+
+   @Override
+   public Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments) {
       long stamp = acquireReadLock();
-      NonBlockingStore<Object, Object> nonBlockingStore = getStoreLocked(status -> status.config.preload());
-      if (nonBlockingStore == null) {
+      StoreStatus storeStatus = stores == null ? null : getStoreStatusLocked(status -> status.config.preload());
+      if (storeStatus == null) {
          releaseReadLock(stamp);
          return Flowable.empty();
       }
-      Publisher<MarshallableEntry<Object, Object>> publisher = nonBlockingStore.publishEntries(
-            IntSets.immutableRangeSet(segmentCount), null, true);
+      Predicate<? super Object> filter = null;
+      if (!storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE) && segments.size() < segmentCount) {
+         filter = PersistenceUtil.combinePredicate(segments, keyPartitioner, null);
+      }
+      Publisher<MarshallableEntry<Object, Object>> publisher = storeStatus.<Object, Object>store().publishEntries(
+            segments, filter, true);
 
       return Flowable.fromPublisher(publisher)
                      .doFinally(() -> releaseReadLock(stamp));
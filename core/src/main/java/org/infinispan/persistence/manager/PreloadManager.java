@@ -3,7 +3,14 @@
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.cache.impl.InvocationHelper;
@@ -11,21 +18,36 @@
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.ProcessorInfo;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.PreloadMode;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.FlagBitSets;
 import org.infinispan.context.impl.LocalTxInvocationContext;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.encoding.DataConversion;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.PersistenceException;
@@ -40,13 +62,23 @@
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import jakarta.transaction.Transaction;
 import jakarta.transaction.TransactionManager;
 
 /**
  * Separate the preload into its own component
+ * <p>
+ * With {@link PreloadMode#PARALLEL}, the segments are split in groups that are read from the store concurrently, and
+ * the entries are inserted directly in the {@link InternalDataContainer} in batches, without invoking a command per
+ * entry. If the cache is {@link org.infinispan.configuration.cache.PersistenceConfiguration#availableDuringPreload()
+ * available during preload}, the start does not wait for the preload and
+ * {@link org.infinispan.interceptors.impl.PreloadInterceptor} delays the writes to a segment until the segment is
+ * loaded.
  */
 @Scope(Scopes.NAMED_CACHE)
+@MBean(objectName = "Preload", description = "Loads the entries of the store with preload enabled when the cache starts")
 public class PreloadManager {
    public static final long PRELOAD_FLAGS = FlagBitSets.CACHE_MODE_LOCAL |
                                             FlagBitSets.SKIP_OWNERSHIP_CHECK |
@@ -57,6 +89,7 @@ public class PreloadManager {
                                             FlagBitSets.IRAC_STATE;
    public static final long PRELOAD_WITHOUT_INDEXING_FLAGS =
          EnumUtil.mergeBitSets(PRELOAD_FLAGS, FlagBitSets.SKIP_INDEXING);
+   static final int BATCH_SIZE = 1024;
 
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
 
@@ -71,19 +104,63 @@ public class PreloadManager {
    @Inject TransactionCoordinator transactionCoordinator;
    @Inject TransactionManager transactionManager;
    @Inject TransactionTable transactionTable;
+   @Inject InternalDataContainer<Object, Object> dataContainer;
+   @Inject @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
+   Executor nonBlockingExecutor;
 
+   private final LongAdder preloadedEntries = new LongAdder();
+   private final AtomicInteger preloadedSegments = new AtomicInteger();
    private volatile boolean fullyPreloaded;
+   private volatile long startTime;
+   private volatile long duration = -1;
+   private volatile CompletableFuture<Void>[] segmentsPreloaded;
+   private volatile CompletableFuture<Void> preloaded = CompletableFutures.completedNull();
+   private volatile Disposable preloadDisposable;
 
    @Start
    public void start() {
       fullyPreloaded = false;
-      CompletionStages.join(doPreload());
+      preloadedEntries.reset();
+      preloadedSegments.set(0);
+      duration = -1;
+      if (isParallelPreload()) {
+         CompletionStage<Void> stage = doParallelPreload();
+         if (!configuration.persistence().availableDuringPreload()) {
+            CompletionStages.join(stage);
+         }
+      } else {
+         CompletionStages.join(doPreload());
+      }
+   }
+
+   @Stop
+   public void stop() {
+      Disposable disposable = preloadDisposable;
+      if (disposable != null) {
+         disposable.dispose();
+      }
+      // Do not keep the writes waiting for segments that will never be loaded
+      completeSegments();
+   }
+
+   /**
+    * The entries can be inserted directly in the data container only if none of the interceptors needs to see them:
+    * the preload of transactional caches, caches with cross-site backups and caches that index the preloaded entries
+    * goes through the interceptor chain.
+    */
+   private boolean isParallelPreload() {
+      return configuration.persistence().preloadMode() == PreloadMode.PARALLEL &&
+            persistenceManager.hasStore(StoreConfiguration::preload) &&
+            !configuration.transaction().transactionMode().isTransactional() &&
+            !configuration.sites().hasBackups() &&
+            getFlagsForStateInsertion() == PRELOAD_WITHOUT_INDEXING_FLAGS;
    }
 
    private CompletionStage<Void> doPreload() {
       Publisher<MarshallableEntry<Object, Object>> publisher = persistenceManager.preloadPublisher();
 
       long start = timeService.time();
+      startTime = start;
 
       final long maxEntries = getMaxEntries();
       final long flags = getFlagsForStateInsertion();
@@ -96,10 +173,13 @@ private CompletionStage<Void> doPreload() {
          return Flowable.fromPublisher(publisher)
                         .take(maxEntries)
                         .concatMapSingle(me -> preloadEntry(flags, me, keyDataConversion, valueDataConversion))
+                        .doOnNext(__ -> preloadedEntries.increment())
                         .count()
                         .toCompletionStage()
                         .thenAccept(insertAmount -> {
                            this.fullyPreloaded = insertAmount < maxEntries;
+                           this.preloadedSegments.set(configuration.clustering().hash().numSegments());
+                           this.duration = timeService.timeDuration(start, MILLISECONDS);
                            log.debugf("Preloaded %d keys in %s", insertAmount,
                                       Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
                         });
@@ -108,12 +188,125 @@ private CompletionStage<Void> doPreload() {
       }
    }
 
+   private CompletionStage<Void> doParallelPreload() {
+      long start = timeService.time();
+      startTime = start;
+
+      int numSegments = configuration.clustering().hash().numSegments();
+      List<IntSet> groups = segmentGroups(numSegments);
+      List<CompletableFuture<Void>> groupStages = new ArrayList<>(groups.size());
+      CompletableFuture<Void>[] segmentStages = new CompletableFuture[numSegments];
+      for (IntSet group : groups) {
+         CompletableFuture<Void> groupStage = new CompletableFuture<>();
+         group.forEach((int segment) -> segmentStages[segment] = groupStage);
+         groupStages.add(groupStage);
+      }
+      segmentsPreloaded = segmentStages;
+      CompletableFuture<Void> preloadStage = new CompletableFuture<>();
+      preloaded = preloadStage;
+
+      final long maxEntries = getMaxEntries();
+      AtomicLong remaining = new AtomicLong(maxEntries);
+      AdvancedCache<?, ?> tmpCache = this.cache.wired().withStorageMediaType();
+      DataConversion keyDataConversion = tmpCache.getKeyDataConversion();
+      DataConversion valueDataConversion = tmpCache.getValueDataConversion();
+
+      preloadDisposable = Flowable.range(0, groups.size())
+            .flatMapCompletable(i -> {
+               IntSet group = groups.get(i);
+               Flowable<MarshallableEntry<Object, Object>> entries = persistenceManager.preloadPublisher(group);
+               if (maxEntries != Long.MAX_VALUE) {
+                  entries = entries.takeWhile(__ -> remaining.getAndDecrement() > 0);
+               }
+               return entries.buffer(BATCH_SIZE)
+                     .doOnNext(batch -> preloadBatch(batch, keyDataConversion, valueDataConversion))
+                     .ignoreElements()
+                     .doOnComplete(() -> {
+                        preloadedSegments.addAndGet(group.size());
+                        groupStages.get(i).complete(null);
+                     })
+                     // The store may publish the entries on the subscribing thread
+                     .subscribeOn(Schedulers.from(nonBlockingExecutor));
+            }, false, groups.size())
+            .subscribe(() -> {
+               long insertAmount = preloadedEntries.sum();
+               fullyPreloaded = insertAmount < maxEntries;
+               duration = timeService.timeDuration(start, MILLISECONDS);
+               log.debugf("Preloaded %d keys from %d segment groups in %s", insertAmount, groups.size(),
+                          Util.prettyPrintTime(duration));
+               preloadStage.complete(null);
+            }, t -> {
+               duration = timeService.timeDuration(start, MILLISECONDS);
+               if (configuration.persistence().availableDuringPreload()) {
+                  // The cache is already serving requests, the missing entries are loaded from the store on access
+                  log.preloadFailed(cache.wired().getName(), t);
+                  completeSegments();
+                  preloadStage.complete(null);
+               } else {
+                  preloadStage.completeExceptionally(t);
+               }
+            });
+      return preloadStage;
+   }
+
+   /**
+    * Splits the segments in one group per processor. The segments of a group are published by a single store
+    * subscription, so a store that is not segmented, and must read everything to publish any segment, is read once.
+    */
+   private List<IntSet> segmentGroups(int numSegments) {
+      if (!persistenceManager.hasStore(c -> c.preload() && c.segmented())) {
+         return List.of(IntSets.immutableRangeSet(numSegments));
+      }
+      int numGroups = Math.min(ProcessorInfo.availableProcessors(), numSegments);
+      List<IntSet> groups = new ArrayList<>(numGroups);
+      for (int i = 0; i < numGroups; i++) {
+         IntSet group = IntSets.mutableEmptySet(numSegments);
+         for (int segment = i; segment < numSegments; segment += numGroups) {
+            group.set(segment);
+         }
+         groups.add(group);
+      }
+      return groups;
+   }
+
+   /**
+    * Inserts a batch of loaded entries in the data container.
+    * <p>
+    * Each key and value is converted on its own: the transcoders and the storage wrappers only convert single objects,
+    * and the data container has no bulk insert, so converting the batch first would only add a copy of it.
+    */
+   private void preloadBatch(List<MarshallableEntry<Object, Object>> batch, DataConversion keyDataConversion,
+                             DataConversion valueDataConversion) {
+      for (MarshallableEntry<Object, Object> me : batch) {
+         Object key = toStorage(keyDataConversion, me.getKey());
+         Object value = toStorage(valueDataConversion, me.getValue());
+         Metadata metadata = me.getMetadata() != null ? me.getMetadata() : EmbeddedMetadata.EMPTY;
+         dataContainer.put(keyPartitioner.getSegment(key), key, value, metadata, me.getInternalMetadata(),
+                           me.created(), me.lastUsed());
+      }
+      preloadedEntries.add(batch.size());
+   }
+
+   private static Object toStorage(DataConversion dataConversion, Object loaded) {
+      // TODO If the storage media type is application/x-protostream, this will convert to POJOs and back
+      return dataConversion.toStorage(loaded);
+   }
+
+   private void completeSegments() {
+      CompletableFuture<Void>[] segmentStages = segmentsPreloaded;
+      if (segmentStages != null) {
+         for (CompletableFuture<Void> segmentStage : segmentStages) {
+            segmentStage.complete(null);
+         }
+      }
+      preloaded.complete(null);
+   }
+
    private Single<?> preloadEntry(long flags, MarshallableEntry<Object, Object> me, DataConversion keyDataConversion, DataConversion valueDataConversion) {
       // CallInterceptor will preserve the timestamps if the metadata is an InternalMetadataImpl instance
       InternalMetadataImpl metadata = new InternalMetadataImpl(me.getMetadata(), me.created(), me.lastUsed());
-      // TODO If the storage media type is application/x-protostream, this will convert to POJOs and back
-      Object key = keyDataConversion.toStorage(me.getKey());
-      Object value = valueDataConversion.toStorage(me.getValue());
+      Object key = toStorage(keyDataConversion, me.getKey());
+      Object value = toStorage(valueDataConversion, me.getValue());
       PutKeyValueCommand cmd = commandsFactory.buildPutKeyValueCommand(key, value, keyPartitioner.getSegment(key),
                                                                        metadata, flags);
       cmd.setInternalMetadata(me.getInternalMetadata());
@@ -194,4 +387,66 @@ private long getFlagsForStateInsertion() {
    public boolean isFullyPreloaded() {
       return fullyPreloaded;
    }
+
+   /**
+    * @return a stage that completes when the given segment has been preloaded, or if the preload is not running.
+    */
+   public CompletionStage<Void> segmentPreloaded(int segment) {
+      CompletableFuture<Void>[] segmentStages = segmentsPreloaded;
+      return segmentStages == null ? CompletableFutures.completedNull() : segmentStages[segment];
+   }
+
+   /**
+    * @return a stage that completes when all the segments have been preloaded, or if the preload is not running.
+    */
+   public CompletionStage<Void> preloaded() {
+      return preloaded;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries preloaded from the store",
+         displayName = "Preloaded entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getPreloadedEntries() {
+      return preloadedEntries.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of segments whose entries have all been preloaded",
+         displayName = "Preloaded segments",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public int getPreloadedSegments() {
+      return preloadedSegments.get();
+   }
+
+   @ManagedAttribute(
+         description = "Percentage of the segments that have been preloaded",
+         displayName = "Preload progress",
+         units = Units.PERCENTAGE
+   )
+   public double getPreloadProgress() {
+      return 100d * preloadedSegments.get() / configuration.clustering().hash().numSegments();
+   }
+
+   @ManagedAttribute(
+         description = "Time spent preloading the entries, so far if the preload is still running",
+         displayName = "Preload duration",
+         units = Units.MILLISECONDS
+   )
+   public long getPreloadDuration() {
+      long d = duration;
+      return d >= 0 ? d : timeService.timeDuration(startTime, MILLISECONDS);
+   }
+
+   @ManagedAttribute(
+         description = "Entries preloaded per second",
+         displayName = "Preload throughput",
+         units = Units.PER_SECOND
+   )
+   public double getPreloadThroughput() {
+      long d = getPreloadDuration();
+      return d == 0 ? 0 : preloadedEntries.sum() * 1000d / d;
+   }
 }
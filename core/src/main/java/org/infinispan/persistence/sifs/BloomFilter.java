@@ -0,0 +1,185 @@
+package org.infinispan.persistence.sifs;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.infinispan.commons.hash.MurmurHash3;
+
+/**
+ * Scalable Bloom filter over the serialized keys of an index segment. A key that was never added is reported as
+ * absent with the configured false positive rate, a key that was added is always reported as present.
+ * <p>
+ * The number of keys in a segment is not known up front, so the filter is made of layers: once the last layer holds
+ * as many keys as it was sized for, a new layer with twice the capacity and a false positive rate lowered by
+ * {@link #TIGHTENING_RATIO} is added. The false positive rates of all the layers add up to at most the configured
+ * one. Keys cannot be removed, so keys deleted from the index keep using the filter capacity until it is rebuilt.
+ * <p>
+ * Keys must be added by a single thread, but {@link #mightContain(byte[])} can be invoked concurrently.
+ */
+class BloomFilter {
+   private static final int HASH_SEED = 9001;
+   static final int INITIAL_CAPACITY = 1024;
+   private static final double TIGHTENING_RATIO = 0.8;
+
+   private final double falsePositiveRate;
+   private volatile Layer[] layers;
+
+   BloomFilter(double falsePositiveRate) {
+      assert falsePositiveRate > 0 && falsePositiveRate < 1;
+      this.falsePositiveRate = falsePositiveRate;
+      // The geometric series of the rates of all the layers converges to the configured rate
+      this.layers = new Layer[]{new Layer(INITIAL_CAPACITY, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+   }
+
+   private BloomFilter(double falsePositiveRate, Layer[] layers) {
+      this.falsePositiveRate = falsePositiveRate;
+      this.layers = layers;
+   }
+
+   boolean mightContain(byte[] key) {
+      long[] hash = MurmurHash3.MurmurHash3_x64_128(key, HASH_SEED);
+      for (Layer layer : layers) {
+         if (layer.mightContain(hash[0], hash[1])) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   void add(byte[] key) {
+      long[] hash = MurmurHash3.MurmurHash3_x64_128(key, HASH_SEED);
+      Layer[] current = layers;
+      for (Layer layer : current) {
+         if (layer.mightContain(hash[0], hash[1])) {
+            return;
+         }
+      }
+      Layer last = current[current.length - 1];
+      if (last.count >= last.capacity) {
+         last = new Layer(last.capacity * 2, last.falsePositiveRate * TIGHTENING_RATIO);
+         Layer[] grown = Arrays.copyOf(current, current.length + 1);
+         grown[current.length] = last;
+         layers = grown;
+      }
+      last.add(hash[0], hash[1]);
+   }
+
+   /**
+    * @return The number of distinct keys added, not counting false positives
+    */
+   long keys() {
+      long keys = 0;
+      for (Layer layer : layers) {
+         keys += layer.count;
+      }
+      return keys;
+   }
+
+   long sizeInBytes() {
+      long bytes = 0;
+      for (Layer layer : layers) {
+         bytes += (long) layer.bits.length() * Long.BYTES;
+      }
+      return bytes;
+   }
+
+   void writeTo(DataOutput output) throws IOException {
+      Layer[] current = layers;
+      output.writeDouble(falsePositiveRate);
+      output.writeInt(current.length);
+      for (Layer layer : current) {
+         output.writeLong(layer.capacity);
+         output.writeLong(layer.count);
+         output.writeDouble(layer.falsePositiveRate);
+         output.writeInt(layer.hashes);
+         output.writeInt(layer.bits.length());
+         for (int i = 0; i < layer.bits.length(); ++i) {
+            output.writeLong(layer.bits.get(i));
+         }
+      }
+   }
+
+   /**
+    * @return The filter read from the input or null if it was written with a different false positive rate
+    */
+   static BloomFilter readFrom(DataInput input, double falsePositiveRate) throws IOException {
+      double writtenRate = input.readDouble();
+      int layerCount = input.readInt();
+      Layer[] layers = new Layer[layerCount];
+      for (int i = 0; i < layerCount; ++i) {
+         long capacity = input.readLong();
+         long count = input.readLong();
+         double layerRate = input.readDouble();
+         int hashes = input.readInt();
+         int words = input.readInt();
+         long[] bits = new long[words];
+         for (int j = 0; j < words; ++j) {
+            bits[j] = input.readLong();
+         }
+         layers[i] = new Layer(capacity, count, layerRate, hashes, new AtomicLongArray(bits));
+      }
+      if (writtenRate != falsePositiveRate || layerCount == 0) {
+         return null;
+      }
+      return new BloomFilter(falsePositiveRate, layers);
+   }
+
+   private static class Layer {
+      final long capacity;
+      final double falsePositiveRate;
+      final int hashes;
+      final AtomicLongArray bits;
+      final long bitCount;
+      // Only updated by the thread adding keys
+      volatile long count;
+
+      Layer(long capacity, double falsePositiveRate) {
+         this.capacity = capacity;
+         this.falsePositiveRate = falsePositiveRate;
+         double ln2 = Math.log(2);
+         long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+         int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+         this.bits = new AtomicLongArray(words);
+         this.bitCount = (long) words * Long.SIZE;
+         this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+      }
+
+      Layer(long capacity, long count, double falsePositiveRate, int hashes, AtomicLongArray bits) {
+         this.capacity = capacity;
+         this.count = count;
+         this.falsePositiveRate = falsePositiveRate;
+         this.hashes = hashes;
+         this.bits = bits;
+         this.bitCount = (long) bits.length() * Long.SIZE;
+      }
+
+      boolean mightContain(long hash1, long hash2) {
+         long combined = hash1;
+         for (int i = 0; i < hashes; ++i) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+               return false;
+            }
+            combined += hash2;
+         }
+         return true;
+      }
+
+      void add(long hash1, long hash2) {
+         long combined = hash1;
+         for (int i = 0; i < hashes; ++i) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            if ((bits.get(word) & mask) == 0) {
+               bits.accumulateAndGet(word, mask, (prev, bit) -> prev | bit);
+            }
+            combined += hash2;
+         }
+         count++;
+      }
+   }
+}
@@ -0,0 +1,107 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Statistics about the compaction of the soft-index file store data files.
+ * <p>
+ * The write amplification compares the bytes written to the data files, both by the cache writes and by the compactor
+ * moving live entries, with the bytes written by the cache writes only. The backlog is made of the files that are
+ * waiting for or undergoing compaction.
+ *
+ * @since 16.2
+ */
+@MBean(objectName = "SoftIndexFileStoreCompaction", description = "Compaction of the soft-index file store data files")
+public class CompactionStatistics {
+   private final Compactor compactor;
+   final LongAdder appendedBytes = new LongAdder();
+   final LongAdder compactedBytes = new LongAdder();
+   final LongAdder reclaimedBytes = new LongAdder();
+   final LongAdder compactedFiles = new LongAdder();
+   final LongAdder throttledNanos = new LongAdder();
+
+   CompactionStatistics(Compactor compactor) {
+      this.compactor = compactor;
+   }
+
+   @ManagedAttribute(
+         description = "Bytes appended to the data files by cache writes",
+         displayName = "Appended bytes",
+         units = Units.BYTES,
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAppendedBytes() {
+      return appendedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Bytes of live entries moved to new data files by the compactor",
+         displayName = "Compacted bytes",
+         units = Units.BYTES,
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getCompactedBytes() {
+      return compactedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Bytes written to the data files for each byte appended by cache writes, 0 if nothing was appended",
+         displayName = "Write amplification"
+   )
+   public double getWriteAmplification() {
+      long appended = appendedBytes.sum();
+      return appended == 0 ? 0 : (double) (appended + compactedBytes.sum()) / appended;
+   }
+
+   @ManagedAttribute(
+         description = "Bytes of disk space released by compacting data files",
+         displayName = "Reclaimed bytes",
+         units = Units.BYTES,
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getReclaimedBytes() {
+      return reclaimedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of data files compacted and deleted",
+         displayName = "Compacted files",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getCompactedFiles() {
+      return compactedFiles.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of data files waiting for or undergoing compaction",
+         displayName = "Compaction backlog files"
+   )
+   public int getCompactionBacklogFiles() {
+      return compactor.backlogFiles();
+   }
+
+   @ManagedAttribute(
+         description = "Size of the data files waiting for or undergoing compaction",
+         displayName = "Compaction backlog bytes",
+         units = Units.BYTES
+   )
+   public long getCompactionBacklogBytes() {
+      return compactor.backlogBytes();
+   }
+
+   @ManagedAttribute(
+         description = "Time the compactor waited because it exceeded the compaction rate limit",
+         displayName = "Compaction throttled time",
+         units = Units.MILLISECONDS,
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getThrottledTime() {
+      return TimeUnit.NANOSECONDS.toMillis(throttledNanos.sum());
+   }
+}
@@ -0,0 +1,59 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.infinispan.commons.time.TimeService;
+
+/**
+ * Token bucket limiting the bytes per second read and written by all the compactions together.
+ * <p>
+ * The bucket holds at most one second worth of bytes, so an idle compactor can burst up to the rate limit. A request
+ * is always granted, possibly leaving the bucket in debt, and the caller then sleeps until the debt is paid. This way
+ * an entry larger than the rate limit does not block compaction forever.
+ */
+class CompactionThrottle {
+   private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+   private final TimeService timeService;
+   private final long bytesPerSecond;
+   private final CompactionStatistics statistics;
+   private long available;
+   private long lastRefill;
+
+   CompactionThrottle(TimeService timeService, long bytesPerSecond, CompactionStatistics statistics) {
+      assert bytesPerSecond > 0;
+      this.timeService = timeService;
+      this.bytesPerSecond = bytesPerSecond;
+      this.statistics = statistics;
+      this.available = bytesPerSecond;
+      this.lastRefill = timeService.time();
+   }
+
+   /**
+    * Takes the given number of bytes from the bucket, sleeping if there are not enough. Must only be invoked from a
+    * blocking thread.
+    */
+   void acquire(int bytes) {
+      long waitNanos = reserve(bytes);
+      if (waitNanos > 0) {
+         statistics.throttledNanos.add(waitNanos);
+         LockSupport.parkNanos(waitNanos);
+      }
+   }
+
+   private synchronized long reserve(int bytes) {
+      long now = timeService.time();
+      long elapsed = now - lastRefill;
+      if (elapsed > 0) {
+         // Keep accumulating the elapsed time until it is worth a whole byte, so slow rates are not rounded to zero
+         long refill = (long) ((double) Math.min(elapsed, NANOS_PER_SECOND) * bytesPerSecond / NANOS_PER_SECOND);
+         if (refill > 0 || elapsed >= NANOS_PER_SECOND) {
+            available = Math.min(available + refill, bytesPerSecond);
+            lastRefill = now;
+         }
+      }
+      available -= bytes;
+      return available >= 0 ? 0 : (long) ((double) -available * NANOS_PER_SECOND / bytesPerSecond);
+   }
+}
@@ -1,7 +1,9 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -38,6 +40,11 @@
  * Component keeping the data about log file usage - as soon as entries from some file are overwritten so that the file
  * becomes cluttered with old records, the valid records are moved to another file and the old ones are dropped.
  * Expired records are moved as tombstones without values (records of entry removal).
+ * <p>
+ * Up to {@code parallelism} files are compacted at the same time, each by a {@link Worker} writing to its own file.
+ * When more files are waiting than there are idle workers, the file with the highest ratio of free space is compacted
+ * first, as it reclaims the most space for the bytes moved. Reads and writes of all workers can be limited to a number
+ * of bytes per second by a {@link CompactionThrottle}, so compaction does not starve the log appender.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -54,6 +61,16 @@ class Compactor {
    private final int maxFileSize;
    private final double compactionThreshold;
    private final Executor blockingExecutor;
+   private final int parallelism;
+   private final CompactionStatistics statistics;
+   // null when compaction is not rate limited
+   private final CompactionThrottle throttle;
+
+   // Requests waiting for an idle worker and the idle workers, both guarded by pending
+   private final List<CompactionRequest> pending = new ArrayList<>();
+   private final Deque<Worker> idleWorkers = new ArrayDeque<>();
+   // Completed when all workers become idle, guarded by pending
+   private CompletableFuture<Void> allWorkersIdle;
 
    // Initialize so we can enqueue operations until start begins
    private FlowableProcessor<CompletableFuture<Void>> processor = UnicastProcessor.<CompletableFuture<Void>>create().toSerialized();
@@ -66,18 +83,19 @@ class Compactor {
    // This variable is never to be null
    private volatile CompletableFuture<?> stopped = CompletableFutures.completedNull();
 
-   // This buffer is used by the compactor thread to avoid allocating buffers per entry written that are smaller
-   // than the header size
-   private final java.nio.ByteBuffer REUSED_BUFFER = java.nio.ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
+   // Guarded by this, as workers delete files concurrently
    private AggregateCompletionStage<Void> fileDeletionStage = CompletionStages.aggregateCompletionStage();
 
-   FileProvider.Log logFile = null;
-   long nextExpirationTime = -1;
-   int currentOffset = 0;
-
    public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvider, TemporaryTable temporaryTable,
          Marshaller marshaller, TimeService timeService, KeyPartitioner keyPartitioner, int maxFileSize,
          double compactionThreshold, Executor blockingExecutor) {
+      this(nonBlockingManager, fileProvider, temporaryTable, marshaller, timeService, keyPartitioner, maxFileSize,
+            compactionThreshold, blockingExecutor, 1, 0);
+   }
+
+   public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvider, TemporaryTable temporaryTable,
+         Marshaller marshaller, TimeService timeService, KeyPartitioner keyPartitioner, int maxFileSize,
+         double compactionThreshold, Executor blockingExecutor, int parallelism, long rateLimit) {
       this.nonBlockingManager = nonBlockingManager;
       this.fileProvider = fileProvider;
       this.temporaryTable = temporaryTable;
@@ -87,6 +105,41 @@ public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvide
       this.maxFileSize = maxFileSize;
       this.compactionThreshold = compactionThreshold;
       this.blockingExecutor = blockingExecutor;
+      this.parallelism = parallelism;
+      this.statistics = new CompactionStatistics(this);
+      this.throttle = rateLimit > 0 ? new CompactionThrottle(timeService, rateLimit, statistics) : null;
+      for (int i = 0; i < parallelism; i++) {
+         idleWorkers.add(new Worker());
+      }
+   }
+
+   CompactionStatistics getStatistics() {
+      return statistics;
+   }
+
+   // Invoked by the log appender for every entry it writes, to compute the write amplification
+   void recordAppendedBytes(int bytes) {
+      statistics.appendedBytes.add(bytes);
+   }
+
+   int backlogFiles() {
+      int files = 0;
+      for (Stats stats : fileStats.values()) {
+         if (stats.isScheduled() && !stats.markedForDeletion()) {
+            files++;
+         }
+      }
+      return files;
+   }
+
+   long backlogBytes() {
+      long bytes = 0;
+      for (Stats stats : fileStats.values()) {
+         if (stats.isScheduled() && !stats.markedForDeletion()) {
+            bytes += Math.max(stats.getTotal(), 0);
+         }
+      }
+      return bytes;
    }
 
    public void setIndex(Index index) {
@@ -171,16 +224,20 @@ public void start() {
       Scheduler scheduler = Schedulers.from(blockingExecutor);
       processor.observeOn(scheduler)
             .concatMapCompletable(stage -> {
-               processRequest(stage);
-               Completable completable = Completable.fromCompletionStage(stage);
+               CompletionStage<Void> processed = processRequest(stage);
+               Completable completable = Completable.fromCompletionStage(processed);
                // If stage is completed asynchronously it could be on a non blocking thread, make sure to resume
                // on our blocking executor
-               if (!stage.isDone()) {
+               if (!CompletionStages.isCompletedSuccessfully(processed)) {
                   completable = completable.observeOn(scheduler);
                }
                return completable;
             })
-            .subscribe(() -> stopped.complete(null), error -> {
+            // Requests still pending are ignored due to the terminate signal, then wait for the running ones
+            .subscribe(() -> {
+               dispatch();
+               awaitAllWorkersIdle().whenComplete((ignore, t) -> stopped.complete(null));
+            }, error -> {
                log.compactorEncounteredException(error, -1);
                stopped.completeExceptionally(error);
             });
@@ -372,16 +429,23 @@ public void stopOperations() {
       // The stopped CompletableFuture is completed in onComplete or onError callback for the processor, so this will
       // return after all compaction calls are completed
       stopped.join();
-      if (logFile != null) {
-         Util.close(logFile);
-         // Complete the file, this file should not be compacted
-         completeFile(logFile.fileId, currentOffset, nextExpirationTime, false);
-         logFile = null;
+      // All the workers are idle now
+      for (Worker worker : idleWorkers) {
+         if (worker.logFile != null) {
+            Util.close(worker.logFile);
+            // Complete the file, this file should not be compacted
+            completeFile(worker.logFile.fileId, worker.currentOffset, worker.nextExpirationTime, false);
+            worker.logFile = null;
+         }
       }
 
       // Wait for any file deletions to complete before completely stopping.
-      CompletionStages.join(fileDeletionStage.freeze());
-      fileDeletionStage = CompletionStages.aggregateCompletionStage();
+      CompletionStage<Void> deletions;
+      synchronized (this) {
+         deletions = fileDeletionStage.freeze();
+         fileDeletionStage = CompletionStages.aggregateCompletionStage();
+      }
+      CompletionStages.join(deletions);
 
       // Reinitialize processor so it can be started again possibly
       processor = UnicastProcessor.<CompletableFuture<Void>>create().toSerialized();
@@ -416,12 +480,16 @@ void completeFuture(CompletableFuture<Void> future) {
       nonBlockingManager.complete(future, null);
    }
 
-   public void processRequest(CompletableFuture<Void> stageRequest) throws Throwable {
+   /**
+    * Handles a request submitted to the processor. Compaction requests are queued for the next idle worker, so the
+    * returned stage is complete unless the request is a clear, which has to wait for all the running compactions.
+    */
+   private CompletionStage<Void> processRequest(CompletableFuture<Void> stageRequest) {
       if (terminateSignal) {
          log.tracef("Compactor already terminated, ignoring request " + stageRequest);
          // Just ignore if terminated
          completeFuture(stageRequest);
-         return;
+         return CompletableFutures.completedNull();
       }
       // Note that this accept is only invoked from a single thread at a time so we don't have to worry about
       // any other threads decrementing clear signal. However, another thread can increment, that is okay for us
@@ -429,368 +497,521 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
          // We ignore any entries since it was last cleared
          if (stageRequest instanceof ClearFuture) {
             log.tracef("Compactor ignoring all future compactions until clear completes");
-
-            if (logFile != null) {
-               logFile.close();
-               logFile = null;
-               nextExpirationTime = -1;
-            }
-
-            completeFuture(stageRequest);
+            // Ignore the pending requests, the running ones stop early due to the clear signal
+            dispatch();
+            return awaitAllWorkersIdle().thenRunAsync(() -> {
+               for (Worker worker : idleWorkers) {
+                  if (worker.logFile != null) {
+                     worker.logFile.close();
+                     worker.logFile = null;
+                     worker.nextExpirationTime = -1;
+                  }
+               }
+               completeFuture(stageRequest);
+            }, blockingExecutor);
          } else {
             log.tracef("Ignoring compaction request for %s as compactor is being cleared", stageRequest);
             completeFuture(stageRequest);
          }
-         return;
-      }
-
-      CompactionRequest request = (CompactionRequest) stageRequest;
-      try {
-         // Any other type submitted has to be a positive integer
-         Stats stats = fileStats.get(request.fileId);
-
-         // Double check that the file wasn't removed. If stats are null that means the file was previously removed
-         // and also make sure the file wasn't marked for deletion, but hasn't yet
-         if (stats != null && !stats.markedForDeletion()) {
-            compactSingleFile(request, timeService.wallClockTime());
-            if (request.isLogFile) {
-               // Unschedule the compaction for log file as we can't remove it
-               stats.scheduled.set(false);
-               // It is possible the log appender completed while we were compacting the file, if
-               // so we may need to resubmit the file to be compacted
-               if (stats.isCompleted() && stats.readyToBeScheduled(compactionThreshold, stats.free.get())) {
-                  schedule(request.fileId, stats);
-               }
+         return CompletableFutures.completedNull();
+      }
+
+      synchronized (pending) {
+         pending.add((CompactionRequest) stageRequest);
+      }
+      dispatch();
+      return CompletableFutures.completedNull();
+   }
+
+   /**
+    * Hands the pending requests to the idle workers, highest priority first. If the compactor is being cleared or
+    * terminated the pending requests are completed without compacting instead.
+    */
+   private void dispatch() {
+      List<CompactionRequest> ignored = null;
+      List<Runnable> started = null;
+      synchronized (pending) {
+         if (terminateSignal || clearSignal.get()) {
+            if (!pending.isEmpty()) {
+               ignored = new ArrayList<>(pending);
+               pending.clear();
             }
          } else {
-            log.tracef("Ignoring compaction request for a file %s that isn't present in stats or was marked for deletion %s", request.fileId, stats);
+            while (!pending.isEmpty() && !idleWorkers.isEmpty()) {
+               CompactionRequest request = removeHighestPriority();
+               Worker worker = idleWorkers.pop();
+               if (started == null) {
+                  started = new ArrayList<>();
+               }
+               started.add(() -> worker.process(request));
+            }
+         }
+      }
+      if (ignored != null) {
+         for (CompactionRequest request : ignored) {
+            log.tracef("Ignoring compaction request for %s as compactor is being cleared or terminated", request);
             completeFuture(request);
          }
-      } catch (Throwable t) {
-         log.trace("Completing compaction for file: " + request.fileId + " due to exception!", t);
-         request.completeExceptionally(t);
+      }
+      if (started != null) {
+         // The executor may run the compaction in the invoking thread, so it must not hold the lock
+         for (Runnable compaction : started) {
+            blockingExecutor.execute(compaction);
+         }
       }
    }
 
-   /**
-    * Compacts a single file into the current log file. This method has two modes of operation based on if the file
-    * is a log file or not. If it is a log file non expired entries are ignored and only expired entries are "updated"
-    * to be deleted in the new log file and expiration listener is notified. If it is not a log file all entries are
-    * moved to the new log file and the current file is deleted afterwards. If an expired entry is found during compaction
-    * of a non log file the expiration listener is notified and the entry is not moved, however if no expiration listener
-    * is provided the expired entry is moved to the new file as is still expired.
-    * @param compactionRequest the request containing the fileId and if it is a log file and optional subscriber
-    * @throws IOException            thrown if there was an issue with reading or writing to a file
-    * @throws ClassNotFoundException thrown if there is an issue deserializing the key for an entry
-    */
-   private void compactSingleFile(CompactionRequest compactionRequest,
-         long currentTimeMilliseconds) throws IOException, ClassNotFoundException {
-      int scheduledFile = compactionRequest.fileId;
-      assert scheduledFile >= 0;
-
-      if (clearSignal.get() || terminateSignal) {
-         log.tracef("Not compacting file %d as either the terminate or clear signal were set", scheduledFile);
-         completeFuture(compactionRequest);
-         return;
-      }
-
-      CompactionExpirationSubscriber subscriber = compactionRequest.subscriber;
-      boolean isLogFile = compactionRequest.isLogFile;
-      if (subscriber == null) {
-         log.tracef("Compacting file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
-      } else {
-         log.tracef("Removing expired entries from file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
-      }
-      int scheduledOffset = 0;
-      // Store expired entries to remove after we update the index
-      List<EntryPosition> expiredTemp = subscriber != null ? new ArrayList<>() : null;
-      List<EntryRecord> expiredIndex = subscriber != null ? new ArrayList<>() : null;
-      FileProvider.Handle handle = fileProvider.getFile(scheduledFile);
-      if (handle == null) {
-         throw new IllegalStateException("Compactor should not get deleted file for compaction!");
-      }
-      try (handle) {
-         long fileSize = handle.getFileSize();
-         AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
-         EntryHeader header;
-         while ((header = EntryRecord.readEntryHeader(handle, scheduledOffset)) != null) {
-            long remainingBytes = fileSize - scheduledOffset;
-            if (header.totalLength() > remainingBytes) {
-               if (isLogFile) {
-                  log.tracef("Log file %d compacted %d bytes, but file is now larger ignoring remaining contents", scheduledFile, scheduledOffset);
-                  break;
-               }
+   private void release(Worker worker) {
+      CompletableFuture<Void> idle = null;
+      synchronized (pending) {
+         idleWorkers.push(worker);
+         if (idleWorkers.size() == parallelism) {
+            idle = allWorkersIdle;
+            allWorkersIdle = null;
+         }
+      }
+      if (idle != null) {
+         idle.complete(null);
+      }
+      dispatch();
+   }
 
-               byte[] serializedKey = null;
-               // Attempt to read the key to give a better warning
-               if (header.keyLength() < remainingBytes) {
-                  serializedKey = EntryRecord.readKey(handle, header, scheduledOffset);
-               }
-               log.compactedFileNotLongEnough(serializedKey, scheduledFile, scheduledOffset, fileSize, header);
-               break;
-            }
-            byte[] serializedKey = EntryRecord.readKey(handle, header, scheduledOffset);
-            if (serializedKey == null) {
-               throw new IllegalStateException("Concurrent update to compacting file when reading key on "
-                     + handle.getFileId() + ": " + scheduledOffset + ": " + header + "|" + handle.getFileSize());
-            }
+   private CompletionStage<Void> awaitAllWorkersIdle() {
+      synchronized (pending) {
+         if (idleWorkers.size() == parallelism) {
+            return CompletableFutures.completedNull();
+         }
+         if (allWorkersIdle == null) {
+            allWorkersIdle = new CompletableFuture<>();
+         }
+         return allWorkersIdle;
+      }
+   }
 
-            Object key = marshaller.objectFromByteBuffer(serializedKey);
-            int segment = keyPartitioner.getSegment(key);
-
-            int valueLength = header.valueLength();
-            int indexedOffset = valueLength > 0 ? scheduledOffset : ~scheduledOffset;
-            // Whether to drop the entire index (this cannot be true if truncate is false)
-            // We drop all entries by default unless it is a log file as we can't drop any of those since we may
-            // try to compact a log file multiple times, note modifications to drop variable below should only be to set
-            // it to false
-            int prevFile = -1;
-            int prevOffset = -1;
-            boolean drop = !isLogFile;
-            // Whether to truncate the value
-            boolean truncate = false;
-            EntryPosition entry = temporaryTable.get(segment, key);
-            if (entry != null) {
-               synchronized (entry) {
-                  if (log.isTraceEnabled()) {
-                     log.tracef("Key for %d:%d was found in temporary table on %d:%d",
-                           scheduledFile, scheduledOffset, entry.file, entry.offset);
-                  }
-                  if (entry.file == scheduledFile && entry.offset == indexedOffset) {
-                     long entryExpiryTime = header.expiryTime();
-                     // It's quite unlikely that we would compact a record that is not indexed yet,
-                     // but let's handle that
-                     if (entryExpiryTime >= 0 && entryExpiryTime <= currentTimeMilliseconds) {
-                        // We can only truncate expired entries if this was compacted with purge expire and this entry
-                        // isn't a removed marker
-                        if (expiredTemp != null && entry.offset >= 0) {
-                           truncate = true;
-                           expiredTemp.add(entry);
-                        }
-                     } else if (isLogFile) {
-                        // Non expired entry in a log file, just skip it
-                        scheduledOffset += header.totalLength();
-                        continue;
-                     }
-                  } else if (entry.file == scheduledFile && entry.offset == ~scheduledOffset) {
-                     // The temporary table doesn't know how many entries we have for a key, so we shouldn't truncate
-                     // or drop
-                     log.tracef("Key for %d:%d ignored as it was expired but was in temporary table");
-                     scheduledOffset += header.totalLength();
-                     continue;
-                  } else {
-                     truncate = true;
+   // Must be invoked while holding the pending lock
+   private CompactionRequest removeHighestPriority() {
+      int best = 0;
+      double bestPriority = priority(pending.get(0));
+      for (int i = 1; i < pending.size(); i++) {
+         double priority = priority(pending.get(i));
+         // Requests with the same priority are processed in order
+         if (priority > bestPriority) {
+            best = i;
+            bestPriority = priority;
+         }
+      }
+      return pending.remove(best);
+   }
+
+   private double priority(CompactionRequest request) {
+      // An expiration run waits for each file before submitting the next one and a request for a file that was
+      // removed completes immediately, so neither has to wait behind the regular compactions
+      if (request.subscriber != null) {
+         return Double.MAX_VALUE;
+      }
+      Stats stats = fileStats.get(request.fileId);
+      if (stats == null || stats.markedForDeletion() || stats.getTotal() <= 0) {
+         return Double.MAX_VALUE;
+      }
+      return (double) stats.getFree() / stats.getTotal();
+   }
+
+   private synchronized void addFileDeletion(CompletionStage<Void> deletion) {
+      fileDeletionStage.dependsOn(deletion);
+   }
+
+   /**
+    * Compacts files into its own log file. A worker processes a single request at a time, so its state does not
+    * need to be synchronized.
+    */
+   private class Worker {
+      // This buffer is used by the worker to avoid allocating buffers per entry written that are smaller
+      // than the header size
+      private final java.nio.ByteBuffer REUSED_BUFFER = java.nio.ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
+      // Log files filled by the current request, they are completed once the index points to their entries
+      private final List<CompletedFile> filledFiles = new ArrayList<>();
+
+      FileProvider.Log logFile = null;
+      long nextExpirationTime = -1;
+      int currentOffset = 0;
+
+      void process(CompactionRequest request) {
+         request.whenComplete((ignore, t) -> release(this));
+         try {
+            // Any other type submitted has to be a positive integer
+            Stats stats = fileStats.get(request.fileId);
+
+            // Double check that the file wasn't removed. If stats are null that means the file was previously removed
+            // and also make sure the file wasn't marked for deletion, but hasn't yet
+            if (stats != null && !stats.markedForDeletion()) {
+               compactSingleFile(request, timeService.wallClockTime());
+               if (request.isLogFile) {
+                  // Unschedule the compaction for log file as we can't remove it
+                  stats.scheduled.set(false);
+                  // It is possible the log appender completed while we were compacting the file, if
+                  // so we may need to resubmit the file to be compacted
+                  if (stats.isCompleted() && stats.readyToBeScheduled(compactionThreshold, stats.free.get())) {
+                     schedule(request.fileId, stats);
                   }
                }
-               // When we have found the entry in temporary table, it's possible that the delete operation
-               // (that was recorded in temporary table) will arrive to index after DROPPED - in that case
-               // we could remove the entry and delete would not find it
-               drop = false;
             } else {
-               log.tracef("Loading from index for key %s when processing file %s", key, scheduledFile);
-               EntryInfo info = index.getInfo(key, segment, serializedKey);
-               if (info == null) {
+               log.tracef("Ignoring compaction request for a file %s that isn't present in stats or was marked for deletion %s", request.fileId, stats);
+               completeFuture(request);
+            }
+         } catch (Throwable t) {
+            log.trace("Completing compaction for file: " + request.fileId + " due to exception!", t);
+            completeFilledFiles();
+            request.completeExceptionally(t);
+         }
+      }
+
+      private void completeFilledFiles() {
+         for (CompletedFile file : filledFiles) {
+            completeFile(file.fileId, file.size, file.nextExpirationTime);
+         }
+         filledFiles.clear();
+      }
+
+      private void throttle(int bytes) {
+         if (throttle != null) {
+            throttle.acquire(bytes);
+         }
+      }
+
+      /**
+       * Compacts a single file into the current log file. This method has two modes of operation based on if the file
+       * is a log file or not. If it is a log file non expired entries are ignored and only expired entries are "updated"
+       * to be deleted in the new log file and expiration listener is notified. If it is not a log file all entries are
+       * moved to the new log file and the current file is deleted afterwards. If an expired entry is found during compaction
+       * of a non log file the expiration listener is notified and the entry is not moved, however if no expiration listener
+       * is provided the expired entry is moved to the new file as is still expired.
+       * @param compactionRequest the request containing the fileId and if it is a log file and optional subscriber
+       * @throws IOException            thrown if there was an issue with reading or writing to a file
+       * @throws ClassNotFoundException thrown if there is an issue deserializing the key for an entry
+       */
+      private void compactSingleFile(CompactionRequest compactionRequest,
+            long currentTimeMilliseconds) throws IOException, ClassNotFoundException {
+         int scheduledFile = compactionRequest.fileId;
+         assert scheduledFile >= 0;
+
+         if (clearSignal.get() || terminateSignal) {
+            log.tracef("Not compacting file %d as either the terminate or clear signal were set", scheduledFile);
+            completeFuture(compactionRequest);
+            return;
+         }
+
+         CompactionExpirationSubscriber subscriber = compactionRequest.subscriber;
+         boolean isLogFile = compactionRequest.isLogFile;
+         if (subscriber == null) {
+            log.tracef("Compacting file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
+         } else {
+            log.tracef("Removing expired entries from file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
+         }
+         int scheduledOffset = 0;
+         // Store expired entries to remove after we update the index
+         List<EntryPosition> expiredTemp = subscriber != null ? new ArrayList<>() : null;
+         List<EntryRecord> expiredIndex = subscriber != null ? new ArrayList<>() : null;
+         FileProvider.Handle handle = fileProvider.getFile(scheduledFile);
+         if (handle == null) {
+            throw new IllegalStateException("Compactor should not get deleted file for compaction!");
+         }
+         long fileSize;
+         long compactedBytes = 0;
+         CompletionStage<Void> indexUpdated;
+         try (handle) {
+            fileSize = handle.getFileSize();
+            AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
+            EntryHeader header;
+            while ((header = EntryRecord.readEntryHeader(handle, scheduledOffset)) != null) {
+               throttle(header.totalLength());
+               long remainingBytes = fileSize - scheduledOffset;
+               if (header.totalLength() > remainingBytes) {
                   if (isLogFile) {
-                     // LogFile may have written the data but not updated temporary table yet
-                     log.tracef("No index found for key %s, but it is a logFile, ignoring rest of the file", key);
+                     log.tracef("Log file %d compacted %d bytes, but file is now larger ignoring remaining contents", scheduledFile, scheduledOffset);
                      break;
                   }
-                  log.tracef("No index found for key %s, dropping - assuming lost due to segment %d removed", key, segment);
-                  scheduledOffset += header.totalLength();
-                  continue;
+
+                  byte[] serializedKey = null;
+                  // Attempt to read the key to give a better warning
+                  if (header.keyLength() < remainingBytes) {
+                     serializedKey = EntryRecord.readKey(handle, header, scheduledOffset);
+                  }
+                  log.compactedFileNotLongEnough(serializedKey, scheduledFile, scheduledOffset, fileSize, header);
+                  break;
                }
-               if (info.numRecords <= 0) {
-                  throw new IllegalArgumentException("Number of records " + info.numRecords + " for index of key " + key + " should be more than zero!");
+               byte[] serializedKey = EntryRecord.readKey(handle, header, scheduledOffset);
+               if (serializedKey == null) {
+                  throw new IllegalStateException("Concurrent update to compacting file when reading key on "
+                        + handle.getFileId() + ": " + scheduledOffset + ": " + header + "|" + handle.getFileSize());
                }
-               if (info.file == scheduledFile && info.offset == scheduledOffset) {
-                  assert header.valueLength() > 0;
-                  long entryExpiryTime = header.expiryTime();
-                  // live record with data
-                  if (entryExpiryTime >= 0 && entryExpiryTime <= currentTimeMilliseconds) {
-                     // We can only truncate expired entries if this was compacted with purge expire
-                     if (expiredIndex != null) {
-                        EntryRecord record = index.getRecordEvenIfExpired(key, segment, serializedKey);
-                        if (record == null) {
-                           log.tracef("Key %s is not in index to do expiration event - assuming lost due to segments removed", key);
+
+               Object key = marshaller.objectFromByteBuffer(serializedKey);
+               int segment = keyPartitioner.getSegment(key);
+
+               int valueLength = header.valueLength();
+               int indexedOffset = valueLength > 0 ? scheduledOffset : ~scheduledOffset;
+               // Whether to drop the entire index (this cannot be true if truncate is false)
+               // We drop all entries by default unless it is a log file as we can't drop any of those since we may
+               // try to compact a log file multiple times, note modifications to drop variable below should only be to set
+               // it to false
+               int prevFile = -1;
+               int prevOffset = -1;
+               boolean drop = !isLogFile;
+               // Whether to truncate the value
+               boolean truncate = false;
+               EntryPosition entry = temporaryTable.get(segment, key);
+               if (entry != null) {
+                  synchronized (entry) {
+                     if (log.isTraceEnabled()) {
+                        log.tracef("Key for %d:%d was found in temporary table on %d:%d",
+                              scheduledFile, scheduledOffset, entry.file, entry.offset);
+                     }
+                     if (entry.file == scheduledFile && entry.offset == indexedOffset) {
+                        long entryExpiryTime = header.expiryTime();
+                        // It's quite unlikely that we would compact a record that is not indexed yet,
+                        // but let's handle that
+                        if (entryExpiryTime >= 0 && entryExpiryTime <= currentTimeMilliseconds) {
+                           // We can only truncate expired entries if this was compacted with purge expire and this entry
+                           // isn't a removed marker
+                           if (expiredTemp != null && entry.offset >= 0) {
+                              truncate = true;
+                              expiredTemp.add(entry);
+                           }
+                        } else if (isLogFile) {
+                           // Non expired entry in a log file, just skip it
                            scheduledOffset += header.totalLength();
                            continue;
                         }
+                     } else if (entry.file == scheduledFile && entry.offset == ~scheduledOffset) {
+                        // The temporary table doesn't know how many entries we have for a key, so we shouldn't truncate
+                        // or drop
+                        log.tracef("Key for %d:%d ignored as it was expired but was in temporary table");
+                        scheduledOffset += header.totalLength();
+                        continue;
+                     } else {
                         truncate = true;
-                        expiredIndex.add(record);
-                        // If there are more entries we cannot drop the index as we need a tombstone
-                        if (info.numRecords > 1) {
+                     }
+                  }
+                  // When we have found the entry in temporary table, it's possible that the delete operation
+                  // (that was recorded in temporary table) will arrive to index after DROPPED - in that case
+                  // we could remove the entry and delete would not find it
+                  drop = false;
+               } else {
+                  log.tracef("Loading from index for key %s when processing file %s", key, scheduledFile);
+                  EntryInfo info = index.getInfo(key, segment, serializedKey);
+                  if (info == null) {
+                     if (isLogFile) {
+                        // LogFile may have written the data but not updated temporary table yet
+                        log.tracef("No index found for key %s, but it is a logFile, ignoring rest of the file", key);
+                        break;
+                     }
+                     log.tracef("No index found for key %s, dropping - assuming lost due to segment %d removed", key, segment);
+                     scheduledOffset += header.totalLength();
+                     continue;
+                  }
+                  if (info.numRecords <= 0) {
+                     throw new IllegalArgumentException("Number of records " + info.numRecords + " for index of key " + key + " should be more than zero!");
+                  }
+                  if (info.file == scheduledFile && info.offset == scheduledOffset) {
+                     assert header.valueLength() > 0;
+                     long entryExpiryTime = header.expiryTime();
+                     // live record with data
+                     if (entryExpiryTime >= 0 && entryExpiryTime <= currentTimeMilliseconds) {
+                        // We can only truncate expired entries if this was compacted with purge expire
+                        if (expiredIndex != null) {
+                           EntryRecord record = index.getRecordEvenIfExpired(key, segment, serializedKey);
+                           if (record == null) {
+                              log.tracef("Key %s is not in index to do expiration event - assuming lost due to segments removed", key);
+                              scheduledOffset += header.totalLength();
+                              continue;
+                           }
+                           truncate = true;
+                           expiredIndex.add(record);
+                           // If there are more entries we cannot drop the index as we need a tombstone
+                           if (info.numRecords > 1) {
+                              drop = false;
+                           }
+                        } else {
+                           // We can't drop an expired entry without notifying, so we write it to the new compacted file
                            drop = false;
                         }
+                     } else if (isLogFile) {
+                        // Non expired entry in a log file, just skip it
+                        scheduledOffset += header.totalLength();
+                        continue;
                      } else {
-                        // We can't drop an expired entry without notifying, so we write it to the new compacted file
                         drop = false;
                      }
+
+                     if (log.isTraceEnabled()) {
+                        log.tracef("Is key %s at %d:%d expired? %s, numRecords? %d", key, scheduledFile, scheduledOffset, truncate, info.numRecords);
+                     }
                   } else if (isLogFile) {
-                     // Non expired entry in a log file, just skip it
+                     // If entry doesn't match the index we can't touch it when it is a log file
                      scheduledOffset += header.totalLength();
                      continue;
-                  } else {
+                  } else if (info.file == scheduledFile && info.offset == ~scheduledOffset && info.numRecords > 1) {
+                     // The entry was expired, but we have other records so we can't drop this one or else the index will rebuild incorrectly
                      drop = false;
+                  } else if (log.isTraceEnabled()) {
+                     log.tracef("Key %s for %d:%d was found in index on %d:%d, %d record => drop", key,
+                           scheduledFile, scheduledOffset, info.file, info.offset, info.numRecords);
                   }
-
-                  if (log.isTraceEnabled()) {
-                     log.tracef("Is key %s at %d:%d expired? %s, numRecords? %d", key, scheduledFile, scheduledOffset, truncate, info.numRecords);
-                  }
-               } else if (isLogFile) {
-                  // If entry doesn't match the index we can't touch it when it is a log file
-                  scheduledOffset += header.totalLength();
-                  continue;
-               } else if (info.file == scheduledFile && info.offset == ~scheduledOffset && info.numRecords > 1) {
-                  // The entry was expired, but we have other records so we can't drop this one or else the index will rebuild incorrectly
-                  drop = false;
-               } else if (log.isTraceEnabled()) {
-                  log.tracef("Key %s for %d:%d was found in index on %d:%d, %d record => drop", key,
-                        scheduledFile, scheduledOffset, info.file, info.offset, info.numRecords);
-               }
-               prevFile = info.file;
-               prevOffset = info.offset;
-            }
-
-            if (drop) {
-               if (log.isTraceEnabled()) {
-                  log.tracef("Drop index for key %s, file %d:%d (%s)", key, scheduledFile, scheduledOffset,
-                        header.valueLength() > 0 ? "record" : "tombstone");
-               }
-               index.handleRequest(IndexRequest.dropped(segment, key, ByteBufferImpl.create(serializedKey), prevFile, prevOffset, scheduledFile, scheduledOffset));
-            } else {
-               if (logFile == null || currentOffset + header.totalLength() > maxFileSize) {
-                  if (logFile != null) {
-                     logFile.close();
-                     completeFile(logFile.fileId, currentOffset, nextExpirationTime);
-                     nextExpirationTime = -1;
-                  }
-                  currentOffset = 0;
-                  logFile = fileProvider.getFileForLog();
-                  log.debugf("Compacting to %d", (Object) logFile.fileId);
+                  prevFile = info.file;
+                  prevOffset = info.offset;
                }
 
-               byte[] serializedValue = null;
-               EntryMetadata metadata = null;
-               byte[] serializedInternalMetadata = null;
-               int entryOffset;
-               int writtenLength;
-               if (header.valueLength() > 0 && !truncate) {
-                  if (header.metadataLength() > 0) {
-                     metadata = EntryRecord.readMetadata(handle, header, scheduledOffset);
-                  }
-                  serializedValue = EntryRecord.readValue(handle, header, scheduledOffset);
-                  if (header.internalMetadataLength() > 0) {
-                     serializedInternalMetadata = EntryRecord.readInternalMetadata(handle, header, scheduledOffset);
-                  }
-                  entryOffset = currentOffset;
-                  writtenLength = header.totalLength();
-                  // Update the next expiration time only for entries that are not removed
-                  nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, header.expiryTime());
-               } else {
-                  entryOffset = ~currentOffset;
-                  writtenLength = header.getHeaderLength() + header.keyLength();
-               }
-               EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, serializedKey, metadata, serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
-               TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(segment, key, logFile.fileId, entryOffset, scheduledFile, indexedOffset);
-               if (lockedEntry == null) {
+               if (drop) {
                   if (log.isTraceEnabled()) {
-                     log.trace("Found entry in temporary table");
+                     log.tracef("Drop index for key %s, file %d:%d (%s)", key, scheduledFile, scheduledOffset,
+                           header.valueLength() > 0 ? "record" : "tombstone");
                   }
+                  index.handleRequest(IndexRequest.dropped(segment, key, ByteBufferImpl.create(serializedKey), prevFile, prevOffset, scheduledFile, scheduledOffset));
                } else {
-                  boolean update = false;
-                  try {
-                     EntryInfo info = index.getInfo(key, segment, serializedKey);
-                     if (info == null) {
-                        log.tracef("Key %s was not found in index or temporary table assuming it is gone from removing segments, dropping", key);
-                        scheduledOffset += header.totalLength();
-                        continue;
-                     } else {
-                        update = info.file == scheduledFile && info.offset == indexedOffset;
+                  if (logFile == null || currentOffset + header.totalLength() > maxFileSize) {
+                     if (logFile != null) {
+                        logFile.close();
+                        // Another worker could compact the file as soon as it is completed, so wait until the index
+                        // points to the entries moved to it
+                        filledFiles.add(new CompletedFile(logFile.fileId, currentOffset, nextExpirationTime));
+                        nextExpirationTime = -1;
+                     }
+                     currentOffset = 0;
+                     logFile = fileProvider.getFileForLog();
+                     log.debugf("Compacting to %d", (Object) logFile.fileId);
+                  }
+
+                  byte[] serializedValue = null;
+                  EntryMetadata metadata = null;
+                  byte[] serializedInternalMetadata = null;
+                  int entryOffset;
+                  int writtenLength;
+                  if (header.valueLength() > 0 && !truncate) {
+                     if (header.metadataLength() > 0) {
+                        metadata = EntryRecord.readMetadata(handle, header, scheduledOffset);
+                     }
+                     serializedValue = EntryRecord.readValue(handle, header, scheduledOffset);
+                     if (header.internalMetadataLength() > 0) {
+                        serializedInternalMetadata = EntryRecord.readInternalMetadata(handle, header, scheduledOffset);
                      }
+                     entryOffset = currentOffset;
+                     writtenLength = header.totalLength();
+                     // Update the next expiration time only for entries that are not removed
+                     nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, header.expiryTime());
+                  } else {
+                     entryOffset = ~currentOffset;
+                     writtenLength = header.getHeaderLength() + header.keyLength();
+                  }
+                  throttle(writtenLength);
+                  EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, serializedKey, metadata, serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
+                  TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(segment, key, logFile.fileId, entryOffset, scheduledFile, indexedOffset);
+                  if (lockedEntry == null) {
                      if (log.isTraceEnabled()) {
-                        log.tracef("In index the key is on %d:%d (%s)", info.file, info.offset, String.valueOf(update));
+                        log.trace("Found entry in temporary table");
                      }
-                  } finally {
-                     if (update) {
-                        temporaryTable.updateAndUnlock(lockedEntry, logFile.fileId, entryOffset);
-                     } else {
-                        temporaryTable.removeAndUnlock(lockedEntry, segment, key);
+                  } else {
+                     boolean update = false;
+                     try {
+                        EntryInfo info = index.getInfo(key, segment, serializedKey);
+                        if (info == null) {
+                           log.tracef("Key %s was not found in index or temporary table assuming it is gone from removing segments, dropping", key);
+                           scheduledOffset += header.totalLength();
+                           continue;
+                        } else {
+                           update = info.file == scheduledFile && info.offset == indexedOffset;
+                        }
+                        if (log.isTraceEnabled()) {
+                           log.tracef("In index the key is on %d:%d (%s)", info.file, info.offset, String.valueOf(update));
+                        }
+                     } finally {
+                        if (update) {
+                           temporaryTable.updateAndUnlock(lockedEntry, logFile.fileId, entryOffset);
+                        } else {
+                           temporaryTable.removeAndUnlock(lockedEntry, segment, key);
+                        }
                      }
                   }
+                  if (log.isTraceEnabled()) {
+                     log.tracef("Update %d:%d -> %d:%d | %d,%d", scheduledFile, indexedOffset,
+                           logFile.fileId, entryOffset, logFile.fileChannel.position(), logFile.fileChannel.size());
+                  }
+                  IndexRequest indexRequest;
+                  ByteBuffer keyBuffer = ByteBufferImpl.create(serializedKey);
+                  if (isLogFile) {
+                     // When it is a log file we are still keeping the original entry, we are just updating it to say
+                     // it was expired
+                     indexRequest = IndexRequest.update(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength);
+                  } else {
+                     // entryFile cannot be used as we have to report the file due to free space statistics
+                     indexRequest = IndexRequest.moved(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength,
+                           scheduledFile, indexedOffset);
+                  }
+                  aggregateCompletionStage.dependsOn(index.handleRequest(indexRequest));
+
+                  currentOffset += writtenLength;
+                  compactedBytes += writtenLength;
                }
-               if (log.isTraceEnabled()) {
-                  log.tracef("Update %d:%d -> %d:%d | %d,%d", scheduledFile, indexedOffset,
-                        logFile.fileId, entryOffset, logFile.fileChannel.position(), logFile.fileChannel.size());
+               scheduledOffset += header.totalLength();
+            }
+            // Need to notify subscriber of expired entries before completing request
+            if (subscriber != null) {
+               log.tracef("Expired entries in temporary table %s and in index %s", expiredTemp, expiredIndex);
+               for (EntryPosition entryPosition : expiredTemp) {
+                  subscriber.onEntryPosition(entryPosition);
                }
-               IndexRequest indexRequest;
-               ByteBuffer keyBuffer = ByteBufferImpl.create(serializedKey);
-               if (isLogFile) {
-                  // When it is a log file we are still keeping the original entry, we are just updating it to say
-                  // it was expired
-                  indexRequest = IndexRequest.update(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength);
-               } else {
-                  // entryFile cannot be used as we have to report the file due to free space statistics
-                  indexRequest = IndexRequest.moved(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength,
-                        scheduledFile, indexedOffset);
+               for (EntryRecord entryRecord : expiredIndex) {
+                  subscriber.onEntryEntryRecord(entryRecord);
                }
-               aggregateCompletionStage.dependsOn(index.handleRequest(indexRequest));
-
-               currentOffset += writtenLength;
             }
-            scheduledOffset += header.totalLength();
-         }
-         // Need to notify subscriber of expired entries before completing request
-         if (subscriber != null) {
-            log.tracef("Expired entries in temporary table %s and in index %s", expiredTemp, expiredIndex);
-            for (EntryPosition entryPosition : expiredTemp) {
-               subscriber.onEntryPosition(entryPosition);
-            }
-            for (EntryRecord entryRecord : expiredIndex) {
-               subscriber.onEntryEntryRecord(entryRecord);
-            }
-         }
-         if (!clearSignal.get()) {
-            // We delay the next operation until all prior moves are done. By moving it can trigger another
-            // compaction before the index has been fully updated. Thus we block any other compaction events
-            // until all entries have been moved for this file
-            CompletionStage<Void> aggregate = aggregateCompletionStage.freeze();
-            if (!CompletionStages.isCompletedSuccessfully(aggregate)) {
-               log.tracef("Compactor paused, waiting for previous index updates to complete");
-               // We resume after completed, Note that we must complete the {@code paused} variable inside the compactor
-               // execution pipeline otherwise we can invoke compactor operations in the wrong thread
-               aggregate.whenComplete((ignore, t) -> {
-                  if (t != null) {
-                     log.error("There was a problem moving indexes for compactor with file " + logFile.fileId, t);
-                     compactionRequest.completeExceptionally(t);
-                  } else {
-                     log.tracef("Compaction ended after index was updated for %s", scheduledFile);
-                     completeFuture(compactionRequest);
-                  }
-               });
+            if (!clearSignal.get()) {
+               // We delay the next operation until all prior moves are done. By moving it can trigger another
+               // compaction before the index has been fully updated. Thus we block any other compaction events
+               // until all entries have been moved for this file
+               indexUpdated = aggregateCompletionStage.freeze();
             } else {
-               log.tracef("Compaction ended synchronously for %s", scheduledFile);
-               completeFuture(compactionRequest);
+               log.tracef("Compaction ended early for %s due to pending clear signalled", scheduledFile);
+               indexUpdated = CompletableFutures.completedNull();
             }
+         }
+         statistics.compactedBytes.add(compactedBytes);
+
+         if (isLogFile) {
+            log.tracef("Finished expiring entries in log file %d, leaving file as is", scheduledFile);
          } else {
-            log.tracef("Compaction ended early for %s due to pending clear signalled", scheduledFile);
-            completeFuture(compactionRequest);
+            // The deletion must be executed only after the index is fully updated.
+            log.tracef("Finished compacting %d, scheduling delete", scheduledFile);
+            // Mark the file for deletion so expiration won't check it
+            Stats stats = fileStats.get(scheduledFile);
+            if (stats != null) {
+               stats.markForDeletion();
+            }
+            addFileDeletion(index.deleteFileAsync(scheduledFile));
+            statistics.reclaimedBytes.add(Math.max(fileSize - compactedBytes, 0));
+            statistics.compactedFiles.increment();
          }
-      }
 
-      if (isLogFile) {
-         log.tracef("Finished expiring entries in log file %d, leaving file as is", scheduledFile);
-      } else {
-         // The deletion must be executed only after the index is fully updated.
-         log.tracef("Finished compacting %d, scheduling delete", scheduledFile);
-         // Mark the file for deletion so expiration won't check it
-         Stats stats = fileStats.get(scheduledFile);
-         if (stats != null) {
-            stats.markForDeletion();
+         if (!CompletionStages.isCompletedSuccessfully(indexUpdated)) {
+            log.tracef("Compactor paused, waiting for previous index updates to complete");
+            // The worker is released only when the request completes, so it does not touch its state concurrently
+            indexUpdated.whenComplete((ignore, t) -> {
+               completeFilledFiles();
+               if (t != null) {
+                  log.error("There was a problem moving indexes for compactor with file " + scheduledFile, t);
+                  compactionRequest.completeExceptionally(t);
+               } else {
+                  log.tracef("Compaction ended after index was updated for %s", scheduledFile);
+                  completeFuture(compactionRequest);
+               }
+            });
+         } else {
+            log.tracef("Compaction ended synchronously for %s", scheduledFile);
+            completeFilledFiles();
+            completeFuture(compactionRequest);
          }
-         fileDeletionStage.dependsOn(index.deleteFileAsync(scheduledFile));
       }
    }
 
+   private record CompletedFile(int fileId, int size, long nextExpirationTime) { }
 
    static class Stats {
       private final AtomicInteger free;
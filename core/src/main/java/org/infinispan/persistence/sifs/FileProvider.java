@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -23,7 +24,9 @@
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
+import org.infinispan.commons.jdkspecific.MappedBuffers;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.ProgressTracker;
 import org.infinispan.persistence.sifs.pmem.PmemUtilWrapper;
@@ -31,6 +34,12 @@
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * When created with {@link MappedFileStatistics.Counters}, the open files are read through memory mappings instead of
+ * file channel reads. The mappings live as long as the file is open, so the amount of mapped memory is bounded by the
+ * open file limit. A mapping is unmapped as soon as it is replaced, when the file is remapped after growing or is
+ * truncated, and when the file is closed or deleted. The reads of a mapping hold a read lock of the file, so a mapping
+ * is never unmapped while it is read, and a truncated file is never read past its new end through a stale mapping.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -39,6 +48,8 @@ public class FileProvider {
 
    private static final String REGEX_FORMAT = "^%s[0-9]+$";
    private static final boolean ATTEMPT_PMEM;
+   // Minimum growth of a file before it is mapped again, so a file being written is not remapped on every read
+   private static final long MIN_REMAP_GROWTH = 1024 * 1024;
 
    private final File directoryFile;
    private final int openFileLimit;
@@ -51,6 +62,7 @@ public class FileProvider {
    private final String prefix;
    private final int maxFileSize;
    private final boolean isIndex;
+   private final MappedFileStatistics.Counters mappedStatistics;
 
    private boolean canTryPmem = true;
 
@@ -70,6 +82,15 @@ public class FileProvider {
 
    public FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize,
                        boolean isIndex) {
+      this(fileDirectory, openFileLimit, prefix, maxFileSize, isIndex, null);
+   }
+
+   /**
+    * @param mappedStatistics if not null, the files are read through memory mappings and the reads are recorded in it
+    */
+   FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize, boolean isIndex,
+                MappedFileStatistics.Counters mappedStatistics) {
+      this.mappedStatistics = mappedStatistics;
       this.openFileLimit = openFileLimit;
       this.recordQueue = new ArrayBlockingQueue<>(openFileLimit);
       this.directoryFile = fileDirectory.toFile();
@@ -418,7 +439,7 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         return record.read(buffer, offset);
       }
 
       @Override
@@ -439,7 +460,7 @@ public int getFileId() {
 
       public void truncate(long i) throws IOException {
          if (!usable) throw new IllegalStateException();
-         record.getFileChannel().truncate(i);
+         record.truncate(i);
       }
 
       public int write(ByteBuffer buffer, long l) throws IOException {
@@ -458,6 +479,10 @@ private class Record {
       private FileChannel fileChannel;
       private int handleCount;
       private boolean deleteOnClose = false;
+      private volatile MappedByteBuffer mapping;
+      // held for reading while a mapping is read and for writing while it is replaced and unmapped
+      private final StampedLock mappingLock = new StampedLock();
+      private boolean mappingFailed;
 
       private Record(FileChannel fileChannel, int fileId) {
          this.fileChannel = fileChannel;
@@ -468,6 +493,90 @@ FileChannel getFileChannel() {
          return fileChannel;
       }
 
+      int read(ByteBuffer buffer, long offset) throws IOException {
+         if (mappedStatistics != null) {
+            MappedByteBuffer mapped = mapping(offset + buffer.remaining());
+            if (mapped != null && offset < mapped.capacity()) {
+               long stamp = mappingLock.readLock();
+               try {
+                  // a replaced mapping may be unmapped or past the end of a truncated file
+                  if (mapped == mapping) {
+                     long start = mappedStatistics.time();
+                     int length = (int) Math.min(buffer.remaining(), mapped.capacity() - offset);
+                     buffer.put(mapped.slice((int) offset, length));
+                     mappedStatistics.mappedRead(start);
+                     return length;
+                  }
+               } finally {
+                  mappingLock.unlockRead(stamp);
+               }
+            }
+            mappedStatistics.channelReads.increment();
+         }
+         return fileChannel.read(buffer, offset);
+      }
+
+      private MappedByteBuffer mapping(long end) throws IOException {
+         MappedByteBuffer current = mapping;
+         if (current != null && end <= current.capacity()) {
+            return current;
+         }
+         // index files and the files still being written keep growing, checked before locking the record
+         boolean growing = isIndex || isLogFile(fileId);
+         synchronized (this) {
+            current = mapping;
+            if (mappingFailed || fileChannel == null || current != null && end <= current.capacity()) {
+               return current;
+            }
+            long size = fileChannel.size();
+            long mappedSize = current == null ? 0 : current.capacity();
+            if (size <= mappedSize || size > Integer.MAX_VALUE ||
+                  current != null && growing && size - mappedSize < Math.max(mappedSize >> 2, MIN_REMAP_GROWTH)) {
+               return current;
+            }
+            MappedByteBuffer mapped;
+            try {
+               mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } catch (IOException | UnsupportedOperationException e) {
+               log.debugf(e, "Cannot map file %s, reading it through the file channel", fileIdToString(fileId));
+               mappingFailed = true;
+               return current;
+            }
+            mappedStatistics.mappedBytes.add(size);
+            replaceMapping(mapped);
+            return mapped;
+         }
+      }
+
+      synchronized void truncate(long size) throws IOException {
+         MappedByteBuffer current = mapping;
+         if (current != null && size < current.capacity()) {
+            // reading the pages past the new end of the file would crash the JVM, the file cannot be remapped until it
+            // is truncated since remapping requires the record lock
+            replaceMapping(null);
+         }
+         fileChannel.truncate(size);
+      }
+
+      private void unmap() {
+         replaceMapping(null);
+      }
+
+      private void replaceMapping(MappedByteBuffer mapped) {
+         long stamp = mappingLock.writeLock();
+         try {
+            MappedByteBuffer current = mapping;
+            mapping = mapped;
+            if (current != null) {
+               // the readers check that the mapping is still current while holding the read lock
+               mappedStatistics.mappedBytes.add(-current.capacity());
+               MappedBuffers.unmap(current);
+            }
+         } finally {
+            mappingLock.unlockWrite(stamp);
+         }
+      }
+
       void increaseHandleCount() {
          handleCount++;
       }
@@ -477,6 +586,7 @@ void decreaseHandleCount() throws IOException {
          if (handleCount == 0 && deleteOnClose) {
             // we cannot easily remove the record from queue - keep it there until collection,
             // but physically close and delete the file
+            unmap();
             fileChannel.close();
             fileChannel = null;
             openFiles.remove(fileId, this);
@@ -497,6 +607,7 @@ public int getFileId() {
       }
 
       public void close() throws IOException {
+         unmap();
          fileChannel.close();
          fileChannel = null;
          if (deleteOnClose) {
@@ -512,6 +623,7 @@ public void delete() throws IOException {
 
       public void deleteOnClose() throws IOException {
          if (handleCount == 0) {
+            unmap();
             if (fileChannel != null) {
                fileChannel.close();
                fileChannel = null;
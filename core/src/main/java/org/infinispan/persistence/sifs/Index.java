@@ -1,7 +1,12 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -54,6 +59,7 @@ class Index {
    private static final Log log = Log.getLog(Index.class);
    private static final int GRACEFULLY = 0x512ACEF3;
    private static final int DIRTY = 0xD112770C;
+   private static final int FILTER_FILE_MAGIC = 0xB100F117;
    // magic(4) + segmentMax(4) + rootOffset(8) + rootOccupied(2) + freeBlocksOffset(8)
    private static final int INDEX_FILE_HEADER_SIZE = 26;
 
@@ -73,6 +79,9 @@ class Index {
    private final FlowableProcessor<IndexRequest>[] flowableProcessors;
    private final TimeService timeService;
    private final File indexSizeFile;
+   private final File filterFile;
+   // 0 if the segments don't keep a Bloom filter
+   private final double bloomFilterFalsePositiveRate;
    public final AtomicLongArray sizePerSegment;
 
    private final TemporaryTable temporaryTable;
@@ -95,7 +104,8 @@ class Index {
    public Index(NonBlockingManager nonBlockingManager, FileProvider dataFileProvider, Path indexDir, int cacheSegments,
                 int minNodeSize, int maxNodeSize, TemporaryTable temporaryTable, Compactor compactor,
                 TimeService timeService, Executor executor, int maxOpenFiles,
-                double compactionThreshold) throws IOException {
+                double compactionThreshold, MappedFileStatistics.Counters mappedStatistics,
+                double bloomFilterFalsePositiveRate) throws IOException {
       this.nonBlockingManager = nonBlockingManager;
       this.dataFileProvider = dataFileProvider;
       this.compactor = compactor;
@@ -104,8 +114,11 @@ public Index(NonBlockingManager nonBlockingManager, FileProvider dataFileProvide
       this.minNodeSize = minNodeSize;
       this.maxNodeSize = maxNodeSize;
       this.sizePerSegment = new AtomicLongArray(cacheSegments);
-      this.indexFileProvider = new FileProvider(indexDir, maxOpenFiles, "index.", Integer.MAX_VALUE, true);
+      this.indexFileProvider = new FileProvider(indexDir, maxOpenFiles, "index.", Integer.MAX_VALUE, true,
+            mappedStatistics);
       this.indexSizeFile = new File(indexDir.toFile(), "index-count");
+      this.filterFile = new File(indexDir.toFile(), "index.filter");
+      this.bloomFilterFalsePositiveRate = bloomFilterFalsePositiveRate;
 
       this.segments = new Segment[cacheSegments];
       this.flowableProcessors = new FlowableProcessor[cacheSegments];
@@ -205,6 +218,8 @@ static byte[] toIndexKey(byte[] bytes, int offset, int length) {
     */
    public boolean load() {
       boolean loaded = attemptLoad();
+      // The filters are only valid for the index they were written with
+      filterFile.delete();
 
       // If we failed to load any of the index we have to make sure to clear anything we may have loaded
       if (!loaded) {
@@ -251,6 +266,7 @@ private boolean attemptLoad() {
          for (Segment segment : segments) {
             if (!segment.load()) return false;
          }
+         loadFilters();
          return true;
       } catch (IOException e) {
          log.trace("Exception encountered while attempting to load index, assuming index is bad", e);
@@ -258,6 +274,60 @@ private boolean attemptLoad() {
       }
    }
 
+   /**
+    * Loads the Bloom filters persisted on the last graceful stop, rebuilding from the index the filters of the
+    * segments that were not persisted, that were written with a different false positive rate or that hold too many
+    * removed keys.
+    */
+   private void loadFilters() throws IOException {
+      if (bloomFilterFalsePositiveRate == 0) {
+         return;
+      }
+      boolean[] loaded = new boolean[segments.length];
+      if (filterFile.exists()) {
+         try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(filterFile)))) {
+            if (input.readInt() == FILTER_FILE_MAGIC && input.readInt() == segments.length) {
+               int id;
+               while ((id = input.readInt()) >= 0) {
+                  BloomFilter filter = BloomFilter.readFrom(input, bloomFilterFalsePositiveRate);
+                  if (filter != null && id < segments.length && segments[id] != null) {
+                     segments[id].filter = filter;
+                     loaded[id] = true;
+                  }
+               }
+            }
+         } catch (EOFException e) {
+            log.tracef("Bloom filter file is truncated, rebuilding the missing filters");
+         }
+      }
+      for (Segment segment : segments) {
+         if (segment != null) {
+            if (!loaded[segment.id]) {
+               segment.rebuildFilter();
+            } else {
+               segment.rebuildFilterIfStale();
+            }
+         }
+      }
+   }
+
+   private void writeFilters() throws IOException {
+      if (bloomFilterFalsePositiveRate == 0) {
+         return;
+      }
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filterFile)))) {
+         output.writeInt(FILTER_FILE_MAGIC);
+         output.writeInt(segments.length);
+         for (Segment segment : segments) {
+            if (segment != null && segment != emptySegment && segment.filter != null) {
+               output.writeInt(segment.id);
+               segment.filter.writeTo(output);
+            }
+         }
+         output.writeInt(-1);
+      }
+   }
+
    public void reset() throws IOException {
       for (Segment segment : segments) {
          segment.reset();
@@ -275,7 +345,11 @@ public EntryRecord getRecordEvenIfExpired(Object key, int cacheSegment, byte[] s
    private EntryRecord getRecord(int cacheSegment, byte[] indexKey, boolean checkExpiration) throws IOException {
       long stamp = lock.readLock();
       try {
-         IndexEntry entry = segments[cacheSegment].tree.get(indexKey);
+         Segment segment = segments[cacheSegment];
+         if (!segment.mightContain(indexKey)) {
+            return null;
+         }
+         IndexEntry entry = segment.tree.get(indexKey);
          if (entry == null) {
             log.tracef("No entry found in index for segment %d", cacheSegment);
             return null;
@@ -291,7 +365,11 @@ public EntryPosition getPosition(Object key, int cacheSegment, org.infinispan.co
       long stamp = lock.readLock();
       try {
          byte[] indexKey = toIndexKey(serializedKey);
-         IndexEntry entry = segments[cacheSegment].tree.get(indexKey);
+         Segment segment = segments[cacheSegment];
+         if (!segment.mightContain(indexKey)) {
+            return null;
+         }
+         IndexEntry entry = segment.tree.get(indexKey);
          if (entry == null) {
             log.tracef("No position found in index for key %s segment %d", key, cacheSegment);
             return null;
@@ -313,7 +391,8 @@ public EntryPosition getPosition(Object key, int cacheSegment, org.infinispan.co
    public EntryInfo getInfo(Object key, int cacheSegment, byte[] serializedKey) throws IOException {
       long stamp = lock.readLock();
       try {
-         return segments[cacheSegment].tree.get(serializedKey);
+         Segment segment = segments[cacheSegment];
+         return segment.mightContain(serializedKey) ? segment.tree.get(serializedKey) : null;
       } finally {
          lock.unlockRead(stamp);
       }
@@ -429,6 +508,8 @@ public CompletionStage<Void> stop(long maxSeqId) throws InterruptedException {
                UnsignedNumeric.writeUnsignedLong(indexCountStream, maxSeqId);
             }
 
+            writeFilters();
+
             ConcurrentMap<Integer, Compactor.Stats> map = compactor.getFileStats();
             File statsFile = new File(indexDir.toFile(), "index.stats");
 
@@ -785,6 +866,7 @@ public void truncate(long size) throws IOException {
 
    static class Segment extends CompletableFuture<Void> implements Consumer<IndexRequest>, Action {
       private static final short BLOCK_ALIGNMENT = 64;
+      private static final int STALE_FILTER_RATIO = 2;
 
       final Index index;
       private final TemporaryTable temporaryTable;
@@ -793,6 +875,10 @@ static class Segment extends CompletableFuture<Void> implements Consumer<IndexRe
       private final SoftBPlusTree.KeyLoader<IndexEntry> keyLoader;
 
       volatile SoftBPlusTree<IndexEntry> tree;
+      // Superset of the keys in the tree, keys are added before they are put in the tree
+      volatile BloomFilter filter;
+      // Whether keys were removed from the tree since the filter was last checked, only accessed by the index thread
+      private boolean keysDropped;
 
       private Segment(Index index, int id, TemporaryTable temporaryTable) {
          this.index = index;
@@ -802,6 +888,7 @@ private Segment(Index index, int id, TemporaryTable temporaryTable) {
          this.keyLoader = value -> (value).loadKey(index.dataFileProvider);
          this.tree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize, nodeStore,
                INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE);
+         resetFilter();
       }
 
       public int getId() {
@@ -862,6 +949,63 @@ void delete() {
 
       void reset() throws IOException {
          tree.clear();
+         resetFilter();
+      }
+
+      private void resetFilter() {
+         double falsePositiveRate = index.bloomFilterFalsePositiveRate;
+         filter = falsePositiveRate > 0 ? new BloomFilter(falsePositiveRate) : null;
+      }
+
+      /**
+       * Replaces the filter with one holding only the keys in the tree. Must be invoked by the thread updating the
+       * tree, the previous filter is used by the readers until the new one is complete.
+       */
+      void rebuildFilter() {
+         keysDropped = false;
+         double falsePositiveRate = index.bloomFilterFalsePositiveRate;
+         if (falsePositiveRate == 0) {
+            return;
+         }
+         BloomFilter rebuilt = new BloomFilter(falsePositiveRate);
+         CompletionStages.join(tree.<Void>publish((key, entry) -> {
+            rebuilt.add(key);
+            return null;
+         }, true).ignoreElements().toCompletionStage(null));
+         filter = rebuilt;
+      }
+
+      /**
+       * Rebuilds the filter when it holds more than {@link #STALE_FILTER_RATIO} times the live entries of the segment.
+       * The keys removed from the index stay in the filter, raising its false positive rate.
+       */
+      void rebuildFilterIfStale() {
+         keysDropped = false;
+         BloomFilter filter = this.filter;
+         if (filter == null) {
+            return;
+         }
+         long live = Math.max(index.sizePerSegment.get(id), BloomFilter.INITIAL_CAPACITY);
+         if (filter.keys() > STALE_FILTER_RATIO * live) {
+            log.tracef("Rebuilding Bloom filter of segment %d holding %d keys for %d live entries", id, filter.keys(),
+                  index.sizePerSegment.get(id));
+            rebuildFilter();
+         }
+      }
+
+      /**
+       * @return False if the key is definitely not in the index, true if it may be
+       */
+      boolean mightContain(byte[] indexKey) {
+         BloomFilter filter = this.filter;
+         return filter == null || filter.mightContain(indexKey);
+      }
+
+      private void addToFilter(byte[] indexKey) {
+         BloomFilter filter = this.filter;
+         if (filter != null) {
+            filter.add(indexKey);
+         }
       }
 
       @Override
@@ -871,10 +1015,15 @@ public void accept(IndexRequest request) throws Throwable {
          switch (request.getType()) {
             case CLEAR:
                tree.clear();
+               resetFilter();
                index.sizePerSegment.set(id, 0);
                index.nonBlockingManager.complete(request, null);
                return;
             case SYNC_REQUEST:
+               // The compactor sends sync requests once it moved or dropped all the entries of a file
+               if (keysDropped) {
+                  rebuildFilterIfStale();
+               }
                Runnable runnable = (Runnable) request.getKey();
                runnable.run();
                index.nonBlockingManager.complete(request, null);
@@ -918,6 +1067,7 @@ private void handleUpdate(IndexRequest request, int cacheSegment) throws IOExcep
                index.sizePerSegment.decrementAndGet(cacheSegment);
             }
          } else {
+            addToFilter(indexKey);
             tree.put(indexKey, new IndexEntry(file, offset, 1));
             index.nonBlockingManager.complete(request, false);
             if (offset >= 0) {
@@ -968,6 +1118,7 @@ private void handleDropped(IndexRequest request, int cacheSegment) throws IOExce
             tree.put(indexKey, new IndexEntry(existing.file, existing.offset, numRecords));
          } else {
             tree.remove(indexKey);
+            keysDropped = true;
             int oldTotalLength = loadTotalLength(existing);
             index.compactor.free(existing.file, oldTotalLength);
          }
@@ -986,6 +1137,7 @@ private void handleFoundOld(IndexRequest request, int cacheSegment) throws IOExc
             tree.put(indexKey, new IndexEntry(existing.file, existing.offset, existing.numRecords + 1));
             index.compactor.free(file, size);
          } else {
+            addToFilter(indexKey);
             tree.put(indexKey, new IndexEntry(file, request.getOffset(), 1));
          }
       }
@@ -107,4 +107,13 @@ static Log getLog(Class<?> clazz) {
 
    @Message(value = "Failed acquiring lock '%s' for SIFS", id = 29025)
    PersistenceException failedAcquiringLockFile(@Cause Throwable cause, FileSystemLock lock);
+
+   @Message(value = "Compaction parallelism must be at least 1, but was %d.", id = 29026)
+   CacheConfigurationException invalidCompactionParallelism(int value);
+
+   @Message(value = "Compaction rate limit must not be negative, but was %d.", id = 29027)
+   CacheConfigurationException invalidCompactionRateLimit(long value);
+
+   @Message(value = "Bloom filter false positive rate (%f) should be between 0 (inclusively) and 1 (exclusively).", id = 29028)
+   CacheConfigurationException invalidBloomFilterFalsePositiveRate(double value);
 }
@@ -306,6 +306,7 @@ public void accept(WriteOperation writeOperation) {
             }
          }
          currentOffset += actualLength;
+         compactor.recordAppendedBytes(actualLength);
       } catch (Exception e) {
          log.debugf("Exception encountered while processing log request %s", actualRequest);
          actualRequest.completeExceptionally(e);
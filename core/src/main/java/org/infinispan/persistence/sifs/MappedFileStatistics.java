@@ -0,0 +1,127 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Statistics about the memory mapped reads of the soft-index file store, used to size the mapped memory.
+ * <p>
+ * Page faults are not visible from Java, but a read from a mapping that is not in the page cache blocks on the fault,
+ * so the average mapped read time grows with the fault rate.
+ *
+ * @since 16.2
+ */
+@MBean(objectName = "SoftIndexFileStoreMemoryMapping", description = "Memory mapped reads of the soft-index file store")
+public class MappedFileStatistics {
+   final Counters data;
+   final Counters index;
+
+   public MappedFileStatistics(TimeService timeService) {
+      this.data = new Counters(timeService);
+      this.index = new Counters(timeService);
+   }
+
+   @ManagedAttribute(
+         description = "Bytes of the data files currently mapped in memory",
+         displayName = "Mapped data bytes",
+         units = Units.BYTES
+   )
+   public long getDataMappedBytes() {
+      return data.mappedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of reads served from data file mappings",
+         displayName = "Mapped data reads",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getDataMappedReads() {
+      return data.mappedReads.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of data file reads that went through the file channel, because the file or the region was not mapped",
+         displayName = "Channel data reads",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getDataChannelReads() {
+      return data.channelReads.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average time to read from a data file mapping, including the time spent on page faults",
+         displayName = "Average mapped data read time",
+         units = Units.NANOSECONDS
+   )
+   public long getDataAverageMappedReadTime() {
+      return data.averageMappedReadTime();
+   }
+
+   @ManagedAttribute(
+         description = "Bytes of the index files currently mapped in memory",
+         displayName = "Mapped index bytes",
+         units = Units.BYTES
+   )
+   public long getIndexMappedBytes() {
+      return index.mappedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of reads served from index file mappings",
+         displayName = "Mapped index reads",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getIndexMappedReads() {
+      return index.mappedReads.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of index file reads that went through the file channel, because the file or the region was not mapped",
+         displayName = "Channel index reads",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getIndexChannelReads() {
+      return index.channelReads.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average time to read from an index file mapping, including the time spent on page faults",
+         displayName = "Average mapped index read time",
+         units = Units.NANOSECONDS
+   )
+   public long getIndexAverageMappedReadTime() {
+      return index.averageMappedReadTime();
+   }
+
+   static final class Counters {
+      private final TimeService timeService;
+      final LongAdder mappedBytes = new LongAdder();
+      final LongAdder mappedReads = new LongAdder();
+      final LongAdder mappedReadNanos = new LongAdder();
+      final LongAdder channelReads = new LongAdder();
+
+      Counters(TimeService timeService) {
+         this.timeService = timeService;
+      }
+
+      long time() {
+         return timeService.time();
+      }
+
+      void mappedRead(long startNanos) {
+         mappedReadNanos.add(timeService.timeDuration(startNanos, TimeUnit.NANOSECONDS));
+         mappedReads.increment();
+      }
+
+      long averageMappedReadTime() {
+         long reads = mappedReads.sum();
+         return reads == 0 ? 0 : mappedReadNanos.sum() / reads;
+      }
+   }
+}
@@ -20,6 +20,8 @@
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
+import javax.management.ObjectName;
+
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBuffer;
@@ -42,6 +44,7 @@
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.jmx.CacheJmxRegistration;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
@@ -159,6 +162,9 @@
    private KeyPartitioner keyPartitioner;
    private InitializationContext ctx;
    private ProgressTracker progressTracker;
+   private MappedFileStatistics mappedFileStatistics;
+   private ObjectName mappedFileStatisticsName;
+   private ObjectName compactionStatisticsName;
    // This is only initialized when segmentation is disabled to both signal such and also to be used for multi segment operations
    private IntSet singleSegmentSet;
 
@@ -231,16 +237,28 @@ public CompletionStage<Void> start(InitializationContext ctx) {
          throw log.failedAcquiringLockFile(e, directoryLock);
       }
 
+      MappedFileStatistics.Counters dataMappedStatistics = null;
+      MappedFileStatistics.Counters indexMappedStatistics = null;
+      if (configuration.dataMemoryMapped() || configuration.indexMemoryMapped()) {
+         mappedFileStatistics = new MappedFileStatistics(timeService);
+         dataMappedStatistics = configuration.dataMemoryMapped() ? mappedFileStatistics.data : null;
+         indexMappedStatistics = configuration.indexMemoryMapped() ? mappedFileStatistics.index : null;
+         mappedFileStatisticsName = registerStatistics(mappedFileStatistics);
+      }
+
       fileProvider = new FileProvider(getDataLocation(), maxOpenDataFiles, PREFIX_LATEST,
-            configuration.maxFileSize(), false);
+            configuration.maxFileSize(), false, dataMappedStatistics);
       compactor = new Compactor(ctx.getNonBlockingManager(), fileProvider, temporaryTable, marshaller, timeService,
             keyPartitioner, configuration.maxFileSize(), configuration.compactionThreshold(),
-            blockingManager.asExecutor("sifs-compactor"));
+            blockingManager.asExecutor("sifs-compactor"), configuration.compactionParallelism(),
+            configuration.compactionRateLimit());
+      compactionStatisticsName = registerStatistics(compactor.getStatistics());
       try {
          index = new Index(ctx.getNonBlockingManager(), fileProvider, getIndexLocation(), cacheSegments,
                configuration.minNodeSize(), configuration.maxNodeSize(), temporaryTable, compactor,
                timeService, blockingManager.asExecutor("sifs-index"), maxOpenIndexFiles,
-               configuration.compactionThreshold());
+               configuration.compactionThreshold(), indexMappedStatistics,
+               configuration.bloomFilterFalsePositiveRate());
       } catch (IOException e) {
          throw log.cannotOpenIndex(configuration.indexLocation(), e);
       }
@@ -316,6 +334,28 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }, "soft-index-start");
    }
 
+   private ObjectName registerStatistics(Object statistics) {
+      CacheJmxRegistration jmxRegistration = ComponentRegistry.componentOf(ctx.getCache(), CacheJmxRegistration.class);
+      if (jmxRegistration != null && jmxRegistration.enabled()) {
+         try {
+            return jmxRegistration.registerExternalMBean(statistics, jmxRegistration.getGroupName());
+         } catch (Exception e) {
+            log.debugf(e, "Unable to register the statistics MBean %s", statistics);
+         }
+      }
+      return null;
+   }
+
+   private void unregisterStatistics(ObjectName objectName) {
+      if (objectName != null) {
+         try {
+            ComponentRegistry.componentOf(ctx.getCache(), CacheJmxRegistration.class).unregisterMBean(objectName);
+         } catch (Exception e) {
+            log.debugf(e, "Unable to unregister the statistics MBean %s", objectName);
+         }
+      }
+   }
+
    @Override
    public Publisher<MarshallableEntry<K, V>> purgeExpired() {
       return Flowable.defer(() -> {
@@ -528,6 +568,10 @@ public CompletionStage<Void> stop() {
             fileProvider.stop();
             fileProvider = null;
             temporaryTable = null;
+            unregisterStatistics(mappedFileStatisticsName);
+            mappedFileStatisticsName = null;
+            unregisterStatistics(compactionStatisticsName);
+            compactionStatisticsName = null;
             progressTracker.finishedAllTasks();
          } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
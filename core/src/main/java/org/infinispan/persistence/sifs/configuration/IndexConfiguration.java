@@ -13,9 +13,12 @@ public class IndexConfiguration extends ConfigurationElement<IndexConfiguration>
    public static final AttributeDefinition<Integer> INDEX_SEGMENTS = AttributeDefinition.builder(Attribute.SEGMENTS, 3).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MIN_NODE_SIZE = AttributeDefinition.builder(Attribute.MIN_NODE_SIZE, 0).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_NODE_SIZE = AttributeDefinition.builder(Attribute.MAX_NODE_SIZE, 4096).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Boolean> MEMORY_MAPPED = AttributeDefinition.builder(Attribute.MEMORY_MAPPED, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Double> BLOOM_FILTER_FALSE_POSITIVE_RATE = AttributeDefinition.builder(Attribute.BLOOM_FILTER_FALSE_POSITIVE_RATE, 0.01).immutable().autoPersist(false).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE);
+      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE, MEMORY_MAPPED,
+            BLOOM_FILTER_FALSE_POSITIVE_RATE);
    }
 
    public IndexConfiguration(AttributeSet attributes) {
@@ -49,4 +52,15 @@ public int maxNodeSize() {
    public int indexQueueLength() {
       return attributes.attribute(INDEX_QUEUE_LENGTH).get();
    }
+
+   public boolean memoryMapped() {
+      return attributes.attribute(MEMORY_MAPPED).get();
+   }
+
+   /**
+    * @return The false positive rate of the Bloom filter kept for each index segment, or 0 if there are no filters
+    */
+   public double bloomFilterFalsePositiveRate() {
+      return attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE).get();
+   }
 }
@@ -1,9 +1,11 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.BLOOM_FILTER_FALSE_POSITIVE_RATE;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_QUEUE_LENGTH;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_SEGMENTS;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MAX_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MEMORY_MAPPED;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MIN_NODE_SIZE;
 
 import org.infinispan.commons.configuration.Builder;
@@ -55,6 +57,16 @@ public IndexConfigurationBuilder indexQueueLength(int indexQueueLength) {
       return this;
    }
 
+   public IndexConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      attributes.attribute(MEMORY_MAPPED).set(memoryMapped);
+      return this;
+   }
+
+   public IndexConfigurationBuilder bloomFilterFalsePositiveRate(double falsePositiveRate) {
+      attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE).set(falsePositiveRate);
+      return this;
+   }
+
    @Override
    public IndexConfiguration create() {
       return new IndexConfiguration(attributes.protect());
@@ -75,6 +87,10 @@ public void validate() {
       } else if (minNodeSize < 0 || minNodeSize > maxNodeSize) {
          throw log.minNodeSizeMustBeLessOrEqualToMax(minNodeSize, maxNodeSize);
       }
+      double falsePositiveRate = attributes.attribute(BLOOM_FILTER_FALSE_POSITIVE_RATE).get();
+      if (falsePositiveRate < 0 || falsePositiveRate >= 1) {
+         throw log.invalidBloomFilterFalsePositiveRate(falsePositiveRate);
+      }
    }
 
    @Override
@@ -19,11 +19,14 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration<
 
    public static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder(Attribute.OPEN_FILES_LIMIT, 1000).immutable().build();
    public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder(Attribute.COMPACTION_THRESHOLD, 0.5d).immutable().build();
+   public static final AttributeDefinition<Integer> COMPACTION_PARALLELISM = AttributeDefinition.builder(Attribute.COMPACTION_PARALLELISM, 1).immutable().build();
+   public static final AttributeDefinition<Long> COMPACTION_RATE_LIMIT = AttributeDefinition.builder(Attribute.COMPACTION_RATE_LIMIT, 0L).immutable().build();
    private final IndexConfiguration index;
    private final DataConfiguration data;
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD,
+            COMPACTION_PARALLELISM, COMPACTION_RATE_LIMIT);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes,
@@ -71,6 +74,18 @@ public boolean syncWrites() {
       return data.syncWrites();
    }
 
+   public boolean dataMemoryMapped() {
+      return data.memoryMapped();
+   }
+
+   public boolean indexMemoryMapped() {
+      return index.memoryMapped();
+   }
+
+   public double bloomFilterFalsePositiveRate() {
+      return index.bloomFilterFalsePositiveRate();
+   }
+
    /**
     * The maximum number of files that will be open at a given time for all the data and index files, which does
     * not include compactor and current log file (which will always be 2).
@@ -89,6 +104,20 @@ public double compactionThreshold() {
       return attributes.attribute(COMPACTION_THRESHOLD).get();
    }
 
+   /**
+    * @return How many data files can be compacted at the same time
+    */
+   public int compactionParallelism() {
+      return attributes.attribute(COMPACTION_PARALLELISM).get();
+   }
+
+   /**
+    * @return The maximum number of bytes per second read and written by the compactor, or 0 if unlimited
+    */
+   public long compactionRateLimit() {
+      return attributes.attribute(COMPACTION_RATE_LIMIT).get();
+   }
+
    public IndexConfiguration index() {
       return index;
    }
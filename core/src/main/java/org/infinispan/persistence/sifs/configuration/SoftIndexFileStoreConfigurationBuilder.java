@@ -1,5 +1,7 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_PARALLELISM;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_RATE_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 
@@ -117,6 +119,40 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * Sets whether the data files are read through memory mappings instead of file channel reads. A file is mapped
+    * while it is open, so the mapped memory is bounded by {@link #openFilesLimit(int)} times {@link #maxFileSize(int)}.
+    * <p>
+    * Defaults to <code>false</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder dataMemoryMapped(boolean memoryMapped) {
+      data.memoryMapped(memoryMapped);
+      return this;
+   }
+
+   /**
+    * Sets whether the index files are read through memory mappings instead of file channel reads.
+    * <p>
+    * Defaults to <code>false</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder indexMemoryMapped(boolean memoryMapped) {
+      index.memoryMapped(memoryMapped);
+      return this;
+   }
+
+   /**
+    * Sets the false positive rate of the Bloom filter kept in memory for each index segment. Reads of keys that the
+    * filter reports as missing return without looking up the index. The filters grow with the number of keys, taking
+    * about 2 bytes per key with the default rate, and are persisted with the index on a graceful shutdown. Set to
+    * <code>0</code> to disable the filters.
+    * <p>
+    * Defaults to <code>0.01</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder bloomFilterFalsePositiveRate(double falsePositiveRate) {
+      index.bloomFilterFalsePositiveRate(falsePositiveRate);
+      return this;
+   }
+
    /**
     * Sets the maximum number of open files.
     * <p>
@@ -137,6 +173,27 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   /**
+    * Sets how many data files can be compacted at the same time. Each compaction writes to its own file.
+    * <p>
+    * Defaults to <code>1</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionParallelism(int compactionParallelism) {
+      attributes.attribute(COMPACTION_PARALLELISM).set(compactionParallelism);
+      return this;
+   }
+
+   /**
+    * Limits the bytes per second read and written by the compactor, so that compaction does not starve the writes
+    * of the cache for disk bandwidth.
+    * <p>
+    * Defaults to <code>0</code> (unlimited).
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionRateLimit(long bytesPerSecond) {
+      attributes.attribute(COMPACTION_RATE_LIMIT).set(bytesPerSecond);
+      return this;
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(), async.create(), index.create(), data.create());
@@ -163,6 +220,14 @@ public void validate() {
       if (compactionThreshold <= 0 || compactionThreshold > 1) {
          throw log.invalidCompactionThreshold(compactionThreshold);
       }
+      int compactionParallelism = attributes.attribute(COMPACTION_PARALLELISM).get();
+      if (compactionParallelism < 1) {
+         throw log.invalidCompactionParallelism(compactionParallelism);
+      }
+      long compactionRateLimit = attributes.attribute(COMPACTION_RATE_LIMIT).get();
+      if (compactionRateLimit < 0) {
+         throw log.invalidCompactionRateLimit(compactionRateLimit);
+      }
    }
 
    @Override
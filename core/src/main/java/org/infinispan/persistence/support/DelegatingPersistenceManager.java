@@ -79,6 +79,11 @@ public Flowable<MarshallableEntry<Object, Object>> preloadPublisher() {
       return persistenceManager.preloadPublisher();
    }
 
+   @Override
+   public Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments) {
+      return persistenceManager.preloadPublisher(segments);
+   }
+
    @Override
    public CompletionStage<Void> disableStore(String storeType) {
       return persistenceManager.disableStore(storeType);
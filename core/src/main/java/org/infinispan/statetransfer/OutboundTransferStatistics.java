@@ -0,0 +1,156 @@
+package org.infinispan.statetransfer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * Statistics about the state sent by a {@link StateProvider} to the other nodes.
+ * <p>
+ * The size of an entry is estimated from the length of its key and value when they are stored as bytes, with a fixed
+ * size for the other types. The throughput of a segment is measured from the moment its first chunk is sent until its
+ * last chunk is acknowledged, or until now while the segment is still being transferred.
+ *
+ * @since 16.2
+ */
+public class OutboundTransferStatistics {
+   // Estimated size of the entry metadata and of the keys and values that are not stored as bytes
+   static final int OBJECT_SIZE_ESTIMATE = 32;
+
+   private final TimeService timeService;
+   private final LongAdder entries = new LongAdder();
+   private final LongAdder bytes = new LongAdder();
+   private final LongAdder commands = new LongAdder();
+   private final LongAdder uncompressedBytes = new LongAdder();
+   private final LongAdder compressedBytes = new LongAdder();
+   private final AtomicInteger inFlightCommands = new AtomicInteger();
+   private final AtomicLongArray segmentBytes;
+   // 0 when the segment is not being transferred
+   private final AtomicLongArray segmentStartNanos;
+   private final AtomicLongArray segmentNanos;
+
+   public OutboundTransferStatistics(int segmentCount, TimeService timeService) {
+      this.timeService = timeService;
+      this.segmentBytes = new AtomicLongArray(segmentCount);
+      this.segmentStartNanos = new AtomicLongArray(segmentCount);
+      this.segmentNanos = new AtomicLongArray(segmentCount);
+   }
+
+   static long estimateSize(InternalCacheEntry<?, ?> entry) {
+      return estimateSize(entry.getKey()) + estimateSize(entry.getValue()) + OBJECT_SIZE_ESTIMATE;
+   }
+
+   private static long estimateSize(Object o) {
+      if (o instanceof byte[]) {
+         return ((byte[]) o).length;
+      } else if (o instanceof WrappedBytes) {
+         return ((WrappedBytes) o).getLength();
+      } else if (o instanceof String) {
+         return ((String) o).length();
+      }
+      return OBJECT_SIZE_ESTIMATE;
+   }
+
+   void chunkSent(int segment, int chunkEntries, long chunkBytes) {
+      if (segmentStartNanos.get(segment) == 0 && segmentStartNanos.compareAndSet(segment, 0, timeService.time())) {
+         // A new transfer of the segment
+         segmentBytes.set(segment, 0);
+      }
+      segmentBytes.addAndGet(segment, chunkBytes);
+      entries.add(chunkEntries);
+      bytes.add(chunkBytes);
+   }
+
+   void segmentCompleted(int segment) {
+      long start = segmentStartNanos.getAndSet(segment, 0);
+      if (start != 0) {
+         segmentNanos.set(segment, Math.max(1, timeService.time() - start));
+      }
+   }
+
+   void commandSent(int uncompressedLength, int compressedLength) {
+      commands.increment();
+      if (compressedLength >= 0) {
+         uncompressedBytes.add(uncompressedLength);
+         compressedBytes.add(compressedLength);
+      }
+      inFlightCommands.incrementAndGet();
+   }
+
+   void commandCompleted() {
+      inFlightCommands.decrementAndGet();
+   }
+
+   /**
+    * @return the number of entries sent to other nodes.
+    */
+   public long getEntries() {
+      return entries.sum();
+   }
+
+   /**
+    * @return the estimated size of the entries sent to other nodes, before compression.
+    */
+   public long getBytes() {
+      return bytes.sum();
+   }
+
+   /**
+    * @return the number of state transfer commands sent to other nodes.
+    */
+   public long getCommands() {
+      return commands.sum();
+   }
+
+   /**
+    * @return the number of state transfer commands waiting for an acknowledgement.
+    */
+   public int getInFlightCommands() {
+      return inFlightCommands.get();
+   }
+
+   /**
+    * @return the size of the marshalled chunks divided by the size of the compressed chunks, 0 if no chunk was
+    * compressed.
+    */
+   public double getCompressionRatio() {
+      long compressed = compressedBytes.sum();
+      return compressed == 0 ? 0 : (double) uncompressedBytes.sum() / compressed;
+   }
+
+   /**
+    * @return the estimated bytes per second sent for the segment during its last transfer, 0 if the segment was
+    * never sent.
+    */
+   public double getSegmentThroughput(int segment) {
+      long nanos;
+      long start = segmentStartNanos.get(segment);
+      if (start != 0) {
+         nanos = Math.max(1, timeService.time() - start);
+      } else {
+         nanos = segmentNanos.get(segment);
+      }
+      return nanos == 0 ? 0 : segmentBytes.get(segment) * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+   }
+
+   /**
+    * @return the average of the throughput of the segments sent to other nodes, in bytes per second.
+    */
+   public double getAverageSegmentThroughput() {
+      double total = 0;
+      int count = 0;
+      for (int i = 0; i < segmentNanos.length(); i++) {
+         double throughput = getSegmentThroughput(i);
+         if (throughput > 0) {
+            total += throughput;
+            count++;
+         }
+      }
+      return count == 0 ? 0 : total / count;
+   }
+}
@@ -1,10 +1,13 @@
 package org.infinispan.statetransfer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -12,10 +15,13 @@
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commons.IllegalLifecycleStateException;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.time.DefaultTimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.marshall.protostream.impl.MarshallableCollection;
 import org.infinispan.reactive.publisher.impl.SegmentPublisherSupplier;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -23,6 +29,7 @@
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.impl.SingleResponseCollector;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
+import org.infinispan.util.LZ4BlockCodec;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -33,6 +40,12 @@
  * Outbound state transfer task. Pushes data segments to another cluster member on request. Instances of
  * OutboundTransferTask are created and managed by StateTransferManagerImpl. There should be at most
  * one such task per destination at any time.
+ * <p>
+ * The entries are sent in batches limited by a number of entries and, optionally, by their estimated size in bytes. Up
+ * to {@code maxInFlightChunks} batches can wait for an acknowledgement at the same time, except that the batch with the
+ * last chunk of a segment waits for all the previous batches, so the destination receives the last chunk of a segment
+ * after all the other chunks of the segment. When a marshaller is provided, the batches are marshalled and compressed
+ * before they are sent.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -51,6 +64,10 @@ public class OutboundTransferTask {
 
    private final int chunkSize;
 
+   private final int chunkBytes;
+
+   private final int maxInFlightChunks;
+
    private final RpcManager rpcManager;
 
    private final CommandsFactory commandsFactory;
@@ -63,11 +80,35 @@ public class OutboundTransferTask {
 
    private final RpcOptions rpcOptions;
 
+   private final Marshaller compressionMarshaller;
+
+   private final OutboundTransferStatistics statistics;
+
+   // The batches waiting for an acknowledgement, only modified by the sequential batch sending stage
+   private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+
    private volatile boolean cancelled;
 
    public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int topologyId,
                                Consumer<Collection<StateChunk>> onChunkReplicated, RpcManager rpcManager,
                                CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState) {
+      this(destination, segments, segmentCount, chunkSize, 0, 1, topologyId, onChunkReplicated, rpcManager,
+           commandsFactory, null, new OutboundTransferStatistics(segmentCount, DefaultTimeService.INSTANCE), timeout,
+           cacheName, applyState);
+   }
+
+   /**
+    * @param chunkBytes the maximum estimated size of the entries in a batch, or {@code 0} to only limit the number of
+    *                   entries
+    * @param maxInFlightChunks the maximum number of batches waiting for an acknowledgement
+    * @param compressionMarshaller the marshaller used to marshall the batches before they are compressed, or
+    *                              {@code null} to send the batches uncompressed
+    */
+   public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int chunkBytes,
+                               int maxInFlightChunks, int topologyId, Consumer<Collection<StateChunk>> onChunkReplicated,
+                               RpcManager rpcManager, CommandsFactory commandsFactory, Marshaller compressionMarshaller,
+                               OutboundTransferStatistics statistics, long timeout, String cacheName,
+                               boolean applyState) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -77,16 +118,26 @@ public OutboundTransferTask(Address destination, IntSet segments, int segmentCou
       if (chunkSize <= 0) {
          throw new IllegalArgumentException("chunkSize must be greater than 0");
       }
+      if (chunkBytes < 0) {
+         throw new IllegalArgumentException("chunkBytes cannot be negative");
+      }
+      if (maxInFlightChunks <= 0) {
+         throw new IllegalArgumentException("maxInFlightChunks must be greater than 0");
+      }
       this.onChunkReplicated = onChunkReplicated;
       this.destination = destination;
       this.segments = IntSets.concurrentCopyFrom(segments, segmentCount);
       this.chunkSize = chunkSize;
+      this.chunkBytes = chunkBytes;
+      this.maxInFlightChunks = maxInFlightChunks;
       this.topologyId = topologyId;
       this.rpcManager = rpcManager;
       this.commandsFactory = commandsFactory;
       this.timeout = timeout;
       this.cacheName = cacheName;
       this.applyState = applyState;
+      this.compressionMarshaller = compressionMarshaller;
+      this.statistics = statistics;
 
       this.rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
    }
@@ -111,8 +162,14 @@ public int getTopologyId() {
     * @param notifications a {@code Flowable} with all the entries that need to be sent
     */
    public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> notifications) {
-      return notifications
-            .buffer(chunkSize)
+      Flowable<List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>>> batches = chunkBytes > 0
+            ? Flowable.defer(() -> {
+               SizeBoundedBuffer buffer = new SizeBoundedBuffer();
+               return notifications.concatMapIterable(buffer::add)
+                     .concatWith(Flowable.defer(() -> Flowable.fromIterable(buffer.flush())));
+            })
+            : notifications.buffer(chunkSize);
+      return batches
             .takeUntil(batch -> cancelled)
             // Here we receive a batch of notifications, a list with size up to chunkSize.
             // Although the notification list has the chunkSize the list contains not only data segments.
@@ -137,25 +194,93 @@ public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notificat
                   }
                }
 
-               return Completable.fromCompletionStage(sendChunks(chunks));
+               return Completable.fromCompletionStage(sendPipelined(chunks));
             }, 1)
+            .andThen(Completable.defer(() -> Completable.fromCompletionStage(allInFlight())))
             .toCompletionStage(null);
    }
 
-   private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks) {
+   /**
+    * Sends the chunks without waiting for the acknowledgement if there are less than {@code maxInFlightChunks} batches
+    * in flight.
+    *
+    * @return a stage that completes when the next batch can be sent.
+    */
+   private CompletionStage<Void> sendPipelined(Map<Integer, StateChunk> chunks) {
       if (chunks.isEmpty())
          return CompletableFutures.completedNull();
 
+      inFlight.removeIf(CompletableFuture::isDone);
+      boolean containsLastChunk = false;
+      for (StateChunk chunk : chunks.values()) {
+         containsLastChunk |= chunk.isLastChunk();
+      }
+      if (containsLastChunk && !inFlight.isEmpty()) {
+         // The last chunk of a segment must be received after the other chunks of the segment
+         return allInFlight().thenCompose(ignored -> sendPipelined(chunks));
+      }
+      CompletableFuture<Void> sent = sendChunks(chunks).toCompletableFuture();
+      if (sent.isDone())
+         return sent;
+
+      inFlight.add(sent);
+      if (inFlight.size() < maxInFlightChunks)
+         return CompletableFutures.completedNull();
+
+      return CompletableFuture.anyOf(inFlight.toArray(new CompletableFuture[0])).thenApply(CompletableFutures.toNullFunction());
+   }
+
+   private CompletionStage<Void> allInFlight() {
+      if (inFlight.isEmpty())
+         return CompletableFutures.completedNull();
+
+      CompletableFuture<Void> all = CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]));
+      inFlight.clear();
+      return all;
+   }
+
+   private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks) {
       if (log.isTraceEnabled()) {
          long entriesSize = chunks.values().stream().mapToInt(v -> v.getCacheEntries().size()).sum();
          log.tracef("Sending to node %s %d cache entries from segments %s", destination, entriesSize, chunks.keySet());
       }
 
-      StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(topologyId, chunks.values(), applyState);
+      StateResponseCommand cmd;
+      int uncompressedLength = -1;
+      int compressedLength = -1;
+      if (compressionMarshaller != null) {
+         try {
+            byte[] bytes = compressionMarshaller.objectToByteBuffer(MarshallableCollection.create(chunks.values()));
+            byte[] compressed = LZ4BlockCodec.compress(bytes);
+            cmd = commandsFactory.buildStateResponseCommand(topologyId, compressed, bytes.length, applyState);
+            uncompressedLength = bytes.length;
+            compressedLength = compressed.length;
+         } catch (Exception e) {
+            logSendException(e);
+            cancel();
+            return CompletableFutures.completedNull();
+         }
+      } else {
+         cmd = commandsFactory.buildStateResponseCommand(topologyId, chunks.values(), applyState);
+      }
+      for (StateChunk chunk : chunks.values()) {
+         long chunkBytes = 0;
+         for (InternalCacheEntry<?, ?> entry : chunk.getCacheEntries()) {
+            chunkBytes += OutboundTransferStatistics.estimateSize(entry);
+         }
+         statistics.chunkSent(chunk.getSegmentId(), chunk.getCacheEntries().size(), chunkBytes);
+      }
+      statistics.commandSent(uncompressedLength, compressedLength);
       try {
          return rpcManager.invokeCommand(destination, cmd, SingleResponseCollector.validOnly(), rpcOptions)
                           .handle((response, throwable) -> {
+                             statistics.commandCompleted();
                              if (throwable == null) {
+                                for (StateChunk chunk : chunks.values()) {
+                                   if (chunk.isLastChunk()) {
+                                      statistics.segmentCompleted(chunk.getSegmentId());
+                                   }
+                                }
                                 onChunkReplicated.accept(chunks.values());
                                 return null;
                              }
@@ -166,8 +291,10 @@ private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks) {
                           });
       } catch (IllegalLifecycleStateException e) {
          // Manager is shutting down, ignore the error
+         statistics.commandCompleted();
          cancel();
       } catch (Exception e) {
+         statistics.commandCompleted();
          logSendException(e);
          cancel();
       }
@@ -224,8 +351,51 @@ public String toString() {
             ", destination=" + destination +
             ", segments=" + segments +
             ", chunkSize=" + chunkSize +
+            ", chunkBytes=" + chunkBytes +
+            ", maxInFlightChunks=" + maxInFlightChunks +
             ", timeout=" + timeout +
             ", cacheName='" + cacheName + '\'' +
             '}';
    }
+
+   /**
+    * Splits the notifications in batches of at most {@code chunkSize} entries and {@code chunkBytes} estimated bytes.
+    * A batch contains at least one entry, even if the entry is larger than {@code chunkBytes}.
+    */
+   private class SizeBoundedBuffer {
+      private List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> batch = new ArrayList<>();
+      private int entries;
+      private long bytes;
+
+      List<List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>>> add(
+            SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>> notification) {
+         if (!notification.isValue()) {
+            batch.add(notification);
+            return Collections.emptyList();
+         }
+         long size = OutboundTransferStatistics.estimateSize(notification.value());
+         List<List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>>> full = Collections.emptyList();
+         if (entries > 0 && bytes + size > chunkBytes) {
+            full = flush();
+         }
+         batch.add(notification);
+         entries++;
+         bytes += size;
+         if (entries >= chunkSize || bytes >= chunkBytes) {
+            full = full.isEmpty() ? flush() : Arrays.asList(full.get(0), flush().get(0));
+         }
+         return full;
+      }
+
+      List<List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>>> flush() {
+         if (batch.isEmpty())
+            return Collections.emptyList();
+
+         List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> full = batch;
+         batch = new ArrayList<>();
+         entries = 0;
+         bytes = 0;
+         return Collections.singletonList(full);
+      }
+   }
 }
@@ -24,6 +24,11 @@ public interface StateProvider {
 
    boolean isStateTransferInProgress();
 
+   /**
+    * @return statistics about the state sent to other nodes.
+    */
+   OutboundTransferStatistics getOutboundTransferStatistics();
+
    /**
     * Receive notification of topology changes. Cancels all outbound transfers to destinations that are no longer members.
     * The other outbound transfers remain unaffected.
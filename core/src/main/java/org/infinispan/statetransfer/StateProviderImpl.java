@@ -19,11 +19,14 @@
 import java.util.function.Function;
 
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StateTransferCompression;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.impl.InternalEntryFactory;
@@ -47,6 +50,7 @@
 import org.infinispan.reactive.publisher.impl.SegmentPublisherSupplier;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.NodeVersion;
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.transaction.impl.LocalTransaction;
 import org.infinispan.transaction.impl.TransactionOriginatorChecker;
@@ -68,6 +72,8 @@
 public class StateProviderImpl implements StateProvider {
 
    private static final Log log = LogFactory.getLog(StateProviderImpl.class);
+   // The first version reading the compressed chunks of a StateResponseCommand
+   private static final NodeVersion COMPRESSED_CHUNKS_VERSION = NodeVersion.from((byte) 16, (byte) 2, (byte) 0);
 
    @ComponentName(KnownComponentNames.CACHE_NAME)
    @Inject protected String cacheName;
@@ -87,9 +93,16 @@ public class StateProviderImpl implements StateProvider {
    @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
    @Inject ScheduledExecutorService timeoutExecutor;
    @Inject StateTransferTracker stateTracker;
+   @Inject TimeService timeService;
+   @Inject @ComponentName(KnownComponentNames.INTERNAL_MARSHALLER)
+   Marshaller internalMarshaller;
 
    protected long timeout;
    protected int chunkSize;
+   protected int chunkBytes;
+   protected int maxInFlightChunks;
+   protected boolean compressChunks;
+   protected OutboundTransferStatistics statistics;
 
    /**
     * A map that keeps track of current outbound state transfers by destination address. There could be multiple transfers
@@ -108,6 +121,11 @@ public class StateProviderImpl implements StateProvider {
    public StateProviderImpl() {
    }
 
+   @Override
+   public OutboundTransferStatistics getOutboundTransferStatistics() {
+      return statistics;
+   }
+
    public boolean isStateTransferInProgress() {
       synchronized (transfersByDestination) {
          return !transfersByDestination.isEmpty();
@@ -145,6 +163,10 @@ public CompletableFuture<Void> onTopologyUpdate(CacheTopology cacheTopology, boo
    public void start() {
       timeout = configuration.clustering().stateTransfer().timeout();
       chunkSize = configuration.clustering().stateTransfer().chunkSize();
+      chunkBytes = configuration.clustering().stateTransfer().chunkBytes();
+      maxInFlightChunks = configuration.clustering().stateTransfer().maxInFlightChunks();
+      compressChunks = configuration.clustering().stateTransfer().compression() == StateTransferCompression.LZ4;
+      statistics = new OutboundTransferStatistics(configuration.clustering().hash().numSegments(), timeService);
    }
 
    @Stop
@@ -287,6 +309,23 @@ private void collectTransactionsToTransfer(Address destination,
       }
    }
 
+   /**
+    * The nodes before 16.2 ignore the compressed chunks of a
+    * {@link org.infinispan.commands.statetransfer.StateResponseCommand}, so the chunks are only
+    * compressed when all the members can read them.
+    */
+   boolean compressChunks() {
+      if (!compressChunks) {
+         return false;
+      }
+      if (rpcManager.getTransport().getOldestMember().compareTo(COMPRESSED_CHUNKS_VERSION) < 0) {
+         log.tracef("Not compressing the state chunks of cache %s as a version before %s was encountered", cacheName,
+                    COMPRESSED_CHUNKS_VERSION);
+         return false;
+      }
+      return true;
+   }
+
    @Override
    public void startOutboundTransfer(Address destination, int requestTopologyId, IntSet segments, boolean applyState) {
       if (log.isTraceEnabled()) {
@@ -297,8 +336,9 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, In
       // the destination node must already have an InboundTransferTask waiting for these segments
       OutboundTransferTask outboundTransfer =
          new OutboundTransferTask(destination, segments, this.configuration.clustering().hash().numSegments(),
-                                  chunkSize, requestTopologyId, chunks -> {}, rpcManager,
-                                  commandsFactory, timeout, cacheName, applyState);
+                                  chunkSize, chunkBytes, maxInFlightChunks, requestTopologyId, chunks -> {}, rpcManager,
+                                  commandsFactory, compressChunks() ? internalMarshaller : null, statistics, timeout,
+                                  cacheName, applyState);
       addTransfer(outboundTransfer);
       outboundTransfer.execute(readEntries(segments))
                       .whenComplete((ignored, throwable) -> {
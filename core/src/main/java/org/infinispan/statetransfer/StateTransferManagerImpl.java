@@ -34,6 +34,10 @@
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Parameter;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.partitionhandling.AvailabilityMode;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
@@ -316,6 +320,38 @@ public long getInflightTransactionalSegmentCount() {
       return stateConsumer.inflightTransactionSegmentCount();
    }
 
+   @ManagedAttribute(description = "The number of entries sent to other nodes", displayName = "Sent entries", measurementType = MeasurementType.TRENDSUP)
+   public long getOutboundTransferEntries() {
+      return stateProvider.getOutboundTransferStatistics().getEntries();
+   }
+
+   @ManagedAttribute(description = "The estimated size of the entries sent to other nodes", displayName = "Sent bytes", units = Units.BYTES, measurementType = MeasurementType.TRENDSUP)
+   public long getOutboundTransferBytes() {
+      return stateProvider.getOutboundTransferStatistics().getBytes();
+   }
+
+   @ManagedAttribute(description = "The number of state transfer commands sent to other nodes and waiting for an acknowledgement", displayName = "In-flight state transfer commands", dataType = DataType.MEASUREMENT)
+   public int getInflightOutboundTransferCommands() {
+      return stateProvider.getOutboundTransferStatistics().getInFlightCommands();
+   }
+
+   @ManagedAttribute(description = "The size of the marshalled state chunks divided by their compressed size, 0 if the chunks are not compressed", displayName = "State transfer compression ratio")
+   public double getOutboundTransferCompressionRatio() {
+      return stateProvider.getOutboundTransferStatistics().getCompressionRatio();
+   }
+
+   @ManagedAttribute(description = "The average estimated throughput of the segments sent to other nodes", displayName = "Average segment transfer throughput", units = Units.PER_SECOND)
+   public double getAverageSegmentTransferThroughput() {
+      return stateProvider.getOutboundTransferStatistics().getAverageSegmentThroughput();
+   }
+
+   @ManagedOperation(description = "Returns the estimated bytes per second sent for a segment during its last transfer to another node",
+         displayName = "Segment transfer throughput",
+         name = "SegmentTransferThroughput")
+   public double getSegmentTransferThroughput(@Parameter(name = "segment", description = "The segment") int segment) {
+      return stateProvider.getOutboundTransferStatistics().getSegmentThroughput(segment);
+   }
+
    @Override
    public StateConsumer getStateConsumer() {
       return stateConsumer;
@@ -22,6 +22,7 @@ default Json toJson() {
             .set("current_number_of_entries", getCurrentNumberOfEntries())
             .set("current_number_of_entries_in_memory", getCurrentNumberOfEntriesInMemory())
             .set("off_heap_memory_used", getOffHeapMemoryUsed())
+            .set("off_heap_memory_in_use", getOffHeapMemoryInUse())
             .set("data_memory_used", getDataMemoryUsed())
             .set("stores", getStores())
             .set("retrievals", getRetrievals())
@@ -98,6 +99,14 @@ default Json toJson() {
     */
    long getOffHeapMemoryUsed();
 
+   /**
+    * The amount of off-heap memory held by the entries of this cache, or -1 if the cache stores data in the heap. It is
+    * lower than {@link #getOffHeapMemoryUsed()} when the allocator keeps free memory for the next allocations.
+    */
+   default long getOffHeapMemoryInUse() {
+      return getOffHeapMemoryUsed();
+   }
+
    /**
     * Provides how much memory the current eviction algorithm estimates is in use for data. This method will return a
     * number 0 or greater if memory eviction is in use. If memory eviction is not enabled this method will always return -1.
@@ -25,6 +25,7 @@ final class StatKeys {
    static final String APPROXIMATE_ENTRIES_UNIQUE = "approximateEntriesUnique";
    static final String DATA_MEMORY_USED = "dataMemoryUsed";
    static final String OFF_HEAP_MEMORY_USED = "offHeapMemoryUsed";
+   static final String OFF_HEAP_MEMORY_IN_USE = "offHeapMemoryInUse";
    static final String RETRIEVALS = "retrievals";
    static final String STORES = "stores";
    static final String REQUIRED_MIN_NODES = "minRequiredNodes";
@@ -355,6 +355,15 @@ public long getOffHeapMemoryUsed() {
       return allocator.getAllocatedAmount();
    }
 
+   @ManagedAttribute(
+         description = "Amount of off-heap memory held by the entries of this cache (bytes)",
+         displayName = "Off-Heap memory in use"
+   )
+   @Override
+   public long getOffHeapMemoryInUse() {
+      return allocator.getUsedAmount();
+   }
+
    @ManagedOperation(
          description = "Resets statistics gathered by this component",
          displayName = "Reset Statistics (Statistics)"
@@ -15,6 +15,7 @@
 import static org.infinispan.stats.impl.StatKeys.MISSES;
 import static org.infinispan.stats.impl.StatKeys.NUMBER_OF_ENTRIES;
 import static org.infinispan.stats.impl.StatKeys.NUMBER_OF_ENTRIES_IN_MEMORY;
+import static org.infinispan.stats.impl.StatKeys.OFF_HEAP_MEMORY_IN_USE;
 import static org.infinispan.stats.impl.StatKeys.OFF_HEAP_MEMORY_USED;
 import static org.infinispan.stats.impl.StatKeys.REMOVE_HITS;
 import static org.infinispan.stats.impl.StatKeys.REMOVE_MISSES;
@@ -45,8 +46,8 @@ public class StatsImpl implements Stats {
 
    private static final String[] ATTRIBUTES = {
          TIME_SINCE_RESET, TIME_SINCE_START, NUMBER_OF_ENTRIES, NUMBER_OF_ENTRIES_IN_MEMORY, OFF_HEAP_MEMORY_USED,
-         DATA_MEMORY_USED, RETRIEVALS, STORES, HITS, MISSES, REMOVE_HITS, REMOVE_MISSES, EVICTIONS,
-         AVERAGE_READ_TIME, AVERAGE_REMOVE_TIME, AVERAGE_WRITE_TIME, AVERAGE_READ_TIME_NANOS,
+         OFF_HEAP_MEMORY_IN_USE, DATA_MEMORY_USED, RETRIEVALS, STORES, HITS, MISSES, REMOVE_HITS, REMOVE_MISSES,
+         EVICTIONS, AVERAGE_READ_TIME, AVERAGE_REMOVE_TIME, AVERAGE_WRITE_TIME, AVERAGE_READ_TIME_NANOS,
          AVERAGE_REMOVE_TIME_NANOS, AVERAGE_WRITE_TIME_NANOS, REQUIRED_MIN_NODES,
          APPROXIMATE_ENTRIES, APPROXIMATE_ENTRIES_IN_MEMORY, APPROXIMATE_ENTRIES_UNIQUE};
 
@@ -104,6 +105,7 @@ private StatsImpl(CacheMgmtInterceptor mgmtInterceptor) {
          statsMap.put(NUMBER_OF_ENTRIES_IN_MEMORY, (long) mgmtInterceptor.getNumberOfEntriesInMemory());
          statsMap.put(DATA_MEMORY_USED, mgmtInterceptor.getDataMemoryUsed());
          statsMap.put(OFF_HEAP_MEMORY_USED, mgmtInterceptor.getOffHeapMemoryUsed());
+         statsMap.put(OFF_HEAP_MEMORY_IN_USE, mgmtInterceptor.getOffHeapMemoryInUse());
          statsMap.put(RETRIEVALS, mgmtInterceptor.getHits() + mgmtInterceptor.getMisses());
          statsMap.put(STORES, mgmtInterceptor.getStores());
          statsMap.put(HITS, mgmtInterceptor.getHits());
@@ -136,6 +138,7 @@ private StatsImpl(Stats other) {
       statsMap.put(NUMBER_OF_ENTRIES_IN_MEMORY, (long) other.getCurrentNumberOfEntriesInMemory());
       statsMap.put(DATA_MEMORY_USED, other.getDataMemoryUsed());
       statsMap.put(OFF_HEAP_MEMORY_USED, other.getOffHeapMemoryUsed());
+      statsMap.put(OFF_HEAP_MEMORY_IN_USE, other.getOffHeapMemoryInUse());
       statsMap.put(RETRIEVALS, other.getHits() + other.getMisses());
       statsMap.put(STORES, other.getStores());
       statsMap.put(HITS, other.getHits());
@@ -202,6 +205,11 @@ public long getOffHeapMemoryUsed() {
       return statsMap.get(OFF_HEAP_MEMORY_USED);
    }
 
+   @Override
+   public long getOffHeapMemoryInUse() {
+      return statsMap.get(OFF_HEAP_MEMORY_IN_USE);
+   }
+
    @Override
    public long getRetrievals() {
       return statsMap.get(RETRIEVALS);
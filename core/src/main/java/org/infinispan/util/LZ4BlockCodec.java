@@ -0,0 +1,192 @@
+package org.infinispan.util;
+
+import java.util.Arrays;
+
+/**
+ * Compresses and decompresses byte arrays with the LZ4 block format.
+ * <p>
+ * The compressed block does not contain the length of the uncompressed data, the caller must store it and pass it to
+ * {@link #decompress(byte[], int)}. The compressor uses a single hash table lookup per position and skips faster over
+ * data that does not compress, trading some compression ratio for speed.
+ *
+ * @since 16.2
+ */
+public final class LZ4BlockCodec {
+   private static final int MIN_MATCH = 4;
+   // The last 5 bytes of the block are always literals
+   private static final int LAST_LITERALS = 5;
+   // The last match must start at least 12 bytes before the end of the block
+   private static final int MF_LIMIT = 12;
+   private static final int MAX_OFFSET = 65535;
+   private static final int HASH_LOG = 12;
+   private static final int SKIP_TRIGGER = 6;
+   private static final int RUN_MASK = 15;
+
+   private LZ4BlockCodec() {
+   }
+
+   /**
+    * @return the maximum size of the compressed block for {@code length} bytes of input.
+    */
+   public static int maxCompressedLength(int length) {
+      return length + length / 255 + 16;
+   }
+
+   public static byte[] compress(byte[] src) {
+      return compress(src, 0, src.length);
+   }
+
+   public static byte[] compress(byte[] src, int offset, int length) {
+      byte[] dst = new byte[maxCompressedLength(length)];
+      int end = offset + length;
+      int anchor = offset;
+      int dp = 0;
+      if (length > MF_LIMIT) {
+         int[] table = new int[1 << HASH_LOG];
+         Arrays.fill(table, -1);
+         int matchLimit = end - LAST_LITERALS;
+         int mfLimit = end - MF_LIMIT;
+         int sp = offset;
+         // The step grows by 1 after every 64 failed attempts to find a match
+         int attempts = 1 << SKIP_TRIGGER;
+         while (sp < mfLimit) {
+            int sequence = readInt(src, sp);
+            int h = hash(sequence);
+            int ref = table[h];
+            table[h] = sp;
+            if (ref < 0 || sp - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+               sp += attempts++ >>> SKIP_TRIGGER;
+               continue;
+            }
+            while (sp > anchor && ref > offset && src[sp - 1] == src[ref - 1]) {
+               sp--;
+               ref--;
+            }
+            int matchLength = MIN_MATCH;
+            while (sp + matchLength < matchLimit && src[sp + matchLength] == src[ref + matchLength]) {
+               matchLength++;
+            }
+            dp = writeSequence(src, anchor, sp - anchor, sp - ref, matchLength, dst, dp);
+            sp += matchLength;
+            anchor = sp;
+            attempts = 1 << SKIP_TRIGGER;
+            if (sp < mfLimit) {
+               table[hash(readInt(src, sp - 2))] = sp - 2;
+            }
+         }
+      }
+      dp = writeLastLiterals(src, anchor, end - anchor, dst, dp);
+      return Arrays.copyOf(dst, dp);
+   }
+
+   /**
+    * Decompresses a block created by {@link #compress(byte[])}.
+    *
+    * @param src the compressed block
+    * @param length the length of the uncompressed data
+    * @throws IllegalArgumentException if the block is malformed
+    */
+   public static byte[] decompress(byte[] src, int length) {
+      byte[] dst = new byte[length];
+      int sp = 0;
+      int dp = 0;
+      try {
+         while (sp < src.length) {
+            int token = src[sp++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+               int b;
+               do {
+                  b = src[sp++] & 0xFF;
+                  literalLength += b;
+               } while (b == 255);
+            }
+            System.arraycopy(src, sp, dst, dp, literalLength);
+            sp += literalLength;
+            dp += literalLength;
+            if (sp == src.length) {
+               // The last sequence only has literals
+               break;
+            }
+            int matchOffset = (src[sp++] & 0xFF) | (src[sp++] & 0xFF) << 8;
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+               int b;
+               do {
+                  b = src[sp++] & 0xFF;
+                  matchLength += b;
+               } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            int ref = dp - matchOffset;
+            if (matchOffset == 0 || ref < 0 || dp + matchLength > length) {
+               throw new IllegalArgumentException("Malformed LZ4 block at offset " + sp);
+            }
+            // The match can overlap the bytes it produces, so it must be copied byte by byte
+            for (int i = 0; i < matchLength; i++) {
+               dst[dp + i] = dst[ref + i];
+            }
+            dp += matchLength;
+         }
+      } catch (IndexOutOfBoundsException e) {
+         throw new IllegalArgumentException("Malformed LZ4 block", e);
+      }
+      if (dp != length) {
+         throw new IllegalArgumentException("Decompressed " + dp + " bytes, expected " + length);
+      }
+      return dst;
+   }
+
+   private static int writeSequence(byte[] src, int literalOffset, int literalLength, int matchOffset, int matchLength,
+                                    byte[] dst, int dp) {
+      int tokenPos = dp++;
+      int token;
+      if (literalLength >= RUN_MASK) {
+         token = RUN_MASK << 4;
+         dp = writeLength(literalLength - RUN_MASK, dst, dp);
+      } else {
+         token = literalLength << 4;
+      }
+      System.arraycopy(src, literalOffset, dst, dp, literalLength);
+      dp += literalLength;
+      dst[dp++] = (byte) matchOffset;
+      dst[dp++] = (byte) (matchOffset >>> 8);
+      int length = matchLength - MIN_MATCH;
+      if (length >= RUN_MASK) {
+         token |= RUN_MASK;
+         dp = writeLength(length - RUN_MASK, dst, dp);
+      } else {
+         token |= length;
+      }
+      dst[tokenPos] = (byte) token;
+      return dp;
+   }
+
+   private static int writeLastLiterals(byte[] src, int literalOffset, int literalLength, byte[] dst, int dp) {
+      if (literalLength >= RUN_MASK) {
+         dst[dp++] = (byte) (RUN_MASK << 4);
+         dp = writeLength(literalLength - RUN_MASK, dst, dp);
+      } else {
+         dst[dp++] = (byte) (literalLength << 4);
+      }
+      System.arraycopy(src, literalOffset, dst, dp, literalLength);
+      return dp + literalLength;
+   }
+
+   private static int writeLength(int length, byte[] dst, int dp) {
+      while (length >= 255) {
+         dst[dp++] = (byte) 255;
+         length -= 255;
+      }
+      dst[dp++] = (byte) length;
+      return dp;
+   }
+
+   private static int readInt(byte[] b, int i) {
+      return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+   }
+
+   private static int hash(int sequence) {
+      return (sequence * -1640531535) >>> (32 - HASH_LOG);
+   }
+}
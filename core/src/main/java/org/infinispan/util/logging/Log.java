@@ -2474,4 +2474,29 @@ CacheConfigurationException storeConfiguredHasBothReadAndWriteOnly(String storeC
          "When the container shrinks under memory pressure, evicted entries must be persisted to the " +
          "store, which may increase memory churn and reduce the effectiveness of the resize.", id = 725)
    void dynamicResizeWithPassivation(String containerName);
+
+   @Message(value = "Single file store compaction threshold (%f) should be between 0 and 1 (inclusively), 0 disables the compaction.", id = 726)
+   CacheConfigurationException invalidSingleFileStoreCompactionThreshold(float value);
+
+   @Message(value = "The cache can only be available during preload with the PARALLEL preload mode, in a local, non-transactional cache", id = 727)
+   CacheConfigurationException availableDuringPreloadNotSupported();
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Preload of cache '%s' failed, the entries that were not preloaded will be read from the store", id = 728)
+   void preloadFailed(String cacheName, @Cause Throwable t);
+
+   @Message(value = "Write-behind batch lanes (%d) must be greater than 0", id = 729)
+   CacheConfigurationException invalidWriteBehindBatchLanes(int value);
+
+   @Message(value = "Write-behind target batch latency (%d) cannot be negative", id = 730)
+   CacheConfigurationException invalidWriteBehindTargetBatchLatency(long value);
+
+   @Message(value = "State transfer chunk bytes (%d) cannot be negative", id = 731)
+   CacheConfigurationException invalidStateTransferChunkBytes(int value);
+
+   @Message(value = "State transfer max in-flight chunks (%d) must be greater than 0", id = 732)
+   CacheConfigurationException invalidStateTransferMaxInFlightChunks(int value);
+
+   @Message(value = "Secondary indexes require a non-empty entity and field, found entity '%s' and field '%s'", id = 733)
+   CacheConfigurationException invalidSecondaryIndex(String entity, String field);
 }
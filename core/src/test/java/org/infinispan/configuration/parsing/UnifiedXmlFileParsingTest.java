@@ -38,11 +38,17 @@
 import org.infinispan.configuration.cache.MemoryConfiguration;
 import org.infinispan.configuration.cache.PartitionHandlingConfiguration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
+import org.infinispan.configuration.cache.PreloadMode;
 import org.infinispan.configuration.cache.QueryConfiguration;
+import org.infinispan.configuration.cache.SecondaryIndex;
+import org.infinispan.configuration.cache.SecondaryIndexType;
+import org.infinispan.configuration.cache.StateTransferCompression;
+import org.infinispan.configuration.cache.StateTransferConfiguration;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.configuration.cache.TracingConfiguration;
 import org.infinispan.configuration.global.ContainerMemoryConfiguration;
+import org.infinispan.configuration.global.ContainerResizeStrategy;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.configuration.global.GlobalStateConfiguration;
 import org.infinispan.configuration.global.JGroupsConfiguration;
@@ -124,6 +130,31 @@ public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schema
             assertEquals(6_000, config.memoryMonitor().gcDurationThreshold());
             assertEquals(0.15, config.memoryMonitor().gcPressureThreshold());
             assertEquals(20_000, config.memoryMonitor().gcPressureWindow());
+
+            assertTrue(getConfiguration(holder, "off-heap-memory").memory().pooledAllocator());
+            assertFalse(getConfiguration(holder, "minimal-offheap").memory().pooledAllocator());
+
+            assertEquals(ContainerResizeStrategy.UTILITY, config.getMemoryContainer().get("max-size").resizeStrategy());
+            assertEquals(ContainerResizeStrategy.UNIFORM, config.getMemoryContainer().get("max-count").resizeStrategy());
+
+            PersistenceConfiguration persistence = getConfiguration(holder, "local").persistence();
+            assertEquals(PreloadMode.PARALLEL, persistence.preloadMode());
+            assertFalse(persistence.availableDuringPreload());
+            AsyncStoreConfiguration writeBehind = persistence.stores().get(0).async();
+            assertEquals(4, writeBehind.batchLanes());
+            assertEquals(50, writeBehind.targetBatchLatency());
+
+            StateTransferConfiguration stateTransfer = getConfiguration(holder, "dist").clustering().stateTransfer();
+            assertEquals(1048576, stateTransfer.chunkBytes());
+            assertEquals(4, stateTransfer.maxInFlightChunks());
+            assertEquals(StateTransferCompression.LZ4, stateTransfer.compression());
+
+            assertEquals(500, getConfiguration(holder, "custom-default-max-results").query().resultCacheSize());
+            assertEquals(0, getConfiguration(holder, "local").query().resultCacheSize());
+            assertEquals(List.of(new SecondaryIndex("org.infinispan.test.data.Person", "name", SecondaryIndexType.HASH),
+                        new SecondaryIndex("org.infinispan.test.data.Person", "address.zip", SecondaryIndexType.RANGE)),
+                  getConfiguration(holder, "custom-default-max-results").query().secondaryIndexes());
+            assertTrue(getConfiguration(holder, "local").query().secondaryIndexes().isEmpty());
          }
       },
       INFINISPAN_161(16, 1) {
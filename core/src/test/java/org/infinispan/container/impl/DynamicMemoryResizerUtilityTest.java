@@ -0,0 +1,166 @@
+package org.infinispan.container.impl;
+
+import static org.infinispan.metrics.Constants.INFINISPAN_PREFIX;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.util.MemoryMonitor;
+import org.infinispan.configuration.global.ContainerMemoryConfiguration;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.metrics.impl.MetricsRegistry;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.DynamicMemoryResizerUtilityTest")
+public class DynamicMemoryResizerUtilityTest extends AbstractInfinispanTest {
+
+   private static final long ORIGINAL_CAPACITY = 1000;
+
+   private DynamicMemoryResizer resizer;
+   private MemoryMonitor memoryMonitor;
+   private MetricsRegistry metricsRegistry;
+   private SharedCaffeineMap<Object, Object> hotMap;
+   private SharedCaffeineMap<Object, Object> coldMap;
+
+   @BeforeMethod
+   public void setup() {
+      resizer = new DynamicMemoryResizer();
+      memoryMonitor = mock(MemoryMonitor.class);
+      metricsRegistry = mock(MetricsRegistry.class);
+      ScheduledExecutorService scheduledExecutor = mock(ScheduledExecutorService.class);
+      doReturn(mock(ScheduledFuture.class)).when(scheduledExecutor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+      hotMap = new SharedCaffeineMap<>(ORIGINAL_CAPACITY, false, true);
+      coldMap = new SharedCaffeineMap<>(ORIGINAL_CAPACITY, false, true);
+
+      ContainerMemoryConfiguration containerConfig = mock(ContainerMemoryConfiguration.class);
+      when(containerConfig.dynamicResize()).thenReturn(true);
+
+      GlobalConfiguration globalConfig = mock(GlobalConfiguration.class);
+      when(globalConfig.getMemoryContainer()).thenReturn(Map.of("hot", containerConfig, "cold", containerConfig));
+
+      SharedContainerMaps sharedContainerMaps = mock(SharedContainerMaps.class);
+      when(sharedContainerMaps.getMaps()).thenReturn(Map.of("hot", hotMap, "cold", coldMap));
+
+      TestingUtil.inject(resizer, globalConfig, sharedContainerMaps, memoryMonitor, metricsRegistry,
+            new org.infinispan.factories.impl.TestComponentAccessors.NamedComponent(
+                  org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR, scheduledExecutor));
+      resizer.start();
+   }
+
+   @AfterMethod
+   public void cleanup() {
+      resizer.stop();
+   }
+
+   private void recordHotGhostHits() {
+      UtilitySampler sampler = hotMap.utilitySampler();
+      List<Integer> keys = UtilitySamplerTest.sampledKeys("c", 30);
+      for (int round = 0; round < 5; round++) {
+         // Evict all the keys before reading them again, so that the ghost hits spread over all the bands
+         for (int key : keys) {
+            sampler.recordAccess("c", key, true);
+            sampler.recordEviction("c", key, 1);
+         }
+         for (int key : keys) {
+            sampler.recordAccess("c", key, false);
+         }
+      }
+   }
+
+   public void testMetricsRegisteredPerContainer() {
+      verify(metricsRegistry).registerMetrics(any(), any(), eq(INFINISPAN_PREFIX),
+            eq(Map.of(DynamicMemoryResizer.CONTAINER_TAG_NAME, "hot")));
+      verify(metricsRegistry).registerMetrics(any(), any(), eq(INFINISPAN_PREFIX),
+            eq(Map.of(DynamicMemoryResizer.CONTAINER_TAG_NAME, "cold")));
+      assertEquals(1, resizer.utilityPools.size());
+      assertEquals(2 * ORIGINAL_CAPACITY, resizer.utilityPools.get(0).budget());
+   }
+
+   public void testShrinkTakesFromColdContainer() {
+      recordHotGhostHits();
+      when(memoryMonitor.isMemoryLow()).thenReturn(true);
+
+      resizer.onMemoryLow();
+
+      // 20% of the 2000 budget, all of it from the container without hits
+      assertEquals(ORIGINAL_CAPACITY, hotMap.capacity());
+      assertEquals(600, coldMap.capacity());
+      assertEquals(DynamicMemoryResizer.State.SHRINKING, resizer.state);
+   }
+
+   public void testShrinkUniformlyWithoutSamples() {
+      when(memoryMonitor.isMemoryLow()).thenReturn(true);
+
+      resizer.onMemoryLow();
+
+      assertEquals(800, hotMap.capacity());
+      assertEquals(800, coldMap.capacity());
+   }
+
+   public void testGrowGivesToHotContainer() {
+      recordHotGhostHits();
+      when(memoryMonitor.isMemoryLow()).thenReturn(true);
+      resizer.onMemoryLow();
+      resizer.onGcCompleted();
+
+      when(memoryMonitor.isMemoryLow()).thenReturn(false);
+      resizer.checkRecovery();
+      assertEquals(DynamicMemoryResizer.State.GROWING, resizer.state);
+
+      resizer.growStep();
+      assertEquals(1200, hotMap.capacity());
+      assertEquals(600, coldMap.capacity());
+      assertEquals(DynamicMemoryResizer.State.GROWING, resizer.state);
+
+      resizer.growStep();
+      // The budget is used again, so the pool is recovered even if the cold container is not
+      assertEquals(1400, hotMap.capacity());
+      assertEquals(600, coldMap.capacity());
+      assertEquals(DynamicMemoryResizer.State.STABLE, resizer.state);
+   }
+
+   public void testRebalanceWhileStable() {
+      recordHotGhostHits();
+      resizer.rebalanceStep();
+
+      // 5% of the budget moved from the cold container to the hot one
+      assertEquals(1100, hotMap.capacity());
+      assertEquals(900, coldMap.capacity());
+      assertEquals(1100, hotMap.utilitySampler().capacity());
+      assertTrue(hotMap.utilitySampler().ghostHits() > 0);
+   }
+
+   public void testNoRebalanceUnderMemoryPressure() {
+      recordHotGhostHits();
+      when(memoryMonitor.isMemoryLow()).thenReturn(true);
+
+      resizer.rebalanceStep();
+
+      assertEquals(ORIGINAL_CAPACITY, hotMap.capacity());
+      assertEquals(ORIGINAL_CAPACITY, coldMap.capacity());
+   }
+
+   public void testNoRebalanceWithoutGain() {
+      resizer.rebalanceStep();
+
+      assertEquals(ORIGINAL_CAPACITY, hotMap.capacity());
+      assertEquals(ORIGINAL_CAPACITY, coldMap.capacity());
+   }
+}
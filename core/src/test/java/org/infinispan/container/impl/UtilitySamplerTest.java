@@ -0,0 +1,97 @@
+package org.infinispan.container.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.UtilitySamplerTest")
+public class UtilitySamplerTest extends AbstractInfinispanTest {
+
+   private static final String CACHE = "cache";
+
+   static List<Integer> sampledKeys(String cacheName, int count) {
+      List<Integer> keys = new ArrayList<>(count);
+      for (int i = 0; keys.size() < count; i++) {
+         if ((UtilitySampler.hash(cacheName, i) & ((1 << UtilitySampler.SAMPLE_SHIFT) - 1)) == 0) {
+            keys.add(i);
+         }
+      }
+      return keys;
+   }
+
+   public void testHitsAndMissesDecay() {
+      UtilitySampler sampler = new UtilitySampler(1000);
+      for (int i = 0; i < 30; i++) {
+         sampler.recordAccess(CACHE, i, true);
+      }
+      for (int i = 0; i < 10; i++) {
+         sampler.recordAccess(CACHE, i, false);
+      }
+      UtilitySampler.Snapshot snapshot = sampler.snapshot();
+      assertEquals(30, snapshot.hits());
+      assertEquals(10, snapshot.misses());
+      assertEquals(0.75, snapshot.hitRatio(), 0.0001);
+
+      snapshot = sampler.snapshot();
+      assertEquals(15, snapshot.hits());
+      assertEquals(5, snapshot.misses());
+   }
+
+   public void testGhostHitsCountedByDistance() {
+      // Bands of 100 entries
+      UtilitySampler sampler = new UtilitySampler(1600);
+      assertEquals(100, sampler.bandSize());
+      List<Integer> keys = sampledKeys(CACHE, 12);
+
+      // Missed right after its eviction: a single entry more would have kept it
+      sampler.recordEviction(CACHE, keys.get(0), 1);
+      sampler.recordAccess(CACHE, keys.get(0), false);
+
+      // Missed after 10 other sampled evictions, worth 160 entries
+      sampler.recordEviction(CACHE, keys.get(1), 1);
+      for (int i = 2; i < 12; i++) {
+         sampler.recordEviction(CACHE, keys.get(i), 1);
+      }
+      sampler.recordAccess(CACHE, keys.get(1), false);
+      // Only counted once
+      sampler.recordAccess(CACHE, keys.get(1), false);
+
+      UtilitySampler.Snapshot snapshot = sampler.snapshot();
+      long scale = 1 << UtilitySampler.SAMPLE_SHIFT;
+      assertEquals(scale, snapshot.bandHits()[0]);
+      assertEquals(scale, snapshot.bandHits()[1]);
+      assertEquals(2 * scale, sampler.ghostHits());
+      assertEquals(10, sampler.ghostEntries());
+      assertEquals((double) scale / 100, snapshot.gainDensity(0), 0.0001);
+      assertEquals(0, snapshot.gainDensity(800), 0.0001);
+   }
+
+   public void testGhostsBeyondWindowAreDropped() {
+      // The ghosts cover 80 entries, 5 sampled evictions
+      UtilitySampler sampler = new UtilitySampler(160);
+      List<Integer> keys = sampledKeys(CACHE, 8);
+      for (int key : keys) {
+         sampler.recordEviction(CACHE, key, 1);
+      }
+      assertEquals(6, sampler.ghostEntries());
+      sampler.recordAccess(CACHE, keys.get(0), false);
+      assertEquals(0, sampler.ghostHits());
+      sampler.recordAccess(CACHE, keys.get(7), false);
+      assertEquals(1 << UtilitySampler.SAMPLE_SHIFT, sampler.ghostHits());
+   }
+
+   public void testLossDensityGrowsWithRemovedCapacity() {
+      long[] bands = new long[UtilitySampler.BANDS];
+      bands[0] = 10;
+      UtilitySampler.Snapshot snapshot = new UtilitySampler.Snapshot(1000, 100, 1000, 0, bands);
+      assertEquals(0.1, snapshot.lossDensity(0), 0.0001);
+      assertEquals(0.55, snapshot.lossDensity(500), 0.0001);
+      assertEquals(1.0, snapshot.lossDensity(1000), 0.0001);
+      assertTrue(snapshot.lossDensity(2000) <= 1.0);
+   }
+}
@@ -0,0 +1,114 @@
+package org.infinispan.container.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.impl.InternalEntryFactoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of {@link OffHeapConcurrentMap#peek(Object)} with and without optimistic reads, from 1 to 64
+ * reader threads, optionally with a thread replacing entries in the background.
+ */
+public class OffHeapConcurrentMapReadBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 5;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+   private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+   public static void main(String[] args) throws Exception {
+      for (int threads : THREADS) {
+         Options opt = new OptionsBuilder()
+               .include(OffHeapConcurrentMapReadBenchmark.class.getName() + ".State.*")
+               .mode(Mode.Throughput)
+               .timeUnit(TimeUnit.MICROSECONDS)
+               .warmupIterations(WARMUP_ITERATIONS_COUNT)
+               .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+               .threads(threads)
+               .forks(1)
+               .shouldFailOnError(true)
+               .build();
+
+         new Runner(opt).run();
+      }
+   }
+
+   @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+   public static class State {
+
+      @Param({"true", "false"})
+      boolean optimisticReads;
+
+      @Param({"false", "true"})
+      boolean backgroundWrites;
+
+      @Param({"100000"})
+      int size;
+
+      OffHeapConcurrentMap map;
+      WrappedBytes[] keys;
+      Thread writer;
+      volatile boolean running;
+
+      @Setup(Level.Trial)
+      public void setup() {
+         OffHeapMemoryAllocator allocator = new UnpooledOffHeapMemoryAllocator();
+         OffHeapEntryFactoryImpl offHeapEntryFactory = new OffHeapEntryFactoryImpl();
+         offHeapEntryFactory.allocator = allocator;
+         offHeapEntryFactory.internalEntryFactory = new InternalEntryFactoryImpl();
+         offHeapEntryFactory.configuration = new ConfigurationBuilder().build();
+         offHeapEntryFactory.start();
+
+         map = new OffHeapConcurrentMap(allocator, offHeapEntryFactory, null, optimisticReads);
+         keys = new WrappedBytes[size];
+         for (int i = 0; i < size; i++) {
+            keys[i] = bytes(i);
+            map.put(keys[i], new ImmortalCacheEntry(keys[i], keys[i]));
+         }
+         if (backgroundWrites) {
+            running = true;
+            writer = new Thread(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               while (running) {
+                  WrappedBytes key = keys[random.nextInt(size)];
+                  map.put(key, new ImmortalCacheEntry(key, key));
+               }
+            }, "OffHeapConcurrentMapReadBenchmark-writer");
+            writer.start();
+         }
+      }
+
+      @TearDown(Level.Trial)
+      public void tearDown() throws InterruptedException {
+         running = false;
+         if (writer != null) {
+            writer.join();
+         }
+         map.close();
+      }
+
+      @Benchmark
+      public void peek(Blackhole bh) {
+         bh.consume(map.peek(keys[ThreadLocalRandom.current().nextInt(size)]));
+      }
+
+      private static WrappedBytes bytes(int i) {
+         return new WrappedByteArray(ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+      }
+   }
+}
@@ -2,12 +2,21 @@
 
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.marshall.WrappedBytes;
@@ -132,6 +141,72 @@ public void testIterationCreatedButNotUsedUntilAfterAResize() {
       assertEquals(RESIZE_LIMITATION, entriesFound);
    }
 
+   public void testOptimisticReadsWithConcurrentWrites() throws Exception {
+      int keyCount = 2_000;
+      WrappedBytes[] keys = new WrappedBytes[keyCount];
+      for (int i = 0; i < keyCount; ++i) {
+         keys[i] = new WrappedByteArray(ByteBuffer.allocate(4).putInt(i).array());
+         map.put(keys[i], new ImmortalCacheEntry(keys[i], valueFor(i, 0)));
+      }
+      AtomicBoolean stop = new AtomicBoolean();
+      ExecutorService executor = Executors.newFixedThreadPool(6);
+      try {
+         List<Future<?>> futures = new ArrayList<>();
+         for (int w = 0; w < 2; ++w) {
+            futures.add(executor.submit(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               for (int version = 1; !stop.get(); ++version) {
+                  int i = random.nextInt(keyCount);
+                  if (i % 2 == 0) {
+                     // Even keys are always present, but their entries are replaced
+                     map.put(keys[i], new ImmortalCacheEntry(keys[i], valueFor(i, version)));
+                  } else if (map.remove(keys[i]) == null) {
+                     map.put(keys[i], new ImmortalCacheEntry(keys[i], valueFor(i, version)));
+                  }
+                  if (version % 10_000 == 0) {
+                     // Grow the map, so that it is resized while reading
+                     putInMap(map, valueByteArray);
+                  }
+               }
+               return null;
+            }));
+         }
+         for (int r = 0; r < 4; ++r) {
+            futures.add(executor.submit(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               while (!stop.get()) {
+                  int i = random.nextInt(keyCount);
+                  InternalCacheEntry<WrappedBytes, WrappedBytes> ice = random.nextBoolean() ? map.get(keys[i]) : map.peek(keys[i]);
+                  if (ice == null) {
+                     assertTrue("Missing key " + i, i % 2 == 1);
+                  } else {
+                     assertEquals(keys[i], ice.getKey());
+                     ByteBuffer value = ByteBuffer.wrap(ice.getValue().getBytes());
+                     assertEquals(i, value.getInt());
+                     int version = value.getInt();
+                     assertEquals(8 + version % 64, value.limit());
+                  }
+               }
+               return null;
+            }));
+         }
+         Thread.sleep(TimeUnit.SECONDS.toMillis(5));
+         stop.set(true);
+         for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+         }
+      } finally {
+         stop.set(true);
+         executor.shutdownNow();
+      }
+      assertNull(map.get(randomBytes()));
+   }
+
+   private static WrappedBytes valueFor(int i, int version) {
+      // Vary the size so that replaced entries are allocated elsewhere
+      return new WrappedByteArray(ByteBuffer.allocate(8 + version % 64).putInt(i).putInt(version).array());
+   }
+
    WrappedBytes putInMap(OffHeapConcurrentMap map, WrappedBytes value) {
       InternalCacheEntry<WrappedBytes, WrappedBytes> ice;
       WrappedBytes key;
@@ -0,0 +1,44 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.stats.Stats;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link OffHeapSingleNodeTest} tests with the {@link PooledOffHeapMemoryAllocator}.
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapPooledSingleNodeTest")
+public class OffHeapPooledSingleNodeTest extends OffHeapSingleNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storage(StorageType.OFF_HEAP).pooledAllocator(true);
+      dcc.statistics().enable();
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+
+   public void testPooledAllocatorInUse() {
+      Cache<String, String> cache = cache(0);
+      cache.put("key", "value");
+      OffHeapMemoryAllocator allocator = TestingUtil.extractComponent(cache, OffHeapMemoryAllocator.class);
+      assertTrue(allocator instanceof PooledOffHeapMemoryAllocator);
+      assertTrue(allocator.getAllocatedAmount() >= ((PooledOffHeapMemoryAllocator) allocator).getUsedAmount());
+   }
+
+   public void testOffHeapMemoryInUseStatistic() {
+      Cache<String, String> cache = cache(0);
+      cache.put("key", "value");
+      Stats stats = cache.getAdvancedCache().getStats();
+      assertTrue(stats.getOffHeapMemoryInUse() > 0);
+      assertTrue(stats.getOffHeapMemoryUsed() >= stats.getOffHeapMemoryInUse());
+   }
+}
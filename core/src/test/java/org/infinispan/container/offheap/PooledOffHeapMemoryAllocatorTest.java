@@ -0,0 +1,146 @@
+package org.infinispan.container.offheap;
+
+import static org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator.estimateSizeOverhead;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.infinispan.commons.spi.OffHeapMemory;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest extends AbstractInfinispanTest {
+   private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
+
+   @DataProvider(name = "sizeClasses")
+   Object[][] sizeClasses() {
+      return new Object[][] {
+            { 0, 16 },
+            { 1, 16 },
+            { 16, 16 },
+            { 17, 32 },
+            { 256, 256 },
+            { 257, 320 },
+            { 513, 640 },
+            { 1000, 1024 },
+            { 16 * 1024, 16 * 1024 },
+      };
+   }
+
+   @Test(dataProvider = "sizeClasses")
+   public void testSizeClasses(int size, int expected) {
+      int sizeClass = PooledOffHeapMemoryAllocator.sizeClass(size);
+      assertEquals(expected, PooledOffHeapMemoryAllocator.classSize(sizeClass));
+   }
+
+   public void testAllSizesFitTheirClass() {
+      int previous = -1;
+      for (int size = 1; size <= PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE; size++) {
+         int sizeClass = PooledOffHeapMemoryAllocator.sizeClass(size);
+         assertTrue(sizeClass >= previous && sizeClass < PooledOffHeapMemoryAllocator.SIZE_CLASSES);
+         assertTrue(PooledOffHeapMemoryAllocator.classSize(sizeClass) >= size);
+         previous = sizeClass;
+      }
+      assertEquals(PooledOffHeapMemoryAllocator.SIZE_CLASSES - 1, previous);
+   }
+
+   public void testReuseAndAccounting() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         long address = allocator.allocate(100);
+         assertEquals(112, allocator.getUsedAmount());
+         assertEquals(estimateSizeOverhead(PooledOffHeapMemoryAllocator.SLAB_SIZE), allocator.getAllocatedAmount());
+
+         allocator.deallocate(address, 100);
+         assertEquals(0, allocator.getUsedAmount());
+         // The slab is kept
+         assertEquals(estimateSizeOverhead(PooledOffHeapMemoryAllocator.SLAB_SIZE), allocator.getAllocatedAmount());
+         // Sizes of the same class reuse the memory
+         assertEquals(address, allocator.allocate(110));
+         allocator.deallocate(address, 110);
+
+         long large = allocator.allocate(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1);
+         assertEquals(estimateSizeOverhead(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1), allocator.getUsedAmount());
+         allocator.deallocate(large, PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1);
+         assertEquals(0, allocator.getUsedAmount());
+      } finally {
+         allocator.stop();
+      }
+      assertEquals(0, allocator.getAllocatedAmount());
+   }
+
+   public void testChunksDoNotOverlap() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         int count = 10_000;
+         long[] addresses = new long[count];
+         Set<Long> distinct = new HashSet<>();
+         for (int i = 0; i < count; i++) {
+            addresses[i] = allocator.allocate(200);
+            MEMORY.putInt(addresses[i], 196, i);
+            assertTrue(distinct.add(addresses[i]));
+         }
+         for (int i = 0; i < count; i++) {
+            assertEquals(i, MEMORY.getInt(addresses[i], 196));
+         }
+         // Free more chunks than a thread caches, so they go back to the size class
+         for (int i = 0; i < count; i++) {
+            allocator.deallocate(addresses[i], 200);
+         }
+         long reserved = allocator.getAllocatedAmount();
+         for (int i = 0; i < count; i++) {
+            assertTrue(distinct.contains(allocator.allocate(200)));
+         }
+         assertEquals(reserved, allocator.getAllocatedAmount());
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testConcurrentAllocations() throws Exception {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         List<Future<Void>> futures = new ArrayList<>();
+         for (int t = 0; t < 8; t++) {
+            int threadId = t;
+            futures.add(fork(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               List<long[]> live = new ArrayList<>();
+               for (int i = 0; i < 20_000; i++) {
+                  if (!live.isEmpty() && random.nextBoolean()) {
+                     long[] allocation = live.remove(random.nextInt(live.size()));
+                     assertEquals(threadId, MEMORY.getInt(allocation[0], allocation[1] - 4));
+                     allocator.deallocate(allocation[0], allocation[1]);
+                  } else {
+                     int size = 8 + random.nextInt(2 * PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+                     long address = allocator.allocate(size);
+                     MEMORY.putInt(address, size - 4, threadId);
+                     live.add(new long[]{address, size});
+                  }
+               }
+               for (long[] allocation : live) {
+                  assertEquals(threadId, MEMORY.getInt(allocation[0], allocation[1] - 4));
+                  allocator.deallocate(allocation[0], allocation[1]);
+               }
+               return null;
+            }));
+         }
+         for (Future<Void> future : futures) {
+            future.get();
+         }
+         assertEquals(0, allocator.getUsedAmount());
+         assertFalse(allocator.getAllocatedAmount() == 0);
+      } finally {
+         allocator.stop();
+      }
+   }
+}
@@ -0,0 +1,80 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.PreloadMode;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PreloadManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link PreloadMode#PARALLEL} preload.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "persistence.ParallelPreloadTest")
+public class ParallelPreloadTest extends SingleCacheManagerTest {
+   private static final int NUM_ENTRIES = 5000;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager();
+      cm.defineConfiguration("parallel", config(false).build());
+      cm.defineConfiguration("available", config(true).build());
+      return cm;
+   }
+
+   private ConfigurationBuilder config(boolean availableDuringPreload) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .preloadMode(PreloadMode.PARALLEL)
+            .availableDuringPreload(availableDuringPreload)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getName() + availableDuringPreload)
+            .preload(true);
+      return builder;
+   }
+
+   public void testParallelPreload() {
+      Cache<Object, Object> cache = restartWithEntries("parallel");
+
+      assertEquals(NUM_ENTRIES, cache.getAdvancedCache().getDataContainer().size());
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         assertEquals("v" + i, cache.getAdvancedCache().getDataContainer().peek("k" + i).getValue());
+      }
+      PreloadManager preloadManager = TestingUtil.extractComponent(cache, PreloadManager.class);
+      assertTrue(preloadManager.isFullyPreloaded());
+      assertEquals(NUM_ENTRIES, preloadManager.getPreloadedEntries());
+      assertEquals(100d, preloadManager.getPreloadProgress());
+   }
+
+   public void testAvailableDuringPreload() {
+      Cache<Object, Object> cache = restartWithEntries("available");
+
+      cache.put("k0", "new");
+      assertEquals("new", cache.get("k0"));
+      assertEquals("v1", cache.get("k1"));
+
+      PreloadManager preloadManager = TestingUtil.extractComponent(cache, PreloadManager.class);
+      eventually(preloadManager::isFullyPreloaded);
+      assertEquals(NUM_ENTRIES, cache.getAdvancedCache().getDataContainer().size());
+      assertEquals("new", cache.get("k0"));
+   }
+
+   private Cache<Object, Object> restartWithEntries(String cacheName) {
+      Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      cache.stop();
+      cache.start();
+      return cache;
+   }
+}
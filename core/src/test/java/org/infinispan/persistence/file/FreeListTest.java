@@ -0,0 +1,124 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "persistence.file.FreeListTest")
+public class FreeListTest extends AbstractInfinispanTest {
+
+   public void testBestFitInSameSizeClass() {
+      FreeList freeList = new FreeList();
+      FileEntry small = new FileEntry(0, 130);
+      FileEntry fit = new FileEntry(1000, 200);
+      FileEntry large = new FileEntry(2000, 250);
+      assertTrue(freeList.add(large));
+      assertTrue(freeList.add(small));
+      assertTrue(freeList.add(fit));
+      assertFalse(freeList.add(fit));
+      assertEquals(3, freeList.size());
+      assertEquals(580, freeList.freeBytes());
+
+      assertSame(fit, freeList.take(150, Long.MAX_VALUE));
+      assertSame(large, freeList.take(150, Long.MAX_VALUE));
+      assertNull(freeList.take(150, Long.MAX_VALUE));
+      assertEquals(1, freeList.size());
+      assertEquals(130, freeList.freeBytes());
+   }
+
+   public void testFallbackToLargerSizeClass() {
+      FreeList freeList = new FreeList();
+      FileEntry huge = new FileEntry(0, 1 << 20);
+      FileEntry medium = new FileEntry(1 << 20, 4000);
+      freeList.add(huge);
+      freeList.add(medium);
+
+      assertSame(medium, freeList.take(300, Long.MAX_VALUE));
+      assertSame(huge, freeList.take(300, Long.MAX_VALUE));
+      assertEquals(0, freeList.size());
+      assertEquals(0, freeList.freeBytes());
+   }
+
+   public void testSkipsLockedAndLaterEntries() {
+      FreeList freeList = new FreeList();
+      FileEntry locked = new FileEntry(0, 200);
+      FileEntry later = new FileEntry(5000, 200);
+      freeList.add(locked);
+      freeList.add(later);
+
+      locked.lock();
+      try {
+         assertNull(freeList.take(200, 5000));
+      } finally {
+         locked.unlock();
+      }
+      assertSame(locked, freeList.take(200, 5000));
+      assertNull(freeList.take(200, 5000));
+      assertSame(later, freeList.take(200, Long.MAX_VALUE));
+   }
+
+   public void testRemoveAndClear() {
+      FreeList freeList = new FreeList();
+      FileEntry fe = new FileEntry(0, 200);
+      freeList.add(fe);
+      assertTrue(freeList.remove(fe));
+      assertFalse(freeList.remove(fe));
+      assertNull(freeList.take(1, Long.MAX_VALUE));
+
+      freeList.add(fe);
+      freeList.add(new FileEntry(200, 300));
+      assertEquals(2, freeList.entries().size());
+      freeList.clear();
+      assertEquals(0, freeList.size());
+      assertEquals(0, freeList.freeBytes());
+      assertNull(freeList.take(1, Long.MAX_VALUE));
+   }
+
+   public void testConcurrentAddAndTake() throws Exception {
+      FreeList freeList = new FreeList();
+      int threads = 16;
+      int entriesPerThread = 1000;
+      LongAdder added = new LongAdder();
+      List<Future<Long>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+         long base = (long) t * entriesPerThread * 10_000;
+         futures.add(fork(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long taken = 0;
+            for (int i = 0; i < entriesPerThread; i++) {
+               int size = 128 + random.nextInt(8000);
+               freeList.add(new FileEntry(base + i * 10_000L, size));
+               added.add(size);
+               FileEntry fe = freeList.take(128 + random.nextInt(8000), Long.MAX_VALUE);
+               if (fe != null) {
+                  taken += fe.size;
+               }
+            }
+            return taken;
+         }));
+      }
+      long taken = 0;
+      for (Future<Long> future : futures) {
+         taken += future.get();
+      }
+      long remaining = 0;
+      for (FileEntry fe : freeList.entries()) {
+         remaining += fe.size;
+      }
+      assertEquals(remaining, freeList.freeBytes());
+      assertEquals(freeList.entries().size(), freeList.size());
+      assertEquals(added.sum(), taken + remaining);
+   }
+}
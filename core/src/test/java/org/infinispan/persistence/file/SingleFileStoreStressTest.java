@@ -1,10 +1,12 @@
 package org.infinispan.persistence.file;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.infinispan.commons.util.concurrent.CompletionStages.join;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.File;
@@ -66,7 +68,8 @@ protected EmbeddedCacheManager createCacheManager() throws Exception {
 
       ConfigurationBuilder builder = new ConfigurationBuilder();
       builder.clustering().hash().numSegments(NUM_SEGMENTS);
-      builder.persistence().addStore(SingleFileStoreConfigurationBuilder.class).purgeOnStartup(true).segmented(false);
+      builder.persistence().addStore(SingleFileStoreConfigurationBuilder.class).purgeOnStartup(true).segmented(false)
+            .compactionThreshold(0.5f);
       EmbeddedCacheManager cacheManager = TestCacheManagerFactory.createCacheManager(globalBuilder, builder);
       cacheManager.defineConfiguration(CACHE_NAME, builder.build());
       return cacheManager;
@@ -245,6 +248,75 @@ public void testFileTruncation() throws ExecutionException, InterruptedException
       assertTrue(String.format("Length1=%d, Length2=%d", length1, length2), length2 < length1);
    }
 
+   public void testConcurrentWritersThroughput() throws ExecutionException, InterruptedException {
+      final int writerThreads = 16;
+      final int numberOfKeys = 2000;
+
+      Cache<String, String> cache = cacheManager.getCache(CACHE_NAME);
+      SingleFileStore<String, String> store = TestingUtil.getFirstStore(cache);
+      assertEquals(0, (long) join(store.size(IntSets.immutableSet(0))));
+
+      final List<String> keys = new ArrayList<>(numberOfKeys);
+      populateStoreRandomValues(numberOfKeys, store, cache, keys);
+
+      // Writers overwrite random keys with values of random size, so the free entries are reused concurrently
+      final CountDownLatch stopLatch = new CountDownLatch(1);
+      Future[] writeFutures = new Future[writerThreads];
+      long start = System.nanoTime();
+      for (int i = 0; i < writerThreads; i++) {
+         writeFutures[i] = fork(stopOnException(new WriteTask(store, cache, keys, stopLatch), stopLatch));
+      }
+
+      stopLatch.await(2, SECONDS);
+      stopLatch.countDown();
+
+      long writes = 0;
+      for (int i = 0; i < writerThreads; i++) {
+         writes += (Integer) writeFutures[i].get();
+      }
+      long elapsedMillis = NANOSECONDS.toMillis(System.nanoTime() - start);
+      log.infof("%d writers did %d writes in %d ms, %d writes/s, file size is %d, %d free entries", writerThreads,
+            writes, elapsedMillis, writes * 1000 / Math.max(elapsedMillis, 1), store.getFileSize(),
+            store.getFreeList().size());
+
+      for (String key : keys) {
+         MarshallableEntry<String, String> entry = join(store.load(0, key));
+         assertNotNull(entry);
+         assertTrue(entry.getValue().startsWith(key));
+      }
+   }
+
+   public void testCompaction() {
+      final int numberOfKeys = 1000;
+      final int removedKeys = 800;
+
+      Cache<String, String> cache = cacheManager.getCache(CACHE_NAME);
+      SingleFileStore<String, String> store = TestingUtil.getFirstStore(cache);
+      assertEquals(0, (long) join(store.size(IntSets.immutableSet(0))));
+
+      List<String> keys = populateStore(numberOfKeys, 10, store, cache);
+      File file = getFileStore();
+      long lengthBefore = file.length();
+
+      // Free the start of the file, only the compaction can move the remaining entries there and truncate the file
+      for (int i = 0; i < removedKeys; i++) {
+         assertTrue(join(store.delete(0, keys.get(i))));
+      }
+      Flowable.fromPublisher(store.purgeExpired()).blockingSubscribe();
+
+      long lengthAfter = file.length();
+      assertTrue(String.format("Length before=%d, after=%d", lengthBefore, lengthAfter),
+            lengthAfter < lengthBefore * (numberOfKeys - removedKeys) / numberOfKeys * 1.5);
+      for (int i = 0; i < numberOfKeys; i++) {
+         MarshallableEntry<String, String> entry = join(store.load(0, keys.get(i)));
+         if (i < removedKeys) {
+            assertNull(entry);
+         } else {
+            assertEquals(keys.get(i) + "_value_" + i + times(10), entry.getValue());
+         }
+      }
+   }
+
    public List<String> populateStore(int numKeys, int numPadding, SingleFileStore<String, String> store,
                                      Cache<String, String> cache) {
       final List<String> keys = new ArrayList<>(numKeys);
@@ -362,7 +434,8 @@ public Object call() throws Exception {
             join(store.write(0, entry));
             i++;
          }
-         return null;
+         // Number of writes, used to measure the throughput
+         return i;
       }
    }
 
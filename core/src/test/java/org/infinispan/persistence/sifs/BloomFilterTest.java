@@ -0,0 +1,85 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "persistence.sifs.BloomFilterTest")
+public class BloomFilterTest extends AbstractInfinispanTest {
+
+   private static byte[] key(int i) {
+      return ("key-" + i).getBytes(StandardCharsets.UTF_8);
+   }
+
+   public void testNoFalseNegativesWhileGrowing() {
+      BloomFilter filter = new BloomFilter(0.01);
+      int keys = BloomFilter.INITIAL_CAPACITY * 10;
+      for (int i = 0; i < keys; ++i) {
+         filter.add(key(i));
+      }
+      for (int i = 0; i < keys; ++i) {
+         assertTrue(filter.mightContain(key(i)));
+      }
+      // Adding a key again doesn't count it twice
+      filter.add(key(0));
+      assertTrue(filter.keys() <= keys);
+   }
+
+   public void testFalsePositiveRate() {
+      BloomFilter filter = new BloomFilter(0.01);
+      int keys = BloomFilter.INITIAL_CAPACITY * 10;
+      for (int i = 0; i < keys; ++i) {
+         filter.add(key(i));
+      }
+      int falsePositives = 0;
+      int lookups = 100_000;
+      for (int i = keys; i < keys + lookups; ++i) {
+         if (filter.mightContain(key(i))) {
+            falsePositives++;
+         }
+      }
+      // Leave some margin over the configured 1%
+      assertTrue("False positives: " + falsePositives, falsePositives < lookups * 0.015);
+   }
+
+   public void testWriteAndRead() throws IOException {
+      BloomFilter filter = new BloomFilter(0.05);
+      for (int i = 0; i < 5000; ++i) {
+         filter.add(key(i));
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream output = new DataOutputStream(bytes)) {
+         filter.writeTo(output);
+      }
+
+      BloomFilter read = BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 0.05);
+      assertEquals(filter.keys(), read.keys());
+      assertEquals(filter.sizeInBytes(), read.sizeInBytes());
+      for (int i = 0; i < 5000; ++i) {
+         assertTrue(read.mightContain(key(i)));
+      }
+      for (int i = 5000; i < 10000; ++i) {
+         assertEquals(filter.mightContain(key(i)), read.mightContain(key(i)));
+      }
+
+      // A filter written with another rate has to be rebuilt
+      assertNull(BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 0.01));
+   }
+
+   public void testEmpty() {
+      BloomFilter filter = new BloomFilter(0.01);
+      assertFalse(filter.mightContain(key(0)));
+      assertEquals(0, filter.keys());
+   }
+}
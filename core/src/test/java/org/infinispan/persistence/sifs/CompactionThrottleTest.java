@@ -0,0 +1,45 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "persistence.sifs.CompactionThrottleTest")
+public class CompactionThrottleTest extends AbstractInfinispanTest {
+
+   public void testBurstUpToRate() {
+      ControlledTimeService timeService = new ControlledTimeService();
+      CompactionStatistics statistics = new CompactionStatistics(null);
+      CompactionThrottle throttle = new CompactionThrottle(timeService, 1000, statistics);
+
+      throttle.acquire(600);
+      throttle.acquire(400);
+      assertEquals(0, statistics.throttledNanos.sum());
+
+      // The bucket is empty, 10 more bytes at 1000 bytes per second take 10 ms
+      throttle.acquire(10);
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(10), statistics.throttledNanos.sum());
+   }
+
+   public void testRefill() {
+      ControlledTimeService timeService = new ControlledTimeService();
+      CompactionStatistics statistics = new CompactionStatistics(null);
+      CompactionThrottle throttle = new CompactionThrottle(timeService, 1000, statistics);
+
+      throttle.acquire(1000);
+      timeService.advance(500);
+      throttle.acquire(500);
+      assertEquals(0, statistics.throttledNanos.sum());
+
+      // An idle period refills at most one second worth of bytes
+      timeService.advance(5000);
+      throttle.acquire(1000);
+      assertEquals(0, statistics.throttledNanos.sum());
+      throttle.acquire(100);
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(100), statistics.throttledNanos.sum());
+   }
+}
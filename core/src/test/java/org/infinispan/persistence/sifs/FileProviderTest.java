@@ -1,12 +1,17 @@
 package org.infinispan.persistence.sifs;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 
+import org.infinispan.commons.time.DefaultTimeService;
 import org.infinispan.commons.util.Util;
 import org.infinispan.testing.Testing;
 import org.testng.annotations.AfterMethod;
@@ -101,4 +106,83 @@ public void testGetFileNonExistentFileWhenIsIndexTrue() throws IOException {
          fileProvider.stop();
       }
    }
+
+   public void testMemoryMappedReads() throws IOException {
+      Path dataPath = Path.of(tmpDirectory, "data");
+      MappedFileStatistics statistics = new MappedFileStatistics(DefaultTimeService.INSTANCE);
+      FileProvider fileProvider = new FileProvider(dataPath, 10, "test-", 1 << 20, false, statistics.data);
+
+      try {
+         byte[] data = new byte[3000];
+         for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+         }
+         FileProvider.Log log = fileProvider.getFileForLog();
+         log.fileChannel.write(ByteBuffer.wrap(data, 0, 1000));
+
+         FileProvider.Handle handle = fileProvider.getFile(log.fileId);
+         ByteBuffer buffer = ByteBuffer.allocate(100);
+         assertEquals(100, handle.read(buffer, 10));
+         assertEquals((byte) 10, buffer.get(0));
+         assertEquals(1, statistics.getDataMappedReads());
+         assertEquals(1000, statistics.getDataMappedBytes());
+
+         // The file is still being written, the new data is read through the channel instead of remapping
+         log.fileChannel.write(ByteBuffer.wrap(data, 1000, 2000));
+         buffer.clear();
+         assertEquals(100, handle.read(buffer, 1000));
+         assertEquals((byte) 1000, buffer.get(0));
+         assertEquals(1, statistics.getDataChannelReads());
+
+         // Once complete, the whole file is mapped and the previous mapping is unmapped
+         log.close();
+         buffer.clear();
+         assertEquals(100, handle.read(buffer, 2900));
+         assertEquals((byte) 2900, buffer.get(0));
+         assertEquals(3000, statistics.getDataMappedBytes());
+         buffer.clear();
+         assertEquals(-1, handle.read(buffer, 3000));
+
+         // The file is unmapped and deleted only when the last handle is closed
+         fileProvider.deleteFile(log.fileId);
+         assertTrue(fileProvider.newFile(log.fileId).exists());
+         handle.close();
+         assertFalse(fileProvider.newFile(log.fileId).exists());
+         assertEquals(0, statistics.getDataMappedBytes());
+      } finally {
+         fileProvider.stop();
+      }
+   }
+
+   public void testMemoryMappedIndexTruncate() throws IOException {
+      Path indexPath = Path.of(tmpDirectory, "index");
+      MappedFileStatistics statistics = new MappedFileStatistics(DefaultTimeService.INSTANCE);
+      FileProvider fileProvider = new FileProvider(indexPath, 10, "test-", Integer.MAX_VALUE, true, statistics.index);
+
+      try {
+         try (FileProvider.Handle handle = fileProvider.getFile(1)) {
+            handle.write(ByteBuffer.wrap(new byte[1000]), 0);
+            ByteBuffer buffer = ByteBuffer.allocate(100);
+            assertEquals(100, handle.read(buffer, 0));
+
+            // Writes through the channel are visible through the mapping
+            handle.write(ByteBuffer.wrap(new byte[]{42}), 5);
+            buffer.clear();
+            handle.read(buffer, 0);
+            assertEquals(42, buffer.get(5));
+
+            // The mapping past the new end of the file is unmapped, then the file is mapped again when read
+            handle.truncate(500);
+            assertEquals(0, statistics.getIndexMappedBytes());
+            buffer.clear();
+            assertEquals(50, handle.read(buffer, 450));
+            assertEquals(500, statistics.getIndexMappedBytes());
+            buffer.clear();
+            assertEquals(-1, handle.read(buffer, 500));
+         }
+      } finally {
+         fileProvider.stop();
+      }
+      assertEquals(0, statistics.getIndexMappedBytes());
+   }
 }
@@ -0,0 +1,52 @@
+package org.infinispan.persistence.sifs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Paths;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link SoftIndexFileStoreTest} tests with several files compacted at the same time and a compaction rate
+ * limit.
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SoftIndexFileStoreParallelCompactionTest")
+public class SoftIndexFileStoreParallelCompactionTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
+      configurationBuilder.clustering().hash().numSegments(2);
+      return configurationBuilder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            .maxFileSize(1000)
+            .compactionParallelism(3)
+            .compactionRateLimit(10 * 1024 * 1024)
+            .build();
+   }
+
+   public void testCompactionStatistics() {
+      Compactor compactor = TestingUtil.extractField(store.delegate(), "compactor");
+      CompactionStatistics statistics = compactor.getStatistics();
+
+      store.write(marshalledEntry(internalCacheEntry("live", "value", -1)));
+      for (int i = 0; i < 100; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("foo" + i, "bar", -1)));
+         store.delete("foo" + i);
+      }
+
+      eventually(() -> statistics.getCompactedFiles() > 0);
+      assertThat(statistics.getAppendedBytes()).isPositive();
+      assertThat(statistics.getReclaimedBytes()).isPositive();
+      assertThat(statistics.getWriteAmplification()).isGreaterThanOrEqualTo(1);
+
+      MarshallableEntry<?, ?> entry = store.loadEntry("live");
+      assertThat(entry).isNotNull();
+      assertThat(entry.getValue()).isEqualTo("value");
+   }
+}
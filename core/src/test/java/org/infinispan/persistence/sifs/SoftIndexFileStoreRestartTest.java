@@ -4,6 +4,7 @@
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
 import java.io.File;
@@ -288,6 +289,33 @@ public void testRestartSameKey(boolean deleteIndex) throws Throwable {
       createCacheManagers();
    }
 
+   @Test(dataProvider = "booleans")
+   public void testRestartBloomFilter(boolean deleteFilter) throws Throwable {
+      int size = 100;
+      for (int i = 0; i < size; i++) {
+         cache(0, cacheName).put(i, "value-" + i);
+      }
+
+      killMember(0, cacheName);
+
+      Path filterPath = Path.of(tmpDirectory, "index", cacheName, "index", "index.filter");
+      assertTrue(filterPath.toFile().exists());
+      if (deleteFilter) {
+         // The filters should be rebuilt from the index
+         filterPath.toFile().delete();
+      }
+      createCacheManagers();
+
+      for (int i = 0; i < size; i++) {
+         assertEquals("value-" + i, cache(0, cacheName).get(i));
+      }
+      for (int i = size; i < 2 * size; i++) {
+         assertNull(cache(0, cacheName).get(i));
+      }
+      cache(0, cacheName).put(size, "value-" + size);
+      assertEquals("value-" + size, cache(0, cacheName).get(size));
+   }
+
    public void testRestartCompactorNotComplete() throws Throwable {
       if (fileSize > 320_000) {
          // Don't test larger as tests take way too long
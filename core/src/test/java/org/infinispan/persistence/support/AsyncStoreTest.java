@@ -51,6 +51,10 @@ public class AsyncStoreTest extends AbstractInfinispanTest {
    private final int CACHE_SEGMENT_MAX = 256;
 
    private InitializationContext createStore() throws PersistenceException {
+      return createStore(1, 0);
+   }
+
+   private InitializationContext createStore(int batchLanes, long targetBatchLatency) throws PersistenceException {
       ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
       DummyInMemoryStoreConfigurationBuilder dummyCfg = builder
             .persistence()
@@ -61,6 +65,8 @@ private InitializationContext createStore() throws PersistenceException {
             .segmented(false);
       dummyCfg
             .async()
+            .batchLanes(batchLanes)
+            .targetBatchLatency(targetBatchLatency)
             .enable();
       InitializationContext testCtx = PersistenceMockUtil.createContext(getClass(), builder.build(), marshaller);
       InitializationContext ctx = new DelegatingInitializationContext() {
@@ -166,6 +172,33 @@ public void testRepeatedPutClearPut() throws Exception {
       assertEquals(0, failures);
    }
 
+   @Test(timeOut = 30000)
+   public void testPutClearPutWithLanes() throws Exception {
+      TestResourceTracker.testThreadStarted(this.getTestName());
+      createStore(4, 1);
+
+      final int number = 1000;
+      String key = "testPutClearPutWithLanes-k-";
+      String value = "testPutClearPutWithLanes-v-";
+      doTestPut(number, key, value);
+      doTestClear(number, key);
+      value = "testPutClearPutWithLanes-v[2]-";
+      doTestPut(number, key, value);
+      doTestRemove(number, key);
+   }
+
+   @Test(timeOut = 30000)
+   public void testMultiplePutsOnSameKeyWithLanes() throws Exception {
+      TestResourceTracker.testThreadStarted(this.getTestName());
+      createStore(4, 1);
+
+      final int number = 1000;
+      String key = "testMultiplePutsOnSameKeyWithLanes-k";
+      String value = "testMultiplePutsOnSameKeyWithLanes-v-";
+      doTestSameKeyPut(number, key, value);
+      doTestSameKeyRemove(key);
+   }
+
    @Test(timeOut = 30000)
    public void testMultiplePutsOnSameKey() throws Exception {
       TestResourceTracker.testThreadStarted(this.getTestName());
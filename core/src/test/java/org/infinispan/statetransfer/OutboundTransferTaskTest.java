@@ -6,10 +6,14 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -17,6 +21,7 @@
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
+import org.infinispan.commons.time.DefaultTimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
@@ -96,4 +101,92 @@ public void shouldNotifyForAllSegments() throws InterruptedException {
 
       assertEquals(transferred, segments);
    }
+
+   public void shouldSplitChunksBySize() throws Exception {
+      int numSegments = 2;
+      IntSet segments = IntSets.from(IntStream.range(0, numSegments).iterator());
+
+      RpcManager rpcManager = mock(RpcManager.class);
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+      OutboundTransferStatistics statistics = new OutboundTransferStatistics(numSegments, DefaultTimeService.INSTANCE);
+
+      // Each entry is estimated to 2 + 100 + 32 bytes, so a batch has 2 entries
+      OutboundTransferTask task = new OutboundTransferTask(Address.LOCAL, segments, numSegments, 512, 300, 1, 1,
+            chunks -> {}, rpcManager, commandsFactory, null, statistics, 10_000, "mock-cache", true);
+
+      ArgumentCaptor<Collection<StateChunk>> cmdCaptor = ArgumentCaptor.forClass(Collection.class);
+      when(commandsFactory.buildStateResponseCommand(anyInt(), cmdCaptor.capture(), anyBoolean()))
+            .thenReturn(mock(StateResponseCommand.class));
+      when(rpcManager.invokeCommand(any(Address.class), any(), any(), any()))
+            .thenAnswer(i -> CompletableFutures.completedNull());
+
+      List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> entries = new ArrayList<>();
+      for (int segment = 0; segment < numSegments; segment++) {
+         for (int i = 0; i < 5; i++) {
+            entries.add(Notifications.value(new ImmortalCacheEntry("k" + i, new byte[100]), segment));
+         }
+         entries.add(Notifications.segmentComplete(segment));
+      }
+
+      task.execute(Flowable.fromIterable(entries)).toCompletableFuture().get(15, TimeUnit.SECONDS);
+
+      assertEquals(cmdCaptor.getAllValues().size(), 5);
+      for (Collection<StateChunk> chunks : cmdCaptor.getAllValues()) {
+         assertEquals(chunks.stream().mapToInt(chunk -> chunk.getCacheEntries().size()).sum(), 2);
+      }
+      assertEquals(statistics.getEntries(), 10);
+      assertEquals(statistics.getBytes(), 10 * 134);
+      assertEquals(statistics.getCommands(), 5);
+      assertEquals(statistics.getInFlightCommands(), 0);
+      assertTrue(statistics.getSegmentThroughput(0) > 0);
+      assertTrue(statistics.getSegmentThroughput(1) > 0);
+   }
+
+   public void shouldPipelineChunks() throws Exception {
+      IntSet segments = IntSets.immutableSet(0);
+
+      RpcManager rpcManager = mock(RpcManager.class);
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+
+      OutboundTransferTask task = new OutboundTransferTask(Address.LOCAL, segments, 1, 1, 0, 2, 1, chunks -> {},
+            rpcManager, commandsFactory, null, new OutboundTransferStatistics(1, DefaultTimeService.INSTANCE),
+            10_000, "mock-cache", true);
+
+      ArgumentCaptor<Collection<StateChunk>> cmdCaptor = ArgumentCaptor.forClass(Collection.class);
+      when(commandsFactory.buildStateResponseCommand(anyInt(), cmdCaptor.capture(), anyBoolean()))
+            .thenReturn(mock(StateResponseCommand.class));
+      List<CompletableFuture<Object>> responses = new CopyOnWriteArrayList<>();
+      when(rpcManager.invokeCommand(any(Address.class), any(), any(), any()))
+            .thenAnswer(i -> {
+               CompletableFuture<Object> response = new CompletableFuture<>();
+               responses.add(response);
+               return response;
+            });
+
+      List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> entries = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+         entries.add(Notifications.value(new ImmortalCacheEntry("k" + i, "v" + i), 0));
+      }
+      entries.add(Notifications.segmentComplete(0));
+
+      CompletableFuture<Void> done = task.execute(Flowable.fromIterable(entries)).toCompletableFuture();
+
+      // Two batches are sent without waiting for their acknowledgement
+      assertEquals(responses.size(), 2);
+      responses.get(0).complete(null);
+      assertEquals(responses.size(), 3);
+      responses.get(1).complete(null);
+      assertEquals(responses.size(), 4);
+
+      // The last chunk of the segment is only sent after the other chunks are acknowledged
+      responses.get(2).complete(null);
+      assertEquals(responses.size(), 4);
+      responses.get(3).complete(null);
+      assertEquals(responses.size(), 5);
+      assertTrue(cmdCaptor.getAllValues().get(4).iterator().next().isLastChunk());
+      assertFalse(done.isDone());
+
+      responses.get(4).complete(null);
+      done.get(15, TimeUnit.SECONDS);
+   }
 }
@@ -25,6 +25,7 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
+import org.infinispan.commons.time.DefaultTimeService;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
@@ -33,6 +34,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.IsolationLevel;
+import org.infinispan.configuration.cache.StateTransferCompression;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.InternalDataContainer;
@@ -50,6 +52,8 @@
 import org.infinispan.reactive.publisher.impl.SegmentAwarePublisherSupplier;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.remoting.transport.Transport;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.testing.Exceptions;
 import org.infinispan.topology.CacheTopology;
@@ -158,7 +162,7 @@ public void test1() {
       StateProviderImpl stateProvider = new StateProviderImpl();
       TestingUtil.inject(stateProvider, configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
                          dataContainer, transactionTable, stateTransferLock, distributionManager, ef, lpm, keyPartitioner,
-                         TransactionOriginatorChecker.LOCAL, stt);
+                         TransactionOriginatorChecker.LOCAL, stt, DefaultTimeService.INSTANCE);
       stateProvider.start();
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<>();
@@ -255,7 +259,7 @@ public void test2() {
       StateProviderImpl stateProvider = new StateProviderImpl();
       TestingUtil.inject(stateProvider, configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
                          dataContainer, transactionTable, stateTransferLock, distributionManager, ef, lpm, keyPartitioner,
-                         TransactionOriginatorChecker.LOCAL, stt);
+                         TransactionOriginatorChecker.LOCAL, stt, DefaultTimeService.INSTANCE);
       stateProvider.start();
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<>();
@@ -326,4 +330,30 @@ public void test2() {
 
       assertFalse(stateProvider.isStateTransferInProgress());
    }
+
+   public void testCompressionWithOlderMembers() {
+      ConfigurationBuilder cb = new ConfigurationBuilder();
+      cb.read(configuration);
+      cb.clustering().stateTransfer().compression(StateTransferCompression.LZ4);
+      configuration = cb.build();
+
+      Transport transport = mock(Transport.class);
+      when(rpcManager.getTransport()).thenReturn(transport);
+      when(rpcManager.getAddress()).thenReturn(A);
+
+      StateProviderImpl stateProvider = new StateProviderImpl();
+      TestingUtil.inject(stateProvider, configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
+                         dataContainer, transactionTable, stateTransferLock, distributionManager, ef, lpm,
+                         new HashFunctionPartitioner(NUM_SEGMENTS), TransactionOriginatorChecker.LOCAL, stt,
+                         DefaultTimeService.INSTANCE);
+      stateProvider.start();
+
+      when(transport.getOldestMember()).thenReturn(NodeVersion.from((byte) 16, (byte) 1, (byte) 0));
+      assertFalse(stateProvider.compressChunks());
+
+      when(transport.getOldestMember()).thenReturn(NodeVersion.from((byte) 16, (byte) 2, (byte) 0));
+      assertTrue(stateProvider.compressChunks());
+
+      stateProvider.stop();
+   }
 }
@@ -0,0 +1,70 @@
+package org.infinispan.util;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * @since 16.2
+ */
+@Test(groups = "unit", testName = "util.LZ4BlockCodecTest")
+public class LZ4BlockCodecTest extends AbstractInfinispanTest {
+
+   public void testShortInputs() {
+      for (int length = 0; length < 32; length++) {
+         byte[] data = new byte[length];
+         Arrays.fill(data, (byte) 'a');
+         assertRoundTrip(data);
+      }
+   }
+
+   public void testRandomInput() {
+      byte[] data = new byte[100_000];
+      new Random(42).nextBytes(data);
+      byte[] compressed = assertRoundTrip(data);
+      assertTrue(compressed.length <= LZ4BlockCodec.maxCompressedLength(data.length));
+   }
+
+   public void testRepetitiveInput() {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 10_000; i++) {
+         sb.append("key-").append(i % 100).append("=value-").append(i % 7).append(';');
+      }
+      byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+      byte[] compressed = assertRoundTrip(data);
+      assertTrue(compressed.length < data.length / 2);
+   }
+
+   public void testLongRuns() {
+      // Matches longer than the 64KB window and runs of literals longer than 255 bytes
+      byte[] data = new byte[200_000];
+      Random random = new Random(7);
+      for (int i = 0; i < data.length; i += 1000) {
+         if (i % 3000 == 0) {
+            byte[] literals = new byte[1000];
+            random.nextBytes(literals);
+            System.arraycopy(literals, 0, data, i, 1000);
+         }
+      }
+      assertRoundTrip(data);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testWrongLength() {
+      byte[] compressed = LZ4BlockCodec.compress("some data, some data, some data".getBytes(StandardCharsets.UTF_8));
+      LZ4BlockCodec.decompress(compressed, 10);
+   }
+
+   private byte[] assertRoundTrip(byte[] data) {
+      byte[] compressed = LZ4BlockCodec.compress(data);
+      assertTrue(Arrays.equals(data, LZ4BlockCodec.decompress(compressed, data.length)));
+      assertEquals(data.length, LZ4BlockCodec.decompress(compressed, data.length).length);
+      return compressed;
+   }
+}
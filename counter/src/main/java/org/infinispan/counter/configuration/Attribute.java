@@ -18,8 +18,10 @@ public enum Attribute {
    NUM_OWNERS("num-owners"),
    RELIABILITY("reliability"),
    STORAGE("storage"),
+   STRONG_COUNTER_MODE("strong-counter-mode"),
    UPPER_BOUND("upper-bound"),
    VALUE("value"),
+   WEAK_COUNTER_STRIPING("weak-counter-striping"),
    LIFESPAN("lifespan");
    private static final Map<String, Attribute> ATTRIBUTES;
 
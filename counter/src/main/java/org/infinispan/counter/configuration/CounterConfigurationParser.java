@@ -88,6 +88,12 @@ private void parseCountersElement(ConfigurationReader reader, CounterManagerConf
             case RELIABILITY:
                builder.reliability(Reliability.valueOf(value));
                break;
+            case STRONG_COUNTER_MODE:
+               builder.strongCounterMode(StrongCounterMode.valueOf(value));
+               break;
+            case WEAK_COUNTER_STRIPING:
+               builder.weakCounterStriping(WeakCounterStriping.valueOf(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
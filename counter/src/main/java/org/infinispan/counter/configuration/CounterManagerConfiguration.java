@@ -14,7 +14,8 @@
 /**
  * The {@link org.infinispan.counter.api.CounterManager} configuration.
  * <p>
- * It configures the number of owners (number of copies in the cluster) of a counter and the {@link Reliability} mode.
+ * It configures the number of owners (number of copies in the cluster) of a counter, the {@link Reliability} mode and
+ * the {@link StrongCounterMode}.
  *
  * @author Pedro Ruivo
  * @since 9.0
@@ -37,6 +38,12 @@ public class CounterManagerConfiguration extends ConfigurationElement<CounterMan
             }
          })
          .immutable().build();
+   static final AttributeDefinition<StrongCounterMode> STRONG_COUNTER_MODE = AttributeDefinition
+         .builder(Attribute.STRONG_COUNTER_MODE, StrongCounterMode.CACHE)
+         .immutable().build();
+   static final AttributeDefinition<WeakCounterStriping> WEAK_COUNTER_STRIPING = AttributeDefinition
+         .builder(Attribute.WEAK_COUNTER_STRIPING, WeakCounterStriping.FIXED)
+         .immutable().build();
    private final Map<String, AbstractCounterConfiguration> counters;
 
    CounterManagerConfiguration(AttributeSet attributes, Map<String, AbstractCounterConfiguration> counters) {
@@ -45,7 +52,8 @@ public class CounterManagerConfiguration extends ConfigurationElement<CounterMan
    }
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(CounterManagerConfiguration.class, NUM_OWNERS, RELIABILITY);
+      return new AttributeSet(CounterManagerConfiguration.class, NUM_OWNERS, RELIABILITY, STRONG_COUNTER_MODE,
+            WEAK_COUNTER_STRIPING);
    }
 
    public int numOwners() {
@@ -56,6 +64,14 @@ public Reliability reliability() {
       return attributes.attribute(RELIABILITY).get();
    }
 
+   public StrongCounterMode strongCounterMode() {
+      return attributes.attribute(STRONG_COUNTER_MODE).get();
+   }
+
+   public WeakCounterStriping weakCounterStriping() {
+      return attributes.attribute(WEAK_COUNTER_STRIPING).get();
+   }
+
    public Map<String, AbstractCounterConfiguration> counters() {
       return Collections.unmodifiableMap(counters);
    }
@@ -77,6 +77,32 @@ public CounterManagerConfigurationBuilder reliability(Reliability reliability) {
       return this;
    }
 
+   /**
+    * Sets the {@link StrongCounterMode}.
+    * <p>
+    * Default value is {@link StrongCounterMode#CACHE}.
+    *
+    * @param mode the {@link StrongCounterMode}.
+    * @see StrongCounterMode
+    */
+   public CounterManagerConfigurationBuilder strongCounterMode(StrongCounterMode mode) {
+      attributes.attribute(CounterManagerConfiguration.STRONG_COUNTER_MODE).set(mode);
+      return this;
+   }
+
+   /**
+    * Sets the {@link WeakCounterStriping}.
+    * <p>
+    * Default value is {@link WeakCounterStriping#FIXED}.
+    *
+    * @param striping the {@link WeakCounterStriping}.
+    * @see WeakCounterStriping
+    */
+   public CounterManagerConfigurationBuilder weakCounterStriping(WeakCounterStriping striping) {
+      attributes.attribute(CounterManagerConfiguration.WEAK_COUNTER_STRIPING).set(striping);
+      return this;
+   }
+
    /**
     * @return a new {@link StrongCounterConfigurationBuilder} to configure a strong consistent counters.
     */
@@ -0,0 +1,21 @@
+package org.infinispan.counter.configuration;
+
+/**
+ * How {@link org.infinispan.counter.api.CounterManager} stores and updates the strong counters.
+ *
+ * @since 16.2
+ */
+public enum StrongCounterMode {
+   /**
+    * The counter's value is stored in a key of the counters cache and updated under the key lock.
+    */
+   CACHE,
+   /**
+    * The counter's value is replicated by a Raft state machine and the updates are appended to the Raft log in
+    * batches.
+    * <p>
+    * It requires the Raft members to be configured in the transport. If Raft is not available, the counters are stored
+    * in the counters cache.
+    */
+   RAFT
+}
@@ -0,0 +1,20 @@
+package org.infinispan.counter.configuration;
+
+/**
+ * How the weak counters choose the number of keys to update.
+ *
+ * @since 16.2
+ */
+public enum WeakCounterStriping {
+   /**
+    * The updates are spread across all the keys of the counter, as configured by the counter's concurrency level.
+    */
+   FIXED,
+   /**
+    * The updates start on a single key and the number of keys is increased, up to the counter's concurrency level,
+    * when concurrent updates are observed. It is decreased when the contention drops.
+    * <p>
+    * The counters with low contention create fewer entries in the counters cache.
+    */
+   ADAPTIVE
+}
@@ -4,14 +4,18 @@
 
 import org.infinispan.Cache;
 import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.counter.api.CounterConfiguration;
 import org.infinispan.counter.api.CounterType;
 import org.infinispan.counter.api.WeakCounter;
+import org.infinispan.counter.configuration.CounterManagerConfiguration;
+import org.infinispan.counter.configuration.WeakCounterStriping;
 import org.infinispan.counter.impl.entries.CounterKey;
 import org.infinispan.counter.impl.entries.CounterValue;
 import org.infinispan.counter.impl.manager.InternalCounterAdmin;
 import org.infinispan.counter.impl.weak.WeakCounterImpl;
 import org.infinispan.counter.impl.weak.WeakCounterKey;
+import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 
@@ -23,11 +27,13 @@
 @Scope(Scopes.GLOBAL)
 public class CacheBasedWeakCounterFactory extends CacheBaseCounterFactory<WeakCounterKey> implements WeakCounterFactory {
 
+   @Inject GlobalConfiguration globalConfiguration;
+
    @Override
    public CompletionStage<InternalCounterAdmin> createWeakCounter(String name, CounterConfiguration configuration) {
       assert configuration.type() == CounterType.WEAK;
       return cache(configuration).thenCompose(cache -> {
-         WeakCounterImpl counter = new WeakCounterImpl(name, cache, configuration, notificationManager);
+         WeakCounterImpl counter = new WeakCounterImpl(name, cache, configuration, notificationManager, striping());
          return registerListeners(cache).thenCompose(___ -> counter.init());
       });
    }
@@ -37,6 +43,11 @@ public CompletionStage<Void> removeWeakCounter(String name, CounterConfiguration
       return getCounterCacheAsync().thenCompose(cache -> WeakCounterImpl.removeWeakCounter(cache, configuration, name));
    }
 
+   private WeakCounterStriping striping() {
+      CounterManagerConfiguration config = globalConfiguration.module(CounterManagerConfiguration.class);
+      return config == null ? WeakCounterStriping.FIXED : config.weakCounterStriping();
+   }
+
    private CompletionStage<Void> registerListeners(Cache<? extends CounterKey, CounterValue> cache) {
       // topology listener is used to compute the keys where this node is the primary owner
       // adds are made on these keys to avoid contention and improve performance
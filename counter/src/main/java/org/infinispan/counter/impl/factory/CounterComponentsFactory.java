@@ -3,6 +3,8 @@
 import static org.infinispan.util.logging.Log.CONTAINER;
 
 import org.infinispan.counter.api.CounterManager;
+import org.infinispan.counter.configuration.CounterManagerConfiguration;
+import org.infinispan.counter.configuration.StrongCounterMode;
 import org.infinispan.counter.impl.listener.CounterManagerNotificationManager;
 import org.infinispan.counter.impl.manager.CounterConfigurationManager;
 import org.infinispan.counter.impl.manager.CounterConfigurationStorage;
@@ -39,7 +41,10 @@ public Object construct(String name) {
       if (name.equals(WeakCounterFactory.class.getName())) {
          return new CacheBasedWeakCounterFactory();
       } else if (name.equals(StrongCounterFactory.class.getName())) {
-         return new CacheBasedStrongCounterFactory();
+         CounterManagerConfiguration config = globalConfiguration.module(CounterManagerConfiguration.class);
+         return config != null && config.strongCounterMode() == StrongCounterMode.RAFT ?
+               new RaftStrongCounterFactory() :
+               new CacheBasedStrongCounterFactory();
       } else if (name.equals(CounterManagerNotificationManager.class.getName())) {
          return new CounterManagerNotificationManager();
       } else if (name.equals(CounterConfigurationManager.class.getName())) {
@@ -0,0 +1,90 @@
+package org.infinispan.counter.impl.factory;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.api.StrongCounter;
+import org.infinispan.counter.configuration.StrongCounterMode;
+import org.infinispan.counter.impl.manager.InternalCounterAdmin;
+import org.infinispan.counter.impl.raft.RaftCounterStateMachine;
+import org.infinispan.counter.impl.raft.RaftStrongCounter;
+import org.infinispan.counter.logging.Log;
+import org.infinispan.factories.GlobalComponentRegistry;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.remoting.transport.raft.RaftChannelConfiguration;
+import org.infinispan.remoting.transport.raft.RaftManager;
+
+/**
+ * Creates bounded and unbounded {@link StrongCounter} replicated with Raft, used by {@link StrongCounterMode#RAFT}.
+ * <p>
+ * All the counters share a single {@link RaftCounterStateMachine}, so the operations on different counters are batched
+ * in the same log entries. If Raft is not available, the counters are stored in the counters cache.
+ *
+ * @since 16.2
+ */
+@Scope(Scopes.GLOBAL)
+public class RaftStrongCounterFactory extends CacheBasedStrongCounterFactory {
+
+   public static final String CHANNEL_NAME = "org.infinispan.counter";
+   private static final Log log = Log.getLog(RaftStrongCounterFactory.class);
+
+   @Inject GlobalConfiguration globalConfiguration;
+   private volatile boolean initialized;
+   private volatile RaftCounterStateMachine stateMachine;
+
+   @Override
+   public CompletionStage<InternalCounterAdmin> createStrongCounter(String name, CounterConfiguration configuration) {
+      assert configuration.type() != CounterType.WEAK;
+      RaftCounterStateMachine stateMachine = stateMachine();
+      if (stateMachine == null) {
+         return super.createStrongCounter(name, configuration);
+      }
+      return new RaftStrongCounter(name, configuration, stateMachine, notificationManager).init();
+   }
+
+   @Override
+   public CompletionStage<Void> removeStrongCounter(String name) {
+      RaftCounterStateMachine stateMachine = stateMachine();
+      return stateMachine == null ?
+            super.removeStrongCounter(name) :
+            stateMachine.removeCounter(name);
+   }
+
+   private RaftCounterStateMachine stateMachine() {
+      if (!initialized) {
+         synchronized (this) {
+            if (!initialized) {
+               stateMachine = registerStateMachine();
+               if (stateMachine == null) {
+                  log.raftStrongCountersUnavailable();
+               }
+               initialized = true;
+            }
+         }
+      }
+      return stateMachine;
+   }
+
+   private RaftCounterStateMachine registerStateMachine() {
+      Transport transport = GlobalComponentRegistry.componentOf(cacheManager, Transport.class);
+      if (transport == null) {
+         return null;
+      }
+      RaftManager raftManager = transport.raftManager();
+      if (!raftManager.isRaftAvailable()) {
+         return null;
+      }
+      RaftChannelConfiguration configuration = new RaftChannelConfiguration.Builder()
+            .logMode(globalConfiguration.globalState().enabled() ?
+                  RaftChannelConfiguration.RaftLogMode.PERSISTENT :
+                  RaftChannelConfiguration.RaftLogMode.VOLATILE)
+            .build();
+      return raftManager.getOrRegisterStateMachine(CHANNEL_NAME,
+            () -> new RaftCounterStateMachine(notificationManager), configuration);
+   }
+}
@@ -124,6 +124,33 @@ public CompletionStage<Void> registerTopologyListener(Cache<? extends CounterKey
       return topologyListener.register(cache);
    }
 
+   /**
+    * Notifies the counter and its user's {@link CounterListener} that the counter's value has changed.
+    * <p>
+    * It is used by the counters that are not stored in the counters cache and are not notified by its cache listener.
+    *
+    * @param key   The counter's key.
+    * @param value The new {@link CounterValue} or {@code null} if the counter was removed.
+    */
+   public void counterUpdated(CounterKey key, CounterValue value) {
+      Holder holder = counters.get(key.getCounterName());
+      if (holder == null) {
+         return;
+      }
+      synchronized (holder.generator) {
+         //weak counter events execute the updateState method in parallel.
+         //if we don't synchronize, we can have events reordered.
+         triggerUserListener(holder.userListeners, holder.generator.generate(key, value));
+      }
+   }
+
+   private void triggerUserListener(List<CounterListenerResponse<?>> userListeners, CounterEvent event) {
+      if (userListeners.isEmpty() || event == null) {
+         return;
+      }
+      userListenerExecutor.execute(() -> userListeners.forEach(l -> l.onUpdate(event)), event);
+   }
+
    /**
     * It removes and stops sending notification to the counter.
     *
@@ -227,23 +254,7 @@ private class CounterValueListener {
       @CacheEntryModified
       @CacheEntryRemoved
       public void updateState(CacheEntryEvent<? extends CounterKey, CounterValue> event) {
-         CounterKey key = event.getKey();
-         Holder holder = counters.get(key.getCounterName());
-         if (holder == null) {
-            return;
-         }
-         synchronized (holder.generator) {
-            //weak counter events execute the updateState method in parallel.
-            //if we don't synchronize, we can have events reordered.
-            triggerUserListener(holder.userListeners, holder.generator.generate(key, event.getValue()));
-         }
-      }
-
-      private void triggerUserListener(List<CounterListenerResponse<?>> userListeners, CounterEvent event) {
-         if (userListeners.isEmpty() || event == null) {
-            return;
-         }
-         userListenerExecutor.execute(() -> userListeners.forEach(l -> l.onUpdate(event)), event);
+         counterUpdated(event.getKey(), event.getValue());
       }
 
       CompletionStage<Void> register(Cache<? extends CounterKey, CounterValue> cache) {
@@ -0,0 +1,111 @@
+package org.infinispan.counter.impl.raft;
+
+import static org.infinispan.counter.impl.entries.CounterValue.newCounterValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.counter.api.CounterState;
+import org.infinispan.counter.impl.entries.CounterValue;
+import org.infinispan.remoting.transport.raft.RaftChannel;
+
+/**
+ * Sends the operations submitted on this node to the Raft log in batches.
+ * <p>
+ * A single batch is in flight at a time. The operations submitted while it waits for the Raft commit are queued and
+ * sent together in the next log entry, up to {@link #MAX_BATCH_SIZE} operations, so the number of log entries grows
+ * with the commit latency instead of the number of operations.
+ *
+ * @since 16.2
+ */
+final class RaftCounterBatcher {
+
+   static final int MAX_BATCH_SIZE = 1024;
+
+   private final RaftChannel channel;
+   private final Queue<RaftCounterOperation> queue = new ConcurrentLinkedQueue<>();
+   private final AtomicBoolean sending = new AtomicBoolean();
+
+   RaftCounterBatcher(RaftChannel channel) {
+      this.channel = channel;
+   }
+
+   CompletableFuture<CounterValue> submit(RaftCounterOperation operation) {
+      queue.add(operation);
+      trySend();
+      return operation.result;
+   }
+
+   private void trySend() {
+      while (!queue.isEmpty() && sending.compareAndSet(false, true)) {
+         List<RaftCounterOperation> batch = new ArrayList<>(Math.min(queue.size(), MAX_BATCH_SIZE));
+         RaftCounterOperation operation;
+         while (batch.size() < MAX_BATCH_SIZE && (operation = queue.poll()) != null) {
+            batch.add(operation);
+         }
+         if (batch.isEmpty()) {
+            sending.set(false);
+            continue;
+         }
+         ByteBuffer buffer;
+         try {
+            buffer = encode(batch);
+         } catch (IOException e) {
+            batch.forEach(op -> op.result.completeExceptionally(e));
+            sending.set(false);
+            continue;
+         }
+         channel.send(buffer).whenComplete((response, throwable) -> {
+            try {
+               complete(batch, response, throwable);
+            } finally {
+               sending.set(false);
+               trySend();
+            }
+         });
+         return;
+      }
+   }
+
+   private static ByteBuffer encode(List<RaftCounterOperation> batch) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 32);
+      DataOutputStream output = new DataOutputStream(bytes);
+      output.writeInt(batch.size());
+      for (RaftCounterOperation operation : batch) {
+         operation.writeTo(output);
+      }
+      output.flush();
+      return ByteBufferImpl.create(bytes.toByteArray());
+   }
+
+   private static void complete(List<RaftCounterOperation> batch, ByteBuffer response, Throwable throwable) {
+      if (throwable != null) {
+         batch.forEach(op -> op.result.completeExceptionally(throwable));
+         return;
+      }
+      DataInputStream input = new DataInputStream(new ByteArrayInputStream(response.getBuf(), response.getOffset(),
+            response.getLength()));
+      try {
+         int size = input.readInt();
+         assert size == batch.size();
+         for (RaftCounterOperation operation : batch) {
+            CounterState state = CounterState.valueOf(input.readByte());
+            long value = input.readLong();
+            operation.result.complete(newCounterValue(value, state));
+         }
+      } catch (IOException | RuntimeException e) {
+         batch.forEach(op -> op.result.completeExceptionally(e));
+      }
+   }
+}
@@ -0,0 +1,182 @@
+package org.infinispan.counter.impl.raft;
+
+import static org.infinispan.counter.impl.entries.CounterValue.newCounterValue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterState;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.impl.entries.CounterValue;
+
+/**
+ * An operation on a strong counter, applied by the {@link RaftCounterStateMachine}.
+ * <p>
+ * The operation carries the counter's initial value and bounds, so the first operation applied creates the counter.
+ * The arithmetic is the same as the functions used by the counters stored in the cache.
+ *
+ * @since 16.2
+ */
+final class RaftCounterOperation {
+
+   static final byte READ = 0;
+   static final byte ADD = 1;
+   static final byte COMPARE_AND_SWAP = 2;
+   static final byte SET = 3;
+   static final byte RESET = 4;
+   static final byte REMOVE = 5;
+
+   final byte type;
+   final String counterName;
+   private final boolean bounded;
+   private final long initialValue;
+   private final long lowerBound;
+   private final long upperBound;
+   // the delta, the expected value or the new value
+   final long first;
+   // the new value of a compare-and-swap
+   final long second;
+   final CompletableFuture<CounterValue> result = new CompletableFuture<>();
+
+   private RaftCounterOperation(byte type, String counterName, boolean bounded, long initialValue, long lowerBound,
+                                long upperBound, long first, long second) {
+      this.type = type;
+      this.counterName = counterName;
+      this.bounded = bounded;
+      this.initialValue = initialValue;
+      this.lowerBound = lowerBound;
+      this.upperBound = upperBound;
+      this.first = first;
+      this.second = second;
+   }
+
+   static RaftCounterOperation create(byte type, String counterName, CounterConfiguration configuration, long first,
+                                      long second) {
+      boolean bounded = configuration.type() == CounterType.BOUNDED_STRONG;
+      return new RaftCounterOperation(type, counterName, bounded, configuration.initialValue(),
+            bounded ? configuration.lowerBound() : Long.MIN_VALUE, bounded ? configuration.upperBound() : Long.MAX_VALUE,
+            first, second);
+   }
+
+   static RaftCounterOperation remove(String counterName) {
+      return new RaftCounterOperation(REMOVE, counterName, false, 0, Long.MIN_VALUE, Long.MAX_VALUE, 0, 0);
+   }
+
+   static RaftCounterOperation readFrom(DataInput input) throws IOException {
+      byte type = input.readByte();
+      String counterName = input.readUTF();
+      boolean bounded = input.readBoolean();
+      long initialValue = input.readLong();
+      long lowerBound = bounded ? input.readLong() : Long.MIN_VALUE;
+      long upperBound = bounded ? input.readLong() : Long.MAX_VALUE;
+      long first = 0;
+      long second = 0;
+      switch (type) {
+         case COMPARE_AND_SWAP:
+            second = input.readLong();
+            // fall through
+         case ADD:
+         case SET:
+            first = input.readLong();
+            break;
+         default:
+      }
+      return new RaftCounterOperation(type, counterName, bounded, initialValue, lowerBound, upperBound, first, second);
+   }
+
+   void writeTo(DataOutput output) throws IOException {
+      output.writeByte(type);
+      output.writeUTF(counterName);
+      output.writeBoolean(bounded);
+      output.writeLong(initialValue);
+      if (bounded) {
+         output.writeLong(lowerBound);
+         output.writeLong(upperBound);
+      }
+      switch (type) {
+         case COMPARE_AND_SWAP:
+            output.writeLong(second);
+            // fall through
+         case ADD:
+         case SET:
+            output.writeLong(first);
+            break;
+         default:
+      }
+   }
+
+   /**
+    * @return The {@link CounterValue} of a counter that does not exist yet.
+    */
+   CounterValue initialValue() {
+      return bounded ?
+            newCounterValue(initialValue, lowerBound, upperBound) :
+            newCounterValue(initialValue);
+   }
+
+   /**
+    * @return {@link CounterState#VALID} if {@code value} is inside the counter's bounds, or the bound it exceeds.
+    */
+   CounterState checkBounds(long value) {
+      if (value < lowerBound) {
+         return CounterState.LOWER_BOUND_REACHED;
+      } else if (value > upperBound) {
+         return CounterState.UPPER_BOUND_REACHED;
+      }
+      return CounterState.VALID;
+   }
+
+   /**
+    * Adds the delta to {@code current}, saturating at the counter's bounds.
+    *
+    * @return The new {@link CounterValue} or {@code current} if the value does not change.
+    */
+   CounterValue add(CounterValue current) {
+      long delta = first;
+      if (delta == 0) {
+         return current;
+      }
+      if (bounded) {
+         if (delta > 0 && current.getState() == CounterState.UPPER_BOUND_REACHED ||
+               delta < 0 && current.getState() == CounterState.LOWER_BOUND_REACHED) {
+            return current;
+         }
+         try {
+            long addedValue = Math.addExact(current.getValue(), delta);
+            if (addedValue > upperBound) {
+               return newCounterValue(upperBound, CounterState.UPPER_BOUND_REACHED);
+            } else if (addedValue < lowerBound) {
+               return newCounterValue(lowerBound, CounterState.LOWER_BOUND_REACHED);
+            }
+            return newCounterValue(addedValue, CounterState.VALID);
+         } catch (ArithmeticException e) {
+            //overflow!
+            return delta > 0 ?
+                  newCounterValue(Long.MAX_VALUE, CounterState.UPPER_BOUND_REACHED) :
+                  newCounterValue(Long.MIN_VALUE, CounterState.LOWER_BOUND_REACHED);
+         }
+      }
+      if (current.getValue() == Long.MAX_VALUE && delta > 0 || current.getValue() == Long.MIN_VALUE && delta < 0) {
+         return current;
+      }
+      try {
+         return newCounterValue(Math.addExact(current.getValue(), delta));
+      } catch (ArithmeticException e) {
+         //overflow!
+         return newCounterValue(delta > 0 ? Long.MAX_VALUE : Long.MIN_VALUE);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "RaftCounterOperation{" +
+            "type=" + type +
+            ", counterName='" + counterName + '\'' +
+            ", first=" + first +
+            ", second=" + second +
+            '}';
+   }
+}
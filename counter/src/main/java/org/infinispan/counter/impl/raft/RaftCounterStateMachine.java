@@ -0,0 +1,168 @@
+package org.infinispan.counter.impl.raft;
+
+import static org.infinispan.counter.impl.entries.CounterValue.newCounterValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.counter.api.CounterListener;
+import org.infinispan.counter.api.CounterState;
+import org.infinispan.counter.impl.entries.CounterValue;
+import org.infinispan.counter.impl.listener.CounterManagerNotificationManager;
+import org.infinispan.counter.impl.strong.StrongCounterKey;
+import org.infinispan.remoting.transport.raft.RaftChannel;
+import org.infinispan.remoting.transport.raft.RaftStateMachine;
+
+/**
+ * A {@link RaftStateMachine} with the values of the strong counters.
+ * <p>
+ * Each entry in the Raft log is a batch of {@link RaftCounterOperation}, possibly for different counters, and the
+ * response contains the {@link CounterValue} of each operation in the same order. The reads are appended to the log as
+ * well, so they observe every update committed before them.
+ * <p>
+ * The entries are applied in the same order in all the members and each member notifies its local {@link
+ * CounterListener}.
+ *
+ * @since 16.2
+ */
+public class RaftCounterStateMachine implements RaftStateMachine {
+
+   private final Map<String, CounterValue> counters = new ConcurrentHashMap<>();
+   private final CounterManagerNotificationManager notificationManager;
+   private volatile RaftCounterBatcher batcher;
+
+   public RaftCounterStateMachine(CounterManagerNotificationManager notificationManager) {
+      this.notificationManager = notificationManager;
+   }
+
+   @Override
+   public void init(RaftChannel raftChannel) {
+      batcher = new RaftCounterBatcher(raftChannel);
+   }
+
+   CompletableFuture<CounterValue> submit(RaftCounterOperation operation) {
+      return batcher.submit(operation);
+   }
+
+   /**
+    * Removes the counter's value.
+    *
+    * @param counterName The counter's name.
+    * @return A {@link CompletableFuture} that is completed after the counter is removed.
+    */
+   public CompletableFuture<Void> removeCounter(String counterName) {
+      return submit(RaftCounterOperation.remove(counterName)).thenApply(unused -> null);
+   }
+
+   @Override
+   public ByteBuffer apply(ByteBuffer buffer) throws Exception {
+      DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer.getBuf(), buffer.getOffset(),
+            buffer.getLength()));
+      int size = input.readInt();
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + size * 9);
+      DataOutputStream output = new DataOutputStream(bytes);
+      output.writeInt(size);
+      for (int i = 0; i < size; ++i) {
+         CounterValue result = apply(RaftCounterOperation.readFrom(input));
+         output.writeByte(result.getState().ordinal());
+         output.writeLong(result.getValue());
+      }
+      output.flush();
+      return ByteBufferImpl.create(bytes.toByteArray());
+   }
+
+   private CounterValue apply(RaftCounterOperation operation) {
+      if (operation.type == RaftCounterOperation.REMOVE) {
+         if (counters.remove(operation.counterName) != null) {
+            notificationManager.counterUpdated(new StrongCounterKey(operation.counterName), null);
+         }
+         return newCounterValue(0);
+      }
+      CounterValue current = counters.get(operation.counterName);
+      if (current == null) {
+         current = operation.initialValue();
+      }
+      switch (operation.type) {
+         case RaftCounterOperation.READ:
+            return current;
+         case RaftCounterOperation.ADD:
+            CounterValue added = operation.add(current);
+            update(operation.counterName, current, added);
+            return added;
+         case RaftCounterOperation.COMPARE_AND_SWAP:
+            if (current.getValue() != operation.first) {
+               return newCounterValue(current.getValue());
+            }
+            return set(operation, current, operation.second);
+         case RaftCounterOperation.SET:
+            return set(operation, current, operation.first);
+         case RaftCounterOperation.RESET:
+            update(operation.counterName, current, operation.initialValue());
+            return newCounterValue(0);
+         default:
+            throw new IllegalArgumentException("Unknown operation " + operation.type);
+      }
+   }
+
+   /**
+    * @return The previous value or the bound reached by {@code update}.
+    */
+   private CounterValue set(RaftCounterOperation operation, CounterValue current, long update) {
+      CounterState state = operation.checkBounds(update);
+      if (state != CounterState.VALID) {
+         return newCounterValue(current.getValue(), state);
+      }
+      update(operation.counterName, current, newCounterValue(update));
+      return newCounterValue(current.getValue());
+   }
+
+   private void update(String counterName, CounterValue current, CounterValue update) {
+      counters.put(counterName, update);
+      if (!current.equals(update)) {
+         notificationManager.counterUpdated(new StrongCounterKey(counterName), update);
+      }
+   }
+
+   @Override
+   public void readStateFrom(DataInput dataInput) throws IOException {
+      int size = dataInput.readInt();
+      Map<String, CounterValue> state = new HashMap<>(size);
+      for (int i = 0; i < size; ++i) {
+         String counterName = dataInput.readUTF();
+         CounterState counterState = CounterState.valueOf(dataInput.readByte());
+         state.put(counterName, newCounterValue(dataInput.readLong(), counterState));
+      }
+      for (String counterName : counters.keySet()) {
+         if (!state.containsKey(counterName)) {
+            counters.remove(counterName);
+            notificationManager.counterUpdated(new StrongCounterKey(counterName), null);
+         }
+      }
+      state.forEach((counterName, value) -> {
+         counters.put(counterName, value);
+         notificationManager.counterUpdated(new StrongCounterKey(counterName), value);
+      });
+   }
+
+   @Override
+   public void writeStateTo(DataOutput dataOutput) throws IOException {
+      Map<String, CounterValue> copy = new HashMap<>(counters);
+      dataOutput.writeInt(copy.size());
+      for (Map.Entry<String, CounterValue> entry : copy.entrySet()) {
+         dataOutput.writeUTF(entry.getKey());
+         dataOutput.writeByte(entry.getValue().getState().ordinal());
+         dataOutput.writeLong(entry.getValue().getValue());
+      }
+   }
+}
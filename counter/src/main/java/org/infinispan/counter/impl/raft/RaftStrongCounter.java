@@ -0,0 +1,181 @@
+package org.infinispan.counter.impl.raft;
+
+import static org.infinispan.counter.exception.CounterOutOfBoundsException.LOWER_BOUND;
+import static org.infinispan.counter.exception.CounterOutOfBoundsException.UPPER_BOUND;
+import static org.infinispan.counter.impl.entries.CounterValue.newCounterValue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterEvent;
+import org.infinispan.counter.api.CounterListener;
+import org.infinispan.counter.api.CounterState;
+import org.infinispan.counter.api.Handle;
+import org.infinispan.counter.api.StrongCounter;
+import org.infinispan.counter.api.SyncStrongCounter;
+import org.infinispan.counter.impl.SyncStrongCounterAdapter;
+import org.infinispan.counter.impl.entries.CounterKey;
+import org.infinispan.counter.impl.entries.CounterValue;
+import org.infinispan.counter.impl.listener.CounterEventGenerator;
+import org.infinispan.counter.impl.listener.CounterEventImpl;
+import org.infinispan.counter.impl.listener.CounterManagerNotificationManager;
+import org.infinispan.counter.impl.manager.InternalCounterAdmin;
+import org.infinispan.counter.logging.Log;
+import org.infinispan.util.ByteString;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * A bounded or unbounded {@link StrongCounter} replicated by the {@link RaftCounterStateMachine}.
+ * <p>
+ * Writes: The operations are appended to the Raft log, batched with the other operations submitted on this node, and
+ * applied in the same order by all the members.
+ * <p>
+ * Reads: The reads are appended to the Raft log too. They are linearizable and they do not cost an extra log entry
+ * when there are concurrent updates.
+ * <p>
+ * Listeners: Each member applies the log and notifies its local {@link CounterListener}.
+ *
+ * @since 16.2
+ */
+public class RaftStrongCounter implements StrongCounter, CounterEventGenerator, InternalCounterAdmin {
+
+   private static final Log log = Log.getLog(RaftStrongCounter.class);
+
+   private final String counterName;
+   private final CounterConfiguration configuration;
+   private final RaftCounterStateMachine stateMachine;
+   private final CounterManagerNotificationManager notificationManager;
+   @GuardedBy("this")
+   private CounterValue weakCounter;
+
+   public RaftStrongCounter(String counterName, CounterConfiguration configuration,
+                            RaftCounterStateMachine stateMachine, CounterManagerNotificationManager notificationManager) {
+      this.counterName = counterName;
+      this.configuration = configuration;
+      this.stateMachine = stateMachine;
+      this.notificationManager = notificationManager;
+   }
+
+   public CompletionStage<InternalCounterAdmin> init() {
+      notificationManager.registerCounter(ByteString.fromString(counterName), this, null);
+      return submit(RaftCounterOperation.READ, 0, 0).thenAccept(this::initCounterState).thenApply(unused -> this);
+   }
+
+   @Override
+   public StrongCounter asStrongCounter() {
+      return this;
+   }
+
+   @Override
+   public CompletionStage<Void> destroy() {
+      notificationManager.removeCounter(ByteString.fromString(counterName));
+      return remove();
+   }
+
+   @Override
+   public CompletionStage<Long> value() {
+      return getValue();
+   }
+
+   @Override
+   public boolean isWeakCounter() {
+      return false;
+   }
+
+   @Override
+   public String getName() {
+      return counterName;
+   }
+
+   @Override
+   public CompletableFuture<Long> getValue() {
+      return submit(RaftCounterOperation.READ, 0, 0).thenApply(CounterValue::getValue);
+   }
+
+   @Override
+   public CompletableFuture<Long> addAndGet(long delta) {
+      return submit(RaftCounterOperation.ADD, delta, 0).thenApply(this::handleResult);
+   }
+
+   @Override
+   public CompletableFuture<Void> reset() {
+      return submit(RaftCounterOperation.RESET, 0, 0).thenApply(unused -> null);
+   }
+
+   @Override
+   public <T extends CounterListener> Handle<T> addListener(T listener) {
+      return notificationManager.registerUserListener(ByteString.fromString(counterName), listener);
+   }
+
+   @Override
+   public CompletableFuture<Long> compareAndSwap(long expect, long update) {
+      return submit(RaftCounterOperation.COMPARE_AND_SWAP, expect, update).thenApply(this::handleResult);
+   }
+
+   @Override
+   public CompletableFuture<Long> getAndSet(long value) {
+      return submit(RaftCounterOperation.SET, value, 0).thenApply(this::handleResult);
+   }
+
+   @Override
+   public CompletableFuture<Void> remove() {
+      return stateMachine.removeCounter(counterName);
+   }
+
+   @Override
+   public CounterConfiguration getConfiguration() {
+      return configuration;
+   }
+
+   @Override
+   public SyncStrongCounter sync() {
+      return new SyncStrongCounterAdapter(this);
+   }
+
+   @Override
+   public synchronized CounterEvent generate(CounterKey key, CounterValue value) {
+      CounterValue newValue = value == null ?
+            newCounterValue(configuration) :
+            value;
+      if (weakCounter == null || weakCounter.equals(newValue)) {
+         weakCounter = newValue;
+         return null;
+      } else {
+         CounterEvent event = CounterEventImpl.create(weakCounter, newValue);
+         weakCounter = newValue;
+         return event;
+      }
+   }
+
+   private CompletableFuture<CounterValue> submit(byte type, long first, long second) {
+      return stateMachine.submit(RaftCounterOperation.create(type, counterName, configuration, first, second));
+   }
+
+   private synchronized void initCounterState(CounterValue currentValue) {
+      if (weakCounter == null) {
+         weakCounter = currentValue;
+      }
+   }
+
+   private long handleResult(CounterValue counterValue) {
+      CounterState state = counterValue.getState();
+      switch (state) {
+         case LOWER_BOUND_REACHED:
+            throw new CompletionException(log.counterOurOfBounds(LOWER_BOUND));
+         case UPPER_BOUND_REACHED:
+            throw new CompletionException(log.counterOurOfBounds(UPPER_BOUND));
+         default:
+            return counterValue.getValue();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "RaftStrongCounter{" +
+            "counterName=" + counterName +
+            '}';
+   }
+}
@@ -22,7 +22,7 @@ public class StrongCounterKey implements CounterKey {
 
    private final ByteString counterName;
 
-   StrongCounterKey(String counterName) {
+   public StrongCounterKey(String counterName) {
       this(ByteString.fromString(counterName));
    }
 
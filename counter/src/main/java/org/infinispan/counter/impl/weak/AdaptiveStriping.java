@@ -0,0 +1,68 @@
+package org.infinispan.counter.impl.weak;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses how many keys of a {@link WeakCounterImpl} are updated by this node, based on the number of concurrent
+ * updates.
+ * <p>
+ * It starts with a single key and doubles the number of keys when the concurrent updates exceed {@link
+ * #GROW_THRESHOLD} per key. After {@link #WINDOW_SIZE} updates, it halves the number of keys if the concurrent updates
+ * never exceeded half of the keys in that window.
+ *
+ * @since 16.2
+ */
+final class AdaptiveStriping {
+
+   static final int GROW_THRESHOLD = 2;
+   static final int WINDOW_SIZE = 1024;
+
+   private final int maxSize;
+   private final Runnable onResize;
+   private final AtomicInteger pendingUpdates = new AtomicInteger();
+   private final AtomicInteger windowUpdates = new AtomicInteger();
+   private final AtomicInteger windowMaxPendingUpdates = new AtomicInteger();
+   private volatile int size;
+
+   AdaptiveStriping(int initialSize, int maxSize, Runnable onResize) {
+      this.size = initialSize;
+      this.maxSize = maxSize;
+      this.onResize = onResize;
+   }
+
+   /**
+    * @return the number of keys to update, always a power of two.
+    */
+   int size() {
+      return size;
+   }
+
+   /**
+    * Registers a new update, and resizes if needed.
+    */
+   void updateStarted() {
+      int pending = pendingUpdates.incrementAndGet();
+      windowMaxPendingUpdates.accumulateAndGet(pending, Math::max);
+      int currentSize = size;
+      if (pending > currentSize * GROW_THRESHOLD && currentSize < maxSize) {
+         resize(currentSize, currentSize << 1);
+      } else if (windowUpdates.incrementAndGet() == WINDOW_SIZE) {
+         int maxPending = windowMaxPendingUpdates.getAndSet(0);
+         windowUpdates.set(0);
+         if (currentSize > 1 && maxPending <= currentSize >> 1) {
+            resize(currentSize, currentSize >> 1);
+         }
+      }
+   }
+
+   void updateCompleted() {
+      pendingUpdates.decrementAndGet();
+   }
+
+   private synchronized void resize(int expectedSize, int newSize) {
+      if (size == expectedSize) {
+         size = newSize;
+         onResize.run();
+      }
+   }
+}
@@ -22,6 +22,7 @@
 import org.infinispan.counter.api.Handle;
 import org.infinispan.counter.api.SyncWeakCounter;
 import org.infinispan.counter.api.WeakCounter;
+import org.infinispan.counter.configuration.WeakCounterStriping;
 import org.infinispan.counter.impl.SyncWeakCounterAdapter;
 import org.infinispan.counter.impl.entries.CounterKey;
 import org.infinispan.counter.impl.entries.CounterValue;
@@ -48,10 +49,15 @@
  * chosen based on thread-id. This will take advantage of faster write operations. If the node is not a primary owner,
  * one of the key in key set is chosen.
  * <p>
+ * Adaptive striping: With {@link WeakCounterStriping#ADAPTIVE}, the writes only pick a key from the first keys of the
+ * key set. The number of keys starts at one and grows with the concurrent writes in this node, see {@link
+ * AdaptiveStriping}.
+ * <p>
  * Read: A read operation needs to read all the key set (including the remote keys). This is slower than atomic
  * counter.
  * <p>
- * Weak Read: A snapshot of all the keys values is kept locally and they are updated via cluster listeners.
+ * Weak Read: A snapshot of all the keys values is kept locally and they are updated via cluster listeners. The sum of
+ * the snapshots is cached and updated with each event, so a read does not iterate the key set.
  * <p>
  * Reset: The reset operation is <b>not</b> atomic and intermediate results may be observed.
  *
@@ -70,9 +76,17 @@ public class WeakCounterImpl implements WeakCounter, CounterEventGenerator, Topo
    private final CounterConfiguration configuration;
    private final CounterConfiguration zeroConfiguration;
    private final KeySelector selector;
+   private final AdaptiveStriping striping; //null if the striping is fixed
+   private volatile Long cachedValue; //null until all the entries have a snapshot
 
    public WeakCounterImpl(String counterName, AdvancedCache<WeakCounterKey, CounterValue> cache,
          CounterConfiguration configuration, CounterManagerNotificationManager notificationManager) {
+      this(counterName, cache, configuration, notificationManager, WeakCounterStriping.FIXED);
+   }
+
+   public WeakCounterImpl(String counterName, AdvancedCache<WeakCounterKey, CounterValue> cache,
+         CounterConfiguration configuration, CounterManagerNotificationManager notificationManager,
+         WeakCounterStriping striping) {
       this.cache = cache;
       this.notificationManager = notificationManager;
       FunctionalMap<WeakCounterKey, CounterValue> functionalMap = FunctionalMap.create(cache)
@@ -83,6 +97,9 @@ public WeakCounterImpl(String counterName, AdvancedCache<WeakCounterKey, Counter
       this.selector = cache.getCacheConfiguration().clustering().cacheMode().isClustered() ?
             new ClusteredKeySelector(entries) :
             new LocalKeySelector(entries);
+      this.striping = striping == WeakCounterStriping.ADAPTIVE ?
+            new AdaptiveStriping(1, entries.length, this::updatePreferredKeys) :
+            null;
       this.configuration = configuration;
       this.zeroConfiguration = CounterConfiguration.builder(CounterType.WEAK)
             .concurrencyLevel(configuration.concurrencyLevel()).storage(configuration.storage()).initialValue(0)
@@ -135,7 +152,7 @@ public CompletionStage<InternalCounterAdmin> init() {
                .thenAccept(value -> initEntry(index, value)));
       }
 
-      selector.updatePreferredKeys();
+      updatePreferredKeys();
       return stage.freeze();
    }
 
@@ -147,14 +164,21 @@ public String getName() {
    @Override
    public long getValue() {
       //return the initial value if it doesn't have a valid snapshot!
-      Long snapshot = getCachedValue();
+      Long snapshot = cachedValue;
       return snapshot == null ? configuration.initialValue() : snapshot;
    }
 
    @Override
    public CompletableFuture<Void> add(long delta) {
+      if (striping == null) {
+         WeakCounterKey key = findKey();
+         return readWriteMap.eval(key, new AddFunction<>(delta))
+               .thenCompose(counterValue -> handleAddResult(key, counterValue, delta));
+      }
+      striping.updateStarted();
       WeakCounterKey key = findKey();
       return readWriteMap.eval(key, new AddFunction<>(delta))
+            .whenComplete((counterValue, throwable) -> striping.updateCompleted())
             .thenCompose(counterValue -> handleAddResult(key, counterValue, delta));
    }
 
@@ -207,11 +231,17 @@ public synchronized CounterEvent generate(CounterKey key, CounterValue value) {
       long newValue = value == null ?
             defaultValueOfIndex(index) :
             value.getValue();
-      Long base = getCachedValue(index);
+      Long oldTotal = cachedValue;
       Long oldValue = entries[index].update(newValue);
-      return base == null || oldValue == null || oldValue == newValue ?
-            null :
-            CounterEventImpl.create(base + oldValue, base + newValue);
+      if (oldTotal == null || oldValue == null) {
+         cachedValue = getCachedValue();
+         return null;
+      } else if (oldValue == newValue) {
+         return null;
+      }
+      Long newTotal = updateCachedValue(oldTotal, oldValue, newValue);
+      cachedValue = newTotal;
+      return CounterEventImpl.create(oldTotal, newTotal);
    }
 
 
@@ -231,7 +261,7 @@ public SyncWeakCounter sync() {
 
    @Override
    public void topologyChanged() {
-      selector.updatePreferredKeys();
+      updatePreferredKeys();
    }
 
    /**
@@ -252,6 +282,13 @@ public WeakCounterKey[] getKeys() {
       return keys;
    }
 
+   /**
+    * Debug only!
+    */
+   public int getActiveKeys() {
+      return striping == null ? entries.length : striping.size();
+   }
+
    @Override
    public String toString() {
       return "WeakCounter{" +
@@ -263,39 +300,35 @@ private long defaultValueOfIndex(int index) {
       return index == 0 ? configuration.initialValue() : 0;
    }
 
-   private void initEntry(int index, Long value) {
+   private synchronized void initEntry(int index, Long value) {
       if (value == null) {
          value = defaultValueOfIndex(index);
       }
       entries[index].init(value);
+      cachedValue = getCachedValue();
    }
 
-   private Long getCachedValue() {
-      long value = 0;
-      int index = 0;
+   private void updatePreferredKeys() {
+      selector.updatePreferredKeys(getActiveKeys());
+   }
+
+   private Long updateCachedValue(long total, long oldValue, long newValue) {
+      if (total == Long.MAX_VALUE || total == Long.MIN_VALUE) {
+         //the sum may have overflowed
+         return getCachedValue();
+      }
       try {
-         for (; index < entries.length; ++index) {
-            Long toAdd = entries[index].snapshot;
-            if (toAdd == null) {
-               //we don't have a valid snapshot
-               return null;
-            }
-            value = Math.addExact(value, toAdd);
-         }
+         return Math.addExact(total, Math.subtractExact(newValue, oldValue));
       } catch (ArithmeticException e) {
-         return getCachedValue0(index, value, -1);
+         return getCachedValue();
       }
-      return value;
    }
 
-   private Long getCachedValue(int skipIndex) {
+   private Long getCachedValue() {
       long value = 0;
       int index = 0;
       try {
          for (; index < entries.length; ++index) {
-            if (index == skipIndex) {
-               continue;
-            }
             Long toAdd = entries[index].snapshot;
             if (toAdd == null) {
                //we don't have a valid snapshot
@@ -304,12 +337,12 @@ private Long getCachedValue(int skipIndex) {
             value = Math.addExact(value, toAdd);
          }
       } catch (ArithmeticException e) {
-         return getCachedValue0(index, value, skipIndex);
+         return getCachedValue0(index, value);
       }
       return value;
    }
 
-   private Long getCachedValue0(int index, long value, int skipIndex) {
+   private Long getCachedValue0(int index, long value) {
       BigInteger currentValue = BigInteger.valueOf(value);
       do {
          Long toAdd = entries[index++].snapshot;
@@ -318,9 +351,6 @@ private Long getCachedValue0(int index, long value, int skipIndex) {
             return null;
          }
          currentValue = currentValue.add(BigInteger.valueOf(toAdd));
-         if (index == skipIndex) {
-            index++;
-         }
       } while (index < entries.length);
       try {
          return currentValue.longValue();
@@ -378,47 +408,56 @@ Long update(long value) {
 
    private interface KeySelector {
       WeakCounterKey findKey(int hash);
-      void updatePreferredKeys();
+
+      /**
+       * @param size the number of keys to pick from, starting at the first key. It is a power of two.
+       */
+      void updatePreferredKeys(int size);
       WeakCounterKey[] getPreferredKeys();
    }
 
    private static final class LocalKeySelector implements KeySelector {
 
       private final Entry[] entries;
+      private volatile int size;
 
       private LocalKeySelector(Entry[] entries) {
          this.entries = entries;
+         this.size = entries.length;
       }
 
       @Override
       public WeakCounterKey findKey(int hash) {
-         return get(hash, entries).key;
+         return entries[hash & (size - 1)].key;
       }
 
       @Override
-      public void updatePreferredKeys() {
-         //no-op, everything is local
+      public void updatePreferredKeys(int size) {
+         //everything is local, only the number of keys changes
+         this.size = size;
       }
 
       @Override
       public WeakCounterKey[] getPreferredKeys() {
-         return Arrays.stream(entries).map(entry -> entry.key).toArray(WeakCounterKey[]::new);
+         return Arrays.stream(entries, 0, size).map(entry -> entry.key).toArray(WeakCounterKey[]::new);
       }
    }
 
    private final class ClusteredKeySelector implements KeySelector {
       private final Entry[] entries;
+      private volatile int size;
       private volatile WeakCounterKey[] preferredKeys; //null when no keys available
 
       private ClusteredKeySelector(Entry[] entries) {
          this.entries = entries;
+         this.size = entries.length;
       }
 
       @Override
       public WeakCounterKey findKey(int hash) {
          WeakCounterKey[] copy = preferredKeys;
          if (copy == null) {
-            return get(hash, entries).key;
+            return entries[hash & (size - 1)].key;
          } else if (copy.length == 1) {
             return copy[0];
          } else {
@@ -427,14 +466,15 @@ public WeakCounterKey findKey(int hash) {
       }
 
       @Override
-      public void updatePreferredKeys() {
-         ArrayList<WeakCounterKey> preferredKeys = new ArrayList<>(entries.length);
+      public void updatePreferredKeys(int size) {
+         ArrayList<WeakCounterKey> preferredKeys = new ArrayList<>(size);
          LocalizedCacheTopology topology = cache.getDistributionManager().getCacheTopology();
-         for (Entry entry : entries) {
-            if (topology.getDistribution(entry.key).isPrimary()) {
-               preferredKeys.add(entry.key);
+         for (int i = 0; i < size; ++i) {
+            if (topology.getDistribution(entries[i].key).isPrimary()) {
+               preferredKeys.add(entries[i].key);
             }
          }
+         this.size = size;
          this.preferredKeys = preferredKeys.isEmpty() ?
                null :
                preferredKeys.toArray(new WeakCounterKey[0]);
@@ -1,5 +1,7 @@
 package org.infinispan.counter.logging;
 
+import static org.jboss.logging.Logger.Level.WARN;
+
 import java.io.File;
 import java.lang.invoke.MethodHandles;
 
@@ -11,6 +13,7 @@
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
 import org.jboss.logging.annotations.Cause;
+import org.jboss.logging.annotations.LogMessage;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
 import org.jboss.logging.annotations.ValidIdRange;
@@ -118,4 +121,8 @@ static Log getLog(Class<?> clazz) {
 
    @Message(value = "MBean registration failed", id = 29529)
    CounterException jmxRegistrationFailed(@Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Raft is not available, strong counters are stored in the counters cache.", id = 29530)
+   void raftStrongCountersUnavailable();
 }
@@ -17,7 +17,9 @@
 import org.infinispan.counter.configuration.CounterManagerConfiguration;
 import org.infinispan.counter.configuration.Reliability;
 import org.infinispan.counter.configuration.StrongCounterConfiguration;
+import org.infinispan.counter.configuration.StrongCounterMode;
 import org.infinispan.counter.configuration.WeakCounterConfiguration;
+import org.infinispan.counter.configuration.WeakCounterStriping;
 import org.infinispan.counter.exception.CounterConfigurationException;
 import org.infinispan.test.fwk.CleanupAfterMethod;
 import org.infinispan.testing.Exceptions;
@@ -42,6 +44,8 @@ public void testParser() throws IOException {
       assertNotNull(counterManagerConfiguration);
       assertEquals(3, counterManagerConfiguration.numOwners());
       assertEquals(Reliability.CONSISTENT, counterManagerConfiguration.reliability());
+      assertEquals(StrongCounterMode.RAFT, counterManagerConfiguration.strongCounterMode());
+      assertEquals(WeakCounterStriping.ADAPTIVE, counterManagerConfiguration.weakCounterStriping());
       Map<String, AbstractCounterConfiguration> counters = counterManagerConfiguration.counters();
 
       assertStrongCounter("c1", counters.get("c1"), 1, Storage.PERSISTENT, false, Long.MIN_VALUE,
@@ -64,6 +68,8 @@ protected void compareExtraGlobalConfiguration(GlobalConfiguration configuration
 
       assertEquals(configBefore.numOwners(), configAfter.numOwners());
       assertEquals(configBefore.reliability(), configAfter.reliability());
+      assertEquals(configBefore.strongCounterMode(), configAfter.strongCounterMode());
+      assertEquals(configBefore.weakCounterStriping(), configAfter.weakCounterStriping());
 
       Map<String, AbstractCounterConfiguration> counterConfigBefore = configBefore.counters();
       Map<String, AbstractCounterConfiguration> counterConfigAfter = configAfter.counters();
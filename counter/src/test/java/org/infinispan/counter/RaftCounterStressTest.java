@@ -0,0 +1,179 @@
+package org.infinispan.counter;
+
+import static org.infinispan.counter.EmbeddedCounterManagerFactory.asCounterManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterManager;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.api.SyncStrongCounter;
+import org.infinispan.counter.configuration.CounterManagerConfigurationBuilder;
+import org.infinispan.counter.configuration.StrongCounterMode;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.AssertJUnit;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the throughput and the latency of the strong counters stored in the cache with the strong counters
+ * replicated with Raft.
+ *
+ * @since 16.2
+ */
+@Test(groups = "stress", testName = "counter.RaftCounterStressTest")
+public class RaftCounterStressTest extends AbstractInfinispanTest {
+
+   private static final long TEST_DURATION_MILLIS = TimeUnit.SECONDS.toMillis(30);
+   private static final int CLUSTER_SIZE = 3;
+   // latency samples kept by each thread
+   private static final int MAX_SAMPLES = 100_000;
+
+   @DataProvider(name = "threads")
+   private Object[][] threadPerNode() {
+      return new Object[][]{{1}, {4}, {16}};
+   }
+
+   @Test(dataProvider = "threads")
+   public void stress(int threadsPerNode) throws Exception {
+      Result cache = run(StrongCounterMode.CACHE, threadsPerNode);
+      Result raft = run(StrongCounterMode.RAFT, threadsPerNode);
+      System.out.println("== RESULTS ==");
+      System.out.println("Threads | Mode | Throughput (op/sec) | Avg latency (ms) | p99 latency (ms)");
+      cache.print(threadsPerNode * CLUSTER_SIZE);
+      raft.print(threadsPerNode * CLUSTER_SIZE);
+      System.out.println("== RESULTS ==");
+   }
+
+   private Result run(StrongCounterMode mode, int threadsPerNode) throws Exception {
+      List<EmbeddedCacheManager> cacheManagers = new ArrayList<>(CLUSTER_SIZE);
+      try {
+         for (int i = 0; i < CLUSTER_SIZE; ++i) {
+            GlobalConfigurationBuilder builder;
+            if (mode == StrongCounterMode.RAFT) {
+               builder = RaftStrongCounterTest.raftConfiguration(getClass().getSimpleName() + threadsPerNode, i,
+                     CLUSTER_SIZE);
+            } else {
+               builder = GlobalConfigurationBuilder.defaultClusteredBuilder();
+               builder.addModule(CounterManagerConfigurationBuilder.class).strongCounterMode(mode);
+            }
+            cacheManagers.add(TestCacheManagerFactory.createClusteredCacheManager(builder, new ConfigurationBuilder()));
+         }
+         TestingUtil.blockUntilViewsReceived(30000, cacheManagers);
+         if (mode == StrongCounterMode.RAFT) {
+            RaftStrongCounterTest.awaitRaftLeader(cacheManagers);
+         }
+         return stress(mode, cacheManagers, threadsPerNode);
+      } finally {
+         TestingUtil.killCacheManagers(cacheManagers);
+      }
+   }
+
+   private Result stress(StrongCounterMode mode, List<EmbeddedCacheManager> cacheManagers, int threadsPerNode)
+         throws ExecutionException, InterruptedException {
+      String counterName = mode.name();
+      int threads = threadsPerNode * CLUSTER_SIZE;
+      CyclicBarrier barrier = new CyclicBarrier(threads);
+      AtomicBoolean stop = new AtomicBoolean(false);
+      List<Future<Samples>> results = new ArrayList<>(threads);
+      for (EmbeddedCacheManager cacheManager : cacheManagers) {
+         CounterManager counterManager = asCounterManager(cacheManager);
+         counterManager.defineCounter(counterName, CounterConfiguration.builder(CounterType.UNBOUNDED_STRONG).build());
+         SyncStrongCounter counter = counterManager.getStrongCounter(counterName).sync();
+         for (int t = 0; t < threadsPerNode; ++t) {
+            results.add(fork(new StressCallable(counter, barrier, stop)));
+         }
+      }
+      long start = System.nanoTime();
+      Thread.sleep(TEST_DURATION_MILLIS);
+      stop.set(true);
+
+      long operations = 0;
+      List<long[]> samples = new ArrayList<>(threads);
+      for (Future<Samples> result : results) {
+         Samples threadSamples = result.get();
+         samples.add(threadSamples.latencies);
+         operations += threadSamples.operations;
+      }
+      long duration = System.nanoTime() - start;
+
+      long value = asCounterManager(cacheManagers.get(0)).getStrongCounter(counterName).sync().getValue();
+      for (EmbeddedCacheManager cacheManager : cacheManagers) {
+         AssertJUnit.assertEquals(value, asCounterManager(cacheManager).getStrongCounter(counterName).sync().getValue());
+      }
+      return new Result(mode, operations, duration, samples);
+   }
+
+   private static class Result {
+      private final StrongCounterMode mode;
+      private final long operations;
+      private final long durationNanos;
+      private final long[] latencies;
+
+      private Result(StrongCounterMode mode, long operations, long durationNanos, List<long[]> samples) {
+         this.mode = mode;
+         this.operations = operations;
+         this.durationNanos = durationNanos;
+         this.latencies = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+      }
+
+      void print(int threads) {
+         double throughput = operations * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+         double avg = Arrays.stream(latencies).average().orElse(0) / TimeUnit.MILLISECONDS.toNanos(1);
+         double p99 = latencies.length == 0 ?
+               0 :
+               (double) latencies[(int) (latencies.length * 0.99)] / TimeUnit.MILLISECONDS.toNanos(1);
+         System.out.printf("%d | %s | %,.2f | %,.3f | %,.3f%n", threads, mode, throughput, avg, p99);
+      }
+   }
+
+   private static class Samples {
+      private final long operations;
+      private final long[] latencies;
+
+      private Samples(long operations, long[] latencies) {
+         this.operations = operations;
+         this.latencies = latencies;
+      }
+   }
+
+   private static class StressCallable implements Callable<Samples> {
+
+      private final SyncStrongCounter counter;
+      private final CyclicBarrier barrier;
+      private final AtomicBoolean stop;
+
+      private StressCallable(SyncStrongCounter counter, CyclicBarrier barrier, AtomicBoolean stop) {
+         this.counter = counter;
+         this.barrier = barrier;
+         this.stop = stop;
+      }
+
+      @Override
+      public Samples call() throws Exception {
+         long[] latencies = new long[MAX_SAMPLES];
+         long operations = 0;
+         barrier.await();
+         while (!stop.get()) {
+            long start = System.nanoTime();
+            counter.incrementAndGet();
+            // keeps the latest samples when the buffer is full
+            latencies[(int) (operations++ % MAX_SAMPLES)] = System.nanoTime() - start;
+         }
+         return new Samples(operations, Arrays.copyOf(latencies, (int) Math.min(operations, MAX_SAMPLES)));
+      }
+   }
+}
@@ -0,0 +1,25 @@
+package org.infinispan.counter;
+
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.counter.configuration.StrongCounterMode;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Notification test for the {@link org.infinispan.counter.api.StrongCounter} with {@link StrongCounterMode#RAFT}.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "counter.RaftStrongCounterNotificationTest")
+public class RaftStrongCounterNotificationTest extends StrongCounterNotificationTest {
+
+   @BeforeClass(alwaysRun = true)
+   public void awaitRaftLeader() {
+      RaftStrongCounterTest.awaitRaftLeader(cacheManagers);
+   }
+
+   @Override
+   protected GlobalConfigurationBuilder configure(int nodeId) {
+      return RaftStrongCounterTest.raftConfiguration(getClass().getSimpleName(), nodeId, clusterSize());
+   }
+}
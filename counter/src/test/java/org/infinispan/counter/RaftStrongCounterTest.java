@@ -0,0 +1,96 @@
+package org.infinispan.counter;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterManager;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.api.StrongCounter;
+import org.infinispan.counter.configuration.CounterManagerConfigurationBuilder;
+import org.infinispan.counter.configuration.StrongCounterMode;
+import org.infinispan.counter.impl.factory.RaftStrongCounterFactory;
+import org.infinispan.counter.impl.listener.CounterManagerNotificationManager;
+import org.infinispan.counter.impl.raft.RaftCounterStateMachine;
+import org.infinispan.counter.impl.raft.RaftStrongCounter;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.remoting.transport.raft.RaftChannelConfiguration;
+import org.infinispan.remoting.transport.raft.RaftManager;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * A consistency test for bounded and unbounded {@link StrongCounter} with {@link StrongCounterMode#RAFT}.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "counter.RaftStrongCounterTest")
+public class RaftStrongCounterTest extends BoundedCounterTest {
+
+   private static final RaftChannelConfiguration RAFT_CONFIGURATION = new RaftChannelConfiguration.Builder()
+         .logMode(RaftChannelConfiguration.RaftLogMode.VOLATILE)
+         .build();
+
+   /**
+    * Configures a node with {@link StrongCounterMode#RAFT}.
+    * <p>
+    * Note, the node name must contain the test name!
+    */
+   static GlobalConfigurationBuilder raftConfiguration(String testName, int nodeId, int clusterSize) {
+      String[] raftMembers = new String[clusterSize];
+      for (int i = 0; i < clusterSize; ++i) {
+         raftMembers[i] = testName + "-" + i;
+      }
+      GlobalConfigurationBuilder builder = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      builder.transport().raftMembers(raftMembers).nodeName(raftMembers[nodeId]);
+      builder.addModule(CounterManagerConfigurationBuilder.class).strongCounterMode(StrongCounterMode.RAFT);
+      return builder;
+   }
+
+   /**
+    * Registers the counters' state machine in all the nodes and waits until the leader is elected.
+    */
+   static void awaitRaftLeader(List<EmbeddedCacheManager> cacheManagers) {
+      for (EmbeddedCacheManager cacheManager : cacheManagers) {
+         RaftManager raftManager = TestingUtil.extractGlobalComponent(cacheManager, Transport.class).raftManager();
+         CounterManagerNotificationManager notificationManager = TestingUtil.extractGlobalComponent(cacheManager,
+               CounterManagerNotificationManager.class);
+         raftManager.getOrRegisterStateMachine(RaftStrongCounterFactory.CHANNEL_NAME,
+               () -> new RaftCounterStateMachine(notificationManager), RAFT_CONFIGURATION);
+      }
+      for (EmbeddedCacheManager cacheManager : cacheManagers) {
+         RaftManager raftManager = TestingUtil.extractGlobalComponent(cacheManager, Transport.class).raftManager();
+         eventually(() -> raftManager.hasLeader(RaftStrongCounterFactory.CHANNEL_NAME));
+      }
+   }
+
+   @BeforeClass(alwaysRun = true)
+   public void awaitRaftLeader() {
+      awaitRaftLeader(cacheManagers);
+   }
+
+   public void testRaftCounter(Method method) {
+      String counterName = method.getName();
+      for (int i = 0; i < clusterSize(); ++i) {
+         CounterManager counterManager = counterManager(i);
+         counterManager.defineCounter(counterName, CounterConfiguration.builder(CounterType.UNBOUNDED_STRONG).build());
+         StrongCounter counter = counterManager.getStrongCounter(counterName);
+         assertTrue(String.valueOf(counter), counter instanceof RaftStrongCounter);
+         assertEquals(i + 1, counter.sync().incrementAndGet());
+      }
+      for (int i = 0; i < clusterSize(); ++i) {
+         assertEquals(clusterSize(), counterManager(i).getStrongCounter(counterName).sync().getValue());
+      }
+   }
+
+   @Override
+   protected GlobalConfigurationBuilder configure(int nodeId) {
+      return raftConfiguration(getClass().getSimpleName(), nodeId, clusterSize());
+   }
+}
@@ -0,0 +1,56 @@
+package org.infinispan.counter;
+
+import static org.infinispan.functional.FunctionalTestUtils.await;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.counter.api.CounterConfiguration;
+import org.infinispan.counter.api.CounterManager;
+import org.infinispan.counter.api.CounterType;
+import org.infinispan.counter.configuration.CounterManagerConfigurationBuilder;
+import org.infinispan.counter.configuration.WeakCounterStriping;
+import org.infinispan.counter.impl.weak.WeakCounterImpl;
+import org.testng.annotations.Test;
+
+/**
+ * A consistency test for {@link org.infinispan.counter.api.WeakCounter} with {@link WeakCounterStriping#ADAPTIVE}.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "counter.WeakCounterAdaptiveStripingTest")
+public class WeakCounterAdaptiveStripingTest extends WeakCounterTest {
+
+   public void testStripingGrowsWithConcurrentUpdates(Method method) {
+      String counterName = method.getName();
+      CounterManager counterManager = counterManager(0);
+      counterManager.defineCounter(counterName,
+            CounterConfiguration.builder(CounterType.WEAK).concurrencyLevel(16).build());
+      WeakCounterImpl counter = (WeakCounterImpl) counterManager.getWeakCounter(counterName);
+      assertEquals(1, counter.getActiveKeys());
+
+      List<CompletableFuture<Void>> updates = new ArrayList<>(256);
+      for (int i = 0; i < 256; ++i) {
+         updates.add(counter.add(1));
+      }
+      await(CompletableFuture.allOf(updates.toArray(new CompletableFuture[0])));
+
+      assertTrue(String.valueOf(counter.getActiveKeys()), counter.getActiveKeys() > 1);
+      for (int i = 0; i < clusterSize(); ++i) {
+         CounterManager manager = counterManager(i);
+         eventuallyEquals(256L, () -> manager.getWeakCounter(counterName).getValue());
+      }
+   }
+
+   @Override
+   protected GlobalConfigurationBuilder configure(int nodeId) {
+      GlobalConfigurationBuilder builder = super.configure(nodeId);
+      builder.addModule(CounterManagerConfigurationBuilder.class).weakCounterStriping(WeakCounterStriping.ADAPTIVE);
+      return builder;
+   }
+}
@@ -591,6 +591,16 @@ public CloseableIterator<Entry<Object, MetadataValue<Object>>> retrieveEntriesWi
       return delegate.retrieveEntriesWithMetadata(segments, batchSize);
    }
 
+   @Override
+   public Publisher<Entry<K, V>> publishAll(Set<? extends K> keys, int batchSize) {
+      return delegate.publishAll(keys, batchSize);
+   }
+
+   @Override
+   public CompletionStage<Void> putAll(Publisher<Entry<K, V>> entries, int batchSize) {
+      return delegate.putAll(entries, batchSize);
+   }
+
    @Override
    public Publisher<Entry<K, MetadataValue<V>>> publishEntriesWithMetadata(Set<Integer> segments, int batchSize) {
       return delegate.publishEntriesWithMetadata(segments, batchSize);
@@ -109,4 +109,18 @@ public interface ClusteredLock {
     * @throws ClusteredLockException when the lock does not exist
     */
    CompletableFuture<Boolean> isLockedByMe();
+
+   /**
+    * Returns a {@link CompletableFuture<Long>} holding the fencing token of the lock when it is owned by the caller and
+    * {@code -1} when the lock is owned by someone else or it's released.
+    * <p>
+    * The fencing token increases every time the lock is acquired. It can be sent with the requests to the resource
+    * protected by the lock, so the resource can reject the requests with a lower token than the last one it has seen,
+    * sent by a previous owner.
+    *
+    * @return a {@link CompletableFuture} holding a {@link Long}
+    * @throws ClusteredLockException when the lock does not exist
+    * @since 16.2
+    */
+   CompletableFuture<Long> getFencingToken();
 }
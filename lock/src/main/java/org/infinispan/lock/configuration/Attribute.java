@@ -10,6 +10,7 @@
 public enum Attribute {
    // must be first
    UNKNOWN(null),
+   FAIR("fair"),
    NAME("name"),
    NUM_OWNERS("num-owners"),
    RELIABILITY("reliability");
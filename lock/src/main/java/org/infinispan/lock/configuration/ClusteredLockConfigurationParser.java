@@ -64,6 +64,9 @@ private void parseClusteredLocksElement(ConfigurationReader reader, ClusteredLoc
             case RELIABILITY:
                builder.reliability(Reliability.valueOf(value));
                break;
+            case FAIR:
+               builder.fair(ParseUtils.parseBoolean(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
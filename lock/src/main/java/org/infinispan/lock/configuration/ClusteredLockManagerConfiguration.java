@@ -35,6 +35,9 @@ public class ClusteredLockManagerConfiguration {
          })
          .immutable().build();
 
+   static final AttributeDefinition<Boolean> FAIR = AttributeDefinition.builder(Attribute.FAIR, false)
+         .immutable().build();
+
    private final AttributeSet attributes;
 
    private final Map<String, ClusteredLockConfiguration> locks;
@@ -45,7 +48,7 @@ public class ClusteredLockManagerConfiguration {
    }
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ClusteredLockManagerConfiguration.class, NUM_OWNERS, RELIABILITY);
+      return new AttributeSet(ClusteredLockManagerConfiguration.class, NUM_OWNERS, RELIABILITY, FAIR);
    }
 
    public int numOwners() {
@@ -56,6 +59,10 @@ public Reliability reliability() {
       return attributes.attribute(RELIABILITY).get();
    }
 
+   public boolean fair() {
+      return attributes.attribute(FAIR).get();
+   }
+
    AttributeSet attributes() {
       return attributes;
    }
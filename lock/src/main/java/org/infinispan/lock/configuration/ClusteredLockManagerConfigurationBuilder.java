@@ -71,6 +71,22 @@ public ClusteredLockManagerConfigurationBuilder reliability(Reliability reliabil
       return this;
    }
 
+   /**
+    * Enables the fair mode.
+    * <p>
+    * In fair mode, the node owning the lock's state keeps a FIFO queue of the waiting requests and, when the lock is
+    * released, it hands the lock over to the first request in the queue. Only the node waiting for that request is
+    * notified, instead of waking all the waiting nodes to race for the lock.
+    * <p>
+    * Default value is {@code false}.
+    *
+    * @param fair {@code true} to enable the fair mode.
+    */
+   public ClusteredLockManagerConfigurationBuilder fair(boolean fair) {
+      attributes.attribute(ClusteredLockManagerConfiguration.FAIR).set(fair);
+      return this;
+   }
+
    @Override
    public void validate() {
       attributes.attributes().forEach(Attribute::validate);
@@ -11,6 +11,8 @@
             org.infinispan.lock.impl.entries.ClusteredLockKey.class,
             org.infinispan.lock.impl.entries.ClusteredLockValue.class,
             org.infinispan.lock.impl.entries.ClusteredLockState.class,
+            org.infinispan.lock.impl.entries.ClusteredLockWaiter.class,
+            org.infinispan.lock.impl.functions.FencingToken.class,
             org.infinispan.lock.impl.functions.IsLocked.class,
             org.infinispan.lock.impl.functions.LockFunction.class,
             org.infinispan.lock.impl.functions.UnlockFunction.class,
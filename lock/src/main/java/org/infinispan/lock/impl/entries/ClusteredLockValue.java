@@ -1,6 +1,10 @@
 package org.infinispan.lock.impl.entries;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.protostream.annotations.ProtoFactory;
@@ -10,6 +14,10 @@
 
 /**
  * Lock object inside the cache. Holds the lock owner, the lock request id and the status of the lock.
+ * <p>
+ * It also holds the fencing token, incremented every time the lock is acquired, and the FIFO queue of the requests
+ * waiting for the lock when the fair mode is enabled. When the lock is released, it is handed over to the first
+ * request in the queue.
  *
  * @author Katia Aresti, karesti@redhat.com
  * @since 9.2
@@ -21,12 +29,21 @@ public class ClusteredLockValue {
    private final String requestId;
    private final Address owner;
    private final ClusteredLockState state;
+   private final List<ClusteredLockWaiter> waiters;
+   private final long fencingToken;
 
-   @ProtoFactory
    public ClusteredLockValue(String requestId, Address owner, ClusteredLockState state) {
+      this(requestId, owner, state, Collections.emptyList(), 0);
+   }
+
+   @ProtoFactory
+   public ClusteredLockValue(String requestId, Address owner, ClusteredLockState state,
+                             List<ClusteredLockWaiter> waiters, long fencingToken) {
       this.requestId = requestId;
       this.owner = owner;
       this.state = state;
+      this.waiters = waiters == null ? Collections.emptyList() : waiters;
+      this.fencingToken = fencingToken;
    }
 
    @ProtoField(1)
@@ -44,6 +61,71 @@ public ClusteredLockState getState() {
       return state;
    }
 
+   @ProtoField(number = 4, collectionImplementation = ArrayList.class)
+   public List<ClusteredLockWaiter> getWaiters() {
+      return waiters;
+   }
+
+   @ProtoField(number = 5, defaultValue = "0")
+   public long getFencingToken() {
+      return fencingToken;
+   }
+
+   /**
+    * @return a copy of this value acquired by the request and with a new fencing token.
+    */
+   public ClusteredLockValue acquire(String requestId, Address owner) {
+      return new ClusteredLockValue(requestId, owner, ClusteredLockState.ACQUIRED,
+            without(w -> w.matches(requestId, owner)), fencingToken + 1);
+   }
+
+   /**
+    * @return a copy of this value handed over to the first request in the queue, or released if the queue is empty.
+    */
+   public ClusteredLockValue release() {
+      if (waiters.isEmpty()) {
+         return new ClusteredLockValue(null, null, ClusteredLockState.RELEASED, Collections.emptyList(), fencingToken);
+      }
+      ClusteredLockWaiter next = waiters.get(0);
+      return new ClusteredLockValue(next.getRequestId(), next.getOwner(), ClusteredLockState.ACQUIRED,
+            new ArrayList<>(waiters.subList(1, waiters.size())), fencingToken + 1);
+   }
+
+   /**
+    * @return a copy of this value with the request at the end of the queue, or this value if the request is already
+    * queued.
+    */
+   public ClusteredLockValue enqueue(String requestId, Address owner) {
+      for (ClusteredLockWaiter waiter : waiters) {
+         if (waiter.matches(requestId, owner)) {
+            return this;
+         }
+      }
+      List<ClusteredLockWaiter> newWaiters = new ArrayList<>(waiters.size() + 1);
+      newWaiters.addAll(waiters);
+      newWaiters.add(new ClusteredLockWaiter(requestId, owner));
+      return new ClusteredLockValue(this.requestId, this.owner, state, newWaiters, fencingToken);
+   }
+
+   /**
+    * @return a copy of this value without the waiting requests matching the predicate, or this value if none matches.
+    */
+   public ClusteredLockValue removeWaiters(Predicate<ClusteredLockWaiter> predicate) {
+      List<ClusteredLockWaiter> newWaiters = without(predicate);
+      return newWaiters == waiters ?
+            this :
+            new ClusteredLockValue(requestId, owner, state, newWaiters, fencingToken);
+   }
+
+   private List<ClusteredLockWaiter> without(Predicate<ClusteredLockWaiter> predicate) {
+      if (waiters.stream().noneMatch(predicate)) {
+         return waiters;
+      }
+      List<ClusteredLockWaiter> newWaiters = new ArrayList<>(waiters);
+      newWaiters.removeIf(predicate);
+      return newWaiters;
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) {
@@ -53,12 +135,14 @@ public boolean equals(Object o) {
          return false;
       }
       ClusteredLockValue that = (ClusteredLockValue) o;
-      return Objects.equals(requestId, that.requestId) && Objects.equals(owner, that.owner) && Objects.equals(state, that.state);
+      return fencingToken == that.fencingToken && Objects.equals(requestId, that.requestId) &&
+            Objects.equals(owner, that.owner) && Objects.equals(state, that.state) &&
+            Objects.equals(waiters, that.waiters);
    }
 
    @Override
    public int hashCode() {
-      return Objects.hash(requestId, owner, state);
+      return Objects.hash(requestId, owner, state, waiters, fencingToken);
    }
 
    @Override
@@ -67,6 +151,8 @@ public String toString() {
             " requestId=" + requestId +
             " owner=" + owner +
             " state=" + state +
+            " waiters=" + waiters +
+            " fencingToken=" + fencingToken +
             '}';
    }
 }
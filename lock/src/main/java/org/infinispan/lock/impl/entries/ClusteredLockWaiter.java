@@ -0,0 +1,66 @@
+package org.infinispan.lock.impl.entries;
+
+import java.util.Objects;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.Address;
+
+/**
+ * A lock request waiting in the queue of a fair lock. Holds the request id and the node waiting for the lock.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.CLUSTERED_LOCK_WAITER)
+public class ClusteredLockWaiter {
+
+   private final String requestId;
+   private final Address owner;
+
+   @ProtoFactory
+   public ClusteredLockWaiter(String requestId, Address owner) {
+      this.requestId = requestId;
+      this.owner = owner;
+   }
+
+   @ProtoField(1)
+   public String getRequestId() {
+      return requestId;
+   }
+
+   @ProtoField(2)
+   public Address getOwner() {
+      return owner;
+   }
+
+   public boolean matches(String requestId, Address owner) {
+      return Objects.equals(this.requestId, requestId) && Objects.equals(this.owner, owner);
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) {
+         return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+         return false;
+      }
+      ClusteredLockWaiter that = (ClusteredLockWaiter) o;
+      return Objects.equals(requestId, that.requestId) && Objects.equals(owner, that.owner);
+   }
+
+   @Override
+   public int hashCode() {
+      return Objects.hash(requestId, owner);
+   }
+
+   @Override
+   public String toString() {
+      return "ClusteredLockWaiter{" +
+            " requestId=" + requestId +
+            " owner=" + owner +
+            '}';
+   }
+}
@@ -0,0 +1,47 @@
+package org.infinispan.lock.impl.functions;
+
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.functional.EntryView;
+import org.infinispan.lock.impl.entries.ClusteredLockKey;
+import org.infinispan.lock.impl.entries.ClusteredLockState;
+import org.infinispan.lock.impl.entries.ClusteredLockValue;
+import org.infinispan.lock.logging.Log;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.Address;
+
+/**
+ * FencingToken function that returns the fencing token of the lock when it is acquired by the requestor, and
+ * {@code -1} when it is not.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.CLUSTERED_LOCK_FUNCTION_FENCING_TOKEN)
+public class FencingToken implements Function<EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLockValue>, Long> {
+
+   private static final Log log = Log.getLog(FencingToken.class);
+
+   private final Address requestor;
+
+   @ProtoFactory
+   public FencingToken(Address requestor) {
+      this.requestor = requestor;
+   }
+
+   @ProtoField(1)
+   Address getRequestor() {
+      return requestor;
+   }
+
+   @Override
+   public Long apply(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLockValue> entryView) {
+      ClusteredLockValue lock = entryView.find().orElseThrow(log::lockDeleted);
+      if (lock.getState() == ClusteredLockState.ACQUIRED && requestor.equals(lock.getOwner())) {
+         return lock.getFencingToken();
+      }
+      return -1L;
+   }
+}
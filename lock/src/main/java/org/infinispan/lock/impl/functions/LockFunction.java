@@ -16,6 +16,9 @@
 /**
  * Lock function that allows to acquire the lock by a requestor, if such action is possible. It returns {@link
  * Boolean#TRUE} when the lock is acquired and {@link Boolean#FALSE} when it is not.
+ * <p>
+ * If the lock is not available and {@code enqueue} is {@code true}, the request is added to the end of the lock's
+ * queue, so it is handed over the lock when the previous requests release it.
  *
  * @author Katia Aresti, karesti@redhat.com
  * @since 9.2
@@ -27,11 +30,17 @@ public class LockFunction implements Function<EntryView.ReadWriteEntryView<Clust
 
    private final String requestId;
    private final Address requestor;
+   private final boolean enqueue;
 
-   @ProtoFactory
    public LockFunction(String requestId, Address requestor) {
+      this(requestId, requestor, false);
+   }
+
+   @ProtoFactory
+   public LockFunction(String requestId, Address requestor, boolean enqueue) {
       this.requestId = requestId;
       this.requestor = requestor;
+      this.enqueue = enqueue;
    }
 
    @ProtoField(1)
@@ -44,6 +53,11 @@ Address getRequestor() {
       return requestor;
    }
 
+   @ProtoField(number = 3, defaultValue = "false")
+   boolean isEnqueue() {
+      return enqueue;
+   }
+
    @Override
    public Boolean apply(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLockValue> entryView) {
       ClusteredLockValue lock = entryView.find().orElseThrow(() -> log.lockDeleted());
@@ -51,7 +65,7 @@ public Boolean apply(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLoc
          log.tracef("LOCK[%s] lock request by reqId %s requestor %s", entryView.key().getName(), requestId, requestor);
       }
       if (lock.getState() == ClusteredLockState.RELEASED) {
-         entryView.set(new ClusteredLockValue(requestId, requestor, ClusteredLockState.ACQUIRED));
+         entryView.set(lock.acquire(requestId, requestor));
          if (log.isTraceEnabled()) {
             log.tracef("LOCK[%s] lock acquired by %s %s", entryView.key().getName(), requestId, requestor);
          }
@@ -60,6 +74,16 @@ public Boolean apply(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLoc
          log.tracef("LOCK[%s] lock already acquired by %s %s", entryView.key().getName(), requestId, requestor);
          return Boolean.TRUE;
       }
+      if (enqueue) {
+         ClusteredLockValue queued = lock.enqueue(requestId, requestor);
+         if (queued != lock) {
+            entryView.set(queued);
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("LOCK[%s] lock request %s %s queued, owned by %s %s", entryView.key().getName(), requestId, requestor, lock.getRequestId(), lock.getOwner());
+         }
+         return Boolean.FALSE;
+      }
       if (log.isTraceEnabled()) {
          log.tracef("LOCK[%s] lock not available, owned by %s %s", entryView.key().getName(), lock.getRequestId(), lock.getOwner());
       }
@@ -9,6 +9,7 @@
 import org.infinispan.lock.impl.entries.ClusteredLockKey;
 import org.infinispan.lock.impl.entries.ClusteredLockState;
 import org.infinispan.lock.impl.entries.ClusteredLockValue;
+import org.infinispan.lock.impl.entries.ClusteredLockWaiter;
 import org.infinispan.lock.logging.Log;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
@@ -24,6 +25,9 @@
  *    <li>If the requestId is null, this value does not affect the unlock </li>
  *    <li>If the requestId is not null, the lock will be released only if the requestId and the owner match</li>
  *    <li>If lock is already released, nothing happens</li>
+ *    <li>If the requestId is not null, the matching request is removed from the lock's queue</li>
+ *    <li>If removeWaiters is true, the requests of the requestors are removed from the lock's queue</li>
+ *    <li>When the lock is released, it is handed over to the first request in the queue, if any</li>
  * </ul>
  * <p>
  *
@@ -37,16 +41,21 @@ public class UnlockFunction implements Function<EntryView.ReadWriteEntryView<Clu
 
    private final String requestId;
    private final Set<Address> requesters;
+   private final boolean removeWaiters;
 
    public UnlockFunction(Address requestor) {
-      this.requestId = null;
-      this.requesters = Collections.singleton(requestor);
+      this(null, Collections.singleton(requestor));
    }
 
-   @ProtoFactory
    public UnlockFunction(String requestId, Set<Address> requesters) {
+      this(requestId, requesters, false);
+   }
+
+   @ProtoFactory
+   public UnlockFunction(String requestId, Set<Address> requesters, boolean removeWaiters) {
       this.requestId = requestId;
       this.requesters = requesters;
+      this.removeWaiters = removeWaiters;
    }
 
    @ProtoField(1)
@@ -59,19 +68,26 @@ Set<Address> getRequesters() {
       return requesters;
    }
 
+   @ProtoField(number = 3, defaultValue = "false")
+   boolean isRemoveWaiters() {
+      return removeWaiters;
+   }
+
    @Override
    public Boolean apply(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLockValue> entryView) {
       if (log.isTraceEnabled()) {
          log.tracef("Lock[%s] unlock request by reqId [%s] requestors %s", entryView.key().getName(), requestId, requesters);
       }
 
-      ClusteredLockValue lockValue = entryView.find().orElseThrow(() -> log.lockDeleted());
+      ClusteredLockValue currentValue = entryView.find().orElseThrow(() -> log.lockDeleted());
+      ClusteredLockValue lockValue = currentValue.removeWaiters(this::isRemovedWaiter);
 
       // If the lock is already released return true
       if (lockValue.getState() == ClusteredLockState.RELEASED) {
          if (log.isTraceEnabled()) {
             log.tracef("Lock[%s] Already free. State[RELEASED], reqId [%s], owner [%s]", entryView.key().getName(), lockValue.getRequestId(), lockValue.getOwner());
          }
+         updateWaiters(entryView, currentValue, lockValue);
          return Boolean.TRUE;
       }
 
@@ -84,7 +100,7 @@ public Boolean apply(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLoc
             log.tracef("Lock[%s] Unlocked by reqId [%s] requestors %s", entryView.key().getName(), requestId, requesters);
          }
 
-         entryView.set(ClusteredLockValue.INITIAL_STATE);
+         entryView.set(lockValue.release());
          return Boolean.TRUE;
       }
 
@@ -98,6 +114,21 @@ public Boolean apply(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLoc
                lockValue.getOwner());
       }
 
+      updateWaiters(entryView, currentValue, lockValue);
       return Boolean.FALSE;
    }
+
+   private boolean isRemovedWaiter(ClusteredLockWaiter waiter) {
+      if (!requesters.contains(waiter.getOwner())) {
+         return false;
+      }
+      return removeWaiters || (requestId != null && requestId.equals(waiter.getRequestId()));
+   }
+
+   private static void updateWaiters(EntryView.ReadWriteEntryView<ClusteredLockKey, ClusteredLockValue> entryView,
+                                     ClusteredLockValue currentValue, ClusteredLockValue newValue) {
+      if (currentValue != newValue) {
+         entryView.set(newValue);
+      }
+   }
 }
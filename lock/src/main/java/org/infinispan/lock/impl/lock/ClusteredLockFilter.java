@@ -1,7 +1,10 @@
 package org.infinispan.lock.impl.lock;
 
+import java.util.Objects;
+
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.lock.impl.entries.ClusteredLockKey;
+import org.infinispan.lock.impl.entries.ClusteredLockState;
 import org.infinispan.lock.impl.entries.ClusteredLockValue;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
@@ -9,9 +12,13 @@
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.Address;
 
 /**
  * This listener is used to monitor lock state changes.
+ * <p>
+ * If the owner is set, used by the fair locks, it only accepts the events where the lock is acquired by the owner and
+ * the removal of the lock. Only the node receiving the lock is notified when the lock is handed over.
  * More about listeners {@see http://infinispan.org/docs/stable/user_guide/user_guide.html#cache_level_notifications}
  *
  * @author Katia Aresti, karesti@redhat.com
@@ -23,13 +30,29 @@ public class ClusteredLockFilter implements CacheEventFilter<ClusteredLockKey, C
    @ProtoField(1)
    final ClusteredLockKey name;
 
-   @ProtoFactory
+   @ProtoField(2)
+   final Address owner;
+
    public ClusteredLockFilter(ClusteredLockKey name) {
+      this(name, null);
+   }
+
+   @ProtoFactory
+   public ClusteredLockFilter(ClusteredLockKey name, Address owner) {
       this.name = name;
+      this.owner = owner;
    }
 
    @Override
    public boolean accept(ClusteredLockKey key, ClusteredLockValue oldValue, Metadata oldMetadata, ClusteredLockValue newValue, Metadata newMetadata, EventType eventType) {
-      return name.equals(key);
+      if (!name.equals(key)) {
+         return false;
+      }
+      if (owner == null || eventType.isRemove()) {
+         return true;
+      }
+      // Ignore the changes to the queue while the owner keeps the lock
+      return newValue != null && newValue.getState() == ClusteredLockState.ACQUIRED && owner.equals(newValue.getOwner()) &&
+            (oldValue == null || !Objects.equals(oldValue.getRequestId(), newValue.getRequestId()));
    }
 }
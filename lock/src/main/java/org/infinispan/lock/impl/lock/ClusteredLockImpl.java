@@ -5,7 +5,9 @@
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -19,6 +21,7 @@
 import org.infinispan.lock.impl.entries.ClusteredLockKey;
 import org.infinispan.lock.impl.entries.ClusteredLockState;
 import org.infinispan.lock.impl.entries.ClusteredLockValue;
+import org.infinispan.lock.impl.functions.FencingToken;
 import org.infinispan.lock.impl.functions.IsLocked;
 import org.infinispan.lock.impl.functions.LockFunction;
 import org.infinispan.lock.impl.functions.UnlockFunction;
@@ -45,6 +48,10 @@
  * case the node</li> <li>lock method does not expire til the lock is acquired, so this can cause thread starvation in
  * the actual implementation</li> </lu>
  * <p>
+ * <h2>Fair mode</h2> <lu> <li>The node owning the lock's state keeps a FIFO queue of the requests waiting for the
+ * lock</li> <li>When the lock is released, it is handed over to the first request in the queue and only the node
+ * waiting for that request is notified</li> <li>Each acquisition increments the lock's fencing token</li> </lu>
+ * <p>
  * <h2>Partition handling</h2>
  *
  * @author Katia Aresti, karesti@redhat.com
@@ -60,6 +67,9 @@ public class ClusteredLockImpl implements ClusteredLock {
    private final EmbeddedClusteredLockManager clusteredLockManager;
    private final FunctionalMap.ReadWriteMap<ClusteredLockKey, ClusteredLockValue> readWriteMap;
    private final Queue<RequestHolder> pendingRequests;
+   private final ConcurrentMap<String, RequestHolder<?>> waitingRequests;
+   private final boolean fair;
+   private final ClusteredLockStatistics statistics;
    private final Address originator;
    private final AtomicInteger viewChangeUnlockHappening = new AtomicInteger(0);
    private final RequestExpirationScheduler requestExpirationScheduler;
@@ -75,13 +85,16 @@ public ClusteredLockImpl(String name,
       this.clusteredLockCache = clusteredLockCache;
       this.clusteredLockManager = clusteredLockManager;
       this.pendingRequests = new ConcurrentLinkedQueue<>();
+      this.waitingRequests = new ConcurrentHashMap<>();
+      this.fair = clusteredLockManager.isFair();
+      this.statistics = clusteredLockManager.getStatistics();
       this.readWriteMap = FunctionalMap.create(clusteredLockCache).toReadWriteMap();
       this.originator = clusteredLockCache.getCacheManager().getAddress();
       this.requestExpirationScheduler = new RequestExpirationScheduler(clusteredLockManager.getScheduledExecutorService());
       this.clusterChangeListener = new ClusterChangeListener();
       this.lockReleasedListener = new LockReleasedListener();
       this.clusteredLockCache.getCacheManager().addListener(clusterChangeListener);
-      this.clusteredLockCache.addFilteredListener(lockReleasedListener, new ClusteredLockFilter(lockKey), null,
+      this.clusteredLockCache.addFilteredListener(lockReleasedListener, new ClusteredLockFilter(lockKey, fair ? originator : null), null,
             Util.asSet(CacheEntryModified.class, CacheEntryRemoved.class));
    }
 
@@ -95,11 +108,14 @@ public void stop() {
       protected final CompletableFuture<E> request;
       protected final String requestId;
       protected final Address requestor;
+      protected final long startTime;
 
       public RequestHolder(Address requestor, CompletableFuture<E> request) {
          this.requestId = createRequestId();
          this.requestor = requestor;
          this.request = request;
+         this.startTime = statistics.requestStarted();
+         request.whenComplete((result, ex) -> statistics.requestCompleted(startTime, ex == null && !Boolean.FALSE.equals(result)));
       }
 
       public boolean isDone() {
@@ -242,7 +258,10 @@ class LockReleasedListener {
       @CacheEntryModified
       public void entryModified(CacheEntryModifiedEvent event) {
          ClusteredLockValue value = (ClusteredLockValue) event.getValue();
-         if (value.getState() == ClusteredLockState.RELEASED) {
+         if (fair) {
+            // The filter only accepts the events where the lock is acquired by this node
+            lockHandedOver(value);
+         } else if (value.getState() == ClusteredLockState.RELEASED) {
             if (log.isTraceEnabled()) {
                log.tracef("LOCK[%s] Lock has been released, %s notified", getName(), originator);
             }
@@ -257,7 +276,28 @@ public void entryRemoved(CacheEntryRemovedEvent event) {
             requestHolder.handleLockResult(null, log.lockDeleted());
             requestExpirationScheduler.abortScheduling(requestHolder.requestId);
          }
+         for (RequestHolder<?> requestHolder : waitingRequests.values()) {
+            requestHolder.handleLockResult(null, log.lockDeleted());
+            requestExpirationScheduler.abortScheduling(requestHolder.requestId);
+         }
+      }
+   }
+
+   private void lockHandedOver(ClusteredLockValue value) {
+      RequestHolder<?> requestHolder = waitingRequests.get(value.getRequestId());
+      if (requestHolder == null) {
+         // The request completed already, or it expired and the unlock is on its way
+         if (log.isTraceEnabled()) {
+            log.tracef("LOCK[%s] Request %s is not waiting in %s", getName(), value.getRequestId(), originator);
+         }
+         return;
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("LOCK[%s] Lock has been handed over to %s", getName(), requestHolder);
       }
+      // Confirm the ownership with the lock function, it returns true for the current owner. This also completes the
+      // request outside the listener thread, like the non-fair requests
+      enqueue(requestHolder);
    }
 
    private void retryPendingRequests(ClusteredLockValue value) {
@@ -284,7 +324,12 @@ private void retryPendingRequests(ClusteredLockValue value) {
    }
 
    private void retryPendingRequests() {
-      retryPendingRequests(null);
+      if (fair) {
+         // The queue might have lost requests or missed a hand over during the view change, so enqueue them again
+         waitingRequests.values().forEach(this::enqueue);
+      } else {
+         retryPendingRequests(null);
+      }
    }
 
    private boolean isSameRequest(RequestHolder nextRequestor, ClusteredLockValue value) {
@@ -351,7 +396,7 @@ private void forceUnlockForLeavingMembers(Set<Address> possibleOwners) {
          if (log.isTraceEnabled()) {
             log.tracef("LOCK[%s] viewChangeUnlockHappening value in %s ", getName(), viewChangeUnlockValue, originator);
          }
-         unlock(null, possibleOwners)
+         unlock(null, possibleOwners, true)
                .whenComplete((unlockResult, ex) -> {
                   if (log.isTraceEnabled()) {
                      log.tracef("LOCK[%s] Force unlock call completed for %s from %s ", getName(), possibleOwners, originator);
@@ -380,10 +425,26 @@ public CompletableFuture<Void> lock() {
          log.tracef("LOCK[%s] lock called from %s", getName(), originator);
       }
       CompletableFuture<Void> lockRequest = new CompletableFuture<>();
-      lock(new LockRequestHolder(originator, lockRequest));
+      LockRequestHolder requestHolder = new LockRequestHolder(originator, lockRequest);
+      if (fair) {
+         enqueue(requestHolder);
+      } else {
+         lock(requestHolder);
+      }
       return lockRequest;
    }
 
+   private void enqueue(RequestHolder<?> requestHolder) {
+      if (requestHolder.isDone())
+         return;
+
+      if (waitingRequests.putIfAbsent(requestHolder.requestId, requestHolder) == null) {
+         requestHolder.request.whenComplete((ignore, ex) -> waitingRequests.remove(requestHolder.requestId));
+      }
+      readWriteMap.eval(lockKey, new LockFunction(requestHolder.requestId, requestHolder.requestor, true))
+            .whenComplete(requestHolder::handleLockResult);
+   }
+
    private void lock(RequestHolder<Void> requestHolder) {
       if (requestHolder == null || requestHolder.isDone())
          return;
@@ -416,7 +477,18 @@ public CompletableFuture<Boolean> tryLock(long time, TimeUnit unit) {
          log.tracef("LOCK[%s] tryLock with timeout (%d, %s) called from %s", getName(), time, unit, originator);
       }
       CompletableFuture<Boolean> tryLockRequest = new CompletableFuture<>();
-      tryLock(new TryLockRequestHolder(originator, tryLockRequest, time, unit));
+      TryLockRequestHolder requestHolder = new TryLockRequestHolder(originator, tryLockRequest, time, unit);
+      if (fair && requestHolder.hasTimeout()) {
+         tryLockRequest.thenAccept(acquired -> {
+            if (!acquired) {
+               // Leave the queue, or release the lock if it was handed over after the expiration
+               unlock(requestHolder.requestId, Collections.singleton(requestHolder.requestor));
+            }
+         });
+         enqueue(requestHolder);
+      } else {
+         tryLock(requestHolder);
+      }
       return tryLockRequest;
    }
 
@@ -487,12 +559,32 @@ public CompletableFuture<Boolean> isLockedByMe() {
       return isLockedByMeRequest;
    }
 
+   @Override
+   public CompletableFuture<Long> getFencingToken() {
+      if (log.isTraceEnabled()) {
+         log.tracef("LOCK[%s] getFencingToken called from %s", getName(), originator);
+      }
+      CompletableFuture<Long> fencingTokenRequest = new CompletableFuture<>();
+      readWriteMap.eval(lockKey, new FencingToken(originator)).whenComplete((fencingToken, ex) -> {
+         if (ex == null) {
+            fencingTokenRequest.complete(fencingToken);
+         } else {
+            fencingTokenRequest.completeExceptionally(handleException(ex));
+         }
+      });
+      return fencingTokenRequest;
+   }
+
    private CompletableFuture<Boolean> unlock(String requestId, Set<Address> possibleOwners) {
+      return unlock(requestId, possibleOwners, false);
+   }
+
+   private CompletableFuture<Boolean> unlock(String requestId, Set<Address> possibleOwners, boolean removeWaiters) {
       if (log.isTraceEnabled()) {
          log.tracef("LOCK[%s] unlock called for %s %s", getName(), requestId, possibleOwners);
       }
       CompletableFuture<Boolean> unlockRequest = new CompletableFuture<>();
-      readWriteMap.eval(lockKey, new UnlockFunction(requestId, possibleOwners)).whenComplete((unlockResult, ex) -> {
+      readWriteMap.eval(lockKey, new UnlockFunction(requestId, possibleOwners, removeWaiters)).whenComplete((unlockResult, ex) -> {
          if (ex == null) {
             unlockRequest.complete(unlockResult);
          } else {
@@ -0,0 +1,74 @@
+package org.infinispan.lock.impl.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.time.TimeService;
+
+/**
+ * Collects the wait time of the lock requests executed in this node.
+ *
+ * @since 16.2
+ */
+public class ClusteredLockStatistics {
+
+   private final TimeService timeService;
+   private final LongAdder waitingRequests = new LongAdder();
+   private final LongAdder acquisitions = new LongAdder();
+   private final LongAdder waitTime = new LongAdder();
+   private final LongAccumulator maxWaitTime = new LongAccumulator(Math::max, 0);
+
+   public ClusteredLockStatistics(TimeService timeService) {
+      this.timeService = timeService;
+   }
+
+   /**
+    * Registers a new lock request.
+    *
+    * @return the start time of the request.
+    */
+   public long requestStarted() {
+      waitingRequests.increment();
+      return timeService.time();
+   }
+
+   /**
+    * Registers the completion of a lock request.
+    *
+    * @param startTime the value returned by {@link #requestStarted()}.
+    * @param acquired  {@code true} if the lock was acquired by the request.
+    */
+   public void requestCompleted(long startTime, boolean acquired) {
+      waitingRequests.decrement();
+      if (acquired) {
+         long duration = timeService.timeDuration(startTime, TimeUnit.NANOSECONDS);
+         acquisitions.increment();
+         waitTime.add(duration);
+         maxWaitTime.accumulate(duration);
+      }
+   }
+
+   public long getWaitingRequests() {
+      return waitingRequests.sum();
+   }
+
+   public long getAcquisitions() {
+      return acquisitions.sum();
+   }
+
+   public long getAverageWaitTimeNanos() {
+      long count = acquisitions.sum();
+      return count == 0 ? 0 : waitTime.sum() / count;
+   }
+
+   public long getMaxWaitTimeNanos() {
+      return maxWaitTime.get();
+   }
+
+   public void reset() {
+      acquisitions.reset();
+      waitTime.reset();
+      maxWaitTime.reset();
+   }
+}
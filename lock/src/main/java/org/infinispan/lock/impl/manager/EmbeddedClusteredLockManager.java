@@ -4,9 +4,11 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.api.Lifecycle;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
@@ -14,7 +16,10 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.lock.api.ClusteredLock;
 import org.infinispan.lock.api.ClusteredLockConfiguration;
 import org.infinispan.lock.api.ClusteredLockManager;
@@ -25,6 +30,7 @@
 import org.infinispan.lock.impl.entries.ClusteredLockState;
 import org.infinispan.lock.impl.entries.ClusteredLockValue;
 import org.infinispan.lock.impl.lock.ClusteredLockImpl;
+import org.infinispan.lock.impl.lock.ClusteredLockStatistics;
 import org.infinispan.lock.logging.Log;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.util.ByteString;
@@ -44,6 +50,7 @@ public class EmbeddedClusteredLockManager implements ClusteredLockManager, Lifec
    public static final String REMOVE = "remove";
    public static final String IS_DEFINED = "isDefined";
    public static final String IS_LOCKED = "isLocked";
+   public static final String QUEUE_DEPTH = "queueDepth";
 
    private final ConcurrentHashMap<String, ClusteredLock> locks = new ConcurrentHashMap<>();
    private final ClusteredLockManagerConfiguration config;
@@ -55,12 +62,19 @@ public class EmbeddedClusteredLockManager implements ClusteredLockManager, Lifec
    @Inject @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
    ScheduledExecutorService scheduledExecutorService;
 
+   private ClusteredLockStatistics statistics;
+
    private AdvancedCache<ClusteredLockKey, ClusteredLockValue> cache;
 
    public EmbeddedClusteredLockManager(ClusteredLockManagerConfiguration config) {
       this.config = config;
    }
 
+   @Inject
+   void injectTimeService(TimeService timeService) {
+      statistics = new ClusteredLockStatistics(timeService);
+   }
+
    @Override
    public void start() {
       if (log.isTraceEnabled())
@@ -194,8 +208,8 @@ public CompletableFuture<Boolean> forceRelease(String name) {
 
       ClusteredLockKey lockLey = new ClusteredLockKey(ByteString.fromString(name));
       return cache()
-            .computeIfPresentAsync(lockLey, (k, v) -> ClusteredLockValue.INITIAL_STATE)
-            .thenApply(clv -> clv != null && clv.getState() == ClusteredLockState.RELEASED);
+            .computeIfPresentAsync(lockLey, (k, v) -> v.release())
+            .thenApply(Objects::nonNull);
    }
 
    @ManagedOperation(
@@ -223,10 +237,74 @@ public boolean isLockedSync(String name) {
       return clv != null && clv.getState() == ClusteredLockState.ACQUIRED;
    }
 
+   @ManagedOperation(
+         description = "Returns the number of requests waiting in the queue of a fair lock",
+         displayName = "Lock Queue Depth",
+         name = QUEUE_DEPTH
+   )
+   public int queueDepthSync(String name) {
+      if (log.isTraceEnabled())
+         log.tracef("LOCK[%s] queueDepth sync has been called", name);
+
+      ClusteredLockValue clv = cache().get(new ClusteredLockKey(ByteString.fromString(name)));
+      return clv == null ? 0 : clv.getWaiters().size();
+   }
+
+   @ManagedAttribute(
+         description = "Number of lock requests from this node waiting to acquire a lock",
+         displayName = "Waiting lock requests"
+   )
+   public long getWaitingRequests() {
+      return statistics.getWaitingRequests();
+   }
+
+   @ManagedAttribute(
+         description = "Number of locks acquired by this node",
+         displayName = "Lock acquisitions",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getLockAcquisitions() {
+      return statistics.getAcquisitions();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of milliseconds waiting to acquire a lock",
+         displayName = "Average lock wait time",
+         units = Units.MILLISECONDS
+   )
+   public long getAverageLockWaitTime() {
+      return TimeUnit.NANOSECONDS.toMillis(statistics.getAverageWaitTimeNanos());
+   }
+
+   @ManagedAttribute(
+         description = "Maximum number of milliseconds waiting to acquire a lock",
+         displayName = "Maximum lock wait time",
+         units = Units.MILLISECONDS
+   )
+   public long getMaxLockWaitTime() {
+      return TimeUnit.NANOSECONDS.toMillis(statistics.getMaxWaitTimeNanos());
+   }
+
+   @ManagedOperation(
+         description = "Resets the lock wait time statistics",
+         displayName = "Reset Statistics"
+   )
+   public void resetStatistics() {
+      statistics.reset();
+   }
+
    public ScheduledExecutorService getScheduledExecutorService() {
       return scheduledExecutorService;
    }
 
+   public ClusteredLockStatistics getStatistics() {
+      return statistics;
+   }
+
+   public boolean isFair() {
+      return config.fair();
+   }
+
    @Override
    public String toString() {
       return "EmbeddedClusteredLockManager{" +
@@ -11,6 +11,7 @@ public abstract class BaseClusteredLockTest extends MultipleCacheManagersTest {
 
    protected Reliability reliability = Reliability.CONSISTENT;
    protected int numOwner = -1;
+   protected boolean fair = false;
 
    protected int clusterSize() {
       return 3;
@@ -28,7 +29,8 @@ protected GlobalConfigurationBuilder configure(int nodeId) {
       globalConfigurationBuilder
             .addModule(ClusteredLockManagerConfigurationBuilder.class)
             .numOwner(numOwner)
-            .reliability(reliability);
+            .reliability(reliability)
+            .fair(fair);
 
       return globalConfigurationBuilder;
    }
@@ -3,6 +3,7 @@
 import static org.infinispan.test.TestingUtil.withCacheManager;
 import static org.infinispan.test.fwk.TestCacheManagerFactory.createClusteredCacheManager;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertTrue;
 
@@ -42,6 +43,7 @@ public void testParserAvailableReliability() throws IOException {
          assertNotNull(clmConfig);
          assertEquals(3, clmConfig.numOwners());
          assertEquals(Reliability.AVAILABLE, clmConfig.reliability());
+         assertTrue(clmConfig.fair());
          assertTrue(clmConfig.locks().containsKey("lock1"));
          assertTrue(clmConfig.locks().containsKey("lock2"));
       });
@@ -57,6 +59,7 @@ public void testParserConsistentReliability() throws IOException {
          assertNotNull(clmConfig);
          assertEquals(-1, clmConfig.numOwners());
          assertEquals(Reliability.CONSISTENT, clmConfig.reliability());
+         assertFalse(clmConfig.fair());
          Map<String, ClusteredLockConfiguration> clusteredLockConfig = new HashMap<>();
          assertTrue(clmConfig.locks().containsKey("consi-lock1"));
          assertTrue(clmConfig.locks().containsKey("consi-lock2"));
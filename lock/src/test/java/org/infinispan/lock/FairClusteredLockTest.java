@@ -0,0 +1,105 @@
+package org.infinispan.lock;
+
+import static org.infinispan.functional.FunctionalTestUtils.await;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.lock.api.ClusteredLock;
+import org.infinispan.lock.impl.manager.EmbeddedClusteredLockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link ClusteredLockTest} with the fair mode enabled and checks the FIFO order and the fencing tokens.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "clusteredLock.FairClusteredLockTest")
+public class FairClusteredLockTest extends ClusteredLockTest {
+
+   public FairClusteredLockTest() {
+      super();
+      fair = true;
+   }
+
+   public void testLockHandedOverInOrder() {
+      ClusteredLock lock0 = clusteredLockManager(0).get(LOCK_NAME);
+      ClusteredLock lock1 = clusteredLockManager(1).get(LOCK_NAME);
+      ClusteredLock lock2 = clusteredLockManager(2).get(LOCK_NAME);
+
+      await(lock0.lock());
+      long fencingToken = await(lock0.getFencingToken());
+
+      CompletableFuture<Void> lock2Request = lock2.lock();
+      eventually(() -> queueDepth() == 1);
+      CompletableFuture<Void> lock1Request = lock1.lock();
+      eventually(() -> queueDepth() == 2);
+      assertFalse(lock1Request.isDone());
+      assertFalse(lock2Request.isDone());
+      assertEquals(-1L, (long) await(lock1.getFencingToken()));
+
+      // The first waiter gets the lock, the second keeps waiting
+      await(lock0.unlock());
+      await(lock2Request);
+      assertFalse(lock1Request.isDone());
+      assertTrue(await(lock2.isLockedByMe()));
+      assertEquals(fencingToken + 1, (long) await(lock2.getFencingToken()));
+      assertEquals(1, queueDepth());
+
+      await(lock2.unlock());
+      await(lock1Request);
+      assertTrue(await(lock1.isLockedByMe()));
+      assertEquals(fencingToken + 2, (long) await(lock1.getFencingToken()));
+      assertEquals(0, queueDepth());
+
+      await(lock1.unlock());
+      assertEquals(-1L, (long) await(lock1.getFencingToken()));
+   }
+
+   public void testExpiredTryLockLeavesQueue() {
+      ClusteredLock lock0 = clusteredLockManager(0).get(LOCK_NAME);
+      ClusteredLock lock1 = clusteredLockManager(1).get(LOCK_NAME);
+      ClusteredLock lock2 = clusteredLockManager(2).get(LOCK_NAME);
+
+      await(lock0.lock());
+      CompletableFuture<Boolean> tryLockRequest = lock1.tryLock(100, TimeUnit.MILLISECONDS);
+      eventually(() -> queueDepth() == 1);
+      CompletableFuture<Void> lockRequest = lock2.lock();
+      eventually(() -> queueDepth() == 2);
+
+      assertFalse(await(tryLockRequest));
+      eventually(() -> queueDepth() == 1);
+
+      // The expired request is skipped
+      await(lock0.unlock());
+      await(lockRequest);
+      assertTrue(await(lock2.isLockedByMe()));
+      assertFalse(await(lock1.isLockedByMe()));
+      await(lock2.unlock());
+   }
+
+   public void testWaitTimeStatistics() {
+      EmbeddedClusteredLockManager manager = (EmbeddedClusteredLockManager) clusteredLockManager(1);
+      manager.resetStatistics();
+      long acquisitions = manager.getLockAcquisitions();
+      ClusteredLock lock0 = clusteredLockManager(0).get(LOCK_NAME);
+      ClusteredLock lock1 = manager.get(LOCK_NAME);
+
+      await(lock0.lock());
+      CompletableFuture<Void> lockRequest = lock1.lock();
+      eventually(() -> manager.getWaitingRequests() == 1);
+      await(lock0.unlock());
+      await(lockRequest);
+
+      assertEquals(0, manager.getWaitingRequests());
+      assertEquals(acquisitions + 1, manager.getLockAcquisitions());
+      await(lock1.unlock());
+   }
+
+   private int queueDepth() {
+      return ((EmbeddedClusteredLockManager) clusteredLockManager(0)).queueDepthSync(LOCK_NAME);
+   }
+}
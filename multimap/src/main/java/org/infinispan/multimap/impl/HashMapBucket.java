@@ -11,26 +11,37 @@
 import java.util.stream.Collectors;
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
-import org.infinispan.commons.util.ByRef;
 import org.infinispan.marshall.protostream.impl.MarshallableUserObject;
+import org.infinispan.multimap.impl.internal.HashTrieMap;
 import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
 
+/**
+ * Bucket used to store Hash data type.
+ * <p>
+ * The fields are kept in a {@link HashTrieMap}, so every update returns a new bucket sharing the untouched fields
+ * with the previous one instead of copying the whole map.
+ *
+ * @since 15.0
+ */
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_HASH_MAP_BUCKET)
 public class HashMapBucket<K, V> {
 
-   final Map<MultimapObjectWrapper<K>, V> values;
+   final HashTrieMap<MultimapObjectWrapper<K>, V> values;
 
-   private HashMapBucket(Map<MultimapObjectWrapper<K>, V> values) {
+   private HashMapBucket(HashTrieMap<MultimapObjectWrapper<K>, V> values) {
       this.values = values;
    }
 
    @ProtoFactory
    HashMapBucket(Collection<BucketEntry<K, V>> wrappedValues) {
-      this.values = wrappedValues.stream()
-            .collect(Collectors.toMap(e -> new MultimapObjectWrapper<>(e.getKey()), BucketEntry::getValue));
+      HashTrieMap<MultimapObjectWrapper<K>, V> map = HashTrieMap.empty();
+      for (BucketEntry<K, V> entry : wrappedValues) {
+         map = map.plus(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
+      }
+      this.values = map;
    }
 
    public static <K, V> HashMapBucket<K, V> create(Map<K, V> values) {
@@ -43,26 +54,28 @@ Collection<BucketEntry<K, V>> getWrappedValues() {
    }
 
    public HashMapBucketResponse<Integer, K, V> putAll(Map<K, V> map) {
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values);
+      HashTrieMap<MultimapObjectWrapper<K>, V> updated = values;
       int res = 0;
       for (Map.Entry<K, V> entry : map.entrySet()) {
-         V prev = copied.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
-         if (prev == null) res++;
+         MultimapObjectWrapper<K> key = new MultimapObjectWrapper<>(entry.getKey());
+         if (updated.get(key) == null) res++;
+         updated = updated.plus(key, entry.getValue());
       }
-      return new HashMapBucketResponse<>(res, new HashMapBucket<>(copied));
+      return new HashMapBucketResponse<>(res, updated == values ? this : new HashMapBucket<>(updated));
    }
 
    public HashMapBucketResponse<Integer, K, V> putIfAbsent(Map<K, V> map) {
-      ByRef.Integer created = new ByRef.Integer(0);
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values);
+      int created = 0;
+      HashTrieMap<MultimapObjectWrapper<K>, V> updated = values;
       for (Map.Entry<K, V> entry : map.entrySet()) {
-         // The `values` map can have null values, we use compute instead of putIfAbsent.
-         copied.computeIfAbsent(new MultimapObjectWrapper<>(entry.getKey()), ignore -> {
-            created.inc();
-            return entry.getValue();
-         });
+         MultimapObjectWrapper<K> key = new MultimapObjectWrapper<>(entry.getKey());
+         // The `values` map can have null values, they are replaced like absent ones.
+         if (updated.get(key) == null) {
+            created++;
+            updated = updated.plus(key, entry.getValue());
+         }
       }
-      return new HashMapBucketResponse<>(created.get(), new HashMapBucket<>(copied));
+      return new HashMapBucketResponse<>(created, updated == values ? this : new HashMapBucket<>(updated));
    }
 
    public Map<K, V> getAll(Set<K> keys) {
@@ -83,17 +96,12 @@ public boolean isEmpty() {
    }
 
    public HashMapBucketResponse<Integer, K, V> removeAll(Collection<K> keys) {
-      int res = 0;
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values.size());
-      for (Map.Entry<MultimapObjectWrapper<K>, V> entry : values.entrySet()) {
-         if (containsKey(keys, entry.getKey())) {
-            res++;
-            continue;
-         }
-
-         copied.put(entry.getKey(), entry.getValue());
+      HashTrieMap<MultimapObjectWrapper<K>, V> updated = values;
+      for (K key : keys) {
+         updated = updated.minus(new MultimapObjectWrapper<>(key));
       }
-      return new HashMapBucketResponse<>(res, new HashMapBucket<>(copied));
+      int res = values.size() - updated.size();
+      return new HashMapBucketResponse<>(res, updated == values ? this : new HashMapBucket<>(updated));
    }
 
    public V get(K k) {
@@ -130,19 +138,10 @@ public HashMapBucket<K, V> replace(K key, V expected, V replacement) {
       if (!equalValues(current, expected)) return null;
       if (equalValues(current, replacement)) return this;
 
-      if (values.isEmpty()) {
-         Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>();
-         copied.put(storeKey, replacement);
-         return new HashMapBucket<>(copied);
-      }
-
-      Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values);
       if (replacement == null) {
-         copied.remove(storeKey, expected);
-      } else {
-         copied.put(storeKey, replacement);
+         return new HashMapBucket<>(values.minus(storeKey));
       }
-      return new HashMapBucket<>(copied);
+      return new HashMapBucket<>(values.plus(storeKey, replacement));
    }
 
    private boolean equalValues(V one, Object other) {
@@ -155,10 +154,10 @@ private boolean equalValues(V one, Object other) {
       return eq;
    }
 
-   private static <K, V> Map<MultimapObjectWrapper<K>, V> toStore(Map<K, V> raw) {
-      Map<MultimapObjectWrapper<K>, V> converted = new HashMap<>();
+   private static <K, V> HashTrieMap<MultimapObjectWrapper<K>, V> toStore(Map<K, V> raw) {
+      HashTrieMap<MultimapObjectWrapper<K>, V> converted = HashTrieMap.empty();
       for (Map.Entry<K, V> entry : raw.entrySet()) {
-         converted.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
+         converted = converted.plus(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
       }
       return converted;
    }
@@ -171,14 +170,6 @@ private Map<K, V> fromStore() {
       return converted;
    }
 
-   private boolean containsKey(Collection<K> keys, MultimapObjectWrapper<K> entry) {
-      for (K key : keys) {
-         if (MultimapObjectWrapper.wrappedEquals(entry.get(), key))
-            return true;
-      }
-      return false;
-   }
-
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
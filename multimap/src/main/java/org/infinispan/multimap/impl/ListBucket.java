@@ -14,6 +14,7 @@
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.commons.util.Util;
 import org.infinispan.marshall.protostream.impl.MarshallableUserObject;
+import org.infinispan.multimap.impl.internal.ChunkedList;
 import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
@@ -21,6 +22,9 @@
 
 /**
  * Bucket used to store ListMultimap values.
+ * <p>
+ * The values are kept in a {@link ChunkedList}, so every update returns a new bucket sharing the unmodified chunks
+ * with the previous one instead of copying the whole list.
  *
  * @author Katia Aresti
  * @since 15.0
@@ -28,35 +32,32 @@
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_LIST_BUCKET)
 public class ListBucket<V> implements SortableBucket<V> {
 
-   final Deque<V> values;
+   final ChunkedList<V> values;
 
    public ListBucket() {
-      this.values = new ArrayDeque<>(0);
+      this.values = ChunkedList.empty();
    }
 
    public ListBucket(V value) {
-      Deque<V> deque = new ArrayDeque<>(1);
-      deque.add(value);
-      this.values = deque;
+      this.values = ChunkedList.<V>empty().append(value);
    }
 
-   private ListBucket(Deque<V> values) {
+   private ListBucket(ChunkedList<V> values) {
       this.values = values;
    }
 
    public static <V> ListBucket<V> create(Collection<V> value) {
-      return new ListBucket<>(new ArrayDeque<V>(value));
+      return new ListBucket<>(ChunkedList.of(value));
    }
 
    @ProtoFactory
    ListBucket(Collection<MarshallableUserObject<V>> wrappedValues) {
-      this((Deque<V>) wrappedValues.stream().map(MarshallableUserObject::get)
-            .collect(Collectors.toCollection(ArrayDeque::new)));
+      this(ChunkedList.of(wrappedValues.stream().map(MarshallableUserObject::get).collect(Collectors.toList())));
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
    Collection<MarshallableUserObject<V>> getWrappedValues() {
-      return this.values.stream().map(MarshallableUserObject::new).collect(Collectors.toCollection(ArrayDeque::new));
+      return this.values.stream().map(MarshallableUserObject::new).collect(Collectors.toCollection(ArrayList::new));
    }
 
    public boolean contains(V value) {
@@ -89,17 +90,13 @@ public String toString() {
    }
 
    public ListBucket<V> offer(Collection<V> value, boolean first) {
-      Deque<V> newItems = new ArrayDeque<>(values);
       if (first) {
-         for (V v : value) {
-            newItems.offerFirst(v);
-         }
-      } else {
-         for (V v : value) {
-            newItems.offerLast(v);
-         }
+         // every value is offered at the head, so the last one ends up first
+         List<V> reversed = new ArrayList<>(value);
+         Collections.reverse(reversed);
+         return new ListBucket<>(values.prependAll(reversed));
       }
-      return new ListBucket<>(newItems);
+      return new ListBucket<>(values.appendAll(value));
    }
 
    public ListBucket<V> set(long index, V value) {
@@ -107,33 +104,8 @@ public ListBucket<V> set(long index, V value) {
          return null;
       }
 
-      ArrayDeque<V> newBucket = new ArrayDeque<>(values.size());
-      if (index >= 0) {
-         Iterator<V> ite = values.iterator();
-         int currentIndex = 0;
-         while (ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerLast(value);
-            } else {
-               newBucket.offerLast(element);
-            }
-            currentIndex++;
-         }
-      } else {
-         Iterator<V> ite = values.descendingIterator();
-         int currentIndex = -1;
-         while (ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerFirst(value);
-            } else {
-               newBucket.offerFirst(element);
-            }
-            currentIndex--;
-         }
-      }
-      return new ListBucket<>(newBucket);
+      long position = index >= 0 ? index : values.size() + index;
+      return new ListBucket<>(values.with((int) position, value));
    }
 
    public Collection<V> sublist(long from, long to) {
@@ -154,26 +126,12 @@ public Collection<V> sublist(long from, long to) {
          return Collections.emptyList();
       }
 
-      List<V> result = new ArrayList<>();
-      long fromIte = from < 0 ? values.size() + from : from;
-      long toIte = to < 0 ? values.size() + to : to;
-
-      Iterator<V> ite = values.iterator();
-      int offset = 0;
-      while (ite.hasNext()) {
-         V element = ite.next();
-         if (offset < fromIte) {
-            offset++;
-            continue;
-         }
-         if (offset > toIte) {
-            break;
-         }
-
-         result.add(element);
-         offset++;
+      long fromIte = Math.max(0, from < 0 ? values.size() + from : from);
+      long toIte = Math.min(values.size() - 1, to < 0 ? values.size() + to : to);
+      if (fromIte > toIte) {
+         return new ArrayList<>();
       }
-      return result;
+      return new ArrayList<>(values.subList((int) fromIte, (int) toIte + 1));
    }
 
    public ListBucket<V> trim(long from, long to) {
@@ -196,27 +154,10 @@ public ListBucket<V> trim(long from, long to) {
       long startRemoveCount = from < 0 ? values.size() + from : from;
       long keepCount = (to < 0 ? values.size() + to : to) - startRemoveCount;
 
-      Deque<V> newValues = new ArrayDeque<>(values);
-      Iterator<V> ite = newValues.iterator();
-      while (ite.hasNext() && startRemoveCount > 0) {
-         ite.next();
-         ite.remove();
-         startRemoveCount--;
-      }
-
-      // keep elements
-      while (ite.hasNext() && keepCount >= 0) {
-         ite.next();
-         keepCount--;
-      }
-
-      // remove remaining elements
-      while (ite.hasNext()) {
-         ite.next();
-         ite.remove();
-      }
-
-      return new ListBucket<>(newValues);
+      // only the chunks at the boundaries of the kept range are copied
+      long start = Math.min(values.size(), Math.max(0, startRemoveCount));
+      long end = keepCount < 0 ? start : Math.min(values.size(), start + keepCount + 1);
+      return new ListBucket<>(values.slice((int) start, (int) end));
    }
 
    public Collection<Long> indexOf(V element, long count, long rank, long maxLen) {
@@ -254,76 +195,39 @@ public Collection<Long> indexOf(V element, long count, long rank, long maxLen) {
    }
 
    public ListBucket<V> insert(boolean before, V pivot, V element) {
-      Deque<V> newValues = new ArrayDeque<>(values.size() + 1);
-
-      Iterator<V> iterator = values.iterator();
-      boolean found = false;
-      while (iterator.hasNext()) {
-         V next = iterator.next();
-         if (found) {
-            newValues.offerLast(next);
-         } else {
-            if (Objects.deepEquals(pivot, next)) {
-               found = true;
-               if (before) {
-                  newValues.offerLast(element);
-                  newValues.offerLast(next);
-               } else {
-                  newValues.offerLast(next);
-                  newValues.offerLast(element);
-               }
-            } else {
-               newValues.offerLast(next);
-            }
+      int position = 0;
+      for (V next : values) {
+         if (Objects.deepEquals(pivot, next)) {
+            return new ListBucket<>(values.insert(before ? position : position + 1, element));
          }
+         position++;
       }
-      if (!found) {
-         return null;
-      }
-      return new ListBucket<>(newValues);
+      return null;
    }
 
    public ListBucketResult<Long, V> remove(long count, V element) {
-      Iterator<V> ite;
-      if (count < 0) {
-         ite = values.descendingIterator();
-      } else {
-         ite = values.iterator();
-      }
-
       long maxRemovalsCount = count == 0 ? values.size() : Math.abs(count);
-      long removedElements = 0L;
-      Deque<V> newItems = new ArrayDeque<>();
-      while (ite.hasNext()) {
-         V next = ite.next();
-         if (Objects.deepEquals(next, element) && removedElements < maxRemovalsCount) {
-            removedElements++;
-            continue;
-         }
-
-         if (count < 0) {
-            newItems.addFirst(next);
-         } else {
-            newItems.addLast(next);
-         }
-      }
-
-      return new ListBucketResult<>(removedElements, new ListBucket<>(newItems));
+      ChunkedList<V> newValues = values.removeOccurrences(element, maxRemovalsCount, count < 0);
+      long removedElements = values.size() - newValues.size();
+      return new ListBucketResult<>(removedElements, new ListBucket<>(newValues));
    }
 
    public ListBucketResult<V, V> rotate(boolean rotateRight) {
-      Deque<V> newItems = new ArrayDeque<>(values);
+      if (values.isEmpty()) {
+         return new ListBucketResult<>(null, this);
+      }
       V element;
+      ChunkedList<V> newValues;
       if (rotateRight) {
          // from head to tail
-         element = newItems.pollFirst();
-         newItems.offerLast(element);
+         element = values.get(0);
+         newValues = values.dropFirst(1).append(element);
       } else {
          // from tail to head
-         element = newItems.pollLast();
-         newItems.offerFirst(element);
+         element = values.get(values.size() - 1);
+         newValues = values.dropLast(1).prepend(element);
       }
-      return new ListBucketResult<>(element, new ListBucket<>(newItems));
+      return new ListBucketResult<>(element, new ListBucket<>(newValues));
    }
 
    @Override
@@ -351,7 +255,7 @@ public List<ScoredValue<V>> sort(SortOptions sortOptions) {
 
    public ListBucket<V> replace(Deque<V> list) {
       if (list != null && !list.isEmpty()) {
-         return new ListBucket<>(list);
+         return new ListBucket<>(ChunkedList.of(list));
       }
 
       return new ListBucket<>();
@@ -373,48 +277,24 @@ public ListBucketResult<Collection<V>, V> poll(boolean first, long count) {
          return new ListBucketResult<>(polledValues, new ListBucket<>());
       }
 
-      Deque<V> newItems = new ArrayDeque<>(values);
-      for (int i = 0; i < count; i++) {
-         if (first) {
-            polledValues.add(newItems.pollFirst());
-         } else {
-            polledValues.add(newItems.pollLast());
-         }
+      int polled = (int) count;
+      if (first) {
+         polledValues.addAll(values.subList(0, polled));
+         return new ListBucketResult<>(polledValues, new ListBucket<>(values.dropFirst(polled)));
       }
-      return new ListBucketResult<>(polledValues, new ListBucket<>(newItems));
+      Iterator<V> ite = values.descendingIterator();
+      for (int i = 0; i < polled; i++) {
+         polledValues.add(ite.next());
+      }
+      return new ListBucketResult<>(polledValues, new ListBucket<>(values.dropLast(polled)));
    }
 
    public V index(long index) {
-      if (index == 0) {
-         return values.element();
-      }
-      if (index == values.size() - 1 || index == -1) {
-         return values.getLast();
-      }
-      V result = null;
-      if (index > 0) {
-         if (index >= values.size()) {
-            return null;
-         }
-
-         Iterator<V> iterator = values.iterator();
-         int currentIndex = 0;
-         while (currentIndex++ <= index) {
-            result = iterator.next();
-         }
-      } else {
-         long currentIndex = Math.abs(index);
-         if (currentIndex > values.size()) {
-            return null;
-         }
-
-         Iterator<V> iterator = values.descendingIterator();
-         while (currentIndex-- > 0) {
-            result = iterator.next();
-         }
+      long position = index < 0 ? values.size() + index : index;
+      if (position < 0 || position >= values.size()) {
+         return null;
       }
-
-      return result;
+      return values.get((int) position);
    }
 
    @Override
@@ -4,6 +4,8 @@
 import org.infinispan.protostream.SerializationContextInitializer;
 import org.infinispan.protostream.annotations.ProtoSchema;
 
+// TODO: the stores write the whole bucket on every update, even when a single member of a large collection changes.
+//  Appending only the deltas with a periodic compaction needs a delta record format in the persistence SPI.
 @ProtoSchema(
       dependsOn = org.infinispan.marshall.persistence.impl.PersistenceContextInitializer.class,
       includeClasses = {
@@ -2,7 +2,6 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -11,6 +10,7 @@
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.commons.util.Util;
+import org.infinispan.multimap.impl.internal.HashTrieMap;
 import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
@@ -18,6 +18,9 @@
 
 /**
  * Bucket used to store Set data type.
+ * <p>
+ * The members are kept as the keys of a {@link HashTrieMap}, so every update returns a new bucket sharing the
+ * untouched members with the previous one instead of copying the whole set.
  *
  * @author Vittorio Rigamonti
  * @since 15.0
@@ -25,23 +28,23 @@
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_SET_BUCKET)
 public class SetBucket<V> implements SortableBucket<V>, BaseSetBucket<V> {
    final Set<MultimapObjectWrapper<V>> values;
+   private final HashTrieMap<MultimapObjectWrapper<V>, Boolean> members;
 
    public SetBucket() {
-      this.values = new HashSet<>();
+      this(HashTrieMap.empty());
    }
 
    public SetBucket(V value) {
-      Set<MultimapObjectWrapper<V>> set = new HashSet<>(1);
-      set.add(new MultimapObjectWrapper<>(value));
-      this.values = set;
+      this(HashTrieMap.<MultimapObjectWrapper<V>, Boolean>empty().plus(new MultimapObjectWrapper<>(value), Boolean.TRUE));
    }
 
-   private SetBucket(Set<MultimapObjectWrapper<V>> values) {
-      this.values = values;
+   private SetBucket(HashTrieMap<MultimapObjectWrapper<V>, Boolean> members) {
+      this.members = members;
+      this.values = members.keySet();
    }
 
    public static <V> SetBucket<V> create(Collection<V> values) {
-      return new SetBucket<>(values.stream().map(MultimapObjectWrapper::new).collect(Collectors.toSet()));
+      return new SetBucket<V>().addAll(values).bucket();
    }
 
    public static <V> SetBucket<V> create(V value) {
@@ -50,7 +53,15 @@ public static <V> SetBucket<V> create(V value) {
 
    @ProtoFactory
    SetBucket(Collection<MultimapObjectWrapper<V>> wrappedValues) {
-      this.values = new HashSet<>(wrappedValues);
+      this(toMembers(wrappedValues));
+   }
+
+   private static <V> HashTrieMap<MultimapObjectWrapper<V>, Boolean> toMembers(Collection<MultimapObjectWrapper<V>> values) {
+      HashTrieMap<MultimapObjectWrapper<V>, Boolean> members = HashTrieMap.empty();
+      for (MultimapObjectWrapper<V> value : values) {
+         members = members.plus(value, Boolean.TRUE);
+      }
+      return members;
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
@@ -59,12 +70,7 @@ Collection<MultimapObjectWrapper<V>> getWrappedValues() {
    }
 
    public boolean contains(V value) {
-      for (MultimapObjectWrapper<V> v : values) {
-         if (Objects.deepEquals(v.get(), value)) {
-            return Boolean.TRUE;
-         }
-      }
-      return Boolean.FALSE;
+      return members.containsKey(new MultimapObjectWrapper<>(value));
    }
 
    @Override
@@ -112,34 +118,21 @@ public String toString() {
    }
 
    public SetBucketResult<Boolean, V> addAll(Collection<V> values) {
-      Set<MultimapObjectWrapper<V>> existing = new HashSet<>(this.values);
-      boolean added = false;
+      HashTrieMap<MultimapObjectWrapper<V>, Boolean> updated = members;
       for (V value : values) {
-         added |= existing.add(new MultimapObjectWrapper<>(value));
+         updated = updated.plus(new MultimapObjectWrapper<>(value), Boolean.TRUE);
       }
-      return new SetBucketResult<>(added, new SetBucket<>(existing));
+      boolean added = updated != members;
+      return new SetBucketResult<>(added, added ? new SetBucket<>(updated) : this);
    }
 
    public SetBucketResult<Boolean, V> removeAll(Collection<V> values) {
-      Boolean changed = Boolean.FALSE;
-      Set<MultimapObjectWrapper<V>> existing = new HashSet<>(this.values.size());
-      for (MultimapObjectWrapper<V> value : this.values) {
-         if (contains(values, value)) {
-            changed = Boolean.TRUE;
-            continue;
-         }
-
-         existing.add(value);
-      }
-      return new SetBucketResult<>(changed, new SetBucket<>(existing));
-   }
-
-   private boolean contains(Collection<V> collection, MultimapObjectWrapper<V> wrapped) {
-      for (V v : collection) {
-         if (wrapped.wrappedEquals(v))
-            return true;
+      HashTrieMap<MultimapObjectWrapper<V>, Boolean> updated = members;
+      for (V value : values) {
+         updated = updated.minus(new MultimapObjectWrapper<>(value));
       }
-      return false;
+      boolean changed = updated != members;
+      return new SetBucketResult<>(changed, changed ? new SetBucket<>(updated) : this);
    }
 
    @Override
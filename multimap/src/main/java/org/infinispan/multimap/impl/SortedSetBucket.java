@@ -5,11 +5,9 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
@@ -19,7 +17,9 @@
 import java.util.stream.Stream;
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.multimap.impl.internal.HashTrieMap;
 import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
+import org.infinispan.multimap.impl.internal.RankedTreeSet;
 import org.infinispan.protostream.annotations.Proto;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
@@ -27,14 +27,18 @@
 
 /**
  * Bucket used to store Sorted Set data type.
+ * <p>
+ * The scored entries are kept in a {@link RankedTreeSet}, so ranks and ranges by index are resolved in logarithmic
+ * time instead of walking the entries. The scores are kept in a {@link HashTrieMap}. Both are immutable, so every
+ * update returns a new bucket sharing the untouched entries with the previous one instead of copying them.
  *
  * @author Katia Aresti
  * @since 15.0
  */
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_SORTED_SET_BUCKET)
 public class SortedSetBucket<V> implements SortableBucket<V>, BaseSetBucket<V> {
-   private final TreeSet<ScoredValue<V>> scoredEntries;
-   private final Map<MultimapObjectWrapper<V>, Double> entries;
+   private final RankedTreeSet<ScoredValue<V>> scoredEntries;
+   private final HashTrieMap<MultimapObjectWrapper<V>, Double> entries;
 
    @Proto
    @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_SORTED_SET_BUCKET_AGGREGATE_FUNCTION)
@@ -123,10 +127,18 @@ public List<ScoredValue<V>> randomMembers(int count) {
 
    @ProtoFactory
    SortedSetBucket(Collection<ScoredValue<V>> wrappedValues) {
-      scoredEntries = new TreeSet<>();
-      scoredEntries.addAll(wrappedValues);
-      entries = new HashMap<>();
-      wrappedValues.forEach(e -> entries.put(e.wrappedValue(), e.score()));
+      scoredEntries = RankedTreeSet.of(wrappedValues, Comparator.naturalOrder());
+      HashTrieMap<MultimapObjectWrapper<V>, Double> scores = HashTrieMap.empty();
+      for (ScoredValue<V> e : wrappedValues) {
+         scores = scores.plus(e.wrappedValue(), e.score());
+      }
+      entries = scores;
+   }
+
+   private SortedSetBucket(RankedTreeSet<ScoredValue<V>> scoredEntries,
+                           HashTrieMap<MultimapObjectWrapper<V>, Double> entries) {
+      this.scoredEntries = scoredEntries;
+      this.entries = entries;
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
@@ -151,27 +163,19 @@ public List<ScoredValue<V>> getScoredEntriesAsList() {
    }
 
    public SortedSetBucket() {
-      this.scoredEntries = new TreeSet<>();
-      this.entries = new HashMap<>();
+      this.scoredEntries = RankedTreeSet.empty(Comparator.naturalOrder());
+      this.entries = HashTrieMap.empty();
    }
 
    public SortedSetResult<Collection<ScoredValue<V>>, V> pop(boolean min, long count) {
-      Iterator<ScoredValue<V>> it = min
-            ? scoredEntries.iterator()
-            : scoredEntries.descendingIterator();
-
-      int i = 0;
-      List<ScoredValue<V>> popped = new ArrayList<>();
-      List<ScoredValue<V>> remaining = new ArrayList<>();
-      while (it.hasNext()) {
-         ScoredValue<V> sv = it.next();
-         if (++i > count) {
-            remaining.add(sv);
-         } else {
-            popped.add(sv);
-         }
-      }
-      return new SortedSetResult<>(popped, new SortedSetBucket<>(remaining));
+      int size = scoredEntries.size();
+      int popCount = (int) Math.max(0, Math.min(count, size));
+      List<ScoredValue<V>> popped = min
+            ? collect(scoredEntries.iterator(0, popCount), popCount)
+            : collect(scoredEntries.descendingIterator(size - popCount, size), popCount);
+      Update<V> next = new Update<>(this);
+      popped.forEach(next::remove);
+      return new SortedSetResult<>(popped, next.bucket());
    }
 
    public List<Double> scores(List<V> members) {
@@ -184,9 +188,9 @@ public IndexValue indexOf(V member, boolean isRev) {
       if (score == null) {
          return null;
       }
-      SortedSet<ScoredValue<V>> tailedHead = scoredEntries.headSet(new ScoredValue<>(score, wrapMember));
-      return isRev? IndexValue.of(score, scoredEntries.size() - tailedHead.size() - 1)
-            : IndexValue.of(score, tailedHead.size());
+      int rank = scoredEntries.countLower(new ScoredValue<>(score, wrapMember));
+      return isRev? IndexValue.of(score, scoredEntries.size() - rank - 1)
+            : IndexValue.of(score, rank);
    }
 
    public SortedSetBucket<V> replace(Collection<ScoredValue<V>> scoredValues) {
@@ -206,8 +210,8 @@ public SortedSetResult<AddOrUpdatesCounters, V> addMany(Collection<ScoredValue<V
                                        boolean updateGreaterScoresOnly) {
 
       AddOrUpdatesCounters addResult = new AddOrUpdatesCounters();
-      SortedSetBucket<V> next = new SortedSetBucket<>(scoredEntries);
-      long startSize = next.size();
+      Update<V> next = new Update<>(this);
+      long startSize = size();
 
       for (ScoredValue<V> scoredValue : scoredValues) {
          if (addOnly) {
@@ -222,8 +226,9 @@ public SortedSetResult<AddOrUpdatesCounters, V> addMany(Collection<ScoredValue<V
             next.addOrUpdate(addResult, scoredValue);
          }
       }
-      addResult.created = next.size() - startSize;
-      return new SortedSetResult<>(addResult, next);
+      SortedSetBucket<V> bucket = next.bucket();
+      addResult.created = bucket.size() - startSize;
+      return new SortedSetResult<>(addResult, bucket);
    }
 
    public SortedSetResult<Double, V> incrScore(double incr, V member, boolean addOnly, boolean updateOnly, boolean updateLessScoresOnly, boolean updateGreaterScoresOnly) {
@@ -245,67 +250,9 @@ public SortedSetResult<Double, V> incrScore(double incr, V member, boolean addOn
             throw new IllegalStateException("resulting score is not a number (NaN)");
       }
 
-      SortedSetBucket<V> next = new SortedSetBucket<>(scoredEntries);
+      Update<V> next = new Update<>(this);
       next.addOrUpdate(new AddOrUpdatesCounters(), new ScoredValue<>(newScore, wrappedValue));
-      return new SortedSetResult<>(newScore, next);
-   }
-
-   private void addOnly(ScoredValue<V> scoredValue) {
-      Double existingScore = entries.get(scoredValue.wrappedValue());
-      if (existingScore == null){
-         addScoredValue(scoredValue);
-      }
-   }
-
-   private void updateOnly(AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
-      Double existingScore = entries.get(scoredValue.wrappedValue());
-      if (existingScore != null && !existingScore.equals(scoredValue.score())) {
-         updateScoredValue(scoredValue, existingScore);
-         addResult.updated++;
-      }
-   }
-
-   private void addOrUpdateGreaterScores(boolean updateOnly, AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
-      Double existingScore = entries.get(scoredValue.wrappedValue());
-      if (existingScore == null && !updateOnly) {
-         addScoredValue(scoredValue);
-      } else if (existingScore != null && scoredValue.score() > existingScore) {
-         updateScoredValue(scoredValue, existingScore);
-         addResult.updated++;
-      }
-   }
-
-   private void addOrUpdateLessScores(boolean updateOnly, AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
-      Double existingScore = entries.get(scoredValue.wrappedValue());
-      if (existingScore == null && !updateOnly) {
-         addScoredValue(scoredValue);
-      } else if (existingScore != null && scoredValue.score() < existingScore) {
-         updateScoredValue(scoredValue, existingScore);
-         addResult.updated++;
-      }
-   }
-
-   private void addOrUpdate(AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
-      Double existingScore = entries.get(scoredValue.wrappedValue());
-      if (existingScore == null) {
-         addScoredValue(scoredValue);
-      } else if (!scoredValue.score().equals(existingScore)) {
-         // entry exists, check score
-         updateScoredValue(scoredValue, existingScore);
-         addResult.updated++;
-      }
-   }
-
-   private void updateScoredValue(ScoredValue<V> newScoredValue, Double existingScore) {
-      ScoredValue<V> oldScoredValue = new ScoredValue<>(existingScore, newScoredValue.wrappedValue());
-      scoredEntries.remove(oldScoredValue);
-      scoredEntries.add(newScoredValue);
-      entries.put(newScoredValue.wrappedValue(), newScoredValue.score());
-   }
-
-   private void addScoredValue(ScoredValue<V> scoredValue) {
-      scoredEntries.add(scoredValue);
-      entries.put(scoredValue.wrappedValue(), scoredValue.score());
+      return new SortedSetResult<>(newScore, next.bucket());
    }
 
    public SortedSetResult<Long, V> removeAll(Collection<V> values) {
@@ -338,12 +285,10 @@ private SortedSetResult<Long, V> removeAllInternal(Collection<ScoredValue<V>> su
       if (subset.isEmpty())
          return new SortedSetResult<>(0L, this);
 
-      List<ScoredValue<V>> remaining = new ArrayList<>(scoredEntries.size());
-      for (ScoredValue<V> sv : scoredEntries) {
-         if (!subset.contains(sv)) remaining.add(sv);
-      }
+      Update<V> next = new Update<>(this);
+      subset.forEach(next::remove);
       long size = subset.size();
-      return new SortedSetResult<>(size, new SortedSetBucket<>(remaining));
+      return new SortedSetResult<>(size, next.bucket());
    }
 
    public List<ScoredValue<V>> subsetByIndex(long from, long to, boolean rev) {
@@ -355,33 +300,21 @@ public List<ScoredValue<V>> subsetByIndex(long from, long to, boolean rev) {
          return Collections.emptyList();
       }
 
-      long fromIte = from < 0 ? scoredEntries.size() + from : from;
-      long toIte = to < 0 ? scoredEntries.size() + to : to;
+      int size = scoredEntries.size();
+      long fromIte = Math.max(0, from < 0 ? size + from : from);
+      long toIte = Math.min(size - 1, to < 0 ? size + to : to);
 
       if (fromIte > toIte) {
          return Collections.emptyList();
       }
 
-      List<ScoredValue<V>> results = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite;
-      if (rev) {
-         ite = scoredEntries.descendingIterator();
-      } else {
-         ite = scoredEntries.iterator();
-      }
-
-      long pos = 0;
-      while ((pos < fromIte) && ite.hasNext()) {
-         ite.next();
-         pos++;
-      }
-
-      while ((pos <= toIte) && ite.hasNext()) {
-         results.add(ite.next());
-         pos++;
-      }
-
-      return results;
+      // the positions are counted from the end of the set in reverse order
+      int start = (int) (rev ? size - 1 - toIte : fromIte);
+      int end = (int) (rev ? size - fromIte : toIte + 1);
+      Iterator<ScoredValue<V>> ite = rev
+            ? scoredEntries.descendingIterator(start, end)
+            : scoredEntries.iterator(start, end);
+      return collect(ite, end - start);
    }
 
    @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -397,53 +330,17 @@ public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Doub
       boolean unboundedMin = min == null || min == Double.MIN_VALUE;
       boolean unboundedMax = max == null || max == Double.MAX_VALUE;
 
-      if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
+      int from = 0;
+      if (!unboundedMin) {
+         ScoredValue<V> minSv = ScoredValue.of(min);
+         from = includeMin ? scoredEntries.countLower(minSv) : scoredEntries.countLowerOrEqual(minSv);
       }
-
-      ScoredValue<V> startSv;
-      ScoredValue<V> stopSv;
-      if (unboundedMin) {
-         startSv = scoredEntries.first();
-      } else {
-         if (includeMin) {
-            startSv = scoredEntries.lower(ScoredValue.of(min));
-            if (startSv == null) {
-               startSv = scoredEntries.first();
-            }
-         } else {
-            startSv = scoredEntries.higher(ScoredValue.of(min));
-            if (startSv == null) {
-               startSv = scoredEntries.last();
-            }
-         }
-      }
-
-      if (unboundedMax) {
-         stopSv = scoredEntries.last();
-      } else {
-         if (includeMax) {
-            stopSv = scoredEntries.higher(ScoredValue.of(max));
-         } else {
-            stopSv = scoredEntries.lower(ScoredValue.of(max));
-         }
-
-         if (stopSv == null) {
-            stopSv = scoredEntries.last();
-         }
-      }
-
-      if (startSv.score() > stopSv.score()) {
-         return Collections.emptyList();
+      int to = scoredEntries.size();
+      if (!unboundedMax) {
+         ScoredValue<V> maxSv = ScoredValue.of(max);
+         to = includeMax ? scoredEntries.countLowerOrEqual(maxSv) : scoredEntries.countLower(maxSv);
       }
-
-      NavigableSet<ScoredValue<V>> subset = scoredEntries.subSet(
-            startSv,
-            unboundedMin || (startSv.score() > min || (includeMin && startSv.score().equals(min))),
-            stopSv,
-            unboundedMax || (stopSv.score() < max || (includeMax && stopSv.score().equals(max))));
-
-      return applyLimit(subset, offset, count, isRev);
+      return applyLimit(from, to, offset, count, isRev);
    }
 
    public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopValue, boolean includeStop, boolean isRev, Long offset, Long count) {
@@ -459,65 +356,62 @@ public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopVal
       boolean unboundedMax = maxValue == null;
 
       if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
+         return applyLimit(0, scoredEntries.size(), offset, count, isRev);
       }
       // if all the scoredEntries have the same score, then we can pick up first score for lex
       // when all the entries don't have the same score, this method can't work. This is the expected behaviour.
       double score = scoredEntries.first().score();
 
-      ScoredValue<V> minScoredValue = ScoredValue.of(score, minValue);
-      ScoredValue<V> maxScoredValue = ScoredValue.of(score, maxValue);
-
-      if (unboundedMin) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.headSet(maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
+      int from = 0;
+      if (!unboundedMin) {
+         ScoredValue<V> minScoredValue = ScoredValue.of(score, minValue);
+         from = includeMin ? scoredEntries.countLower(minScoredValue) : scoredEntries.countLowerOrEqual(minScoredValue);
       }
-
-      if (unboundedMax) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.tailSet(minScoredValue, includeMin);
-         return applyLimit(entries, offset, count, isRev);
-      }
-
-      try {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.subSet(minScoredValue, includeMin, maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
-      } catch (IllegalArgumentException e) {
-         return Collections.emptyList();
+      int to = scoredEntries.size();
+      if (!unboundedMax) {
+         ScoredValue<V> maxScoredValue = ScoredValue.of(score, maxValue);
+         to = includeMax ? scoredEntries.countLowerOrEqual(maxScoredValue) : scoredEntries.countLower(maxScoredValue);
       }
+      return applyLimit(from, to, offset, count, isRev);
    }
 
-   private List<ScoredValue<V>> applyLimit(NavigableSet<ScoredValue<V>> subset, final Long offset, final Long count, boolean isRev) {
-      if (!isLimited(offset, count)) {
-         List<ScoredValue<V>> result = new ArrayList<>(entries.size());
-         Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-         while (ite.hasNext()) {
-            result.add(ite.next());
-         }
-         return result;
-      }
-
-      List<ScoredValue<V>> result = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-      if (count < 0) {
-         skipOffset(offset, ite);
-         while (ite.hasNext()) {
-            result.add(ite.next());
-         }
-      } else {
-         skipOffset(offset, ite);
-         long localCount = 0;
-         while (ite.hasNext() && localCount++ < count) {
-            result.add(ite.next());
+   /**
+    * Applies the offset and count limits to the entries with an index between {@code from}, inclusive, and
+    * {@code to}, exclusive. The offset is applied from the end of the range when {@code isRev} is true.
+    */
+   private List<ScoredValue<V>> applyLimit(int from, int to, final Long offset, final Long count, boolean isRev) {
+      if (from >= to) {
+         return new ArrayList<>();
+      }
+
+      long start = from;
+      long end = to;
+      if (isLimited(offset, count)) {
+         long skip = Math.min(Math.max(0, offset), to - from);
+         if (isRev) {
+            end = to - skip;
+            if (count >= 0) {
+               start = Math.max(from, end - Math.min(count, to - from));
+            }
+         } else {
+            start = from + skip;
+            if (count >= 0) {
+               end = Math.min(to, start + Math.min(count, to - from));
+            }
          }
       }
-      return result;
+      Iterator<ScoredValue<V>> ite = isRev
+            ? scoredEntries.descendingIterator((int) start, (int) end)
+            : scoredEntries.iterator((int) start, (int) end);
+      return collect(ite, (int) (end - start));
    }
 
-   private void skipOffset(Long offset, Iterator<ScoredValue<V>> ite) {
-      long localOffset = 0;
-      while (localOffset++ < offset && ite.hasNext()) {
-         ite.next();
+   private static <E> List<E> collect(Iterator<E> ite, int size) {
+      List<E> result = new ArrayList<>(size);
+      while (ite.hasNext()) {
+         result.add(ite.next());
       }
+      return result;
    }
 
    private static boolean isLimited(Long offset, Long count) {
@@ -597,5 +491,88 @@ public int hashCode() {
       return Objects.hash(scoredEntries, entries);
    }
 
+   /**
+    * The next version of a bucket, built by updating the immutable entries of the current one.
+    */
+   private static final class Update<V> {
+      private final SortedSetBucket<V> bucket;
+      private RankedTreeSet<ScoredValue<V>> scoredEntries;
+      private HashTrieMap<MultimapObjectWrapper<V>, Double> entries;
+
+      Update(SortedSetBucket<V> bucket) {
+         this.bucket = bucket;
+         this.scoredEntries = bucket.scoredEntries;
+         this.entries = bucket.entries;
+      }
+
+      void addOnly(ScoredValue<V> scoredValue) {
+         Double existingScore = entries.get(scoredValue.wrappedValue());
+         if (existingScore == null){
+            addScoredValue(scoredValue);
+         }
+      }
+
+      void updateOnly(AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
+         Double existingScore = entries.get(scoredValue.wrappedValue());
+         if (existingScore != null && !existingScore.equals(scoredValue.score())) {
+            updateScoredValue(scoredValue, existingScore);
+            addResult.updated++;
+         }
+      }
+
+      void addOrUpdateGreaterScores(boolean updateOnly, AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
+         Double existingScore = entries.get(scoredValue.wrappedValue());
+         if (existingScore == null && !updateOnly) {
+            addScoredValue(scoredValue);
+         } else if (existingScore != null && scoredValue.score() > existingScore) {
+            updateScoredValue(scoredValue, existingScore);
+            addResult.updated++;
+         }
+      }
+
+      void addOrUpdateLessScores(boolean updateOnly, AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
+         Double existingScore = entries.get(scoredValue.wrappedValue());
+         if (existingScore == null && !updateOnly) {
+            addScoredValue(scoredValue);
+         } else if (existingScore != null && scoredValue.score() < existingScore) {
+            updateScoredValue(scoredValue, existingScore);
+            addResult.updated++;
+         }
+      }
+
+      void addOrUpdate(AddOrUpdatesCounters addResult, ScoredValue<V> scoredValue) {
+         Double existingScore = entries.get(scoredValue.wrappedValue());
+         if (existingScore == null) {
+            addScoredValue(scoredValue);
+         } else if (!scoredValue.score().equals(existingScore)) {
+            // entry exists, check score
+            updateScoredValue(scoredValue, existingScore);
+            addResult.updated++;
+         }
+      }
+
+      private void updateScoredValue(ScoredValue<V> newScoredValue, Double existingScore) {
+         ScoredValue<V> oldScoredValue = new ScoredValue<>(existingScore, newScoredValue.wrappedValue());
+         scoredEntries = scoredEntries.minus(oldScoredValue).plus(newScoredValue);
+         entries = entries.plus(newScoredValue.wrappedValue(), newScoredValue.score());
+      }
+
+      private void addScoredValue(ScoredValue<V> scoredValue) {
+         scoredEntries = scoredEntries.plus(scoredValue);
+         entries = entries.plus(scoredValue.wrappedValue(), scoredValue.score());
+      }
+
+      void remove(ScoredValue<V> scoredValue) {
+         scoredEntries = scoredEntries.minus(scoredValue);
+         entries = entries.minus(scoredValue.wrappedValue());
+      }
+
+      SortedSetBucket<V> bucket() {
+         return scoredEntries == bucket.scoredEntries && entries == bucket.entries
+               ? bucket
+               : new SortedSetBucket<>(scoredEntries, entries);
+      }
+   }
+
    public record SortedSetResult<R, E>(R result, SortedSetBucket<E> bucket) { }
 }
@@ -67,7 +67,10 @@ public Integer apply(EntryView.ReadWriteEntryView<K, HashMapBucket<HK, HV>> view
       HashMapBucket.HashMapBucketResponse<Integer, HK, HV> res = putIfAbsent
             ? bucket.putIfAbsent(values)
             : bucket.putAll(values);
-      view.set(res.bucket());
+      // don't change the cache if the bucket is unchanged. it avoids replicating and persisting a no-op
+      if (res.bucket() != bucket) {
+         view.set(res.bucket());
+      }
 
       return res.response();
    }
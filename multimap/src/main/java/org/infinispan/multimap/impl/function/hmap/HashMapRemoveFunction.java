@@ -38,6 +38,10 @@ public Integer apply(EntryView.ReadWriteEntryView<K, HashMapBucket<HK, HV>> view
       HashMapBucket<HK, HV> bucket = existing.get();
       var res = bucket.removeAll(keys);
 
+      // don't change the cache if no key was removed. it avoids replicating and persisting a no-op
+      if (res.bucket() == bucket) {
+         return 0;
+      }
       if (res.bucket().isEmpty()) {
          view.remove();
       } else {
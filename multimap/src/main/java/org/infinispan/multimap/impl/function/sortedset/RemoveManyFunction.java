@@ -81,7 +81,8 @@ public Long apply(EntryView.ReadWriteEntryView<K, SortedSetBucket<V>> entryView)
          SortedSetBucket<V> next = result.bucket();
          if (next.size() == 0) {
             entryView.remove();
-         } else {
+         } else if (next != bucket) {
+            // don't change if nothing was removed, it avoids replicating a no-op
             entryView.set(next);
          }
          return result.result();
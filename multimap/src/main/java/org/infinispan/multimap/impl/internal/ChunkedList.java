@@ -0,0 +1,343 @@
+package org.infinispan.multimap.impl.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list used by the list multimap buckets to store their values.
+ * <p>
+ * The values are split in chunks of at most {@link #CHUNK_CAPACITY} elements. Every update returns a new instance
+ * sharing all the unmodified chunks with the original one, so pushing, popping, replacing or trimming elements only
+ * copies the affected chunks plus the chunk index (one reference every {@link #CHUNK_CAPACITY} elements), instead of
+ * the whole list. The original instance is never modified, so it can still be read safely by concurrent readers.
+ * <p>
+ * The list does not support the {@link java.util.List} mutation methods.
+ *
+ * @param <V>: Type of the values.
+ * @since 16.2
+ */
+public final class ChunkedList<V> extends AbstractList<V> implements RandomAccess {
+
+   static final int CHUNK_CAPACITY = 128;
+
+   private static final Object[][] NO_CHUNKS = new Object[0][];
+   private static final ChunkedList<?> EMPTY = new ChunkedList<>(NO_CHUNKS);
+
+   // every chunk is non-empty and its length is exactly the number of values it holds
+   private final Object[][] chunks;
+   // offsets[i] is the list index of the first value of chunks[i]
+   private final int[] offsets;
+   private final int size;
+
+   private ChunkedList(Object[][] chunks) {
+      this.chunks = chunks;
+      this.offsets = new int[chunks.length];
+      int total = 0;
+      for (int i = 0; i < chunks.length; i++) {
+         offsets[i] = total;
+         total += chunks[i].length;
+      }
+      this.size = total;
+   }
+
+   @SuppressWarnings("unchecked")
+   public static <V> ChunkedList<V> empty() {
+      return (ChunkedList<V>) EMPTY;
+   }
+
+   public static <V> ChunkedList<V> of(Collection<? extends V> values) {
+      if (values == null || values.isEmpty()) {
+         return empty();
+      }
+      Object[] all = values.toArray();
+      return new ChunkedList<>(split(all, 0, all.length, false));
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public V get(int index) {
+      Objects.checkIndex(index, size);
+      int c = chunkOf(index);
+      return (V) chunks[c][index - offsets[c]];
+   }
+
+   /**
+    * @return a new list with the given value added at the tail.
+    */
+   public ChunkedList<V> append(V value) {
+      return appendAll(Collections.singletonList(value));
+   }
+
+   /**
+    * @return a new list with the given value added at the head.
+    */
+   public ChunkedList<V> prepend(V value) {
+      return prependAll(Collections.singletonList(value));
+   }
+
+   /**
+    * @return a new list with the given values added at the tail, in iteration order.
+    */
+   public ChunkedList<V> appendAll(Collection<? extends V> values) {
+      if (values.isEmpty()) {
+         return this;
+      }
+      Object[] added = values.toArray();
+      int last = chunks.length - 1;
+      int inLast = last < 0 ? 0 : Math.min(CHUNK_CAPACITY - chunks[last].length, added.length);
+      Object[][] created = split(added, inLast, added.length, false);
+      Object[][] spine = Arrays.copyOf(chunks, chunks.length + created.length);
+      if (inLast > 0) {
+         Object[] tail = Arrays.copyOf(chunks[last], chunks[last].length + inLast);
+         System.arraycopy(added, 0, tail, chunks[last].length, inLast);
+         spine[last] = tail;
+      }
+      System.arraycopy(created, 0, spine, chunks.length, created.length);
+      return new ChunkedList<>(spine);
+   }
+
+   /**
+    * @return a new list with the given values added at the head. The values keep their iteration order, so the first
+    * value of the collection becomes the first value of the list.
+    */
+   public ChunkedList<V> prependAll(Collection<? extends V> values) {
+      if (values.isEmpty()) {
+         return this;
+      }
+      Object[] added = values.toArray();
+      int inFirst = chunks.length == 0 ? 0 : Math.min(CHUNK_CAPACITY - chunks[0].length, added.length);
+      int remaining = added.length - inFirst;
+      // the partial chunk, if any, goes first so the chunks near the head can be filled by the next prepends
+      Object[][] created = split(added, 0, remaining, true);
+      Object[][] spine = new Object[created.length + chunks.length][];
+      System.arraycopy(created, 0, spine, 0, created.length);
+      System.arraycopy(chunks, 0, spine, created.length, chunks.length);
+      if (inFirst > 0) {
+         Object[] head = new Object[chunks[0].length + inFirst];
+         System.arraycopy(added, remaining, head, 0, inFirst);
+         System.arraycopy(chunks[0], 0, head, inFirst, chunks[0].length);
+         spine[created.length] = head;
+      }
+      return new ChunkedList<>(spine);
+   }
+
+   /**
+    * @return a new list with the value at the given index replaced.
+    */
+   public ChunkedList<V> with(int index, V value) {
+      Objects.checkIndex(index, size);
+      int c = chunkOf(index);
+      Object[] chunk = chunks[c].clone();
+      chunk[index - offsets[c]] = value;
+      return replaceChunk(c, chunk);
+   }
+
+   /**
+    * @return a new list with the value inserted at the given index, shifting the following values to the right.
+    */
+   public ChunkedList<V> insert(int index, V value) {
+      Objects.checkIndex(index, size + 1);
+      if (index == size) {
+         return append(value);
+      }
+      int c = chunkOf(index);
+      Object[] chunk = chunks[c];
+      int pos = index - offsets[c];
+      Object[] grown = new Object[chunk.length + 1];
+      System.arraycopy(chunk, 0, grown, 0, pos);
+      grown[pos] = value;
+      System.arraycopy(chunk, pos, grown, pos + 1, chunk.length - pos);
+      if (grown.length <= CHUNK_CAPACITY) {
+         return replaceChunk(c, grown);
+      }
+      int half = grown.length >>> 1;
+      return replaceChunk(c, Arrays.copyOfRange(grown, 0, half), Arrays.copyOfRange(grown, half, grown.length));
+   }
+
+   /**
+    * @return a new list without the first {@code count} values.
+    */
+   public ChunkedList<V> dropFirst(int count) {
+      return slice(Math.min(count, size), size);
+   }
+
+   /**
+    * @return a new list without the last {@code count} values.
+    */
+   public ChunkedList<V> dropLast(int count) {
+      return slice(0, size - Math.min(count, size));
+   }
+
+   /**
+    * @param from the index of the first value to keep, inclusive.
+    * @param to the index of the last value to keep, exclusive.
+    * @return a new list with the values between {@code from} and {@code to}. The chunks fully contained in the range
+    * are shared with this list.
+    */
+   public ChunkedList<V> slice(int from, int to) {
+      Objects.checkFromToIndex(from, to, size);
+      if (from == to) {
+         return empty();
+      }
+      if (from == 0 && to == size) {
+         return this;
+      }
+      int first = chunkOf(from);
+      int last = chunkOf(to - 1);
+      Object[][] spine = Arrays.copyOfRange(chunks, first, last + 1);
+      int end = to - offsets[last];
+      if (first == last) {
+         spine[0] = trimChunk(chunks[first], from - offsets[first], end);
+      } else {
+         spine[0] = trimChunk(chunks[first], from - offsets[first], chunks[first].length);
+         spine[spine.length - 1] = trimChunk(chunks[last], 0, end);
+      }
+      return new ChunkedList<>(spine);
+   }
+
+   /**
+    * Removes up to {@code max} values equal to the given element.
+    *
+    * @param element the element to remove.
+    * @param max the maximum number of values to remove.
+    * @param fromTail whether the values closest to the tail are removed first.
+    * @return a new list without the removed values, or this list if nothing was removed.
+    */
+   public ChunkedList<V> removeOccurrences(Object element, long max, boolean fromTail) {
+      Object[][] updated = null;
+      long remaining = max;
+      for (int k = 0; k < chunks.length && remaining > 0; k++) {
+         int c = fromTail ? chunks.length - 1 - k : k;
+         Object[] chunk = chunks[c];
+         boolean[] removed = null;
+         int matches = 0;
+         for (int j = 0; j < chunk.length && remaining > 0; j++) {
+            int i = fromTail ? chunk.length - 1 - j : j;
+            if (Objects.deepEquals(chunk[i], element)) {
+               if (removed == null) {
+                  removed = new boolean[chunk.length];
+               }
+               removed[i] = true;
+               matches++;
+               remaining--;
+            }
+         }
+         if (removed != null) {
+            if (updated == null) {
+               updated = chunks.clone();
+            }
+            Object[] filtered = new Object[chunk.length - matches];
+            for (int i = 0, n = 0; i < chunk.length; i++) {
+               if (!removed[i]) {
+                  filtered[n++] = chunk[i];
+               }
+            }
+            updated[c] = filtered;
+         }
+      }
+      if (updated == null) {
+         return this;
+      }
+      return new ChunkedList<>(Arrays.stream(updated).filter(chunk -> chunk.length > 0).toArray(Object[][]::new));
+   }
+
+   @Override
+   public Iterator<V> iterator() {
+      return new ChunkIterator(false);
+   }
+
+   /**
+    * @return an iterator over the values from the tail to the head.
+    */
+   public Iterator<V> descendingIterator() {
+      return new ChunkIterator(true);
+   }
+
+   int chunkCount() {
+      return chunks.length;
+   }
+
+   private int chunkOf(int index) {
+      int pos = Arrays.binarySearch(offsets, index);
+      return pos >= 0 ? pos : -pos - 2;
+   }
+
+   private ChunkedList<V> replaceChunk(int index, Object[]... replacement) {
+      Object[][] spine = new Object[chunks.length - 1 + replacement.length][];
+      System.arraycopy(chunks, 0, spine, 0, index);
+      System.arraycopy(replacement, 0, spine, index, replacement.length);
+      System.arraycopy(chunks, index + 1, spine, index + replacement.length, chunks.length - index - 1);
+      return new ChunkedList<>(spine);
+   }
+
+   private static Object[] trimChunk(Object[] chunk, int from, int to) {
+      return from == 0 && to == chunk.length ? chunk : Arrays.copyOfRange(chunk, from, to);
+   }
+
+   private static Object[][] split(Object[] values, int from, int to, boolean partialFirst) {
+      int length = to - from;
+      if (length <= 0) {
+         return NO_CHUNKS;
+      }
+      int count = (length + CHUNK_CAPACITY - 1) / CHUNK_CAPACITY;
+      int partial = length - (count - 1) * CHUNK_CAPACITY;
+      Object[][] result = new Object[count][];
+      int start = from;
+      for (int i = 0; i < count; i++) {
+         boolean isPartial = partialFirst ? i == 0 : i == count - 1;
+         int chunkLength = isPartial ? partial : CHUNK_CAPACITY;
+         result[i] = Arrays.copyOfRange(values, start, start + chunkLength);
+         start += chunkLength;
+      }
+      return result;
+   }
+
+   private class ChunkIterator implements Iterator<V> {
+      private final boolean descending;
+      private int chunk;
+      private int position;
+      private int remaining;
+
+      ChunkIterator(boolean descending) {
+         this.descending = descending;
+         this.remaining = size;
+         this.chunk = descending ? chunks.length - 1 : 0;
+         this.position = descending && chunk >= 0 ? chunks[chunk].length - 1 : 0;
+      }
+
+      @Override
+      public boolean hasNext() {
+         return remaining > 0;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public V next() {
+         if (remaining == 0) {
+            throw new NoSuchElementException();
+         }
+         Object value = chunks[chunk][position];
+         remaining--;
+         if (descending) {
+            if (--position < 0 && --chunk >= 0) {
+               position = chunks[chunk].length - 1;
+            }
+         } else if (++position == chunks[chunk].length) {
+            chunk++;
+            position = 0;
+         }
+         return (V) value;
+      }
+   }
+}
@@ -0,0 +1,385 @@
+package org.infinispan.multimap.impl.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash map implemented as a hash array mapped trie.
+ * <p>
+ * Every update returns a new map sharing all the untouched nodes with the original one. Each node holds up to 32
+ * children, so adding or removing an entry copies at most one small node per level (about 4 levels for a million
+ * entries) instead of the whole map. The original map is never modified, so it can still be read safely by
+ * concurrent readers.
+ * <p>
+ * Keys are compared with {@link Object#equals(Object)} and {@link Object#hashCode()}. Null values are allowed, null
+ * keys are not. The map does not support the {@link Map} mutation methods.
+ *
+ * @param <K>: Type of the keys.
+ * @param <V>: Type of the values.
+ * @since 16.2
+ */
+public final class HashTrieMap<K, V> extends AbstractMap<K, V> {
+
+   private static final int BITS = 5;
+   private static final int MASK = (1 << BITS) - 1;
+   private static final HashTrieMap<?, ?> EMPTY = new HashTrieMap<>(BitmapNode.EMPTY, 0);
+
+   private final Node root;
+   private final int size;
+   private Set<Entry<K, V>> entrySet;
+
+   private HashTrieMap(Node root, int size) {
+      this.root = root;
+      this.size = size;
+   }
+
+   @SuppressWarnings("unchecked")
+   public static <K, V> HashTrieMap<K, V> empty() {
+      return (HashTrieMap<K, V>) EMPTY;
+   }
+
+   public static <K, V> HashTrieMap<K, V> of(Map<? extends K, ? extends V> map) {
+      HashTrieMap<K, V> result = empty();
+      for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+         result = result.plus(entry.getKey(), entry.getValue());
+      }
+      return result;
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return root.find(hash(key), key, 0) != null;
+   }
+
+   @Override
+   public V get(Object key) {
+      Leaf<K, V> leaf = find(key);
+      return leaf == null ? null : leaf.value;
+   }
+
+   /**
+    * @return a new map with the given mapping added, or this map if the key is already mapped to the same value.
+    */
+   public HashTrieMap<K, V> plus(K key, V value) {
+      Objects.requireNonNull(key);
+      int hash = hash(key);
+      Leaf<K, V> existing = find(key);
+      if (existing != null && existing.value == value) {
+         return this;
+      }
+      Node newRoot = root.put(new Leaf<>(hash, key, value), 0);
+      return new HashTrieMap<>(newRoot, existing == null ? size + 1 : size);
+   }
+
+   /**
+    * @return a new map without the given key, or this map if the key is not present.
+    */
+   public HashTrieMap<K, V> minus(Object key) {
+      int hash = hash(key);
+      if (root.find(hash, key, 0) == null) {
+         return this;
+      }
+      Object newRoot = root.remove(hash, key, 0);
+      if (newRoot == null) {
+         return empty();
+      }
+      if (newRoot instanceof Leaf<?, ?> leaf) {
+         newRoot = BitmapNode.EMPTY.put(leaf, 0);
+      }
+      return new HashTrieMap<>((Node) newRoot, size - 1);
+   }
+
+   @Override
+   public Set<Entry<K, V>> entrySet() {
+      Set<Entry<K, V>> es = entrySet;
+      if (es == null) {
+         es = entrySet = new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+               return new LeafIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+               return size;
+            }
+         };
+      }
+      return es;
+   }
+
+   @SuppressWarnings("unchecked")
+   private Leaf<K, V> find(Object key) {
+      return (Leaf<K, V>) root.find(hash(key), key, 0);
+   }
+
+   private static int hash(Object key) {
+      int h = key.hashCode();
+      // spread the bits, as HashMap does, so keys with similar hashes do not end up in the same path
+      return h ^ (h >>> 16);
+   }
+
+   private static Object merge(Leaf<?, ?> first, Leaf<?, ?> second, int shift) {
+      if (first.hash == second.hash) {
+         return new CollisionNode(first.hash, new Leaf<?, ?>[]{first, second});
+      }
+      int firstIndex = (first.hash >>> shift) & MASK;
+      int secondIndex = (second.hash >>> shift) & MASK;
+      if (firstIndex == secondIndex) {
+         return new BitmapNode(1 << firstIndex, new Object[]{merge(first, second, shift + BITS)});
+      }
+      Object[] children = firstIndex < secondIndex ? new Object[]{first, second} : new Object[]{second, first};
+      return new BitmapNode((1 << firstIndex) | (1 << secondIndex), children);
+   }
+
+   private static Node nest(CollisionNode collisions, Leaf<?, ?> leaf, int shift) {
+      int collisionsIndex = (collisions.hash >>> shift) & MASK;
+      int leafIndex = (leaf.hash >>> shift) & MASK;
+      if (collisionsIndex == leafIndex) {
+         return new BitmapNode(1 << leafIndex, new Object[]{nest(collisions, leaf, shift + BITS)});
+      }
+      Object[] children = collisionsIndex < leafIndex ? new Object[]{collisions, leaf} : new Object[]{leaf, collisions};
+      return new BitmapNode((1 << collisionsIndex) | (1 << leafIndex), children);
+   }
+
+   private interface Node {
+      Leaf<?, ?> find(int hash, Object key, int shift);
+
+      Node put(Leaf<?, ?> leaf, int shift);
+
+      /**
+       * @return the node without the key, a single leaf when only one entry is left, or null when empty.
+       */
+      Object remove(int hash, Object key, int shift);
+   }
+
+   private static final class Leaf<K, V> implements Entry<K, V> {
+      final int hash;
+      final K key;
+      final V value;
+
+      Leaf(int hash, K key, V value) {
+         this.hash = hash;
+         this.key = key;
+         this.value = value;
+      }
+
+      boolean matches(int hash, Object key) {
+         return this.hash == hash && this.key.equals(key);
+      }
+
+      @Override
+      public K getKey() {
+         return key;
+      }
+
+      @Override
+      public V getValue() {
+         return value;
+      }
+
+      @Override
+      public V setValue(V value) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o instanceof Entry<?, ?> e && key.equals(e.getKey()) && Objects.equals(value, e.getValue());
+      }
+
+      @Override
+      public int hashCode() {
+         return key.hashCode() ^ Objects.hashCode(value);
+      }
+
+      @Override
+      public String toString() {
+         return key + "=" + value;
+      }
+   }
+
+   private static final class BitmapNode implements Node {
+      static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+      final int bitmap;
+      // each child is either a Leaf or a Node
+      final Object[] children;
+
+      BitmapNode(int bitmap, Object[] children) {
+         this.bitmap = bitmap;
+         this.children = children;
+      }
+
+      @Override
+      public Leaf<?, ?> find(int hash, Object key, int shift) {
+         int bit = 1 << ((hash >>> shift) & MASK);
+         if ((bitmap & bit) == 0) {
+            return null;
+         }
+         Object child = children[index(bit)];
+         if (child instanceof Leaf<?, ?> leaf) {
+            return leaf.matches(hash, key) ? leaf : null;
+         }
+         return ((Node) child).find(hash, key, shift + BITS);
+      }
+
+      @Override
+      public Node put(Leaf<?, ?> leaf, int shift) {
+         int bit = 1 << ((leaf.hash >>> shift) & MASK);
+         int index = index(bit);
+         if ((bitmap & bit) == 0) {
+            Object[] updated = new Object[children.length + 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            updated[index] = leaf;
+            System.arraycopy(children, index, updated, index + 1, children.length - index);
+            return new BitmapNode(bitmap | bit, updated);
+         }
+         Object child = children[index];
+         Object replacement;
+         if (child instanceof Leaf<?, ?> existing) {
+            replacement = existing.matches(leaf.hash, leaf.key) ? leaf : merge(existing, leaf, shift + BITS);
+         } else {
+            replacement = ((Node) child).put(leaf, shift + BITS);
+         }
+         Object[] updated = children.clone();
+         updated[index] = replacement;
+         return new BitmapNode(bitmap, updated);
+      }
+
+      @Override
+      public Object remove(int hash, Object key, int shift) {
+         int bit = 1 << ((hash >>> shift) & MASK);
+         int index = index(bit);
+         Object child = children[index];
+         Object replacement = child instanceof Leaf<?, ?> ? null : ((Node) child).remove(hash, key, shift + BITS);
+         if (replacement == null) {
+            if (children.length == 1) {
+               return null;
+            }
+            if (children.length == 2 && children[1 - index] instanceof Leaf<?, ?> remaining) {
+               // let the parent inline the last entry
+               return remaining;
+            }
+            Object[] updated = new Object[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            System.arraycopy(children, index + 1, updated, index, children.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, updated);
+         }
+         if (replacement instanceof Leaf<?, ?> && children.length == 1) {
+            return replacement;
+         }
+         Object[] updated = children.clone();
+         updated[index] = replacement;
+         return new BitmapNode(bitmap, updated);
+      }
+
+      private int index(int bit) {
+         return Integer.bitCount(bitmap & (bit - 1));
+      }
+   }
+
+   private static final class CollisionNode implements Node {
+      final int hash;
+      final Leaf<?, ?>[] leaves;
+
+      CollisionNode(int hash, Leaf<?, ?>[] leaves) {
+         this.hash = hash;
+         this.leaves = leaves;
+      }
+
+      @Override
+      public Leaf<?, ?> find(int hash, Object key, int shift) {
+         for (Leaf<?, ?> leaf : leaves) {
+            if (leaf.matches(hash, key)) {
+               return leaf;
+            }
+         }
+         return null;
+      }
+
+      @Override
+      public Node put(Leaf<?, ?> leaf, int shift) {
+         if (leaf.hash != hash) {
+            return nest(this, leaf, shift);
+         }
+         for (int i = 0; i < leaves.length; i++) {
+            if (leaves[i].matches(leaf.hash, leaf.key)) {
+               Leaf<?, ?>[] updated = leaves.clone();
+               updated[i] = leaf;
+               return new CollisionNode(hash, updated);
+            }
+         }
+         Leaf<?, ?>[] updated = Arrays.copyOf(leaves, leaves.length + 1);
+         updated[leaves.length] = leaf;
+         return new CollisionNode(hash, updated);
+      }
+
+      @Override
+      public Object remove(int hash, Object key, int shift) {
+         if (leaves.length == 2) {
+            return leaves[0].matches(hash, key) ? leaves[1] : leaves[0];
+         }
+         Leaf<?, ?>[] updated = new Leaf<?, ?>[leaves.length - 1];
+         int n = 0;
+         for (Leaf<?, ?> leaf : leaves) {
+            if (!leaf.matches(hash, key)) {
+               updated[n++] = leaf;
+            }
+         }
+         return new CollisionNode(hash, updated);
+      }
+   }
+
+   private static final class LeafIterator<K, V> implements Iterator<Entry<K, V>> {
+      private final Deque<Object> stack = new ArrayDeque<>();
+
+      LeafIterator(Node root) {
+         stack.push(root);
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (!stack.isEmpty()) {
+            Object top = stack.peek();
+            if (top instanceof Leaf<?, ?>) {
+               return true;
+            }
+            stack.pop();
+            if (top instanceof BitmapNode node) {
+               for (int i = node.children.length - 1; i >= 0; i--) {
+                  stack.push(node.children[i]);
+               }
+            } else {
+               Leaf<?, ?>[] leaves = ((CollisionNode) top).leaves;
+               for (int i = leaves.length - 1; i >= 0; i--) {
+                  stack.push(leaves[i]);
+               }
+            }
+         }
+         return false;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Entry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return (Entry<K, V>) stack.pop();
+      }
+   }
+}
@@ -0,0 +1,414 @@
+package org.infinispan.multimap.impl.internal;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable sorted set implemented as a weight-balanced binary tree where every node stores the size of its subtree.
+ * <p>
+ * The sizes allow to compute the rank of an element and to find the element at a given rank in O(log n), so ranking
+ * and range by index queries do not have to walk the set. Every update returns a new set sharing all the untouched
+ * nodes with the original one: adding or removing an element copies only the O(log n) nodes on its path instead of
+ * the whole set. The original set is never modified, so it can still be read safely by concurrent readers.
+ * <p>
+ * Elements are considered equal when the comparator returns 0, like {@link java.util.TreeSet}. The set does not
+ * support the {@link java.util.Set} mutation methods.
+ *
+ * @param <E>: Type of the elements.
+ * @since 16.2
+ */
+public final class RankedTreeSet<E> extends AbstractSet<E> {
+
+   // Balance parameters of the weight-balanced trees, the only integral ones valid for both insertion and deletion
+   private static final int DELTA = 3;
+   private static final int RATIO = 2;
+
+   private final Comparator<? super E> comparator;
+   private final Node<E> root;
+
+   private RankedTreeSet(Comparator<? super E> comparator, Node<E> root) {
+      this.comparator = comparator;
+      this.root = root;
+   }
+
+   public static <E> RankedTreeSet<E> empty(Comparator<? super E> comparator) {
+      return new RankedTreeSet<>(Objects.requireNonNull(comparator), null);
+   }
+
+   /**
+    * Creates a new set with the given elements. When the elements are already sorted, for example when copying another
+    * {@link RankedTreeSet}, the set is built in linear time.
+    */
+   @SuppressWarnings("unchecked")
+   public static <E> RankedTreeSet<E> of(Collection<? extends E> elements, Comparator<? super E> comparator) {
+      Object[] sorted = elements.toArray();
+      if (!isStrictlySorted(sorted, comparator)) {
+         Arrays.sort(sorted, (Comparator<Object>) comparator);
+         sorted = removeDuplicates(sorted, comparator);
+      }
+      return new RankedTreeSet<>(Objects.requireNonNull(comparator), build(sorted, 0, sorted.length));
+   }
+
+   @Override
+   public int size() {
+      return size(root);
+   }
+
+   /**
+    * @return a set with the given element, or this set if it already contains an element equal to it.
+    */
+   public RankedTreeSet<E> plus(E element) {
+      Node<E> updated = insert(root, element);
+      return updated == root ? this : new RankedTreeSet<>(comparator, updated);
+   }
+
+   /**
+    * @return a set without the given element, or this set if it does not contain it.
+    */
+   public RankedTreeSet<E> minus(E element) {
+      Node<E> updated = delete(root, element);
+      return updated == root ? this : new RankedTreeSet<>(comparator, updated);
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean contains(Object o) {
+      E element = (E) o;
+      Node<E> x = root;
+      while (x != null) {
+         int cmp = comparator.compare(element, x.value);
+         if (cmp == 0) {
+            return true;
+         }
+         x = cmp < 0 ? x.left : x.right;
+      }
+      return false;
+   }
+
+   /**
+    * @return the number of elements strictly lower than the given one. For an element contained in the set, this is
+    * its rank.
+    */
+   public int countLower(E element) {
+      return count(element, true);
+   }
+
+   /**
+    * @return the number of elements lower than or equal to the given one.
+    */
+   public int countLowerOrEqual(E element) {
+      return count(element, false);
+   }
+
+   /**
+    * @return the element at the given index, in ascending order.
+    */
+   public E get(int index) {
+      Objects.checkIndex(index, size());
+      Node<E> x = root;
+      for (;;) {
+         int leftSize = size(x.left);
+         if (index < leftSize) {
+            x = x.left;
+         } else if (index == leftSize) {
+            return x.value;
+         } else {
+            index -= leftSize + 1;
+            x = x.right;
+         }
+      }
+   }
+
+   public E first() {
+      if (root == null) {
+         throw new NoSuchElementException();
+      }
+      Node<E> x = root;
+      while (x.left != null) {
+         x = x.left;
+      }
+      return x.value;
+   }
+
+   public E last() {
+      if (root == null) {
+         throw new NoSuchElementException();
+      }
+      Node<E> x = root;
+      while (x.right != null) {
+         x = x.right;
+      }
+      return x.value;
+   }
+
+   @Override
+   public Iterator<E> iterator() {
+      return iterator(0, size());
+   }
+
+   /**
+    * @return an iterator over the elements with an index between {@code from}, inclusive, and {@code to}, exclusive,
+    * in ascending order.
+    */
+   public Iterator<E> iterator(int from, int to) {
+      Objects.checkFromToIndex(from, to, size());
+      return new NodeIterator<>(root, from, to - from, false);
+   }
+
+   /**
+    * @return an iterator over the elements with an index between {@code from}, inclusive, and {@code to}, exclusive,
+    * in descending order.
+    */
+   public Iterator<E> descendingIterator(int from, int to) {
+      Objects.checkFromToIndex(from, to, size());
+      return new NodeIterator<>(root, to - 1, to - from, true);
+   }
+
+   private int count(E element, boolean strict) {
+      int rank = 0;
+      Node<E> x = root;
+      while (x != null) {
+         int cmp = comparator.compare(x.value, element);
+         if (strict ? cmp < 0 : cmp <= 0) {
+            rank += size(x.left) + 1;
+            x = x.right;
+         } else {
+            x = x.left;
+         }
+      }
+      return rank;
+   }
+
+   private Node<E> insert(Node<E> node, E element) {
+      if (node == null) {
+         return new Node<>(element, null, null);
+      }
+      int cmp = comparator.compare(element, node.value);
+      if (cmp == 0) {
+         return node;
+      }
+      if (cmp < 0) {
+         Node<E> left = insert(node.left, element);
+         return left == node.left ? node : balance(node.value, left, node.right);
+      }
+      Node<E> right = insert(node.right, element);
+      return right == node.right ? node : balance(node.value, node.left, right);
+   }
+
+   private Node<E> delete(Node<E> node, E element) {
+      if (node == null) {
+         return null;
+      }
+      int cmp = comparator.compare(element, node.value);
+      if (cmp == 0) {
+         return glue(node.left, node.right);
+      }
+      if (cmp < 0) {
+         Node<E> left = delete(node.left, element);
+         return left == node.left ? node : balance(node.value, left, node.right);
+      }
+      Node<E> right = delete(node.right, element);
+      return right == node.right ? node : balance(node.value, node.left, right);
+   }
+
+   /**
+    * Joins the subtrees of a removed node, which were balanced with each other.
+    */
+   private static <E> Node<E> glue(Node<E> left, Node<E> right) {
+      if (left == null) {
+         return right;
+      }
+      if (right == null) {
+         return left;
+      }
+      if (left.size > right.size) {
+         E max = maxValue(left);
+         return balance(max, deleteMax(left), right);
+      }
+      E min = minValue(right);
+      return balance(min, left, deleteMin(right));
+   }
+
+   private static <E> E minValue(Node<E> node) {
+      while (node.left != null) {
+         node = node.left;
+      }
+      return node.value;
+   }
+
+   private static <E> E maxValue(Node<E> node) {
+      while (node.right != null) {
+         node = node.right;
+      }
+      return node.value;
+   }
+
+   private static <E> Node<E> deleteMin(Node<E> node) {
+      if (node.left == null) {
+         return node.right;
+      }
+      return balance(node.value, deleteMin(node.left), node.right);
+   }
+
+   private static <E> Node<E> deleteMax(Node<E> node) {
+      if (node.right == null) {
+         return node.left;
+      }
+      return balance(node.value, node.left, deleteMax(node.right));
+   }
+
+   /**
+    * Creates a node from subtrees that were balanced before one element was added to or removed from one of them.
+    */
+   private static <E> Node<E> balance(E value, Node<E> left, Node<E> right) {
+      int leftSize = size(left);
+      int rightSize = size(right);
+      if (leftSize + rightSize <= 1) {
+         return new Node<>(value, left, right);
+      }
+      if (rightSize > DELTA * leftSize) {
+         return size(right.left) < RATIO * size(right.right)
+               ? singleLeft(value, left, right)
+               : doubleLeft(value, left, right);
+      }
+      if (leftSize > DELTA * rightSize) {
+         return size(left.right) < RATIO * size(left.left)
+               ? singleRight(value, left, right)
+               : doubleRight(value, left, right);
+      }
+      return new Node<>(value, left, right);
+   }
+
+   private static <E> Node<E> singleLeft(E value, Node<E> left, Node<E> right) {
+      return new Node<>(right.value, new Node<>(value, left, right.left), right.right);
+   }
+
+   private static <E> Node<E> doubleLeft(E value, Node<E> left, Node<E> right) {
+      Node<E> pivot = right.left;
+      return new Node<>(pivot.value, new Node<>(value, left, pivot.left),
+            new Node<>(right.value, pivot.right, right.right));
+   }
+
+   private static <E> Node<E> singleRight(E value, Node<E> left, Node<E> right) {
+      return new Node<>(left.value, left.left, new Node<>(value, left.right, right));
+   }
+
+   private static <E> Node<E> doubleRight(E value, Node<E> left, Node<E> right) {
+      Node<E> pivot = left.right;
+      return new Node<>(pivot.value, new Node<>(left.value, left.left, pivot.left),
+            new Node<>(value, pivot.right, right));
+   }
+
+   private static <E> Node<E> build(Object[] sorted, int from, int to) {
+      if (from >= to) {
+         return null;
+      }
+      int middle = (from + to) >>> 1;
+      @SuppressWarnings("unchecked")
+      E value = (E) sorted[middle];
+      return new Node<>(value, build(sorted, from, middle), build(sorted, middle + 1, to));
+   }
+
+   private static int size(Node<?> node) {
+      return node == null ? 0 : node.size;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static boolean isStrictlySorted(Object[] elements, Comparator<?> comparator) {
+      Comparator<Object> c = (Comparator<Object>) comparator;
+      for (int i = 1; i < elements.length; i++) {
+         if (c.compare(elements[i - 1], elements[i]) >= 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static Object[] removeDuplicates(Object[] sorted, Comparator<?> comparator) {
+      Comparator<Object> c = (Comparator<Object>) comparator;
+      int unique = 0;
+      for (int i = 0; i < sorted.length; i++) {
+         if (unique == 0 || c.compare(sorted[unique - 1], sorted[i]) != 0) {
+            sorted[unique++] = sorted[i];
+         }
+      }
+      return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+   }
+
+   private static final class Node<E> {
+      final E value;
+      final Node<E> left;
+      final Node<E> right;
+      final int size;
+
+      Node(E value, Node<E> left, Node<E> right) {
+         this.value = value;
+         this.left = left;
+         this.right = right;
+         this.size = size(left) + size(right) + 1;
+      }
+   }
+
+   private static final class NodeIterator<E> implements Iterator<E> {
+      private final boolean descending;
+      // the nodes still to visit, the next one on top
+      private final Deque<Node<E>> stack = new ArrayDeque<>();
+      private int remaining;
+
+      NodeIterator(Node<E> root, int start, int count, boolean descending) {
+         this.descending = descending;
+         this.remaining = count;
+         if (count == 0) {
+            return;
+         }
+         // push the path to the start element, keeping only the nodes visited after it
+         Node<E> x = root;
+         while (x != null) {
+            int leftSize = size(x.left);
+            if (start < leftSize) {
+               if (!descending) {
+                  stack.push(x);
+               }
+               x = x.left;
+            } else if (start == leftSize) {
+               stack.push(x);
+               return;
+            } else {
+               if (descending) {
+                  stack.push(x);
+               }
+               start -= leftSize + 1;
+               x = x.right;
+            }
+         }
+      }
+
+      @Override
+      public boolean hasNext() {
+         return remaining > 0;
+      }
+
+      @Override
+      public E next() {
+         if (remaining == 0) {
+            throw new NoSuchElementException();
+         }
+         Node<E> node = stack.pop();
+         Node<E> x = descending ? node.left : node.right;
+         while (x != null) {
+            stack.push(x);
+            x = descending ? x.right : x.left;
+         }
+         remaining--;
+         return node.value;
+      }
+   }
+}
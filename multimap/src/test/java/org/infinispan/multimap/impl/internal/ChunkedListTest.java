@@ -0,0 +1,112 @@
+package org.infinispan.multimap.impl.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.internal.ChunkedListTest")
+public class ChunkedListTest extends AbstractInfinispanTest {
+
+   private static List<Integer> range(int from, int to) {
+      return IntStream.range(from, to).boxed().collect(Collectors.toList());
+   }
+
+   public void testAppendAndPrepend() {
+      ChunkedList<Integer> list = ChunkedList.<Integer>empty()
+            .appendAll(range(100, 400))
+            .prependAll(range(0, 100))
+            .append(400)
+            .prepend(-1);
+
+      List<Integer> expected = range(-1, 401);
+      assertThat(list).containsExactlyElementsOf(expected);
+      assertThat(list.size()).isEqualTo(expected.size());
+      for (int i = 0; i < expected.size(); i++) {
+         assertThat(list.get(i)).isEqualTo(expected.get(i));
+      }
+   }
+
+   public void testUpdatesDoNotModifyOriginal() {
+      ChunkedList<Integer> original = ChunkedList.of(range(0, 1000));
+
+      original.append(1000);
+      original.prepend(-1);
+      original.with(500, -500);
+      original.insert(10, -10);
+      original.dropFirst(300);
+      original.dropLast(300);
+      original.slice(100, 200);
+      original.removeOccurrences(42, 1, false);
+
+      assertThat(original).containsExactlyElementsOf(range(0, 1000));
+   }
+
+   public void testUpdatesShareChunks() {
+      ChunkedList<Integer> original = ChunkedList.of(range(0, ChunkedList.CHUNK_CAPACITY * 10));
+      ChunkedList<Integer> appended = original.append(-1);
+      assertThat(appended.chunkCount()).isEqualTo(original.chunkCount() + 1);
+
+      ChunkedList<Integer> trimmed = original.slice(ChunkedList.CHUNK_CAPACITY / 2, original.size() - 1);
+      assertThat(trimmed.chunkCount()).isEqualTo(original.chunkCount());
+      assertThat(trimmed.get(0)).isEqualTo(ChunkedList.CHUNK_CAPACITY / 2);
+      assertThat(trimmed.get(trimmed.size() - 1)).isEqualTo(original.size() - 2);
+   }
+
+   public void testInsertSplitsFullChunk() {
+      ChunkedList<Integer> list = ChunkedList.of(range(0, ChunkedList.CHUNK_CAPACITY));
+      assertThat(list.chunkCount()).isEqualTo(1);
+
+      list = list.insert(5, -5);
+      assertThat(list.chunkCount()).isEqualTo(2);
+      assertThat(list.get(5)).isEqualTo(-5);
+      assertThat(list.get(6)).isEqualTo(5);
+      assertThat(list.size()).isEqualTo(ChunkedList.CHUNK_CAPACITY + 1);
+   }
+
+   public void testRemoveOccurrences() {
+      List<Integer> values = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+         values.add(i % 3);
+      }
+      ChunkedList<Integer> list = ChunkedList.of(values);
+
+      assertThat(list.removeOccurrences(7, 10, false)).isSameAs(list);
+
+      ChunkedList<Integer> head = list.removeOccurrences(0, 2, false);
+      assertThat(head).startsWith(1, 2, 1, 2, 0);
+
+      ChunkedList<Integer> tail = list.removeOccurrences(1, 2, true);
+      assertThat(tail.size()).isEqualTo(498);
+      assertThat(tail.subList(tail.size() - 5, tail.size())).containsExactly(2, 0, 2, 0, 2);
+
+      ChunkedList<Integer> all = list.removeOccurrences(2, Long.MAX_VALUE, false);
+      assertThat(all).doesNotContain(2).hasSize(334);
+   }
+
+   public void testDescendingIterator() {
+      ChunkedList<Integer> list = ChunkedList.<Integer>empty().prependAll(range(0, 300));
+      Iterator<Integer> it = list.descendingIterator();
+      for (int i = 299; i >= 0; i--) {
+         assertThat(it.next()).isEqualTo(i);
+      }
+      assertThat(it.hasNext()).isFalse();
+      assertThat(ChunkedList.empty().descendingIterator().hasNext()).isFalse();
+   }
+
+   public void testDropAndSlice() {
+      ChunkedList<Integer> list = ChunkedList.of(range(0, 1000));
+      assertThat(list.dropFirst(10)).containsExactlyElementsOf(range(10, 1000));
+      assertThat(list.dropLast(10)).containsExactlyElementsOf(range(0, 990));
+      assertThat(list.dropFirst(2000)).isEmpty();
+      assertThat(list.slice(200, 700)).containsExactlyElementsOf(range(200, 700));
+      assertThat(list.slice(5, 5)).isEmpty();
+      assertThat(list.slice(0, 1000)).isSameAs(list);
+   }
+}
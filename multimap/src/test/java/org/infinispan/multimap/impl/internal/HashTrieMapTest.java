@@ -0,0 +1,78 @@
+package org.infinispan.multimap.impl.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.internal.HashTrieMapTest")
+public class HashTrieMapTest extends AbstractInfinispanTest {
+
+   public void testMatchesHashMap() {
+      Random random = new Random(42);
+      HashTrieMap<Integer, Integer> map = HashTrieMap.empty();
+      Map<Integer, Integer> reference = new HashMap<>();
+
+      for (int i = 0; i < 20_000; i++) {
+         int key = random.nextInt(2000);
+         if (random.nextInt(3) == 0) {
+            map = map.minus(key);
+            reference.remove(key);
+         } else {
+            map = map.plus(key, i);
+            reference.put(key, i);
+         }
+         assertThat(map.size()).isEqualTo(reference.size());
+         assertThat(map.get(key)).isEqualTo(reference.get(key));
+      }
+      assertThat(map).isEqualTo(reference);
+   }
+
+   public void testCollidingKeys() {
+      HashTrieMap<CollidingKey, String> map = HashTrieMap.empty();
+      for (int i = 0; i < 100; i++) {
+         map = map.plus(new CollidingKey(i, i % 3), "v" + i);
+      }
+      assertThat(map).hasSize(100);
+      for (int i = 0; i < 100; i++) {
+         assertThat(map.get(new CollidingKey(i, i % 3))).isEqualTo("v" + i);
+      }
+      for (int i = 0; i < 100; i += 2) {
+         map = map.minus(new CollidingKey(i, i % 3));
+      }
+      assertThat(map).hasSize(50);
+      assertThat(map.containsKey(new CollidingKey(1, 1))).isTrue();
+      assertThat(map.containsKey(new CollidingKey(2, 2))).isFalse();
+      assertThat(map.keySet()).hasSize(50);
+   }
+
+   public void testUpdatesDoNotModifyOriginal() {
+      HashTrieMap<String, Integer> original = HashTrieMap.empty();
+      for (int i = 0; i < 1000; i++) {
+         original = original.plus("k" + i, i);
+      }
+      HashTrieMap<String, Integer> updated = original.plus("k1", -1).minus("k2").plus("new", 0);
+
+      assertThat(original).hasSize(1000).containsEntry("k1", 1).containsEntry("k2", 2).doesNotContainKey("new");
+      assertThat(updated).hasSize(1000).containsEntry("k1", -1).doesNotContainKey("k2").containsEntry("new", 0);
+   }
+
+   public void testNoOpUpdatesReturnSameInstance() {
+      Integer value = 1000;
+      HashTrieMap<String, Integer> map = HashTrieMap.<String, Integer>empty().plus("a", value);
+      assertThat(map.plus("a", value)).isSameAs(map);
+      assertThat(map.minus("b")).isSameAs(map);
+      assertThat(map.minus("a")).isEmpty();
+   }
+
+   private record CollidingKey(int id, int hash) {
+      @Override
+      public int hashCode() {
+         return hash;
+      }
+   }
+}
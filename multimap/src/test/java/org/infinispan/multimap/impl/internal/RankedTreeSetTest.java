@@ -0,0 +1,103 @@
+package org.infinispan.multimap.impl.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.internal.RankedTreeSetTest")
+public class RankedTreeSetTest extends AbstractInfinispanTest {
+
+   public void testRanksMatchTreeSet() {
+      Random random = new Random(42);
+      RankedTreeSet<Integer> set = RankedTreeSet.empty(Comparator.naturalOrder());
+      TreeSet<Integer> reference = new TreeSet<>();
+
+      for (int i = 0; i < 5000; i++) {
+         int value = random.nextInt(1000);
+         RankedTreeSet<Integer> previous = set;
+         boolean changed;
+         if (random.nextInt(3) == 0) {
+            set = set.minus(value);
+            changed = reference.remove(value);
+         } else {
+            set = set.plus(value);
+            changed = reference.add(value);
+         }
+         assertThat(set != previous).isEqualTo(changed);
+         assertThat(set.size()).isEqualTo(reference.size());
+         assertThat(set.contains(value)).isEqualTo(reference.contains(value));
+         assertThat(set.countLower(value)).isEqualTo(reference.headSet(value).size());
+         assertThat(set.countLowerOrEqual(value)).isEqualTo(reference.headSet(value, true).size());
+      }
+
+      List<Integer> expected = new ArrayList<>(reference);
+      assertThat(set).containsExactlyElementsOf(expected);
+      for (int i = 0; i < expected.size(); i++) {
+         assertThat(set.get(i)).isEqualTo(expected.get(i));
+      }
+      assertThat(set.first()).isEqualTo(reference.first());
+      assertThat(set.last()).isEqualTo(reference.last());
+   }
+
+   public void testRangeIterators() {
+      RankedTreeSet<Integer> set = RankedTreeSet.of(List.of(5, 1, 4, 2, 3, 3), Comparator.naturalOrder());
+      assertThat(set).containsExactly(1, 2, 3, 4, 5);
+
+      assertThat(toList(set.iterator(1, 4))).containsExactly(2, 3, 4);
+      assertThat(toList(set.descendingIterator(1, 4))).containsExactly(4, 3, 2);
+      assertThat(toList(set.iterator(2, 2))).isEmpty();
+      assertThat(toList(set.descendingIterator(0, 5))).containsExactly(5, 4, 3, 2, 1);
+      for (int from = 0; from <= 5; from++) {
+         for (int to = from; to <= 5; to++) {
+            assertThat(toList(set.iterator(from, to))).containsExactlyElementsOf(List.of(1, 2, 3, 4, 5).subList(from, to));
+         }
+      }
+   }
+
+   public void testUpdatesKeepPreviousVersion() {
+      List<Integer> values = new ArrayList<>();
+      for (int i = 0; i < 10_000; i++) {
+         values.add(i * 2);
+      }
+      RankedTreeSet<Integer> set = RankedTreeSet.of(values, Comparator.naturalOrder());
+      RankedTreeSet<Integer> next = set.plus(7).minus(0);
+
+      assertThat(set.countLower(8)).isEqualTo(4);
+      assertThat(set.contains(0)).isTrue();
+      assertThat(set.contains(7)).isFalse();
+      assertThat(next.countLower(8)).isEqualTo(4);
+      assertThat(next.get(3)).isEqualTo(7);
+      assertThat(next.size()).isEqualTo(set.size());
+      assertThat(set.minus(1)).isSameAs(set);
+      assertThat(set.plus(2)).isSameAs(set);
+   }
+
+   public void testRemoveAllKeepsBalance() {
+      RankedTreeSet<Integer> set = RankedTreeSet.empty(Comparator.naturalOrder());
+      for (int i = 0; i < 10_000; i++) {
+         set = set.plus(i);
+      }
+      // Removing from one side only exercises all the rotations
+      for (int i = 0; i < 9_000; i++) {
+         set = set.minus(i);
+      }
+      assertThat(set.size()).isEqualTo(1_000);
+      assertThat(set.first()).isEqualTo(9_000);
+      assertThat(set.get(500)).isEqualTo(9_500);
+      assertThat(set.countLower(9_999)).isEqualTo(999);
+   }
+
+   private static <E> List<E> toList(Iterator<E> iterator) {
+      List<E> result = new ArrayList<>();
+      iterator.forEachRemaining(result::add);
+      return result;
+   }
+}
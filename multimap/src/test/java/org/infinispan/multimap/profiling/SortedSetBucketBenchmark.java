@@ -0,0 +1,131 @@
+package org.infinispan.multimap.profiling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.multimap.impl.ScoredValue;
+import org.infinispan.multimap.impl.SortedSetBucket;
+import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the ZADD, ZRANK and ZRANGEBYSCORE operations of {@link SortedSetBucket} against the TreeSet and HashMap pair
+ * it used before the ranked tree set.
+ */
+public class SortedSetBucketBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 5;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+
+   public static void main(String[] args) throws Exception {
+      Options opt = new OptionsBuilder()
+            .include(SortedSetBucketBenchmark.class.getName() + ".State.*")
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupIterations(WARMUP_ITERATIONS_COUNT)
+            .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .build();
+
+      new Runner(opt).run();
+   }
+
+   @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+   public static class State {
+
+      @Param({"1000", "100000", "1000000"})
+      int size;
+
+      SortedSetBucket<String> bucket;
+      TreeSet<ScoredValue<String>> treeSet;
+      Map<MultimapObjectWrapper<String>, Double> treeSetScores;
+
+      String member;
+      double minScore;
+      ScoredValue<String> newValue;
+
+      @Setup(Level.Trial)
+      public void setup() {
+         bucket = new SortedSetBucket<>();
+         List<ScoredValue<String>> values = new ArrayList<>(size);
+         for (int i = 0; i < size; i++) {
+            values.add(ScoredValue.of(i, "member-" + i));
+         }
+         bucket = bucket.addMany(values, false, false, false, false).bucket();
+         treeSet = new TreeSet<>(values);
+         treeSetScores = new HashMap<>();
+         values.forEach(v -> treeSetScores.put(v.wrappedValue(), v.score()));
+      }
+
+      @Setup(Level.Invocation)
+      public void pickMember() {
+         int i = ThreadLocalRandom.current().nextInt(size);
+         member = "member-" + i;
+         minScore = i;
+         newValue = ScoredValue.of(i + 0.5, "new-member-" + i);
+      }
+
+      @Benchmark
+      public void zaddBucket(Blackhole bh) {
+         bh.consume(bucket.addMany(List.of(newValue), false, false, false, false));
+      }
+
+      @Benchmark
+      public void zaddTreeSet(Blackhole bh) {
+         // the buckets are copied on write, so the baseline copies the pair too
+         TreeSet<ScoredValue<String>> copy = new TreeSet<>(treeSet);
+         Map<MultimapObjectWrapper<String>, Double> scores = new HashMap<>(treeSetScores);
+         copy.add(newValue);
+         scores.put(newValue.wrappedValue(), newValue.score());
+         bh.consume(copy);
+         bh.consume(scores);
+      }
+
+      @Benchmark
+      public Object zrankBucket() {
+         return bucket.indexOf(member, false);
+      }
+
+      @Benchmark
+      public int zrankTreeSet() {
+         MultimapObjectWrapper<String> wrapped = new MultimapObjectWrapper<>(member);
+         Double score = treeSetScores.get(wrapped);
+         return treeSet.headSet(new ScoredValue<>(score, wrapped)).size();
+      }
+
+      @Benchmark
+      public Object zrangeByScoreBucket() {
+         return bucket.subset(minScore, true, null, false, false, 10L, 10L);
+      }
+
+      @Benchmark
+      public void zrangeByScoreTreeSet(Blackhole bh) {
+         NavigableSet<ScoredValue<String>> subset = treeSet.tailSet(ScoredValue.of(minScore), true);
+         Iterator<ScoredValue<String>> it = subset.iterator();
+         for (int i = 0; i < 10 && it.hasNext(); i++) {
+            it.next();
+         }
+         for (int i = 0; i < 10 && it.hasNext(); i++) {
+            bh.consume(it.next());
+         }
+      }
+   }
+}
@@ -0,0 +1,218 @@
+package org.infinispan.query.backend;
+
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.functional.ReadWriteKeyCommand;
+import org.infinispan.commands.functional.ReadWriteKeyValueCommand;
+import org.infinispan.commands.functional.ReadWriteManyCommand;
+import org.infinispan.commands.functional.ReadWriteManyEntriesCommand;
+import org.infinispan.commands.functional.WriteOnlyKeyCommand;
+import org.infinispan.commands.functional.WriteOnlyKeyValueCommand;
+import org.infinispan.commands.functional.WriteOnlyManyCommand;
+import org.infinispan.commands.functional.WriteOnlyManyEntriesCommand;
+import org.infinispan.commands.tx.CommitCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.ComputeCommand;
+import org.infinispan.commands.write.ComputeIfAbsentCommand;
+import org.infinispan.commands.write.InvalidateCommand;
+import org.infinispan.commands.write.IracPutKeyValueCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.RemoveExpiredCommand;
+import org.infinispan.commands.write.ReplaceCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.ReadCommittedEntry;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.impl.FlagBitSets;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.interceptors.DDAsyncInterceptor;
+import org.infinispan.interceptors.InvocationSuccessAction;
+import org.infinispan.persistence.manager.PersistenceManager;
+
+/**
+ * Base class of the interceptors observing the entries stored on this node by the successful writes.
+ * <p>
+ * The non-transactional writes are reported after they are applied, and the transactional writes when the transaction
+ * is committed. Unlike the {@link QueryInterceptor}, the writes with the {@link org.infinispan.context.Flag#SKIP_INDEXING}
+ * flag are reported too.
+ *
+ * @since 16.2
+ */
+public abstract class AbstractEntryWriteInterceptor extends DDAsyncInterceptor {
+
+   @Inject
+   KeyPartitioner keyPartitioner;
+   @Inject
+   PersistenceManager persistenceManager;
+
+   private final InvocationSuccessAction<WriteCommand> entriesWritten = this::entriesWritten;
+   private final InvocationSuccessAction<VisitableCommand> transactionCommitted = this::transactionCommitted;
+   private final InvocationSuccessAction<VisitableCommand> cacheCleared = (rCtx, rCommand, rv) -> cacheCleared();
+
+   /**
+    * Invoked for every entry stored on this node by a successful write.
+    *
+    * @param segment       the segment of the entry.
+    * @param entry         the written entry, with a {@code null} value if it was removed.
+    * @param previousValue the value before the write, {@code null} if the entry did not exist.
+    * @param previousKnown {@code false} if the value before the write is not known, e.g. because the write did not load
+    *                      it from the store or it was overwritten by a previous write in the same transaction.
+    */
+   protected abstract void entryWritten(int segment, CacheEntry<?, ?> entry, Object previousValue, boolean previousKnown);
+
+   /**
+    * Invoked after the cache is cleared.
+    */
+   protected abstract void cacheCleared();
+
+   private Object handleWriteCommand(InvocationContext ctx, WriteCommand command) {
+      // the transactional writes are reported when the transaction is committed
+      return ctx.isInTxScope() ? invokeNext(ctx, command) : invokeNextThenAccept(ctx, command, entriesWritten);
+   }
+
+   private void entriesWritten(InvocationContext ctx, WriteCommand command, Object rv) {
+      if (!command.isSuccessful()) {
+         return;
+      }
+      boolean unreliablePrevious = unreliablePreviousValue(command);
+      for (Object key : command.getAffectedKeys()) {
+         entryWritten(ctx, key, unreliablePrevious);
+      }
+   }
+
+   private void transactionCommitted(InvocationContext ctx, VisitableCommand command, Object rv) {
+      // the entries keep the value before the last write in the transaction, not the value before the transaction
+      for (Object key : ((TxInvocationContext<?>) ctx).getAffectedKeys()) {
+         entryWritten(ctx, key, true);
+      }
+   }
+
+   private void entryWritten(InvocationContext ctx, Object key, boolean unreliablePrevious) {
+      CacheEntry<?, ?> entry = ctx.lookupEntry(key);
+      if (entry == null || !entry.isChanged()) {
+         return;
+      }
+      Object previousValue = null;
+      boolean previousKnown = false;
+      if (entry instanceof ReadCommittedEntry<?, ?> mvccEntry) {
+         if (!mvccEntry.isCommitted()) {
+            // the entry is not stored in this node
+            return;
+         }
+         if (!unreliablePrevious) {
+            previousValue = mvccEntry.getOldValue();
+            previousKnown = true;
+         }
+      }
+      entryWritten(keyPartitioner.getSegment(key), entry, previousValue, previousKnown);
+   }
+
+   private boolean unreliablePreviousValue(WriteCommand command) {
+      return persistenceManager.isEnabled() && (command.loadType() == VisitableCommand.LoadType.DONT_LOAD
+            || command.hasAnyFlag(FlagBitSets.SKIP_CACHE_LOAD));
+   }
+
+   @Override
+   public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitIracPutKeyValueCommand(InvocationContext ctx, IracPutKeyValueCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitRemoveExpiredCommand(InvocationContext ctx, RemoveExpiredCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitComputeCommand(InvocationContext ctx, ComputeCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitComputeIfAbsentCommand(InvocationContext ctx, ComputeIfAbsentCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitInvalidateCommand(InvocationContext ctx, InvalidateCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitClearCommand(InvocationContext ctx, ClearCommand command) {
+      return invokeNextThenAccept(ctx, command, cacheCleared);
+   }
+
+   @Override
+   public Object visitReadWriteKeyCommand(InvocationContext ctx, ReadWriteKeyCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitWriteOnlyKeyCommand(InvocationContext ctx, WriteOnlyKeyCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitReadWriteKeyValueCommand(InvocationContext ctx, ReadWriteKeyValueCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitWriteOnlyManyEntriesCommand(InvocationContext ctx, WriteOnlyManyEntriesCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitWriteOnlyKeyValueCommand(InvocationContext ctx, WriteOnlyKeyValueCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitWriteOnlyManyCommand(InvocationContext ctx, WriteOnlyManyCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitReadWriteManyEntriesCommand(InvocationContext ctx, ReadWriteManyEntriesCommand command) {
+      return handleWriteCommand(ctx, command);
+   }
+
+   @Override
+   public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) {
+      return command.isOnePhaseCommit() ? invokeNextThenAccept(ctx, command, transactionCommitted) : invokeNext(ctx, command);
+   }
+
+   @Override
+   public Object visitCommitCommand(TxInvocationContext ctx, CommitCommand command) {
+      return invokeNextThenAccept(ctx, command, transactionCommitted);
+   }
+}
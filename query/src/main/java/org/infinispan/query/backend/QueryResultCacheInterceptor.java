@@ -0,0 +1,33 @@
+package org.infinispan.query.backend;
+
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.query.core.impl.QueryResultCache;
+
+/**
+ * Reports the writes to the {@link QueryResultCache}, so it can invalidate the affected query results.
+ * <p>
+ * It is installed next to the {@link QueryInterceptor} when the result cache is enabled, in the indexed and the
+ * non-indexed caches. Unlike the {@link QueryInterceptor}, it also observes the writes with the
+ * {@link org.infinispan.context.Flag#SKIP_INDEXING} flag, as they change the results of the non-indexed queries.
+ *
+ * @since 16.2
+ */
+public final class QueryResultCacheInterceptor extends AbstractEntryWriteInterceptor {
+
+   private final QueryResultCache resultCache;
+
+   public QueryResultCacheInterceptor(QueryResultCache resultCache) {
+      this.resultCache = resultCache;
+   }
+
+   @Override
+   protected void entryWritten(int segment, CacheEntry<?, ?> entry, Object previousValue, boolean previousKnown) {
+      resultCache.entryWritten(segment, previousKnown ? previousValue : QueryResultCache.UNKNOWN, entry.getValue(),
+            entry.getMetadata());
+   }
+
+   @Override
+   protected void cacheCleared() {
+      resultCache.invalidateAll();
+   }
+}
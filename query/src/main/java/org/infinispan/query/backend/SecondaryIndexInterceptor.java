@@ -0,0 +1,57 @@
+package org.infinispan.query.backend;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.query.core.impl.SecondaryIndexes;
+import org.infinispan.util.concurrent.BlockingManager;
+
+/**
+ * Maintains the {@link SecondaryIndexes} of a cache with the entries written on this node, including the entries
+ * received by state transfer, and drops the segments lost by this node.
+ *
+ * @since 16.2
+ */
+public final class SecondaryIndexInterceptor extends AbstractEntryWriteInterceptor {
+
+   @Inject
+   BlockingManager blockingManager;
+
+   private final SecondaryIndexes secondaryIndexes;
+   private final AdvancedCache<?, ?> cache;
+
+   private SegmentListener segmentListener;
+
+   public SecondaryIndexInterceptor(SecondaryIndexes secondaryIndexes, AdvancedCache<?, ?> cache) {
+      this.secondaryIndexes = secondaryIndexes;
+      this.cache = cache;
+   }
+
+   @Start
+   void start() {
+      if (cache.getCacheConfiguration().clustering().cacheMode().isClustered()) {
+         segmentListener = new SegmentListener(cache.getRpcManager().getAddress(), secondaryIndexes::removeSegments, blockingManager);
+         cache.addListener(segmentListener);
+      }
+   }
+
+   @Stop
+   void stop() {
+      if (segmentListener != null) {
+         cache.removeListener(segmentListener);
+         segmentListener = null;
+      }
+   }
+
+   @Override
+   protected void entryWritten(int segment, CacheEntry<?, ?> entry, Object previousValue, boolean previousKnown) {
+      secondaryIndexes.entryWritten(segment, entry.getKey(), entry.getValue());
+   }
+
+   @Override
+   protected void cacheCleared() {
+      secondaryIndexes.clear();
+   }
+}
@@ -104,11 +104,15 @@ private Query<T> createQuery() {
 
    @Override
    public List<T> list() {
-      return createQuery().list();
+      return queryEngine.resultCache != null ? execute().list() : createQuery().list();
    }
 
    @Override
    public QueryResult<T> execute() {
+      if (queryEngine.resultCache != null) {
+         return queryEngine.resultCache.get(parsingResult, namedParameters, startOffset, maxResults, hitCountAccuracy,
+               local, () -> createQuery().execute());
+      }
       return createQuery().execute();
    }
 
@@ -2,11 +2,14 @@
 
 import static org.infinispan.query.core.impl.Log.CONTAINER;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -88,6 +91,10 @@ protected Comparator<Comparable<?>[]> getComparator() {
    @Override
    protected ClosableIteratorWithCount<ObjectFilter.FilterResult> getInternalIterator() {
       IckleFilterAndConverter<Object, Object> ickleFilter = (IckleFilterAndConverter<Object, Object>) createFilter();
+      Set<Object> candidates = queryEngine.findSecondaryIndexCandidates(queryString, namedParameters, isLocal());
+      if (candidates != null) {
+         return getSecondaryIndexIterator(ickleFilter, candidates);
+      }
       AdvancedCache<Object, Object> cache = (AdvancedCache<Object, Object>) (isLocal() ? this.cache.withFlags(Flag.CACHE_MODE_LOCAL) : this.cache);
 
       CacheStream<CacheEntry<Object, Object>> entryStream = cache.cacheEntrySet().stream();
@@ -101,6 +108,23 @@ protected ClosableIteratorWithCount<ObjectFilter.FilterResult> getInternalIterat
       return Closeables.iteratorWithCount(resultStream);
    }
 
+   /**
+    * Matches the filter against the candidate entries found with the secondary indexes, which are all stored on this
+    * node.
+    */
+   private ClosableIteratorWithCount<ObjectFilter.FilterResult> getSecondaryIndexIterator(IckleFilterAndConverter<Object, Object> ickleFilter,
+                                                                                         Set<Object> candidates) {
+      AdvancedCache<Object, Object> cache = (AdvancedCache<Object, Object>) this.cache.withStorageMediaType().withFlags(Flag.CACHE_MODE_LOCAL);
+      List<ObjectFilter.FilterResult> results = new ArrayList<>();
+      for (CacheEntry<Object, Object> entry : cache.getAllCacheEntries(candidates).values()) {
+         ObjectFilter.FilterResult result = ickleFilter.filterAndConvert(entry.getKey(), entry.getValue(), entry.getMetadata());
+         if (result != null) {
+            results.add(result);
+         }
+      }
+      return Closeables.iteratorWithCount(results.stream());
+   }
+
    @Override
    public QueryResult<T> execute() {
       if (isSelectStatement()) {
@@ -0,0 +1,203 @@
+package org.infinispan.query.core.impl;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.configuration.cache.SecondaryIndexType;
+import org.infinispan.query.objectfilter.impl.util.ReflectionHelper;
+
+/**
+ * The in-memory secondary index of a field of an entity, split by segment so the segments lost by this node can be
+ * dropped.
+ * <p>
+ * Each segment maps the indexed values to the keys of the entries having them, in a hash map or, for the
+ * {@link SecondaryIndexType#RANGE} indexes, in a sorted map. It also maps the keys to their indexed value, so an update
+ * does not need the previous value of the entry. The updates of a segment are serialized, the lookups are lock-free.
+ *
+ * @since 16.2
+ */
+final class FieldIndex {
+
+   private final Class<?> entityType;
+   private final String field;
+   private final SecondaryIndexType type;
+   private final ReflectionHelper.PropertyAccessor[] accessors;
+   private final AtomicReferenceArray<Segment> segments;
+
+   FieldIndex(Class<?> entityType, String field, SecondaryIndexType type,
+              ReflectionHelper.PropertyAccessor[] accessors, int numSegments) {
+      this.entityType = entityType;
+      this.field = field;
+      this.type = type;
+      this.accessors = accessors;
+      this.segments = new AtomicReferenceArray<>(numSegments);
+   }
+
+   Class<?> getEntityType() {
+      return entityType;
+   }
+
+   String getField() {
+      return field;
+   }
+
+   SecondaryIndexType getType() {
+      return type;
+   }
+
+   /**
+    * Indexes the value of an entry, or removes the entry from the index if the value is {@code null}, is not an
+    * instance of the entity or has a {@code null} field.
+    *
+    * @param onlyIfAbsent if {@code true}, the entries already indexed are not updated.
+    */
+   void update(int segmentId, Object key, Object value, boolean onlyIfAbsent) {
+      Object indexedValue = extract(value);
+      Segment segment = segments.get(segmentId);
+      if (segment == null) {
+         if (indexedValue == null) {
+            return;
+         }
+         segment = getOrCreateSegment(segmentId);
+      }
+      segment.update(key, indexedValue, onlyIfAbsent);
+   }
+
+   void removeSegments(IntSet segmentIds) {
+      segmentIds.forEach((int segmentId) -> segments.set(segmentId, null));
+   }
+
+   void clear() {
+      for (int i = 0; i < segments.length(); i++) {
+         segments.set(i, null);
+      }
+   }
+
+   /**
+    * Adds the keys of the entries with the given value.
+    *
+    * @param segmentIds the segments to look up, or {@code null} for all the segments.
+    */
+   void lookup(Object value, IntSet segmentIds, Collection<Object> keys) {
+      for (int i = 0; i < segments.length(); i++) {
+         Segment segment = segments.get(i);
+         if (segment != null && (segmentIds == null || segmentIds.contains(i))) {
+            Set<Object> valueKeys = segment.keysByValue.get(value);
+            if (valueKeys != null) {
+               keys.addAll(valueKeys);
+            }
+         }
+      }
+   }
+
+   /**
+    * Adds the keys of the entries with a value in the given range. It is only supported by the
+    * {@link SecondaryIndexType#RANGE} indexes.
+    *
+    * @param from       the lower bound, or {@code null} if the range is not bounded below.
+    * @param to         the upper bound, or {@code null} if the range is not bounded above.
+    * @param segmentIds the segments to look up, or {@code null} for all the segments.
+    */
+   void lookupRange(Comparable<Object> from, boolean fromInclusive, Comparable<Object> to, boolean toInclusive,
+                    IntSet segmentIds, Collection<Object> keys) {
+      if (from != null && to != null) {
+         int c = from.compareTo(to);
+         if (c > 0 || c == 0 && !(fromInclusive && toInclusive)) {
+            return;
+         }
+      }
+      for (int i = 0; i < segments.length(); i++) {
+         Segment segment = segments.get(i);
+         if (segment != null && (segmentIds == null || segmentIds.contains(i))) {
+            NavigableMap<Object, Set<Object>> sorted = (NavigableMap<Object, Set<Object>>) segment.keysByValue;
+            NavigableMap<Object, Set<Object>> range;
+            if (from == null) {
+               range = to == null ? sorted : sorted.headMap(to, toInclusive);
+            } else {
+               range = to == null ? sorted.tailMap(from, fromInclusive) : sorted.subMap(from, fromInclusive, to, toInclusive);
+            }
+            for (Set<Object> valueKeys : range.values()) {
+               keys.addAll(valueKeys);
+            }
+         }
+      }
+   }
+
+   private Object extract(Object value) {
+      if (!entityType.isInstance(value)) {
+         return null;
+      }
+      Object fieldValue = value;
+      for (ReflectionHelper.PropertyAccessor accessor : accessors) {
+         fieldValue = accessor.getValue(fieldValue);
+         if (fieldValue == null) {
+            return null;
+         }
+      }
+      return fieldValue;
+   }
+
+   private Segment getOrCreateSegment(int segmentId) {
+      Segment created = null;
+      for (;;) {
+         Segment segment = segments.get(segmentId);
+         if (segment != null) {
+            return segment;
+         }
+         if (created == null) {
+            created = new Segment(type == SecondaryIndexType.RANGE ? new ConcurrentSkipListMap<>() : new ConcurrentHashMap<>());
+         }
+         // the segment created by another thread can be removed before it is read, then a new one is created
+         if (segments.compareAndSet(segmentId, null, created)) {
+            return created;
+         }
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "FieldIndex{" +
+            "entityType=" + entityType.getName() +
+            ", field='" + field + '\'' +
+            ", type=" + type +
+            '}';
+   }
+
+   private static final class Segment {
+      final Map<Object, Set<Object>> keysByValue;
+      final ConcurrentMap<Object, Object> valueByKey = new ConcurrentHashMap<>();
+
+      Segment(Map<Object, Set<Object>> keysByValue) {
+         this.keysByValue = keysByValue;
+      }
+
+      synchronized void update(Object key, Object indexedValue, boolean onlyIfAbsent) {
+         Object previous = valueByKey.get(key);
+         if (previous != null && onlyIfAbsent || Objects.equals(previous, indexedValue)) {
+            return;
+         }
+         // the key is added with the new value before it is removed from the previous one
+         if (indexedValue != null) {
+            keysByValue.computeIfAbsent(indexedValue, v -> ConcurrentHashMap.newKeySet()).add(key);
+            valueByKey.put(key, indexedValue);
+         } else {
+            valueByKey.remove(key);
+         }
+         if (previous != null) {
+            Set<Object> previousKeys = keysByValue.get(previous);
+            previousKeys.remove(key);
+            if (previousKeys.isEmpty()) {
+               keysByValue.remove(previous);
+            }
+         }
+      }
+   }
+}
@@ -13,6 +13,7 @@
 import org.hibernate.search.util.common.logging.impl.ClassFormatter;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CacheBackpressureFullException;
 import org.infinispan.partitionhandling.AvailabilityException;
@@ -264,6 +265,16 @@ static Log getLog(Class<?> clazz) {
    @Message(value = "Query '%s' rejected: sorted non-indexed queries require loading all results into memory, but the system is under memory pressure", id = 14069)
    CacheException queryRejectedLowMemory(String queryString);
 
+   @Message(value = "Cannot create the secondary index of field '%s' of entity '%s'", id = 14070)
+   CacheConfigurationException invalidSecondaryIndex(String field, String entity, @Cause Throwable t);
+
+   @Message(value = "Cannot create the secondary index of field '%s' of entity '%s': %s", id = 14071)
+   CacheConfigurationException unsupportedSecondaryIndex(String field, String entity, String reason);
+
+   @LogMessage(level = WARN)
+   @Message(value = "The secondary indexes of cache '%s' are ignored, they require the values to be stored as Java objects instead of '%s'", id = 14072)
+   void secondaryIndexesIgnored(String cacheName, MediaType storageMediaType);
+
    @Message(id = 14501, value = "Exception while retrieving the type model for '%1$s'.")
    SearchException errorRetrievingTypeModel(@FormatWith(ClassFormatter.class) Class<?> clazz, @Cause Exception cause);
 
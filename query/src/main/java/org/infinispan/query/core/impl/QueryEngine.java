@@ -7,6 +7,7 @@
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.query.BaseQuery;
@@ -70,6 +71,16 @@
     */
    protected final QueryCache queryCache;
 
+   /**
+    * Optional cache for the query results, {@code null} if the result cache is disabled.
+    */
+   protected final QueryResultCache resultCache;
+
+   /**
+    * Optional secondary indexes of the non-indexed queries, {@code null} if none is configured.
+    */
+   protected final SecondaryIndexes secondaryIndexes;
+
    private final int defaultMaxResults;
 
    protected final LocalQueryStatistics queryStatistics;
@@ -81,6 +92,8 @@ protected QueryEngine(AdvancedCache<?, ?> cache, Class<? extends Matcher> matche
       this.matcherImplClass = matcherImplClass;
       this.queryCache = SecurityActions.getGlobalComponentRegistry(cache.getCacheManager()).getComponent(QueryCache.class);
       this.queryStatistics = SecurityActions.getCacheComponentRegistry(cache).getComponent(LocalQueryStatistics.class);
+      this.resultCache = SecurityActions.getCacheComponentRegistry(cache).getComponent(QueryResultCache.class);
+      this.secondaryIndexes = SecurityActions.getCacheComponentRegistry(cache).getComponent(SecondaryIndexes.class);
       this.matcher = SecurityActions.getCacheComponentRegistry(cache).getComponent(matcherImplClass);
       this.defaultMaxResults = cache.getCacheConfiguration().query().defaultMaxResults();
       propertyHelper = ((BaseMatcher<TypeMetadata, ?, ?>) matcher).getPropertyHelper();
@@ -519,6 +532,24 @@ protected IckleParsingResult<TypeMetadata> parse(String queryString) {
             : IckleQueryStringParser.parse(queryString, propertyHelper);
    }
 
+   /**
+    * Finds the keys of the entries that can match the filter of a non-indexed query with the secondary indexes.
+    *
+    * @return the keys in storage format, or {@code null} if the query must scan the cache.
+    */
+   final Set<Object> findSecondaryIndexCandidates(String queryString, Map<String, Object> namedParameters, boolean local) {
+      if (secondaryIndexes == null || !secondaryIndexes.isReady()) {
+         return null;
+      }
+      IckleParsingResult<TypeMetadata> parsingResult = parse(queryString);
+      if (parsingResult.getWhereClause() == null) {
+         return null;
+      }
+      BooleanExpr normalizedWhereClause = booleanFilterNormalizer.normalize(parsingResult.getWhereClause());
+      return secondaryIndexes.findCandidates(parsingResult.getTargetEntityMetadata(), normalizedWhereClause,
+            namedParameters, local);
+   }
+
    protected final ObjectFilter getObjectFilter(Matcher matcher, String queryString, Map<String, Object> namedParameters, List<FieldAccumulator> accumulators) {
       ObjectFilter objectFilter = queryCache != null
             ? queryCache.get(cache.getName(), queryString, accumulators, matcher.getClass(), matcher::getObjectFilter)
@@ -0,0 +1,332 @@
+package org.infinispan.query.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ExpirationConfiguration;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.query.dsl.QueryResult;
+import org.infinispan.query.objectfilter.impl.syntax.parser.IckleParsingResult;
+import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.security.impl.Authorizer;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Caches the results of the Ickle queries executed on a cache, keyed by the query string, the named parameters and the
+ * pagination. It is enabled with {@link org.infinispan.configuration.cache.QueryConfiguration#resultCacheSize()}.
+ * <p>
+ * The results are invalidated when an entity of the queried type is written in one of the segments the results were
+ * computed from. The writes are reported by the {@link org.infinispan.query.backend.QueryResultCacheInterceptor}, so
+ * only the results computed from the data written on this node are cached: queries on local, replicated and
+ * invalidation caches and local queries on distributed caches. The results of local queries are also invalidated when
+ * the cache topology changes.
+ * <p>
+ * The entries expired by the container are not written through the interceptor chain, so the results are not cached if
+ * the cache has entries with a lifespan or a max idle. The entries evicted by the container are not written through the
+ * interceptor chain either, so the results are not cached if the memory is bounded and the evicted entries are not kept
+ * in a store.
+ *
+ * @since 16.2
+ */
+@MBean(objectName = "ResultCache", description = "Cache of the query results")
+@Scope(Scopes.NAMED_CACHE)
+public final class QueryResultCache {
+
+   private static final Log log = Log.getLog(QueryResultCache.class);
+
+   /**
+    * Marks the previous value of an entry when it is not known.
+    */
+   public static final Object UNKNOWN = new Object() {
+      @Override
+      public String toString() {
+         return "<UNKNOWN>";
+      }
+   };
+
+   @Inject
+   DistributionManager distributionManager;
+   @Inject
+   Authorizer authorizer;
+
+   private final String cacheName;
+   private final int maxEntries;
+   private final boolean writesObservedLocally;
+   private final boolean evictedEntriesLost;
+
+   @GuardedBy("this")
+   private final LinkedHashMap<ResultKey, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true);
+   // the cached results grouped by the metadata of their target entity
+   @GuardedBy("this")
+   private final Map<Object, Map<ResultKey, CachedResult>> resultsByType = new HashMap<>();
+   private volatile int size;
+   private volatile boolean mortalEntries;
+
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder invalidations = new LongAdder();
+
+   public QueryResultCache(String cacheName, Configuration configuration) {
+      this.cacheName = cacheName;
+      this.maxEntries = configuration.query().resultCacheSize();
+      this.writesObservedLocally = !configuration.clustering().cacheMode().isDistributed();
+      ExpirationConfiguration expiration = configuration.expiration();
+      this.mortalEntries = expiration.lifespan() > -1 || expiration.maxIdle() > -1;
+      this.evictedEntriesLost = configuration.memory().isEvictionEnabled() && !configuration.persistence().usingStores();
+      if (evictedEntriesLost) {
+         log.debugf("Disabling the query result cache of cache %s, its evicted entries are not kept in a store", cacheName);
+      }
+   }
+
+   @Stop
+   void stop() {
+      clearResults();
+   }
+
+   /**
+    * Returns the cached result of the query, or executes the query and caches its result.
+    */
+   public <T> QueryResult<T> get(IckleParsingResult<?> parsingResult, Map<String, Object> namedParameters,
+                                 long startOffset, int maxResults, Integer hitCountAccuracy, boolean local,
+                                 Supplier<QueryResult<T>> query) {
+      if (!isCacheable(parsingResult, local)) {
+         return query.get();
+      }
+      ResultKey key = new ResultKey(parsingResult.getQueryString(),
+            namedParameters == null ? null : new HashMap<>(namedParameters), startOffset, maxResults,
+            hitCountAccuracy, local);
+      int topologyId = topologyId();
+      CachedResult pending;
+      synchronized (this) {
+         CachedResult cached = results.get(key);
+         if (cached != null && cached.result != null) {
+            if (cached.topologyId == topologyId) {
+               hits.increment();
+               return (QueryResult<T>) cached.result;
+            }
+            remove(cached);
+            invalidations.increment();
+         }
+         misses.increment();
+         // the pending result is removed by the writes executed while the query is running
+         pending = new CachedResult(key, parsingResult.getTargetEntityMetadata(), localSegments(), topologyId);
+         add(pending);
+      }
+      QueryResult<T> result;
+      try {
+         result = query.get();
+      } catch (Throwable t) {
+         synchronized (this) {
+            if (results.get(key) == pending) {
+               remove(pending);
+            }
+         }
+         throw t;
+      }
+      QueryResult<T> copy = new QueryResultImpl<>(result.count(), Collections.unmodifiableList(new ArrayList<>(result.list())));
+      synchronized (this) {
+         if (results.get(key) == pending) {
+            pending.result = copy;
+         }
+      }
+      return copy;
+   }
+
+   /**
+    * Invalidates the results affected by a write to an entry.
+    *
+    * @param segment  the segment of the entry.
+    * @param oldValue the previous value in storage format, {@code null} if the entry did not exist or {@link #UNKNOWN}.
+    * @param newValue the new value in storage format, {@code null} if the entry was removed.
+    * @param metadata the metadata of the new value.
+    */
+   public void entryWritten(int segment, Object oldValue, Object newValue, Metadata metadata) {
+      if (metadata != null && (metadata.lifespan() > -1 || metadata.maxIdle() > -1) && !mortalEntries) {
+         log.debugf("Disabling the query result cache of cache %s, it contains entries that expire", cacheName);
+         mortalEntries = true;
+         invalidateAll();
+         return;
+      }
+      if (size == 0) {
+         return;
+      }
+      synchronized (this) {
+         Iterator<Map.Entry<Object, Map<ResultKey, CachedResult>>> typeIterator = resultsByType.entrySet().iterator();
+         while (typeIterator.hasNext()) {
+            Map.Entry<Object, Map<ResultKey, CachedResult>> typeEntry = typeIterator.next();
+            if (!isAffected(typeEntry.getKey(), oldValue) && !isAffected(typeEntry.getKey(), newValue)) {
+               continue;
+            }
+            Iterator<CachedResult> iterator = typeEntry.getValue().values().iterator();
+            while (iterator.hasNext()) {
+               CachedResult cached = iterator.next();
+               if (cached.segments == null || cached.segments.contains(segment)) {
+                  iterator.remove();
+                  results.remove(cached.key);
+                  invalidations.increment();
+               }
+            }
+            if (typeEntry.getValue().isEmpty()) {
+               typeIterator.remove();
+            }
+         }
+         size = results.size();
+      }
+   }
+
+   /**
+    * Invalidates all the results, used when the cache is cleared.
+    */
+   public void invalidateAll() {
+      if (size == 0) {
+         return;
+      }
+      invalidations.add(clearResults());
+   }
+
+   @ManagedAttribute(description = "Number of queries answered from the result cache.",
+         displayName = "Result cache hits.", measurementType = MeasurementType.TRENDSUP)
+   public long getHits() {
+      return hits.sum();
+   }
+
+   @ManagedAttribute(description = "Number of queries executed because their result was not cached.",
+         displayName = "Result cache misses.", measurementType = MeasurementType.TRENDSUP)
+   public long getMisses() {
+      return misses.sum();
+   }
+
+   @ManagedAttribute(description = "Number of cached results invalidated by writes or topology changes.",
+         displayName = "Result cache invalidations.", measurementType = MeasurementType.TRENDSUP)
+   public long getInvalidations() {
+      return invalidations.sum();
+   }
+
+   @ManagedAttribute(description = "Ratio of the queries answered from the result cache.",
+         displayName = "Result cache hit ratio.")
+   public double getHitRatio() {
+      long hitCount = getHits();
+      long total = hitCount + getMisses();
+      return total == 0 ? 0 : (double) hitCount / total;
+   }
+
+   @ManagedAttribute(description = "Number of cached query results.",
+         displayName = "Result cache size.")
+   public int getNumberOfEntries() {
+      return size;
+   }
+
+   @ManagedOperation(description = "Removes all the cached query results and resets the statistics.",
+         displayName = "Clear the result cache.")
+   public void clear() {
+      authorizer.checkPermission(AuthorizationPermission.ADMIN);
+      clearResults();
+      hits.reset();
+      misses.reset();
+      invalidations.reset();
+   }
+
+   private boolean isCacheable(IckleParsingResult<?> parsingResult, boolean local) {
+      return !mortalEntries && !evictedEntriesLost && parsingResult.getStatementType() == IckleParsingResult.StatementType.SELECT &&
+            (writesObservedLocally || local);
+   }
+
+   private synchronized int clearResults() {
+      int count = results.size();
+      results.clear();
+      resultsByType.clear();
+      size = 0;
+      return count;
+   }
+
+   @GuardedBy("this")
+   private void add(CachedResult cached) {
+      CachedResult previous = results.put(cached.key, cached);
+      if (previous != null) {
+         removeByType(previous);
+      }
+      resultsByType.computeIfAbsent(cached.targetType, k -> new HashMap<>()).put(cached.key, cached);
+      if (results.size() > maxEntries) {
+         // the least recently used result
+         remove(results.values().iterator().next());
+      }
+      size = results.size();
+   }
+
+   @GuardedBy("this")
+   private void remove(CachedResult cached) {
+      results.remove(cached.key);
+      removeByType(cached);
+      size = results.size();
+   }
+
+   @GuardedBy("this")
+   private void removeByType(CachedResult cached) {
+      Map<ResultKey, CachedResult> typeResults = resultsByType.get(cached.targetType);
+      if (typeResults != null && typeResults.remove(cached.key, cached) && typeResults.isEmpty()) {
+         resultsByType.remove(cached.targetType);
+      }
+   }
+
+   private int topologyId() {
+      return distributionManager == null ? -1 : distributionManager.getCacheTopology().getTopologyId();
+   }
+
+   private IntSet localSegments() {
+      // the queries on the data written on this node depend on all the segments
+      return writesObservedLocally ? null : distributionManager.getCacheTopology().getLocalReadSegments();
+   }
+
+   /**
+    * Checks if a value can be an instance of the target entity of a query. The values that are not Java objects and the
+    * targets that are not classes, i.e. Protobuf types, are always considered affected.
+    */
+   private static boolean isAffected(Object targetType, Object value) {
+      if (value == null) {
+         return false;
+      }
+      if (!(targetType instanceof Class<?> type) || value == UNKNOWN || value instanceof WrappedBytes || value instanceof byte[]) {
+         return true;
+      }
+      return type.isInstance(value);
+   }
+
+   private record ResultKey(String queryString, Map<String, Object> namedParameters, long startOffset,
+                            int maxResults, Integer hitCountAccuracy, boolean local) {
+   }
+
+   private static final class CachedResult {
+      final ResultKey key;
+      final Object targetType;
+      final IntSet segments;
+      final int topologyId;
+      // null while the query is running
+      volatile QueryResult<?> result;
+
+      CachedResult(ResultKey key, Object targetType, IntSet segments, int topologyId) {
+         this.key = key;
+         this.targetType = targetType;
+         this.segments = segments;
+         this.topologyId = topologyId;
+      }
+   }
+}
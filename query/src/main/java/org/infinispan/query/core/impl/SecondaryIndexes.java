@@ -0,0 +1,287 @@
+package org.infinispan.query.core.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.SecondaryIndex;
+import org.infinispan.configuration.cache.SecondaryIndexType;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.query.objectfilter.impl.syntax.AndExpr;
+import org.infinispan.query.objectfilter.impl.syntax.BetweenExpr;
+import org.infinispan.query.objectfilter.impl.syntax.BooleanExpr;
+import org.infinispan.query.objectfilter.impl.syntax.ComparisonExpr;
+import org.infinispan.query.objectfilter.impl.syntax.ConstantValueExpr;
+import org.infinispan.query.objectfilter.impl.syntax.OrExpr;
+import org.infinispan.query.objectfilter.impl.syntax.PropertyValueExpr;
+import org.infinispan.query.objectfilter.impl.syntax.ValueExpr;
+import org.infinispan.query.objectfilter.impl.util.ReflectionHelper;
+
+/**
+ * The in-memory secondary indexes of a non-indexed cache, configured with
+ * {@link org.infinispan.configuration.cache.QueryConfiguration#secondaryIndexes()}.
+ * <p>
+ * The indexes are maintained by the {@link org.infinispan.query.backend.SecondaryIndexInterceptor} with the entries
+ * stored on this node, including the entries received by state transfer, and the segments lost by this node are
+ * dropped. The non-indexed queries use them to find the keys of the entries that can match the equality, {@code IN} and
+ * range predicates of their filter, instead of scanning the whole cache. The candidate entries are still matched
+ * against the full filter, so the indexes may contain stale keys.
+ * <p>
+ * Only the Java entities are indexed, and the indexes are only used for the queries on the data stored on this node:
+ * queries on local, replicated and invalidation caches and local queries on distributed caches.
+ *
+ * @since 16.2
+ */
+@Scope(Scopes.NAMED_CACHE)
+public final class SecondaryIndexes {
+
+   private static final Log log = Log.getLog(SecondaryIndexes.class);
+
+   @Inject
+   DistributionManager distributionManager;
+   @Inject
+   KeyPartitioner keyPartitioner;
+
+   private final List<FieldIndex> indexes;
+   private final boolean writesObservedLocally;
+   // the entries already in the stores are indexed by build()
+   private volatile boolean ready;
+
+   public SecondaryIndexes(Configuration configuration, ClassLoader classLoader) {
+      int numSegments = configuration.clustering().hash().numSegments();
+      List<SecondaryIndex> secondaryIndexes = configuration.query().secondaryIndexes();
+      this.indexes = new ArrayList<>(secondaryIndexes.size());
+      for (SecondaryIndex secondaryIndex : secondaryIndexes) {
+         indexes.add(createIndex(secondaryIndex, classLoader, numSegments));
+      }
+      this.writesObservedLocally = !configuration.clustering().cacheMode().isDistributed();
+      this.ready = !configuration.persistence().usingStores();
+   }
+
+   private static FieldIndex createIndex(SecondaryIndex secondaryIndex, ClassLoader classLoader, int numSegments) {
+      String entity = secondaryIndex.entity();
+      String field = secondaryIndex.field();
+      String[] path = field.split("\\.");
+      ReflectionHelper.PropertyAccessor[] accessors = new ReflectionHelper.PropertyAccessor[path.length];
+      Class<?> entityType;
+      try {
+         entityType = Util.loadClassStrict(entity, classLoader);
+         accessors[0] = ReflectionHelper.getAccessor(entityType, path[0]);
+         for (int i = 1; i < path.length; i++) {
+            accessors[i] = accessors[i - 1].getAccessor(path[i]);
+         }
+      } catch (ReflectiveOperationException | IllegalArgumentException e) {
+         throw Log.CONTAINER.invalidSecondaryIndex(field, entity, e);
+      }
+      for (ReflectionHelper.PropertyAccessor accessor : accessors) {
+         if (accessor.isMultiple()) {
+            throw Log.CONTAINER.unsupportedSecondaryIndex(field, entity, "repeated properties cannot be indexed");
+         }
+      }
+      Class<?> fieldType = accessors[accessors.length - 1].getPropertyType();
+      if (fieldType.isEnum()) {
+         throw Log.CONTAINER.unsupportedSecondaryIndex(field, entity, "enum properties cannot be indexed");
+      }
+      if (secondaryIndex.type() == SecondaryIndexType.RANGE && !fieldType.isPrimitive() && !Comparable.class.isAssignableFrom(fieldType)) {
+         throw Log.CONTAINER.unsupportedSecondaryIndex(field, entity, "range indexes require comparable properties");
+      }
+      return new FieldIndex(entityType, field, secondaryIndex.type(), accessors, numSegments);
+   }
+
+   /**
+    * Indexes the entries already in the stores when the cache starts. The queries do not use the indexes before the
+    * entries are indexed.
+    */
+   public void build(AdvancedCache<?, ?> cache) {
+      if (ready) {
+         return;
+      }
+      AdvancedCache<Object, Object> storageCache = (AdvancedCache<Object, Object>) cache.withStorageMediaType().withFlags(Flag.CACHE_MODE_LOCAL);
+      try (CloseableIterator<CacheEntry<Object, Object>> iterator = storageCache.cacheEntrySet().iterator()) {
+         while (iterator.hasNext()) {
+            CacheEntry<Object, Object> entry = iterator.next();
+            int segment = keyPartitioner.getSegment(entry.getKey());
+            for (FieldIndex index : indexes) {
+               // the entries written meanwhile are already indexed with their latest value
+               index.update(segment, entry.getKey(), entry.getValue(), true);
+            }
+         }
+      }
+      log.debugf("Secondary indexes %s of cache %s built", indexes, cache.getName());
+      ready = true;
+   }
+
+   /**
+    * Updates the indexes after a write stored an entry on this node.
+    *
+    * @param value the new value in storage format, {@code null} if the entry was removed.
+    */
+   public void entryWritten(int segment, Object key, Object value) {
+      for (FieldIndex index : indexes) {
+         index.update(segment, key, value, false);
+      }
+   }
+
+   /**
+    * Drops the segments that are no longer stored on this node.
+    */
+   public void removeSegments(IntSet segments) {
+      for (FieldIndex index : indexes) {
+         index.removeSegments(segments);
+      }
+   }
+
+   /**
+    * Empties the indexes, used when the cache is cleared.
+    */
+   public void clear() {
+      for (FieldIndex index : indexes) {
+         index.clear();
+      }
+   }
+
+   public boolean isReady() {
+      return ready;
+   }
+
+   /**
+    * Finds the keys of the entries that can match a filter.
+    *
+    * @param targetType      the metadata of the queried entity.
+    * @param whereClause     the normalized filter of the query.
+    * @param namedParameters the values of the query parameters.
+    * @param local           whether the query only targets the data of this node.
+    * @return the keys in storage format, or {@code null} if the indexes cannot resolve the filter and the cache must be
+    * scanned.
+    */
+   public Set<Object> findCandidates(Object targetType, BooleanExpr whereClause, Map<String, Object> namedParameters,
+                                     boolean local) {
+      if (!ready || whereClause == null || !(targetType instanceof Class<?> entityType)) {
+         return null;
+      }
+      IntSet segments = null;
+      if (!writesObservedLocally) {
+         if (!local) {
+            return null;
+         }
+         segments = distributionManager.getCacheTopology().getLocalReadSegments();
+      }
+      return findCandidates(entityType, whereClause, namedParameters, segments);
+   }
+
+   private Set<Object> findCandidates(Class<?> entityType, BooleanExpr expr, Map<String, Object> namedParameters, IntSet segments) {
+      if (expr instanceof AndExpr andExpr) {
+         // the intersection of the children resolved by the indexes
+         Set<Object> keys = null;
+         for (BooleanExpr child : andExpr.getChildren()) {
+            Set<Object> childKeys = findCandidates(entityType, child, namedParameters, segments);
+            if (childKeys != null) {
+               if (keys == null) {
+                  keys = childKeys;
+               } else {
+                  keys.retainAll(childKeys);
+               }
+            }
+         }
+         return keys;
+      }
+      if (expr instanceof OrExpr orExpr) {
+         // the union of the children, all of them must be resolved by the indexes
+         Set<Object> keys = new HashSet<>();
+         for (BooleanExpr child : orExpr.getChildren()) {
+            Set<Object> childKeys = findCandidates(entityType, child, namedParameters, segments);
+            if (childKeys == null) {
+               return null;
+            }
+            keys.addAll(childKeys);
+         }
+         return keys;
+      }
+      if (expr instanceof ComparisonExpr comparisonExpr) {
+         return findCandidates(entityType, comparisonExpr, namedParameters, segments);
+      }
+      if (expr instanceof BetweenExpr betweenExpr) {
+         FieldIndex index = findIndex(entityType, betweenExpr.getLeftChild(), true);
+         if (index == null) {
+            return null;
+         }
+         Class<?> valueType = ((PropertyValueExpr) betweenExpr.getLeftChild()).getPrimitiveType();
+         Comparable<Object> from = constantValue(betweenExpr.getFromChild(), valueType, namedParameters);
+         Comparable<Object> to = constantValue(betweenExpr.getToChild(), valueType, namedParameters);
+         if (from == null || to == null) {
+            return null;
+         }
+         Set<Object> keys = new HashSet<>();
+         index.lookupRange(from, true, to, true, segments, keys);
+         return keys;
+      }
+      return null;
+   }
+
+   private Set<Object> findCandidates(Class<?> entityType, ComparisonExpr expr, Map<String, Object> namedParameters, IntSet segments) {
+      ComparisonExpr.Type comparisonType = expr.getComparisonType();
+      if (comparisonType == ComparisonExpr.Type.NOT_EQUAL) {
+         return null;
+      }
+      FieldIndex index = findIndex(entityType, expr.getLeftChild(), comparisonType != ComparisonExpr.Type.EQUAL);
+      if (index == null) {
+         return null;
+      }
+      Comparable<Object> value = constantValue(expr.getRightChild(), ((PropertyValueExpr) expr.getLeftChild()).getPrimitiveType(), namedParameters);
+      if (value == null) {
+         return null;
+      }
+      Set<Object> keys = new HashSet<>();
+      switch (comparisonType) {
+         case EQUAL -> index.lookup(value, segments, keys);
+         case LESS -> index.lookupRange(null, false, value, false, segments, keys);
+         case LESS_OR_EQUAL -> index.lookupRange(null, false, value, true, segments, keys);
+         case GREATER -> index.lookupRange(value, false, null, false, segments, keys);
+         case GREATER_OR_EQUAL -> index.lookupRange(value, true, null, false, segments, keys);
+         default -> {
+            return null;
+         }
+      }
+      return keys;
+   }
+
+   private FieldIndex findIndex(Class<?> entityType, ValueExpr valueExpr, boolean range) {
+      if (!(valueExpr instanceof PropertyValueExpr propertyExpr) || propertyExpr.isRepeated()
+            || propertyExpr.getPrimitiveType() == null || propertyExpr.getPrimitiveType().isEnum()) {
+         return null;
+      }
+      String field = propertyExpr.getPropertyPath().asStringPathWithoutAlias();
+      for (FieldIndex index : indexes) {
+         // an index of a super type also contains all the instances of the queried type
+         if (index.getField().equals(field) && index.getEntityType().isAssignableFrom(entityType)
+               && (!range || index.getType() == SecondaryIndexType.RANGE)) {
+            return index;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Converts a constant to the type of the indexed values, or returns {@code null} if it cannot be converted.
+    */
+   private static Comparable<Object> constantValue(ValueExpr valueExpr, Class<?> valueType, Map<String, Object> namedParameters) {
+      if (!(valueExpr instanceof ConstantValueExpr constantExpr)) {
+         return null;
+      }
+      Comparable<?> value = constantExpr.getConstantValueAs(valueType, namedParameters);
+      return valueType.isInstance(value) ? (Comparable<Object>) value : null;
+   }
+}
@@ -53,9 +53,13 @@
 import org.infinispan.query.Transformer;
 import org.infinispan.query.backend.KeyTransformationHandler;
 import org.infinispan.query.backend.QueryInterceptor;
+import org.infinispan.query.backend.QueryResultCacheInterceptor;
+import org.infinispan.query.backend.SecondaryIndexInterceptor;
 import org.infinispan.query.backend.TxQueryInterceptor;
 import org.infinispan.query.core.QueryProducerImpl;
 import org.infinispan.query.core.impl.QueryCache;
+import org.infinispan.query.core.impl.QueryResultCache;
+import org.infinispan.query.core.impl.SecondaryIndexes;
 import org.infinispan.query.core.stats.IndexStatistics;
 import org.infinispan.query.core.stats.impl.IndexStatisticsSnapshotImpl;
 import org.infinispan.query.core.stats.impl.LocalQueryStatistics;
@@ -108,6 +112,14 @@ public void cacheStarting(ComponentRegistry cr, Configuration cfg, String cacheN
          cr.registerComponent(new LocalQueryStatistics(), LocalQueryStatistics.class);
          cr.registerComponent(new SearchStatsRetriever(), SearchStatsRetriever.class);
          AdvancedCache<?, ?> cache = cr.getComponent(Cache.class).getAdvancedCache();
+         if (cfg.query().resultCacheSize() > 0) {
+            // registered before the query engines, which look it up when they are created
+            createResultCacheInterceptorIfNeeded(cr, cfg, cacheName);
+         }
+         if (!cfg.query().secondaryIndexes().isEmpty()) {
+            // registered before the query engines, which look them up when they are created
+            createSecondaryIndexInterceptorIfNeeded(cr, cfg, cache, aggregatedClassLoader);
+         }
 
          cr.registerComponent(new ReflectionMatcher(aggregatedClassLoader), ReflectionMatcher.class);
          org.infinispan.query.core.impl.QueryEngine<Object> engine = new org.infinispan.query.core.impl.QueryEngine<>(cache);
@@ -222,10 +234,64 @@ private void createQueryInterceptorIfNeeded(ComponentRegistry cr, Configuration
       }
    }
 
+   private void createResultCacheInterceptorIfNeeded(ComponentRegistry cr, Configuration cfg, String cacheName) {
+      CONTAINER.debugf("Registering Query result cache interceptor for cache %s", cacheName);
+
+      BasicComponentRegistry bcr = cr.getComponent(BasicComponentRegistry.class);
+      if (bcr.getComponent(QueryResultCacheInterceptor.class) != null) {
+         // could be already present when two caches share a config
+         return;
+      }
+
+      QueryResultCache resultCache = new QueryResultCache(cacheName, cfg);
+      cr.registerComponent(resultCache, QueryResultCache.class);
+
+      QueryResultCacheInterceptor interceptor = new QueryResultCacheInterceptor(resultCache);
+      AsyncInterceptorChain ic = bcr.getComponent(AsyncInterceptorChain.class).wired();
+      EntryWrappingInterceptor wrappingInterceptor = ic.findInterceptorExtending(EntryWrappingInterceptor.class);
+      ic.addInterceptorBefore(interceptor, wrappingInterceptor.getClass());
+      bcr.registerComponent(QueryResultCacheInterceptor.class, interceptor, true);
+      bcr.addDynamicDependency(AsyncInterceptorChain.class.getName(), QueryResultCacheInterceptor.class.getName());
+   }
+
+   private void createSecondaryIndexInterceptorIfNeeded(ComponentRegistry cr, Configuration cfg, AdvancedCache<?, ?> cache,
+                                                        ClassLoader classLoader) {
+      MediaType storageMediaType = cr.getComponent(StorageConfigurationManager.class).getValueStorageMediaType();
+      if (!storageMediaType.match(MediaType.APPLICATION_OBJECT)) {
+         CONTAINER.secondaryIndexesIgnored(cache.getName(), storageMediaType);
+         return;
+      }
+      CONTAINER.debugf("Registering secondary index interceptor for cache %s", cache.getName());
+
+      BasicComponentRegistry bcr = cr.getComponent(BasicComponentRegistry.class);
+      if (bcr.getComponent(SecondaryIndexInterceptor.class) != null) {
+         // could be already present when two caches share a config
+         return;
+      }
+
+      SecondaryIndexes secondaryIndexes = new SecondaryIndexes(cfg, classLoader);
+      cr.registerComponent(secondaryIndexes, SecondaryIndexes.class);
+
+      SecondaryIndexInterceptor interceptor = new SecondaryIndexInterceptor(secondaryIndexes, cache);
+      AsyncInterceptorChain ic = bcr.getComponent(AsyncInterceptorChain.class).wired();
+      EntryWrappingInterceptor wrappingInterceptor = ic.findInterceptorExtending(EntryWrappingInterceptor.class);
+      ic.addInterceptorBefore(interceptor, wrappingInterceptor.getClass());
+      bcr.registerComponent(SecondaryIndexInterceptor.class, interceptor, true);
+      bcr.addDynamicDependency(AsyncInterceptorChain.class.getName(), SecondaryIndexInterceptor.class.getName());
+   }
+
    @Override
    public void cacheStarted(ComponentRegistry cr, String cacheName) {
       Configuration configuration = cr.getComponent(Configuration.class);
       StorageConfigurationManager scm = cr.getComponent(StorageConfigurationManager.class);
+      QueryResultCache resultCache = cr.getComponent(QueryResultCache.class);
+      if (resultCache != null) {
+         registerResultCacheMBean(cr, resultCache);
+      }
+      SecondaryIndexes secondaryIndexes = cr.getComponent(SecondaryIndexes.class);
+      if (secondaryIndexes != null) {
+         secondaryIndexes.build(cr.getComponent(Cache.class).getAdvancedCache());
+      }
       IndexingConfiguration indexingConfiguration = configuration.indexing();
       if (!indexingConfiguration.enabled()) {
          if (verifyChainContainsQueryInterceptor(cr)) {
@@ -297,6 +363,26 @@ private void registerQueryMBeans(ComponentRegistry cr, Indexer massIndexer, Infi
       }
    }
 
+   /**
+    * Register the query result cache MBean and metrics for a cache.
+    */
+   private void registerResultCacheMBean(ComponentRegistry cr, QueryResultCache resultCache) {
+      GlobalConfiguration globalConfig = cr.getGlobalComponentRegistry().getGlobalConfiguration();
+      if (globalConfig.jmx().enabled()) {
+         Cache<?, ?> cache = cr.getComponent(Cache.class);
+         CacheJmxRegistration jmxRegistration = cr.getComponent(CacheJmxRegistration.class);
+         try {
+            jmxRegistration.registerMBean(resultCache, getQueryGroupName(globalConfig.cacheManagerName(), cache.getName()));
+         } catch (Exception e) {
+            throw new CacheException("Unable to register query result cache MBean", e);
+         }
+      }
+      CacheMetricsRegistration cacheMetricsRegistration = cr.getComponent(CacheMetricsRegistration.class);
+      if (cacheMetricsRegistration.metricsEnabled()) {
+         cacheMetricsRegistration.registerMetrics(resultCache, "query", "result_cache");
+      }
+   }
+
    private String getQueryGroupName(String cacheManagerName, String cacheName) {
       return "type=Query,manager=" + ObjectName.quote(cacheManagerName) + ",cache=" + ObjectName.quote(cacheName);
    }
@@ -1,6 +1,7 @@
 package org.infinispan.query.objectfilter.impl;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,11 @@
 
    private final List<FilterSubscriptionImpl> filterSubscriptions = new ArrayList<>();
 
+   /**
+    * The indexes of the subscriptions whose filter is a tautology.
+    */
+   private final BitSet tautologies = new BitSet();
+
    private final BooleanFilterNormalizer booleanFilterNormalizer = new BooleanFilterNormalizer();
 
    private final BETreeMaker<AttributeId> treeMaker;
@@ -54,6 +60,14 @@ public List<FilterSubscriptionImpl> getFilterSubscriptions() {
       return filterSubscriptions;
    }
 
+   /**
+    * Returns the indexes of the subscriptions that match any instance because their filter is a tautology. All the
+    * other subscriptions can only match an instance if one of their predicates is evaluated.
+    */
+   public BitSet getTautologies() {
+      return tautologies;
+   }
+
    public FilterSubscriptionImpl<TypeMetadata, AttributeMetadata, AttributeId> addFilter(String queryString, Map<String, Object> namedParameters, BooleanExpr query, String[] projection, Class<?>[] projectionTypes, SortField[] sortFields, FilterCallback callback, boolean isDeltaFilter, Object[] eventTypes) {
       if (eventTypes != null) {
          if (eventTypes.length == 0) {
@@ -102,6 +116,9 @@ public FilterSubscriptionImpl<TypeMetadata, AttributeMetadata, AttributeId> addF
       filterSubscription.subscribe(predicateIndex);
       filterSubscription.index = filterSubscriptions.size();
       filterSubscriptions.add(filterSubscription);
+      if (isTautology(filterSubscription)) {
+         tautologies.set(filterSubscription.index);
+      }
       return filterSubscription;
    }
 
@@ -109,10 +126,19 @@ public void removeFilter(FilterSubscription filterSubscription) {
       FilterSubscriptionImpl<TypeMetadata, AttributeMetadata, AttributeId> filterSubscriptionImpl = (FilterSubscriptionImpl<TypeMetadata, AttributeMetadata, AttributeId>) filterSubscription;
       filterSubscriptionImpl.unregisterProjection(predicateIndex);
       filterSubscriptionImpl.unsubscribe(predicateIndex);
-      filterSubscriptions.remove(filterSubscriptionImpl);
+      filterSubscriptions.remove(filterSubscriptionImpl.index);
+      tautologies.clear(filterSubscriptionImpl.index, filterSubscriptions.size() + 1);
       for (int i = filterSubscriptionImpl.index; i < filterSubscriptions.size(); i++) {
-         filterSubscriptions.get(i).index--;
+         FilterSubscriptionImpl<?, ?, ?> s = filterSubscriptions.get(i);
+         s.index--;
+         if (isTautology(s)) {
+            tautologies.set(i);
+         }
       }
       filterSubscriptionImpl.index = -1;
    }
+
+   private static boolean isTautology(FilterSubscriptionImpl<?, ?, ?> filterSubscription) {
+      return filterSubscription.getBETree().getChildCounters()[0] == BETree.EXPR_TRUE;
+   }
 }
@@ -1,12 +1,12 @@
 package org.infinispan.query.objectfilter.impl.predicateindex;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.infinispan.query.objectfilter.impl.FilterRegistry;
 import org.infinispan.query.objectfilter.impl.FilterSubscriptionImpl;
-import org.infinispan.query.objectfilter.impl.predicateindex.be.BETree;
 
 /**
  * Stores processing state during the matching process of all filters registered with a Matcher.
@@ -40,12 +40,24 @@
    private FilterEvalContext singleFilterContext;
 
    /**
-    * Each filter subscription has its own evaluation context, created on demand.
+    * Each filter subscription has its own evaluation context, created on demand. Only the subscriptions reached by the
+    * evaluation of the instance get one, so the cost of matching does not grow with the number of subscriptions that
+    * are not concerned by it.
     */
-   private FilterEvalContext[] filterContexts;
+   private Map<FilterSubscriptionImpl, FilterEvalContext> filterContexts;
+
+   /**
+    * The indexes of the subscriptions that have an evaluation context, in order to notify them in registration order.
+    */
+   private BitSet activeFilters;
 
    private List<FilterSubscriptionImpl> filterSubscriptions;
 
+   /**
+    * The indexes of the subscriptions that are tautologies. These match without evaluating any predicate.
+    */
+   private BitSet tautologies;
+
    private Map<Predicate<?>, Counter> suspendedPredicateSubscriptionCounts;
 
    protected MatcherEvalContext(Object userContext, Object eventType, Object key, Object instance, Object metadata) {
@@ -80,7 +92,9 @@ public void initMultiFilterContext(FilterRegistry<TypeMetadata, AttributeMetadat
       rootNode = filterRegistry.getPredicateIndex().getRoot();
       suspendedPredicateSubscriptionCounts = new HashMap<>();
       filterSubscriptions = filterRegistry.getFilterSubscriptions();
-      filterContexts = new FilterEvalContext[filterRegistry.getFilterSubscriptions().size()];
+      tautologies = filterRegistry.getTautologies();
+      filterContexts = new HashMap<>();
+      activeFilters = new BitSet();
    }
 
    public FilterEvalContext initSingleFilterContext(FilterSubscriptionImpl filterSubscription) {
@@ -97,10 +111,27 @@ public FilterEvalContext getFilterEvalContext(FilterSubscriptionImpl filterSubsc
          return singleFilterContext;
       }
 
-      FilterEvalContext filterEvalContext = filterContexts[filterSubscription.index];
+      FilterEvalContext filterEvalContext = filterContexts.get(filterSubscription);
       if (filterEvalContext == null) {
          filterEvalContext = new FilterEvalContext(this, filterSubscription);
-         filterContexts[filterSubscription.index] = filterEvalContext;
+         filterContexts.put(filterSubscription, filterEvalContext);
+         activeFilters.set(filterSubscription.index);
+      }
+      return filterEvalContext;
+   }
+
+   /**
+    * Gets the evaluation context of a subscription that was reached by the evaluation, or creates it if the
+    * subscription is a tautology, because a tautology never gets activated by a predicate and it also does not have
+    * projections.
+    *
+    * @return the evaluation context or {@code null} if the subscription was not reached
+    */
+   private FilterEvalContext getOrCreateTautologyContext(int i, FilterSubscriptionImpl s) {
+      FilterEvalContext filterEvalContext = filterContexts.get(s);
+      if (filterEvalContext == null && tautologies.get(i)) {
+         filterEvalContext = new FilterEvalContext(this, s);
+         filterContexts.put(s, filterEvalContext);
       }
       return filterEvalContext;
    }
@@ -136,18 +167,11 @@ public void notifySubscribers() {
          return;
       }
 
-      for (int i = 0; i < filterContexts.length; i++) {
+      BitSet candidates = (BitSet) activeFilters.clone();
+      candidates.or(tautologies);
+      for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
          FilterSubscriptionImpl s = filterSubscriptions.get(i);
-         FilterEvalContext filterEvalContext = filterContexts[i];
-         if (filterEvalContext == null) {
-            if (s.getBETree().getChildCounters()[0] == BETree.EXPR_TRUE) {
-               // this filter is a tautology and since its FilterEvalContext was never activated that means it also does not have projections
-               filterEvalContext = new FilterEvalContext(this, s);
-               filterContexts[i] = filterEvalContext;
-            } else {
-               continue;
-            }
-         }
+         FilterEvalContext filterEvalContext = getOrCreateTautologyContext(i, s);
          if (filterEvalContext.isMatching()) {
             s.getCallback().onFilterResult(userContext, eventType, instance, filterEvalContext.getProjection(), filterEvalContext.getSortProjection());
          }
@@ -159,25 +183,17 @@ public void notifyDeltaSubscribers(MatcherEvalContext other, Object joiningEvent
          throw new AssertionError("Single filters contexts do not support delta matching.");
       }
 
-      for (int i = 0; i < filterContexts.length; i++) {
+      // only the subscriptions reached by one of the instances can produce an event
+      BitSet candidates = (BitSet) activeFilters.clone();
+      candidates.or(tautologies);
+      if (other != null) {
+         candidates.or(other.activeFilters);
+      }
+      for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
          FilterSubscriptionImpl s = filterSubscriptions.get(i);
 
-         FilterEvalContext filterEvalContext1 = filterContexts[i];
-         if (filterEvalContext1 == null && s.getBETree().getChildCounters()[0] == BETree.EXPR_TRUE) {
-            // this filter is a tautology and since its FilterEvalContext was never activated that means it also does not have projections
-            filterEvalContext1 = new FilterEvalContext(this, s);
-            filterContexts[i] = filterEvalContext1;
-         }
-
-         FilterEvalContext filterEvalContext2 = null;
-         if (other != null) {
-            filterEvalContext2 = other.filterContexts[i];
-            if (filterEvalContext2 == null && s.getBETree().getChildCounters()[0] == BETree.EXPR_TRUE) {
-               // this filter is a tautology and since its FilterEvalContext was never activated that means it also does not have projections
-               filterEvalContext2 = new FilterEvalContext(other, s);
-               other.filterContexts[i] = filterEvalContext2;
-            }
-         }
+         FilterEvalContext filterEvalContext1 = getOrCreateTautologyContext(i, s);
+         FilterEvalContext filterEvalContext2 = other != null ? other.getOrCreateTautologyContext(i, s) : null;
 
          boolean before = filterEvalContext1 != null && filterEvalContext1.isMatching();
          boolean after = filterEvalContext2 != null && filterEvalContext2.isMatching();
@@ -1,7 +1,9 @@
 package org.infinispan.query.objectfilter.impl.predicateindex;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.infinispan.query.objectfilter.impl.FilterSubscriptionImpl;
 import org.infinispan.query.objectfilter.impl.predicateindex.be.PredicateNode;
@@ -92,6 +94,12 @@ public PredicateNode<AttributeId> getPredicateNode() {
     */
    private List<Subscriptions> unorderedPredicates;
 
+   /**
+    * The same subscriptions as {@link #unorderedPredicates}, by predicate, so that the filters sharing a predicate are
+    * found without scanning all the predicates of the attribute.
+    */
+   private Map<Predicate<AttributeDomain>, Subscriptions> unorderedPredicatesByPredicate;
+
    Predicates(boolean useIntervals) {
       this.useIntervals = useIntervals;
    }
@@ -138,20 +146,15 @@ public Subscription<AttributeId> addPredicateSubscription(PredicateNode predicat
             subscriptions = n.value;
          }
       } else {
-         subscriptions = null;
          if (unorderedPredicates == null) {
             unorderedPredicates = new ArrayList<>();
-         } else {
-            for (Subscriptions s : unorderedPredicates) {
-               if (s.predicate.equals(predicate)) {
-                  subscriptions = s;
-                  break;
-               }
-            }
+            unorderedPredicatesByPredicate = new HashMap<>();
          }
+         subscriptions = unorderedPredicatesByPredicate.get(predicate);
          if (subscriptions == null) {
             subscriptions = new Subscriptions(predicate);
             unorderedPredicates.add(subscriptions);
+            unorderedPredicatesByPredicate.put(predicate, subscriptions);
          }
       }
       Subscription<AttributeId> subscription = new Subscription<AttributeId>(predicateNode, filterSubscription);
@@ -177,14 +180,12 @@ public void removePredicateSubscription(Subscription subscription) {
          }
       } else {
          if (unorderedPredicates != null) {
-            for (int i = 0; i < unorderedPredicates.size(); i++) {
-               Subscriptions subscriptions = unorderedPredicates.get(i);
-               if (subscriptions.predicate.equals(predicate)) {
-                  subscriptions.remove(subscription);
-                  if (subscriptions.isEmpty()) {
-                     unorderedPredicates.remove(i);
-                  }
-                  break;
+            Subscriptions subscriptions = unorderedPredicatesByPredicate.get(predicate);
+            if (subscriptions != null) {
+               subscriptions.remove(subscription);
+               if (subscriptions.isEmpty()) {
+                  unorderedPredicates.remove(subscriptions);
+                  unorderedPredicatesByPredicate.remove(predicate);
                }
             }
          } else {
@@ -0,0 +1,182 @@
+package org.infinispan.query.core.tests;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.api.query.Query;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.query.core.impl.QueryResultCache;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link QueryResultCache} of non-indexed queries.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "query.core.tests.QueryResultCacheTest")
+public class QueryResultCacheTest extends SingleCacheManagerTest {
+
+   private static final String PERSON_QUERY = "FROM " + Person.class.getName() + " WHERE name = :name";
+   private static final String CAR_QUERY = "FROM " + Car.class.getName();
+
+   public static class Person {
+
+      private final String name;
+
+      public Person(String name) {
+         this.name = name;
+      }
+
+      public String getName() {
+         return name;
+      }
+   }
+
+   public static class Car {
+
+      private final String model;
+
+      public Car(String model) {
+         this.model = model;
+      }
+
+      public String getModel() {
+         return model;
+      }
+   }
+
+   private QueryResultCache resultCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.query().resultCacheSize(2);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      cm.defineConfiguration("mortal", builder.build());
+      builder.memory().maxCount(10);
+      cm.defineConfiguration("bounded", builder.build());
+      cache = cm.getCache();
+      return cm;
+   }
+
+   @BeforeMethod(alwaysRun = true)
+   public void clearResultCache() {
+      cache.clear();
+      resultCache = TestingUtil.extractComponent(cache, QueryResultCache.class);
+      resultCache.clear();
+   }
+
+   public void testRepeatedQueryIsCached() {
+      cache.put("p1", new Person("Alice"));
+      cache.put("p2", new Person("Bob"));
+
+      assertEquals(1, personsNamed("Alice").size());
+      assertEquals(1, personsNamed("Alice").size());
+      assertEquals(1, resultCache.getHits());
+      assertEquals(1, resultCache.getMisses());
+
+      // different parameters are cached separately
+      assertEquals(1, personsNamed("Bob").size());
+      assertEquals(2, resultCache.getMisses());
+      assertEquals(2, resultCache.getNumberOfEntries());
+   }
+
+   public void testWriteInvalidatesQueriedType() {
+      cache.put("p1", new Person("Alice"));
+      cache.put("c1", new Car("Mini"));
+      assertEquals(1, personsNamed("Alice").size());
+      assertEquals(1, cars().size());
+
+      // a write to another type keeps the cached result
+      cache.put("c2", new Car("Beetle"));
+      assertEquals(1, personsNamed("Alice").size());
+      assertEquals(1, resultCache.getHits());
+      assertEquals(2, cars().size());
+
+      cache.put("p2", new Person("Alice"));
+      assertEquals(2, personsNamed("Alice").size());
+
+      cache.remove("p1");
+      assertEquals(1, personsNamed("Alice").size());
+
+      // the writes skipping the indexing change the results too
+      cache.getAdvancedCache().withFlags(Flag.SKIP_INDEXING).put("p3", new Person("Alice"));
+      assertEquals(2, personsNamed("Alice").size());
+      assertEquals(4, resultCache.getInvalidations());
+   }
+
+   public void testLeastRecentlyUsedResultEvicted() {
+      cache.put("p1", new Person("Alice"));
+      personsNamed("Alice");
+      personsNamed("Bob");
+      personsNamed("Alice");
+      personsNamed("Carol");
+
+      assertEquals(2, resultCache.getNumberOfEntries());
+      personsNamed("Alice");
+      assertEquals(2, resultCache.getHits());
+   }
+
+   public void testClearInvalidatesAll() {
+      cache.put("p1", new Person("Alice"));
+      personsNamed("Alice");
+      cars();
+
+      cache.clear();
+      assertEquals(0, resultCache.getNumberOfEntries());
+      assertEquals(2, resultCache.getInvalidations());
+      assertEquals(0, personsNamed("Alice").size());
+   }
+
+   public void testMortalEntriesDisableResultCache() {
+      Cache<String, Person> mortal = cacheManager.getCache("mortal");
+      QueryResultCache mortalResultCache = TestingUtil.extractComponent(mortal, QueryResultCache.class);
+      mortal.put("p1", new Person("Alice"));
+      personsNamed(mortal, "Alice");
+      assertEquals(1, mortalResultCache.getNumberOfEntries());
+
+      mortal.put("p2", new Person("Alice"), 10, TimeUnit.MINUTES);
+      assertEquals(0, mortalResultCache.getNumberOfEntries());
+      assertEquals(2, personsNamed(mortal, "Alice").size());
+      assertEquals(2, personsNamed(mortal, "Alice").size());
+      assertEquals(0, mortalResultCache.getHits());
+      assertEquals(0, mortalResultCache.getNumberOfEntries());
+   }
+
+   public void testEvictionWithoutStoreDisablesResultCache() {
+      Cache<String, Person> bounded = cacheManager.getCache("bounded");
+      QueryResultCache boundedResultCache = TestingUtil.extractComponent(bounded, QueryResultCache.class);
+      for (int i = 0; i < 20; i++) {
+         bounded.put("p" + i, new Person("Alice"));
+      }
+      assertEquals(10, personsNamed(bounded, "Alice").size());
+      bounded.put("p20", new Person("Alice"));
+      assertEquals(10, personsNamed(bounded, "Alice").size());
+      assertEquals(0, boundedResultCache.getHits());
+      assertEquals(0, boundedResultCache.getNumberOfEntries());
+   }
+
+   private List<Person> personsNamed(String name) {
+      return personsNamed(cache, name);
+   }
+
+   private static List<Person> personsNamed(Cache<?, ?> cache, String name) {
+      Query<Person> query = cache.query(PERSON_QUERY);
+      query.setParameter("name", name);
+      return query.execute().list();
+   }
+
+   private List<Car> cars() {
+      Query<Car> query = cache.query(CAR_QUERY);
+      return query.execute().list();
+   }
+}
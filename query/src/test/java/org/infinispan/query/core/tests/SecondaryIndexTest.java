@@ -0,0 +1,117 @@
+package org.infinispan.query.core.tests;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.infinispan.commons.api.query.Query;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SecondaryIndexType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.query.core.impl.SecondaryIndexes;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link SecondaryIndexes} of non-indexed queries.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "query.core.tests.SecondaryIndexTest")
+public class SecondaryIndexTest extends SingleCacheManagerTest {
+
+   private static final String PERSON = Person.class.getName();
+
+   public static class Person {
+
+      private final String name;
+      private final int age;
+      private final String city;
+
+      public Person(String name, int age, String city) {
+         this.name = name;
+         this.age = age;
+         this.city = city;
+      }
+
+      public String getName() {
+         return name;
+      }
+
+      public int getAge() {
+         return age;
+      }
+
+      public String getCity() {
+         return city;
+      }
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() {
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.query()
+            .addSecondaryIndex(Person.class, "name", SecondaryIndexType.HASH)
+            .addSecondaryIndex(Person.class, "age", SecondaryIndexType.RANGE);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      cache = cm.getCache();
+      return cm;
+   }
+
+   @BeforeMethod(alwaysRun = true)
+   public void populate() {
+      cache.clear();
+      cache.put("alice", new Person("Alice", 25, "Rome"));
+      cache.put("bob", new Person("Bob", 35, "Paris"));
+      cache.put("carol", new Person("Carol", 45, "Rome"));
+      // stored without going through the interceptors: only found by the queries scanning the cache
+      cache.getAdvancedCache().getDataContainer().put("hidden", new Person("Alice", 30, "Rome"), new EmbeddedMetadata.Builder().build());
+   }
+
+   public void testIndexesAreUsed() {
+      assertEquals(List.of("Alice"), names("WHERE name = 'Alice'"));
+      assertEquals(List.of("Alice", "Bob"), names("WHERE name IN ('Alice', 'Bob')"));
+      assertEquals(List.of("Bob", "Carol"), names("WHERE age > 25"));
+      assertEquals(List.of("Alice", "Bob"), names("WHERE age BETWEEN 20 AND 35"));
+      assertEquals(List.of("Alice"), names("WHERE age <= 30 AND city = 'Rome'"));
+      assertEquals(List.of("Carol"), names("WHERE name = 'Carol' OR age > 40"));
+
+      Query<Person> query = cache.query("FROM " + PERSON + " WHERE age >= :age");
+      query.setParameter("age", 35);
+      assertEquals(2, query.execute().list().size());
+   }
+
+   public void testUnresolvedFiltersScanTheCache() {
+      // the predicate on city is not indexed
+      assertEquals(List.of("Alice", "Alice", "Carol"), names("WHERE name = 'Alice' OR city = 'Rome'"));
+      assertEquals(List.of("Alice", "Alice"), names("WHERE name != 'Bob' AND name != 'Carol'"));
+      assertEquals(4, cache.query("FROM " + PERSON).execute().list().size());
+   }
+
+   public void testIndexesFollowTheWrites() {
+      cache.put("alice", new Person("Alicia", 26, "Rome"));
+      assertEquals(List.of(), names("WHERE name = 'Alice'"));
+      assertEquals(List.of("Alicia"), names("WHERE name = 'Alicia'"));
+      assertEquals(List.of("Alicia"), names("WHERE age < 30"));
+
+      cache.remove("bob");
+      assertEquals(List.of(), names("WHERE name = 'Bob'"));
+      assertEquals(List.of("Carol"), names("WHERE age > 30"));
+
+      cache.putAll(Map.of("dave", new Person("Dave", 50, "Oslo"), "erin", new Person("Erin", 50, "Oslo")));
+      assertEquals(List.of("Dave", "Erin"), names("WHERE age = 50"));
+
+      cache.clear();
+      assertEquals(List.of(), names("WHERE age > 0"));
+   }
+
+   private List<String> names(String where) {
+      Query<Person> query = cache.query("FROM " + PERSON + " " + where);
+      return query.execute().list().stream().map(Person::getName).sorted().collect(Collectors.toList());
+   }
+}
@@ -60,6 +60,40 @@ protected long measureMatch(String query) throws Exception {
       return System.nanoTime() - stime;
    }
 
+   @Test
+   public void testDeltaMatchScalingPerf() throws Exception {
+      int iterations = ITERATIONS / 10;
+      for (int numFilters : new int[]{10, 1000, 10000}) {
+         long time = measureMatchDelta(numFilters, iterations);
+         printTime("testDeltaMatchScalingPerf[" + numFilters + " filters]", time, iterations);
+      }
+   }
+
+   /**
+    * Measures the cost of matching an event against the delta filters of the continuous queries. Only one of the
+    * filters matches and the evaluation does not reach the others, so the cost is expected to stay nearly constant
+    * when the number of filters grows.
+    */
+   protected long measureMatchDelta(int numFilters, int iterations) throws Exception {
+      Matcher matcher = createMatcher();
+
+      Object obj = createPerson1();
+
+      int[] matchCount = new int[1];
+      for (int k = 0; k < numFilters; k++) {
+         matcher.registerFilter("from org.infinispan.query.objectfilter.test.model.Person p where p.age = " + (40 + k), null,
+               (userContext, eventType, instance, projection, sortProjection) -> matchCount[0]++, true, (Object[]) null);
+      }
+
+      long stime = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+         matchCount[0] = 0;
+         matcher.matchDelta(null, null, obj, obj, "joining", "updated", "leaving");
+         assertEquals(1, matchCount[0]);
+      }
+      return System.nanoTime() - stime;
+   }
+
    @Test
    public void testSimpleObjectFilterPerf() throws Exception {
       long time = measureFilter("from org.infinispan.query.objectfilter.test.model.Person p where p.name is not null");
@@ -88,8 +122,12 @@ protected long measureFilter(String query) throws Exception {
    }
 
    protected void printTime(String text, long totalTime) {
+      printTime(text, totalTime, ITERATIONS);
+   }
+
+   protected void printTime(String text, long totalTime, int iterations) {
       double iterationTime = totalTime / 1000;
-      iterationTime /= ITERATIONS;
+      iterationTime /= iterations;
       System.out.println(getClass().getSimpleName() + "." + text + " " + iterationTime + "us");
    }
 
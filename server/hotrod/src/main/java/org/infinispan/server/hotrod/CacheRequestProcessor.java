@@ -31,6 +31,7 @@
 import org.infinispan.server.core.iteration.IterationState;
 import org.infinispan.server.hotrod.HotRodServer.ExtendedCacheInfo;
 import org.infinispan.server.hotrod.logging.Log;
+import org.infinispan.server.hotrod.streaming.GetAllStreamResponse;
 import org.infinispan.server.hotrod.streaming.GetStreamResponse;
 import org.infinispan.server.hotrod.streaming.StreamingState;
 import org.infinispan.stats.ClusterCacheStats;
@@ -829,6 +830,88 @@ public void getStreamEnd(HotRodHeader header, Subject subject, int streamId) {
       }
    }
 
+   public void getAllStreamStart(HotRodHeader header, Subject subject, Set<byte[]> keys, int batchSize) {
+      AdvancedCache<byte[], byte[]> cache = server.cache(server.getCacheInfo(header), header, subject);
+      try {
+         server.getStreamingManager().startGetAllStream(cache, keys, channel, batchSize)
+               .whenComplete((gasr, t) -> handleGetAllStream(header, gasr, t));
+      } catch (Throwable t) {
+         writeException(header, t);
+      }
+   }
+
+   public void getAllStreamNext(HotRodHeader header, Subject subject, int streamId) {
+      try {
+         CompletionStage<GetAllStreamResponse> stage = server.getStreamingManager().nextGetAllStream(streamId);
+         if (stage == null) {
+            writeException(header, new StreamCorruptedException("StreamId " + streamId + " is not present on the server"));
+            return;
+         }
+         stage.whenComplete((gasr, t) -> handleGetAllStream(header, gasr, t));
+      } catch (Throwable t) {
+         writeException(header, t);
+      }
+   }
+
+   private void handleGetAllStream(HotRodHeader header, GetAllStreamResponse gasr, Throwable throwable) {
+      if (throwable != null) {
+         writeException(header, throwable);
+      } else {
+         writeResponse(header, header.encoder().getAllStreamResponse(header, server, channel, gasr));
+      }
+   }
+
+   public void getAllStreamEnd(HotRodHeader header, Subject subject, int streamId) {
+      try {
+         server.getStreamingManager().closeGetAllStream(streamId);
+         // Don't care if close didn't actually close anything, just write success
+         writeSuccess(header);
+      } catch (Throwable t) {
+         writeException(header, t);
+      }
+   }
+
+   public void putAllStreamStart(HotRodHeader header, Subject subject, Metadata.Builder metadata) {
+      ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
+      AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
+      try {
+         int id = server.getStreamingManager().startPutAllStream(cache, channel, metadata, cacheInfo.versionGenerator);
+         writeResponse(header, header.encoder().putStreamStartResponse(header, server, channel, id));
+      } catch (Throwable t) {
+         writeException(header, t);
+      }
+   }
+
+   public void putAllStreamNext(HotRodHeader header, Subject subject, int streamId, boolean lastChunk,
+                                Map<byte[], byte[]> entries) {
+      try {
+         CompletionStage<Void> stage = server.getStreamingManager().nextPutAllStream(streamId, lastChunk, entries);
+         if (stage == null) {
+            writeException(header, new StreamCorruptedException("StreamId " + streamId + " is not present on the server"));
+            return;
+         }
+         stage.whenComplete((ignore, t) -> {
+            if (t != null) {
+               writeException(header, t);
+            } else {
+               writeSuccess(header);
+            }
+         });
+      } catch (Throwable t) {
+         writeException(header, t);
+      }
+   }
+
+   public void putAllStreamEnd(HotRodHeader header, Subject subject, int streamId) {
+      try {
+         server.getStreamingManager().closePutAllStream(streamId);
+         // Don't care if close didn't actually close anything, just write success
+         writeSuccess(header);
+      } catch (Throwable t) {
+         writeException(header, t);
+      }
+   }
+
    private static class ConditionalResponse {
       final boolean result;
       final CacheEntry<byte[], byte[]> entry;
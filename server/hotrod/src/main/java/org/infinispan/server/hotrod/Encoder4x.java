@@ -1,8 +1,11 @@
 package org.infinispan.server.hotrod;
 
+import java.util.Map;
+
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.server.hotrod.logging.Log;
+import org.infinispan.server.hotrod.streaming.GetAllStreamResponse;
 import org.infinispan.server.hotrod.streaming.GetStreamResponse;
 import org.infinispan.server.hotrod.transport.ExtendedByteBuf;
 
@@ -44,6 +47,20 @@ public ByteBuf getStreamStartResponse(HotRodHeader header, HotRodServer server,
       return result;
    }
 
+   @Override
+   public ByteBuf getAllStreamResponse(HotRodHeader header, HotRodServer server, Channel channel, GetAllStreamResponse getAllStreamResponse) {
+      ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
+      buf.writeInt(getAllStreamResponse.id());
+      buf.writeBoolean(getAllStreamResponse.complete());
+      Map<byte[], byte[]> entries = getAllStreamResponse.entries();
+      ExtendedByteBuf.writeUnsignedInt(entries.size(), buf);
+      for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+         ExtendedByteBuf.writeRangedBytes(entry.getKey(), buf);
+         ExtendedByteBuf.writeRangedBytes(entry.getValue(), buf);
+      }
+      return buf;
+   }
+
    @Override
    public ByteBuf putStreamStartResponse(HotRodHeader header, HotRodServer server, Channel channel, int id) {
       ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
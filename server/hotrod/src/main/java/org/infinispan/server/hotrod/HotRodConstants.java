@@ -17,6 +17,7 @@ public interface HotRodConstants {
    byte VERSION_31 = HotRodVersion.HOTROD_31.getVersion();
    byte VERSION_40 = HotRodVersion.HOTROD_40.getVersion();
    byte VERSION_41 = HotRodVersion.HOTROD_41.getVersion();
+   byte VERSION_42 = HotRodVersion.HOTROD_42.getVersion();
 
    //requests
    byte PUT_REQUEST = 0x01;
@@ -90,4 +91,10 @@ public interface HotRodConstants {
    byte START_GET_STREAM_REQUEST = -0x17;
    byte NEXT_GET_STREAM_REQUEST = -0x19;
    byte END_GET_STREAM_REQUEST = -0x1B;
+   byte START_GET_ALL_STREAM_REQUEST = -0x1D;
+   byte NEXT_GET_ALL_STREAM_REQUEST = -0x1F;
+   byte END_GET_ALL_STREAM_REQUEST = -0x21;
+   byte START_PUT_ALL_STREAM_REQUEST = -0x23;
+   byte NEXT_PUT_ALL_STREAM_REQUEST = -0x25;
+   byte END_PUT_ALL_STREAM_REQUEST = -0x27;
 }
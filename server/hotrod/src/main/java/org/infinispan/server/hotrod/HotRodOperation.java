@@ -63,6 +63,12 @@ public enum HotRodOperation {
    START_GET_STREAM_REQUEST(0xE9, 0xE8, EnumSet.of(OpReqs.REQUIRES_KEY, OpReqs.REQUIRES_AUTH)),
    NEXT_GET_STREAM_REQUEST(0xE7, 0xE6, EnumSet.of(OpReqs.REQUIRES_AUTH)),
    END_GET_STREAM_REQUEST(0xE5, 0xE4, EnumSet.of(OpReqs.REQUIRES_AUTH)),
+   START_GET_ALL_STREAM_REQUEST(0xE3, 0xE2, EnumSet.of(OpReqs.REQUIRES_AUTH)),
+   NEXT_GET_ALL_STREAM_REQUEST(0xE1, 0xE0, EnumSet.of(OpReqs.REQUIRES_AUTH)),
+   END_GET_ALL_STREAM_REQUEST(0xDF, 0xDE, EnumSet.of(OpReqs.REQUIRES_AUTH)),
+   START_PUT_ALL_STREAM_REQUEST(0xDD, 0xDC, EnumSet.of(OpReqs.REQUIRES_AUTH)),
+   NEXT_PUT_ALL_STREAM_REQUEST(0xDB, 0xDA, EnumSet.of(OpReqs.REQUIRES_AUTH)),
+   END_PUT_ALL_STREAM_REQUEST(0xD9, 0xD8, EnumSet.of(OpReqs.REQUIRES_AUTH)),
 
    // Transaction boundaries operations
    PREPARE_TX(0x3B, 0x3C, EnumSet.of(OpReqs.REQUIRES_AUTH)),
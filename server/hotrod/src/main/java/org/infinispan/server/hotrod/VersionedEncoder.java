@@ -12,6 +12,7 @@
 import org.infinispan.server.core.transport.NettyTransport;
 import org.infinispan.server.hotrod.Events.Event;
 import org.infinispan.server.hotrod.counter.listener.ClientCounterEvent;
+import org.infinispan.server.hotrod.streaming.GetAllStreamResponse;
 import org.infinispan.server.hotrod.streaming.GetStreamResponse;
 import org.infinispan.stats.ClusterCacheStats;
 import org.infinispan.stats.Stats;
@@ -71,6 +72,10 @@ default ByteBuf putStreamStartResponse(HotRodHeader header, HotRodServer server,
 
    ByteBuf getAllResponse(HotRodHeader header, HotRodServer server, Channel channel, Map<byte[], byte[]> map);
 
+   default ByteBuf getAllStreamResponse(HotRodHeader header, HotRodServer server, Channel channel, GetAllStreamResponse getAllStreamResponse) {
+      throw new UnsupportedOperationException("getAllStreamResponse requires HR 4.1 or newer!");
+   }
+
    CompletionStage<ByteBuf> bulkGetKeysResponse(HotRodHeader header, HotRodServer server, Channel channel, Publisher<byte[]> publisher);
 
    ByteBuf iterationStartResponse(HotRodHeader header, HotRodServer server, Channel channel, String iterationId);
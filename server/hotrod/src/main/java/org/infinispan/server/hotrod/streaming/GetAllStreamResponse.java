@@ -0,0 +1,5 @@
+package org.infinispan.server.hotrod.streaming;
+
+import java.util.Map;
+
+public record GetAllStreamResponse(int id, Map<byte[], byte[]> entries, boolean complete) { }
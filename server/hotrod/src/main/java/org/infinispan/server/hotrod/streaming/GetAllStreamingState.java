@@ -0,0 +1,177 @@
+package org.infinispan.server.hotrod.streaming;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.distribution.DistributionInfo;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.remoting.transport.Address;
+
+import io.netty.channel.Channel;
+
+/**
+ * The state of a streamed getAll. The keys are split in batches of at most {@code batchSize} keys owned by the same
+ * node, and a few batches are retrieved ahead of the client. Each chunk returned to the client holds the entries of a
+ * single batch, in the order the owners responded, and a new batch is only retrieved once a chunk has been sent, so
+ * the client controls the flow by requesting the next chunk.
+ * <p>
+ * All the methods must be invoked in the event loop of the channel that started the stream.
+ */
+public class GetAllStreamingState extends StreamingState {
+   // The maximum number of batches being retrieved or waiting to be sent
+   static final int MAX_PENDING_BATCHES = 4;
+
+   private final AdvancedCache<byte[], byte[]> cache;
+   private final Channel channel;
+   private final Queue<Set<byte[]>> batches;
+   private final Queue<Map<byte[], byte[]>> chunks = new ArrayDeque<>(MAX_PENDING_BATCHES);
+   private int inFlight;
+   private CompletableFuture<Map<byte[], byte[]>> waiting;
+   private Throwable failure;
+   private boolean closed;
+
+   public GetAllStreamingState(AdvancedCache<byte[], byte[]> cache, Channel channelUsed, Set<byte[]> keys, int batchSize) {
+      super(null, channelUsed);
+      this.cache = cache;
+      this.channel = channelUsed;
+      this.batches = splitInBatches(cache, keys, Math.max(batchSize, 1));
+      retrieveBatches();
+   }
+
+   /**
+    * Groups the keys by primary owner and splits each group in batches. The batches of the different owners are
+    * interleaved, so the owners are queried in parallel.
+    */
+   private static Queue<Set<byte[]>> splitInBatches(AdvancedCache<byte[], byte[]> cache, Set<byte[]> keys, int batchSize) {
+      Map<Address, List<byte[]>> keysByOwner = new LinkedHashMap<>();
+      DistributionManager distributionManager = cache.getDistributionManager();
+      if (distributionManager != null && cache.getCacheConfiguration().clustering().cacheMode().isDistributed()) {
+         LocalizedCacheTopology topology = distributionManager.getCacheTopology();
+         for (byte[] key : keys) {
+            DistributionInfo distribution = topology.getDistribution(cache.getKeyDataConversion().toStorage(key));
+            // The keys read locally are retrieved together
+            Address owner = distribution.isReadOwner() ? null : distribution.primary();
+            keysByOwner.computeIfAbsent(owner, ___ -> new ArrayList<>()).add(key);
+         }
+      } else {
+         keysByOwner.put(null, new ArrayList<>(keys));
+      }
+      List<Iterator<byte[]>> owners = new ArrayList<>(keysByOwner.size());
+      for (List<byte[]> ownerKeys : keysByOwner.values()) {
+         owners.add(ownerKeys.iterator());
+      }
+      Queue<Set<byte[]>> batches = new ArrayDeque<>(keys.size() / batchSize + owners.size());
+      while (!owners.isEmpty()) {
+         for (Iterator<Iterator<byte[]>> it = owners.iterator(); it.hasNext(); ) {
+            Iterator<byte[]> ownerKeys = it.next();
+            Set<byte[]> batch = new HashSet<>();
+            while (batch.size() < batchSize && ownerKeys.hasNext()) {
+               batch.add(ownerKeys.next());
+            }
+            batches.add(batch);
+            if (!ownerKeys.hasNext()) {
+               it.remove();
+            }
+         }
+      }
+      return batches;
+   }
+
+   private void retrieveBatches() {
+      while (!closed && failure == null && inFlight + chunks.size() < MAX_PENDING_BATCHES && !batches.isEmpty()) {
+         Set<byte[]> batch = batches.poll();
+         inFlight++;
+         cache.getAllAsync(batch)
+               .whenCompleteAsync(this::batchRetrieved, channel.eventLoop());
+      }
+   }
+
+   private void batchRetrieved(Map<byte[], byte[]> entries, Throwable t) {
+      inFlight--;
+      if (closed) {
+         return;
+      }
+      if (t != null) {
+         failure = t;
+      } else if (!entries.isEmpty()) {
+         chunks.add(entries);
+      }
+      if (waiting != null && (failure != null || !chunks.isEmpty() || isGetComplete())) {
+         CompletableFuture<Map<byte[], byte[]>> future = waiting;
+         waiting = null;
+         if (failure != null) {
+            future.completeExceptionally(failure);
+         } else {
+            future.complete(pollChunk());
+         }
+      } else {
+         retrieveBatches();
+      }
+   }
+
+   private Map<byte[], byte[]> pollChunk() {
+      Map<byte[], byte[]> chunk = chunks.poll();
+      retrieveBatches();
+      return chunk != null ? chunk : Collections.emptyMap();
+   }
+
+   /**
+    * Returns the next chunk of entries, as soon as the entries of a batch are available. The chunk is empty only if
+    * none of the remaining keys exists.
+    */
+   public CompletionStage<Map<byte[], byte[]>> nextGetAll() {
+      verifyCorrectThread();
+      if (failure != null) {
+         return CompletableFuture.failedFuture(failure);
+      }
+      if (waiting != null) {
+         throw new IllegalStateException("A chunk is already being retrieved");
+      }
+      if (!chunks.isEmpty() || isGetComplete()) {
+         return CompletableFuture.completedFuture(pollChunk());
+      }
+      waiting = new CompletableFuture<>();
+      return waiting;
+   }
+
+   @Override
+   public boolean isGetComplete() {
+      verifyCorrectThread();
+      return chunks.isEmpty() && inFlight == 0 && batches.isEmpty();
+   }
+
+   @Override
+   public void closeGet() {
+      verifyCorrectThread();
+      close();
+   }
+
+   @Override
+   public void close() {
+      if (!channel.eventLoop().inEventLoop()) {
+         // Expired streams are closed by the thread evicting them
+         channel.eventLoop().execute(this::close);
+         return;
+      }
+      // The batches being retrieved are discarded when they complete
+      closed = true;
+      batches.clear();
+      chunks.clear();
+      if (waiting != null) {
+         waiting.completeExceptionally(new IllegalStateException("Stream was closed"));
+         waiting = null;
+      }
+   }
+}
@@ -0,0 +1,117 @@
+package org.infinispan.server.hotrod.streaming;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.container.versioning.VersionGenerator;
+import org.infinispan.metadata.Metadata;
+
+import io.netty.channel.Channel;
+
+/**
+ * The state of a streamed putAll. Each chunk sent by the client is written as a separate batch, and a few batches are
+ * written while the client sends the next chunks. A chunk is only acknowledged once there is room for a new batch, so
+ * the client, which waits for the acknowledgement before sending the next chunk, cannot get ahead of the owners. The
+ * last chunk is only acknowledged once all the batches have been written.
+ * <p>
+ * All the methods must be invoked in the event loop of the channel that started the stream.
+ */
+public class PutAllStreamingState extends StreamingState {
+   // The maximum number of batches being written
+   static final int MAX_PENDING_BATCHES = GetAllStreamingState.MAX_PENDING_BATCHES;
+
+   private final AdvancedCache<byte[], byte[]> cache;
+   private final Channel channel;
+   private final Metadata.Builder metadata;
+   private final VersionGenerator versionGenerator;
+   private int inFlight;
+   private boolean lastChunkReceived;
+   private CompletableFuture<Void> waiting;
+   private Throwable failure;
+   private boolean closed;
+
+   public PutAllStreamingState(AdvancedCache<byte[], byte[]> cache, Channel channelUsed, Metadata.Builder metadata,
+                               VersionGenerator versionGenerator) {
+      super(null, channelUsed);
+      this.cache = cache;
+      this.channel = channelUsed;
+      this.metadata = metadata;
+      this.versionGenerator = versionGenerator;
+   }
+
+   /**
+    * Starts writing the entries of a chunk, the returned stage completes once the client can send the next chunk, or,
+    * for the last chunk, once all the entries have been written.
+    */
+   public CompletionStage<Void> nextPutAll(Map<byte[], byte[]> entries, boolean lastChunk) {
+      verifyCorrectThread();
+      if (failure != null) {
+         return CompletableFuture.failedFuture(failure);
+      }
+      if (closed || lastChunkReceived) {
+         throw new IllegalStateException("Stream was closed");
+      }
+      if (waiting != null) {
+         throw new IllegalStateException("A chunk is already being written");
+      }
+      lastChunkReceived = lastChunk;
+      if (!entries.isEmpty()) {
+         inFlight++;
+         // Every batch is a separate write, like a putAll request
+         Metadata batchMetadata = metadata.version(versionGenerator.generateNew()).build();
+         cache.putAllAsync(entries, batchMetadata)
+               .whenCompleteAsync(this::batchWritten, channel.eventLoop());
+      }
+      if (canAcknowledge()) {
+         return CompletableFuture.completedFuture(null);
+      }
+      waiting = new CompletableFuture<>();
+      return waiting;
+   }
+
+   private boolean canAcknowledge() {
+      return lastChunkReceived ? inFlight == 0 : inFlight < MAX_PENDING_BATCHES;
+   }
+
+   private void batchWritten(Void ignore, Throwable t) {
+      inFlight--;
+      if (closed) {
+         return;
+      }
+      if (t != null && failure == null) {
+         failure = t;
+      }
+      if (waiting != null && (failure != null || canAcknowledge())) {
+         CompletableFuture<Void> future = waiting;
+         waiting = null;
+         if (failure != null) {
+            future.completeExceptionally(failure);
+         } else {
+            future.complete(null);
+         }
+      }
+   }
+
+   @Override
+   public void closePut() {
+      verifyCorrectThread();
+      close();
+   }
+
+   @Override
+   public void close() {
+      if (!channel.eventLoop().inEventLoop()) {
+         // Expired streams are closed by the thread evicting them
+         channel.eventLoop().execute(this::close);
+         return;
+      }
+      // The batches being written cannot be cancelled, they are just not waited for
+      closed = true;
+      if (waiting != null) {
+         waiting.completeExceptionally(new IllegalStateException("Stream was closed"));
+         waiting = null;
+      }
+   }
+}
@@ -1,12 +1,16 @@
 package org.infinispan.server.hotrod.streaming;
 
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.infinispan.AdvancedCache;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.time.TimeServiceTicker;
 import org.infinispan.commons.util.ByRef;
+import org.infinispan.container.versioning.VersionGenerator;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.server.core.logging.Log;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
@@ -60,6 +64,40 @@ public void closeGetStream(Integer iterationId) {
       });
    }
 
+   public CompletionStage<GetAllStreamResponse> startGetAllStream(AdvancedCache<byte[], byte[]> cache, Set<byte[]> keys,
+                                                                  Channel channel, int batchSize) {
+      GetAllStreamingState state = new GetAllStreamingState(cache, channel, keys, batchSize);
+      int id = globalIterationId.getAndIncrement();
+      iterationStateMap.put(id, state);
+      return nextGetAllStream(id, state);
+   }
+
+   public CompletionStage<GetAllStreamResponse> nextGetAllStream(Integer streamId) {
+      StreamingState state = iterationStateMap.get(streamId);
+      if (!(state instanceof GetAllStreamingState getAllState)) {
+         return null;
+      }
+      return nextGetAllStream(streamId, getAllState);
+   }
+
+   private CompletionStage<GetAllStreamResponse> nextGetAllStream(Integer streamId, GetAllStreamingState state) {
+      return state.nextGetAll().thenApply(entries -> {
+         boolean complete = state.isGetComplete();
+         if (complete) {
+            // The client doesn't need to end a completed stream
+            iterationStateMap.remove(streamId);
+         }
+         return new GetAllStreamResponse(streamId, entries, complete);
+      });
+   }
+
+   public void closeGetAllStream(Integer streamId) {
+      iterationStateMap.computeIfPresent(streamId, (k, v) -> {
+         v.closeGet();
+         return null;
+      });
+   }
+
    public int startPutStream(byte[] key, Channel channel, Metadata.Builder metadata, long version) {
       StreamingState state = new PutStreamingState(key, channel, metadata, version);
       int id = globalIterationId.getAndIncrement();
@@ -94,4 +132,32 @@ public void closePutStream(Integer streamId) {
          return null;
       });
    }
+
+   public int startPutAllStream(AdvancedCache<byte[], byte[]> cache, Channel channel, Metadata.Builder metadata,
+                                VersionGenerator versionGenerator) {
+      StreamingState state = new PutAllStreamingState(cache, channel, metadata, versionGenerator);
+      int id = globalIterationId.getAndIncrement();
+      iterationStateMap.put(id, state);
+      return id;
+   }
+
+   public CompletionStage<Void> nextPutAllStream(Integer streamId, boolean lastChunk, Map<byte[], byte[]> entries) {
+      StreamingState state = iterationStateMap.get(streamId);
+      if (!(state instanceof PutAllStreamingState putAllState)) {
+         return null;
+      }
+      CompletionStage<Void> stage = putAllState.nextPutAll(entries, lastChunk);
+      if (lastChunk) {
+         // The state still completes the pending writes, the client doesn't need to end the stream
+         iterationStateMap.remove(streamId);
+      }
+      return stage;
+   }
+
+   public void closePutAllStream(Integer streamId) {
+      iterationStateMap.computeIfPresent(streamId, (k, v) -> {
+         v.closePut();
+         return null;
+      });
+   }
 }
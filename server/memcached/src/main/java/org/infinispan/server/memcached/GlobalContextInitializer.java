@@ -0,0 +1,30 @@
+package org.infinispan.server.memcached;
+
+import org.infinispan.protostream.SerializationContextInitializer;
+import org.infinispan.protostream.annotations.ProtoSchema;
+import org.infinispan.protostream.annotations.ProtoSyntax;
+
+/**
+ * Interface used to initialise the global {@link org.infinispan.protostream.SerializationContext} with the functions
+ * executed on the owners of the keys.
+ *
+ * @since 16.2
+ */
+@ProtoSchema(
+      allowNullFields = true,
+      dependsOn = PersistenceContextInitializer.class,
+      includeClasses = {
+            org.infinispan.server.memcached.functions.AddFunction.class,
+            org.infinispan.server.memcached.functions.ConcatFunction.class,
+            org.infinispan.server.memcached.functions.IncrementFunction.class,
+            org.infinispan.server.memcached.functions.ReplaceFunction.class,
+      },
+      schemaFileName = "global.memcached.proto",
+      schemaFilePath = "org/infinispan/server/memcached",
+      schemaPackageName = "org.infinispan.global.memcached",
+      service = false,
+      syntax = ProtoSyntax.PROTO3,
+      orderedMarshallers = true
+)
+interface GlobalContextInitializer extends SerializationContextInitializer {
+}
@@ -23,15 +23,21 @@
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.ByRef;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.container.versioning.NumericVersionGenerator;
 import org.infinispan.container.versioning.VersionGenerator;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.functional.FunctionalMap;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.security.Security;
 import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.core.logging.Log;
 import org.infinispan.server.core.transport.CacheInitializeInboundAdapter;
 import org.infinispan.server.core.transport.NettyTransport;
+import org.infinispan.server.memcached.functions.AddFunction;
+import org.infinispan.server.memcached.functions.ConcatFunction;
+import org.infinispan.server.memcached.functions.IncrementFunction;
+import org.infinispan.server.memcached.functions.ReplaceFunction;
 import org.infinispan.server.memcached.logging.Header;
 import org.infinispan.server.memcached.logging.MemcachedAccessLogging;
 import org.infinispan.stats.Stats;
@@ -58,6 +64,8 @@ public abstract class MemcachedBaseDecoder extends ByteToMessageDecoder {
    protected TimeService timeService;
    protected VersionGenerator versionGenerator;
    protected AdvancedCache<byte[], byte[]> cache;
+   // The read-modify-write operations are executed on the owner of the key with a single command
+   protected FunctionalMap.ReadWriteMap<byte[], byte[]> readWriteMap;
    protected final Subject subject;
    protected final String principalName;
    protected final ByRef<MemcachedResponse> current = ByRef.create(null);
@@ -114,6 +122,7 @@ private void initializeHandler() {
       this.statistics = server.getStatistics();
       this.statsEnabled = statistics != null;
       this.cache = c.withSubject(subject);
+      this.readWriteMap = FunctionalMap.create(cache).toReadWriteMap();
    }
 
    protected abstract AdvancedCache<byte[], byte[]> createCache(MemcachedServer server);
@@ -230,6 +239,54 @@ protected long toMillis(int lifespan) {
       }
    }
 
+   /**
+    * Stores the value if the key does not exist.
+    *
+    * @return whether the value was stored.
+    */
+   protected CompletionStage<Boolean> addIfAbsent(byte[] key, byte[] value, Metadata metadata) {
+      return readWriteMap.eval(key, value, new AddFunction((MemcachedMetadata) metadata));
+   }
+
+   /**
+    * Stores the value if the key exists.
+    *
+    * @return whether the value was stored.
+    */
+   protected CompletionStage<Boolean> replaceIfPresent(byte[] key, byte[] value, Metadata metadata) {
+      return readWriteMap.eval(key, value, new ReplaceFunction((MemcachedMetadata) metadata));
+   }
+
+   /**
+    * Appends or prepends the value to the value of the key, if the key exists.
+    *
+    * @return whether the key existed.
+    */
+   protected CompletionStage<Boolean> concatIfPresent(byte[] key, byte[] value, boolean append, Metadata metadata) {
+      return readWriteMap.eval(key, value, ConcatFunction.withMetadata(append, (MemcachedMetadata) metadata));
+   }
+
+   /**
+    * Appends or prepends the value to the value of the key, if the key exists. The entry keeps its flags and lifespan
+    * and gets the given version.
+    *
+    * @return whether the key existed.
+    */
+   protected CompletionStage<Boolean> concatIfPresent(byte[] key, byte[] value, boolean append, NumericVersion version) {
+      return readWriteMap.eval(key, value, ConcatFunction.withVersion(append, version));
+   }
+
+   /**
+    * Increments or decrements the unsigned counter of the key by the unsigned {@code delta}.
+    *
+    * @param create whether the counter is created with the {@code initial} value when the key does not exist.
+    * @return the new value of the counter, or {@code null} if the key does not exist and the counter is not created.
+    */
+   protected CompletionStage<byte[]> incrementCounter(byte[] key, long delta, boolean increment, boolean create,
+                                                      long initial, Metadata metadata) {
+      return readWriteMap.eval(key, new IncrementFunction(delta, increment, create, initial, (MemcachedMetadata) metadata));
+   }
+
    protected Metadata metadata(int flags, int expiration) {
       return new MemcachedMetadata.Builder()
             .flags(flags)
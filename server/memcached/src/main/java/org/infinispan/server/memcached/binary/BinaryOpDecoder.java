@@ -14,7 +14,6 @@
 import static org.infinispan.server.memcached.MemcachedStatus.NO_ERROR;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -33,7 +32,6 @@
 import org.infinispan.server.memcached.MemcachedMetadata;
 import org.infinispan.server.memcached.MemcachedResponse;
 import org.infinispan.server.memcached.MemcachedServer;
-import org.infinispan.server.memcached.ParseUtil;
 import org.jgroups.util.CompletableFutures;
 
 abstract class BinaryOpDecoder extends BinaryDecoder {
@@ -107,13 +105,12 @@ private CompletionStage<Void> handleSet(CacheEntry<byte[], byte[]> e, Metadata m
 
    protected MemcachedResponse add(BinaryHeader header, byte[] key, byte[] value, int flags, int expiration, boolean quiet) {
       Metadata metadata = metadata(flags, expiration);
-      CompletableFuture<Void> response = cache
-            .putIfAbsentAsyncEntry(key, value, metadata)
-            .thenAccept(e -> {
-               if (e != null) {
-                  response(header, KEY_EXISTS);
-               } else {
+      CompletionStage<Void> response = addIfAbsent(key, value, metadata)
+            .thenAccept(stored -> {
+               if (stored) {
                   storeResponse(header, quiet, metadata);
+               } else {
+                  response(header, KEY_EXISTS);
                }
             });
       return send(header, response);
@@ -121,15 +118,14 @@ protected MemcachedResponse add(BinaryHeader header, byte[] key, byte[] value, i
 
    protected MemcachedResponse replace(BinaryHeader header, byte[] key, byte[] value, int flags, int expiration, boolean quiet) {
       Metadata metadata = metadata(flags, expiration);
-      CompletableFuture<Void> response;
+      CompletionStage<Void> response;
       if (header.getCas() == 0) {
-         response = cache
-               .replaceAsync(key, value, metadata)
-               .thenAccept(e -> {
-                  if (e == null) {
-                     response(header, KEY_NOT_FOUND);
-                  } else {
+         response = replaceIfPresent(key, value, metadata)
+               .thenAccept(stored -> {
+                  if (stored) {
                      storeResponse(header, quiet, metadata);
+                  } else {
+                     response(header, KEY_NOT_FOUND);
                   }
                });
       } else {
@@ -199,18 +195,13 @@ protected MemcachedResponse delete(BinaryHeader header, byte[] key, boolean quie
       return send(header, response);
    }
 
-   protected MemcachedResponse increment(BinaryHeader header, byte[] key, long delta, long initial, int expiration, boolean quiet) {
+   protected MemcachedResponse increment(BinaryHeader header, byte[] key, long delta, long initial, int expiration, boolean increment, boolean quiet) {
       Metadata metadata = metadata(0, expiration);
-      CompletableFuture<byte[]> f;
-      if (expiration == -1) {
-         f = cache.computeIfPresentAsync(key, (k, v) -> increment(delta, v), metadata);
-      } else {
-         f = cache.mergeAsync(key, ParseUtil.writeAsciiLong(initial), (v1, v2) -> increment(delta, v1), metadata);
-      }
-      CompletableFuture<Void> response = f.thenAccept(v -> {
+      // An expiration of 0xffffffff means the counter must not be created
+      CompletionStage<Void> response = incrementCounter(key, delta, increment, expiration != -1, initial, metadata).thenAccept(v -> {
          if (v == null) {
             if (statsEnabled) {
-               if (delta > 0) {
+               if (increment) {
                   INCR_MISSES.incrementAndGet(statistics);
                } else {
                   DECR_MISSES.incrementAndGet(statistics);
@@ -220,7 +211,7 @@ protected MemcachedResponse increment(BinaryHeader header, byte[] key, long delt
             return;
          }
          if (statsEnabled) {
-            if (delta > 0) {
+            if (increment) {
                INCR_HITS.incrementAndGet(statistics);
             } else {
                DECR_HITS.incrementAndGet(statistics);
@@ -229,36 +220,30 @@ protected MemcachedResponse increment(BinaryHeader header, byte[] key, long delt
          if (quiet)
             return;
          header.setCas(((NumericVersion) metadata.version()).getVersion());
-         response(header, NO_ERROR, ParseUtil.readLong(v));
+         response(header, NO_ERROR, Long.parseUnsignedLong(new String(v, StandardCharsets.US_ASCII)));
       });
       return send(header, response);
    }
 
-   private static byte[] increment(long delta, byte[] v1) {
-      long l = ParseUtil.readLong(v1);
-      l += delta;
-      if (l < 0) l = 0;
-      return ParseUtil.writeAsciiLong(l);
-   }
-
    protected MemcachedResponse append(BinaryHeader header, byte[] key, byte[] value, boolean quiet) {
-      CompletableFuture<Void> response = cache.computeIfPresentAsync(key, (k, v) -> {
-         byte[] r = Arrays.copyOf(v, v.length + value.length);
-         System.arraycopy(value, 0, r, v.length, value.length);
-         return r;
-      }, null).thenAccept(v -> {
-         if (!quiet) response(header, v == null ? KEY_NOT_FOUND : NO_ERROR);
-      });
-      return send(header, response);
+      return concat(header, key, value, true, quiet);
    }
 
    protected MemcachedResponse prepend(BinaryHeader header, byte[] key, byte[] value, boolean quiet) {
-      CompletableFuture<Void> response = cache.computeIfPresentAsync(key, (k, v) -> {
-         byte[] r = Arrays.copyOf(value, v.length + value.length);
-         System.arraycopy(v, 0, r, value.length, v.length);
-         return r;
-      }, null).thenAccept(v -> {
-         if (!quiet) response(header, v == null ? KEY_NOT_FOUND : NO_ERROR);
+      return concat(header, key, value, false, quiet);
+   }
+
+   private MemcachedResponse concat(BinaryHeader header, byte[] key, byte[] value, boolean append, boolean quiet) {
+      // The entry keeps its flags and expiration, with a new CAS
+      NumericVersion version = (NumericVersion) versionGenerator.generateNew();
+      CompletionStage<Void> response = concatIfPresent(key, value, append, version).thenAccept(stored -> {
+         if (quiet) return;
+         if (stored) {
+            header.setCas(version.getVersion());
+            response(header, NO_ERROR);
+         } else {
+            response(header, KEY_NOT_FOUND);
+         }
       });
       return send(header, response);
    }
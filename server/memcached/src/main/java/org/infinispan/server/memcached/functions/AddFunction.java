@@ -0,0 +1,35 @@
+package org.infinispan.server.memcached.functions;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.server.memcached.MemcachedMetadata;
+import org.infinispan.util.function.SerializableBiFunction;
+
+/**
+ * Stores the argument only if the key does not exist, on the owner of the key.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.MEMCACHED_ADD_FUNCTION)
+public final class AddFunction implements SerializableBiFunction<byte[], ReadWriteEntryView<byte[], byte[]>, Boolean> {
+
+   @ProtoField(1)
+   final MemcachedMetadata metadata;
+
+   @ProtoFactory
+   public AddFunction(MemcachedMetadata metadata) {
+      this.metadata = metadata;
+   }
+
+   @Override
+   public Boolean apply(byte[] value, ReadWriteEntryView<byte[], byte[]> view) {
+      if (view.find().isPresent()) {
+         return Boolean.FALSE;
+      }
+      view.set(value, metadata);
+      return Boolean.TRUE;
+   }
+}
@@ -0,0 +1,83 @@
+package org.infinispan.server.memcached.functions;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.functional.impl.EntryViews;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.server.memcached.MemcachedMetadata;
+import org.infinispan.util.function.SerializableBiFunction;
+
+/**
+ * Appends or prepends the argument to the value of an existing entry, on the owner of the key.
+ * <p>
+ * The updated entry gets the given metadata or, when only a version is given, keeps the flags and the lifespan of the
+ * entry with the new version.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.MEMCACHED_CONCAT_FUNCTION)
+public final class ConcatFunction implements SerializableBiFunction<byte[], ReadWriteEntryView<byte[], byte[]>, Boolean> {
+
+   @ProtoField(1)
+   final boolean append;
+
+   @ProtoField(2)
+   final MemcachedMetadata metadata;
+
+   @ProtoField(3)
+   final NumericVersion version;
+
+   @ProtoFactory
+   public ConcatFunction(boolean append, MemcachedMetadata metadata, NumericVersion version) {
+      this.append = append;
+      this.metadata = metadata;
+      this.version = version;
+   }
+
+   /**
+    * @return a function replacing the metadata of the entry.
+    */
+   public static ConcatFunction withMetadata(boolean append, MemcachedMetadata metadata) {
+      return new ConcatFunction(append, metadata, null);
+   }
+
+   /**
+    * @return a function keeping the flags and the lifespan of the entry, with a new version.
+    */
+   public static ConcatFunction withVersion(boolean append, NumericVersion version) {
+      return new ConcatFunction(append, null, version);
+   }
+
+   @Override
+   public Boolean apply(byte[] value, ReadWriteEntryView<byte[], byte[]> view) {
+      byte[] prev = view.find().orElse(null);
+      if (prev == null) {
+         return Boolean.FALSE;
+      }
+      view.set(append ? concat(prev, value) : concat(value, prev), metadata != null ? metadata : keepMetadata(view));
+      return Boolean.TRUE;
+   }
+
+   private Metadata keepMetadata(ReadWriteEntryView<byte[], byte[]> view) {
+      Metadata previous = EntryViews.metadata(view);
+      MemcachedMetadata.Builder builder = new MemcachedMetadata.Builder();
+      if (previous instanceof MemcachedMetadata memcachedMetadata) {
+         builder.flags(memcachedMetadata.flags);
+      }
+      return builder
+            .version(version)
+            .lifespan(previous != null ? previous.lifespan() : -1)
+            .build();
+   }
+
+   static byte[] concat(byte[] a, byte[] b) {
+      byte[] data = new byte[a.length + b.length];
+      System.arraycopy(a, 0, data, 0, a.length);
+      System.arraycopy(b, 0, data, a.length, b.length);
+      return data;
+   }
+}
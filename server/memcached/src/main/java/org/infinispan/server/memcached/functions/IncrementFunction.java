@@ -0,0 +1,83 @@
+package org.infinispan.server.memcached.functions;
+
+import java.nio.charset.StandardCharsets;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.server.memcached.MemcachedMetadata;
+import org.infinispan.util.function.SerializableFunction;
+
+/**
+ * Increments or decrements the counter stored as the decimal representation of a 64-bit unsigned integer, on the
+ * owner of the key.
+ * <p>
+ * The delta and the initial value are unsigned. An increment overflowing the counter resets it to 0 and a decrement
+ * never takes it below 0.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.MEMCACHED_INCREMENT_FUNCTION)
+public final class IncrementFunction implements SerializableFunction<ReadWriteEntryView<byte[], byte[]>, byte[]> {
+
+   @ProtoField(1)
+   final long delta;
+
+   @ProtoField(2)
+   final boolean increment;
+
+   @ProtoField(3)
+   final boolean create;
+
+   @ProtoField(4)
+   final long initial;
+
+   @ProtoField(5)
+   final MemcachedMetadata metadata;
+
+   /**
+    * @param delta     the unsigned amount to add or subtract.
+    * @param increment {@code true} to increment the counter, {@code false} to decrement it.
+    * @param create    whether the counter is created with the {@code initial} value when the key does not exist.
+    * @param initial   the unsigned value of a created counter.
+    * @param metadata  the metadata of the updated entry.
+    */
+   @ProtoFactory
+   public IncrementFunction(long delta, boolean increment, boolean create, long initial, MemcachedMetadata metadata) {
+      this.delta = delta;
+      this.increment = increment;
+      this.create = create;
+      this.initial = initial;
+      this.metadata = metadata;
+   }
+
+   /**
+    * @return the new value of the counter, or {@code null} if the key does not exist and the counter is not created.
+    */
+   @Override
+   public byte[] apply(ReadWriteEntryView<byte[], byte[]> view) {
+      byte[] prev = view.find().orElse(null);
+      long counter;
+      if (prev == null) {
+         if (!create) {
+            return null;
+         }
+         counter = initial;
+      } else {
+         long current = Long.parseUnsignedLong(new String(prev, StandardCharsets.US_ASCII));
+         if (increment) {
+            counter = current + delta;
+            if (Long.compareUnsigned(counter, current) < 0) {
+               counter = 0;
+            }
+         } else {
+            counter = Long.compareUnsigned(current, delta) < 0 ? 0 : current - delta;
+         }
+      }
+      byte[] value = Long.toUnsignedString(counter).getBytes(StandardCharsets.US_ASCII);
+      view.set(value, metadata);
+      return value;
+   }
+}
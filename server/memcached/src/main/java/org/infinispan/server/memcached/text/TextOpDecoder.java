@@ -44,7 +44,6 @@
 
 import javax.security.auth.Subject;
 
-import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.Version;
 import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
@@ -112,35 +111,18 @@ protected MemcachedResponse delete(TextHeader header, byte[] key, boolean quiet)
    }
 
    protected MemcachedResponse concat(TextHeader header, byte[] key, byte[] value, int flags, int expiration, boolean quiet, boolean append) {
-      return send(header, cache.getAsync(key)
-            .thenCompose(prev -> {
-               if (prev == null) {
-                  return completedFuture(quiet ? null : NOT_STORED);
-               }
-               byte[] concatenated = append ? concat(prev, value) : concat(value, prev);
-               return cache.replaceAsync(key, prev, concatenated, metadata(flags, expiration))
-                     .thenApply(replaced ->
-                           replaced ?
-                                 (quiet ? null : STORED) :
-                                 (quiet ? null : NOT_STORED));
-            }));
+      return send(header, concatIfPresent(key, value, append, metadata(flags, expiration))
+            .thenApply(stored -> quiet ? null : (stored ? STORED : NOT_STORED)));
    }
 
    protected MemcachedResponse replace(TextHeader header, byte[] key, byte[] value, int flags, int expiration, boolean quiet) {
-      return send(header, cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION)
-            .getAsync(key)
-            .thenCompose(prev -> prev == null ?
-                  CompletableFutures.completedNull() :
-                  cache.replaceAsync(key, value, metadata(flags, expiration)))
-            .thenApply(prev -> prev == null ? createNotExecutedResponse(TextCommand.replace, quiet) : createSuccessResponse(TextCommand.replace, quiet)));
+      return send(header, replaceIfPresent(key, value, metadata(flags, expiration))
+            .thenApply(stored -> stored ? createSuccessResponse(TextCommand.replace, quiet) : createNotExecutedResponse(TextCommand.replace, quiet)));
    }
 
    protected MemcachedResponse add(TextHeader header, byte[] key, byte[] value, int flags, int expiration, boolean quiet) {
-      return send(header, cache.getAsync(key)
-            .thenCompose(prev -> prev == null ?
-                  cache.putIfAbsentAsync(key, value, metadata(flags, expiration)) :
-                  completedFuture(prev))
-            .thenApply(prev -> prev == null ? createSuccessResponse(TextCommand.add, quiet) : createNotExecutedResponse(TextCommand.add, quiet)));
+      return send(header, addIfAbsent(key, value, metadata(flags, expiration))
+            .thenApply(stored -> stored ? createSuccessResponse(TextCommand.add, quiet) : createNotExecutedResponse(TextCommand.add, quiet)));
    }
 
    protected MemcachedResponse cas(TextHeader header, byte[] key, byte[] value, int flags, int expiration, long cas, boolean quiet) {
@@ -283,9 +265,15 @@ protected void quit(TextHeader header) {
    }
 
    protected MemcachedResponse incr(TextHeader header, byte[] key, byte[] delta, boolean quiet, boolean isIncrement) {
-      return send(header, cache.getAsync(key)
-            .thenCompose(prev -> {
-               if (prev == null) {
+      long d;
+      try {
+         d = validateDelta(new String(delta, StandardCharsets.US_ASCII)).longValue();
+      } catch (Throwable t) {
+         return send(header, failedFuture(t));
+      }
+      return send(header, incrementCounter(key, d, isIncrement, false, 0, metadata(0, 0))
+            .thenApply(counter -> {
+               if (counter == null) {
                   if (statsEnabled) {
                      if (isIncrement) {
                         INCR_MISSES.incrementAndGet(statistics);
@@ -293,34 +281,16 @@ protected MemcachedResponse incr(TextHeader header, byte[] key, byte[] delta, bo
                         DECR_MISSES.incrementAndGet(statistics);
                      }
                   }
-                  return completedFuture(quiet ? null : NOT_FOUND);
+                  return quiet ? null : NOT_FOUND;
                }
-               BigInteger prevCounter = new BigInteger(new String(prev));
-               BigInteger d = validateDelta(new String(delta, StandardCharsets.US_ASCII));
-               BigInteger candidateCounter;
-               if (isIncrement) {
-                  candidateCounter = prevCounter.add(d);
-                  candidateCounter = candidateCounter.compareTo(MAX_UNSIGNED_LONG) > 0 ? MIN_UNSIGNED : candidateCounter;
-               } else {
-                  candidateCounter = prevCounter.subtract(d);
-                  candidateCounter = candidateCounter.compareTo(MIN_UNSIGNED) < 0 ? MIN_UNSIGNED : candidateCounter;
+               if (statsEnabled) {
+                  if (isIncrement) {
+                     INCR_HITS.incrementAndGet(statistics);
+                  } else {
+                     DECR_HITS.incrementAndGet(statistics);
+                  }
                }
-               String counterString = candidateCounter.toString();
-               return cache.replaceAsync(key, prev, counterString.getBytes(), metadata(0, 0))
-                     .thenApply(replaced -> {
-                        if (!replaced) {
-                           // If there's a concurrent modification on this key, the spec does not say what to do, so treat it as exceptional
-                           throw asCompletionException(new CacheException("Value modified since we retrieved from the cache, old value was " + prevCounter));
-                        }
-                        if (statsEnabled) {
-                           if (isIncrement) {
-                              INCR_HITS.incrementAndGet(statistics);
-                           } else {
-                              DECR_HITS.incrementAndGet(statistics);
-                           }
-                        }
-                        return quiet ? null : counterString + CRLF;
-                     });
+               return quiet ? null : new String(counter, StandardCharsets.US_ASCII) + CRLF;
             }));
    }
 
@@ -473,13 +443,6 @@ private static ByteBuf writeGetHeaderEnd(ByteBuf buf) {
       return buf;
    }
 
-   static byte[] concat(byte[] a, byte[] b) {
-      byte[] data = new byte[a.length + b.length];
-      System.arraycopy(a, 0, data, 0, a.length);
-      System.arraycopy(b, 0, data, a.length, b.length);
-      return data;
-   }
-
    private BigInteger validateDelta(String delta) {
       BigInteger bigIntDelta = new BigInteger(delta);
       if (bigIntDelta.compareTo(MAX_UNSIGNED_LONG) > 0)
@@ -0,0 +1,94 @@
+package org.infinispan.server.memcached.test;
+
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.createMemcachedClient;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import net.spy.memcached.MemcachedClient;
+
+/**
+ * Measures the operations per second of many connections updating a few hot keys with the operations reading and
+ * writing the value of the key.
+ *
+ * @since 16.2
+ */
+@Test(groups = "profiling")
+public abstract class MemcachedContentionProfilingTest extends MemcachedSingleNodeTest {
+
+   private static final int NUM_CLIENTS = 16;
+   private static final int NUM_KEYS = 4;
+   private static final int OPERATIONS = 10_000;
+
+   public void testIncrement() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertTrue(client.set(key(i), 0, "0").get(timeout, TimeUnit.SECONDS));
+      }
+      long nanos = run((c, key) -> assertTrue(c.incr(key, 1) > 0));
+      long total = 0;
+      for (int i = 0; i < NUM_KEYS; i++) {
+         total += Long.parseLong((String) client.get(key(i)));
+      }
+      assertEquals((long) NUM_CLIENTS * OPERATIONS, total);
+      report("testIncrement", nanos);
+   }
+
+   public void testAppend() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertTrue(client.set(key(i), 0, "").get(timeout, TimeUnit.SECONDS));
+      }
+      long nanos = run((c, key) -> assertTrue(c.append(0, key, "x").get(timeout, TimeUnit.SECONDS)));
+      long total = 0;
+      for (int i = 0; i < NUM_KEYS; i++) {
+         total += ((String) client.get(key(i))).length();
+      }
+      assertEquals((long) NUM_CLIENTS * OPERATIONS, total);
+      report("testAppend", nanos);
+   }
+
+   private long run(Operation operation) throws Exception {
+      List<MemcachedClient> clients = new ArrayList<>(NUM_CLIENTS);
+      try {
+         for (int i = 0; i < NUM_CLIENTS; i++) {
+            clients.add(createMemcachedClient(server));
+         }
+         long start = System.nanoTime();
+         List<Future<Void>> futures = new ArrayList<>(NUM_CLIENTS);
+         for (int i = 0; i < NUM_CLIENTS; i++) {
+            MemcachedClient c = clients.get(i);
+            int first = i;
+            futures.add(fork(() -> {
+               for (int j = 0; j < OPERATIONS; j++) {
+                  operation.apply(c, key(first + j));
+               }
+            }));
+         }
+         for (Future<Void> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+         }
+         return System.nanoTime() - start;
+      } finally {
+         clients.forEach(MemcachedClient::shutdown);
+      }
+   }
+
+   private void report(String test, long nanos) {
+      log.infof("%s.%s %d connections, %d keys: %d ops/s", getClass().getSimpleName(), test, NUM_CLIENTS, NUM_KEYS,
+            (long) NUM_CLIENTS * OPERATIONS * TimeUnit.SECONDS.toNanos(1) / nanos);
+   }
+
+   private static String key(int i) {
+      return "hot-" + i % NUM_KEYS;
+   }
+
+   @FunctionalInterface
+   private interface Operation {
+      void apply(MemcachedClient client, String key) throws Exception;
+   }
+}
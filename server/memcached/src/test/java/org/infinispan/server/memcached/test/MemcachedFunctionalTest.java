@@ -10,10 +10,12 @@
 
 import java.lang.reflect.Method;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -252,6 +254,33 @@ public void testPrependNotFound(Method m) throws InterruptedException, Execution
       assertNull(client.get(k(m, "k2-")));
    }
 
+   public void testAppendChangesCas(Method m) throws InterruptedException, ExecutionException, TimeoutException {
+      addAndGet(m);
+      long old = client.gets(k(m)).getCas();
+      assertTrue(client.append(0, k(m), v(m, "v1-")).get(timeout, TimeUnit.SECONDS));
+      CASValue value = client.gets(k(m));
+      assertEquals(value.getValue(), v(m) + v(m, "v1-"));
+      assertTrue(value.getCas() != old);
+      assertEquals(CASResponse.EXISTS, client.cas(k(m), old, v(m, "v2-")));
+   }
+
+   public void testConcurrentAppend(Method m) throws InterruptedException, ExecutionException, TimeoutException {
+      OperationFuture<Boolean> f = client.set(k(m), 0, "");
+      assertTrue(f.get(timeout, TimeUnit.SECONDS));
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+         futures.add(fork(() -> {
+            for (int j = 0; j < 50; j++) {
+               assertTrue(client.append(0, k(m), "x").get(timeout, TimeUnit.SECONDS));
+            }
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(timeout, TimeUnit.SECONDS);
+      }
+      assertEquals(((String) client.get(k(m))).length(), 8 * 50);
+   }
+
    public void testGetsBasic(Method m) throws InterruptedException, ExecutionException, TimeoutException {
       addAndGet(m);
       CASValue value = client.gets(k(m));
@@ -338,6 +367,23 @@ public void testIncrementBeyondIntegerMax(Method m) throws InterruptedException,
       assertEquals((long) Integer.MAX_VALUE + 1, newValue);
    }
 
+   public void testConcurrentIncrement(Method m) throws InterruptedException, ExecutionException, TimeoutException {
+      OperationFuture<Boolean> f = client.set(k(m), 0, "0");
+      assertTrue(f.get(timeout, TimeUnit.SECONDS));
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+         futures.add(fork(() -> {
+            for (int j = 0; j < 50; j++) {
+               assertTrue(client.incr(k(m), 1) > 0);
+            }
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(timeout, TimeUnit.SECONDS);
+      }
+      assertEquals(client.get(k(m)), String.valueOf(8 * 50));
+   }
+
    public void testDecrementBasic(Method m) throws InterruptedException, ExecutionException, TimeoutException {
       OperationFuture<Boolean> f = client.set(k(m), 0, "1");
       assertTrue(f.get(timeout, TimeUnit.SECONDS));
@@ -0,0 +1,17 @@
+package org.infinispan.server.memcached.text;
+
+import org.infinispan.server.memcached.configuration.MemcachedProtocol;
+import org.infinispan.server.memcached.test.MemcachedContentionProfilingTest;
+import org.testng.annotations.Test;
+
+/**
+ * @since 16.2
+ **/
+@Test(groups = "profiling", testName = "server.memcached.text.MemcachedTextContentionProfilingTest")
+public class MemcachedTextContentionProfilingTest extends MemcachedContentionProfilingTest {
+
+   @Override
+   protected MemcachedProtocol getProtocol() {
+      return MemcachedProtocol.TEXT;
+   }
+}
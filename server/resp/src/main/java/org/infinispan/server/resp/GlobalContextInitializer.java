@@ -73,6 +73,9 @@
             org.infinispan.server.resp.commands.topk.TopKInfoFunction.class,
             org.infinispan.server.resp.commands.topk.TopKInfoFunction.TopKInfo.class,
             org.infinispan.server.resp.commands.topk.TopKCountFunction.class,
+            org.infinispan.server.resp.pubsub.PublishTask.class,
+            org.infinispan.server.resp.scripting.InvalidateScriptResultsTask.class,
+            org.infinispan.server.resp.operation.ExistingKeyFunction.class,
       },
       schemaFileName = "global.resp.proto",
       schemaFilePath = "org/infinispan/erver/resp",
@@ -198,6 +198,22 @@ public final long aclMask() {
       return aclMask;
    }
 
+   /**
+    * Whether the command can be executed while the previous pipelined commands of the connection are still running,
+    * when the server is configured with a {@code pipeline-concurrency} greater than one. The replies are still written
+    * in the order of the requests.
+    * <p>
+    * A command can only return {@code true} if it only accesses the keys returned by {@link #extractKeys(List)}, does
+    * not change the state of the handler, and writes its response with the writer passed to
+    * {@link RespRequestHandler#stageToReturn(CompletionStage, io.netty.channel.ChannelHandlerContext, java.util.function.BiConsumer)}
+    * or with {@link RespRequestHandler#writer()} before returning.
+    *
+    * @return {@code true} if the command can be executed concurrently with the previous commands of the pipeline.
+    */
+   public boolean isConcurrentInPipeline() {
+      return false;
+   }
+
    public byte[][] extractKeys(List<byte[]> arguments) {
       // Position 0 is the command's name. This means no keys are present.
       if (getFirstKeyPos() == 0) {
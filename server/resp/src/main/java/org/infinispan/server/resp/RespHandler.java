@@ -1,5 +1,8 @@
 package org.infinispan.server.resp;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 
@@ -10,6 +13,8 @@
 import org.infinispan.server.resp.logging.AccessLoggerManager;
 import org.infinispan.server.resp.logging.Log;
 import org.infinispan.server.resp.logging.RespAccessLogger;
+import org.infinispan.server.resp.serialization.ResponseWriter;
+import org.infinispan.server.resp.serialization.bytebuf.ByteBufResponseWriter;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -36,6 +41,16 @@ public class RespHandler extends ChannelInboundHandlerAdapter {
    private final boolean traceAccess = RespAccessLogger.isEnabled();
    private AccessLoggerManager accessLogger;
 
+   // The access log tracks a single command at a time, so the commands are not executed concurrently when enabled
+   private final int pipelineConcurrency;
+   // The pipelined commands executing concurrently, in the order of the requests
+   private final ArrayDeque<PipelinedCommand> pipelined;
+   // A command that must wait for the pipelined commands to complete, auto read is disabled meanwhile
+   private RespCommand deferredCommand;
+   private List<byte[]> deferredArguments;
+   // Whether a command executed without concurrency is not complete yet
+   private boolean commandPending;
+
    static {
       MINIMUM_BUFFER_SIZE = Integer.parseInt(System.getProperty("infinispan.resp.minimum-buffer-size", "4096"));
    }
@@ -43,6 +58,8 @@ public class RespHandler extends ChannelInboundHandlerAdapter {
    public RespHandler(RespServer server, BaseRespDecoder resumeHandler) {
       this.respServer = server;
       this.resumeHandler = resumeHandler;
+      this.pipelineConcurrency = traceAccess ? 1 : server.getConfiguration().pipelineConcurrency();
+      this.pipelined = pipelineConcurrency > 1 ? new ArrayDeque<>(pipelineConcurrency) : null;
       if (server.isDefaultCacheInitialized() && server.isDefaultCacheRunning())
          requestHandler = initializeRespRequestHandler();
    }
@@ -133,6 +150,14 @@ public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
    @Override
    public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
       super.channelUnregistered(ctx);
+      if (pipelined != null) {
+         // The commands still executing release their buffer when they complete
+         for (PipelinedCommand pipelinedCommand : pipelined) {
+            pipelinedCommand.discarded = true;
+            pipelinedCommand.release();
+         }
+         pipelined.clear();
+      }
       if (requestHandler != null) {
          requestHandler.handleChannelDisconnect(ctx);
          if (traceAccess) accessLogger.close();
@@ -183,6 +208,11 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
          log.tracef("Received command: %s with arguments %s for %s", command, Util.toStr(arguments), ctx.channel());
       }
 
+      if (pipelined != null && !pipelined.isEmpty()) {
+         handlePipelinedCommand(ctx, command, arguments);
+         return;
+      }
+
       if (!requestHandler.respServer().isDefaultCacheRunning()) {
          requestHandler.initializeIfNecessary(ctx);
          requestHandler.writer().error("-ERR Server not ready");
@@ -191,6 +221,8 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
 
       if (traceAccess) accessLogger.track(command, arguments);
 
+      boolean concurrent = isConcurrent(command, arguments);
+      byte[][] keys = concurrent ? command.extractKeys(arguments) : null;
       CompletionStage<RespRequestHandler> stage = requestHandler.handleRequest(ctx, command, arguments);
       if (CompletionStages.isCompletedSuccessfully(stage)) {
          requestHandler = CompletionStages.join(stage);
@@ -206,9 +238,16 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
 
          return;
       }
+      if (concurrent) {
+         // The command writes its response to the shared buffer, which is not used by the next commands until it completes
+         log.tracef("Command %s is pending, executing the next pipelined commands concurrently for channel %s", command, ctx.channel());
+         startPipelined(ctx, new PipelinedCommand(keys, isWrite(command), null, requestHandler.writer()), stage);
+         return;
+      }
       log.tracef("Disabling auto read for channel %s until previous command is complete", ctx.channel());
       // Disable reading any more from socket - until command is complete
       ctx.channel().config().setAutoRead(false);
+      commandPending = true;
       stage.whenCompleteAsync((handler, t) -> {
          assert ctx.channel().eventLoop().inEventLoop() : "Command should complete only in event loop thread, it was " + Thread.currentThread().getName();
          if (t != null) {
@@ -217,12 +256,174 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
          } else {
             requestHandler = handler; // Instate the new handler if there was no exception
          }
+         commandPending = false;
          flushBufferIfNeeded(ctx, false, stage);
          log.tracef("Re-enabling auto read for channel %s as previous command is complete", ctx.channel());
          resumeAutoRead(ctx);
       }, ctx.executor());
    }
 
+   private boolean isConcurrent(RespCommand command, List<byte[]> arguments) {
+      // The handlers of authentication, transactions and subscriptions are not shared with concurrent commands
+      return pipelined != null && command != null && command.isConcurrentInPipeline()
+            && requestHandler instanceof Resp3Handler && command.hasValidNumberOfArguments(arguments);
+   }
+
+   private static boolean isWrite(RespCommand command) {
+      return (command.aclMask() & AclCategory.WRITE.mask()) != 0;
+   }
+
+   /**
+    * Handles a command received while the previous pipelined commands are executing. The command is executed
+    * concurrently if possible, writing its response to a buffer of its own that is written to the channel after the
+    * responses of the previous commands. Otherwise, it is deferred until the previous commands complete.
+    */
+   private void handlePipelinedCommand(ChannelHandlerContext ctx, RespCommand command, List<byte[]> arguments) {
+      if (pipelined.size() >= pipelineConcurrency || !isConcurrent(command, arguments)) {
+         deferCommand(ctx, command, arguments);
+         return;
+      }
+      byte[][] keys = command.extractKeys(arguments);
+      boolean write = isWrite(command);
+      for (PipelinedCommand previous : pipelined) {
+         // The commands accessing the same key as a previous write, or writing a key accessed by a previous command, wait
+         if ((write || previous.write) && previous.conflicts(keys)) {
+            deferCommand(ctx, command, arguments);
+            return;
+         }
+      }
+      PipelinedCommand pipelinedCommand = new PipelinedCommand(keys, write, ctx, null);
+      pipelinedCommand.writer.version(requestHandler.writer().version());
+      ResponseWriter previousWriter = requestHandler.writer(pipelinedCommand.writer);
+      CompletionStage<RespRequestHandler> stage;
+      try {
+         stage = requestHandler.handleRequest(ctx, command, arguments);
+      } finally {
+         requestHandler.writer(previousWriter);
+      }
+      startPipelined(ctx, pipelinedCommand, stage);
+   }
+
+   private void startPipelined(ChannelHandlerContext ctx, PipelinedCommand pipelinedCommand, CompletionStage<RespRequestHandler> stage) {
+      pipelined.add(pipelinedCommand);
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         // The head of the pipeline is pending, so there is nothing to write yet
+         pipelinedCommand.complete = true;
+         return;
+      }
+      // The handler of the concurrent commands never changes
+      stage.whenCompleteAsync((ignore, t) -> {
+         assert ctx.channel().eventLoop().inEventLoop() : "Command should complete only in event loop thread, it was " + Thread.currentThread().getName();
+         if (pipelinedCommand.discarded) {
+            pipelinedCommand.release();
+            return;
+         }
+         if (t != null) {
+            log.tracef(t, "Pipelined command failed, pass to writer");
+            pipelinedCommand.writer.error(t);
+         }
+         pipelinedCommand.complete = true;
+         pipelinedCommandCompleted(ctx);
+      }, ctx.executor());
+   }
+
+   private void pipelinedCommandCompleted(ChannelHandlerContext ctx) {
+      boolean written = false;
+      PipelinedCommand head;
+      while ((head = pipelined.peek()) != null && head.complete) {
+         pipelined.poll();
+         // The shared buffer holds the responses of the commands preceding this one, or its own response
+         if (outboundBuffer != null) {
+            ctx.write(outboundBuffer, ctx.voidPromise());
+            outboundBuffer = null;
+            written = true;
+         }
+         if (head.buffer != null) {
+            ctx.write(head.buffer, ctx.voidPromise());
+            head.buffer = null;
+            written = true;
+         }
+      }
+      if (written) {
+         ctx.flush();
+      }
+      if (pipelined.isEmpty() && deferredCommand != null) {
+         RespCommand command = deferredCommand;
+         List<byte[]> arguments = deferredArguments;
+         deferredCommand = null;
+         deferredArguments = null;
+         handleCommandAndArguments(ctx, command, arguments);
+         if (deferredCommand != null || commandPending || resumeAutoReadOnWritability) {
+            // The command is waiting, it will resume reading once done
+            return;
+         }
+         log.tracef("Re-enabling auto read for channel %s as deferred command was executed", ctx.channel());
+         resumeAutoRead(ctx);
+      }
+   }
+
+   private void deferCommand(ChannelHandlerContext ctx, RespCommand command, List<byte[]> arguments) {
+      log.tracef("Disabling auto read for channel %s until pipelined commands are complete", ctx.channel());
+      ctx.channel().config().setAutoRead(false);
+      deferredCommand = command;
+      // The decoder reuses the list of arguments
+      deferredArguments = new ArrayList<>(arguments);
+   }
+
+   /**
+    * A command executing concurrently with the previous commands of the pipeline. Its response is written to a buffer
+    * of its own, unless it was the first command, which writes to the shared buffer.
+    */
+   private static final class PipelinedCommand implements ByteBufPool {
+      private final byte[][] keys;
+      private final boolean write;
+      private final ChannelHandlerContext ctx;
+      private final ResponseWriter writer;
+      private ByteBuf buffer;
+      private boolean complete;
+      private boolean discarded;
+
+      private PipelinedCommand(byte[][] keys, boolean write, ChannelHandlerContext ctx, ResponseWriter sharedWriter) {
+         this.keys = keys;
+         this.write = write;
+         this.ctx = ctx;
+         if (sharedWriter != null) {
+            this.writer = sharedWriter;
+         } else {
+            this.writer = new ByteBufResponseWriter(this);
+         }
+      }
+
+      private boolean conflicts(byte[][] otherKeys) {
+         for (byte[] key : keys) {
+            for (byte[] otherKey : otherKeys) {
+               if (Arrays.equals(key, otherKey)) {
+                  return true;
+               }
+            }
+         }
+         return false;
+      }
+
+      private void release() {
+         if (buffer != null) {
+            buffer.release();
+            buffer = null;
+         }
+      }
+
+      @Override
+      public ByteBuf apply(int size) {
+         assert ctx.channel().eventLoop().inEventLoop() : "Buffer allocation should occur in event loop, it was " + Thread.currentThread().getName();
+         if (buffer == null) {
+            buffer = ctx.alloc().buffer(Math.max(size, 64));
+         } else {
+            buffer.ensureWritable(size);
+         }
+         return buffer;
+      }
+   }
+
    @Override
    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
       if (closing) return;
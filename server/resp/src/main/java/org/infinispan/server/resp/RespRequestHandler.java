@@ -182,10 +182,12 @@ private <E> CompletionStage<RespRequestHandler> stageToReturn(CompletionStage<E>
          return myStage;
       }
       if (biConsumer != null) {
+         // The writer is captured now, as pipelined commands may be executing concurrently with a different writer
+         ResponseWriter w = writer;
          // Note that this method is only ever invoked in the event loop, so this whenCompleteAsync can never complete
          // until this request completes, meaning the thenApply will always be invoked in the event loop as well
          return stage.thenApplyAsync(e -> {
-            biConsumer.accept(e, writer);
+            biConsumer.accept(e, w);
             return this;
          }, ctx.channel().eventLoop());
       }
@@ -34,6 +34,7 @@
 import org.infinispan.server.resp.logging.Log;
 import org.infinispan.server.resp.logging.Messages;
 import org.infinispan.server.resp.meta.MetadataRepository;
+import org.infinispan.server.resp.pubsub.PubSubRegistry;
 import org.infinispan.server.resp.scripting.LuaTaskEngine;
 import org.infinispan.tasks.manager.TaskManager;
 import org.infinispan.transaction.LockingMode;
@@ -55,6 +56,7 @@ public class RespServer extends AbstractProtocolServer<RespServerConfiguration>
    public static final MediaType RESP_KEY_MEDIA_TYPE = MediaType.APPLICATION_OCTET_STREAM;
    private Configuration defaultCacheConfiguration;
    private MetadataRepository metadataRepository;
+   private PubSubRegistry pubSubRegistry;
    private MediaType configuredValueType = MediaType.APPLICATION_OCTET_STREAM;
    private DefaultIterationManager iterationManager;
    private ExternalSourceIterationManager dataStructureIterationManager;
@@ -78,6 +80,7 @@ protected void internalPostStart() {
       iterationManager.addKeyValueFilterConverterFactory(ComposedFilterConverterFactory.class.getName(), new ComposedFilterConverterFactory());
       dataStructureIterationManager.addKeyValueFilterConverterFactory(GlobMatchFilterConverterFactory.class.getName(), new GlobMatchFilterConverterFactory(true));
       metadataRepository = new MetadataRepository();
+      pubSubRegistry = new PubSubRegistry(cacheManager, getQualifiedName());
       initializeLuaTaskEngine(gcr);
       defineCacheConfiguration();
 
@@ -158,7 +161,7 @@ private void initializeLuaTaskEngine(GlobalComponentRegistry gcr) {
       try {
          // Register the task engine with the task manager
          ScriptingManager scriptingManager = gcr.getComponent(ScriptingManager.class);
-         luaTaskEngine = new LuaTaskEngine(scriptingManager);
+         luaTaskEngine = new LuaTaskEngine(scriptingManager, cacheManager, getQualifiedName(), configuration.scriptResultCacheSize());
          TaskManager taskManager = gcr.getComponent(TaskManager.class);
          taskManager.registerTaskEngine(luaTaskEngine);
       } catch (Exception | LinkageError e) {
@@ -188,6 +191,10 @@ public ChannelMatcher getChannelMatcher() {
       return channel -> channel.pipeline().get(RespDecoder.class) != null;
    }
 
+   public boolean isScriptingEnabled() {
+      return luaTaskEngine != null;
+   }
+
    public LuaTaskEngine luaEngine() {
       if (luaTaskEngine == null)
          throw new RespCommandException(Messages.MESSAGES.scriptEngineDisabled());
@@ -245,6 +252,13 @@ public MetadataRepository metadataRepository() {
       return metadataRepository;
    }
 
+   /**
+    * Returns the subscriptions of the connections to this server
+    */
+   public PubSubRegistry pubSubRegistry() {
+      return pubSubRegistry;
+   }
+
    public Random random() {
       return random;
    }
@@ -1,39 +1,23 @@
 package org.infinispan.server.resp;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletionStage;
 
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
-import org.infinispan.commons.util.concurrent.CompletionStages;
-import org.infinispan.notifications.Listener;
-import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
-import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
-import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
 import org.infinispan.server.resp.commands.PubSubResp3Command;
-import org.infinispan.server.resp.commands.pubsub.KeyChannelUtils;
-import org.infinispan.server.resp.commands.pubsub.RespCacheListener;
-import org.infinispan.server.resp.logging.Log;
 import org.infinispan.server.resp.meta.ClientMetadata;
-import org.infinispan.server.resp.serialization.Resp3Type;
-import org.infinispan.server.resp.serialization.bytebuf.ByteBufResponseWriter;
-import org.infinispan.server.resp.serialization.bytebuf.ByteBufferUtils;
+import org.infinispan.server.resp.pubsub.PubSubRegistry;
 
-import io.netty.buffer.ByteBuf;
-import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.AttributeKey;
-import io.netty.util.CharsetUtil;
 
 public class SubscriberHandler extends CacheRespRequestHandler {
-   private static final Log log = Log.getLog(SubscriberHandler.class);
    private static final AttributeKey<Long> SUBSCRIPTIONS_COUNTER = AttributeKey.newInstance("channel-subscriptions");
    private final Resp3Handler resp3Handler;
 
@@ -42,92 +26,55 @@ public SubscriberHandler(RespServer respServer, Resp3Handler prevHandler) {
       this.resp3Handler = prevHandler;
    }
 
-   public static RespCacheListener newKeyListener(Channel channel, byte[] key) {
-      return new PubSubListener(channel, key);
-   }
-
-   public static RespCacheListener newPatternListener(Channel channel, byte[] pattern) {
-      return new PubSubListener(channel, null, pattern);
-   }
-
-   @Listener(clustered = true)
-   public static class PubSubListener implements RespCacheListener {
-      private final Channel channel;
-      private final byte[] key;
-      private final byte[] pattern;
-
-      private PubSubListener(Channel channel, byte[] key) {
-         this(channel, key, null);
-      }
-
-      private PubSubListener(Channel channel, byte[] key, byte[] pattern) {
-         this.channel = channel;
-         this.key = key;
-         this.pattern = pattern;
-      }
-
-      @CacheEntryCreated
-      @CacheEntryModified
-      public CompletionStage<Void> onEvent(CacheEntryEvent<Object, byte[]> entryEvent) {
-         byte[] key = KeyChannelUtils.channelToKey(unwrap(entryEvent.getKey()));
-         byte[] value = entryEvent.getValue();
-         if (key.length > 0 && value != null && value.length > 0) {
-            List<Object> elements;
-            int byteSize;
-
-            if (pattern != null) {
-               // *4\r\n + $8\r\npmessage\r\n + $<patlen>\r\n<pattern>\r\n + $<keylen>\r\n<key>\r\n + $<vallen>\r\n<value>\r\n
-               elements = List.of(PubSubEvents.PMESSAGE, pattern, key, value);
-               byteSize = 2 + 2 + 2 + 2 + 8 + 2
-                     + 1 + ByteBufferUtils.stringSize(pattern.length) + 2 + pattern.length + 2
-                     + 1 + ByteBufferUtils.stringSize(key.length) + 2 + key.length + 2
-                     + 1 + ByteBufferUtils.stringSize(value.length) + 2 + value.length + 2;
-            } else {
-               // *3\r\n + $7\r\nmessage\r\n + $<keylen>\r\n<key>\r\n + $<vallen>\r\n<value>\r\n
-               elements = List.of(PubSubEvents.MESSAGE, key, value);
-               byteSize = 2 + 2 + 2 + 2 + 7 + 2
-                     + 1 + ByteBufferUtils.stringSize(key.length) + 2 + key.length + 2
-                     + 1 + ByteBufferUtils.stringSize(value.length) + 2 + value.length + 2;
-            }
+   private final Set<WrappedByteArray> specificChannelSubscriptions = new HashSet<>();
+   private final Set<WrappedByteArray> patternSubscriptions = new HashSet<>();
 
-            // TODO: this is technically an issue with concurrent events before/after register/unregister message
-            ByteBuf byteBuf = channel.alloc().buffer(byteSize, byteSize);
-            ByteBufPool allocator = ignore -> byteBuf;
-            ByteBufResponseWriter w = new ByteBufResponseWriter(allocator);
-            w.array(elements, Resp3Type.BULK_STRING);
-            assert byteBuf.writerIndex() == byteSize;
-            // TODO: add some back pressure? - something like ClientListenerRegistry?
-            channel.writeAndFlush(byteBuf, channel.voidPromise());
-         }
-         return CompletableFutures.completedNull();
-      }
-
-      private byte[] unwrap(Object key) {
-         return key instanceof WrappedByteArray
-               ? ((WrappedByteArray) key).getBytes()
-               : (byte[]) key;
-      }
-
-      @Override
-      public byte[] subscribedChannel() {
-         return key;
+   /**
+    * Subscribes the connection to the channel on this node.
+    *
+    * @return {@code true} if the connection was not subscribed to the channel yet.
+    */
+   public boolean subscribe(ChannelHandlerContext ctx, byte[] channel) {
+      if (!specificChannelSubscriptions.add(new WrappedByteArray(channel))) {
+         return false;
       }
+      respServer().pubSubRegistry().subscribe(channel, ctx.channel());
+      return true;
+   }
 
-      @Override
-      public byte[] pattern() {
-         return pattern;
+   /**
+    * @return {@code true} if the connection was subscribed to the channel.
+    */
+   public boolean unsubscribe(ChannelHandlerContext ctx, byte[] channel) {
+      if (!specificChannelSubscriptions.remove(new WrappedByteArray(channel))) {
+         return false;
       }
+      respServer().pubSubRegistry().unsubscribe(channel, ctx.channel());
+      return true;
    }
 
-   private final Map<WrappedByteArray, RespCacheListener> specificChannelSubscribers = new HashMap<>();
-   private final Map<WrappedByteArray, RespCacheListener> patternSubscribers = new HashMap<>();
-
-   public Map<WrappedByteArray, RespCacheListener> specificChannelSubscribers() {
-      return specificChannelSubscribers;
+   /**
+    * Subscribes the connection to the channels matching the pattern on this node.
+    *
+    * @return {@code true} if the connection was not subscribed to the pattern yet.
+    */
+   public boolean psubscribe(ChannelHandlerContext ctx, byte[] pattern) {
+      if (!patternSubscriptions.add(new WrappedByteArray(pattern))) {
+         return false;
+      }
+      respServer().pubSubRegistry().psubscribe(pattern, ctx.channel());
+      return true;
    }
 
-   public Map<WrappedByteArray, RespCacheListener> patternSubscribers() {
-      return patternSubscribers;
+   /**
+    * @return {@code true} if the connection was subscribed to the pattern.
+    */
+   public boolean punsubscribe(ChannelHandlerContext ctx, byte[] pattern) {
+      if (!patternSubscriptions.remove(new WrappedByteArray(pattern))) {
+         return false;
+      }
+      respServer().pubSubRegistry().punsubscribe(pattern, ctx.channel());
+      return true;
    }
 
    public Resp3Handler resp3Handler() {
@@ -136,7 +83,7 @@ public Resp3Handler resp3Handler() {
 
    @Override
    public void handleChannelDisconnect(ChannelHandlerContext ctx) {
-      removeAllListeners();
+      removeAllSubscriptions(ctx);
    }
 
    @Override
@@ -148,56 +95,45 @@ protected CompletionStage<RespRequestHandler> actualHandleRequest(ChannelHandler
       return super.actualHandleRequest(ctx, command, arguments);
    }
 
-   public CompletionStage<Void> handleStageListenerError(CompletionStage<Void> stage, byte[] keyChannel, boolean subscribeOrUnsubscribe) {
-      return stage.whenComplete((__, t) -> {
-         if (t != null) {
-            if (subscribeOrUnsubscribe) {
-               log.exceptionWhileRegisteringListener(t, CharsetUtil.UTF_8.decode(ByteBuffer.wrap(keyChannel)));
-            } else {
-               log.exceptionWhileRemovingListener(t, CharsetUtil.UTF_8.decode(ByteBuffer.wrap(keyChannel)));
-            }
-         }
-      });
-   }
-
-   public void removeAllListeners() {
-      removeAllFrom(specificChannelSubscribers);
-      removeAllFrom(patternSubscribers);
-   }
-
-   private void removeAllFrom(Map<WrappedByteArray, RespCacheListener> subscribers) {
-      for (Iterator<Map.Entry<WrappedByteArray, RespCacheListener>> iterator = subscribers.entrySet().iterator(); iterator.hasNext(); ) {
-         Map.Entry<WrappedByteArray, RespCacheListener> entry = iterator.next();
-         cache().removeListenerAsync(entry.getValue());
-         iterator.remove();
+   public void removeAllSubscriptions(ChannelHandlerContext ctx) {
+      PubSubRegistry registry = respServer().pubSubRegistry();
+      for (WrappedByteArray channel : specificChannelSubscriptions) {
+         registry.unsubscribe(channel.getBytes(), ctx.channel());
       }
+      specificChannelSubscriptions.clear();
+      for (WrappedByteArray pattern : patternSubscriptions) {
+         registry.punsubscribe(pattern.getBytes(), ctx.channel());
+      }
+      patternSubscriptions.clear();
    }
 
    public CompletionStage<RespRequestHandler> unsubscribeAll(ChannelHandlerContext ctx) {
-      return unsubscribeAllFrom(ctx, specificChannelSubscribers, false);
+      List<byte[]> channels = new ArrayList<>(specificChannelSubscriptions.size());
+      for (WrappedByteArray channel : specificChannelSubscriptions) {
+         channels.add(channel.getBytes());
+      }
+      return unsubscribe(ctx, channels, false);
    }
 
    public CompletionStage<RespRequestHandler> punsubscribeAll(ChannelHandlerContext ctx) {
-      return unsubscribeAllFrom(ctx, patternSubscribers, true);
+      List<byte[]> patterns = new ArrayList<>(patternSubscriptions.size());
+      for (WrappedByteArray pattern : patternSubscriptions) {
+         patterns.add(pattern.getBytes());
+      }
+      return unsubscribe(ctx, patterns, true);
    }
 
-   private CompletionStage<RespRequestHandler> unsubscribeAllFrom(ChannelHandlerContext ctx,
-                                                                   Map<WrappedByteArray, RespCacheListener> subscribers,
-                                                                   boolean isPattern) {
+   /**
+    * Unsubscribes the connection from the channels or patterns, and replies with an event for each of them.
+    */
+   public CompletionStage<RespRequestHandler> unsubscribe(ChannelHandlerContext ctx, List<byte[]> channels, boolean isPattern) {
       ClientMetadata metadata = respServer().metadataRepository().client();
-      var aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
-      List<byte[]> channels = new ArrayList<>(subscribers.size());
-      for (Iterator<Map.Entry<WrappedByteArray, RespCacheListener>> iterator = subscribers.entrySet().iterator(); iterator.hasNext(); ) {
-         Map.Entry<WrappedByteArray, RespCacheListener> entry = iterator.next();
-         RespCacheListener listener = entry.getValue();
-         CompletionStage<Void> stage = cache().removeListenerAsync(listener);
-         byte[] keyChannel = entry.getKey().getBytes();
-         channels.add(keyChannel);
-         aggregateCompletionStage.dependsOn(handleStageListenerError(stage, keyChannel, false));
-         iterator.remove();
-         metadata.decrementPubSubClients();
+      for (byte[] channel : channels) {
+         if (isPattern ? punsubscribe(ctx, channel) : unsubscribe(ctx, channel)) {
+            metadata.decrementPubSubClients();
+         }
       }
-      return sendSubscriptions(ctx, aggregateCompletionStage.freeze(), channels, false, isPattern);
+      return sendSubscriptions(ctx, CompletableFutures.completedNull(), channels, false, isPattern);
    }
 
    public CompletionStage<RespRequestHandler> sendSubscriptions(ChannelHandlerContext ctx, CompletionStage<Void> stageToWaitFor,
@@ -249,9 +185,7 @@ public CompletionStage<RespRequestHandler> sendSubscriptions(ChannelHandlerConte
    static final class PubSubEvents {
       static final byte[] SUBSCRIBE = "subscribe".getBytes(StandardCharsets.US_ASCII);
       static final byte[] UNSUBSCRIBE = "unsubscribe".getBytes(StandardCharsets.US_ASCII);
-      static final byte[] MESSAGE = "message".getBytes(StandardCharsets.US_ASCII);
       static final byte[] PSUBSCRIBE = "psubscribe".getBytes(StandardCharsets.US_ASCII);
       static final byte[] PUNSUBSCRIBE = "punsubscribe".getBytes(StandardCharsets.US_ASCII);
-      static final byte[] PMESSAGE = "pmessage".getBytes(StandardCharsets.US_ASCII);
    }
 }
@@ -74,6 +74,7 @@
 import org.infinispan.server.resp.commands.generic.TOUCH;
 import org.infinispan.server.resp.commands.generic.TTL;
 import org.infinispan.server.resp.commands.generic.TYPE;
+import org.infinispan.server.resp.commands.generic.UNLINK;
 import org.infinispan.server.resp.commands.geo.GEOADD;
 import org.infinispan.server.resp.commands.geo.GEODIST;
 import org.infinispan.server.resp.commands.geo.GEOHASH;
@@ -285,7 +286,7 @@ public final class Commands {
             new SDIFFSTORE(), new SUBSCRIBE(), new SELECT(), new STRALGO(), new SCAN(), new SSCAN(), new SETRANGE(),
             new SORT(), new SORT_RO(), new SUBSTR(), new SCRIPT(), new SETBIT()};
       ALL_COMMANDS[19] = new RespCommand[]{new TTL(), new TYPE(), new TOUCH(), new TIME(), new TOPKRESERVE(), new TOPKADD(), new TOPKINCRBY(), new TOPKQUERY(), new TOPKLIST(), new TOPKINFO(), new TOPKCOUNT()};
-      ALL_COMMANDS[20] = new RespCommand[]{new UNSUBSCRIBE(), new UNWATCH()};
+      ALL_COMMANDS[20] = new RespCommand[]{new UNSUBSCRIBE(), new UNWATCH(), new UNLINK()};
       ALL_COMMANDS[22] = new RespCommand[]{new WATCH()};
       ALL_COMMANDS[25] = new RespCommand[]{new ZADD(), new ZCARD(), new ZCOUNT(), new ZLEXCOUNT(), new ZDIFF(),
             new ZDIFFSTORE(), new ZINCRBY(), new ZINTER(), new ZINTERCARD(), new ZINTERSTORE(), new ZMPOP(),
@@ -137,7 +137,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          sb.append("used_memory_vm_eval:0\r\n");
          sb.append("used_memory_lua_human:0K\r\n");
          sb.append("used_memory_scripts_eval:0\r\n");
-         sb.append("number_of_cached_scripts:0\r\n");
+         sb.append("number_of_cached_scripts:");
+         sb.append(handler.respServer().isScriptingEnabled() ? handler.respServer().luaEngine().numberOfCachedScripts() : 0);
+         sb.append(CRLF_STRING);
          sb.append("number_of_functions:0\r\n");
          sb.append("number_of_libraries:0\r\n");
          sb.append("used_memory_vm_functions:0\r\n");
@@ -307,6 +309,13 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          sb.append("errorstat_WRONGTYPE:count=0\r\n");
          sb.append(CRLF_STRING);
       }
+      if (sections.contains(Section.SCRIPTSTATS)) {
+         sb.append("# Scriptstats\r\n");
+         if (handler.respServer().isScriptingEnabled()) {
+            handler.respServer().luaEngine().appendScriptStats(sb);
+         }
+         sb.append(CRLF_STRING);
+      }
       if (sections.contains(Section.CLUSTER)) {
          sb.append("# Cluster\r\n");
          if (handler.cache().getCacheConfiguration().clustering().cacheMode().isDistributed()) {
@@ -339,6 +348,7 @@ enum Section {
       MODULES,
       KEYSPACE,
       ERRORSTATS,
+      SCRIPTSTATS,
       ALL {
          @Override
          EnumSet<Section> implies() {
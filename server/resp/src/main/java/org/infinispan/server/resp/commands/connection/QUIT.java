@@ -38,7 +38,7 @@ public CompletionStage<RespRequestHandler> perform(Resp3AuthHandler handler,
    @Override
    public CompletionStage<RespRequestHandler> perform(SubscriberHandler handler, ChannelHandlerContext ctx,
                                                                 List<byte[]> arguments) {
-      handler.removeAllListeners();
+      handler.removeAllSubscriptions(ctx);
       return handler.resp3Handler().handleRequest(ctx, this, arguments);
    }
 
@@ -40,7 +40,7 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
    @Override
    public CompletionStage<RespRequestHandler> perform(SubscriberHandler handler, ChannelHandlerContext ctx,
                                                       List<byte[]> arguments) {
-      handler.removeAllListeners();
+      handler.removeAllSubscriptions(ctx);
       return handler.resp3Handler().handleRequest(ctx, this, arguments);
    }
 }
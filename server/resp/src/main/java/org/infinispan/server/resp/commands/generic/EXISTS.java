@@ -2,15 +2,14 @@
 
 import java.util.List;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.atomic.AtomicLong;
 
-import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
-import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.server.resp.AclCategory;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.operation.MultiKeyOperation;
 import org.infinispan.server.resp.serialization.ResponseWriter;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -26,20 +25,20 @@ public EXISTS() {
       super(-2, 1, -1, 1, AclCategory.KEYSPACE.mask() | AclCategory.READ.mask() | AclCategory.FAST.mask());
    }
 
+   @Override
+   public boolean isConcurrentInPipeline() {
+      return true;
+   }
+
    @Override
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          ChannelHandlerContext ctx,
          List<byte[]> arguments) {
-      AtomicLong presentCount = new AtomicLong(arguments.size());
-      AggregateCompletionStage<AtomicLong> acs = CompletionStages.aggregateCompletionStage(presentCount);
-      for (byte[] bs : arguments) {
-         acs.dependsOn(handler.cache().touch(bs, false).thenApply((v) -> {
-            if (!v) {
-               presentCount.decrementAndGet();
-            }
-            return null;
-         }));
-      }
-      return handler.stageToReturn(acs.freeze(), ctx, ResponseWriter.INTEGER);
+      // The values are not converted, so the keys of any type are found
+      MediaType vmt = handler.cache().getValueDataConversion().getStorageMediaType();
+      CompletionStage<Long> exists = MultiKeyOperation.countExisting(
+            handler.cache().withMediaType(MediaType.APPLICATION_OCTET_STREAM, vmt), arguments,
+            handler.getBlockingManager());
+      return handler.stageToReturn(exists, ctx, ResponseWriter.INTEGER);
    }
 }
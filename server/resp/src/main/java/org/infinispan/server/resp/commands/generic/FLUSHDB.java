@@ -35,9 +35,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       if (arguments.size() == 1) {
          byte[] mode = arguments.get(0);
          if (RespUtil.isAsciiBytesEquals(SYNC_BYTES, mode)) {
-            return handler.stageToReturn(handler.cache().clearAsync(), ctx, ResponseWriter.OK);
+            return handler.stageToReturn(clear(handler), ctx, ResponseWriter.OK);
          } else if (RespUtil.isAsciiBytesEquals(ASYNC_BYTES, mode)) {
-            handler.cache().clearAsync();
+            clear(handler);
             handler.writer().ok();
             return handler.myStage();
          } else {
@@ -45,6 +45,16 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
             return handler.myStage();
          }
       }
-      return handler.stageToReturn(handler.cache().clearAsync(), ctx, ResponseWriter.OK);
+      return handler.stageToReturn(clear(handler), ctx, ResponseWriter.OK);
+   }
+
+   private static CompletionStage<Void> clear(Resp3Handler handler) {
+      CompletionStage<Void> clear = handler.cache().clearAsync();
+      if (!handler.respServer().isScriptingEnabled()) {
+         return clear;
+      }
+      // The clear does not notify the listeners invalidating the memoized script results
+      String cacheName = handler.cache().getName();
+      return clear.thenCompose(ignore -> handler.respServer().luaEngine().cacheCleared(cacheName));
    }
 }
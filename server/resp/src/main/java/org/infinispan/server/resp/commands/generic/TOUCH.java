@@ -2,14 +2,16 @@
 
 import java.util.List;
 import java.util.concurrent.CompletionStage;
-import java.util.stream.Collectors;
 
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.server.resp.AclCategory;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.operation.MultiKeyOperation;
 import org.infinispan.server.resp.serialization.ResponseWriter;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -29,11 +31,18 @@ public TOUCH() {
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
                                                       ChannelHandlerContext ctx,
                                                       List<byte[]> arguments) {
+      // The touches refresh the last access time used by max-idle on all the owners, but they only find the entries in
+      // memory, so the reply counts the existing keys instead
+      AggregateCompletionStage<Void> touches = CompletionStages.aggregateCompletionStage();
+      for (byte[] key : arguments) {
+         touches.dependsOn(handler.cache().touch(key, false));
+      }
+      MediaType vmt = handler.cache().getValueDataConversion().getStorageMediaType();
+      CompletionStage<Long> existing = MultiKeyOperation.countExisting(
+            handler.cache().withMediaType(MediaType.APPLICATION_OCTET_STREAM, vmt), arguments,
+            handler.getBlockingManager());
 
-      CompletionStage<Long> totalTouchCount = CompletionStages.performSequentially(arguments.iterator(),
-            k -> handler.cache().touch(k, false),
-            Collectors.summingLong(touched -> touched ? 1 : 0));
-
-      return handler.stageToReturn(totalTouchCount, ctx, ResponseWriter.INTEGER);
+      return handler.stageToReturn(touches.freeze().thenCombine(existing, (ignore, count) -> count), ctx,
+            ResponseWriter.INTEGER);
    }
 }
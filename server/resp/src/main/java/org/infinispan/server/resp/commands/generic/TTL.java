@@ -36,6 +36,11 @@ protected TTL(ExpirationOption ... options) {
       this.options = EnumSet.copyOf(Arrays.asList(options));
    }
 
+   @Override
+   public boolean isConcurrentInPipeline() {
+      return true;
+   }
+
    @Override
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
                                                       ChannelHandlerContext ctx,
@@ -0,0 +1,19 @@
+package org.infinispan.server.resp.commands.generic;
+
+import org.infinispan.server.resp.AclCategory;
+import org.infinispan.server.resp.commands.string.DEL;
+
+/**
+ * UNLINK
+ * <p>
+ * The keys are removed as with {@link DEL}, as removing an entry does not block the server.
+ *
+ * @see <a href="https://redis.io/commands/unlink/">UNLINK</a>
+ * @since 16.2
+ */
+public class UNLINK extends DEL {
+
+   public UNLINK() {
+      super(AclCategory.KEYSPACE.mask() | AclCategory.WRITE.mask() | AclCategory.FAST.mask());
+   }
+}
@@ -26,6 +26,11 @@ public HGET() {
       super(3, 1, 1, 1, AclCategory.READ.mask() | AclCategory.HASH.mask() | AclCategory.FAST.mask());
    }
 
+   @Override
+   public boolean isConcurrentInPipeline() {
+      return true;
+   }
+
    @Override
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, ChannelHandlerContext ctx,
                                                       List<byte[]> arguments) {
@@ -17,6 +17,11 @@
  */
 public class HSET extends HMSET {
 
+   @Override
+   public boolean isConcurrentInPipeline() {
+      return true;
+   }
+
    @Override
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, ChannelHandlerContext ctx, List<byte[]> arguments) {
       // Arguments are the hash map key and N key-value pairs.
@@ -1,11 +1,8 @@
 package org.infinispan.server.resp.commands.pubsub;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.CompletionStage;
 
-import org.infinispan.notifications.cachelistener.CacheNotifier;
-import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.resp.AclCategory;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
@@ -29,14 +26,7 @@ class NUMPAT extends RespCommand implements Resp3Command {
 
    @Override
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, ChannelHandlerContext ctx, List<byte[]> arguments) {
-      CacheNotifier<?, ?> cn = SecurityActions.getCacheComponentRegistry(handler.cache()).getCacheNotifier().running();
-      long patterns = cn.getListeners().stream()
-            .filter(l -> l instanceof RespCacheListener)
-            .map(l -> (RespCacheListener) l)
-            .map(RespCacheListener::pattern)
-            .filter(Objects::nonNull)
-            .filter(PUBSUB.deduplicate())
-            .count();
+      long patterns = handler.respServer().pubSubRegistry().numberOfPatterns();
       handler.writer().integers(patterns);
       return handler.myStage();
    }
@@ -1,10 +1,5 @@
 package org.infinispan.server.resp.commands.pubsub;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.function.Predicate;
-
 import org.infinispan.server.resp.AclCategory;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.commands.FamilyCommand;
@@ -34,16 +29,4 @@ public PUBSUB() {
    public RespCommand[] getFamilyCommands() {
       return PUBSUB_COMMANDS;
    }
-
-   static Predicate<byte[]> deduplicate() {
-      List<byte[]> channels = new ArrayList<>(4);
-      return channel -> {
-         for (byte[] bytes : channels) {
-            if (Arrays.equals(channel, bytes))
-               return false;
-         }
-         channels.add(channel);
-         return true;
-      };
-   }
 }
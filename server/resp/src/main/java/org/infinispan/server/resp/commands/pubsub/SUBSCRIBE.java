@@ -4,10 +4,7 @@
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 
-import org.infinispan.commons.marshall.WrappedByteArray;
-import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
-import org.infinispan.commons.util.concurrent.CompletionStages;
-import org.infinispan.encoding.DataConversion;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.server.resp.AclCategory;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
@@ -15,8 +12,6 @@
 import org.infinispan.server.resp.SubscriberHandler;
 import org.infinispan.server.resp.commands.PubSubResp3Command;
 import org.infinispan.server.resp.commands.Resp3Command;
-import org.infinispan.server.resp.filter.EventListenerConverter;
-import org.infinispan.server.resp.filter.EventListenerKeysFilter;
 import org.infinispan.server.resp.logging.Log;
 import org.infinispan.server.resp.meta.ClientMetadata;
 
@@ -49,22 +44,14 @@ public CompletionStage<RespRequestHandler> perform(SubscriberHandler handler,
                                                       ChannelHandlerContext ctx,
                                                       List<byte[]> arguments) {
       ClientMetadata metadata = handler.respServer().metadataRepository().client();
-      AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
       for (byte[] keyChannel : arguments) {
          if (log.isTraceEnabled()) {
             log.tracef("Subscriber for channel: " + CharsetUtil.UTF_8.decode(ByteBuffer.wrap(keyChannel)));
          }
-         WrappedByteArray wrappedByteArray = new WrappedByteArray(keyChannel);
-         if (handler.specificChannelSubscribers().get(wrappedByteArray) == null) {
-            RespCacheListener pubSubListener = SubscriberHandler.newKeyListener(ctx.channel(), keyChannel);
-            handler.specificChannelSubscribers().put(wrappedByteArray, pubSubListener);
-            byte[] channel = KeyChannelUtils.keyToChannel(keyChannel);
-            DataConversion dc = handler.cache().getValueDataConversion();
-            CompletionStage<Void> stage = handler.cache().addListenerAsync(pubSubListener, new EventListenerKeysFilter(channel), new EventListenerConverter<Object,Object,byte[]>(dc));
-            aggregateCompletionStage.dependsOn(handler.handleStageListenerError(stage, keyChannel, true));
+         if (handler.subscribe(ctx, keyChannel)) {
             metadata.incrementPubSubClients();
          }
       }
-      return handler.sendSubscriptions(ctx, aggregateCompletionStage.freeze(), arguments, true);
+      return handler.sendSubscriptions(ctx, CompletableFutures.completedNull(), arguments, true);
    }
 }
@@ -1,19 +1,14 @@
 package org.infinispan.server.resp.commands.string;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
-import org.infinispan.commons.util.concurrent.CompletableFutures;
-import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.server.resp.AclCategory;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
-import org.infinispan.server.resp.RespUtil;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.operation.MultiKeyOperation;
 import org.infinispan.server.resp.serialization.ResponseWriter;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -26,12 +21,6 @@
  */
 public class MGET extends RespCommand implements Resp3Command {
 
-   private static final Function<Object, byte[]> TYPE_CHECKER = res -> {
-      if (!(res instanceof byte[]))
-         return null;
-      return (byte[]) res;
-   };
-
    public MGET() {
       super(-2, 1, -1, 1, AclCategory.READ.mask() | AclCategory.STRING.mask() | AclCategory.FAST.mask());
    }
@@ -45,25 +34,8 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          handler.writer().arrayEmpty();
          return handler.myStage();
       }
-      CompletionStage<List<byte[]>> results = CompletionStages.performSequentially(arguments.iterator(), k -> getAsync(handler, k)
-            .exceptionally(MGET::handleWrongTypeError), Collectors.toList());
+      // The keys holding a value that is not a string are returned as null
+      CompletionStage<List<byte[]>> results = MultiKeyOperation.getAll(handler.cache(), arguments);
       return handler.stageToReturn(results, ctx, ResponseWriter.ARRAY_BULK_STRING);
    }
-
-   private static CompletionStage<byte[]> getAsync(Resp3Handler handler, byte[] key) {
-      CompletableFuture<?> async;
-      try {
-         async = handler.cache().getAsync(key);
-      } catch (Exception ex) {
-         async = CompletableFuture.completedFuture(handleWrongTypeError(ex));
-      }
-      return async.thenApply(TYPE_CHECKER);
-   }
-
-   private static byte[] handleWrongTypeError(Throwable ex) {
-      if (RespUtil.isWrongTypeError(ex)) {
-         return null;
-      }
-      throw CompletableFutures.asCompletionException(ex);
-   }
 }
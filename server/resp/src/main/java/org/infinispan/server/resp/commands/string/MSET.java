@@ -1,17 +1,15 @@
 package org.infinispan.server.resp.commands.string;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 
-import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
-import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.server.core.logging.Log;
 import org.infinispan.server.resp.AclCategory;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.operation.MultiKeyOperation;
 import org.infinispan.server.resp.serialization.ResponseWriter;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -39,22 +37,8 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          handler.writer().customError("Missing a value for a key");
          return handler.myStage();
       }
-      AggregateCompletionStage<Void> setStage = CompletionStages.aggregateCompletionStage();
-      for (int i = 0; i < keyValuePairCount; i += 2) {
-         byte[] keyBytes = arguments.get(i);
-         // Skip if this key appears again later — last value wins
-         boolean laterDuplicate = false;
-         for (int j = i + 2; j < keyValuePairCount; j += 2) {
-            if (Arrays.equals(keyBytes, arguments.get(j))) {
-               laterDuplicate = true;
-               break;
-            }
-         }
-         if (laterDuplicate) continue;
-
-         byte[] valueBytes = arguments.get(i + 1);
-         setStage.dependsOn(handler.cache().putAsync(keyBytes, valueBytes));
-      }
-      return handler.stageToReturn(setStage.freeze(), ctx, ResponseWriter.OK);
+      // The last value of a key repeated wins
+      CompletionStage<Void> setStage = MultiKeyOperation.putAll(handler.cache(), arguments);
+      return handler.stageToReturn(setStage, ctx, ResponseWriter.OK);
    }
 }
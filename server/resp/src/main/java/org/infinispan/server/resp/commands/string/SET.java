@@ -30,6 +30,11 @@ protected SET(int arity, int firstKeyPos, int lastKeyPos, int steps, long aclMas
       super(arity, firstKeyPos, lastKeyPos, steps, aclMask);
    }
 
+   @Override
+   public boolean isConcurrentInPipeline() {
+      return true;
+   }
+
    @Override
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
                                                       ChannelHandlerContext ctx,
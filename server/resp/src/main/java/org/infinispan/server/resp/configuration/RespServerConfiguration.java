@@ -2,6 +2,7 @@
 
 import org.infinispan.commons.configuration.BuiltBy;
 import org.infinispan.commons.configuration.ConfigurationFor;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.server.core.configuration.EncryptionConfiguration;
 import org.infinispan.server.core.configuration.IpFilterConfiguration;
@@ -23,8 +24,11 @@ public class RespServerConfiguration extends ProtocolServerConfiguration<RespSer
    public static final String DEFAULT_RESP_CACHE = "respCache";
    public static final String DEFAULT_RESP_CACHE_ALIAS = "0";
 
+   public static final AttributeDefinition<Integer> PIPELINE_CONCURRENCY = AttributeDefinition.builder("pipeline-concurrency", 1).immutable().build();
+   public static final AttributeDefinition<Integer> SCRIPT_RESULT_CACHE_SIZE = AttributeDefinition.builder("script-result-cache-size", 0).immutable().build();
+
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(RespServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet());
+      return new AttributeSet(RespServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet(), PIPELINE_CONCURRENCY, SCRIPT_RESULT_CACHE_SIZE);
    }
 
    private final RespAuthenticationConfiguration authentication;
@@ -45,4 +49,18 @@ public RespAuthenticationConfiguration authentication() {
    public EncryptionConfiguration encryption() {
       return encryption;
    }
+
+   /**
+    * @return the maximum number of commands of a pipeline being executed concurrently on a connection.
+    */
+   public int pipelineConcurrency() {
+      return attributes.attribute(PIPELINE_CONCURRENCY).get();
+   }
+
+   /**
+    * @return the maximum number of memoized results of read-only Lua scripts, 0 if the results are not memoized.
+    */
+   public int scriptResultCacheSize() {
+      return attributes.attribute(SCRIPT_RESULT_CACHE_SIZE).get();
+   }
 }
@@ -1,11 +1,15 @@
 package org.infinispan.server.resp.configuration;
 
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.PIPELINE_CONCURRENCY;
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.SCRIPT_RESULT_CACHE_SIZE;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.server.core.admin.AdminOperationsHandler;
 import org.infinispan.server.core.configuration.EncryptionConfigurationBuilder;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.resp.logging.Log;
 
 /**
  * RespServerConfigurationBuilder.
@@ -58,6 +62,41 @@ public EncryptionConfigurationBuilder encryption() {
       return encryption;
    }
 
+   /**
+    * Sets the maximum number of commands of a pipeline executed concurrently on a connection. The replies are still
+    * written in the order of the requests, and the commands that depend on the previous ones, such as transactions,
+    * blocking commands or writes to a key being accessed, wait for the previous commands to complete. Defaults to 1,
+    * executing the commands one at a time.
+    */
+   public RespServerConfigurationBuilder pipelineConcurrency(int pipelineConcurrency) {
+      attributes.attribute(PIPELINE_CONCURRENCY).set(pipelineConcurrency);
+      return this;
+   }
+
+   /**
+    * Sets the maximum number of results of read-only Lua scripts memoized by the server. A script run with
+    * {@code EVAL_RO} or {@code EVALSHA_RO}, or declaring the {@code no-writes} flag, returns the memoized reply of a
+    * previous run with the same keys and arguments until one of the keys it read is written. Defaults to 0, which
+    * disables the memoization.
+    */
+   public RespServerConfigurationBuilder scriptResultCacheSize(int scriptResultCacheSize) {
+      attributes.attribute(SCRIPT_RESULT_CACHE_SIZE).set(scriptResultCacheSize);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      int pipelineConcurrency = attributes.attribute(PIPELINE_CONCURRENCY).get();
+      if (pipelineConcurrency < 1) {
+         throw Log.CONFIG.invalidPipelineConcurrency(pipelineConcurrency);
+      }
+      int scriptResultCacheSize = attributes.attribute(SCRIPT_RESULT_CACHE_SIZE).get();
+      if (scriptResultCacheSize < 0) {
+         throw Log.CONFIG.invalidScriptResultCacheSize(scriptResultCacheSize);
+      }
+   }
+
    @Override
    public RespServerConfiguration create() {
       return new RespServerConfiguration(attributes.protect(), ipFilter.create(), ssl.create(), authentication.create(), encryption.create());
@@ -81,4 +81,15 @@ static Log getLog(Class<?> clazz) {
    @LogMessage(level = WARN)
    @Message(value = "Failed to load script engine. Script features disabled for RESP", id = 13012)
    void failedToLoadScriptEngine();
+
+   @Message(value = "The pipeline concurrency must be greater than zero, it was %d", id = 13013)
+   CacheConfigurationException invalidPipelineConcurrency(int pipelineConcurrency);
+
+   @Message(value = "The script result cache size cannot be negative, it was %d", id = 13014)
+   CacheConfigurationException invalidScriptResultCacheSize(int scriptResultCacheSize);
+
+   @Once
+   @LogMessage(level = WARN)
+   @Message(value = "Some nodes of the cluster are older than %s, the published messages are also written in cache '%s' for their subscribers. The messages published on those nodes are not delivered to the subscribers of the upgraded nodes until all the nodes are upgraded", id = 13015)
+   void publishingToOlderNodes(String version, String cacheName);
 }
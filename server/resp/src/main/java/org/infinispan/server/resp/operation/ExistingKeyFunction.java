@@ -0,0 +1,32 @@
+package org.infinispan.server.resp.operation;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.functional.EntryView;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.util.function.SerializableFunction;
+
+/**
+ * Returns the key of the entry if it exists, or {@code null} otherwise, so the existence of the keys is checked by
+ * their owners without transferring the values.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.RESP_EXISTING_KEY_FUNCTION)
+public final class ExistingKeyFunction<K, V> implements SerializableFunction<EntryView.ReadEntryView<K, V>, K> {
+
+   private static final ExistingKeyFunction<?, ?> INSTANCE = new ExistingKeyFunction<>();
+
+   @SuppressWarnings("unchecked")
+   @ProtoFactory
+   public static <K, V> ExistingKeyFunction<K, V> getInstance() {
+      return (ExistingKeyFunction<K, V>) INSTANCE;
+   }
+
+   private ExistingKeyFunction() { }
+
+   @Override
+   public K apply(EntryView.ReadEntryView<K, V> view) {
+      return view.find().isPresent() ? view.key() : null;
+   }
+}
@@ -0,0 +1,201 @@
+package org.infinispan.server.resp.operation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.distribution.DistributionInfo;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.functional.FunctionalMap;
+import org.infinispan.marshall.core.MarshallableFunctions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.server.resp.RespUtil;
+import org.infinispan.util.concurrent.BlockingManager;
+
+/**
+ * The operations of the commands accessing multiple keys, like MGET and MSET.
+ * <p>
+ * The keys are grouped by primary owner and a single {@code getAll} or {@code putAll} is issued for each owner, all of
+ * them in parallel, instead of one operation for each key.
+ *
+ * @since 16.2
+ */
+public final class MultiKeyOperation {
+
+   private MultiKeyOperation() { }
+
+   /**
+    * Retrieves the string values of the keys, in the order of the keys. The keys that do not exist or that hold a value
+    * that is not a string have a {@code null} value.
+    */
+   public static CompletionStage<List<byte[]>> getAll(AdvancedCache<byte[], byte[]> cache, List<byte[]> keys) {
+      Map<WrappedByteArray, byte[]> values = new ConcurrentHashMap<>();
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      for (List<byte[]> ownerKeys : groupByOwner(cache, distinct(keys).keySet(), true)) {
+         stage.dependsOn(getAll(cache, ownerKeys, values));
+      }
+      return stage.freeze().thenApply(ignore -> {
+         List<byte[]> result = new ArrayList<>(keys.size());
+         for (byte[] key : keys) {
+            result.add(values.get(new WrappedByteArray(key)));
+         }
+         return result;
+      });
+   }
+
+   private static CompletionStage<Void> getAll(AdvancedCache<byte[], byte[]> cache, List<byte[]> keys,
+                                               Map<WrappedByteArray, byte[]> values) {
+      CompletableFuture<Map<byte[], byte[]>> getAll;
+      try {
+         getAll = cache.getAllAsync(new HashSet<>(keys));
+      } catch (Exception e) {
+         getAll = CompletableFuture.failedFuture(e);
+      }
+      return getAll.<CompletionStage<Void>>handle((entries, t) -> {
+         if (t == null) {
+            for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+               addValue(values, entry.getKey(), entry.getValue());
+            }
+            return CompletableFutures.<Void>completedNull();
+         }
+         if (!RespUtil.isWrongTypeError(t)) {
+            throw CompletableFutures.asCompletionException(t);
+         }
+         // A key holds a value of another type, retrieve them one by one to only ignore that key
+         AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+         for (byte[] key : keys) {
+            CompletableFuture<byte[]> get;
+            try {
+               get = cache.getAsync(key);
+            } catch (Exception e) {
+               get = CompletableFuture.failedFuture(e);
+            }
+            stage.dependsOn(get.handle((value, t2) -> {
+               if (t2 == null) {
+                  addValue(values, key, value);
+               } else if (!RespUtil.isWrongTypeError(t2)) {
+                  throw CompletableFutures.asCompletionException(t2);
+               }
+               return null;
+            }));
+         }
+         return stage.freeze();
+      }).thenCompose(Function.identity());
+   }
+
+   private static void addValue(Map<WrappedByteArray, byte[]> values, byte[] key, Object value) {
+      // Only the strings are returned
+      if (value instanceof byte[] bytes) {
+         values.put(new WrappedByteArray(key), bytes);
+      }
+   }
+
+   /**
+    * Stores the values of the keys. The arguments alternate keys and values, and the last value of a key repeated
+    * wins.
+    */
+   public static CompletionStage<Void> putAll(AdvancedCache<byte[], byte[]> cache, List<byte[]> keysAndValues) {
+      Map<WrappedByteArray, byte[]> entries = new LinkedHashMap<>();
+      for (int i = 0; i < keysAndValues.size(); i += 2) {
+         entries.put(new WrappedByteArray(keysAndValues.get(i)), keysAndValues.get(i + 1));
+      }
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      for (List<byte[]> ownerKeys : groupByOwner(cache, entries.keySet(), false)) {
+         Map<byte[], byte[]> ownerEntries = new HashMap<>();
+         for (byte[] key : ownerKeys) {
+            ownerEntries.put(key, entries.get(new WrappedByteArray(key)));
+         }
+         stage.dependsOn(cache.putAllAsync(ownerEntries));
+      }
+      return stage.freeze();
+   }
+
+   /**
+    * Counts the keys that exist, whatever the type of their value. A key repeated is counted multiple times.
+    * <p>
+    * The keys are checked with a single functional read, which is split in one command per owner like a
+    * {@code getAll}, but the owners only return the keys that exist, not their values. The functional read blocks the
+    * invoking thread until the owners responded, so it is executed by the blocking manager.
+    */
+   public static <V> CompletionStage<Long> countExisting(AdvancedCache<byte[], V> cache, List<byte[]> keys,
+                                                         BlockingManager blockingManager) {
+      Map<WrappedByteArray, Integer> occurrences = distinct(keys);
+      Set<byte[]> distinctKeys = toBytes(occurrences.keySet());
+      FunctionalMap.ReadOnlyMap<byte[], V> readOnlyMap = FunctionalMap.create(cache).toReadOnlyMap();
+      return blockingManager.supplyBlocking(() ->
+            readOnlyMap.evalMany(distinctKeys, ExistingKeyFunction.<byte[], V>getInstance())
+                  .reduce(0L, (count, key) -> key == null ? count : count + occurrences.get(new WrappedByteArray(key)),
+                        Long::sum), "resp-count-existing");
+   }
+
+   /**
+    * Removes the keys, whatever the type of their value, and counts the keys that existed. A key repeated is only
+    * counted once.
+    * <p>
+    * The keys are removed with a single functional write, which is split in one command per primary owner, and the
+    * owners only return whether each key existed. Like in {@link #countExisting}, the functional write blocks the
+    * invoking thread until the owners responded, so it is executed by the blocking manager.
+    */
+   public static <V> CompletionStage<Long> removeAll(AdvancedCache<byte[], V> cache, List<byte[]> keys,
+                                                     BlockingManager blockingManager) {
+      Set<byte[]> distinctKeys = toBytes(distinct(keys).keySet());
+      FunctionalMap.ReadWriteMap<byte[], V> readWriteMap = FunctionalMap.create(cache).toReadWriteMap();
+      return blockingManager.supplyBlocking(() ->
+            readWriteMap.evalMany(distinctKeys, MarshallableFunctions.<byte[], V>removeReturnBoolean())
+                  .reduce(0L, (count, existed) -> existed ? count + 1 : count, Long::sum), "resp-remove-all");
+   }
+
+   private static Set<byte[]> toBytes(Set<WrappedByteArray> keys) {
+      Set<byte[]> bytes = new HashSet<>(keys.size());
+      for (WrappedByteArray key : keys) {
+         bytes.add(key.getBytes());
+      }
+      return bytes;
+   }
+
+   private static Map<WrappedByteArray, Integer> distinct(List<byte[]> keys) {
+      Map<WrappedByteArray, Integer> occurrences = new LinkedHashMap<>();
+      for (byte[] key : keys) {
+         occurrences.merge(new WrappedByteArray(key), 1, Integer::sum);
+      }
+      return occurrences;
+   }
+
+   /**
+    * Groups the keys by primary owner. When reading, the keys owned by this node are in the same group, whatever their
+    * primary owner.
+    */
+   private static Collection<List<byte[]>> groupByOwner(AdvancedCache<byte[], ?> cache, Set<WrappedByteArray> keys, boolean read) {
+      DistributionManager distributionManager = cache.getDistributionManager();
+      if (distributionManager == null || !cache.getCacheConfiguration().clustering().cacheMode().isDistributed()) {
+         List<byte[]> all = new ArrayList<>(keys.size());
+         for (WrappedByteArray key : keys) {
+            all.add(key.getBytes());
+         }
+         return List.of(all);
+      }
+      LocalizedCacheTopology topology = distributionManager.getCacheTopology();
+      Map<Address, List<byte[]>> keysByOwner = new HashMap<>();
+      for (WrappedByteArray key : keys) {
+         DistributionInfo distribution = topology.getDistribution(cache.getKeyDataConversion().toStorage(key.getBytes()));
+         Address owner = read && distribution.isReadOwner() ? null : distribution.primary();
+         keysByOwner.computeIfAbsent(owner, ___ -> new ArrayList<>()).add(key.getBytes());
+      }
+      return keysByOwner.values();
+   }
+}
@@ -0,0 +1,175 @@
+package org.infinispan.server.resp.pubsub;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.GlobMatcher;
+
+/**
+ * Indexes the glob patterns by their literal prefix, the bytes before the first special character.
+ * <p>
+ * Finding the patterns matching a channel walks the trie along the bytes of the channel, and only the patterns stored
+ * in the nodes visited are matched against the channel. The cost of a lookup is therefore proportional to the length
+ * of the channel and the number of patterns sharing a prefix with it, instead of the number of patterns.
+ *
+ * @param <S> the type of the subscribers.
+ * @since 16.2
+ */
+final class PatternTrie<S> {
+
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+   private final Node<S> root = new Node<>(null);
+   private int size;
+
+   /**
+    * Adds the subscriber to the pattern.
+    *
+    * @return {@code true} if the subscriber was not subscribed to the pattern yet.
+    */
+   boolean add(byte[] pattern, S subscriber) {
+      lock.writeLock().lock();
+      try {
+         Node<S> node = root;
+         for (int i = 0, length = literalPrefixLength(pattern); i < length; i++) {
+            node = node.children().computeIfAbsent(pattern[i], Node::new);
+         }
+         Set<S> subscribers = node.patterns().get(new WrappedByteArray(pattern));
+         if (subscribers == null) {
+            subscribers = ConcurrentHashMap.newKeySet();
+            node.patterns().put(new WrappedByteArray(pattern), subscribers);
+            size++;
+         }
+         return subscribers.add(subscriber);
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Removes the subscriber from the pattern, and the pattern when it has no subscriber left.
+    *
+    * @return {@code true} if the subscriber was subscribed to the pattern.
+    */
+   boolean remove(byte[] pattern, S subscriber) {
+      lock.writeLock().lock();
+      try {
+         int length = literalPrefixLength(pattern);
+         List<Node<S>> path = new ArrayList<>(length + 1);
+         Node<S> node = root;
+         path.add(node);
+         for (int i = 0; i < length && node != null; i++) {
+            node = node.children == null ? null : node.children.get(pattern[i]);
+            path.add(node);
+         }
+         if (node == null || node.patterns == null) {
+            return false;
+         }
+         WrappedByteArray key = new WrappedByteArray(pattern);
+         Set<S> subscribers = node.patterns.get(key);
+         if (subscribers == null || !subscribers.remove(subscriber)) {
+            return false;
+         }
+         if (subscribers.isEmpty()) {
+            node.patterns.remove(key);
+            size--;
+            prune(path);
+         }
+         return true;
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   private static <S> void prune(List<Node<S>> path) {
+      for (int i = path.size() - 1; i > 0; i--) {
+         Node<S> node = path.get(i);
+         if (!node.isEmpty()) {
+            return;
+         }
+         path.get(i - 1).children.remove(node.value);
+      }
+   }
+
+   /**
+    * Returns the patterns matching the channel and their subscribers. The sets of subscribers are concurrent and can be
+    * iterated while subscribers are added or removed.
+    */
+   List<Map.Entry<byte[], Set<S>>> match(byte[] channel) {
+      List<Map.Entry<byte[], Set<S>>> matches = null;
+      lock.readLock().lock();
+      try {
+         Node<S> node = root;
+         for (int i = 0; node != null; i++) {
+            if (node.patterns != null) {
+               for (Map.Entry<WrappedByteArray, Set<S>> entry : node.patterns.entrySet()) {
+                  byte[] pattern = entry.getKey().getBytes();
+                  if (GlobMatcher.match(pattern, channel)) {
+                     if (matches == null) matches = new ArrayList<>(2);
+                     matches.add(Map.entry(pattern, entry.getValue()));
+                  }
+               }
+            }
+            node = i < channel.length && node.children != null ? node.children.get(channel[i]) : null;
+         }
+      } finally {
+         lock.readLock().unlock();
+      }
+      return matches == null ? List.of() : matches;
+   }
+
+   /**
+    * @return The number of distinct patterns with at least one subscriber.
+    */
+   int size() {
+      lock.readLock().lock();
+      try {
+         return size;
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * The length of the prefix of the pattern without any character with a special meaning for {@link GlobMatcher}.
+    */
+   private static int literalPrefixLength(byte[] pattern) {
+      for (int i = 0; i < pattern.length; i++) {
+         switch (pattern[i]) {
+            case '*', '?', '[', '\\':
+               return i;
+         }
+      }
+      return pattern.length;
+   }
+
+   private static final class Node<S> {
+      private final Byte value;
+      private Map<Byte, Node<S>> children;
+      private Map<WrappedByteArray, Set<S>> patterns;
+
+      private Node(Byte value) {
+         this.value = value;
+      }
+
+      Map<Byte, Node<S>> children() {
+         if (children == null) children = new HashMap<>(4);
+         return children;
+      }
+
+      Map<WrappedByteArray, Set<S>> patterns() {
+         if (patterns == null) patterns = new HashMap<>(2);
+         return patterns;
+      }
+
+      boolean isEmpty() {
+         return (children == null || children.isEmpty()) && (patterns == null || patterns.isEmpty());
+      }
+   }
+}
@@ -0,0 +1,244 @@
+package org.infinispan.server.resp.pubsub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.GlobMatcher;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.security.actions.SecurityActions;
+import org.infinispan.server.resp.ByteBufPool;
+import org.infinispan.server.resp.logging.Log;
+import org.infinispan.server.resp.serialization.Resp3Type;
+import org.infinispan.server.resp.serialization.bytebuf.ByteBufResponseWriter;
+import org.infinispan.server.resp.serialization.bytebuf.ByteBufferUtils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+
+/**
+ * The subscriptions of the connections to this node, and the delivery of the published messages.
+ * <p>
+ * The messages are not stored in the cache. A message published on a node is sent once to each other node of the
+ * cluster with a {@link PublishTask}, and each node delivers it to its own subscribers. The channel subscriptions are
+ * found with a single lookup and the pattern subscriptions through a {@link PatternTrie}, and the message is encoded
+ * once for all the subscribers receiving it in the same form.
+ * <p>
+ * The nodes before 16.2 do not know the {@link PublishTask}: their subscribers are clustered listeners of the cache,
+ * notified when the message is written in the cache. During a rolling upgrade, the messages are also written in the
+ * cache while some members are older, so their subscribers still receive them. The messages published on the older
+ * nodes are only written in the cache, so they are not delivered to the subscribers of the upgraded nodes.
+ *
+ * @since 16.2
+ */
+public final class PubSubRegistry {
+   private static final Log log = Log.getLog(PubSubRegistry.class);
+   private static final byte[] MESSAGE = "message".getBytes(StandardCharsets.US_ASCII);
+   private static final byte[] PMESSAGE = "pmessage".getBytes(StandardCharsets.US_ASCII);
+   // The first version receiving the messages with a PublishTask
+   private static final NodeVersion PUBLISH_TASK_VERSION = NodeVersion.from((byte) 16, (byte) 2, (byte) 0);
+   // Prefix of the cache keys the older nodes listen to, means `resp|`
+   private static final byte[] LEGACY_CHANNEL_PREFIX = new byte[]{114, 101, 115, 112, 124};
+
+   private final EmbeddedCacheManager cacheManager;
+   private final String serverName;
+   private final ConcurrentMap<WrappedByteArray, Set<Channel>> channels = new ConcurrentHashMap<>();
+   private final PatternTrie<Channel> patterns = new PatternTrie<>();
+
+   public PubSubRegistry(EmbeddedCacheManager cacheManager, String serverName) {
+      this.cacheManager = cacheManager;
+      this.serverName = serverName;
+   }
+
+   /**
+    * @return {@code true} if the connection was not subscribed to the channel yet.
+    */
+   public boolean subscribe(byte[] channel, Channel subscriber) {
+      boolean[] added = new boolean[1];
+      channels.compute(new WrappedByteArray(channel), (ignore, subscribers) -> {
+         if (subscribers == null) subscribers = ConcurrentHashMap.newKeySet();
+         added[0] = subscribers.add(subscriber);
+         return subscribers;
+      });
+      return added[0];
+   }
+
+   /**
+    * @return {@code true} if the connection was subscribed to the channel.
+    */
+   public boolean unsubscribe(byte[] channel, Channel subscriber) {
+      boolean[] removed = new boolean[1];
+      channels.computeIfPresent(new WrappedByteArray(channel), (ignore, subscribers) -> {
+         removed[0] = subscribers.remove(subscriber);
+         return subscribers.isEmpty() ? null : subscribers;
+      });
+      return removed[0];
+   }
+
+   /**
+    * @return {@code true} if the connection was not subscribed to the pattern yet.
+    */
+   public boolean psubscribe(byte[] pattern, Channel subscriber) {
+      return patterns.add(pattern, subscriber);
+   }
+
+   /**
+    * @return {@code true} if the connection was subscribed to the pattern.
+    */
+   public boolean punsubscribe(byte[] pattern, Channel subscriber) {
+      return patterns.remove(pattern, subscriber);
+   }
+
+   /**
+    * Lists the channels with at least one subscriber on this node.
+    *
+    * @param glob The pattern the channels must match, or {@code null} to list all the channels.
+    */
+   public List<byte[]> channels(byte[] glob) {
+      List<byte[]> result = new ArrayList<>();
+      for (WrappedByteArray channel : channels.keySet()) {
+         if (glob == null || GlobMatcher.match(glob, channel.getBytes())) {
+            result.add(channel.getBytes());
+         }
+      }
+      return result;
+   }
+
+   /**
+    * @return The number of distinct patterns with at least one subscriber on this node.
+    */
+   public int numberOfPatterns() {
+      return patterns.size();
+   }
+
+   /**
+    * Publishes the message to the subscribers of all the nodes.
+    *
+    * @param cache The cache the older nodes listen to for the messages.
+    * @return The number of subscriptions the message was delivered to, in the whole cluster. The subscribers of the
+    * nodes before 16.2 are not counted.
+    */
+   public CompletionStage<Long> publish(byte[] channel, byte[] message, AdvancedCache<byte[], byte[]> cache) {
+      long local = deliver(channel, message);
+      List<Address> members = cacheManager.getMembers();
+      if (members == null || members.size() <= 1) {
+         return CompletableFuture.completedFuture(local);
+      }
+      Address localAddress = cacheManager.getAddress();
+      boolean olderMembers = false;
+      boolean upgradedMembers = false;
+      for (Address member : members) {
+         if (member.getVersion().lessThan(PUBLISH_TASK_VERSION)) {
+            olderMembers = true;
+         } else if (!member.equals(localAddress)) {
+            upgradedMembers = true;
+         }
+      }
+      AtomicLong delivered = new AtomicLong(local);
+      CompletionStage<Void> stage = CompletableFutures.completedNull();
+      if (upgradedMembers) {
+         stage = SecurityActions.getClusterExecutor(cacheManager)
+               .filterTargets(address -> !address.equals(localAddress) && !address.getVersion().lessThan(PUBLISH_TASK_VERSION))
+               .submitConsumer(new PublishTask(serverName, channel, message), (address, count, t) -> {
+                  if (t != null) {
+                     // Like with Redis, the delivery is best effort: the subscribers of a node that failed miss the message
+                     log.debugf(t, "Could not publish the message to node %s", address);
+                  } else {
+                     delivered.addAndGet(count);
+                  }
+               });
+      }
+      if (olderMembers) {
+         log.publishingToOlderNodes(PUBLISH_TASK_VERSION.toString(), cache.getName());
+         // Like before 16.2, the expiration removes the messages eventually
+         CompletionStage<Void> written = cache.putAsync(legacyKey(channel), message, 3, TimeUnit.SECONDS)
+               .handle((ignore, t) -> {
+                  if (t != null) {
+                     log.debugf(t, "Could not write the message for the nodes before %s", PUBLISH_TASK_VERSION);
+                  }
+                  return null;
+               });
+         stage = CompletionStages.allOf(stage, written);
+      }
+      return stage.thenApply(ignore -> delivered.get());
+   }
+
+   private static byte[] legacyKey(byte[] channel) {
+      byte[] key = new byte[LEGACY_CHANNEL_PREFIX.length + channel.length];
+      System.arraycopy(LEGACY_CHANNEL_PREFIX, 0, key, 0, LEGACY_CHANNEL_PREFIX.length);
+      System.arraycopy(channel, 0, key, LEGACY_CHANNEL_PREFIX.length, channel.length);
+      return key;
+   }
+
+   /**
+    * Delivers the message to the subscribers of this node.
+    *
+    * @return The number of subscriptions the message was delivered to.
+    */
+   public int deliver(byte[] channel, byte[] message) {
+      int delivered = 0;
+      Set<Channel> subscribers = channels.get(new WrappedByteArray(channel));
+      if (subscribers != null) {
+         delivered += deliver(subscribers, encode(null, channel, message));
+      }
+      for (Map.Entry<byte[], Set<Channel>> match : patterns.match(channel)) {
+         delivered += deliver(match.getValue(), encode(match.getKey(), channel, message));
+      }
+      return delivered;
+   }
+
+   private static int deliver(Set<Channel> subscribers, ByteBuf message) {
+      int delivered = 0;
+      try {
+         for (Channel subscriber : subscribers) {
+            if (subscriber.isActive()) {
+               // TODO: add some back pressure? - something like ClientListenerRegistry?
+               subscriber.writeAndFlush(message.retainedDuplicate(), subscriber.voidPromise());
+               delivered++;
+            }
+         }
+      } finally {
+         message.release();
+      }
+      return delivered;
+   }
+
+   private static ByteBuf encode(byte[] pattern, byte[] channel, byte[] message) {
+      List<Object> elements;
+      int byteSize;
+      if (pattern != null) {
+         // *4\r\n + $8\r\npmessage\r\n + $<patlen>\r\n<pattern>\r\n + $<keylen>\r\n<key>\r\n + $<vallen>\r\n<value>\r\n
+         elements = List.of(PMESSAGE, pattern, channel, message);
+         byteSize = 2 + 2 + 2 + 2 + 8 + 2
+               + 1 + ByteBufferUtils.stringSize(pattern.length) + 2 + pattern.length + 2
+               + 1 + ByteBufferUtils.stringSize(channel.length) + 2 + channel.length + 2
+               + 1 + ByteBufferUtils.stringSize(message.length) + 2 + message.length + 2;
+      } else {
+         // *3\r\n + $7\r\nmessage\r\n + $<keylen>\r\n<key>\r\n + $<vallen>\r\n<value>\r\n
+         elements = List.of(MESSAGE, channel, message);
+         byteSize = 2 + 2 + 2 + 2 + 7 + 2
+               + 1 + ByteBufferUtils.stringSize(channel.length) + 2 + channel.length + 2
+               + 1 + ByteBufferUtils.stringSize(message.length) + 2 + message.length + 2;
+      }
+      ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer(byteSize, byteSize);
+      ByteBufPool allocator = ignore -> byteBuf;
+      new ByteBufResponseWriter(allocator).array(elements, Resp3Type.BULK_STRING);
+      assert byteBuf.writerIndex() == byteSize;
+      return byteBuf;
+   }
+}
@@ -0,0 +1,56 @@
+package org.infinispan.server.resp.pubsub;
+
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.factories.impl.ComponentRef;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.server.resp.RespServer;
+
+/**
+ * Delivers a published message to the subscribers of the node it is executed on.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.RESP_PUBLISH_TASK)
+public final class PublishTask implements Function<EmbeddedCacheManager, Integer> {
+
+   private final String serverName;
+   private final byte[] channel;
+   private final byte[] message;
+
+   @ProtoFactory
+   PublishTask(String serverName, byte[] channel, byte[] message) {
+      this.serverName = serverName;
+      this.channel = channel;
+      this.message = message;
+   }
+
+   @ProtoField(1)
+   String getServerName() {
+      return serverName;
+   }
+
+   @ProtoField(2)
+   byte[] getChannel() {
+      return channel;
+   }
+
+   @ProtoField(3)
+   byte[] getMessage() {
+      return message;
+   }
+
+   @Override
+   public Integer apply(EmbeddedCacheManager cacheManager) {
+      ComponentRef<RespServer> server = RespServer.fromCacheManager(cacheManager, serverName);
+      // The node does not run the RESP server, so it has no subscribers
+      if (server == null || server.running().pubSubRegistry() == null) {
+         return 0;
+      }
+      return server.running().pubSubRegistry().deliver(channel, message);
+   }
+}
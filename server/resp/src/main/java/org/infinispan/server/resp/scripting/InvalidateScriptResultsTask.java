@@ -0,0 +1,49 @@
+package org.infinispan.server.resp.scripting;
+
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.factories.impl.ComponentRef;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.server.resp.RespServer;
+
+/**
+ * Invalidates the Lua script results memoized from a cleared cache, on the node it is executed on.
+ *
+ * @since 16.2
+ */
+@ProtoTypeId(ProtoStreamTypeIds.RESP_INVALIDATE_SCRIPT_RESULTS_TASK)
+public final class InvalidateScriptResultsTask implements Function<EmbeddedCacheManager, Void> {
+
+   private final String serverName;
+   private final String cacheName;
+
+   @ProtoFactory
+   InvalidateScriptResultsTask(String serverName, String cacheName) {
+      this.serverName = serverName;
+      this.cacheName = cacheName;
+   }
+
+   @ProtoField(1)
+   String getServerName() {
+      return serverName;
+   }
+
+   @ProtoField(2)
+   String getCacheName() {
+      return cacheName;
+   }
+
+   @Override
+   public Void apply(EmbeddedCacheManager cacheManager) {
+      ComponentRef<RespServer> server = RespServer.fromCacheManager(cacheManager, serverName);
+      // The node does not run the RESP server, or does not run scripts, so it has no memoized results
+      if (server != null && server.running().isScriptingEnabled()) {
+         server.running().luaEngine().invalidateResults(cacheName);
+      }
+      return null;
+   }
+}
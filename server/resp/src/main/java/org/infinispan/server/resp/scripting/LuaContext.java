@@ -72,6 +72,7 @@ public enum Mode {
    }
 
    final Lua lua;
+   private final LuaScriptCache scripts;
 
    // context variables
    long flags;
@@ -79,8 +80,11 @@ public enum Mode {
    ChannelHandlerContext ctx;
    Mode mode = Mode.USER;
    LuaContextPool pool;
+   // the result of the running script being memoized, null if it is not memoized
+   ScriptResultCache.PendingResult pending;
 
-   LuaContext() {
+   LuaContext(LuaScriptCache scripts) {
+      this.scripts = scripts;
       lua = new Lua51();
       for (String lib : LIBRARIES_ALLOW_LIST) {
          lua.openLibrary(lib);
@@ -203,10 +207,12 @@ private void installMathRandom() {
       lua.push(l -> {
          switch (l.getTop()) {
             case 0: {
+               notMemoizable();
                lua.push(handler.respServer().random().nextDouble());
                break;
             }
             case 1: {
+               notMemoizable();
                long upper = lua.toInteger(1);
                if (upper <= 1) {
                   lua.error("interval is empty");
@@ -215,6 +221,7 @@ private void installMathRandom() {
                break;
             }
             case 2: {
+               notMemoizable();
                long lower = lua.toInteger(1);
                long upper = lua.toInteger(2);
                lua.push(handler.respServer().random().nextLong(lower, upper));
@@ -285,10 +292,20 @@ public int executeRespCommand(Lua l, boolean raiseError) {
       for (int i = -argc + 1; i < 0; i++) {
          args.add(l.toString(i).getBytes(StandardCharsets.US_ASCII));
       }
+      if (pending != null) {
+         if (respCommand.getFirstKeyPos() == 0 || !AclCategory.READ.matches(commandMask)
+               || !respCommand.hasValidNumberOfArguments(args)) {
+            // The result does not only depend on the values of the keys
+            notMemoizable();
+         } else {
+            pending.read(respCommand.extractKeys(args));
+         }
+      }
       CompletableFuture<RespRequestHandler> future = handler.handleRequest(ctx, respCommand, args).toCompletableFuture();
       try {
          future.get(); // TODO: handle timeouts ?
       } catch (Throwable t) {
+         notMemoizable();
          handler.writer().error(t);
          Throwable cause = filterCause(t);
          Log.SERVER.debugf(cause, "Error while processing command '%s'", respCommand);
@@ -306,6 +323,13 @@ public int executeRespCommand(Lua l, boolean raiseError) {
       return 1;
    }
 
+   private void notMemoizable() {
+      if (pending != null) {
+         pending.abort();
+         pending = null;
+      }
+   }
+
    public static Throwable filterCause(Throwable re) {
       if (re == null) return null;
       Class<? extends Throwable> tClass = re.getClass();
@@ -437,16 +461,33 @@ private void luaSetAllowListProtection() {
       lua.pop(1);
    }
 
-   void registerScript(LuaCode code) {
+   /**
+    * Registers the function of a script, loading the binary chunk compiled by another context when available.
+    *
+    * @return the compiled script shared by the contexts.
+    */
+   LuaScriptCache.CompiledScript registerScript(LuaCode code) {
       String name = fName(code.sha());
+      LuaScriptCache.CompiledScript compiled = scripts.get(code.sha());
       lua.getField(Lua51Consts.LUA_REGISTRYINDEX, name);
       if (lua.get().type() == Lua.LuaType.NIL) {
-         byte[] bytes = code.code().getBytes(StandardCharsets.US_ASCII);
-         ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
-         buffer.put(bytes);
-         lua.load(buffer, "@user_script");
+         if (compiled != null && compiled.bytecode() != null) {
+            lua.load(compiled.bytecode(), "@user_script");
+         } else {
+            byte[] bytes = code.code().getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+            lua.load(buffer, "@user_script");
+            compiled = scripts.put(code.sha(), lua.dump());
+         }
          lua.setField(Lua51Consts.LUA_REGISTRYINDEX, name);
+      } else if (compiled == null) {
+         // The script was compiled by this context before being evicted from the shared scripts
+         lua.getField(Lua51Consts.LUA_REGISTRYINDEX, name);
+         compiled = scripts.put(code.sha(), lua.dump());
+         lua.pop(1);
       }
+      return compiled;
    }
 
    void unregisterScript(LuaCode code) {
@@ -0,0 +1,159 @@
+package org.infinispan.server.resp.scripting;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * The scripts compiled by the {@link LuaContext} instances, keyed by their SHA and shared by all the contexts of a
+ * {@link LuaContextPool}.
+ * <p>
+ * The first context running a script compiles its source and dumps the resulting function as a binary chunk. The
+ * other contexts load the binary chunk, skipping the parsing and compilation of the source. The binary chunks are
+ * only ever produced by the contexts themselves, never received from the clients.
+ * <p>
+ * The cache also keeps the execution statistics of each script. The least recently used scripts, with their
+ * statistics, are evicted when the cache holds more than {@link #MAX_SCRIPTS} scripts.
+ *
+ * @since 16.2
+ */
+final class LuaScriptCache {
+   static final int MAX_SCRIPTS = Integer.parseInt(System.getProperty("infinispan.resp.lua.script-cache-size", "1024"));
+
+   @GuardedBy("this")
+   private final LinkedHashMap<String, CompiledScript> scripts = new LinkedHashMap<>(16, 0.75f, true);
+
+   /**
+    * @return the compiled script, or {@code null} if the script was not compiled yet or was evicted.
+    */
+   synchronized CompiledScript get(String sha) {
+      return scripts.get(sha);
+   }
+
+   /**
+    * Stores the binary chunk of a compiled script.
+    *
+    * @param chunk the binary chunk dumped by {@link party.iroiro.luajava.Lua#dump()}, or {@code null} if the function
+    *              could not be dumped. The script is still tracked, to collect its statistics.
+    * @return the compiled script, which is the one already stored if another context compiled it concurrently.
+    */
+   CompiledScript put(String sha, ByteBuffer chunk) {
+      ByteBuffer bytecode = null;
+      if (chunk != null) {
+         // Copy the chunk to a buffer owned by the cache, which is loaded by the contexts without further copies
+         bytecode = ByteBuffer.allocateDirect(chunk.remaining());
+         bytecode.put(chunk.duplicate());
+      }
+      CompiledScript compiled = new CompiledScript(sha, bytecode);
+      synchronized (this) {
+         CompiledScript previous = scripts.get(sha);
+         if (previous != null) {
+            if (previous.bytecode != null || bytecode == null) {
+               return previous;
+            }
+            // keep the statistics collected while the script could not be dumped
+            compiled.merge(previous);
+         }
+         scripts.put(sha, compiled);
+         if (scripts.size() > MAX_SCRIPTS) {
+            // the least recently used script
+            scripts.remove(scripts.keySet().iterator().next());
+         }
+      }
+      return compiled;
+   }
+
+   synchronized int size() {
+      return scripts.size();
+   }
+
+   /**
+    * @return a snapshot of the compiled scripts, from the least to the most recently used.
+    */
+   synchronized List<CompiledScript> scripts() {
+      return new ArrayList<>(scripts.values());
+   }
+
+   synchronized void clear() {
+      scripts.clear();
+   }
+
+   /**
+    * A compiled script and its execution statistics.
+    */
+   static final class CompiledScript {
+      private final String sha;
+      // null if the function could not be dumped, the contexts then compile the source
+      private final ByteBuffer bytecode;
+      private final LongAdder calls = new LongAdder();
+      private final LongAdder nanos = new LongAdder();
+      private final LongAdder memoizedCalls = new LongAdder();
+
+      private CompiledScript(String sha, ByteBuffer bytecode) {
+         this.sha = sha;
+         this.bytecode = bytecode;
+      }
+
+      String sha() {
+         return sha;
+      }
+
+      ByteBuffer bytecode() {
+         return bytecode;
+      }
+
+      /**
+       * Records an execution of the script.
+       */
+      void executed(long durationNanos) {
+         calls.increment();
+         nanos.add(durationNanos);
+      }
+
+      /**
+       * Records a call answered with a memoized result, without executing the script.
+       */
+      void memoized() {
+         memoizedCalls.increment();
+      }
+
+      long calls() {
+         return calls.sum();
+      }
+
+      long nanos() {
+         return nanos.sum();
+      }
+
+      long memoizedCalls() {
+         return memoizedCalls.sum();
+      }
+
+      private void merge(CompiledScript other) {
+         calls.add(other.calls());
+         nanos.add(other.nanos());
+         memoizedCalls.add(other.memoizedCalls());
+      }
+   }
+
+   /**
+    * Appends the statistics of the scripts, in the format of the {@code INFO} sections.
+    */
+   void appendStats(StringBuilder sb) {
+      for (CompiledScript script : scripts()) {
+         long calls = script.calls();
+         long usec = script.nanos() / 1_000;
+         sb.append("scriptstat_").append(script.sha().toLowerCase(Locale.ROOT))
+               .append(":calls=").append(calls)
+               .append(",usec=").append(usec)
+               .append(",usec_per_call=").append(String.format(Locale.ROOT, "%.2f", calls == 0 ? 0d : (double) usec / calls))
+               .append(",memoized_calls=").append(script.memoizedCalls())
+               .append("\r\n");
+      }
+   }
+}
@@ -11,12 +11,19 @@
 
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.Address;
 import org.infinispan.scripting.ScriptingManager;
 import org.infinispan.scripting.impl.ScriptMetadata;
 import org.infinispan.scripting.impl.ScriptWithMetadata;
+import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespVersion;
+import org.infinispan.server.resp.logging.Log;
 import org.infinispan.server.resp.serialization.ResponseWriter;
 import org.infinispan.server.resp.serialization.SerializationHint;
+import org.infinispan.server.resp.serialization.bytebuf.ByteBufResponseWriter;
 import org.infinispan.server.resp.serialization.lua.LuaResponseWriter;
 import org.infinispan.server.resp.tx.TransactionContext;
 import org.infinispan.tasks.Task;
@@ -24,6 +31,8 @@
 import org.infinispan.tasks.manager.spi.TaskEngine;
 import org.infinispan.util.concurrent.BlockingManager;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import party.iroiro.luajava.Lua;
 import party.iroiro.luajava.lua51.Lua51Consts;
@@ -31,14 +40,31 @@
 /**
  * An Infinispan TaskEngine built specifically for executing lua scripts in the context of the resp connector.
  * It is therefore not a generic task engine or a scripting engine that can be used from Hot Rod or REST.
+ * <p>
+ * The scripts are compiled once and shared by all the pooled {@link LuaContext} instances through a
+ * {@link LuaScriptCache}, which also collects the execution statistics of each script. When enabled, the results of the
+ * read-only scripts are memoized by a {@link ScriptResultCache}.
  */
 public class LuaTaskEngine implements TaskEngine {
+   private static final Log log = Log.getLog(LuaTaskEngine.class);
+
    private final LuaContextPool pool;
+   private final LuaScriptCache scripts;
+   private final ScriptResultCache results;
    private final ScriptingManager scriptingManager;
+   private final EmbeddedCacheManager cacheManager;
+   private final String serverName;
 
-   public LuaTaskEngine(ScriptingManager scriptingManager) {
+   /**
+    * @param resultCacheSize the maximum number of memoized results of read-only scripts, 0 to disable the memoization.
+    */
+   public LuaTaskEngine(ScriptingManager scriptingManager, EmbeddedCacheManager cacheManager, String serverName, int resultCacheSize) {
       this.scriptingManager = scriptingManager;
-      this.pool = new LuaContextPool(LuaContext::new, 2, 4);
+      this.cacheManager = cacheManager;
+      this.serverName = serverName;
+      this.scripts = new LuaScriptCache();
+      this.results = resultCacheSize > 0 ? new ScriptResultCache(cacheManager, resultCacheSize) : null;
+      this.pool = new LuaContextPool(() -> new LuaContext(scripts), 2, 4);
    }
 
    public void shutdown() {
@@ -46,14 +72,14 @@ public void shutdown() {
    }
 
    public CompletionStage<Void> eval(Resp3Handler handler, ChannelHandlerContext ctx, String code, String[] keys, String[] args, long flags) {
+      RespVersion version = memoizationVersion(handler);
       return handler.getBlockingManager().supplyBlocking(() -> {
          LuaContext luaCtx = pool.borrow();
          try {
             LuaCode script = scriptLoad(code, false);
-            luaCtx.registerScript(script);
-            runScript(luaCtx, handler, ctx, script, keys, args, flags);
+            ScriptRun run = runScript(luaCtx, handler, ctx, script, keys, args, flags, version);
             luaCtx.unregisterScript(script);
-            return luaCtx;
+            return run;
          } catch (Throwable t) {
             // a throwable here means it was not handled properly by the script execution logic. We discard the lua
             // context since it may be in an unrecoverable state
@@ -61,20 +87,14 @@ public CompletionStage<Void> eval(Resp3Handler handler, ChannelHandlerContext ct
             handler.writer().error(t);
             return null;
          }
-      }, "eval").thenApplyAsync(luaCtx -> {
-         if (luaCtx != null) {
-            // Process the lua object on the stack and send it to the actual writer
-            luaToResp(luaCtx.lua, handler);
-            // Pop the error handler
-            luaCtx.lua.pop(1);
-            // Return the lua context to the pool
-            pool.returnToPool(luaCtx);
-         }
+      }, "eval").thenApplyAsync(run -> {
+         writeResult(handler, ctx, run);
          return null;
       }, ctx.channel().eventLoop());
    }
 
    public CompletionStage<Void> evalSha(Resp3Handler handler, ChannelHandlerContext ctx, String sha, String[] keys, String[] args, long flags) {
+      RespVersion version = memoizationVersion(handler);
       return handler.getBlockingManager().supplyBlocking(() -> {
          LuaContext luaCtx = pool.borrow();
          ScriptWithMetadata script;
@@ -86,9 +106,7 @@ public CompletionStage<Void> evalSha(Resp3Handler handler, ChannelHandlerContext
          }
          try {
             LuaCode code = LuaCode.fromScript(script);
-            luaCtx.registerScript(code);
-            runScript(luaCtx, handler, ctx, code, keys, args, flags);
-            return luaCtx;
+            return runScript(luaCtx, handler, ctx, code, keys, args, flags, version);
          } catch (Throwable t) {
             // a throwable here means it was not handled properly by the script execution logic. We discard the lua
             // context since it may be in an unrecoverable state
@@ -96,33 +114,118 @@ public CompletionStage<Void> evalSha(Resp3Handler handler, ChannelHandlerContext
             handler.writer().error(t);
             return null;
          }
-      }, "evalsha").thenApplyAsync(luaCtx -> {
-         if (luaCtx != null) {
-            // Process the lua object on the stack and send it to the actual writer
-            luaToResp(luaCtx.lua, handler);
-            // Pop the error handler
-            luaCtx.lua.pop(1);
-            pool.returnToPool(luaCtx);
-         }
+      }, "evalsha").thenApplyAsync(run -> {
+         writeResult(handler, ctx, run);
          return null;
       }, ctx.channel().eventLoop());
    }
 
-   private void runScript(LuaContext luaCtx, Resp3Handler handler, ChannelHandlerContext ctx, LuaCode script, String[] keys, String[] args, long flags) {
+   /**
+    * The outcome of a script call: either the Lua context holding the result of the script on its stack, or a
+    * memoized reply.
+    */
+   private record ScriptRun(LuaContext luaCtx, ScriptResultCache.PendingResult pending, byte[] memoized) {
+   }
+
+   /**
+    * @return the RESP version of the replies if the result of a read-only script can be memoized, {@code null} if it
+    * cannot.
+    */
+   private RespVersion memoizationVersion(Resp3Handler handler) {
+      // Scripts called from scripts write their result to the Lua stack of the caller
+      if (results == null || handler.writer().isInternal()) {
+         return null;
+      }
+      return handler.writer().version();
+   }
+
+   private ScriptRun runScript(LuaContext luaCtx, Resp3Handler handler, ChannelHandlerContext ctx, LuaCode script, String[] keys, String[] args, long flags, RespVersion version) {
+      flags |= script.flags();
+      ScriptResultCache.PendingResult pending = null;
+      if (version != null && ScriptFlags.NO_WRITES.isSet(flags)) {
+         ScriptResultCache.ResultKey key = ScriptResultCache.ResultKey.of(handler.cache().getName(), script.sha(), keys, args, version);
+         byte[] memoized = results.get(key, handler.cache());
+         if (memoized != null) {
+            // The memoized reply must not disclose data the connection is not allowed to read
+            handler.checkPermission(AuthorizationPermission.READ);
+            LuaScriptCache.CompiledScript compiled = scripts.get(script.sha());
+            if (compiled != null) {
+               compiled.memoized();
+            }
+            return new ScriptRun(luaCtx, null, memoized);
+         }
+         pending = results.start(key, handler.cache());
+      }
+      LuaScriptCache.CompiledScript compiled = luaCtx.registerScript(script);
       luaCtx.handler = handler;
       luaCtx.ctx = ctx;
       luaCtx.flags = flags;
-      luaCtx.flags |= script.flags();
+      luaCtx.pending = pending;
       ResponseWriter oldWriter = handler.writer(new LuaResponseWriter(luaCtx.lua));
+      long start = System.nanoTime();
       try {
          TransactionContext.startTransactionContext(ctx);
          runScript(luaCtx.lua, script, keys, args);
       } catch (Throwable t) {
+         if (luaCtx.pending != null) {
+            luaCtx.pending.abort();
+         }
          throw new RuntimeException(t);
       } finally {
+         compiled.executed(System.nanoTime() - start);
          TransactionContext.endTransactionContext(ctx);
          handler.writer(oldWriter);
+         pending = luaCtx.pending;
+         luaCtx.pending = null;
+      }
+      if (pending != null) {
+         pending.checkExpiration(handler.cache());
       }
+      return new ScriptRun(luaCtx, pending, null);
+   }
+
+   /**
+    * Writes the result of a script call to the connection, from the event loop.
+    */
+   private void writeResult(Resp3Handler handler, ChannelHandlerContext ctx, ScriptRun run) {
+      if (run == null) {
+         return;
+      }
+      LuaContext luaCtx = run.luaCtx();
+      if (run.memoized() != null) {
+         handler.writer().raw(run.memoized());
+         pool.returnToPool(luaCtx);
+         return;
+      }
+      if (run.pending() != null) {
+         // Capture the reply to memoize it, then send it to the actual writer
+         ByteBuf buffer = ctx.alloc().buffer();
+         try {
+            ResponseWriter capture = new ByteBufResponseWriter(size -> {
+               buffer.ensureWritable(size);
+               return buffer;
+            });
+            capture.version(handler.writer().version());
+            ResponseWriter writer = handler.writer(capture);
+            try {
+               luaToResp(luaCtx.lua, handler);
+            } finally {
+               handler.writer(writer);
+            }
+            byte[] reply = ByteBufUtil.getBytes(buffer);
+            run.pending().complete(reply);
+            writer.raw(reply);
+         } finally {
+            buffer.release();
+         }
+      } else {
+         // Process the lua object on the stack and send it to the actual writer
+         luaToResp(luaCtx.lua, handler);
+      }
+      // Pop the error handler
+      luaCtx.lua.pop(1);
+      // Return the lua context to the pool
+      pool.returnToPool(luaCtx);
    }
 
    /**
@@ -331,6 +434,62 @@ public void scriptFlush() {
             scriptingManager.removeScript(name);
          }
       }
+      scripts.clear();
+      if (results != null) {
+         results.invalidateAll();
+      }
+   }
+
+   /**
+    * Invalidates the results of the read-only scripts memoized from a cleared cache, on all the nodes.
+    */
+   public CompletionStage<Void> cacheCleared(String cacheName) {
+      if (results == null) {
+         return CompletableFutures.completedNull();
+      }
+      invalidateResults(cacheName);
+      List<Address> members = cacheManager.getMembers();
+      if (members == null || members.size() <= 1) {
+         return CompletableFutures.completedNull();
+      }
+      Address localAddress = cacheManager.getAddress();
+      return SecurityActions.getClusterExecutor(cacheManager)
+            .filterTargets(address -> !address.equals(localAddress))
+            .submitConsumer(new InvalidateScriptResultsTask(serverName, cacheName), (address, ignore, t) -> {
+               if (t != null) {
+                  log.debugf(t, "Could not invalidate the script results of node %s", address);
+               }
+            });
+   }
+
+   /**
+    * Invalidates the results of the read-only scripts memoized from a cache on this node.
+    */
+   public void invalidateResults(String cacheName) {
+      if (results != null) {
+         results.invalidate(cacheName);
+      }
+   }
+
+   /**
+    * @return the number of compiled scripts shared by the Lua contexts.
+    */
+   public int numberOfCachedScripts() {
+      return scripts.size();
+   }
+
+   /**
+    * Appends the number of calls and the execution time of each compiled script, in the format of the {@code INFO}
+    * sections.
+    */
+   public void appendScriptStats(StringBuilder sb) {
+      scripts.appendStats(sb);
+      if (results != null) {
+         sb.append("script_results_memoized:").append(results.size()).append("\r\n");
+         sb.append("script_results_hits:").append(results.hits()).append("\r\n");
+         sb.append("script_results_misses:").append(results.misses()).append("\r\n");
+         sb.append("script_results_invalidations:").append(results.invalidations()).append("\r\n");
+      }
    }
 
    private static Map<String, String> parseShebang(String script, boolean required) {
@@ -0,0 +1,418 @@
+package org.infinispan.server.resp.scripting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryInvalidated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
+import org.infinispan.notifications.cachelistener.filter.EventType;
+import org.infinispan.security.actions.SecurityActions;
+import org.infinispan.server.resp.RespVersion;
+import org.infinispan.server.resp.logging.Log;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Memoizes the replies of the read-only Lua scripts, keyed by the script SHA, the keys, the arguments and the RESP
+ * version of the connection. It is enabled with
+ * {@link org.infinispan.server.resp.configuration.RespServerConfiguration#scriptResultCacheSize()}.
+ * <p>
+ * A reply is only memoized if all the commands issued by the script read the keys they are given, so that the reply
+ * only depends on the values of those keys. Scripts calling keyless commands, such as {@code TIME} or {@code SCAN},
+ * or {@code math.random}, failing commands, error replies and scripts reading keys that expire are not memoized.
+ * <p>
+ * A memoized reply is invalidated when one of the keys read by the script is written. The writes are observed by a
+ * synchronous local listener on each cache holding memoized replies, so a write completes only once the replies
+ * depending on it are invalidated. The listener only receives the writes to the keys read by the scripts, and it is
+ * removed once the cache holds no replies. A local listener only observes the writes to the keys owned by this node,
+ * so on distributed caches the replies are only memoized if the script reads keys owned by this node, which is the
+ * case when the clients send the scripts to the owner of their keys, and they are discarded when the cache topology
+ * changes. The clears of a cache do not notify the listeners, they invalidate the replies with
+ * {@link #invalidate(String)} on all the nodes.
+ *
+ * @since 16.2
+ */
+final class ScriptResultCache {
+   private static final Log log = Log.getLog(ScriptResultCache.class);
+
+   private final EmbeddedCacheManager cacheManager;
+   private final int maxEntries;
+
+   @GuardedBy("this")
+   private final LinkedHashMap<ResultKey, PendingResult> results = new LinkedHashMap<>(16, 0.75f, true);
+   // the results grouped by the keys they read, modified while holding the lock but read by the listener filters
+   private final Map<ReadKey, Set<PendingResult>> resultsByKey = new ConcurrentHashMap<>();
+   // the listeners of the caches holding results
+   @GuardedBy("this")
+   private final Map<String, WriteListener> listeners = new HashMap<>();
+   private volatile int size;
+
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder invalidations = new LongAdder();
+
+   ScriptResultCache(EmbeddedCacheManager cacheManager, int maxEntries) {
+      this.cacheManager = cacheManager;
+      this.maxEntries = maxEntries;
+   }
+
+   /**
+    * @return the memoized reply, or {@code null} if the script must be executed.
+    */
+   byte[] get(ResultKey key, AdvancedCache<byte[], byte[]> cache) {
+      if (size == 0) {
+         misses.increment();
+         return null;
+      }
+      int topologyId = topologyId(distribution(cache));
+      synchronized (this) {
+         PendingResult result = results.get(key);
+         if (result != null && result.reply != null) {
+            if (result.topologyId == topologyId) {
+               hits.increment();
+               return result.reply;
+            }
+            // the keys read by the script may not be owned by this node anymore
+            remove(result);
+            invalidations.increment();
+         }
+      }
+      misses.increment();
+      return null;
+   }
+
+   /**
+    * Starts the memoization of a script execution. The keys read by the script must be registered with
+    * {@link PendingResult#read(byte[][])} before they are read.
+    *
+    * @return the pending result, or {@code null} if the writes to the cache cannot be observed.
+    */
+   PendingResult start(ResultKey key, AdvancedCache<byte[], byte[]> cache) {
+      PendingResult pending = new PendingResult(key, cache);
+      synchronized (this) {
+         PendingResult previous = results.get(key);
+         if (previous != null) {
+            // removing the only result of the cache removes its listener
+            remove(previous);
+         }
+         WriteListener listener = observe(cache.getName());
+         if (listener == null) {
+            return null;
+         }
+         results.put(key, pending);
+         listener.results++;
+         if (results.size() > maxEntries) {
+            // the least recently used result
+            remove(results.values().iterator().next());
+         }
+         size = results.size();
+      }
+      return pending;
+   }
+
+   /**
+    * Invalidates the replies that read a key.
+    */
+   void keyWritten(String cacheName, byte[] key) {
+      if (size == 0) {
+         return;
+      }
+      synchronized (this) {
+         Set<PendingResult> affected = resultsByKey.get(new ReadKey(cacheName, new WrappedByteArray(key)));
+         if (affected == null) {
+            return;
+         }
+         for (PendingResult result : new ArrayList<>(affected)) {
+            remove(result);
+            invalidations.increment();
+         }
+      }
+   }
+
+   /**
+    * Invalidates all the replies computed from a cache, used when the cache is cleared.
+    */
+   synchronized void invalidate(String cacheName) {
+      for (PendingResult result : new ArrayList<>(results.values())) {
+         if (result.key.cacheName().equals(cacheName)) {
+            remove(result);
+            invalidations.increment();
+         }
+      }
+   }
+
+   /**
+    * Invalidates all the replies, used when the scripts are flushed.
+    */
+   synchronized void invalidateAll() {
+      invalidations.add(results.size());
+      for (PendingResult result : results.values()) {
+         result.invalid = true;
+      }
+      results.clear();
+      resultsByKey.clear();
+      size = 0;
+      for (WriteListener listener : listeners.values()) {
+         listener.cache.removeListener(listener);
+      }
+      listeners.clear();
+   }
+
+   long hits() {
+      return hits.sum();
+   }
+
+   long misses() {
+      return misses.sum();
+   }
+
+   long invalidations() {
+      return invalidations.sum();
+   }
+
+   int size() {
+      return size;
+   }
+
+   /**
+    * @return the listener of the writes to a cache, registering it if the cache holds no results, or {@code null} if
+    * the writes cannot be observed.
+    */
+   @GuardedBy("this")
+   private WriteListener observe(String cacheName) {
+      WriteListener listener = listeners.get(cacheName);
+      if (listener != null) {
+         return listener;
+      }
+      try {
+         AdvancedCache<byte[], byte[]> cache = SecurityActions.<AdvancedCache<byte[], byte[]>, byte[], byte[]>getUnwrappedCache(cacheManager, cacheName)
+               .withMediaType(MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_OCTET_STREAM);
+         listener = new WriteListener(cacheName, cache);
+         cache.addListener(listener, listener, null);
+         listeners.put(cacheName, listener);
+         return listener;
+      } catch (Throwable t) {
+         log.debugf(t, "Cannot observe the writes to cache %s, the script results are not memoized", cacheName);
+         return null;
+      }
+   }
+
+   @GuardedBy("this")
+   private void remove(PendingResult result) {
+      result.invalid = true;
+      if (results.remove(result.key, result)) {
+         WriteListener listener = listeners.get(result.key.cacheName());
+         if (--listener.results == 0) {
+            // nothing to invalidate until a script reads from the cache again
+            listeners.remove(result.key.cacheName());
+            listener.cache.removeListener(listener);
+         }
+      }
+      removeByKey(result);
+      size = results.size();
+   }
+
+   private static DistributionManager distribution(AdvancedCache<byte[], byte[]> cache) {
+      // the writes to the keys of the other caches are observed on all the nodes
+      return cache.getCacheConfiguration().clustering().cacheMode().isDistributed() ? cache.getDistributionManager() : null;
+   }
+
+   private static int topologyId(DistributionManager distributionManager) {
+      return distributionManager == null ? -1 : distributionManager.getCacheTopology().getTopologyId();
+   }
+
+   @GuardedBy("this")
+   private void removeByKey(PendingResult result) {
+      for (ReadKey readKey : result.readKeys) {
+         Set<PendingResult> keyResults = resultsByKey.get(readKey);
+         if (keyResults != null && keyResults.remove(result) && keyResults.isEmpty()) {
+            resultsByKey.remove(readKey);
+         }
+      }
+   }
+
+   /**
+    * Identifies the replies of a script which can be shared.
+    */
+   record ResultKey(String cacheName, String sha, List<String> keys, List<String> args, RespVersion version) {
+      static ResultKey of(String cacheName, String sha, String[] keys, String[] args, RespVersion version) {
+         return new ResultKey(cacheName, sha, Arrays.asList(keys), Arrays.asList(args), version);
+      }
+   }
+
+   private record ReadKey(String cacheName, WrappedByteArray key) {
+   }
+
+   /**
+    * The reply of a script being executed. It is discarded if one of the keys read by the script is written before the
+    * reply is completed.
+    */
+   final class PendingResult {
+      private final ResultKey key;
+      private final AdvancedCache<byte[], byte[]> cache;
+      // null if all the writes are observed by this node
+      private final DistributionManager distributionManager;
+      private final int topologyId;
+      @GuardedBy("ScriptResultCache.this")
+      private final Set<ReadKey> readKeys = new HashSet<>();
+      // null while the script is running
+      private volatile byte[] reply;
+      private volatile boolean invalid;
+
+      private PendingResult(ResultKey key, AdvancedCache<byte[], byte[]> cache) {
+         this.key = key;
+         this.cache = cache;
+         this.distributionManager = distribution(cache);
+         this.topologyId = topologyId(distributionManager);
+      }
+
+      /**
+       * Registers the keys read by a command of the script, before the command is executed.
+       */
+      void read(byte[][] keys) {
+         if (distributionManager != null) {
+            LocalizedCacheTopology topology = distributionManager.getCacheTopology();
+            for (byte[] k : keys) {
+               if (topology.getTopologyId() != topologyId || !topology.isReadOwner(cache.getKeyDataConversion().toStorage(k))) {
+                  // the writes to the key are not observed by this node
+                  abort();
+                  return;
+               }
+            }
+         }
+         synchronized (ScriptResultCache.this) {
+            if (invalid) {
+               return;
+            }
+            for (byte[] k : keys) {
+               ReadKey readKey = new ReadKey(key.cacheName(), new WrappedByteArray(k));
+               if (readKeys.add(readKey)) {
+                  resultsByKey.computeIfAbsent(readKey, ignore -> new HashSet<>()).add(this);
+               }
+            }
+         }
+      }
+
+      /**
+       * Discards the result if one of the keys read by the script expires, since the expirations of the entries are
+       * not guaranteed to be notified when they happen. Must be invoked from a thread that can block.
+       */
+      void checkExpiration(AdvancedCache<byte[], byte[]> cache) {
+         List<byte[]> keys;
+         synchronized (ScriptResultCache.this) {
+            if (invalid) {
+               return;
+            }
+            keys = new ArrayList<>(readKeys.size());
+            for (ReadKey readKey : readKeys) {
+               keys.add(readKey.key().getBytes());
+            }
+         }
+         MediaType vmt = cache.getValueDataConversion().getStorageMediaType();
+         AdvancedCache<byte[], byte[]> entries = cache.withMediaType(MediaType.APPLICATION_OCTET_STREAM, vmt);
+         List<CompletableFuture<CacheEntry<byte[], byte[]>>> futures = new ArrayList<>(keys.size());
+         for (byte[] k : keys) {
+            futures.add(entries.getCacheEntryAsync(k));
+         }
+         try {
+            for (CompletableFuture<CacheEntry<byte[], byte[]>> future : futures) {
+               CacheEntry<byte[], byte[]> entry = future.join();
+               if (entry != null && (entry.getLifespan() > -1 || entry.getMaxIdle() > -1)) {
+                  abort();
+                  return;
+               }
+            }
+         } catch (Throwable t) {
+            log.debugf(t, "Could not read the expiration of the keys read by script %s", key.sha());
+            abort();
+         }
+      }
+
+      /**
+       * Memoizes the reply of the script, unless it is an error or one of the keys it read was written.
+       */
+      void complete(byte[] reply) {
+         if (reply.length == 0 || reply[0] == '-' || reply[0] == '!' || topologyId(distributionManager) != topologyId) {
+            abort();
+            return;
+         }
+         synchronized (ScriptResultCache.this) {
+            if (!invalid) {
+               this.reply = reply;
+            }
+         }
+      }
+
+      /**
+       * Discards the result, when the reply of the script cannot be memoized.
+       */
+      void abort() {
+         synchronized (ScriptResultCache.this) {
+            if (!invalid) {
+               remove(this);
+            }
+         }
+      }
+   }
+
+   /**
+    * Invalidates the replies when the keys they read are written. It is also the filter of its own events, so it only
+    * receives the writes to the keys read by the scripts.
+    */
+   @Listener(observation = Listener.Observation.POST)
+   private final class WriteListener implements CacheEventFilter<byte[], byte[]> {
+      private final String cacheName;
+      private final AdvancedCache<byte[], byte[]> cache;
+      // the number of results computed from the cache
+      @GuardedBy("ScriptResultCache.this")
+      private int results;
+
+      private WriteListener(String cacheName, AdvancedCache<byte[], byte[]> cache) {
+         this.cacheName = cacheName;
+         this.cache = cache;
+      }
+
+      @Override
+      public boolean accept(byte[] key, byte[] oldValue, Metadata oldMetadata, byte[] newValue, Metadata newMetadata, EventType eventType) {
+         return resultsByKey.containsKey(new ReadKey(cacheName, new WrappedByteArray(key)));
+      }
+
+      @Override
+      public MediaType format() {
+         // the keys as they are stored, like the keys read by the scripts
+         return null;
+      }
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      @CacheEntryRemoved
+      @CacheEntryExpired
+      @CacheEntryInvalidated
+      public void written(CacheEntryEvent<byte[], byte[]> event) {
+         keyWritten(cacheName, event.getKey());
+      }
+   }
+}
@@ -254,6 +254,14 @@ public interface ResponseWriter {
 
    void writeNumericPrefix(byte symbol, long number);
 
+   /**
+    * Writes a response that is already encoded, such as a response captured from another writer with the same
+    * {@link #version()}.
+    *
+    * @param response The encoded response.
+    */
+   void raw(byte[] response);
+
    default void syntaxError() {
       error("-ERR syntax error");
    }
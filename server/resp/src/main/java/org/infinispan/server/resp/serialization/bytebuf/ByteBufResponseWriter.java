@@ -185,6 +185,11 @@ public void writeNumericPrefix(byte symbol, long number) {
       buffer.writeBytes(CRLF);
    }
 
+   @Override
+   public void raw(byte[] response) {
+      alloc.acquire(response.length).writeBytes(response);
+   }
+
    @Override
    public void arrayStart(int size) {
       writeNumericPrefix(ARRAY, size);
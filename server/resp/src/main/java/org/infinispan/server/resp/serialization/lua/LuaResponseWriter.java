@@ -315,6 +315,11 @@ public void writeNumericPrefix(byte symbol, long number) {
       throw new UnsupportedOperationException(CallerId.getCallerMethodName(1));
    }
 
+   @Override
+   public void raw(byte[] response) {
+      throw new UnsupportedOperationException(CallerId.getCallerMethodName(1));
+   }
+
    @Override
    public void arrayStart(int size) {
       assert arrayIndex == 0;
@@ -0,0 +1,85 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+/**
+ * Tests the replies of pipelined commands executed concurrently are written in the order of the requests.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "server.resp.RespPipelineConcurrencyTest")
+public class RespPipelineConcurrencyTest extends SingleNodeRespBaseTest {
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration(int i) {
+      return super.serverConfiguration(i).pipelineConcurrency(8);
+   }
+
+   public void testRepliesInOrder() {
+      StatefulRedisConnection<String, String> connection = newConnection();
+      RedisAsyncCommands<String, String> redis = connection.async();
+      connection.setAutoFlushCommands(false);
+      try {
+         List<RedisFuture<?>> futures = new ArrayList<>();
+         for (int i = 0; i < 100; i++) {
+            futures.add(redis.set("k" + i, "v" + i));
+            futures.add(redis.get("k" + i));
+            futures.add(redis.incr("counter"));
+            futures.add(redis.append("k" + i, "-" + i));
+            futures.add(redis.hset("h" + (i % 10), "f" + i, "v" + i));
+         }
+         connection.flushCommands();
+         assertThat(LettuceFutures.awaitAll(10, TimeUnit.SECONDS, futures.toArray(new RedisFuture[0]))).isTrue();
+
+         for (int i = 0; i < 100; i++) {
+            assertThat(futures.get(i * 5).toCompletableFuture().join()).isEqualTo("OK");
+            assertThat(futures.get(i * 5 + 1).toCompletableFuture().join()).isEqualTo("v" + i);
+            assertThat(futures.get(i * 5 + 2).toCompletableFuture().join()).isEqualTo(i + 1L);
+            assertThat(futures.get(i * 5 + 3).toCompletableFuture().join()).isEqualTo(("v" + i + "-" + i).length() * 1L);
+            assertThat(futures.get(i * 5 + 4).toCompletableFuture().join()).isEqualTo(true);
+         }
+      } finally {
+         connection.setAutoFlushCommands(true);
+      }
+   }
+
+   public void testCommandsWaitForPreviousCommands() {
+      StatefulRedisConnection<String, String> connection = newConnection();
+      RedisAsyncCommands<String, String> redis = connection.async();
+      connection.setAutoFlushCommands(false);
+      try {
+         // The list commands are not executed concurrently, and the errors keep their position
+         RedisFuture<String> set = redis.set("wait", "v");
+         RedisFuture<Long> push = redis.rpush("list", "a", "b");
+         RedisFuture<String> get = redis.get("wait");
+         RedisFuture<List<String>> range = redis.lrange("list", 0, -1);
+         RedisFuture<Long> wrongType = redis.incr("list");
+         RedisFuture<Long> incr = redis.incr("wait-counter");
+         RedisFuture<Long> exists = redis.exists("wait", "list", "missing");
+         connection.flushCommands();
+         assertThat(LettuceFutures.awaitAll(10, TimeUnit.SECONDS, set, push, get, range, incr, exists)).isTrue();
+
+         assertThat(set.toCompletableFuture().join()).isEqualTo("OK");
+         assertThat(push.toCompletableFuture().join()).isEqualTo(2L);
+         assertThat(get.toCompletableFuture().join()).isEqualTo("v");
+         assertThat(range.toCompletableFuture().join()).containsExactly("a", "b");
+         assertThat(wrongType.toCompletableFuture()).isCompletedExceptionally();
+         assertThat(incr.toCompletableFuture().join()).isEqualTo(1L);
+         assertThat(exists.toCompletableFuture().join()).isEqualTo(2L);
+      } finally {
+         connection.setAutoFlushCommands(true);
+      }
+   }
+}
@@ -0,0 +1,70 @@
+package org.infinispan.server.resp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+/**
+ * Compares the throughput of pipelined GETs on a server executing the pipelined commands one at a time and on a
+ * server executing them concurrently. The keys have a single owner, so half of them are read from the other node.
+ *
+ * @since 16.2
+ */
+@Test(groups = "profiling", testName = "server.resp.RespPipelineProfilingTest")
+public class RespPipelineProfilingTest extends BaseMultipleRespTest {
+
+   private static final int NUM_KEYS = 1000;
+   private static final int PIPELINE_SIZE = 100;
+   private static final int NUM_PIPELINES = 10_000;
+
+   @Override
+   protected void amendCacheConfiguration(ConfigurationBuilder builder) {
+      builder.clustering().hash().numOwners(1);
+   }
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration(int offset) {
+      // The first server executes the commands one at a time
+      return super.serverConfiguration(offset).pipelineConcurrency(offset == 0 ? 1 : 16);
+   }
+
+   public void testPipelinedGets() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         redisConnection1.sync().set("k" + i, "v" + i);
+      }
+      // Warm up both servers
+      runPipelines(redisConnection1, NUM_PIPELINES / 10);
+      runPipelines(redisConnection2, NUM_PIPELINES / 10);
+
+      long serial = runPipelines(redisConnection1, NUM_PIPELINES);
+      long concurrent = runPipelines(redisConnection2, NUM_PIPELINES);
+      log.infof("RespPipelineProfilingTest.testPipelinedGets pipeline-concurrency=1  took %d ms", TimeUnit.NANOSECONDS.toMillis(serial));
+      log.infof("RespPipelineProfilingTest.testPipelinedGets pipeline-concurrency=16 took %d ms", TimeUnit.NANOSECONDS.toMillis(concurrent));
+   }
+
+   private long runPipelines(StatefulRedisConnection<String, String> connection, int numPipelines) {
+      RedisAsyncCommands<String, String> redis = connection.async();
+      RedisFuture<?>[] futures = new RedisFuture[PIPELINE_SIZE];
+      connection.setAutoFlushCommands(false);
+      try {
+         long start = System.nanoTime();
+         for (int i = 0; i < numPipelines; i++) {
+            for (int j = 0; j < PIPELINE_SIZE; j++) {
+               futures[j] = redis.get("k" + ((i * PIPELINE_SIZE + j) % NUM_KEYS));
+            }
+            connection.flushCommands();
+            LettuceFutures.awaitAll(TIMEOUT, TimeUnit.SECONDS, futures);
+         }
+         return System.nanoTime() - start;
+      } finally {
+         connection.setAutoFlushCommands(true);
+      }
+   }
+}
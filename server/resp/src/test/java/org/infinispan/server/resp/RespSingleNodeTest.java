@@ -192,6 +192,14 @@ public void testDelNonStrings() {
       assertThat(c).isEqualTo(1);
    }
 
+   public void testUnlink() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set("unlink1", "v1");
+      redis.rpush("unlink2", "v1", "v2");
+      assertThat(redis.unlink("unlink1", "unlink2", "unlink3")).isEqualTo(2);
+      assertThat(redis.exists("unlink1", "unlink2")).isZero();
+   }
+
    public void testPingNoArg() {
       RedisCommands<String, String> redis = redisConnection.sync();
       assertThat(redis.ping()).isEqualTo(PONG);
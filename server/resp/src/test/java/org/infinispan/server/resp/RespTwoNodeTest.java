@@ -11,6 +11,7 @@
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -32,6 +33,7 @@
 import org.testng.annotations.Test;
 
 import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.LMPopArgs;
 import io.lettuce.core.LMoveArgs;
 import io.lettuce.core.Range;
@@ -111,6 +113,23 @@ public void testRename() {
             () -> r0.rename(getStringKeyForCache(respCache(1)), dstKey));
    }
 
+   public void testMultiKeyCommands() {
+      RedisCommands<String, String> r0 = redisConnection1.sync();
+      RedisCommands<String, String> r1 = redisConnection2.sync();
+      String k0 = getStringKeyForCache(respCache(0));
+      String k1 = getStringKeyForCache(respCache(1));
+      String list = getStringKeyForCache("list", respCache(1));
+      r0.mset(Map.of(k0, "v0", k1, "v1"));
+      r1.rpush(list, "item");
+
+      List<KeyValue<String, String>> values = r1.mget(k0, list, "missing", k1, k0);
+      assertThat(values).extracting(kv -> kv.getValueOrElse(null)).containsExactly("v0", null, null, "v1", "v0");
+      assertThat(r0.exists(k0, k1, list, "missing", k0)).isEqualTo(4);
+      assertThat(r1.touch(k0, k1, list, "missing")).isEqualTo(3);
+      assertThat(r0.unlink(k0, list, "missing")).isEqualTo(2);
+      assertThat(r1.exists(k0, k1, list)).isEqualTo(1);
+   }
+
    public void testSimpleScan() {
       int size = 15;
 
@@ -445,6 +464,25 @@ public void testPubSub() throws InterruptedException {
       }
    }
 
+   @Test
+   public void testPublishToOtherNode() throws InterruptedException {
+      RedisPubSubCommands<String, String> connection = createPubSubConnection();
+      BlockingQueue<String> handOffQueue = addPubSubListener(connection);
+      connection.subscribe("remote-channel");
+      assertThat(handOffQueue.poll(10, TimeUnit.SECONDS)).isEqualTo("subscribed-remote-channel-1");
+
+      // The subscriber is connected to the second node, the count includes the subscribers of all the nodes
+      RedisCommands<String, String> redis = redisConnection1.sync();
+      assertThat(redis.publish("remote-channel", "hello")).isEqualTo(1);
+      assertThat(handOffQueue.poll(10, TimeUnit.SECONDS)).isEqualTo("message-remote-channel-hello");
+      assertThat(redis.publish("other-channel", "hello")).isZero();
+
+      connection.unsubscribe("remote-channel");
+      assertThat(handOffQueue.poll(10, TimeUnit.SECONDS)).isEqualTo("unsubscribed-remote-channel-0");
+      assertThat(redis.publish("remote-channel", "hello")).isZero();
+      assertThat(handOffQueue.poll(1, TimeUnit.SECONDS)).isNull();
+   }
+
    protected RedisPubSubCommands<String, String> createPubSubConnection() {
       return client2.connectPubSub().sync();
    }
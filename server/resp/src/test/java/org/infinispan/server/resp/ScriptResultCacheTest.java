@@ -0,0 +1,147 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.infinispan.test.TestingUtil.getListeners;
+import static org.infinispan.test.TestingUtil.k;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+/**
+ * Tests the compiled scripts shared by the Lua contexts and the memoization of the results of read-only scripts.
+ *
+ * @since 16.2
+ */
+@Test(groups = "functional", testName = "server.resp.ScriptResultCacheTest")
+public class ScriptResultCacheTest extends SingleNodeRespBaseTest {
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration(int i) {
+      return super.serverConfiguration(i).scriptResultCacheSize(16);
+   }
+
+   public void testResultMemoizedUntilWrite() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set(k(), "v1");
+      String sha = redis.scriptLoad("return redis.call('get', KEYS[1]) -- memoized");
+
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v1");
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v1");
+      assertThat(scriptStat(redis, sha)).contains("calls=1,").contains("memoized_calls=1");
+
+      redis.set(k(), "v2");
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v2");
+      assertThat(scriptStat(redis, sha)).contains("calls=2,").contains("memoized_calls=1");
+
+      redis.del(k());
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isNull();
+   }
+
+   public void testListenerRemovedWithoutResults() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set(k(), "v1");
+      String sha = redis.scriptLoad("return redis.call('get', KEYS[1]) -- listener");
+      int listeners = getListeners(cache).size();
+
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v1");
+      assertThat(getListeners(cache)).hasSize(listeners + 1);
+
+      // A write to another key does not invalidate the result
+      redis.set(k(1), "other");
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v1");
+      assertThat(scriptStat(redis, sha)).contains("calls=1,").contains("memoized_calls=1");
+
+      redis.set(k(), "v2");
+      assertThat(getListeners(cache)).hasSize(listeners);
+   }
+
+   public void testResultInvalidatedByDataStructureWrite() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.rpush(k(), "a", "b");
+      String script = "return redis.call('lrange', KEYS[1], 0, -1)";
+
+      assertThat(redis.<List<String>>evalReadOnly(script.getBytes(), ScriptOutputType.MULTI, new String[]{k()})).containsExactly("a", "b");
+      assertThat(redis.<List<String>>evalReadOnly(script.getBytes(), ScriptOutputType.MULTI, new String[]{k()})).containsExactly("a", "b");
+
+      redis.rpush(k(), "c");
+      assertThat(redis.<List<String>>evalReadOnly(script.getBytes(), ScriptOutputType.MULTI, new String[]{k()})).containsExactly("a", "b", "c");
+   }
+
+   public void testResultInvalidatedByFlush() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set(k(), "v1");
+      String sha = redis.scriptLoad("return redis.call('get', KEYS[1]) -- flush");
+
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v1");
+      redis.flushdb();
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isNull();
+   }
+
+   public void testWritableScriptNotMemoized() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set(k(), "v1");
+      String sha = redis.scriptLoad("return redis.call('get', KEYS[1]) -- writable");
+
+      assertThat(redis.<String>evalsha(sha, ScriptOutputType.VALUE, k())).isEqualTo("v1");
+      assertThat(redis.<String>evalsha(sha, ScriptOutputType.VALUE, k())).isEqualTo("v1");
+      assertThat(scriptStat(redis, sha)).contains("calls=2,").contains("memoized_calls=0");
+   }
+
+   public void testKeylessCommandNotMemoized() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      String sha = redis.scriptLoad("return redis.call('time')[1]");
+
+      redis.evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[0]);
+      redis.evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[0]);
+      assertThat(scriptStat(redis, sha)).contains("calls=2,").contains("memoized_calls=0");
+   }
+
+   public void testExpiringKeyNotMemoized() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.setex(k(), 100, "v1");
+      String sha = redis.scriptLoad("return redis.call('get', KEYS[1]) -- expiring");
+
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v1");
+      assertThat(redis.<String>evalshaReadOnly(sha, ScriptOutputType.VALUE, new String[]{k()})).isEqualTo("v1");
+      assertThat(scriptStat(redis, sha)).contains("calls=2,").contains("memoized_calls=0");
+   }
+
+   public void testCompiledScriptSharedByConnections() throws Exception {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      String sha = redis.scriptLoad("return ARGV[1] .. '-' .. #KEYS");
+      String key = k();
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+         StatefulRedisConnection<String, String> connection = newConnection();
+         String arg = "a" + i;
+         futures.add(CompletableFuture.runAsync(() -> {
+            for (int j = 0; j < 20; j++) {
+               assertThat(connection.sync().<String>evalsha(sha, ScriptOutputType.VALUE, new String[]{key}, arg))
+                     .isEqualTo(arg + "-1");
+            }
+         }, testExecutor()));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+      assertThat(scriptStat(redis, sha)).contains("calls=160,");
+      assertThat(redis.info("memory")).doesNotContain("number_of_cached_scripts:0\r\n");
+   }
+
+   private static String scriptStat(RedisCommands<String, String> redis, String sha) {
+      String prefix = "scriptstat_" + sha.toLowerCase() + ":";
+      for (String line : redis.info("scriptstats").split("\r\n")) {
+         if (line.startsWith(prefix)) {
+            return line.substring(prefix.length());
+         }
+      }
+      throw new AssertionError("No statistics for script " + sha);
+   }
+}
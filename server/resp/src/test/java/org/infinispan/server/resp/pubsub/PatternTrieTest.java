@@ -0,0 +1,72 @@
+package org.infinispan.server.resp.pubsub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "server.resp.pubsub.PatternTrieTest")
+public class PatternTrieTest extends AbstractInfinispanTest {
+
+   public void testMatch() {
+      PatternTrie<String> trie = new PatternTrie<>();
+      assertThat(trie.add(bytes("news.*"), "a")).isTrue();
+      assertThat(trie.add(bytes("news.*"), "b")).isTrue();
+      assertThat(trie.add(bytes("news.*"), "a")).isFalse();
+      assertThat(trie.add(bytes("*.sport"), "a")).isTrue();
+      assertThat(trie.add(bytes("news.sport"), "c")).isTrue();
+      assertThat(trie.add(bytes("news.?port"), "c")).isTrue();
+      assertThat(trie.add(bytes("news\\*"), "c")).isTrue();
+      assertThat(trie.add(bytes("weather.[ab]*"), "c")).isTrue();
+      assertThat(trie.size()).isEqualTo(6);
+
+      assertThat(matches(trie, "news.sport")).containsOnly(
+            Map.entry("news.*", Set.of("a", "b")),
+            Map.entry("*.sport", Set.of("a")),
+            Map.entry("news.sport", Set.of("c")),
+            Map.entry("news.?port", Set.of("c")));
+      assertThat(matches(trie, "news")).isEmpty();
+      assertThat(matches(trie, "news*")).containsOnly(Map.entry("news\\*", Set.of("c")));
+      assertThat(matches(trie, "weather.b")).containsOnly(Map.entry("weather.[ab]*", Set.of("c")));
+      assertThat(matches(trie, "weather.c")).isEmpty();
+   }
+
+   public void testRemove() {
+      PatternTrie<String> trie = new PatternTrie<>();
+      trie.add(bytes("news.*"), "a");
+      trie.add(bytes("news.*"), "b");
+      trie.add(bytes("news.sport.*"), "a");
+
+      assertThat(trie.remove(bytes("news.*"), "c")).isFalse();
+      assertThat(trie.remove(bytes("other.*"), "a")).isFalse();
+      assertThat(trie.remove(bytes("news.*"), "a")).isTrue();
+      assertThat(trie.size()).isEqualTo(2);
+      assertThat(matches(trie, "news.sport.today")).containsOnly(
+            Map.entry("news.*", Set.of("b")),
+            Map.entry("news.sport.*", Set.of("a")));
+
+      assertThat(trie.remove(bytes("news.*"), "b")).isTrue();
+      assertThat(trie.remove(bytes("news.sport.*"), "a")).isTrue();
+      assertThat(trie.size()).isZero();
+      assertThat(matches(trie, "news.sport.today")).isEmpty();
+
+      // The nodes are pruned and created again
+      assertThat(trie.add(bytes("news.*"), "a")).isTrue();
+      assertThat(matches(trie, "news.today")).containsOnly(Map.entry("news.*", Set.of("a")));
+   }
+
+   private static Map<String, Set<String>> matches(PatternTrie<String> trie, String channel) {
+      List<Map.Entry<byte[], Set<String>>> matches = trie.match(bytes(channel));
+      return matches.stream().collect(Collectors.toMap(e -> new String(e.getKey(), StandardCharsets.US_ASCII), e -> Set.copyOf(e.getValue())));
+   }
+
+   private static byte[] bytes(String s) {
+      return s.getBytes(StandardCharsets.US_ASCII);
+   }
+}
@@ -0,0 +1,101 @@
+package org.infinispan.server.resp.pubsub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Measures the messages published per second on a node with 10k subscribers, when all of them are subscribed to the
+ * published channel and when each of them has its own channel and pattern.
+ *
+ * @since 16.2
+ */
+@Test(groups = "profiling", testName = "server.resp.pubsub.PubSubFanOutProfilingTest")
+public class PubSubFanOutProfilingTest extends AbstractInfinispanTest {
+
+   private static final int NUM_SUBSCRIBERS = 10_000;
+   private static final byte[] MESSAGE = "a message of a few dozen bytes".getBytes(StandardCharsets.US_ASCII);
+
+   private PubSubRegistry registry;
+   private List<EmbeddedChannel> subscribers;
+
+   @BeforeMethod
+   public void createSubscribers() {
+      registry = new PubSubRegistry(null, "profiling");
+      subscribers = new ArrayList<>(NUM_SUBSCRIBERS);
+      for (int i = 0; i < NUM_SUBSCRIBERS; i++) {
+         // Releases the messages instead of sending them
+         subscribers.add(new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+               ReferenceCountUtil.release(msg);
+            }
+         }));
+      }
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void closeSubscribers() {
+      subscribers.forEach(EmbeddedChannel::finishAndReleaseAll);
+   }
+
+   public void testSingleChannel() {
+      byte[] channel = bytes("news");
+      for (EmbeddedChannel subscriber : subscribers) {
+         registry.subscribe(channel, subscriber);
+      }
+      assertThat(registry.deliver(channel, MESSAGE)).isEqualTo(NUM_SUBSCRIBERS);
+
+      int messages = 1_000;
+      long start = System.nanoTime();
+      for (int i = 0; i < messages; i++) {
+         registry.deliver(channel, MESSAGE);
+      }
+      report("testSingleChannel", messages, System.nanoTime() - start);
+   }
+
+   public void testChannelAndPatternPerSubscriber() {
+      for (int i = 0; i < NUM_SUBSCRIBERS; i++) {
+         registry.subscribe(bytes("user." + i), subscribers.get(i));
+         registry.psubscribe(bytes("user." + i + ".*"), subscribers.get(i));
+      }
+      assertThat(registry.deliver(bytes("user.42"), MESSAGE)).isEqualTo(1);
+      assertThat(registry.deliver(bytes("user.42.inbox"), MESSAGE)).isEqualTo(1);
+
+      int messages = 1_000_000;
+      byte[][] channels = new byte[1024][];
+      for (int i = 0; i < channels.length; i++) {
+         int user = ThreadLocalRandom.current().nextInt(NUM_SUBSCRIBERS);
+         channels[i] = bytes(i % 2 == 0 ? "user." + user : "user." + user + ".inbox");
+      }
+      long start = System.nanoTime();
+      for (int i = 0; i < messages; i++) {
+         registry.deliver(channels[i % channels.length], MESSAGE);
+      }
+      report("testChannelAndPatternPerSubscriber", messages, System.nanoTime() - start);
+   }
+
+   private void report(String test, int messages, long nanos) {
+      log.infof("PubSubFanOutProfilingTest.%s %d subscribers: %d messages/s", test, NUM_SUBSCRIBERS,
+            (long) messages * TimeUnit.SECONDS.toNanos(1) / nanos);
+   }
+
+   private static byte[] bytes(String s) {
+      return s.getBytes(StandardCharsets.US_ASCII);
+   }
+}
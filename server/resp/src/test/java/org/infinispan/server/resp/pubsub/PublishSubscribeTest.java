@@ -156,6 +156,7 @@ public void testDifferentConnectionsCounting() throws Exception {
    @Test(dataProvider = "booleans")
    public void testPubSubUnsubscribe(boolean quit) throws InterruptedException {
       int listenersBefore = getListeners(cache).size();
+      int channelsBefore = server.pubSubRegistry().channels(null).size();
 
       RedisPubSubCommands<String, String> connection = createPubSubConnection();
       BlockingQueue<String> handOffQueue = addPubSubListener(connection);
@@ -164,17 +165,17 @@ public void testPubSubUnsubscribe(boolean quit) throws InterruptedException {
       connection.subscribe("channel2", "test");
       assertSubscription(handOffQueue, "channel2", "test");
 
-      // 2 listeners, one for each sub above
-      assertThat(getListeners(cache)).hasSize(listenersBefore + 2);
+      // The subscriptions are kept by the server, without any cache listener
+      assertThat(server.pubSubRegistry().channels(null)).hasSize(channelsBefore + 2);
+      assertThat(getListeners(cache)).hasSize(listenersBefore);
       // Unsubscribe to all channels
       if (quit) {
          // Originally wanted to use reset or quit, but they don't do what we expect from
          // lettuce
          connection.getStatefulConnection().close();
 
-         // Have to use eventually as they are removed asynchronously
-         eventually(() -> getListeners(cache).size() == listenersBefore);
-         assertThat(getListeners(cache)).hasSize(listenersBefore);
+         // Have to use eventually as they are removed when the disconnection is handled
+         eventually(() -> server.pubSubRegistry().channels(null).size() == channelsBefore);
 
          assertThat(handOffQueue).isEmpty();
       } else {
@@ -190,7 +191,7 @@ public void testPubSubUnsubscribe(boolean quit) throws InterruptedException {
             }
          }
 
-         assertThat(getListeners(cache)).hasSize(listenersBefore);
+         assertThat(server.pubSubRegistry().channels(null)).hasSize(channelsBefore);
          assertThat(connection.ping()).isEqualTo(PONG);
       }
    }
@@ -387,13 +388,13 @@ public void testPUnsubscribeWithoutArguments() throws InterruptedException {
       RedisPubSubCommands<String, String> connection = createPubSubConnection();
       BlockingQueue<String> handOffQueue = addPubSubListener(connection);
 
-      int listenersBefore = getListeners(cache).size();
+      int patternsBefore = server.pubSubRegistry().numberOfPatterns();
 
       // Subscribe to multiple patterns
       connection.psubscribe("chan1.*", "chan2.*", "chan3.*");
       assertPSubscription(handOffQueue, "chan1.*", "chan2.*", "chan3.*");
 
-      assertThat(getListeners(cache)).hasSize(listenersBefore + 3);
+      assertThat(server.pubSubRegistry().numberOfPatterns()).isEqualTo(patternsBefore + 3);
 
       // Unsubscribe from all patterns without arguments
       connection.punsubscribe();
@@ -405,7 +406,7 @@ public void testPUnsubscribeWithoutArguments() throws InterruptedException {
          assertThat(value).startsWith("punsubscribed-");
       }
 
-      eventually(() -> getListeners(cache).size() == listenersBefore);
+      assertThat(server.pubSubRegistry().numberOfPatterns()).isEqualTo(patternsBefore);
 
       // Confirm no more messages are delivered
       RedisCommands<String, String> redis = redisConnection.sync();
@@ -534,6 +535,7 @@ public void testPSubscribeIdempotent() throws InterruptedException {
    @Test(dataProvider = "booleans")
    public void testPSubUnsubDisconnect(boolean quit) throws InterruptedException {
       int listenersBefore = getListeners(cache).size();
+      int patternsBefore = server.pubSubRegistry().numberOfPatterns();
 
       RedisPubSubCommands<String, String> connection = createPubSubConnection();
       BlockingQueue<String> handOffQueue = addPubSubListener(connection);
@@ -542,13 +544,13 @@ public void testPSubUnsubDisconnect(boolean quit) throws InterruptedException {
       connection.psubscribe("chan1.*", "chan2.*");
       assertPSubscription(handOffQueue, "chan1.*", "chan2.*");
 
-      assertThat(getListeners(cache)).hasSize(listenersBefore + 2);
+      assertThat(server.pubSubRegistry().numberOfPatterns()).isEqualTo(patternsBefore + 2);
+      assertThat(getListeners(cache)).hasSize(listenersBefore);
 
       if (quit) {
          connection.getStatefulConnection().close();
 
-         eventually(() -> getListeners(cache).size() == listenersBefore);
-         assertThat(getListeners(cache)).hasSize(listenersBefore);
+         eventually(() -> server.pubSubRegistry().numberOfPatterns() == patternsBefore);
       } else {
          connection.punsubscribe();
 
@@ -558,11 +560,46 @@ public void testPSubUnsubDisconnect(boolean quit) throws InterruptedException {
             assertThat(value).startsWith("punsubscribed-");
          }
 
-         eventually(() -> getListeners(cache).size() == listenersBefore);
+         assertThat(server.pubSubRegistry().numberOfPatterns()).isEqualTo(patternsBefore);
          assertThat(connection.ping()).isEqualTo(PONG);
       }
    }
 
+   @Test
+   public void testPublishReturnsSubscriptionsReached() throws InterruptedException {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(redis.publish("count.channel", "nobody")).isZero();
+
+      RedisPubSubCommands<String, String> client1 = createPubSubConnection();
+      BlockingQueue<String> queue1 = addPubSubListener(client1);
+
+      RedisPubSubCommands<String, String> client2 = createPubSubConnection();
+      BlockingQueue<String> queue2 = addPubSubListener(client2);
+
+      client1.subscribe("count.channel");
+      assertSubscription(queue1, "count.channel");
+      client2.subscribe("count.channel");
+      assertSubscription(queue2, "count.channel");
+      client2.psubscribe("count.*", "*.channel", "other.*");
+      assertPSubscription(queue2, 2, "count.*", "*.channel", "other.*");
+
+      // Each subscription matching the channel receives the message once
+      assertThat(redis.publish("count.channel", "hello")).isEqualTo(4);
+      assertThat(queue1.poll(10, TimeUnit.SECONDS)).isEqualTo("message-count.channel-hello");
+      assertThat(new String[] { queue2.poll(10, TimeUnit.SECONDS), queue2.poll(10, TimeUnit.SECONDS), queue2.poll(10, TimeUnit.SECONDS) })
+            .containsExactlyInAnyOrder(
+                  "message-count.channel-hello",
+                  "pmessage-count.*-count.channel-hello",
+                  "pmessage-*.channel-count.channel-hello");
+
+      assertThat(redis.publish("count.other", "hi")).isEqualTo(1);
+      assertThat(queue2.poll(10, TimeUnit.SECONDS)).isEqualTo("pmessage-count.*-count.other-hi");
+
+      client1.unsubscribe("count.channel");
+      client2.unsubscribe("count.channel");
+      client2.punsubscribe("count.*", "*.channel", "other.*");
+   }
+
    protected RedisPubSubCommands<String, String> createPubSubConnection() {
       return client.connectPubSub().sync();
    }
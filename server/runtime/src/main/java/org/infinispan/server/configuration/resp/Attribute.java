@@ -12,6 +12,8 @@ public enum Attribute {
 
    CACHE,
    NAME,
+   PIPELINE_CONCURRENCY,
+   SCRIPT_RESULT_CACHE_SIZE,
    SECURITY_REALM,
    SOCKET_BINDING;
 
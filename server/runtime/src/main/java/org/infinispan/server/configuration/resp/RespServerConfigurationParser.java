@@ -84,6 +84,14 @@ private void parseResp(ConfigurationReader reader, ServerConfigurationBuilder se
                builder.name(value);
                break;
             }
+            case PIPELINE_CONCURRENCY: {
+               builder.pipelineConcurrency(Integer.parseInt(value));
+               break;
+            }
+            case SCRIPT_RESULT_CACHE_SIZE: {
+               builder.scriptResultCacheSize(Integer.parseInt(value));
+               break;
+            }
             case SOCKET_BINDING: {
                builder.socketBinding(value);
                builder.startTransport(true);